@@ -23,10 +23,10 @@ import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ListMultimap;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.amber.AmberBAF;
 import com.hartwig.hmftools.common.amber.AmberSite;
 import com.hartwig.hmftools.common.amber.AmberSitesFile;
@@ -47,7 +47,7 @@ public class AmberApplication implements AutoCloseable
 
     private ResultsWriter mPersistence;
     private VersionInfo mVersionInfo;
-    private ImmutableListMultimap<Chromosome,AmberSite> mChromosomeSites;
+    private Map<Chromosome,List<AmberSite>> mChromosomeSites;
 
     public AmberApplication(final ConfigBuilder configBuilder)
     {
@@ -88,14 +88,15 @@ public class AmberApplication implements AutoCloseable
         return 0;
     }
 
-    private ImmutableListMultimap<Chromosome,AmberSite> loadAmberSites() throws IOException
+    // sites from a binary file are views onto the mapped file, so are not all held in memory
+    private Map<Chromosome,List<AmberSite>> loadAmberSites() throws IOException
     {
-        ListMultimap<Chromosome,AmberSite> amberSitesMap = AmberSitesFile.sites(mConfig.BafLociPath);
+        Map<Chromosome,List<AmberSite>> amberSitesMap = AmberSitesFile.chromosomeSites(mConfig.BafLociPath);
 
         if(mConfig.TargetRegionsBed == null)
-            return ImmutableListMultimap.copyOf(amberSitesMap);
+            return Collections.unmodifiableMap(amberSitesMap);
 
-        ListMultimap<Chromosome,AmberSite> targetRegionSites = ArrayListMultimap.create();
+        Map<Chromosome,List<AmberSite>> targetRegionSites = Maps.newLinkedHashMap();
 
         try
         {
@@ -135,12 +136,12 @@ public class AmberApplication implements AutoCloseable
                     if(amberSite.position() >= currentRegion.start() - TARGET_REGION_SITE_BUFFER
                     && amberSite.position() <= currentRegion.end() + TARGET_REGION_SITE_BUFFER)
                     {
-                        targetRegionSites.put(chromosome, amberSite);
+                        targetRegionSites.computeIfAbsent(chromosome, k -> Lists.newArrayList()).add(amberSite);
                     }
                 }
             }
 
-            return ImmutableListMultimap.copyOf(targetRegionSites);
+            return Collections.unmodifiableMap(targetRegionSites);
         }
         catch(Exception e)
         {
@@ -148,7 +149,7 @@ public class AmberApplication implements AutoCloseable
             System.exit(1);
         }
 
-        return ImmutableListMultimap.copyOf(targetRegionSites);
+        return Collections.unmodifiableMap(targetRegionSites);
     }
 
     private void runGermlineOnly() throws InterruptedException, IOException
@@ -178,10 +179,26 @@ public class AmberApplication implements AutoCloseable
     {
         final SamReaderFactory readerFactory = readerFactory(mConfig);
 
-        GermlineAnalysis germline = new GermlineAnalysis(mConfig, readerFactory, mChromosomeSites);
+        GermlineAnalysis germline;
+        TumorAnalysis tumor;
 
-        TumorAnalysis tumor = new TumorAnalysis(mConfig, readerFactory,
-                germline.getHeterozygousLoci(), germline.getHomozygousLoci());
+        if(mConfig.JointScan && mConfig.ReferenceBams.size() == 1)
+        {
+            JointEvidenceReader jointEvidence = new JointEvidenceReader(mConfig, mChromosomeSites);
+            jointEvidence.processBams(readerFactory);
+
+            germline = new GermlineAnalysis(mConfig, mChromosomeSites, jointEvidence);
+
+            tumor = new TumorAnalysis(mConfig, jointEvidence,
+                    germline.getHeterozygousLoci(), germline.getHomozygousLoci());
+        }
+        else
+        {
+            germline = new GermlineAnalysis(mConfig, readerFactory, mChromosomeSites);
+
+            tumor = new TumorAnalysis(mConfig, readerFactory,
+                    germline.getHeterozygousLoci(), germline.getHomozygousLoci());
+        }
 
         final List<TumorBAF> tumorBAFList = tumor.getBafs().values().stream()
                 .filter(x -> x.TumorEvidence.ReadDepth >= mConfig.TumorMinDepth)
@@ -237,25 +254,28 @@ public class AmberApplication implements AutoCloseable
         int numBlackListed = 0;
 
         // filter out everything in loaded genome positions that are in these regions
-        for(Map.Entry<Chromosome,AmberSite> entry : mChromosomeSites.entries())
+        for(Map.Entry<Chromosome,List<AmberSite>> entry : mChromosomeSites.entrySet())
         {
-            // check against black list
-            boolean blacklisted = false;
-            for(GenomeRegion gr : excludedRegions)
+            for(AmberSite amberSite : entry.getValue())
             {
-                if(gr.contains(entry.getValue()))
+                // check against black list
+                boolean blacklisted = false;
+                for(GenomeRegion gr : excludedRegions)
                 {
-                    blacklisted = true;
-                    break;
+                    if(gr.contains(amberSite))
+                    {
+                        blacklisted = true;
+                        break;
+                    }
+                }
+                if(blacklisted)
+                {
+                    numBlackListed++;
+                }
+                else
+                {
+                    result.put(entry.getKey(), PositionEvidenceChecker.fromAmberSite(amberSite));
                 }
-            }
-            if(blacklisted)
-            {
-                numBlackListed++;
-            }
-            else
-            {
-                result.put(entry.getKey(), PositionEvidenceChecker.fromAmberSite(entry.getValue()));
             }
         }
 
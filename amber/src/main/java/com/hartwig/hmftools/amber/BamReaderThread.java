@@ -8,27 +8,39 @@ import java.util.NoSuchElementException;
 import java.util.Queue;
 
 import com.hartwig.hmftools.common.bam.BamSlicer;
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
 import com.hartwig.hmftools.common.utils.PerformanceCounter;
 
+import org.jetbrains.annotations.Nullable;
+
 import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SamReader;
 import htsjdk.samtools.SamReaderFactory;
 
 public class BamReaderThread extends Thread
 {
-    private final Queue<RegionTask> mTaskQueue;
+    private final Queue<? extends BamRegionTask> mTaskQueue;
     private final SamReader mSamReader;
+    @Nullable private final SamReader mTumorSamReader; // set when each region is read from the reference and then the tumor BAM
     private final BamSlicer mBamSlicer;
-    private RegionTask mCurrentTask;
+    private BamRegionTask mCurrentTask;
 
     private final PerformanceCounter mPerfCounter;
 
     public BamReaderThread(
             final String bamFile, final SamReaderFactory samReaderFactory, final Queue<RegionTask> inTaskQueue,
             int minMappingQuality)
+    {
+        this(bamFile, null, samReaderFactory, inTaskQueue, minMappingQuality);
+    }
+
+    public BamReaderThread(
+            final String bamFile, @Nullable final String tumorBamFile, final SamReaderFactory samReaderFactory,
+            final Queue<? extends BamRegionTask> inTaskQueue, int minMappingQuality)
     {
         mTaskQueue = inTaskQueue;
         mSamReader = samReaderFactory.open(new File(bamFile));
+        mTumorSamReader = tumorBamFile != null ? samReaderFactory.open(new File(tumorBamFile)) : null;
         mBamSlicer = new BamSlicer(minMappingQuality, false, false, false);
         mCurrentTask = null;
         mPerfCounter = new PerformanceCounter("Reads");
@@ -41,7 +53,7 @@ public class BamReaderThread extends Thread
 
         while(true)
         {
-            RegionTask task;
+            BamRegionTask task;
             try
             {
                 task = mTaskQueue.remove();
@@ -54,13 +66,25 @@ public class BamReaderThread extends Thread
             }
 
             mPerfCounter.start();
-            mBamSlicer.slice(mSamReader, task.Region, this::processRecord);
+            mBamSlicer.slice(mSamReader, task.region(), this::processRecord);
+
+            if(mTumorSamReader != null)
+            {
+                ChrBaseRegion tumorRegion = task.selectTumorSites();
+
+                if(tumorRegion != null)
+                    mBamSlicer.slice(mTumorSamReader, tumorRegion, this::processRecord);
+            }
+
             mPerfCounter.stop();
         }
 
         try
         {
             mSamReader.close();
+
+            if(mTumorSamReader != null)
+                mTumorSamReader.close();
         }
         catch(IOException e)
         {
@@ -0,0 +1,21 @@
+package com.hartwig.hmftools.amber;
+
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.SAMRecord;
+
+// a cluster of sites whose evidence is collected by a BAM reader thread
+public interface BamRegionTask
+{
+    ChrBaseRegion region();
+
+    void processRecord(final SAMRecord record);
+
+    boolean isComplete();
+
+    // for tasks which go on to read the tumor BAM, the region covering the sites requiring tumor evidence, or null if there are none
+    @Nullable
+    default ChrBaseRegion selectTumorSites() { return null; }
+}
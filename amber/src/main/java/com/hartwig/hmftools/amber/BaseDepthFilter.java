@@ -2,7 +2,9 @@ package com.hartwig.hmftools.amber;
 
 import static com.hartwig.hmftools.amber.AmberConfig.AMB_LOGGER;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.function.IntSupplier;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -22,6 +24,17 @@ public class BaseDepthFilter implements Predicate<PositionEvidence>
     }
 
     public BaseDepthFilter(double minDepthPercentage, double maxDepthPercentage, final Collection<PositionEvidence> evidence)
+    {
+        this(minDepthPercentage, maxDepthPercentage, () -> medianDepth(evidence));
+    }
+
+    public static BaseDepthFilter fromColumns(
+            double minDepthPercentage, double maxDepthPercentage, final Collection<SiteEvidenceColumns> evidence)
+    {
+        return new BaseDepthFilter(minDepthPercentage, maxDepthPercentage, () -> columnsMedianDepth(evidence));
+    }
+
+    private BaseDepthFilter(double minDepthPercentage, double maxDepthPercentage, final IntSupplier medianDepthSupplier)
     {
         if(minDepthPercentage == 0 && maxDepthPercentage == 0)
         {
@@ -30,7 +43,7 @@ public class BaseDepthFilter implements Predicate<PositionEvidence>
             return;
         }
 
-        int medianDepth = medianDepth(evidence);
+        int medianDepth = medianDepthSupplier.getAsInt();
         mMinDepth = (int) Math.round(medianDepth * minDepthPercentage);
         mMaxDepth = (int) Math.round(medianDepth * maxDepthPercentage);
 
@@ -39,15 +52,32 @@ public class BaseDepthFilter implements Predicate<PositionEvidence>
 
     @Override
     public boolean test(final PositionEvidence bafEvidence)
+    {
+        return test(bafEvidence.ReadDepth);
+    }
+
+    public boolean test(int readDepth)
     {
         if(mMinDepth == 0 && mMaxDepth == 0)
             return true;
 
-        return bafEvidence.ReadDepth > 0 && bafEvidence.ReadDepth >= mMinDepth && bafEvidence.ReadDepth <= mMaxDepth;
+        return readDepth > 0 && readDepth >= mMinDepth && readDepth <= mMaxDepth;
     }
 
-    private int medianDepth(final Collection<PositionEvidence> evidence)
+    private static int medianDepth(final Collection<PositionEvidence> evidence)
     {
         return Integers.medianPositiveValue(evidence.stream().map(x -> x.ReadDepth).collect(Collectors.toList()));
     }
+
+    private static int columnsMedianDepth(final Collection<SiteEvidenceColumns> evidence)
+    {
+        int[] depths = evidence.stream().flatMapToInt(x -> Arrays.stream(x.ReadDepth)).filter(x -> x > 0).sorted().toArray();
+
+        int count = depths.length;
+
+        if(count == 0)
+            return 0;
+
+        return count % 2 == 0 ? (depths[count / 2] + depths[count / 2 - 1]) / 2 : depths[count / 2];
+    }
 }
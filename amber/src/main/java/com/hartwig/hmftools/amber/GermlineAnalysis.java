@@ -2,6 +2,8 @@ package com.hartwig.hmftools.amber;
 
 import static java.util.stream.Collectors.toList;
 
+import static com.google.common.collect.Multimaps.asMap;
+
 import static com.hartwig.hmftools.amber.AmberConfig.AMB_LOGGER;
 import static com.hartwig.hmftools.amber.PositionEvidenceChecker.fromAmberSite;
 import static com.hartwig.hmftools.common.utils.collection.Multimaps.filterEntries;
@@ -17,6 +19,7 @@ import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.NormalHeterozygousCheck;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 
 import org.jetbrains.annotations.Nullable;
@@ -36,7 +39,7 @@ public class GermlineAnalysis
     @Nullable private final Chromosome mUniparentalDisomy;
 
     public GermlineAnalysis(
-            final AmberConfig config, SamReaderFactory readerFactory, ListMultimap<Chromosome,AmberSite> chrAmberSites)
+            final AmberConfig config, SamReaderFactory readerFactory, Map<Chromosome,List<AmberSite>> chrAmberSites)
             throws InterruptedException, IOException
     {
         mConfig = config;
@@ -62,7 +65,7 @@ public class GermlineAnalysis
         {
             final String sample = mConfig.ReferenceIds.get(i);
             final String sampleBam = mConfig.ReferenceBams.get(i);
-            final Collection<PositionEvidence> additional = germlineDepth(readerFactory, sampleBam, mHetNormalEvidence.intersection()).values();
+            final Collection<PositionEvidence> additional = germlineDepth(readerFactory, sampleBam, asMap(mHetNormalEvidence.intersection())).values();
             final Predicate<PositionEvidence> filter = new BaseDepthFilter(mConfig.MinDepthPercent, mConfig.MaxDepthPercent, additional);
             final Collection<PositionEvidence> additionalHetNormal = additional.stream().filter(filter.and(heterozygousFilter)).collect(toList());
             mHetNormalEvidence.add(sample, additionalHetNormal);
@@ -82,6 +85,75 @@ public class GermlineAnalysis
         mUniparentalDisomy = ConsanguinityAnalyser.findUniparentalDisomy(mRegionsOfHomozygosity);
     }
 
+    // uses the reference evidence collected by a joint tumor/normal scan, reading its columns directly and only creating
+    // evidence for the sites which are kept
+    public GermlineAnalysis(
+            final AmberConfig config, Map<Chromosome,List<AmberSite>> chrAmberSites, final JointEvidenceReader jointEvidence)
+            throws IOException
+    {
+        mConfig = config;
+
+        Map<Chromosome,SiteEvidenceColumns> unfilteredLoci = jointEvidence.normalEvidence();
+
+        BaseDepthFilter depthFilter = BaseDepthFilter.fromColumns(mConfig.MinDepthPercent, mConfig.MaxDepthPercent, unfilteredLoci.values());
+        NormalHeterozygousCheck hetCheck = new NormalHeterozygousCheck(mConfig.MinHetAfPercent, mConfig.MaxHetAfPercent);
+
+        mHetNormalEvidence = new HetNormalEvidence();
+        mSnpCheckedLoci = ArrayListMultimap.create();
+        mHomozygousLoci = ArrayListMultimap.create();
+        ListMultimap<Chromosome,PositionEvidence> primaryHeterozygousLoci = ArrayListMultimap.create();
+        ListMultimap<Chromosome,PositionEvidence> allLoci = mConfig.WriteUnfilteredGermline ? ArrayListMultimap.create() : null;
+
+        for(Map.Entry<Chromosome,SiteEvidenceColumns> entry : unfilteredLoci.entrySet())
+        {
+            Chromosome chromosome = entry.getKey();
+            SiteEvidenceColumns normal = entry.getValue();
+            List<AmberSite> sites = chrAmberSites.get(chromosome);
+
+            for(int i = 0; i < normal.size(); ++i)
+            {
+                boolean snpCheck = sites.get(i).snpCheck();
+                boolean validDepth = normal.isValid(i) && depthFilter.test(normal.ReadDepth[i]);
+                boolean homozygous = validDepth && normal.AltSupport[i] == 0;
+
+                boolean heterozygous = validDepth
+                        && hetCheck.test(normal.ReadDepth[i], normal.RefSupport[i], normal.AltSupport[i], normal.IndelCount[i]);
+
+                if(!snpCheck && !homozygous && !heterozygous && allLoci == null)
+                    continue;
+
+                PositionEvidence posEvidence = normal.toPositionEvidence(i);
+
+                if(snpCheck)
+                    mSnpCheckedLoci.put(chromosome, posEvidence);
+
+                if(homozygous)
+                    mHomozygousLoci.put(chromosome, posEvidence);
+
+                if(heterozygous)
+                    primaryHeterozygousLoci.put(chromosome, posEvidence);
+
+                if(allLoci != null)
+                    allLoci.put(chromosome, posEvidence);
+            }
+        }
+
+        mHetNormalEvidence.add(mConfig.primaryReference(), primaryHeterozygousLoci.values());
+
+        if(allLoci != null)
+            mHeterozygousLoci = allLoci;
+        else
+            mHeterozygousLoci = filterEntries(primaryHeterozygousLoci, mHetNormalEvidence.intersectionFilter());
+
+        AMB_LOGGER.info("{} heterozygous, {} homozygous in reference bams", mHeterozygousLoci.size(), mHomozygousLoci.size());
+
+        RegionOfHomozygosityFinder rohFinder = new RegionOfHomozygosityFinder(mConfig.RefGenVersion, mConfig.MinDepthPercent, mConfig.MaxDepthPercent);
+        mRegionsOfHomozygosity = rohFinder.findRegions(unfilteredLoci);
+
+        mConsanguinityProportion = ConsanguinityAnalyser.calcConsanguinityProportion(mRegionsOfHomozygosity);
+        mUniparentalDisomy = ConsanguinityAnalyser.findUniparentalDisomy(mRegionsOfHomozygosity);
+    }
+
     public ListMultimap<Chromosome,PositionEvidence> getSnpCheckedLoci() { return mSnpCheckedLoci; }
     public ListMultimap<Chromosome,PositionEvidence> getHomozygousLoci() { return mHomozygousLoci; }
     public ListMultimap<Chromosome,PositionEvidence> getHeterozygousLoci() { return mHeterozygousLoci; }
@@ -94,25 +166,21 @@ public class GermlineAnalysis
 
     private ListMultimap<Chromosome, PositionEvidence> germlineDepth(
             final SamReaderFactory readerFactory, final String bamPath,
-            final ListMultimap<Chromosome,AmberSite> chrAmberSites) throws InterruptedException
+            final Map<Chromosome,List<AmberSite>> chrAmberSites) throws InterruptedException
     {
-        AMB_LOGGER.info("processing {} Amber sites in reference bam({})", chrAmberSites.values().size(), bamPath);
+        AMB_LOGGER.info("processing {} Amber sites in reference bam({})",
+                chrAmberSites.values().stream().mapToInt(List::size).sum(), bamPath);
 
         Map<Chromosome,List<PositionEvidence>> chrPositionEvidence = Maps.newHashMap();
 
-        for(Map.Entry<Chromosome,AmberSite> entry : chrAmberSites.entries())
+        for(Map.Entry<Chromosome,List<AmberSite>> entry : chrAmberSites.entrySet())
         {
-            Chromosome chromosome = entry.getKey();
-
-            List<PositionEvidence> positions = chrPositionEvidence.get(chromosome);
-
-            if(positions == null)
-            {
-                positions = Lists.newArrayList();
-                chrPositionEvidence.put(chromosome, positions);
-            }
+            if(entry.getValue().isEmpty())
+                continue;
 
-            positions.add(fromAmberSite(entry.getValue()));
+            List<PositionEvidence> positions = Lists.newArrayListWithCapacity(entry.getValue().size());
+            entry.getValue().forEach(x -> positions.add(fromAmberSite(x)));
+            chrPositionEvidence.put(entry.getKey(), positions);
         }
 
         BamEvidenceReader bamEvidenceReader = new BamEvidenceReader(mConfig);
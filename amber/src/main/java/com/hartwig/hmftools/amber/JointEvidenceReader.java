@@ -0,0 +1,147 @@
+package com.hartwig.hmftools.amber;
+
+import static java.lang.Math.max;
+import static java.lang.String.format;
+
+import static com.hartwig.hmftools.amber.AmberConfig.AMB_LOGGER;
+import static com.hartwig.hmftools.amber.AmberConstants.BAM_MIN_GAP_START;
+import static com.hartwig.hmftools.amber.AmberConstants.CRAM_MIN_GAP_START;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.NormalHeterozygousCheck;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.utils.PerformanceCounter;
+
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.SamReaderFactory;
+
+// collects reference and tumor evidence in a single scan over the site regions, instead of a full reference pass followed
+// by a tumor pass over the germline sites
+public class JointEvidenceReader
+{
+    private final AmberConfig mConfig;
+    private final PositionEvidenceChecker mEvidenceChecker;
+    private final Map<Chromosome,SiteEvidenceColumns> mNormalEvidence;
+    private final Map<Chromosome,SiteEvidenceColumns> mTumorEvidence;
+
+    public JointEvidenceReader(final AmberConfig config, final Map<Chromosome,List<AmberSite>> chrAmberSites)
+    {
+        mConfig = config;
+        mEvidenceChecker = new PositionEvidenceChecker(mConfig.MinBaseQuality);
+        mNormalEvidence = Maps.newLinkedHashMap();
+        mTumorEvidence = Maps.newHashMap();
+
+        for(Map.Entry<Chromosome,List<AmberSite>> entry : chrAmberSites.entrySet())
+        {
+            List<AmberSite> sites = entry.getValue();
+
+            if(sites.isEmpty())
+                continue;
+
+            SiteEvidenceColumns normal = new SiteEvidenceColumns(sites.get(0).chromosome(), sites);
+            mNormalEvidence.put(entry.getKey(), normal);
+            mTumorEvidence.put(entry.getKey(), normal.newSample());
+        }
+    }
+
+    public void processBams(final SamReaderFactory samReaderFactory) throws InterruptedException
+    {
+        String normalBam = mConfig.ReferenceBams.get(0);
+
+        AMB_LOGGER.info("processing {} Amber sites in reference bam({}) and tumor bam({})",
+                mNormalEvidence.values().stream().mapToInt(SiteEvidenceColumns::size).sum(), normalBam, mConfig.TumorBam);
+
+        final Queue<JointRegionTask> taskQueue = new ConcurrentLinkedQueue<>();
+
+        boolean limitRegions = normalBam.endsWith(".cram") || mConfig.TumorBam.endsWith(".cram");
+        populateTaskQueue(taskQueue, limitRegions);
+
+        List<BamReaderThread> bamReaders = new ArrayList<>();
+
+        for(int i = 0; i < max(mConfig.Threads, 1); ++i)
+        {
+            BamReaderThread thread = new BamReaderThread(
+                    normalBam, mConfig.TumorBam, samReaderFactory, taskQueue, mConfig.MinMappingQuality);
+
+            thread.setName(format("worker-%d", i));
+            thread.start();
+            bamReaders.add(thread);
+        }
+
+        ProgressTracker taskCompletion = new ProgressTracker(taskQueue.size());
+        for(BamReaderThread thread : bamReaders)
+        {
+            while(thread.isAlive())
+            {
+                // check status every 30 seconds
+                thread.join(30_000);
+
+                taskCompletion.progress(taskQueue.size());
+            }
+        }
+
+        if(AMB_LOGGER.isDebugEnabled())
+        {
+            PerformanceCounter combinedPc = new PerformanceCounter("Read");
+            bamReaders.forEach(x -> combinedPc.merge(x.perfCounter()));
+            combinedPc.logStats();
+        }
+    }
+
+    private void populateTaskQueue(final Queue<JointRegionTask> taskQueue, boolean limitRegions)
+    {
+        int minGap = mConfig.PositionGap > 0 ? mConfig.PositionGap : (limitRegions ? CRAM_MIN_GAP_START : BAM_MIN_GAP_START);
+
+        // with unfiltered germline output, tumor evidence is required for every site
+        NormalHeterozygousCheck hetCheck = mConfig.WriteUnfilteredGermline ?
+                null : new NormalHeterozygousCheck(mConfig.MinHetAfPercent, mConfig.MaxHetAfPercent);
+
+        List<JointRegionTask> tasks = Lists.newArrayList();
+
+        for(Map.Entry<Chromosome,SiteEvidenceColumns> entry : mNormalEvidence.entrySet())
+        {
+            String chromosome = mConfig.RefGenVersion.versionedChromosome(entry.getKey().toString());
+
+            if(!mConfig.SpecificChromosomes.isEmpty() && !mConfig.SpecificChromosomes.contains(chromosome))
+                continue;
+
+            SiteEvidenceColumns normal = entry.getValue();
+            SiteEvidenceColumns tumor = mTumorEvidence.get(entry.getKey());
+
+            JointRegionTask currentTask = new JointRegionTask(mEvidenceChecker, hetCheck, chromosome, normal, tumor, 0);
+            tasks.add(currentTask);
+
+            for(int i = 1; i < normal.size(); ++i)
+            {
+                if(currentTask.Region.end() + minGap < normal.Positions[i])
+                {
+                    currentTask = new JointRegionTask(mEvidenceChecker, hetCheck, chromosome, normal, tumor, i);
+                    tasks.add(currentTask);
+                }
+                else
+                {
+                    currentTask.addNextPosition();
+                }
+            }
+        }
+
+        AMB_LOGGER.debug("split sites across {} joint regions, minGap({})", tasks.size(), minGap);
+
+        taskQueue.addAll(tasks);
+    }
+
+    // per-chromosome reference evidence, with sites in the same order as the Amber sites the reader was created with
+    public Map<Chromosome,SiteEvidenceColumns> normalEvidence() { return mNormalEvidence; }
+
+    @Nullable
+    public SiteEvidenceColumns tumorEvidence(final Chromosome chromosome) { return mTumorEvidence.get(chromosome); }
+}
@@ -0,0 +1,168 @@
+package com.hartwig.hmftools.amber;
+
+import static java.lang.String.format;
+
+import com.hartwig.hmftools.common.amber.NormalHeterozygousCheck;
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.SAMRecord;
+
+// a cluster of sites read from the reference and then the tumor BAM, with tumor evidence only collected at sites which
+// the reference evidence leaves as potential heterozygous or homozygous sites
+public class JointRegionTask implements BamRegionTask
+{
+    private final PositionEvidenceChecker mEvidenceChecker;
+    private final NormalHeterozygousCheck mHetCheck; // null if tumor evidence is required at all sites
+    private final SiteEvidenceColumns mNormal;
+    private final SiteEvidenceColumns mTumor;
+    public final ChrBaseRegion Region;
+
+    private final int mStartIndex;
+    private int mEndIndex; // exclusive
+
+    private boolean[] mTumorSites;
+    private int mTumorStartIndex;
+    private int mTumorEndIndex;
+
+    private int mCurrentIndex;
+    private boolean mComplete;
+
+    public JointRegionTask(
+            final PositionEvidenceChecker evidenceChecker, @Nullable final NormalHeterozygousCheck hetCheck, final String chromosome,
+            final SiteEvidenceColumns normal, final SiteEvidenceColumns tumor, int startIndex)
+    {
+        mEvidenceChecker = evidenceChecker;
+        mHetCheck = hetCheck;
+        mNormal = normal;
+        mTumor = tumor;
+        Region = new ChrBaseRegion(chromosome, normal.Positions[startIndex], normal.Positions[startIndex]);
+        mStartIndex = startIndex;
+        mEndIndex = startIndex + 1;
+        mTumorSites = null;
+        mTumorStartIndex = 0;
+        mTumorEndIndex = 0;
+        mCurrentIndex = startIndex;
+        mComplete = false;
+    }
+
+    public void addNextPosition()
+    {
+        Region.setEnd(Math.max(Region.end(), mNormal.Positions[mEndIndex]));
+        ++mEndIndex;
+    }
+
+    @Override
+    public ChrBaseRegion region() { return Region; }
+
+    // reference records are read until the tumor sites are selected
+    @Override
+    public void processRecord(final SAMRecord record)
+    {
+        if(mTumorSites == null)
+            processNormalRecord(record);
+        else
+            processTumorRecord(record);
+    }
+
+    public void processNormalRecord(final SAMRecord record)
+    {
+        addEvidence(record, mNormal, mEndIndex);
+    }
+
+    // marks the sites requiring tumor evidence and returns the region covering them, or null if there are none
+    @Override
+    @Nullable
+    public ChrBaseRegion selectTumorSites()
+    {
+        mTumorSites = new boolean[mEndIndex - mStartIndex];
+        mTumorStartIndex = -1;
+
+        for(int index = mStartIndex; index < mEndIndex; ++index)
+        {
+            if(!requiresTumorEvidence(index))
+                continue;
+
+            mTumorSites[index - mStartIndex] = true;
+
+            if(mTumorStartIndex < 0)
+                mTumorStartIndex = index;
+
+            mTumorEndIndex = index + 1;
+        }
+
+        if(mTumorStartIndex < 0)
+            return null;
+
+        mCurrentIndex = mTumorStartIndex;
+        mComplete = false;
+
+        return new ChrBaseRegion(Region.Chromosome, mNormal.Positions[mTumorStartIndex], mNormal.Positions[mTumorEndIndex - 1]);
+    }
+
+    private boolean requiresTumorEvidence(int index)
+    {
+        if(mHetCheck == null)
+            return true;
+
+        // only sites which can pass the homozygous or heterozygous filters, since depth filters apply genome-wide
+        if(!mNormal.isValid(index))
+            return false;
+
+        if(mNormal.AltSupport[index] == 0)
+            return true;
+
+        return mHetCheck.test(mNormal.ReadDepth[index], mNormal.RefSupport[index], mNormal.AltSupport[index], mNormal.IndelCount[index]);
+    }
+
+    public void processTumorRecord(final SAMRecord record)
+    {
+        addEvidence(record, mTumor, mTumorEndIndex);
+    }
+
+    private void addEvidence(final SAMRecord record, final SiteEvidenceColumns columns, int endIndex)
+    {
+        int alignmentStart = record.getAlignmentStart();
+        int alignmentEnd = record.getAlignmentEnd();
+
+        int index = mCurrentIndex;
+        for(; index < endIndex; ++index)
+        {
+            int position = columns.Positions[index];
+
+            if(alignmentStart > position)
+            {
+                ++mCurrentIndex;
+                continue;
+            }
+
+            if(alignmentEnd < position)
+                break;
+
+            if(mTumorSites != null && !mTumorSites[index - mStartIndex])
+                continue;
+
+            mEvidenceChecker.addEvidence(columns, index, record);
+        }
+
+        if(mCurrentIndex >= endIndex)
+            mComplete = true;
+    }
+
+    @Override
+    public boolean isComplete()
+    {
+        return mComplete;
+    }
+
+    public int positionCount()
+    {
+        return mEndIndex - mStartIndex;
+    }
+
+    public String toString()
+    {
+        return format("region(%s) positions(%d) index(%d)", Region, positionCount(), mCurrentIndex);
+    }
+}
@@ -47,6 +47,40 @@ public class PositionEvidenceChecker
         }
     }
 
+    public void addEvidence(final SiteEvidenceColumns columns, int index, final SAMRecord samRecord)
+    {
+        int bafPosition = columns.Positions[index];
+        int baseQuality = getBaseQuality(bafPosition, samRecord);
+
+        if(baseQuality < mMinBaseQuality)
+            return;
+
+        ++columns.ReadDepth[index];
+
+        int readPosition = samRecord.getReadPositionAtReferencePosition(bafPosition);
+        if(readPosition != 0)
+        {
+            if(!isIndel(bafPosition, readPosition, samRecord))
+            {
+                byte base = samRecord.getReadBases()[readPosition - 1];
+
+                if(base == columns.Refs[index])
+                {
+                    ++columns.RefSupport[index];
+                }
+                else if(base == columns.Alts[index])
+                {
+                    ++columns.AltSupport[index];
+                    columns.AltQuality[index] += baseQuality;
+                }
+            }
+            else
+            {
+                ++columns.IndelCount[index];
+            }
+        }
+    }
+
     public static boolean isIndel(int bafPosition, int readPosition, final SAMRecord samRecord)
     {
         if(samRecord.getAlignmentEnd() > bafPosition)
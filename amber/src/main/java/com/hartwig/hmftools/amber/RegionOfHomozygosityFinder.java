@@ -115,6 +115,37 @@ public class RegionOfHomozygosityFinder
         return homozygousRegions;
     }
 
+    public List<RegionOfHomozygosity> findRegions(final Map<Chromosome,SiteEvidenceColumns> baseDepths)
+    {
+        BaseDepthFilter depthFilter = BaseDepthFilter.fromColumns(mMinDepthPercent, mMaxDepthPercent, baseDepths.values());
+
+        List<RegionOfHomozygosity> homozygousRegions = new ArrayList<RegionOfHomozygosity>();
+
+        for(Map.Entry<Chromosome,SiteEvidenceColumns> entry : baseDepths.entrySet())
+        {
+            if(entry.getKey().isAllosome())
+                continue;
+
+            SiteEvidenceColumns columns = entry.getValue();
+            List<LocusZygosity> locusZygosityList = new ArrayList<>();
+
+            for(int i = 0; i < columns.size(); ++i)
+            {
+                if(!depthFilter.test(columns.ReadDepth[i]))
+                    continue;
+
+                locusZygosityList.add(new LocusZygosity(
+                        columns.Positions[i], calcZygosity(columns.ReadDepth[i], columns.RefSupport[i], columns.AltSupport[i])));
+            }
+
+            homozygousRegions.addAll(findRegionsForChromosome(entry.getKey(), locusZygosityList));
+        }
+
+        Collections.sort(homozygousRegions);
+
+        return homozygousRegions;
+    }
+
     public List<RegionOfHomozygosity> findRegionsForChromosome(Chromosome chromosome, final List<LocusZygosity> bafSites)
     {
         var homozygousRegions = new ArrayList<RegionOfHomozygosity>();
@@ -317,7 +348,12 @@ public class RegionOfHomozygosityFinder
 
     static Zygosity calcZygosity(PositionEvidence baseDepth)
     {
-        if(isAlleleHomozygous(baseDepth.ReadDepth, baseDepth.RefSupport) || isAlleleHomozygous(baseDepth.ReadDepth, baseDepth.AltSupport))
+        return calcZygosity(baseDepth.ReadDepth, baseDepth.RefSupport, baseDepth.AltSupport);
+    }
+
+    static Zygosity calcZygosity(int readDepth, int refSupport, int altSupport)
+    {
+        if(isAlleleHomozygous(readDepth, refSupport) || isAlleleHomozygous(readDepth, altSupport))
         {
             return Zygosity.HOMOZYGOUS;
         }
@@ -10,7 +10,7 @@ import com.hartwig.hmftools.common.region.ChrBaseRegion;
 
 import htsjdk.samtools.SAMRecord;
 
-public class RegionTask
+public class RegionTask implements BamRegionTask
 {
     private final PositionEvidenceChecker mEvidenceChecker;
     public final ChrBaseRegion Region;
@@ -34,6 +34,10 @@ public class RegionTask
         Region.setEnd(max(Region.end(), posEvidence.Position));
     }
 
+    @Override
+    public ChrBaseRegion region() { return Region; }
+
+    @Override
     public void processRecord(final SAMRecord record)
     {
         int alignmentStart = record.getAlignmentStart();
@@ -60,6 +64,7 @@ public class RegionTask
             mComplete = true;
     }
 
+    @Override
     public boolean isComplete()
     {
         return mComplete;
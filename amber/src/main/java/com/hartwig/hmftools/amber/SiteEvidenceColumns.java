@@ -0,0 +1,118 @@
+package com.hartwig.hmftools.amber;
+
+import java.util.List;
+
+import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.BaseDepthData;
+import com.hartwig.hmftools.common.amber.ImmutableBaseDepthData;
+
+// read evidence for a chromosome's sites held in primitive columns indexed by site, rather than as an object per site
+public class SiteEvidenceColumns
+{
+    public final String Chromosome;
+    public final int[] Positions;
+    public final byte[] Refs;
+    public final byte[] Alts;
+
+    public final int[] ReadDepth;
+    public final int[] IndelCount;
+    public final int[] RefSupport;
+    public final int[] AltSupport;
+    public final int[] AltQuality;
+
+    public SiteEvidenceColumns(final String chromosome, final List<AmberSite> sites)
+    {
+        Chromosome = chromosome;
+
+        int siteCount = sites.size();
+        Positions = new int[siteCount];
+        Refs = new byte[siteCount];
+        Alts = new byte[siteCount];
+
+        for(int i = 0; i < siteCount; ++i)
+        {
+            AmberSite site = sites.get(i);
+            Positions[i] = site.position();
+            Refs[i] = (byte)site.ref().charAt(0);
+            Alts[i] = (byte)site.alt().charAt(0);
+        }
+
+        ReadDepth = new int[siteCount];
+        IndelCount = new int[siteCount];
+        RefSupport = new int[siteCount];
+        AltSupport = new int[siteCount];
+        AltQuality = new int[siteCount];
+    }
+
+    // shares the site columns of another sample, with its own counts
+    private SiteEvidenceColumns(final SiteEvidenceColumns other)
+    {
+        Chromosome = other.Chromosome;
+        Positions = other.Positions;
+        Refs = other.Refs;
+        Alts = other.Alts;
+
+        int siteCount = other.size();
+        ReadDepth = new int[siteCount];
+        IndelCount = new int[siteCount];
+        RefSupport = new int[siteCount];
+        AltSupport = new int[siteCount];
+        AltQuality = new int[siteCount];
+    }
+
+    public SiteEvidenceColumns newSample() { return new SiteEvidenceColumns(this); }
+
+    public int size() { return Positions.length; }
+
+    public boolean isValid(int index) { return IndelCount[index] == 0; }
+
+    // returns the index of the site with this position and alleles, searching forward from a prior index since callers visit
+    // sites in order, or -1 if not present
+    public int findIndex(int fromIndex, int position, final String ref, final String alt)
+    {
+        int index = fromIndex;
+
+        while(index < Positions.length && Positions[index] < position)
+        {
+            ++index;
+        }
+
+        for(; index < Positions.length && Positions[index] == position; ++index)
+        {
+            if(Refs[index] == ref.charAt(0) && Alts[index] == alt.charAt(0))
+                return index;
+        }
+
+        return -1;
+    }
+
+    public PositionEvidence toPositionEvidence(int index)
+    {
+        PositionEvidence posEvidence = new PositionEvidence(
+                Chromosome, Positions[index], String.valueOf((char)Refs[index]), String.valueOf((char)Alts[index]));
+
+        copyCounts(index, posEvidence);
+        return posEvidence;
+    }
+
+    public void copyCounts(int index, final PositionEvidence posEvidence)
+    {
+        posEvidence.ReadDepth = ReadDepth[index];
+        posEvidence.IndelCount = IndelCount[index];
+        posEvidence.RefSupport = RefSupport[index];
+        posEvidence.AltSupport = AltSupport[index];
+        posEvidence.AltQuality = AltQuality[index];
+    }
+
+    public BaseDepthData toBaseDepthData(int index)
+    {
+        return ImmutableBaseDepthData.builder()
+                .ref(BaseDepthData.Base.valueOf(String.valueOf((char)Refs[index])))
+                .alt(BaseDepthData.Base.valueOf(String.valueOf((char)Alts[index])))
+                .readDepth(ReadDepth[index])
+                .refSupport(RefSupport[index])
+                .altSupport(AltSupport[index])
+                .indelCount(IndelCount[index])
+                .build();
+    }
+}
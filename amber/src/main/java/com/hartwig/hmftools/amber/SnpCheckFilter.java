@@ -6,7 +6,6 @@ import java.util.function.Predicate;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.amber.AmberSite;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 
@@ -14,24 +13,19 @@ public class SnpCheckFilter implements Predicate<PositionEvidence>
 {
     private final Map<String,List<AmberSite>> mSnpLoci;
 
-    public SnpCheckFilter(final Multimap<Chromosome, AmberSite> snpLoci)
+    public SnpCheckFilter(final Map<Chromosome,List<AmberSite>> snpLoci)
     {
         mSnpLoci = Maps.newHashMap();
 
-        for(AmberSite amberSite : snpLoci.values())
+        for(List<AmberSite> amberSites : snpLoci.values())
         {
-            if(!amberSite.snpCheck())
-                continue;
-
-            List<AmberSite> chrSites = mSnpLoci.get(amberSite.Chromosome);
-
-            if(chrSites == null)
+            for(AmberSite amberSite : amberSites)
             {
-                chrSites = Lists.newArrayList();
-                mSnpLoci.put(amberSite.Chromosome, chrSites);
-            }
+                if(!amberSite.snpCheck())
+                    continue;
 
-            chrSites.add(amberSite);
+                mSnpLoci.computeIfAbsent(amberSite.Chromosome, k -> Lists.newArrayList()).add(amberSite);
+            }
         }
     }
 
@@ -35,6 +35,17 @@ public class TumorAnalysis
         tumorBAFAndContamination(readerFactory, germlineHetLoci, germlineHomLoci);
     }
 
+    // uses tumor evidence already collected alongside the reference evidence
+    public TumorAnalysis(
+            final AmberConfig config, final JointEvidenceReader jointEvidence,
+            final ListMultimap<Chromosome, PositionEvidence> germlineHetLoci,
+            final ListMultimap<Chromosome, PositionEvidence> germlineHomLoci)
+    {
+        mConfig = config;
+
+        jointTumorBAFAndContamination(jointEvidence, germlineHetLoci, germlineHomLoci);
+    }
+
     // we process them together
     private void tumorBAFAndContamination(final SamReaderFactory readerFactory,
             final ListMultimap<Chromosome, PositionEvidence> germlineHetLoci, final ListMultimap<Chromosome, PositionEvidence> germlineHomLoci) throws InterruptedException
@@ -109,4 +120,70 @@ public class TumorAnalysis
             }
         }
     }
+
+    // germline loci from the joint scan are in site order, so each is matched to its tumor counts by walking the site columns
+    private void jointTumorBAFAndContamination(final JointEvidenceReader jointEvidence,
+            final ListMultimap<Chromosome, PositionEvidence> germlineHetLoci, final ListMultimap<Chromosome, PositionEvidence> germlineHomLoci)
+    {
+        AMB_LOGGER.info("processing tumor germline heterozygous({}) and homozygous({}) sites",
+                germlineHetLoci.values().size(), germlineHomLoci.size());
+
+        mBafs = ArrayListMultimap.create();
+
+        for(Chromosome chromosome : germlineHetLoci.keySet())
+        {
+            SiteEvidenceColumns tumor = jointEvidence.tumorEvidence(chromosome);
+
+            if(tumor == null)
+                continue;
+
+            int index = 0;
+
+            for(PositionEvidence normal : germlineHetLoci.get(chromosome))
+            {
+                int siteIndex = tumor.findIndex(index, normal.Position, normal.ref(), normal.alt());
+
+                if(siteIndex < 0)
+                    continue;
+
+                index = siteIndex;
+
+                if(!tumor.isValid(index))
+                    continue;
+
+                TumorBAF tumorBAF = TumorBAF.fromNormal(normal);
+                tumor.copyCounts(index, tumorBAF.TumorEvidence);
+                mBafs.put(chromosome, tumorBAF);
+            }
+        }
+
+        mContamination = ArrayListMultimap.create();
+
+        for(Chromosome chromosome : germlineHomLoci.keySet())
+        {
+            SiteEvidenceColumns tumor = jointEvidence.tumorEvidence(chromosome);
+
+            if(tumor == null)
+                continue;
+
+            int index = 0;
+
+            for(PositionEvidence normal : germlineHomLoci.get(chromosome))
+            {
+                int siteIndex = tumor.findIndex(index, normal.Position, normal.ref(), normal.alt());
+
+                if(siteIndex < 0)
+                    continue;
+
+                index = siteIndex;
+
+                if(tumor.AltSupport[index] > 0)
+                {
+                    mContamination.put(
+                            chromosome,
+                            new TumorContamination(normal.Chromosome, normal.Position, normal.toBaseDepthData(), tumor.toBaseDepthData(index)));
+                }
+            }
+        }
+    }
 }
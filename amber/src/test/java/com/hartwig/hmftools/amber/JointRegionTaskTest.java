@@ -0,0 +1,103 @@
+package com.hartwig.hmftools.amber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.List;
+
+import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.NormalHeterozygousCheck;
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+
+import org.junit.Test;
+
+import htsjdk.samtools.SAMRecord;
+
+public class JointRegionTaskTest
+{
+    @Test
+    public void testTumorEvidenceOnlyAtGermlineCandidates()
+    {
+        List<AmberSite> sites = List.of(
+                new AmberSite("1", 1000, "A", "T", false),
+                new AmberSite("1", 1010, "A", "T", false),
+                new AmberSite("1", 1020, "A", "T", false));
+
+        SiteEvidenceColumns normal = new SiteEvidenceColumns("1", sites);
+        SiteEvidenceColumns tumor = normal.newSample();
+
+        JointRegionTask task = new JointRegionTask(
+                new PositionEvidenceChecker(0), new NormalHeterozygousCheck(0.4, 0.65), "1", normal, tumor, 0);
+
+        task.addNextPosition();
+        task.addNextPosition();
+
+        // first site heterozygous, second homozygous alt, third homozygous ref
+        String refBases = "AAAAAAAAAATAAAAAAAAAAAAAA";
+        String altBases = "TAAAAAAAAATAAAAAAAAAAAAAA";
+
+        task.processNormalRecord(buildSamRecord(1000, refBases));
+        task.processNormalRecord(buildSamRecord(1000, altBases));
+
+        assertEquals(2, normal.ReadDepth[0]);
+        assertEquals(1, normal.AltSupport[0]);
+        assertEquals(2, normal.AltSupport[1]);
+        assertEquals(0, normal.RefSupport[1]);
+
+        ChrBaseRegion tumorRegion = task.selectTumorSites();
+        assertNotNull(tumorRegion);
+        assertEquals(1000, tumorRegion.start());
+        assertEquals(1020, tumorRegion.end());
+
+        task.processTumorRecord(buildSamRecord(1000, altBases));
+
+        assertEquals(1, tumor.ReadDepth[0]);
+        assertEquals(1, tumor.AltSupport[0]);
+        assertEquals(0, tumor.ReadDepth[1]);
+        assertEquals(1, tumor.ReadDepth[2]);
+        assertEquals(1, tumor.RefSupport[2]);
+    }
+
+    @Test
+    public void testRecordsRoutedToTumorAfterSiteSelection()
+    {
+        List<AmberSite> sites = List.of(
+                new AmberSite("1", 1000, "A", "T", false),
+                new AmberSite("1", 1000, "A", "G", false),
+                new AmberSite("1", 1010, "A", "T", false));
+
+        SiteEvidenceColumns normal = new SiteEvidenceColumns("1", sites);
+        SiteEvidenceColumns tumor = normal.newSample();
+
+        assertEquals(1, normal.findIndex(0, 1000, "A", "G"));
+        assertEquals(2, normal.findIndex(1, 1010, "A", "T"));
+        assertEquals(-1, normal.findIndex(0, 1005, "A", "T"));
+
+        JointRegionTask task = new JointRegionTask(new PositionEvidenceChecker(0), null, "1", normal, tumor, 0);
+        task.addNextPosition();
+        task.addNextPosition();
+
+        String readBases = "AAAAAAAAAAAAAAAAAAAA";
+
+        task.processRecord(buildSamRecord(1000, readBases));
+        assertNotNull(task.selectTumorSites());
+
+        task.processRecord(buildSamRecord(1000, readBases));
+        task.processRecord(buildSamRecord(1000, readBases));
+
+        assertEquals(1, normal.ReadDepth[2]);
+        assertEquals(2, tumor.ReadDepth[2]);
+        assertEquals(2, tumor.RefSupport[0]);
+    }
+
+    private static SAMRecord buildSamRecord(final int alignmentStart, final String readString)
+    {
+        final SAMRecord record = new SAMRecord(null);
+        record.setAlignmentStart(alignmentStart);
+        record.setCigarString(readString.length() + "M");
+        record.setReadString(readString);
+        record.setBaseQualityString("J".repeat(readString.length()));
+        record.setMappingQuality(20);
+        return record;
+    }
+}
@@ -47,6 +47,21 @@ public class BamCompare
             if(!readWriter.initialised())
                 System.exit(1);
 
+            if(mConfig.StreamingCompare)
+            {
+                List<BamPartition> partitions = createPartitions();
+
+                if(!mConfig.ignoreUnmapped())
+                    partitions.add(BamPartition.ofUnmapped());
+
+                Statistics stats = new StreamingBamCompare(mConfig, readWriter).run(partitions);
+
+                BT_LOGGER.printf(Level.INFO, "summary: reads(orig=%,d new=%,d) diffs(%,d)",
+                        stats.OrigReadCount, stats.NewReadCount, stats.DiffCount);
+                BT_LOGGER.info("BamCompare complete, mins({})", runTimeMinsStr(startTimeMs));
+                return;
+            }
+
             UnmatchedReadHandler unmatchedReadHandler = new UnmatchedReadHandler(mConfig);
             SamReaderFactory samReaderFactory = CompareUtils.makeSamReaderFactory(mConfig);
             List<Runnable> tasks = new ArrayList<>();
@@ -195,6 +210,16 @@ public class BamCompare
         });
 
         BamCompare bamCompare = new BamCompare(configBuilder);
-        bamCompare.run();
+
+        try
+        {
+            bamCompare.run();
+        }
+        catch(Exception e)
+        {
+            BT_LOGGER.error("BAM comparison failed: {}", e.toString());
+            e.printStackTrace();
+            System.exit(1);
+        }
     }
 }
@@ -0,0 +1,118 @@
+package com.hartwig.hmftools.bamtools.compare;
+
+import static com.hartwig.hmftools.bamtools.compare.MismatchType.NEW_ONLY;
+import static com.hartwig.hmftools.bamtools.compare.MismatchType.ORIG_ONLY;
+import static com.hartwig.hmftools.bamtools.compare.MismatchType.VALUE;
+
+// joins one orig and new bucket pair, registering any keys which are unmatched or whose content differs
+public class BucketJoiner implements Runnable
+{
+    private final int mBucketIndex;
+    private final ReadBuckets mOrigBuckets;
+    private final ReadBuckets mNewBuckets;
+    private final MismatchedReads mMismatchedReads;
+    private final Statistics mStats;
+
+    // open-addressing table of the orig bucket's entries
+    private long[] mKeys;
+    private long[] mNameChecks;
+    private long[] mContentHashes;
+    private byte[] mStates;
+    private int mMask;
+
+    private static final byte EMPTY = 0;
+    private static final byte UNMATCHED = 1;
+    private static final byte MATCHED = 2;
+
+    public BucketJoiner(
+            int bucketIndex, final ReadBuckets origBuckets, final ReadBuckets newBuckets, final MismatchedReads mismatchedReads)
+    {
+        mBucketIndex = bucketIndex;
+        mOrigBuckets = origBuckets;
+        mNewBuckets = newBuckets;
+        mMismatchedReads = mismatchedReads;
+        mStats = new Statistics();
+    }
+
+    public Statistics stats() { return mStats; }
+
+    @Override
+    public void run()
+    {
+        long origEntries = mOrigBuckets.entryCount(mBucketIndex);
+
+        int capacity = 16;
+
+        while(capacity < origEntries * 2)
+        {
+            capacity <<= 1;
+        }
+
+        mKeys = new long[capacity];
+        mNameChecks = new long[capacity];
+        mContentHashes = new long[capacity];
+        mStates = new byte[capacity];
+        mMask = capacity - 1;
+
+        mOrigBuckets.readBucket(mBucketIndex, this::addOrigEntry);
+        mNewBuckets.readBucket(mBucketIndex, this::matchNewEntry);
+
+        for(int i = 0; i < capacity; ++i)
+        {
+            if(mStates[i] == UNMATCHED)
+            {
+                ++mStats.OrigReadCount;
+                mMismatchedReads.add(mKeys[i], mNameChecks[i], ORIG_ONLY);
+            }
+        }
+
+        mKeys = null;
+        mNameChecks = null;
+        mContentHashes = null;
+        mStates = null;
+
+        mOrigBuckets.deleteBucket(mBucketIndex);
+        mNewBuckets.deleteBucket(mBucketIndex);
+    }
+
+    private int findSlot(long readKey, long nameCheck)
+    {
+        int slot = (int)(readKey ^ (readKey >>> 32)) & mMask;
+
+        while(mStates[slot] != EMPTY && (mKeys[slot] != readKey || mNameChecks[slot] != nameCheck))
+        {
+            slot = (slot + 1) & mMask;
+        }
+
+        return slot;
+    }
+
+    private void addOrigEntry(long readKey, long nameCheck, long contentHash)
+    {
+        // a repeated key replaces the earlier entry, as the partition reader's read map does
+        int slot = findSlot(readKey, nameCheck);
+        mKeys[slot] = readKey;
+        mNameChecks[slot] = nameCheck;
+        mContentHashes[slot] = contentHash;
+        mStates[slot] = UNMATCHED;
+    }
+
+    private void matchNewEntry(long readKey, long nameCheck, long contentHash)
+    {
+        int slot = findSlot(readKey, nameCheck);
+
+        if(mStates[slot] != UNMATCHED)
+        {
+            ++mStats.NewReadCount;
+            mMismatchedReads.add(readKey, nameCheck, NEW_ONLY);
+            return;
+        }
+
+        mStates[slot] = MATCHED;
+        ++mStats.OrigReadCount;
+        ++mStats.NewReadCount;
+
+        if(mContentHashes[slot] != contentHash)
+            mMismatchedReads.add(readKey, nameCheck, VALUE);
+    }
+}
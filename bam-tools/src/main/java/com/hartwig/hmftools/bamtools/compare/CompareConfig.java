@@ -39,6 +39,8 @@ public class CompareConfig
 
     public final boolean IgnoreSupplementaryReads;
 
+    public final boolean StreamingCompare; // hash packed read keys into disk buckets rather than caching reads
+
     public final int Threads;
     public final List<String> LogReadIds;
 
@@ -54,6 +56,7 @@ public class CompareConfig
     private static final String IGNORE_ALTERATIONS = "ignore_alterations";
     private static final String IGNORE_SUPPLEMENTARY_READS = "ignore_supplementary_reads";
     private static final String IGNORE_CONSENSUS_READS = "ignore_consensus_reads";
+    private static final String STREAMING_COMPARE = "streaming_compare";
 
     private static final int DEFAULT_CHR_PARTITION_SIZE = 10_000_000;
 
@@ -79,6 +82,7 @@ public class CompareConfig
         IgnoreAlterations = configBuilder.hasFlag(IGNORE_ALTERATIONS);
         IgnoreConsensusReads = configBuilder.hasFlag(IGNORE_CONSENSUS_READS);
         IgnoreSupplementaryReads = configBuilder.hasFlag(IGNORE_SUPPLEMENTARY_READS);
+        StreamingCompare = configBuilder.hasFlag(STREAMING_COMPARE);
 
         BT_LOGGER.info("refGenomeVersion({}) origBam({}) newBam({})", RefGenVersion, OrigBamFile, NewBamFile);
         BT_LOGGER.info("origBam({}) newBam({})", OrigBamFile, NewBamFile);
@@ -109,7 +113,10 @@ public class CompareConfig
             MaxCachedReadsPerThread = maxCachedReadsPerThread;
         }
 
-        BT_LOGGER.printf(Level.INFO, "maxCachedReadsPerThread(%,d)", MaxCachedReadsPerThread);
+        if(StreamingCompare)
+            BT_LOGGER.info("using streaming comparison with disk-backed read key buckets");
+        else
+            BT_LOGGER.printf(Level.INFO, "maxCachedReadsPerThread(%,d)", MaxCachedReadsPerThread);
     }
 
     public static void addConfig(final ConfigBuilder configBuilder)
@@ -126,6 +133,7 @@ public class CompareConfig
         configBuilder.addFlag(IGNORE_ALTERATIONS, "If set, ignore consensus reads and internal unmappings");
         configBuilder.addFlag(IGNORE_CONSENSUS_READS, "If set, ignore consensus reads");
         configBuilder.addFlag(IGNORE_SUPPLEMENTARY_READS, "If set, ignore supplementary reads");
+        configBuilder.addFlag(STREAMING_COMPARE, "Compare hashed read keys via disk buckets, using memory independent of depth");
 
         addRefGenomeFile(configBuilder, false);
         addSpecificChromosomesRegionsConfig(configBuilder);
@@ -1,9 +1,12 @@
 package com.hartwig.hmftools.bamtools.compare;
 
+import static com.hartwig.hmftools.common.bam.SamRecordUtils.CONSENSUS_READ_ATTRIBUTE;
+import static com.hartwig.hmftools.common.bam.SamRecordUtils.UNMAP_ATTRIBUTE;
 import static com.hartwig.hmftools.common.codon.Nucleotides.complement;
 
 import java.io.File;
 
+import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SamReaderFactory;
 import htsjdk.samtools.ValidationStringency;
 
@@ -20,6 +23,14 @@ public class CompareUtils
         return readerFactory;
     }
 
+    public static boolean excludeRead(final SAMRecord read, final CompareConfig config)
+    {
+        return read.isSecondaryAlignment() ||
+              (config.IgnoreAlterations && (read.hasAttribute(CONSENSUS_READ_ATTRIBUTE) || read.hasAttribute(UNMAP_ATTRIBUTE))) ||
+              (config.IgnoreConsensusReads && read.hasAttribute(CONSENSUS_READ_ATTRIBUTE)) ||
+              (config.IgnoreSupplementaryReads && read.getSupplementaryAlignmentFlag());
+    }
+
     // check if the string match, with the extra caveat that they could be reversed
     public static boolean stringsMatch(String str1, boolean str1Reversed, String str2, boolean str2Reversed)
     {
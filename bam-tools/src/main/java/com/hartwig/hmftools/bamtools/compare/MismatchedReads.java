@@ -0,0 +1,88 @@
+package com.hartwig.hmftools.bamtools.compare;
+
+import static com.hartwig.hmftools.bamtools.compare.MismatchType.ORIG_ONLY;
+import static com.hartwig.hmftools.bamtools.compare.MismatchType.VALUE;
+import static com.hartwig.hmftools.bamtools.compare.PackedReadKey.nameCheck;
+import static com.hartwig.hmftools.bamtools.compare.PackedReadKey.readKey;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import htsjdk.samtools.SAMRecord;
+
+// read keys which failed to match on the bucket join, resolved to full records on a second pass through the BAMs
+public class MismatchedReads
+{
+    private final Map<Long,Candidate> mCandidates = new ConcurrentHashMap<>();
+
+    private static class Candidate
+    {
+        public final long NameCheck;
+        public final MismatchType Type;
+
+        public SAMRecord OrigRead;
+        public SAMRecord NewRead;
+
+        public Candidate(final long nameCheck, final MismatchType type)
+        {
+            NameCheck = nameCheck;
+            Type = type;
+        }
+    }
+
+    public void add(long readKey, long nameCheck, final MismatchType type)
+    {
+        mCandidates.putIfAbsent(readKey, new Candidate(nameCheck, type));
+    }
+
+    public boolean isEmpty() { return mCandidates.isEmpty(); }
+    public int size() { return mCandidates.size(); }
+
+    public void processRead(
+            final SAMRecord read, boolean isOrig, final ReadWriter readWriter, final Statistics stats, boolean ignoreDupDiffs)
+    {
+        long readKey = readKey(read);
+        Candidate candidate = mCandidates.get(readKey);
+
+        if(candidate == null || candidate.NameCheck != nameCheck(read))
+            return;
+
+        if(candidate.Type != VALUE)
+        {
+            if((candidate.Type == ORIG_ONLY) == isOrig && mCandidates.remove(readKey, candidate))
+            {
+                ++stats.DiffCount;
+                readWriter.writeComparison(read, candidate.Type, null);
+            }
+
+            return;
+        }
+
+        SAMRecord origRead;
+        SAMRecord newRead;
+
+        synchronized(candidate)
+        {
+            if(isOrig)
+                candidate.OrigRead = read;
+            else
+                candidate.NewRead = read;
+
+            if(candidate.OrigRead == null || candidate.NewRead == null || !mCandidates.remove(readKey, candidate))
+                return;
+
+            origRead = candidate.OrigRead;
+            newRead = candidate.NewRead;
+        }
+
+        // content hashes are orientation-normalised so can differ where the full comparison finds no difference
+        List<String> diffs = PartitionReader.compareReads(origRead, newRead, ignoreDupDiffs);
+
+        if(!diffs.isEmpty())
+        {
+            ++stats.DiffCount;
+            readWriter.writeComparison(origRead, VALUE, diffs);
+        }
+    }
+}
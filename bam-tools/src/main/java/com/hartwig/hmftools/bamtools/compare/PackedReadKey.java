@@ -0,0 +1,105 @@
+package com.hartwig.hmftools.bamtools.compare;
+
+import static com.hartwig.hmftools.bamtools.compare.ReadKey.calcSupplementaryIndex;
+import static com.hartwig.hmftools.common.bam.SamRecordUtils.MATE_CIGAR_ATTRIBUTE;
+import static com.hartwig.hmftools.common.bam.SamRecordUtils.SUPPLEMENTARY_ATTRIBUTE;
+import static com.hartwig.hmftools.common.bam.SamRecordUtils.firstInPair;
+
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.util.SequenceUtil;
+
+// 64-bit hashes standing in for a read's key and for the fields compared between BAMs, so reads can be matched without keeping them
+public final class PackedReadKey
+{
+    // the low byte of a key holds the first-in-pair flag and supplementary index, the remaining bits a hash of the read name
+    private static final int FIRST_IN_PAIR_BIT = 0x80;
+    private static final int MAX_SUPP_INDEX = 0x7F;
+    private static final int READ_INFO_BITS = 8;
+
+    private static final long KEY_SEED = 0x9E3779B97F4A7C15L;
+    private static final long NAME_CHECK_SEED = 0xC2B2AE3D27D4EB4FL;
+    private static final long CONTENT_SEED = 0x165667B19E3779F9L;
+
+    private PackedReadKey() {}
+
+    public static long readKey(final SAMRecord read)
+    {
+        int suppIndex = Math.min(calcSupplementaryIndex(read), MAX_SUPP_INDEX);
+        int readInfo = (firstInPair(read) ? FIRST_IN_PAIR_BIT : 0) | suppIndex;
+        return (hashString(read.getReadName(), KEY_SEED) << READ_INFO_BITS) | readInfo;
+    }
+
+    // an independent hash of the read name, used with the key to make name collisions vanishingly rare
+    public static long nameCheck(final SAMRecord read) { return hashString(read.getReadName(), NAME_CHECK_SEED); }
+
+    public static int bucketIndex(long readKey, int bucketCount)
+    {
+        return (int)Long.remainderUnsigned(readKey >>> READ_INFO_BITS, bucketCount);
+    }
+
+    // covers the same fields as PartitionReader.compareReads, with bases and qualities hashed in forward-strand orientation
+    public static long contentHash(final SAMRecord read, boolean ignoreDupDiffs)
+    {
+        long hash = CONTENT_SEED;
+        hash = mix(hash, read.getInferredInsertSize());
+        hash = mix(hash, read.getMappingQuality());
+        hash = mix(hash, hashString(read.getCigarString(), CONTENT_SEED));
+
+        boolean reversed = read.getReadNegativeStrandFlag();
+        hash = mix(hash, reversed ? 1 : 0);
+        hash = mix(hash, !ignoreDupDiffs && read.getDuplicateReadFlag() ? 1 : 0);
+
+        hash = mix(hash, hashString(read.getStringAttribute(SUPPLEMENTARY_ATTRIBUTE), CONTENT_SEED));
+        hash = mix(hash, hashString(read.getStringAttribute(MATE_CIGAR_ATTRIBUTE), CONTENT_SEED));
+
+        byte[] bases = read.getReadBases();
+        byte[] quals = read.getBaseQualities();
+
+        hash = mix(hash, bases.length);
+
+        for(int i = 0; i < bases.length; ++i)
+        {
+            hash = mix(hash, reversed ? SequenceUtil.complement(bases[bases.length - i - 1]) : bases[i]);
+        }
+
+        hash = mix(hash, quals.length);
+
+        for(int i = 0; i < quals.length; ++i)
+        {
+            hash = mix(hash, reversed ? quals[quals.length - i - 1] : quals[i]);
+        }
+
+        return finalise(hash);
+    }
+
+    private static long hashString(final String str, long seed)
+    {
+        if(str == null)
+            return seed;
+
+        long hash = seed ^ str.length();
+
+        for(int i = 0; i < str.length(); ++i)
+        {
+            hash = mix(hash, str.charAt(i));
+        }
+
+        return finalise(hash);
+    }
+
+    private static long mix(long hash, long value)
+    {
+        return (hash ^ value) * 0x100000001B3L + 0x9E3779B97F4A7C15L;
+    }
+
+    private static long finalise(long hash)
+    {
+        // the MurmurHash3 64-bit finaliser
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
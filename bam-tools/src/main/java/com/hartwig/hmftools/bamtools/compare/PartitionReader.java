@@ -4,14 +4,13 @@ import static java.lang.String.format;
 
 import static com.hartwig.hmftools.bamtools.common.CommonUtils.BT_LOGGER;
 import static com.hartwig.hmftools.bamtools.compare.CompareUtils.basesMatch;
+import static com.hartwig.hmftools.bamtools.compare.CompareUtils.excludeRead;
 import static com.hartwig.hmftools.bamtools.compare.CompareUtils.stringsMatch;
 import static com.hartwig.hmftools.bamtools.compare.MismatchType.NEW_ONLY;
 import static com.hartwig.hmftools.bamtools.compare.MismatchType.ORIG_ONLY;
 import static com.hartwig.hmftools.bamtools.compare.MismatchType.VALUE;
-import static com.hartwig.hmftools.common.bam.SamRecordUtils.CONSENSUS_READ_ATTRIBUTE;
 import static com.hartwig.hmftools.common.bam.SamRecordUtils.MATE_CIGAR_ATTRIBUTE;
 import static com.hartwig.hmftools.common.bam.SamRecordUtils.SUPPLEMENTARY_ATTRIBUTE;
-import static com.hartwig.hmftools.common.bam.SamRecordUtils.UNMAP_ATTRIBUTE;
 
 import static htsjdk.samtools.util.SequenceUtil.reverseComplement;
 
@@ -144,7 +143,7 @@ public class PartitionReader implements Runnable
             BT_LOGGER.debug("[orig bam] specific readId({})", origBamRead.getReadName());
         }
 
-        if(excludeRead(origBamRead))
+        if(excludeRead(origBamRead, mConfig))
             return;
 
         /*
@@ -180,7 +179,7 @@ public class PartitionReader implements Runnable
             BT_LOGGER.debug("[new bam] specific readId({})", newBamRead.getReadName());
         }
 
-        if(excludeRead(newBamRead))
+        if(excludeRead(newBamRead, mConfig))
             return;
 
         /*if((mStats.NewReadCount % LOG_COUNT) == 0)
@@ -315,12 +314,4 @@ public class PartitionReader implements Runnable
 
         return diffs;
     }
-
-    private boolean excludeRead(final SAMRecord read)
-    {
-        return read.isSecondaryAlignment() ||
-              (mConfig.IgnoreAlterations && (read.hasAttribute(CONSENSUS_READ_ATTRIBUTE) || read.hasAttribute(UNMAP_ATTRIBUTE))) ||
-              (mConfig.IgnoreConsensusReads && read.hasAttribute(CONSENSUS_READ_ATTRIBUTE)) ||
-              (mConfig.IgnoreSupplementaryReads && read.getSupplementaryAlignmentFlag());
-    }
 }
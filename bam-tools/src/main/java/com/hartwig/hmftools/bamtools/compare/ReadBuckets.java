@@ -0,0 +1,137 @@
+package com.hartwig.hmftools.bamtools.compare;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+// disk-backed buckets of packed read entries for one BAM, each entry being the read key, name check and content hash
+public class ReadBuckets
+{
+    public static final int ENTRY_SIZE = 3 * Long.BYTES;
+
+    public static final int MAX_BUFFER_ENTRIES = 512;
+
+    private final File[] mBucketFiles;
+    private final Object[] mBucketLocks;
+    private final int mBufferEntries;
+
+    public ReadBuckets(final File directory, final String prefix, int bucketCount)
+    {
+        this(directory, prefix, bucketCount, MAX_BUFFER_ENTRIES);
+    }
+
+    public ReadBuckets(final File directory, final String prefix, int bucketCount, int bufferEntries)
+    {
+        mBufferEntries = bufferEntries;
+        mBucketFiles = new File[bucketCount];
+        mBucketLocks = new Object[bucketCount];
+
+        for(int i = 0; i < bucketCount; ++i)
+        {
+            mBucketFiles[i] = new File(directory, String.format("%s_%d.bin", prefix, i));
+            mBucketLocks[i] = new Object();
+        }
+    }
+
+    public int bucketCount() { return mBucketFiles.length; }
+
+    public long entryCount(int bucketIndex) { return mBucketFiles[bucketIndex].length() / ENTRY_SIZE; }
+
+    // buffers entries per bucket for a single thread, appending them to the bucket files in blocks
+    public BucketWriter createWriter() { return new BucketWriter(); }
+
+    public class BucketWriter implements AutoCloseable
+    {
+        private final ByteBuffer[] mBuffers = new ByteBuffer[mBucketFiles.length];
+
+        public void add(long readKey, long nameCheck, long contentHash)
+        {
+            int bucketIndex = PackedReadKey.bucketIndex(readKey, mBuffers.length);
+            ByteBuffer buffer = mBuffers[bucketIndex];
+
+            if(buffer == null)
+            {
+                buffer = ByteBuffer.allocate(mBufferEntries * ENTRY_SIZE);
+                mBuffers[bucketIndex] = buffer;
+            }
+
+            buffer.putLong(readKey).putLong(nameCheck).putLong(contentHash);
+
+            if(!buffer.hasRemaining())
+                flush(bucketIndex);
+        }
+
+        private void flush(int bucketIndex)
+        {
+            ByteBuffer buffer = mBuffers[bucketIndex];
+
+            if(buffer == null || buffer.position() == 0)
+                return;
+
+            // files are opened per block rather than held open, since there can be thousands of buckets
+            synchronized(mBucketLocks[bucketIndex])
+            {
+                try(OutputStream outputStream = new FileOutputStream(mBucketFiles[bucketIndex], true))
+                {
+                    outputStream.write(buffer.array(), 0, buffer.position());
+                }
+                catch(IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            buffer.clear();
+        }
+
+        @Override
+        public void close()
+        {
+            for(int i = 0; i < mBuffers.length; ++i)
+            {
+                flush(i);
+                mBuffers[i] = null;
+            }
+        }
+    }
+
+    public interface EntryConsumer
+    {
+        void accept(long readKey, long nameCheck, long contentHash);
+    }
+
+    public void readBucket(int bucketIndex, final EntryConsumer consumer)
+    {
+        File file = mBucketFiles[bucketIndex];
+
+        if(!file.exists())
+            return;
+
+        try(DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16)))
+        {
+            long entryCount = entryCount(bucketIndex);
+
+            for(long i = 0; i < entryCount; ++i)
+            {
+                consumer.accept(inputStream.readLong(), inputStream.readLong(), inputStream.readLong());
+            }
+        }
+        catch(EOFException e)
+        {
+            throw new IllegalStateException("truncated read bucket: " + file);
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void deleteBucket(int bucketIndex) { mBucketFiles[bucketIndex].delete(); }
+}
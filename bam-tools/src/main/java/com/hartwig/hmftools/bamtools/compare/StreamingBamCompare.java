@@ -0,0 +1,198 @@
+package com.hartwig.hmftools.bamtools.compare;
+
+import static com.hartwig.hmftools.bamtools.common.CommonUtils.BT_LOGGER;
+import static com.hartwig.hmftools.bamtools.compare.CompareUtils.excludeRead;
+import static com.hartwig.hmftools.bamtools.compare.PackedReadKey.contentHash;
+import static com.hartwig.hmftools.bamtools.compare.PackedReadKey.nameCheck;
+import static com.hartwig.hmftools.bamtools.compare.PackedReadKey.readKey;
+import static com.hartwig.hmftools.common.utils.TaskExecutor.executeRunnables;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import org.apache.logging.log4j.Level;
+
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMRecordIterator;
+import htsjdk.samtools.SamReaderFactory;
+
+// compares BAMs by hashing each read to a packed key and content hash, written to disk buckets which are then joined in parallel,
+// so memory is bounded by bucket size rather than depth - only reads failing to match are re-read and held as full records
+public class StreamingBamCompare
+{
+    private final CompareConfig mConfig;
+    private final ReadWriter mReadWriter;
+
+    // sized so that a bucket pair from a 100x BAM holds under a million entries each
+    private static final long BAM_BYTES_PER_BUCKET = 32L * 1024 * 1024;
+    private static final int MIN_BUCKETS = 256;
+    private static final int MAX_BUCKETS = 16384;
+
+    // total memory for the per-thread bucket write buffers, shared by every bucket of each concurrent writer
+    private static final long MAX_WRITE_BUFFER_BYTES = 256L * 1024 * 1024;
+    private static final int MIN_BUFFER_ENTRIES = 16;
+
+    public StreamingBamCompare(final CompareConfig config, final ReadWriter readWriter)
+    {
+        mConfig = config;
+        mReadWriter = readWriter;
+    }
+
+    public Statistics run(final List<BamPartition> partitions)
+    {
+        SamReaderFactory samReaderFactory = CompareUtils.makeSamReaderFactory(mConfig);
+        File origBamFile = new File(mConfig.OrigBamFile);
+        File newBamFile = new File(mConfig.NewBamFile);
+
+        int bucketCount = calcBucketCount(origBamFile, newBamFile);
+        int bufferEntries = calcBufferEntries(bucketCount, mConfig.Threads);
+
+        File bucketDir = createTempDirectory();
+        ReadBuckets origBuckets = new ReadBuckets(bucketDir, "orig", bucketCount, bufferEntries);
+        ReadBuckets newBuckets = new ReadBuckets(bucketDir, "new", bucketCount, bufferEntries);
+
+        Statistics combinedStats = new Statistics();
+        MismatchedReads mismatchedReads = new MismatchedReads();
+
+        try(BamReaderProvider origBamReader = BamReaderProvider.makeThreadLocal(samReaderFactory, origBamFile);
+                BamReaderProvider newBamReader = BamReaderProvider.makeThreadLocal(samReaderFactory, newBamFile))
+        {
+            BT_LOGGER.info("hashing reads from {} partitions into {} buckets in {}", partitions.size(), bucketCount, bucketDir);
+
+            List<Runnable> tasks = new ArrayList<>();
+
+            for(BamPartition bamPartition : partitions)
+            {
+                tasks.add(() -> writeBuckets(bamPartition, origBamReader, origBuckets));
+                tasks.add(() -> writeBuckets(bamPartition, newBamReader, newBuckets));
+            }
+
+            if(!executeRunnables(tasks, mConfig.Threads))
+                throw new IllegalStateException("failed to hash reads into buckets");
+
+            List<BucketJoiner> bucketJoiners = new ArrayList<>();
+
+            for(int i = 0; i < bucketCount; ++i)
+            {
+                bucketJoiners.add(new BucketJoiner(i, origBuckets, newBuckets, mismatchedReads));
+            }
+
+            if(!executeRunnables(bucketJoiners, mConfig.Threads))
+                throw new IllegalStateException("failed to join read buckets");
+
+            bucketJoiners.forEach(x -> combinedStats.merge(x.stats()));
+
+            BT_LOGGER.printf(Level.INFO, "bucket join complete: reads(orig=%,d new=%,d) unmatched or differing keys(%,d)",
+                    combinedStats.OrigReadCount, combinedStats.NewReadCount, mismatchedReads.size());
+
+            if(!mismatchedReads.isEmpty())
+            {
+                // re-read both BAMs to recover the full records for the keys which did not match
+                List<Statistics> recoveryStats = new ArrayList<>();
+                tasks.clear();
+
+                for(BamPartition bamPartition : partitions)
+                {
+                    Statistics origStats = new Statistics();
+                    Statistics newStats = new Statistics();
+                    recoveryStats.add(origStats);
+                    recoveryStats.add(newStats);
+
+                    tasks.add(() -> recoverMismatches(bamPartition, origBamReader, true, mismatchedReads, origStats));
+                    tasks.add(() -> recoverMismatches(bamPartition, newBamReader, false, mismatchedReads, newStats));
+                }
+
+                if(!executeRunnables(tasks, mConfig.Threads))
+                    throw new IllegalStateException("failed to recover mismatched reads");
+
+                recoveryStats.forEach(x -> combinedStats.DiffCount += x.DiffCount);
+
+                if(!mismatchedReads.isEmpty())
+                    BT_LOGGER.warn("{} mismatched read keys not recovered from BAMs", mismatchedReads.size());
+            }
+        }
+        finally
+        {
+            for(int i = 0; i < bucketCount; ++i)
+            {
+                origBuckets.deleteBucket(i);
+                newBuckets.deleteBucket(i);
+            }
+
+            bucketDir.delete();
+        }
+
+        return combinedStats;
+    }
+
+    private void writeBuckets(final BamPartition bamPartition, final BamReaderProvider bamReaderProvider, final ReadBuckets buckets)
+    {
+        try(SAMRecordIterator iterator = bamPartition.iterator(bamReaderProvider.getBamReader());
+                ReadBuckets.BucketWriter bucketWriter = buckets.createWriter())
+        {
+            while(iterator.hasNext())
+            {
+                SAMRecord read = iterator.next();
+
+                if(excludeRead(read, mConfig))
+                    continue;
+
+                bucketWriter.add(readKey(read), nameCheck(read), contentHash(read, mConfig.IgnoreDupDiffs));
+            }
+        }
+
+        BT_LOGGER.trace("partition({}) hashed into buckets", bamPartition);
+    }
+
+    private void recoverMismatches(
+            final BamPartition bamPartition, final BamReaderProvider bamReaderProvider, boolean isOrig,
+            final MismatchedReads mismatchedReads, final Statistics stats)
+    {
+        try(SAMRecordIterator iterator = bamPartition.iterator(bamReaderProvider.getBamReader()))
+        {
+            while(iterator.hasNext())
+            {
+                SAMRecord read = iterator.next();
+
+                if(excludeRead(read, mConfig))
+                    continue;
+
+                mismatchedReads.processRead(read, isOrig, mReadWriter, stats, mConfig.IgnoreDupDiffs);
+            }
+        }
+    }
+
+    private static int calcBucketCount(final File origBamFile, final File newBamFile)
+    {
+        long bamBytes = Math.max(origBamFile.length(), newBamFile.length());
+        long bucketCount = bamBytes / BAM_BYTES_PER_BUCKET;
+        return (int)Math.max(MIN_BUCKETS, Math.min(MAX_BUCKETS, bucketCount));
+    }
+
+    @VisibleForTesting
+    public static int calcBufferEntries(int bucketCount, int threads)
+    {
+        long bufferEntries = MAX_WRITE_BUFFER_BYTES / ReadBuckets.ENTRY_SIZE / bucketCount / Math.max(threads, 1);
+        return (int)Math.max(MIN_BUFFER_ENTRIES, Math.min(ReadBuckets.MAX_BUFFER_ENTRIES, bufferEntries));
+    }
+
+    private static File createTempDirectory()
+    {
+        try
+        {
+            File bucketDir = Files.createTempDirectory("bamcomp_buckets_").toFile();
+            bucketDir.deleteOnExit();
+            return bucketDir;
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
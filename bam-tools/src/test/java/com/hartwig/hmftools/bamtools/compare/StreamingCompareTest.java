@@ -0,0 +1,204 @@
+package com.hartwig.hmftools.bamtools.compare;
+
+import static com.hartwig.hmftools.bamtools.common.CommonUtils.APP_NAME;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceRecord;
+
+public class StreamingCompareTest
+{
+    @Test
+    public void testPackedReadKeys()
+    {
+        final SAMRecord read1 = createRead("read1", false, "ACGTT", "ABCDE");
+        final SAMRecord read2 = createRead("read1", false, "ACGTT", "ABCDE");
+
+        Assert.assertEquals(PackedReadKey.readKey(read1), PackedReadKey.readKey(read2));
+        Assert.assertEquals(PackedReadKey.contentHash(read1, false), PackedReadKey.contentHash(read2, false));
+
+        // mates share the name hash but not the key, so land in the same bucket
+        read2.setFirstOfPairFlag(false);
+        read2.setSecondOfPairFlag(true);
+        Assert.assertNotEquals(PackedReadKey.readKey(read1), PackedReadKey.readKey(read2));
+        Assert.assertEquals(PackedReadKey.bucketIndex(PackedReadKey.readKey(read1), 256),
+                PackedReadKey.bucketIndex(PackedReadKey.readKey(read2), 256));
+
+        // bases and quals are compared in their forward-strand orientation
+        final SAMRecord read3 = createRead("read1", true, "AACGT", "EDCBA");
+        Assert.assertNotEquals(PackedReadKey.contentHash(read1, false), PackedReadKey.contentHash(read3, false));
+
+        read1.setReadNegativeStrandFlag(true);
+        read1.setReadString("AACGT");
+        read1.setBaseQualityString("EDCBA");
+        Assert.assertEquals(PackedReadKey.contentHash(read1, false), PackedReadKey.contentHash(read3, false));
+
+        read3.setDuplicateReadFlag(true);
+        Assert.assertNotEquals(PackedReadKey.contentHash(read1, false), PackedReadKey.contentHash(read3, false));
+        Assert.assertEquals(PackedReadKey.contentHash(read1, true), PackedReadKey.contentHash(read3, true));
+    }
+
+    @Test
+    public void testBucketJoin() throws IOException
+    {
+        File bucketDir = Files.createTempDirectory("bamcomp_buckets_test").toFile();
+        bucketDir.deleteOnExit();
+
+        ReadBuckets origBuckets = new ReadBuckets(bucketDir, "orig", 1);
+        ReadBuckets newBuckets = new ReadBuckets(bucketDir, "new", 1);
+
+        try(ReadBuckets.BucketWriter origWriter = origBuckets.createWriter();
+                ReadBuckets.BucketWriter newWriter = newBuckets.createWriter())
+        {
+            for(long key = 1; key <= 1000; ++key)
+            {
+                origWriter.add(key, key, key);
+
+                // one read only in each BAM and one with differing content
+                if(key == 10)
+                    newWriter.add(key, key, key + 1);
+                else if(key != 20)
+                    newWriter.add(key, key, key);
+            }
+
+            newWriter.add(2000, 2000, 2000);
+        }
+
+        Assert.assertEquals(1000, origBuckets.entryCount(0));
+        Assert.assertEquals(1000, newBuckets.entryCount(0));
+
+        MismatchedReads mismatchedReads = new MismatchedReads();
+        BucketJoiner bucketJoiner = new BucketJoiner(0, origBuckets, newBuckets, mismatchedReads);
+        bucketJoiner.run();
+
+        Assert.assertEquals(1000, bucketJoiner.stats().OrigReadCount);
+        Assert.assertEquals(1000, bucketJoiner.stats().NewReadCount);
+        Assert.assertEquals(3, mismatchedReads.size());
+
+        // bucket files are removed once joined
+        Assert.assertEquals(0, origBuckets.entryCount(0));
+    }
+
+    @Test
+    public void testBucketBufferLimit()
+    {
+        Assert.assertEquals(ReadBuckets.MAX_BUFFER_ENTRIES, StreamingBamCompare.calcBufferEntries(256, 1));
+
+        // buffers shrink as buckets and threads grow, keeping their combined size within the limit
+        for(int threads : new int[] { 4, 16, 32 })
+        {
+            int bufferEntries = StreamingBamCompare.calcBufferEntries(16384, threads);
+            Assert.assertTrue(bufferEntries < ReadBuckets.MAX_BUFFER_ENTRIES);
+            Assert.assertTrue((long)bufferEntries * ReadBuckets.ENTRY_SIZE * 16384 * threads <= 256L * 1024 * 1024);
+        }
+    }
+
+    @Test
+    public void testCompareDifferingBams() throws IOException
+    {
+        File testDir = Files.createTempDirectory("bamcomp_test").toFile();
+        testDir.deleteOnExit();
+
+        SAMFileHeader header = new SAMFileHeader();
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+        header.addSequence(new SAMSequenceRecord("1", 100_000));
+
+        List<SAMRecord> origReads = new ArrayList<>();
+        List<SAMRecord> newReads = new ArrayList<>();
+
+        // read 10 is only in the orig BAM, read 20 only in the new BAM, and read 30 differs in map quality
+        for(int i = 0; i < 50; ++i)
+        {
+            String readName = "read" + i;
+            int position = 1000 + i * 100;
+
+            if(i != 20)
+                origReads.add(createMappedRead(header, readName, position, 20));
+
+            if(i != 10)
+                newReads.add(createMappedRead(header, readName, position, i == 30 ? 30 : 20));
+        }
+
+        File origBam = writeBam(new File(testDir, "orig.bam"), header, origReads);
+        File newBam = writeBam(new File(testDir, "new.bam"), header, newReads);
+        File outputFile = new File(testDir, "compare.tsv");
+        outputFile.deleteOnExit();
+
+        ConfigBuilder configBuilder = new ConfigBuilder(APP_NAME);
+        CompareConfig.addConfig(configBuilder);
+
+        Assert.assertTrue(configBuilder.parseCommandLine(new String[] {
+                "-orig_bam_file", origBam.getAbsolutePath(), "-new_bam_file", newBam.getAbsolutePath(),
+                "-output_file", outputFile.getAbsolutePath(), "-streaming_compare", "-threads", "2" }));
+
+        new BamCompare(configBuilder).run();
+
+        List<String> lines = Files.readAllLines(outputFile.toPath());
+        Assert.assertEquals(4, lines.size());
+
+        Map<String,String[]> diffs = new HashMap<>();
+        lines.stream().skip(1).map(x -> x.split("\t", -1)).forEach(x -> diffs.put(x[0], x));
+
+        Assert.assertEquals(MismatchType.ORIG_ONLY.toString(), diffs.get("read10")[3]);
+        Assert.assertEquals(MismatchType.NEW_ONLY.toString(), diffs.get("read20")[3]);
+        Assert.assertEquals(MismatchType.VALUE.toString(), diffs.get("read30")[3]);
+        Assert.assertEquals("mapQuality(20/30)", diffs.get("read30")[4]);
+    }
+
+    private static SAMRecord createMappedRead(final SAMFileHeader header, final String readName, int position, int mapQual)
+    {
+        final SAMRecord read = new SAMRecord(header);
+        read.setReadName(readName);
+        read.setReferenceName("1");
+        read.setAlignmentStart(position);
+        read.setCigarString("10M");
+        read.setMappingQuality(mapQual);
+        read.setReadString("ACGTACGTAC");
+        read.setBaseQualityString("FFFFFFFFFF");
+        return read;
+    }
+
+    private static File writeBam(final File bamFile, final SAMFileHeader header, final List<SAMRecord> reads)
+    {
+        bamFile.deleteOnExit();
+        new File(bamFile.getPath().replace(".bam", ".bai")).deleteOnExit();
+
+        try(SAMFileWriter writer = new SAMFileWriterFactory().setCreateIndex(true).makeBAMWriter(header, true, bamFile))
+        {
+            reads.forEach(writer::addAlignment);
+        }
+
+        return bamFile;
+    }
+
+    private static SAMRecord createRead(final String readName, boolean negStrand, final String bases, final String quals)
+    {
+        final SAMRecord read = new SAMRecord(null);
+        read.setReadName(readName);
+        read.setReadPairedFlag(true);
+        read.setFirstOfPairFlag(true);
+        read.setReferenceName("chr1");
+        read.setAlignmentStart(2000);
+        read.setCigarString("5M");
+        read.setReadNegativeStrandFlag(negStrand);
+        read.setMappingQuality(20);
+        read.setReadString(bases);
+        read.setBaseQualityString(quals);
+        return read;
+    }
+}
@@ -8,15 +8,29 @@ import htsjdk.samtools.SamReaderFactory
 import org.apache.logging.log4j.LogManager
 import java.io.File
 import java.io.IOException
-import java.util.*
+import java.util.concurrent.ArrayBlockingQueue
 import java.util.concurrent.BlockingQueue
-import java.util.concurrent.LinkedBlockingDeque
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReference
 
+// Reads the BAM regions using a small set of partition readers, and hands the records to the consumer
+// threads in batches through a bounded queue. When the queue is full the readers block until a consumer
+// takes a batch, so the number of records held in memory is capped at roughly MAX_BAM_RECORD_Q_SIZE.
+// The first error from any reader or consumer stops the pipeline and is rethrown to the caller
 object AsyncBamReader
 {
     private const val MAX_BAM_RECORD_Q_SIZE = 100000
+    private const val RECORD_BATCH_SIZE = 1000
+    private const val MAX_BAM_READER_COUNT = 4
+    private const val QUEUE_LOG_INTERVAL_MS = 30000L
+
     private val logger = LogManager.getLogger(AsyncBamReader::class.java)
 
+    // an empty batch signals the consumers to finish
+    private val END_OF_STREAM: List<SAMRecord> = emptyList()
+
     @JvmStatic
     @Throws(InterruptedException::class)
     fun processBam(
@@ -27,58 +41,179 @@ object AsyncBamReader
         threadCount: Int
     )
     {
-        logger.debug("Processing {} potential sites in bam {}", genomeRegions.size, bamFile)
+        processBam(bamFile, samReaderFactory, genomeRegions, asyncRecordHandler, threadCount, MAX_BAM_RECORD_Q_SIZE / RECORD_BATCH_SIZE)
+    }
 
-        // create genome regions from the loci
-        // val taskCompletion = BamTaskCompletion(taskQ.size)
+    @Throws(InterruptedException::class)
+    internal fun processBam(
+        bamFile: String,
+        samReaderFactory: SamReaderFactory,
+        genomeRegions: Collection<GenomeRegion>,
+        asyncRecordHandler: (SAMRecord) -> Unit,
+        threadCount: Int,
+        maxQueuedBatches: Int
+    )
+    {
+        logger.debug("Processing {} potential sites in bam {}", genomeRegions.size, bamFile)
 
-        val bamRecordQ: BlockingQueue<Optional<SAMRecord>> = LinkedBlockingDeque()
+        val batchQueue: BlockingQueue<List<SAMRecord>> = ArrayBlockingQueue(maxQueuedBatches)
+        val metrics = PipelineMetrics(batchQueue)
 
         // create the bam record consumers
         val recordConsumers = ArrayList<BamRecordConsumerThread>()
 
         for (i in 0 until Math.max(threadCount, 1))
         {
-            val t = BamRecordConsumerThread(bamRecordQ, asyncRecordHandler)
+            val t = BamRecordConsumerThread(batchQueue, asyncRecordHandler, metrics)
             t.name = String.format("worker-%d", i)
             t.start()
             recordConsumers.add(t)
         }
         logger.info("{} bam record consumer threads started", recordConsumers.size)
 
-        val bamReader = BamReader(bamFile, samReaderFactory, genomeRegions, bamRecordQ)
-        bamReader.run()
-        bamRecordQ.put(Optional.empty()) // signals consumer to finish
+        // split the regions into contiguous partitions, one per reader, so each reader still moves forward through the BAM
+        val readerCount = Math.max(1, Math.min(Math.min(MAX_BAM_READER_COUNT, threadCount / 2), genomeRegions.size))
+        val regionPartitions = partitionRegions(genomeRegions, readerCount)
+        val bamReaders = ArrayList<BamReader>()
+
+        try
+        {
+            for (i in regionPartitions.indices)
+            {
+                val t = BamReader(bamFile, samReaderFactory, regionPartitions[i], batchQueue, metrics)
+                t.name = String.format("bam-reader-%d", i)
+                t.start()
+                bamReaders.add(t)
+            }
+            logger.info("{} bam reader threads started", bamReaders.size)
+        }
+        catch (e: Throwable)
+        {
+            // still wind down the threads already started before rethrowing
+            metrics.onFailure(e)
+        }
+
+        for (t in bamReaders)
+        {
+            t.join()
+        }
+
+        batchQueue.put(END_OF_STREAM) // signals consumer to finish
 
         for (t in recordConsumers)
         {
             t.join()
         }
 
-        logger.info("{} bam reader threads finished", recordConsumers.size)
+        metrics.logSummary()
+        logger.info("{} bam reader threads finished", bamReaders.size)
+
+        val failure = metrics.failure.get()
+
+        if (failure != null)
+            throw failure
+    }
+
+    @JvmStatic
+    fun partitionRegions(genomeRegions: Collection<GenomeRegion>, partitionCount: Int): List<List<GenomeRegion>>
+    {
+        val regionList = genomeRegions.toList()
+
+        if (regionList.isEmpty())
+            return listOf(emptyList())
+
+        val partitionSize = (regionList.size + partitionCount - 1) / partitionCount
+        return regionList.chunked(partitionSize)
+    }
+
+    // tracks queue depth and how long readers and consumers spend waiting on each other
+    internal class PipelineMetrics(private val queue: BlockingQueue<List<SAMRecord>>)
+    {
+        val recordsRead = AtomicLong()
+        val recordsProcessed = AtomicLong()
+        val readerBlockedNanos = AtomicLong()
+        val consumerIdleNanos = AtomicLong()
+        val maxQueueDepth = AtomicInteger()
+        val failure = AtomicReference<Throwable>()
+        private val lastLogTime = AtomicLong(System.currentTimeMillis())
+
+        fun failed(): Boolean = failure.get() != null
+
+        // only the first failure is kept and rethrown, later ones are usually a consequence of it
+        fun onFailure(e: Throwable)
+        {
+            if (failure.compareAndSet(null, e))
+                logger.error("bam processing failed in thread {}: {}", Thread.currentThread().name, e.toString())
+        }
+
+        fun queueDepth(): Int = queue.size
+
+        // number of records read but not yet processed by a consumer
+        fun consumerLag(): Long = recordsRead.get() - recordsProcessed.get()
+
+        fun onBatchQueued(batchSize: Int, blockedNanos: Long)
+        {
+            recordsRead.addAndGet(batchSize.toLong())
+            readerBlockedNanos.addAndGet(blockedNanos)
+            maxQueueDepth.accumulateAndGet(queue.size) { a, b -> Math.max(a, b) }
+
+            val now = System.currentTimeMillis()
+            val lastLog = lastLogTime.get()
+
+            if (now - lastLog >= QUEUE_LOG_INTERVAL_MS && lastLogTime.compareAndSet(lastLog, now))
+            {
+                logger.info("bam records read: {}, processed: {}, batch queue depth: {}, consumer lag: {} records",
+                    recordsRead.get(), recordsProcessed.get(), queueDepth(), consumerLag())
+            }
+        }
+
+        fun logSummary()
+        {
+            logger.info("bam records read: {}, processed: {}, max batch queue depth: {}, reader blocked: {}ms, consumer idle: {}ms",
+                recordsRead.get(), recordsProcessed.get(), maxQueueDepth.get(),
+                TimeUnit.NANOSECONDS.toMillis(readerBlockedNanos.get()), TimeUnit.NANOSECONDS.toMillis(consumerIdleNanos.get()))
+        }
     }
 
     internal class BamReader(
         bamFile: String,
         samReaderFactory: SamReaderFactory,
         private val genomeRegionList: Collection<GenomeRegion>,
-        private val outputRecordQ: Queue<Optional<SAMRecord>>)
+        private val outputBatchQ: BlockingQueue<List<SAMRecord>>,
+        private val metrics: PipelineMetrics
+    ) : Thread()
     {
         private val mSamReader: SamReader = samReaderFactory.open(File(bamFile))
+        private var mCurrentBatch = ArrayList<SAMRecord>(RECORD_BATCH_SIZE)
 
-        fun run()
+        override fun run()
         {
             logger.debug("bam reader start")
 
-            for (genomeRegion in genomeRegionList)
+            try
             {
-                logger.trace("querying genome region: {}", genomeRegion)
-                mSamReader.queryOverlapping(genomeRegion.chromosome(), genomeRegion.start(), genomeRegion.end())
-                    .use({ iterator -> processRecords(iterator) })
-            }
+                for (genomeRegion in genomeRegionList)
+                {
+                    logger.trace("querying genome region: {}", genomeRegion)
+                    mSamReader.queryOverlapping(genomeRegion.chromosome(), genomeRegion.start(), genomeRegion.end())
+                        .use({ iterator -> processRecords(iterator) })
+                }
+
+                // we do not process unmapped reads
+                // mSamReader.queryUnmapped().use({ iterator -> processRecords(iterator) })
 
-            // we do not process unmapped reads
-            // mSamReader.queryUnmapped().use({ iterator -> processRecords(iterator) })
+                flushBatch()
+            }
+            catch (e: InterruptedException)
+            {
+                logger.warn("bam reader interrupted")
+                metrics.onFailure(e)
+                Thread.currentThread().interrupt()
+            }
+            catch (e: Throwable)
+            {
+                metrics.onFailure(e)
+            }
 
             try
             {
@@ -95,6 +230,9 @@ object AsyncBamReader
         {
             while (iterator.hasNext())
             {
+                if (metrics.failed())
+                    return
+
                 val record = iterator.next()
 
                 if (record.duplicateReadFlag)
@@ -106,39 +244,30 @@ object AsyncBamReader
                 // we don't want to check the alignment region, reason is that we intentionally
                 // want to process unmapped read where mate pairs are mapped to an interesting region
                 // the downstream processing will take care of it.
-                outputRecordQ.add(Optional.of(record))
+                mCurrentBatch.add(record)
 
-                // important: we want to take a break if we are going to flood the output queue
-                checkAndWaitForConsumer()
+                if (mCurrentBatch.size >= RECORD_BATCH_SIZE)
+                    flushBatch()
             }
         }
 
-        private fun checkAndWaitForConsumer()
+        private fun flushBatch()
         {
-            if (outputRecordQ.size >= MAX_BAM_RECORD_Q_SIZE)
-            {
-                logger.info("bam record Q size: {}, max size reached, pausing bam reader", outputRecordQ.size)
+            if (mCurrentBatch.isEmpty())
+                return
 
-                // drain at least 80% of the queue before going back to work
-                while (outputRecordQ.size * 5 >= MAX_BAM_RECORD_Q_SIZE)
-                {
-                    try
-                    {
-                        Thread.sleep(1000)
-                    }
-                    catch (ex: InterruptedException)
-                    {
-                        Thread.currentThread().interrupt()
-                    }
-                }
-                logger.info("finished sleeping, bam record Q size: {}", outputRecordQ.size)
-            }
+            // blocks if the consumers are behind, which caps the records held in memory
+            val startTime = System.nanoTime()
+            outputBatchQ.put(mCurrentBatch)
+            metrics.onBatchQueued(mCurrentBatch.size, System.nanoTime() - startTime)
+            mCurrentBatch = ArrayList(RECORD_BATCH_SIZE)
         }
     }
 
     internal class BamRecordConsumerThread(
-        private val bamRecordQ: BlockingQueue<Optional<SAMRecord>>,
-        private val samRecordHandler: (SAMRecord) -> Unit
+        private val batchQueue: BlockingQueue<List<SAMRecord>>,
+        private val samRecordHandler: (SAMRecord) -> Unit,
+        private val metrics: PipelineMetrics
     ) : Thread()
     {
         override fun run()
@@ -146,25 +275,45 @@ object AsyncBamReader
             logger.debug("bam record consumer thread start")
             while (true)
             {
-                val record: Optional<SAMRecord> = try
+                val startTime = System.nanoTime()
+                val batch: List<SAMRecord> = try
                 {
-                    bamRecordQ.take()
+                    batchQueue.take()
                 }
                 catch (e: InterruptedException)
                 {
                     break
                 }
-                if (record.isEmpty)
+                metrics.consumerIdleNanos.addAndGet(System.nanoTime() - startTime)
+
+                if (batch === END_OF_STREAM)
                 {
-                    // if record is empty, it signals consumer to stop
-                    // we want to put it back so other consumer threads
-                    // will also know to stop
-                    bamRecordQ.put(record)
+                    // the end of stream marker is put back so other consumer
+                    // threads will also know to stop
+                    batchQueue.put(batch)
                     break
                 }
-                samRecordHandler(record.get())
+
+                // after a failure keep draining the queue, so readers are not left blocked on a full queue
+                if (metrics.failed())
+                    continue
+
+                try
+                {
+                    for (record in batch)
+                    {
+                        samRecordHandler(record)
+                    }
+                }
+                catch (e: Throwable)
+                {
+                    metrics.onFailure(e)
+                    continue
+                }
+
+                metrics.recordsProcessed.addAndGet(batch.size.toLong())
             }
             logger.debug("bam record consumer thread finish")
         }
     }
-}
\ No newline at end of file
+}
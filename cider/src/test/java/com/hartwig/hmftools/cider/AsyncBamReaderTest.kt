@@ -0,0 +1,126 @@
+package com.hartwig.hmftools.cider
+
+import com.hartwig.hmftools.common.genome.region.GenomeRegion
+import com.hartwig.hmftools.common.genome.region.GenomeRegions
+import htsjdk.samtools.SAMFileHeader
+import htsjdk.samtools.SAMFileWriterFactory
+import htsjdk.samtools.SAMRecord
+import htsjdk.samtools.SAMRecordSetBuilder
+import htsjdk.samtools.SamReaderFactory
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+
+class AsyncBamReaderTest
+{
+    @get:Rule
+    val tempFolder = TemporaryFolder()
+
+    @Test
+    fun testPartitionRegions()
+    {
+        val regions = ArrayList<GenomeRegion>()
+        for (i in 0 until 10)
+        {
+            regions.add(GenomeRegions.create("1", i * 1000 + 1, i * 1000 + 500))
+        }
+
+        var partitions = AsyncBamReader.partitionRegions(regions, 3)
+        assertEquals(3, partitions.size)
+        assertEquals(4, partitions[0].size)
+        assertEquals(4, partitions[1].size)
+        assertEquals(2, partitions[2].size)
+
+        // order of regions is preserved across partitions
+        assertEquals(regions, partitions.flatten())
+
+        partitions = AsyncBamReader.partitionRegions(regions, 1)
+        assertEquals(1, partitions.size)
+        assertEquals(10, partitions[0].size)
+
+        partitions = AsyncBamReader.partitionRegions(emptyList(), 2)
+        assertEquals(1, partitions.size)
+        assertEquals(0, partitions[0].size)
+    }
+
+    @Test(timeout = 30000)
+    fun testProcessAllRecords()
+    {
+        val bamFile = writeTestBam(5000, true)
+        val recordCount = AtomicInteger()
+
+        AsyncBamReader.processBam(bamFile.path, SamReaderFactory.makeDefault(), testRegions(), { recordCount.incrementAndGet() }, 4, 1)
+
+        assertEquals(5000, recordCount.get())
+    }
+
+    @Test(timeout = 30000)
+    fun testRecordHandlerFailure()
+    {
+        val bamFile = writeTestBam(5000, true)
+        val recordCount = AtomicInteger()
+
+        // every consumer fails, and the reader must not be left blocked on the full queue
+        val handler: (SAMRecord) -> Unit = {
+            if (recordCount.incrementAndGet() > 10)
+                throw IllegalStateException("handler failure")
+        }
+
+        val e = assertFailsWith<IllegalStateException> {
+            AsyncBamReader.processBam(bamFile.path, SamReaderFactory.makeDefault(), testRegions(), handler, 2, 1)
+        }
+
+        assertEquals("handler failure", e.message)
+    }
+
+    @Test(timeout = 30000)
+    fun testBamReaderFailure()
+    {
+        // region queries fail in the reader threads without an index
+        val bamFile = writeTestBam(100, false)
+
+        assertFailsWith<RuntimeException> {
+            AsyncBamReader.processBam(bamFile.path, SamReaderFactory.makeDefault(), testRegions(), {}, 4, 1)
+        }
+
+        // a missing BAM fails when the readers are created
+        assertFailsWith<RuntimeException> {
+            AsyncBamReader.processBam(
+                File(tempFolder.root, "missing.bam").path, SamReaderFactory.makeDefault(), testRegions(), {}, 4, 1)
+        }
+    }
+
+    private fun testRegions(): List<GenomeRegion>
+    {
+        return listOf(GenomeRegions.create(TEST_CHROMOSOME, 1, 50000), GenomeRegions.create(TEST_CHROMOSOME, 50001, 100000))
+    }
+
+    private fun writeTestBam(recordCount: Int, createIndex: Boolean): File
+    {
+        val recordBuilder = SAMRecordSetBuilder(true, SAMFileHeader.SortOrder.coordinate)
+
+        // reads are kept clear of the region boundary so none are read twice
+        for (i in 0 until recordCount)
+        {
+            val readStart = if (i % 2 == 0) 1 + (i * 7) % 40000 else 60001 + (i * 7) % 30000
+            recordBuilder.addFrag(String.format("READ_%05d", i), 0, readStart, false)
+        }
+
+        val bamFile = tempFolder.newFile(if (createIndex) "indexed.bam" else "unindexed.bam")
+
+        SAMFileWriterFactory().setCreateIndex(createIndex).makeBAMWriter(recordBuilder.header, true, bamFile).use { writer ->
+            recordBuilder.forEach { writer.addAlignment(it) }
+        }
+
+        return bamFile
+    }
+
+    companion object
+    {
+        private val TEST_CHROMOSOME = SAMRecordSetBuilder().header.getSequence(0).sequenceName
+    }
+}
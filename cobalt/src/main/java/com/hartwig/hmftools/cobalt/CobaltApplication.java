@@ -13,6 +13,7 @@ import static com.hartwig.hmftools.common.utils.version.VersionInfo.fromAppName;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -20,6 +21,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.stream.Collectors;
 
+import com.google.common.collect.Iterables;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hartwig.hmftools.cobalt.count.BamReadCounter;
 import com.hartwig.hmftools.cobalt.diploid.DiploidRegionLoader;
@@ -168,9 +170,10 @@ public class CobaltApplication
                 BooleanColumn.create(CobaltColumns.IS_MAPPABLE),
                 BooleanColumn.create(CobaltColumns.IS_AUTOSOME));
 
-        Collection<GCProfile> gcProfileList = GCProfileFactory.loadGCContent(WINDOW_SIZE, mConfig.GcProfilePath).values();
+        // a binary GC profile is read through views onto the mapped file, so profiles are not all held in memory
+        Collection<List<GCProfile>> chrGcProfiles = GCProfileFactory.loadChromosomeGcProfiles(WINDOW_SIZE, mConfig.GcProfilePath).values();
 
-        for(GCProfile gcProfile : gcProfileList)
+        for(GCProfile gcProfile : Iterables.concat(chrGcProfiles))
         {
             Row row = gcProfileTable.appendRow();
             long chrPosIndex = chromosomePosCodec.encodeChromosomePosition(gcProfile.chromosome(), gcProfile.start());
@@ -1,6 +1,7 @@
 package com.hartwig.hmftools.cobalt.ratio;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.hartwig.hmftools.common.utils.Doubles;
@@ -13,56 +14,90 @@ class DiploidRatioNormalization
     private int mEndIndex;
 
     private final long mMaxWindowDistance;
-    private final List<Double> mRatios;
-    private final List<Double> mResults;
+    private final double[] mRatios;
+    private final double[] mResults;
     private final RollingMedian mRollingMedian;
 
-    DiploidRatioNormalization(final double expectedRatio, int maxWindowDistance, int minWindowCoverage, final List<Double> ratios)
+    // missing ratios are held as NaN
+    DiploidRatioNormalization(final double expectedRatio, int maxWindowDistance, int minWindowCoverage, final double[] ratios)
     {
         mStartIndex = 0;
         mEndIndex = -1;
 
-        mResults = new ArrayList<>();
-        mRollingMedian = new RollingMedian();
+        mResults = new double[ratios.length];
+        mRollingMedian = new RollingMedian(validRatios(ratios));
 
         mMaxWindowDistance = maxWindowDistance;
         mRatios = ratios;
 
-        for(int currentIndex = 0; currentIndex < ratios.size(); currentIndex++)
+        for(int currentIndex = 0; currentIndex < ratios.length; currentIndex++)
         {
-            final Double current = ratios.get(currentIndex);
+            final double current = ratios[currentIndex];
 
             removeExpiredRatios(currentIndex);
             addNewRatios(currentIndex);
 
             double medianRatio = mRollingMedian.median();
-            Double correctedRatio = current;
+            double correctedRatio = current;
 
             if (isValid(current) && mRollingMedian.size() >= minWindowCoverage)
             {
                 correctedRatio = expectedRatio * current / medianRatio;
             }
 
-            mResults.add(correctedRatio);
+            mResults[currentIndex] = correctedRatio;
         }
     }
 
+    DiploidRatioNormalization(final double expectedRatio, int maxWindowDistance, int minWindowCoverage, final List<Double> ratios)
+    {
+        this(expectedRatio, maxWindowDistance, minWindowCoverage,
+                ratios.stream().mapToDouble(x -> x != null ? x : Double.NaN).toArray());
+    }
+
     @NotNull
-    List<Double> get()
+    double[] getRatios()
     {
         return mResults;
     }
 
-    private boolean isValid(final Double ratio)
+    @NotNull
+    List<Double> get()
+    {
+        List<Double> results = new ArrayList<>(mResults.length);
+
+        for(double result : mResults)
+        {
+            results.add(result);
+        }
+
+        return results;
+    }
+
+    private static boolean isValid(final double ratio)
     {
-        return ratio != null && Doubles.greaterThan(ratio, 0);
+        return !Double.isNaN(ratio) && Doubles.greaterThan(ratio, 0);
+    }
+
+    private static double[] validRatios(final double[] ratios)
+    {
+        int validCount = 0;
+        double[] validRatios = new double[ratios.length];
+
+        for(double ratio : ratios)
+        {
+            if(isValid(ratio))
+                validRatios[validCount++] = ratio;
+        }
+
+        return Arrays.copyOf(validRatios, validCount);
     }
 
     private void addNewRatios(int currentIndex)
     {
-        for(int laterIndex = mEndIndex + 1; laterIndex < mRatios.size(); laterIndex++)
+        for(int laterIndex = mEndIndex + 1; laterIndex < mRatios.length; laterIndex++)
         {
-            final Double later = mRatios.get(laterIndex);
+            final double later = mRatios[laterIndex];
 
             if(distance(currentIndex, laterIndex) <= mMaxWindowDistance)
             {
@@ -75,7 +110,7 @@ class DiploidRatioNormalization
         }
     }
 
-    private void addToMedian(final Double current)
+    private void addToMedian(final double current)
     {
         mEndIndex++;
         if(isValid(current))
@@ -88,7 +123,7 @@ class DiploidRatioNormalization
     {
         for(int earlierIndex = mStartIndex; earlierIndex < currentIndex; earlierIndex++)
         {
-            final Double earlier = mRatios.get(earlierIndex);
+            final double earlier = mRatios[earlierIndex];
             final boolean isValid = isValid(earlier);
 
             if(!isValid || distance(currentIndex, earlierIndex) > mMaxWindowDistance)
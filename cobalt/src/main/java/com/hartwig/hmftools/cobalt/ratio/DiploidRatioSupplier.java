@@ -3,7 +3,9 @@ package com.hartwig.hmftools.cobalt.ratio;
 import static com.hartwig.hmftools.cobalt.CobaltConstants.ROLLING_MEDIAN_MAX_DISTANCE;
 import static com.hartwig.hmftools.cobalt.CobaltConstants.ROLLING_MEDIAN_MIN_COVERAGE;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.hartwig.hmftools.cobalt.CobaltColumns;
 import com.hartwig.hmftools.common.cobalt.MedianRatio;
@@ -19,15 +21,26 @@ public final class DiploidRatioSupplier
     {
         Table results = normalRatios.emptyCopy();
 
+        Map<String,int[]> chromosomeRowIndices = chromosomeRowIndices(normalRatios.stringColumn(CobaltColumns.CHROMOSOME));
+
+        double[] allRatios = normalRatios.doubleColumn(CobaltColumns.RATIO).asDoubleArray();
+
         for (CobaltChromosome cobaltChromosome : new CobaltChromosomes(medianRatios).chromosomes())
         {
             String chr = cobaltChromosome.contig();
             if(HumanChromosome.contains(chr))
             {
-                Table chrTable = normalRatios.where(normalRatios.stringColumn(CobaltColumns.CHROMOSOME).isEqualTo(chr));
+                int[] rowIndices = chromosomeRowIndices.getOrDefault(chr, new int[0]);
+                Table chrTable = normalRatios.rows(rowIndices);
+
+                final double[] ratios = new double[rowIndices.length];
+
+                for(int i = 0; i < ratios.length; ++i)
+                {
+                    ratios[i] = allRatios[rowIndices[i]];
+                }
 
-                final List<Double> ratios = chrTable.doubleColumn(CobaltColumns.RATIO).asList();
-                final List<Double> adjustedRatios;
+                final double[] adjustedRatios;
                 if (HumanChromosome.fromString(chr).equals(HumanChromosome._Y))
                 {
                     adjustedRatios = ratios;
@@ -38,7 +51,7 @@ public final class DiploidRatioSupplier
                     adjustedRatios = new DiploidRatioNormalization(expectedRatio,
                             ROLLING_MEDIAN_MAX_DISTANCE,
                             ROLLING_MEDIAN_MIN_COVERAGE,
-                            ratios).get();
+                            ratios).getRatios();
                 }
 
                 chrTable.replaceColumn(DoubleColumn.create(CobaltColumns.RATIO, adjustedRatios));
@@ -48,4 +61,34 @@ public final class DiploidRatioSupplier
 
         return results;
     }
+
+    // group the row indices by chromosome in a single pass, rather than filtering the table per chromosome
+    private static Map<String,int[]> chromosomeRowIndices(final StringColumn chromosomeColumn)
+    {
+        Map<String,Integer> chromosomeCounts = new HashMap<>();
+
+        for(int i = 0; i < chromosomeColumn.size(); ++i)
+        {
+            chromosomeCounts.merge(chromosomeColumn.get(i), 1, Integer::sum);
+        }
+
+        Map<String,int[]> chromosomeRowIndices = new HashMap<>();
+        Map<String,Integer> chromosomeFillCounts = new HashMap<>();
+
+        for(Map.Entry<String,Integer> entry : chromosomeCounts.entrySet())
+        {
+            chromosomeRowIndices.put(entry.getKey(), new int[entry.getValue()]);
+            chromosomeFillCounts.put(entry.getKey(), 0);
+        }
+
+        for(int i = 0; i < chromosomeColumn.size(); ++i)
+        {
+            String chromosome = chromosomeColumn.get(i);
+            int fillIndex = chromosomeFillCounts.get(chromosome);
+            chromosomeRowIndices.get(chromosome)[fillIndex] = i;
+            chromosomeFillCounts.put(chromosome, fillIndex + 1);
+        }
+
+        return chromosomeRowIndices;
+    }
 }
@@ -13,6 +13,8 @@ import com.hartwig.hmftools.common.genome.gc.ImmutableGCBucket;
 import tech.tablesaw.aggregate.AggregateFunctions;
 import tech.tablesaw.aggregate.NumericAggregateFunction;
 import tech.tablesaw.api.*;
+import tech.tablesaw.selection.BitmapBackedSelection;
+import tech.tablesaw.selection.Selection;
 
 public class GcNormalizedRatioMapper implements RatioMapper
 {
@@ -20,6 +22,7 @@ public class GcNormalizedRatioMapper implements RatioMapper
     private static final int MAX_BUCKET = 60;
 
     private Table mGCMedianReadDepth;
+    private int[] mBucketWindowCounts;
     private double mSampleMedianReadDepth;
     private double mSampleMeanReadDepth;
 
@@ -55,38 +58,108 @@ public class GcNormalizedRatioMapper implements RatioMapper
         mSampleMedianReadDepth = aggFunc.summarize(gcMedianCalcDf.doubleColumn(CobaltColumns.RATIO));
         mSampleMeanReadDepth = gcMedianCalcDf.doubleColumn(CobaltColumns.RATIO).mean();
 
-        // groupby gcBucket and apply median, to create a table with columns
-        // gcBucket, gcMedianCount, windowCount
-        gcMedianCalcDf = gcMedianCalcDf.retainColumns(CobaltColumns.GC_BUCKET, CobaltColumns.RATIO)
-                .summarize(CobaltColumns.RATIO, aggFunc, AggregateFunctions.count)
-                .by(CobaltColumns.GC_BUCKET);
+        // calculate the median per GC bucket from primitive arrays, rather than a group-by and join
+        double[] bucketMedians = calcBucketMedians(
+                gcMedianCalcDf.intColumn(CobaltColumns.GC_BUCKET).asIntArray(),
+                gcMedianCalcDf.doubleColumn(CobaltColumns.RATIO).asDoubleArray(),
+                aggFunc);
 
-        CB_LOGGER.trace("sample median: {}, mean: {}, gc median calc: {}", mSampleMedianReadDepth, mSampleMeanReadDepth, gcMedianCalcDf);
+        CB_LOGGER.trace("sample median: {}, mean: {}, gc median calc: {}", mSampleMedianReadDepth, mSampleMeanReadDepth, mGCMedianReadDepth);
 
-        gcMedianCalcDf.column(String.format("Median [%s]", CobaltColumns.RATIO)).setName("gcMedianCount");
-        gcMedianCalcDf.column(String.format("Count [%s]", CobaltColumns.RATIO)).setName("windowCount");
-
-        // merge in the gc median count
-        Table ratiosWithMedianCount = inputRatios
-                .where(inputRatios.booleanColumn(CobaltColumns.IS_MAPPABLE).asSelection())
-                .joinOn(CobaltColumns.GC_BUCKET).inner(gcMedianCalcDf);
+        // keep mappable windows in a bucket with a median, and apply the normalisation in the same pass
+        Table mappableRatios = inputRatios.where(inputRatios.booleanColumn(CobaltColumns.IS_MAPPABLE).asSelection());
+        int[] gcBuckets = mappableRatios.intColumn(CobaltColumns.GC_BUCKET).asIntArray();
+        double[] ratios = mappableRatios.doubleColumn(CobaltColumns.RATIO).asDoubleArray();
 
         double medianNormalisation = mSampleMedianReadDepth / mSampleMeanReadDepth;
 
-        DoubleColumn gcNormalisedRatio = ratiosWithMedianCount.doubleColumn(CobaltColumns.RATIO)
-                .multiply(medianNormalisation)
-                .divide(ratiosWithMedianCount.doubleColumn("gcMedianCount"))
-                .map(d -> Double.isFinite(d) ? d : Double.NaN); // protect against division by 0
+        Selection hasBucketMedian = new BitmapBackedSelection();
+        DoubleColumn gcMedianCountColumn = DoubleColumn.create("gcMedianCount");
+        DoubleColumn windowCountColumn = DoubleColumn.create("windowCount");
+        DoubleColumn gcNormalisedRatio = DoubleColumn.create(CobaltColumns.RATIO);
+
+        for(int i = 0; i < gcBuckets.length; ++i)
+        {
+            int bucketIndex = bucketIndex(gcBuckets[i]);
+
+            if(bucketIndex < 0 || Double.isNaN(bucketMedians[bucketIndex]))
+                continue;
 
-        ratiosWithMedianCount.replaceColumn(gcNormalisedRatio.setName(CobaltColumns.RATIO));
+            double gcMedianCount = bucketMedians[bucketIndex];
+            double ratio = ratios[i] * medianNormalisation / gcMedianCount;
 
-        // resort it, the join messes up with the ordering
+            hasBucketMedian.add(i);
+            gcMedianCountColumn.append(gcMedianCount);
+            windowCountColumn.append(mBucketWindowCounts[bucketIndex]);
+            gcNormalisedRatio.append(Double.isFinite(ratio) ? ratio : Double.NaN); // protect against division by 0
+        }
+
+        Table ratiosWithMedianCount = mappableRatios.where(hasBucketMedian);
+        ratiosWithMedianCount.replaceColumn(CobaltColumns.RATIO, gcNormalisedRatio);
+        ratiosWithMedianCount.addColumns(gcMedianCountColumn, windowCountColumn);
+
+        // keep the ordering consistent with the input positions
         ratiosWithMedianCount = ratiosWithMedianCount.sortAscendingOn(CobaltColumns.ENCODED_CHROMOSOME_POS);
 
-        mGCMedianReadDepth = gcMedianCalcDf;
         return ratiosWithMedianCount;
     }
 
+    private static int bucketIndex(int gcBucket)
+    {
+        return gcBucket >= MIN_BUCKET && gcBucket <= MAX_BUCKET ? gcBucket - MIN_BUCKET : -1;
+    }
+
+    // median ratio per GC bucket, NaN where a bucket has no windows
+    private double[] calcBucketMedians(final int[] gcBuckets, final double[] ratios, final NumericAggregateFunction aggFunc)
+    {
+        int bucketCount = MAX_BUCKET - MIN_BUCKET + 1;
+        mBucketWindowCounts = new int[bucketCount];
+
+        for(int gcBucket : gcBuckets)
+        {
+            ++mBucketWindowCounts[bucketIndex(gcBucket)];
+        }
+
+        double[][] bucketRatios = new double[bucketCount][];
+        int[] fillCounts = new int[bucketCount];
+
+        for(int b = 0; b < bucketCount; ++b)
+        {
+            bucketRatios[b] = new double[mBucketWindowCounts[b]];
+        }
+
+        for(int i = 0; i < gcBuckets.length; ++i)
+        {
+            int bucketIndex = bucketIndex(gcBuckets[i]);
+            bucketRatios[bucketIndex][fillCounts[bucketIndex]++] = ratios[i];
+        }
+
+        double[] bucketMedians = new double[bucketCount];
+
+        IntColumn bucketColumn = IntColumn.create(CobaltColumns.GC_BUCKET);
+        DoubleColumn medianColumn = DoubleColumn.create("gcMedianCount");
+        DoubleColumn countColumn = DoubleColumn.create("windowCount");
+
+        for(int b = 0; b < bucketCount; ++b)
+        {
+            if(mBucketWindowCounts[b] == 0)
+            {
+                bucketMedians[b] = Double.NaN;
+                continue;
+            }
+
+            // use the same median function as the sample median so values match exactly
+            bucketMedians[b] = aggFunc.summarize(DoubleColumn.create(CobaltColumns.RATIO, bucketRatios[b]));
+
+            bucketColumn.append(b + MIN_BUCKET);
+            medianColumn.append(bucketMedians[b]);
+            countColumn.append(mBucketWindowCounts[b]);
+        }
+
+        mGCMedianReadDepth = Table.create(bucketColumn, medianColumn, countColumn);
+        return bucketMedians;
+    }
+
     public Table gcMedianReadDepthTable()
     {
         return mGCMedianReadDepth;
@@ -1,36 +1,48 @@
 package com.hartwig.hmftools.cobalt.ratio;
 
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.Arrays;
 
+// rolling median over a fixed set of possible values. Each value is mapped to its rank amongst the distinct
+// possible values, and the counts per rank are held in a Fenwick tree, so add, remove and median are all O(log n)
+// without boxing. The window is treated as a lower and upper half, matching the behaviour of a max-heap / min-heap
+// pair, where a value is removed from the half it is expected to be in given the current median
 public class RollingMedian
 {
-    private final PriorityQueue<Double> mMinheap;
-    private final PriorityQueue<Double> mMaxheap;
+    private final double[] mValues; // sorted distinct values which can be added
+    private final int[] mTree; // Fenwick tree of counts per value rank, 1-based
+    private final int mTreeMaxStep;
 
-    public RollingMedian()
+    private int mSize;
+    private int mLowerCount;
+
+    public RollingMedian(final double[] possibleValues)
     {
-       mMinheap = new PriorityQueue<>(new MinHeapComparator());
-       mMaxheap = new PriorityQueue<>(new MaxHeapComparator());
+        mValues = distinctSorted(possibleValues);
+        mTree = new int[mValues.length + 1];
+
+        int maxStep = 1;
+        while(maxStep * 2 <= mValues.length)
+        {
+            maxStep *= 2;
+        }
+
+        mTreeMaxStep = maxStep;
+        mSize = 0;
+        mLowerCount = 0;
     }
 
     public void add(double n)
     {
-        if(isEmpty())
-        {
-            mMinheap.add(n);
-        }
-        else
-        {
-            if(Double.compare(n, median()) <= 0)
-            {
-                mMaxheap.add(n);
-            }
-            else
-            {
-                mMinheap.add(n);
-            }
-        }
+        int rank = rankOf(n);
+
+        if(rank < 0)
+            throw new IllegalArgumentException("value " + n + " not in rolling median's possible values");
+
+        if(!isEmpty() && Double.compare(n, median()) <= 0)
+            ++mLowerCount;
+
+        updateCount(rank, 1);
+        ++mSize;
 
         fixChaos();
     }
@@ -39,21 +51,37 @@ public class RollingMedian
     {
         if(!isEmpty())
         {
-            if(Double.compare(n, median()) <= 0)
-            {
-                mMaxheap.remove(n);
-            }
-            else
+            int rank = rankOf(n);
+            int valueCount = rank >= 0 ? countAt(rank) : 0;
+
+            if(valueCount > 0)
             {
-                mMinheap.remove(n);
+                int countBelow = prefixCount(rank);
+
+                if(Double.compare(n, median()) <= 0)
+                {
+                    // only removed if in the lower half
+                    if(countBelow < mLowerCount)
+                    {
+                        updateCount(rank, -1);
+                        --mSize;
+                        --mLowerCount;
+                    }
+                }
+                else if(countBelow + valueCount > mLowerCount)
+                {
+                    updateCount(rank, -1);
+                    --mSize;
+                }
             }
         }
+
         fixChaos();
     }
 
     public int size()
     {
-        return mMaxheap.size() + mMinheap.size();
+        return mSize;
     }
 
     private boolean isEmpty()
@@ -61,20 +89,20 @@ public class RollingMedian
         return size() == 0;
     }
 
+    private int upperCount()
+    {
+        return mSize - mLowerCount;
+    }
+
     private void fixChaos()
     {
-        //if sizes of heaps differ by 2, then it's a chaos, since median must be the middle element
-        if(Math.abs(mMaxheap.size() - mMinheap.size()) > 1)
+        // if sizes of the halves differ by 2, move the boundary value from the larger half into the smaller one
+        if(Math.abs(mLowerCount - upperCount()) > 1)
         {
-            //check which one is the culprit and take action by kicking out the root from culprit into victim
-            if(mMaxheap.size() > mMinheap.size())
-            {
-                mMinheap.add(mMaxheap.poll());
-            }
+            if(mLowerCount > upperCount())
+                --mLowerCount;
             else
-            {
-                mMaxheap.add(mMinheap.poll());
-            }
+                ++mLowerCount;
         }
     }
 
@@ -84,36 +112,85 @@ public class RollingMedian
         {
             return 0;
         }
-        if(mMaxheap.size() == mMinheap.size())
+        if(mLowerCount == upperCount())
         {
-            return (mMaxheap.peek() + mMinheap.peek()) / 2;
+            return (valueAt(mLowerCount - 1) + valueAt(mLowerCount)) / 2;
         }
-        else if(mMaxheap.size() > mMinheap.size())
+        else if(mLowerCount > upperCount())
         {
-            return mMaxheap.peek();
+            return valueAt(mLowerCount - 1);
         }
         else
         {
-            return mMinheap.peek();
+            return valueAt(mLowerCount);
         }
     }
 
-    private static class MinHeapComparator implements Comparator<Double>
+    private int rankOf(double value)
+    {
+        int index = Arrays.binarySearch(mValues, value);
+        return index >= 0 ? index : -1;
+    }
+
+    private void updateCount(int rank, int delta)
     {
-        @Override
-        public int compare(Double i, Double j)
+        for(int i = rank + 1; i < mTree.length; i += i & -i)
         {
-            return Double.compare(i, j);
+            mTree[i] += delta;
         }
     }
 
-    private static class MaxHeapComparator implements Comparator<Double>
+    // number of values with a lower rank
+    private int prefixCount(int rank)
     {
-        // opposite to minHeapComparator, invert the return values
-        @Override
-        public int compare(Double i, Double j)
+        int count = 0;
+
+        for(int i = rank; i > 0; i -= i & -i)
         {
-            return -1 * Double.compare(i, j);
+            count += mTree[i];
         }
+
+        return count;
+    }
+
+    private int countAt(int rank)
+    {
+        return prefixCount(rank + 1) - prefixCount(rank);
+    }
+
+    // the value at the 0-based index in sorted order of all values in the window
+    private double valueAt(int index)
+    {
+        int position = 0;
+        int remaining = index;
+
+        for(int step = mTreeMaxStep; step > 0; step >>= 1)
+        {
+            int next = position + step;
+
+            if(next < mTree.length && mTree[next] <= remaining)
+            {
+                position = next;
+                remaining -= mTree[next];
+            }
+        }
+
+        return mValues[position];
+    }
+
+    private static double[] distinctSorted(final double[] values)
+    {
+        double[] sorted = Arrays.copyOf(values, values.length);
+        Arrays.sort(sorted);
+
+        int distinctCount = 0;
+
+        for(int i = 0; i < sorted.length; ++i)
+        {
+            if(distinctCount == 0 || Double.compare(sorted[i], sorted[distinctCount - 1]) != 0)
+                sorted[distinctCount++] = sorted[i];
+        }
+
+        return Arrays.copyOf(sorted, distinctCount);
     }
-}
\ No newline at end of file
+}
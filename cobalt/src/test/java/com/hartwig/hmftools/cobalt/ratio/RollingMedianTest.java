@@ -15,7 +15,7 @@ public class RollingMedianTest
     @Before
     public void setup()
     {
-        victim = new RollingMedian();
+        victim = new RollingMedian(new double[] { 7, 5, 6, 5, 2 });
     }
 
     @Test
@@ -50,6 +50,29 @@ public class RollingMedianTest
         assertMedian(5.5);
     }
 
+    @Test
+    public void testDuplicateValues()
+    {
+        victim.add(5);
+        victim.add(5);
+        victim.add(6);
+        victim.add(2);
+        assertMedian(5);
+        assertEquals(4, victim.size());
+
+        victim.remove(5);
+        assertMedian(5);
+        victim.remove(2);
+        assertMedian(5.5);
+        assertEquals(2, victim.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownValue()
+    {
+        victim.add(3);
+    }
+
     private void assertMedian(double expected)
     {
         assertEquals(expected, victim.median(), EPSILON);
@@ -18,7 +18,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.StringJoiner;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import com.hartwig.hmftools.common.utils.TaskExecutor;
@@ -178,19 +177,18 @@ public class CuppaDataPrep
         {
             CUP_LOGGER.info("Extracting category({})", categoryType);
 
-            ConcurrentHashMap<DataItem.Index, String[]> featureBySampleMatrix = new ConcurrentHashMap<>();
+            DataItemMatrix matrix = new DataItemMatrix(mConfig.SampleIds);
 
             List<SampleOneCategoryTask> sampleTasks = new ArrayList<>();
             for(int sampleIndex = 0; sampleIndex < mConfig.SampleIds.size(); ++sampleIndex)
             {
                 CategoryPrep categoryPrep = createCategoryPrep(categoryType);
-                sampleTasks.add(new SampleOneCategoryTask(sampleIndex, mConfig, categoryPrep, featureBySampleMatrix));
+                sampleTasks.add(new SampleOneCategoryTask(sampleIndex, mConfig, categoryPrep, matrix));
             }
 
             List<Callable> callableTasks = sampleTasks.stream().collect(Collectors.toList());
             TaskExecutor.executeTasks(callableTasks, mConfig.Threads);
 
-            DataItemMatrix matrix = new DataItemMatrix(mConfig.SampleIds, featureBySampleMatrix);
             matrix.sortIndexes();
 
             return matrix;
@@ -217,21 +215,25 @@ public class CuppaDataPrep
                     writer.newLine();
                 }
 
+                // rows are formatted one at a time from the typed columns
+                StringBuilder row = new StringBuilder();
+
                 for(DataItem.Index index : dataItemMatrix.getIndexes())
                 {
-                    joiner = new StringJoiner(DELIMITER);
+                    row.setLength(0);
 
-                    joiner.add(index.Source.toString());
-                    joiner.add(index.Type.getAlias());
-                    joiner.add(index.Key);
+                    row.append(index.Source.toString());
+                    row.append(DELIMITER).append(index.Type.getAlias());
+                    row.append(DELIMITER).append(index.Key);
+
+                    FeatureColumn column = dataItemMatrix.FeatureColumns.get(index);
 
                     for(int sampleIndex = 0; sampleIndex < dataItemMatrix.nSamples(); sampleIndex++)
                     {
-                        String value = dataItemMatrix.get(index)[sampleIndex];
-                        joiner.add(value);
+                        row.append(DELIMITER).append(column.get(sampleIndex));
                     }
 
-                    writer.write(joiner.toString());
+                    writer.write(row.toString());
                     writer.newLine();
                 }
 
@@ -12,6 +12,17 @@ public class DataItem implements Comparable<DataItem>
     public final Index Index;
     public final String Value;
 
+    // the kind of value and its number format, so cohort matrices can hold values in typed columns
+    public final ValueType Type;
+    public final String Format;
+
+    public enum ValueType
+    {
+        INTEGER,
+        DECIMAL,
+        TEXT;
+    }
+
     public static final String FLD_SOURCE = "Source";
     public static final String FLD_CATEGORY = "Category";
     public static final String FLD_KEY = "Key";
@@ -21,18 +32,24 @@ public class DataItem implements Comparable<DataItem>
     {
         Index = new Index(source, type, key);
         Value = String.valueOf(intValue);
+        Type = ValueType.INTEGER;
+        Format = null;
     }
 
     public DataItem(final DataSource source, final ItemType type, final String key, final boolean boolValue)
     {
         Index = new Index(source, type, key);
         Value = boolValue ? "1" : "0";
+        Type = ValueType.INTEGER;
+        Format = null;
     }
 
     public DataItem(final DataSource source, final ItemType type, final String key, final double doubleValue, String numberFormat)
     {
         Index = new Index(source, type, key);
         Value = String.format(Locale.ENGLISH, numberFormat, doubleValue);
+        Type = ValueType.DECIMAL;
+        Format = numberFormat;
     }
 
     @VisibleForTesting
@@ -40,6 +57,8 @@ public class DataItem implements Comparable<DataItem>
     {
         Index = new Index(source, type, key);
         Value = stringValue;
+        Type = ValueType.TEXT;
+        Format = null;
     }
 
     public static class Index implements Comparable<Index>
@@ -1,55 +1,76 @@
 package com.hartwig.hmftools.cup.prep;
 
-import static com.hartwig.hmftools.cup.common.CupConstants.CUP_LOGGER;
-
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DataItemMatrix
 {
     public final List<String> SampleIds;
-    public final Map<DataItem.Index, String[]> FeatureBySampleMatrix;
+    public final Map<DataItem.Index,FeatureColumn> FeatureColumns;
     public List<DataItem.Index> Indexes;
 
-    public DataItemMatrix(
-            final List<String> sampleIds,
-            final Map<DataItem.Index, String[]> featureBySampleMatrix
-    ){
-        SampleIds = sampleIds;
-        FeatureBySampleMatrix = featureBySampleMatrix;
-        Indexes = new ArrayList<>(FeatureBySampleMatrix.keySet());
+    // categorical values are shared across features and samples
+    private final Map<String,String> mTextValues;
 
-        checkDimensions();
+    public DataItemMatrix(final List<String> sampleIds)
+    {
+        SampleIds = sampleIds;
+        FeatureColumns = new ConcurrentHashMap<>();
+        Indexes = null;
+        mTextValues = new ConcurrentHashMap<>();
     }
 
-    private void checkDimensions()
+    // safe to call concurrently for different samples
+    public void addSampleItems(int sampleIndex, final List<DataItem> dataItems)
     {
-        for(String[] row : FeatureBySampleMatrix.values())
+        int nSamples = nSamples();
+
+        for(DataItem dataItem : dataItems)
         {
-            if(nSamples() != row.length)
-            {
-                CUP_LOGGER.error("Found FeatureBySampleMatrix row with length {}, but required {} (= number of SampleIds)", row.length, nSamples());
-                System.exit(1);
-            }
+            FeatureColumn column = FeatureColumns.computeIfAbsent(
+                    dataItem.Index, k -> new FeatureColumn(dataItem.Type, dataItem.Format, nSamples));
+
+            column.set(sampleIndex, dataItem, mTextValues);
         }
     }
 
-    public String[] get(DataItem.Index index)
+    public String get(final DataItem.Index index, int sampleIndex)
+    {
+        return FeatureColumns.get(index).get(sampleIndex);
+    }
+
+    public String[] get(final DataItem.Index index)
     {
-        return FeatureBySampleMatrix.get(index);
+        FeatureColumn column = FeatureColumns.get(index);
+
+        if(column == null)
+            return null;
+
+        String[] values = new String[nSamples()];
+
+        for(int sampleIndex = 0; sampleIndex < values.length; ++sampleIndex)
+        {
+            values[sampleIndex] = column.get(sampleIndex);
+        }
+
+        return values;
     }
 
     public List<DataItem.Index> getIndexes()
     {
+        if(Indexes == null)
+            Indexes = new ArrayList<>(FeatureColumns.keySet());
+
         return Indexes;
     }
 
     public int nFeatures()
     {
-        return Indexes.size();
+        return FeatureColumns.size();
     }
 
     public int nSamples()
@@ -59,12 +80,13 @@ public class DataItemMatrix
 
     public void sortIndexes()
     {
+        Indexes = new ArrayList<>(FeatureColumns.keySet());
         Collections.sort(Indexes);
     }
 
     public void printRows()
     {
-        for(DataItem.Index index : Indexes)
+        for(DataItem.Index index : getIndexes())
         {
             System.out.println(index + " Values=" + Arrays.toString(get(index)));
         }
@@ -73,9 +95,9 @@ public class DataItemMatrix
     public List<String> getFeatureValuesBySampleIndex(int sampleIndex)
     {
         List<String> featureValues = new ArrayList<>();
-        for(DataItem.Index featureIndex : Indexes)
+        for(DataItem.Index featureIndex : getIndexes())
         {
-            featureValues.add(get(featureIndex)[sampleIndex]);
+            featureValues.add(get(featureIndex, sampleIndex));
         }
         return featureValues;
     }
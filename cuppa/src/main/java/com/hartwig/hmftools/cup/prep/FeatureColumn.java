@@ -0,0 +1,106 @@
+package com.hartwig.hmftools.cup.prep;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.hartwig.hmftools.cup.prep.DataItem.ValueType;
+
+// one feature's values across all samples in a cohort, held in a primitive array by value type. Each sample only
+// writes its own slot so concurrent sample tasks need no locking
+public class FeatureColumn
+{
+    public final ValueType Type;
+
+    private final String mFormat;
+    private final boolean[] mPresent;
+
+    private final int[] mIntValues;
+    private final float[] mFloatValues;
+    private final String[] mTextValues;
+
+    // values which cannot be reproduced from the typed array are kept as written, keyed by sample index
+    private final Map<Integer,String> mExactValues;
+
+    public FeatureColumn(final ValueType type, final String format, int sampleCount)
+    {
+        Type = type;
+        mFormat = format;
+        mPresent = new boolean[sampleCount];
+
+        mIntValues = type == ValueType.INTEGER ? new int[sampleCount] : null;
+        mFloatValues = type == ValueType.DECIMAL ? new float[sampleCount] : null;
+        mTextValues = type == ValueType.TEXT ? new String[sampleCount] : null;
+
+        mExactValues = new ConcurrentHashMap<>();
+    }
+
+    public int sampleCount() { return mPresent.length; }
+
+    public void set(int sampleIndex, final DataItem dataItem, final Map<String,String> textValues)
+    {
+        if(dataItem.Value == null)
+            return;
+
+        mPresent[sampleIndex] = true;
+
+        if(dataItem.Type != Type || (Type == ValueType.DECIMAL && !mFormat.equals(dataItem.Format)))
+        {
+            mExactValues.put(sampleIndex, dataItem.Value);
+            return;
+        }
+
+        switch(Type)
+        {
+            case INTEGER:
+                mIntValues[sampleIndex] = Integer.parseInt(dataItem.Value);
+                break;
+
+            case DECIMAL:
+                // stored from the formatted value, which re-formats identically unless it needs more precision than a float
+                float floatValue = Float.parseFloat(dataItem.Value);
+
+                if(formatDecimal(floatValue).equals(dataItem.Value))
+                    mFloatValues[sampleIndex] = floatValue;
+                else
+                    mExactValues.put(sampleIndex, dataItem.Value);
+
+                break;
+
+            default:
+                mTextValues[sampleIndex] = textValues.computeIfAbsent(dataItem.Value, k -> k);
+                break;
+        }
+    }
+
+    public String get(int sampleIndex)
+    {
+        if(!mPresent[sampleIndex])
+            return null;
+
+        if(!mExactValues.isEmpty())
+        {
+            String exactValue = mExactValues.get(sampleIndex);
+
+            if(exactValue != null)
+                return exactValue;
+        }
+
+        switch(Type)
+        {
+            case INTEGER:
+                return String.valueOf(mIntValues[sampleIndex]);
+
+            case DECIMAL:
+                return formatDecimal(mFloatValues[sampleIndex]);
+
+            default:
+                return mTextValues[sampleIndex];
+        }
+    }
+
+    private String formatDecimal(float value)
+    {
+        return String.format(Locale.ENGLISH, mFormat, (double)value);
+    }
+}
@@ -4,7 +4,6 @@ import static com.hartwig.hmftools.cup.common.CupConstants.CUP_LOGGER;
 
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -16,26 +15,26 @@ public class SampleOneCategoryTask implements Callable
     public final String mSampleName;
 
     @Nullable private List<DataItem> mDataItems;
-    @Nullable ConcurrentHashMap<DataItem.Index, String[]> FeatureBySampleMatrix;
+    @Nullable private final DataItemMatrix mDataItemMatrix;
 
     public SampleOneCategoryTask(
             final int sampleIndex,
             final PrepConfig prepConfig,
             final CategoryPrep categoryPrep,
-            @Nullable ConcurrentHashMap<DataItem.Index, String[]> featureBySampleMatrix)
+            @Nullable DataItemMatrix dataItemMatrix)
     {
         mConfig = prepConfig;
         mCategoryPrep = categoryPrep;
         mSampleIndex = sampleIndex;
         mSampleName = mConfig.SampleIds.get(mSampleIndex);
 
-        if(mConfig.isMultiSample() & featureBySampleMatrix == null)
+        if(mConfig.isMultiSample() & dataItemMatrix == null)
         {
-            CUP_LOGGER.error("`featureBySampleMatrix` must not be null in multi sample mode");
+            CUP_LOGGER.error("`dataItemMatrix` must not be null in multi sample mode");
             System.exit(1);
         }
 
-        FeatureBySampleMatrix = featureBySampleMatrix;
+        mDataItemMatrix = dataItemMatrix;
     }
 
     public void processSample()
@@ -56,15 +55,11 @@ public class SampleOneCategoryTask implements Callable
         return mDataItems;
     }
 
-    public synchronized void addDataItemsToMatrix()
+    public void addDataItemsToMatrix()
     {
-        int nSamples = mConfig.SampleIds.size();
-
-        for(DataItem dataItem : mDataItems)
-        {
-            FeatureBySampleMatrix.computeIfAbsent(dataItem.Index, k -> new String[nSamples]);
-            FeatureBySampleMatrix.get(dataItem.Index)[mSampleIndex] = dataItem.Value;
-        }
+        // each task only writes its own sample's slots, and the items are released once held in the matrix
+        mDataItemMatrix.addSampleItems(mSampleIndex, mDataItems);
+        mDataItems = null;
     }
 
     public void run()
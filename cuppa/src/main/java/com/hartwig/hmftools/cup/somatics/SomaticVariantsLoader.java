@@ -14,6 +14,7 @@ import static com.hartwig.hmftools.cup.somatics.SomaticVariant.FLD_TYPE;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
@@ -21,15 +22,14 @@ import java.util.List;
 import java.util.Map;
 
 import com.hartwig.hmftools.common.utils.file.FileReaderUtils;
+import com.hartwig.hmftools.common.variant.ParallelVcfReader;
 import com.hartwig.hmftools.common.variant.VariantType;
-import com.hartwig.hmftools.common.variant.VcfFileReader;
+import com.hartwig.hmftools.common.variant.VcfRecord;
 import com.hartwig.hmftools.cup.prep.PrepConfig;
 
 import org.jetbrains.annotations.Nullable;
 
 import htsjdk.variant.variantcontext.VariantContext;
-import htsjdk.variant.variantcontext.filter.CompoundFilter;
-import htsjdk.variant.variantcontext.filter.PassingVariantFilter;
 
 public class SomaticVariantsLoader
 {
@@ -53,7 +53,9 @@ public class SomaticVariantsLoader
         }
         else if(vcfFile.isFile())
         {
-            variants = loadFromVcf(vcfFile.getAbsolutePath(), variantTypes);
+            // cohort runs already process samples in parallel
+            int vcfThreads = config.isSingleSample() ? config.Threads : 1;
+            variants = loadFromVcf(vcfFile.getAbsolutePath(), variantTypes, vcfThreads);
         }
         else
         {
@@ -63,31 +65,32 @@ public class SomaticVariantsLoader
         return variants;
     }
 
-    private static List<SomaticVariant> loadFromVcf(final String vcfFile, @Nullable final List<VariantType> variantTypes)
+    private static List<SomaticVariant> loadFromVcf(
+            final String vcfFile, @Nullable final List<VariantType> variantTypes, int threads)
     {
-        CompoundFilter filter = new CompoundFilter(true);
-        filter.add(new PassingVariantFilter());
-
         List<SomaticVariant> variants = new ArrayList<>();
 
-        VcfFileReader vcfFileReader = new VcfFileReader(vcfFile);
-
-        if(!vcfFileReader.fileValid())
-        {
-            CUP_LOGGER.error("Invalid somatic VCF file({})", vcfFile);
-            System.exit(1);
-        }
-
-        for(VariantContext variantContext : vcfFileReader.iterator())
+        try(ParallelVcfReader vcfReader = new ParallelVcfReader(vcfFile, threads))
         {
-            if(!filter.test(variantContext))
-                continue;
+            // filtered variants are dropped before being decoded into variant contexts
+            vcfReader.setRecordFilter(VcfRecord::isPass);
+            vcfReader.setMaterialiseVariants(true);
 
-            if(variantTypes == null || variantTypes.contains(VariantType.type(variantContext)))
+            for(VcfRecord record : vcfReader)
             {
-                variants.add(SomaticVariant.fromContext(variantContext));
+                VariantContext variantContext = record.variantContext();
+
+                if(variantTypes == null || variantTypes.contains(VariantType.type(variantContext)))
+                {
+                    variants.add(SomaticVariant.fromContext(variantContext));
+                }
             }
         }
+        catch(UncheckedIOException e)
+        {
+            CUP_LOGGER.error("Invalid somatic VCF file({}): {}", vcfFile, e.toString());
+            System.exit(1);
+        }
 
         return variants;
     }
@@ -3,8 +3,6 @@ package com.hartwig.hmftools.cup;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
@@ -49,7 +47,7 @@ public class DataItemTest
     public void canCreateDataItemMatrixWithUniqueKeys()
     {
         List<String> sampleIds = Arrays.asList("Sample1", "Sample2");
-        ConcurrentHashMap<DataItem.Index, String[]> featureBySampleMatrix = new ConcurrentHashMap<>();
+        DataItemMatrix dataItemMatrix = new DataItemMatrix(sampleIds);
 
         List<List<DataItem>> dataItemsPerSample = Arrays.asList(
                 List.of(
@@ -66,17 +64,11 @@ public class DataItemTest
         int sampleIndex = 0;
         for(List<DataItem> dataItems : dataItemsPerSample)
         {
-            for(DataItem dataItem : dataItems)
-            {
-                featureBySampleMatrix.computeIfAbsent(dataItem.Index, k -> new String[sampleIds.size()]);
-                featureBySampleMatrix.get(dataItem.Index)[sampleIndex] = dataItem.Value;
-            }
+            dataItemMatrix.addSampleItems(sampleIndex, dataItems);
             sampleIndex++;
         }
 
-        DataItemMatrix dataItemMatrix = new DataItemMatrix(sampleIds, featureBySampleMatrix);
-
-        int nKeys = (int) dataItemMatrix.FeatureBySampleMatrix.keySet()
+        int nKeys = (int) dataItemMatrix.FeatureColumns.keySet()
                 .stream()
                 .distinct()
                 .count();
@@ -93,4 +85,31 @@ public class DataItemTest
                 dataItemMatrix.get(new DataItem.Index(DataSource.DNA, ItemType.DRIVER, "TP53.mut"))
         );
     }
+
+    @Test
+    public void canStoreTypedValuesInMatrix()
+    {
+        List<String> sampleIds = Arrays.asList("Sample1", "Sample2", "Sample3");
+        DataItemMatrix dataItemMatrix = new DataItemMatrix(sampleIds);
+
+        dataItemMatrix.addSampleItems(0, List.of(
+                new DataItem(DataSource.DNA, ItemType.SNV96, "C>A_ACA", 25),
+                new DataItem(DataSource.DNA, ItemType.SAMPLE_TRAIT, "is_male", true),
+                new DataItem(DataSource.RNA, ItemType.EXPRESSION, "BRAF", 1.23456, "%6.3e")
+        ));
+
+        dataItemMatrix.addSampleItems(2, List.of(
+                new DataItem(DataSource.DNA, ItemType.SNV96, "C>A_ACA", 0),
+                new DataItem(DataSource.DNA, ItemType.SIGNATURE, "SIG_1", 1234567.89, "%.1f")
+        ));
+
+        DataItem.Index snvIndex = new DataItem.Index(DataSource.DNA, ItemType.SNV96, "C>A_ACA");
+        assertEquals(new String[] { "25", null, "0" }, dataItemMatrix.get(snvIndex));
+
+        assertEquals("1", dataItemMatrix.get(new DataItem.Index(DataSource.DNA, ItemType.SAMPLE_TRAIT, "is_male"), 0));
+        assertEquals("1.235e+00", dataItemMatrix.get(new DataItem.Index(DataSource.RNA, ItemType.EXPRESSION, "BRAF"), 0));
+
+        // too precise for a float so kept as formatted
+        assertEquals("1234567.9", dataItemMatrix.get(new DataItem.Index(DataSource.DNA, ItemType.SIGNATURE, "SIG_1"), 2));
+    }
 }
@@ -10,11 +10,16 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
+import com.hartwig.hmftools.common.sv.SvPonBinaryFile;
+import com.hartwig.hmftools.common.sv.SvPonBinaryFile.SglEntry;
+import com.hartwig.hmftools.common.sv.SvPonBinaryFile.SvEntry;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.common.utils.config.ConfigUtils;
 import com.hartwig.hmftools.esvee.caller.annotation.PonCache;
@@ -29,12 +34,14 @@ public class PonCombiner
     private final String mOutputSvFile;
     private final String mOutputSglFile;
     private final RefGenomeVersion mRefGenomeVersion;
+    private final boolean mBinaryOutput;
 
     private static final String INPUT_SV_PON_FILES = "input_pon_sv_files";
     private static final String INPUT_SGL_PON_FILES = "input_pon_sgl_files";
 
     private static final String OUTPUT_SV_PON_FILE = "output_pon_sv_file";
     private static final String OUTPUT_SGL_PON_FILE = "output_pon_sgl_file";
+    private static final String BINARY_OUTPUT = "binary_output";
 
     public PonCombiner(final ConfigBuilder configBuilder)
     {
@@ -65,6 +72,7 @@ public class PonCombiner
 
         mOutputSvFile = configBuilder.getValue(OUTPUT_SV_PON_FILE);
         mOutputSglFile = configBuilder.getValue(OUTPUT_SGL_PON_FILE);
+        mBinaryOutput = configBuilder.hasFlag(BINARY_OUTPUT);
     }
 
     public void run()
@@ -91,7 +99,8 @@ public class PonCombiner
 
         try
         {
-            BufferedWriter writer = createBufferedWriter(mOutputSvFile, false);
+            BufferedWriter writer = !mBinaryOutput ? createBufferedWriter(mOutputSvFile, false) : null;
+            Map<String,List<SvEntry>> binaryEntries = Maps.newLinkedHashMap();
 
             for(HumanChromosome chromosome : HumanChromosome.values())
             {
@@ -114,6 +123,22 @@ public class PonCombiner
 
                 SV_LOGGER.debug("chr({}) writing {} SV regions", chrStr, combinedRegions.size());
 
+                if(mBinaryOutput)
+                {
+                    if(!combinedRegions.isEmpty())
+                    {
+                        List<SvEntry> entries = Lists.newArrayListWithCapacity(combinedRegions.size());
+
+                        combinedRegions.forEach(x -> entries.add(new SvEntry(
+                                chrStr, x.RegionStart.start(), x.RegionStart.end(), x.OrientStart.asByte(),
+                                x.RegionEnd.chromosome(), x.RegionEnd.start(), x.RegionEnd.end(), x.OrientEnd.asByte(), x.PonCount)));
+
+                        binaryEntries.put(chrStr, entries);
+                    }
+
+                    continue;
+                }
+
                 for(PonSvRegion region : combinedRegions)
                 {
                     // fields: ChrStart,PosStartBegin,PosStartEnd,ChrEnd,PosEndBegin,PosEndEnd,Unknown,PonCount,OrientStart,OrientEnd
@@ -126,7 +151,10 @@ public class PonCombiner
                 }
             }
 
-            writer.close();
+            if(mBinaryOutput)
+                SvPonBinaryFile.writeSv(mOutputSvFile, binaryEntries);
+            else
+                writer.close();
         }
         catch(IOException e)
         {
@@ -211,7 +239,8 @@ public class PonCombiner
 
         try
         {
-            BufferedWriter writer = createBufferedWriter(mOutputSglFile, false);
+            BufferedWriter writer = !mBinaryOutput ? createBufferedWriter(mOutputSglFile, false) : null;
+            Map<String,List<SglEntry>> binaryEntries = Maps.newLinkedHashMap();
 
             for(HumanChromosome chromosome : HumanChromosome.values())
             {
@@ -234,6 +263,21 @@ public class PonCombiner
 
                 SV_LOGGER.debug("chr({}) writing {} SGL regions", chrStr, combinedRegions.size());
 
+                if(mBinaryOutput)
+                {
+                    if(!combinedRegions.isEmpty())
+                    {
+                        List<SglEntry> entries = Lists.newArrayListWithCapacity(combinedRegions.size());
+
+                        combinedRegions.forEach(x -> entries.add(new SglEntry(
+                                chrStr, x.Region.start(), x.Region.end(), x.Orient.asByte(), x.PonCount)));
+
+                        binaryEntries.put(chrStr, entries);
+                    }
+
+                    continue;
+                }
+
                 for(PonSglRegion region : combinedRegions)
                 {
                     // fields: ChrStart,PosStartBegin,PosStartEnd,ChrEnd,PosEndBegin,PosEndEnd,Unknown,PonCount,OrientStart,OrientEnd
@@ -244,7 +288,10 @@ public class PonCombiner
                 }
             }
 
-            writer.close();
+            if(mBinaryOutput)
+                SvPonBinaryFile.writeSgl(mOutputSglFile, binaryEntries);
+            else
+                writer.close();
         }
         catch(IOException e)
         {
@@ -309,6 +356,7 @@ public class PonCombiner
 
         configBuilder.addConfigItem(INPUT_SV_PON_FILES, true, "List of input PON files, separated by ';'");
         configBuilder.addConfigItem(INPUT_SGL_PON_FILES, true, "List of input PON files, separated by ';'");
+        configBuilder.addFlag(BINARY_OUTPUT, "Write the combined PON files in binary form, which GRIPSS and Esvee memory-map");
 
         ConfigUtils.addLoggingOptions(configBuilder);
 
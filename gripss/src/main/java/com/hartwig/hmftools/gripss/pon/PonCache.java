@@ -25,6 +25,9 @@ import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.common.region.BaseRegion;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
+import com.hartwig.hmftools.common.sv.MappedSglPon;
+import com.hartwig.hmftools.common.sv.MappedSvPon;
+import com.hartwig.hmftools.common.sv.SvPonBinaryFile;
 import com.hartwig.hmftools.gripss.common.Breakend;
 import com.hartwig.hmftools.gripss.common.SvData;
 
@@ -42,6 +45,10 @@ public class PonCache
     private int mCurrentSglIndex;
     private boolean mHasValidData;
 
+    // binary PON files are memory-mapped and queried directly instead of being loaded into the region lists
+    private MappedSvPon mMappedSvPon;
+    private MappedSglPon mMappedSglPon;
+
     private static final String GERMLINE_PON_BED_SV_FILE = "pon_sv_file";
     private static final String GERMLINE_PON_BED_SGL_FILE = "pon_sgl_file";
     private static final String GERMLINE_PON_MARGIN = "pon_margin";
@@ -61,6 +68,9 @@ public class PonCache
 
         mPositionMargin = margin;
 
+        mMappedSvPon = null;
+        mMappedSglPon = null;
+
         if(ponSvFile != null)
             loadPonSvFile(ponSvFile);
 
@@ -87,6 +97,9 @@ public class PonCache
 
         if(var.isSgl())
         {
+            if(mMappedSglPon != null)
+                return findMappedSglPonMatch(var);
+
             List<PonSglRegion> regions = mSglRegions.get(var.chromosomeStart());
             if(regions != null)
             {
@@ -101,6 +114,9 @@ public class PonCache
         }
         else
         {
+            if(mMappedSvPon != null)
+                return findMappedPonMatch(var);
+
             List<PonSvRegion> regions = mSvRegions.get(var.chromosomeStart());
             if(regions != null)
             {
@@ -126,6 +142,22 @@ public class PonCache
         return margins;
     }
 
+    private int findMappedPonMatch(final SvData var)
+    {
+        final int[] marginStart = breakendMargin(var.breakendStart());
+        final int[] marginEnd = breakendMargin(var.breakendEnd());
+
+        return mMappedSvPon.findPonCount(
+                var.chromosomeStart(),
+                var.posStart() + marginStart[SE_START] - mPositionMargin,
+                var.posStart() + marginStart[SE_END] + mPositionMargin,
+                var.orientStart(),
+                var.chromosomeEnd(),
+                var.posEnd() + marginEnd[SE_START] - mPositionMargin,
+                var.posEnd() + marginEnd[SE_END] + mPositionMargin,
+                var.orientEnd());
+    }
+
     private int findPonMatch(final List<PonSvRegion> regions, final SvData var)
     {
         final int[] marginStart = breakendMargin(var.breakendStart());
@@ -193,6 +225,17 @@ public class PonCache
         return 0;
     }
 
+    private int findMappedSglPonMatch(final SvData var)
+    {
+        final int[] marginStart = breakendMargin(var.breakendStart());
+
+        return mMappedSglPon.findPonCount(
+                var.chromosomeStart(),
+                var.posStart() + marginStart[SE_START] - mPositionMargin,
+                var.posStart() + marginStart[SE_END] + mPositionMargin,
+                var.orientStart());
+    }
+
     private int findSglPonMatch(final List<PonSglRegion> regions, final SvData var)
     {
         final int[] marginStart = breakendMargin(var.breakendStart());
@@ -261,6 +304,21 @@ public class PonCache
         if(filename == null)
             return;
 
+        if(SvPonBinaryFile.isSvBinaryFile(filename))
+        {
+            try
+            {
+                mMappedSvPon = SvPonBinaryFile.loadSv(filename);
+            }
+            catch(IOException e)
+            {
+                GR_LOGGER.error("failed to load germline SV PON file({}): {}", filename, e.toString());
+                mHasValidData = false;
+            }
+
+            return;
+        }
+
         try
         {
             BufferedReader fileReader = createBufferedReader(filename);
@@ -322,6 +380,21 @@ public class PonCache
         if(filename == null)
             return;
 
+        if(SvPonBinaryFile.isSglBinaryFile(filename))
+        {
+            try
+            {
+                mMappedSglPon = SvPonBinaryFile.loadSgl(filename);
+            }
+            catch(IOException e)
+            {
+                GR_LOGGER.error("failed to load germline SGL PON file({}): {}", filename, e.toString());
+                mHasValidData = false;
+            }
+
+            return;
+        }
+
         try
         {
             BufferedReader fileReader = createBufferedReader(filename);
@@ -407,6 +480,8 @@ public class PonCache
         mCurrentSglIndex = 0;
         mSvRegions.clear();
         mSglRegions.clear();
+        mMappedSvPon = null;
+        mMappedSglPon = null;
     }
 
     public static void addConfig(final ConfigBuilder configBuilder)
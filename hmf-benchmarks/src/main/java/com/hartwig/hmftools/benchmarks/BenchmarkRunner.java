@@ -0,0 +1,48 @@
+package com.hartwig.hmftools.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// runs the JMH suites with the standard JMH command-line options, writing results as JSON by default so they can be compared
+// between releases
+public class BenchmarkRunner
+{
+    private static final String DEFAULT_RESULTS_FILE = "hmf_benchmarks.json";
+
+    public static void main(final String[] args) throws Exception
+    {
+        CommandLineOptions commandLineOptions;
+
+        try
+        {
+            commandLineOptions = new CommandLineOptions(args);
+        }
+        catch(CommandLineOptionException e)
+        {
+            System.err.println("invalid benchmark options: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        if(commandLineOptions.shouldHelp() || commandLineOptions.shouldList())
+        {
+            // defer to the standard JMH entry point for informational options
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+
+        if(!commandLineOptions.getResultFormat().hasValue())
+            options.resultFormat(ResultFormatType.JSON);
+
+        if(!commandLineOptions.getResult().hasValue())
+            options.result(DEFAULT_RESULTS_FILE);
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,51 @@
+package com.hartwig.hmftools.benchmarks;
+
+import static com.hartwig.hmftools.common.codon.Nucleotides.DNA_BASES;
+import static com.hartwig.hmftools.common.codon.Nucleotides.baseIndex;
+
+import java.util.Random;
+
+// synthetic inputs are generated from a fixed seed so results are comparable between runs and releases
+public final class BenchmarkUtils
+{
+    public static final long RANDOM_SEED = 42;
+
+    public static Random createRandom() { return new Random(RANDOM_SEED); }
+
+    public static String randomBases(final Random random, int length)
+    {
+        StringBuilder sb = new StringBuilder(length);
+
+        for(int i = 0; i < length; ++i)
+        {
+            sb.append(DNA_BASES[random.nextInt(DNA_BASES.length)]);
+        }
+
+        return sb.toString();
+    }
+
+    // applies random substitutions, and single-base insertions and deletions, at the specified rates
+    public static String mutateBases(final Random random, final String bases, double snvRate, double indelRate)
+    {
+        StringBuilder sb = new StringBuilder(bases.length());
+
+        for(int i = 0; i < bases.length(); ++i)
+        {
+            char base = bases.charAt(i);
+            double eventRand = random.nextDouble();
+
+            if(eventRand < indelRate / 2)
+                continue; // deletion
+
+            if(eventRand < indelRate)
+                sb.append(DNA_BASES[random.nextInt(DNA_BASES.length)]); // insertion before this base
+
+            if(random.nextDouble() < snvRate)
+                sb.append(DNA_BASES[(baseIndex(base) + 1 + random.nextInt(DNA_BASES.length - 1)) % DNA_BASES.length]);
+            else
+                sb.append(base);
+        }
+
+        return sb.toString();
+    }
+}
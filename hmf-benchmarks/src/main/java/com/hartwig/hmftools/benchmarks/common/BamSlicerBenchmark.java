@@ -0,0 +1,152 @@
+package com.hartwig.hmftools.benchmarks.common;
+
+import static com.hartwig.hmftools.benchmarks.BenchmarkUtils.createRandom;
+import static com.hartwig.hmftools.benchmarks.BenchmarkUtils.randomBases;
+import static com.hartwig.hmftools.common.test.SamRecordTestUtils.DEFAULT_MAP_QUAL;
+import static com.hartwig.hmftools.common.test.SamRecordTestUtils.SAM_DICTIONARY_V37;
+import static com.hartwig.hmftools.common.test.SamRecordTestUtils.buildDefaultBaseQuals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.bam.BamSlicer;
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.ValidationStringency;
+
+// slices and decodes reads from a synthetic coordinate-sorted and indexed BAM, either as one large region or as many small
+// partitions, touching the bases, qualities and cigar of each read so that lazy record decoding is included
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BamSlicerBenchmark
+{
+    private static final String CHROMOSOME = "1";
+    private static final int READ_LENGTH = 151;
+    private static final int READ_COUNT = 200_000;
+    private static final int READ_SPACING = 5; // approximately 30x depth
+    private static final int REGION_END = READ_COUNT * READ_SPACING;
+    private static final int PARTITION_SIZE = 10_000;
+
+    private File mTempDir;
+    private SamReader mSamReader;
+    private BamSlicer mBamSlicer;
+    private List<ChrBaseRegion> mPartitions;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        mTempDir = Files.createTempDirectory("bam_slicer_benchmark").toFile();
+        File bamFile = new File(mTempDir, "synthetic.bam");
+
+        writeSyntheticBam(bamFile);
+
+        mSamReader = SamReaderFactory.makeDefault().validationStringency(ValidationStringency.SILENT).open(bamFile);
+        mBamSlicer = new BamSlicer(0, true, true, true);
+
+        mPartitions = Lists.newArrayList();
+
+        for(int start = 1; start < REGION_END; start += PARTITION_SIZE)
+        {
+            mPartitions.add(new ChrBaseRegion(CHROMOSOME, start, start + PARTITION_SIZE - 1));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        mSamReader.close();
+
+        for(File file : mTempDir.listFiles())
+        {
+            file.delete();
+        }
+
+        mTempDir.delete();
+    }
+
+    private static void writeSyntheticBam(final File bamFile)
+    {
+        SAMFileHeader header = new SAMFileHeader();
+        header.setSequenceDictionary(SAM_DICTIONARY_V37);
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+
+        Random random = createRandom();
+        byte[] baseQuals = buildDefaultBaseQuals(READ_LENGTH);
+
+        try(SAMFileWriter writer = new SAMFileWriterFactory().setCreateIndex(true).makeBAMWriter(header, true, bamFile))
+        {
+            for(int i = 0; i < READ_COUNT; ++i)
+            {
+                int readStart = 1 + i * READ_SPACING;
+
+                SAMRecord record = new SAMRecord(header);
+                record.setReadName(String.format("READ_%06d", i));
+                record.setReferenceName(CHROMOSOME);
+                record.setAlignmentStart(readStart);
+                record.setCigarString(READ_LENGTH + "M");
+                record.setReadBases(randomBases(random, READ_LENGTH).getBytes());
+                record.setBaseQualities(baseQuals);
+                record.setMappingQuality(DEFAULT_MAP_QUAL);
+                record.setReadPairedFlag(true);
+                record.setProperPairFlag(true);
+                record.setFirstOfPairFlag(true);
+                record.setMateReferenceName(CHROMOSOME);
+                record.setMateAlignmentStart(readStart + 300);
+                record.setMateNegativeStrandFlag(true);
+                record.setInferredInsertSize(300 + READ_LENGTH);
+
+                writer.addAlignment(record);
+            }
+        }
+    }
+
+    private static void consumeRecord(final SAMRecord record, final Blackhole blackhole)
+    {
+        blackhole.consume(record.getReadBases());
+        blackhole.consume(record.getBaseQualities());
+        blackhole.consume(record.getCigar());
+    }
+
+    @Benchmark
+    public void sliceSingleRegion(final Blackhole blackhole)
+    {
+        mBamSlicer.slice(mSamReader, new ChrBaseRegion(CHROMOSOME, 1, REGION_END), x -> consumeRecord(x, blackhole));
+    }
+
+    @Benchmark
+    public void slicePartitions(final Blackhole blackhole)
+    {
+        for(ChrBaseRegion partition : mPartitions)
+        {
+            mBamSlicer.slice(mSamReader, partition, x -> consumeRecord(x, blackhole));
+        }
+    }
+}
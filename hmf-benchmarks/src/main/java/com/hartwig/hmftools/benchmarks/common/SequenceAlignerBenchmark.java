@@ -0,0 +1,110 @@
+package com.hartwig.hmftools.benchmarks.common;
+
+import static com.hartwig.hmftools.benchmarks.BenchmarkUtils.createRandom;
+import static com.hartwig.hmftools.benchmarks.BenchmarkUtils.mutateBases;
+import static com.hartwig.hmftools.benchmarks.BenchmarkUtils.randomBases;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.common.aligner.GlobalSequenceAligner;
+import com.hartwig.hmftools.common.aligner.LocalSequenceAligner;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// aligns a batch of read-length sequences, each carrying a few mismatches and indels, against their reference sequence
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SequenceAlignerBenchmark
+{
+    @Param({"100", "150", "300"})
+    public int SequenceLength;
+
+    // the striped matrix fill versus the scalar fill
+    @Param({"false", "true"})
+    public boolean Striped;
+
+    private static final int SEQUENCE_PAIRS = 100;
+    private static final int BAND_WIDTH = 10;
+
+    private String[] mSequences;
+    private String[] mRefSequences;
+
+    private LocalSequenceAligner mLocalAligner;
+    private GlobalSequenceAligner mGlobalAligner;
+    private GlobalSequenceAligner mBandedGlobalAligner;
+
+    @Setup
+    public void setup()
+    {
+        Random random = createRandom();
+
+        mSequences = new String[SEQUENCE_PAIRS];
+        mRefSequences = new String[SEQUENCE_PAIRS];
+
+        for(int i = 0; i < SEQUENCE_PAIRS; ++i)
+        {
+            mRefSequences[i] = randomBases(random, SequenceLength);
+            mSequences[i] = mutateBases(random, mRefSequences[i], 0.02, 0.005);
+        }
+
+        mLocalAligner = new LocalSequenceAligner();
+        mGlobalAligner = new GlobalSequenceAligner();
+        mLocalAligner.setStriped(Striped);
+        mGlobalAligner.setStriped(Striped);
+
+        mBandedGlobalAligner = new GlobalSequenceAligner();
+        mBandedGlobalAligner.setBandWidth(BAND_WIDTH);
+    }
+
+    @Benchmark
+    public void localAlignment(final Blackhole blackhole)
+    {
+        for(int i = 0; i < SEQUENCE_PAIRS; ++i)
+        {
+            blackhole.consume(mLocalAligner.alignSequence(mSequences[i], mRefSequences[i]));
+        }
+    }
+
+    @Benchmark
+    public void globalAlignment(final Blackhole blackhole)
+    {
+        for(int i = 0; i < SEQUENCE_PAIRS; ++i)
+        {
+            blackhole.consume(mGlobalAligner.alignSequence(mSequences[i], mRefSequences[i]));
+        }
+    }
+
+    @Benchmark
+    public void localAlignmentScore(final Blackhole blackhole)
+    {
+        for(int i = 0; i < SEQUENCE_PAIRS; ++i)
+        {
+            blackhole.consume(mLocalAligner.alignScore(mSequences[i], mRefSequences[i]));
+        }
+    }
+
+    @Benchmark
+    public void bandedGlobalAlignment(final Blackhole blackhole)
+    {
+        for(int i = 0; i < SEQUENCE_PAIRS; ++i)
+        {
+            blackhole.consume(mBandedGlobalAligner.alignSequence(mSequences[i], mRefSequences[i]));
+        }
+    }
+}
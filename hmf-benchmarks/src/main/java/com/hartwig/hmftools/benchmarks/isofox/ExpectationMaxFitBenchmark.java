@@ -0,0 +1,98 @@
+package com.hartwig.hmftools.benchmarks.isofox;
+
+import static com.hartwig.hmftools.benchmarks.BenchmarkUtils.createRandom;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.common.sigs.ExpectationMaxFit;
+import com.hartwig.hmftools.common.utils.Matrix;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// fits transcript abundances for a gene as Isofox does, with category expected rates by transcript (each column summing to 1)
+// and observed category counts generated from random transcript abundances
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpectationMaxFitBenchmark
+{
+    @Param({"5", "20", "60"})
+    public int TranscriptCount;
+
+    private static final int CATEGORIES_PER_TRANSCRIPT = 3;
+    private static final int FRAGMENT_COUNT = 10000;
+
+    private Matrix mTranscriptDefinitions;
+    private double[] mCategoryCounts;
+
+    @Setup
+    public void setup()
+    {
+        Random random = createRandom();
+
+        int categoryCount = TranscriptCount * CATEGORIES_PER_TRANSCRIPT;
+        mTranscriptDefinitions = new Matrix(categoryCount, TranscriptCount);
+
+        for(int transId = 0; transId < TranscriptCount; ++transId)
+        {
+            double[] rates = new double[categoryCount];
+            double total = 0;
+
+            // transcripts share most categories with a few others, as overlapping exons do
+            for(int catId = 0; catId < categoryCount; ++catId)
+            {
+                if(catId / CATEGORIES_PER_TRANSCRIPT == transId || random.nextDouble() < 0.2)
+                {
+                    rates[catId] = random.nextDouble();
+                    total += rates[catId];
+                }
+            }
+
+            for(int catId = 0; catId < categoryCount; ++catId)
+            {
+                mTranscriptDefinitions.set(catId, transId, rates[catId] / total);
+            }
+        }
+
+        double[] abundances = new double[TranscriptCount];
+        double abundanceTotal = 0;
+
+        for(int transId = 0; transId < TranscriptCount; ++transId)
+        {
+            abundances[transId] = random.nextDouble();
+            abundanceTotal += abundances[transId];
+        }
+
+        mCategoryCounts = new double[categoryCount];
+
+        for(int transId = 0; transId < TranscriptCount; ++transId)
+        {
+            double transFragments = FRAGMENT_COUNT * abundances[transId] / abundanceTotal;
+
+            for(int catId = 0; catId < categoryCount; ++catId)
+            {
+                mCategoryCounts[catId] += Math.round(transFragments * mTranscriptDefinitions.get(catId, transId));
+            }
+        }
+    }
+
+    @Benchmark
+    public double[] performFit()
+    {
+        return ExpectationMaxFit.performFit(mCategoryCounts, mTranscriptDefinitions);
+    }
+}
@@ -0,0 +1,148 @@
+package com.hartwig.hmftools.benchmarks.lilac;
+
+import static com.hartwig.hmftools.benchmarks.BenchmarkUtils.createRandom;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.hartwig.hmftools.lilac.coverage.FragmentAlleleMatrix;
+import com.hartwig.hmftools.lilac.coverage.FragmentAlleles;
+import com.hartwig.hmftools.lilac.coverage.HlaComplex;
+import com.hartwig.hmftools.lilac.fragment.Fragment;
+import com.hartwig.hmftools.lilac.hla.HlaAllele;
+import com.hartwig.hmftools.lilac.read.ReadRecord;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import htsjdk.samtools.SAMRecord;
+
+// computes allele coverage for a set of candidate complexes from a fragment-allele matrix, as LILAC does when scoring
+// complexes, with each fragment supporting a few candidate alleles fully and others as wildcard matches
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FragmentAlleleMatrixBenchmark
+{
+    @Param({"1000", "5000"})
+    public int FragmentCount;
+
+    private static final String[] GENES = { "A", "B", "C" };
+    private static final int ALLELES_PER_GENE = 15;
+    private static final int COMPLEX_COUNT = 256;
+
+    private List<HlaAllele> mAlleles;
+    private List<FragmentAlleles> mFragmentAlleles;
+    private List<HlaComplex> mComplexes;
+    private FragmentAlleleMatrix mMatrix;
+
+    @Setup
+    public void setup()
+    {
+        Random random = createRandom();
+
+        mAlleles = Lists.newArrayList();
+
+        for(String gene : GENES)
+        {
+            for(int i = 0; i < ALLELES_PER_GENE; ++i)
+            {
+                mAlleles.add(HlaAllele.fromString(String.format("%s*%02d:%02d", gene, 1 + i / 5, 1 + i % 5)));
+            }
+        }
+
+        mFragmentAlleles = Lists.newArrayListWithCapacity(FragmentCount);
+
+        for(int f = 0; f < FragmentCount; ++f)
+        {
+            String gene = GENES[random.nextInt(GENES.length)];
+            Fragment fragment = createFragment(String.format("FRAG_%05d", f), gene);
+
+            List<HlaAllele> fullAlleles = Lists.newArrayList();
+            List<HlaAllele> wildAlleles = Lists.newArrayList();
+
+            int fullCount = 1 + random.nextInt(4);
+            int wildCount = random.nextInt(3);
+
+            for(int i = 0; i < fullCount + wildCount; ++i)
+            {
+                HlaAllele allele = mAlleles.get(random.nextInt(mAlleles.size()));
+
+                if(fullAlleles.contains(allele) || wildAlleles.contains(allele))
+                    continue;
+
+                if(i < fullCount)
+                    fullAlleles.add(allele);
+                else
+                    wildAlleles.add(allele);
+            }
+
+            mFragmentAlleles.add(new FragmentAlleles(fragment, fullAlleles, wildAlleles));
+        }
+
+        // complexes hold 2 alleles from each gene
+        mComplexes = Lists.newArrayListWithCapacity(COMPLEX_COUNT);
+
+        for(int c = 0; c < COMPLEX_COUNT; ++c)
+        {
+            List<HlaAllele> complexAlleles = Lists.newArrayList();
+
+            for(int g = 0; g < GENES.length; ++g)
+            {
+                int first = random.nextInt(ALLELES_PER_GENE);
+                int second = (first + 1 + random.nextInt(ALLELES_PER_GENE - 1)) % ALLELES_PER_GENE;
+                complexAlleles.add(mAlleles.get(g * ALLELES_PER_GENE + first));
+                complexAlleles.add(mAlleles.get(g * ALLELES_PER_GENE + second));
+            }
+
+            mComplexes.add(new HlaComplex(complexAlleles));
+        }
+
+        mMatrix = new FragmentAlleleMatrix(mFragmentAlleles, mAlleles);
+    }
+
+    private static Fragment createFragment(final String readId, final String gene)
+    {
+        SAMRecord record = new SAMRecord(null);
+        record.setReadName(readId);
+        record.setAlignmentStart(100);
+        record.setCigarString("151M");
+
+        ReadRecord readRecord = new ReadRecord(readId, 0, 0, Collections.emptyList(), 100, 250, 0, 150, record);
+
+        return new Fragment(
+                readRecord, gene, Sets.newHashSet(gene), Lists.newArrayList(), Lists.newArrayList(), Lists.newArrayList());
+    }
+
+    @Benchmark
+    public FragmentAlleleMatrix buildMatrix()
+    {
+        return new FragmentAlleleMatrix(mFragmentAlleles, mAlleles);
+    }
+
+    @Benchmark
+    public void createComplexCoverage(final Blackhole blackhole)
+    {
+        for(HlaComplex complex : mComplexes)
+        {
+            blackhole.consume(mMatrix.create(complex));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.hartwig.hmftools.benchmarks.neo;
+
+import static com.hartwig.hmftools.benchmarks.BenchmarkUtils.createRandom;
+import static com.hartwig.hmftools.neo.bind.BindConstants.AMINO_ACIDS;
+import static com.hartwig.hmftools.neo.bind.BindConstants.AMINO_ACID_COUNT;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.neo.PeptideData;
+import com.hartwig.hmftools.neo.bind.BatchBindScorer;
+import com.hartwig.hmftools.neo.bind.BindScoreMatrix;
+import com.hartwig.hmftools.neo.bind.EncodedPeptides;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// scores random peptides against a set of allele position weight matrices, as the random peptide distributions are built,
+// comparing per-peptide matrix scoring with batch scoring of the encoded peptides, for a single allele and for an allele panel
+// each invocation scores every peptide against every allele, so times are reported per peptide-allele pair
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BindScoringBenchmark
+{
+    @Param({"9"})
+    public int PeptideLength;
+
+    private static final int PEPTIDE_COUNT = 100_000;
+    private static final int ALLELE_PANEL_COUNT = 20;
+
+    private static final int SINGLE_ALLELE_PAIRS = PEPTIDE_COUNT;
+    private static final int ALLELE_PANEL_PAIRS = PEPTIDE_COUNT * ALLELE_PANEL_COUNT;
+
+    private List<BindScoreMatrix> mAllelePanelMatrices;
+    private List<BindScoreMatrix> mSingleAlleleMatrices;
+    private List<PeptideData> mPeptides;
+    private EncodedPeptides mEncodedPeptides;
+    private BatchBindScorer mAllelePanelScorer;
+    private BatchBindScorer mSingleAlleleScorer;
+
+    @Setup
+    public void setup()
+    {
+        Random random = createRandom();
+
+        mAllelePanelMatrices = Lists.newArrayListWithCapacity(ALLELE_PANEL_COUNT);
+
+        for(int a = 0; a < ALLELE_PANEL_COUNT; ++a)
+        {
+            BindScoreMatrix matrix = new BindScoreMatrix(String.format("A%04d", a), PeptideLength);
+            double[][] posWeights = matrix.getBindScores();
+
+            for(int aa = 0; aa < AMINO_ACID_COUNT; ++aa)
+            {
+                for(int pos = 0; pos < PeptideLength; ++pos)
+                {
+                    posWeights[aa][pos] = random.nextGaussian();
+                }
+            }
+
+            mAllelePanelMatrices.add(matrix);
+        }
+
+        mSingleAlleleMatrices = Lists.newArrayList(mAllelePanelMatrices.get(0));
+
+        mPeptides = Lists.newArrayListWithCapacity(PEPTIDE_COUNT);
+
+        for(int p = 0; p < PEPTIDE_COUNT; ++p)
+        {
+            StringBuilder peptide = new StringBuilder(PeptideLength);
+
+            for(int i = 0; i < PeptideLength; ++i)
+            {
+                peptide.append(AMINO_ACIDS.get(random.nextInt(AMINO_ACID_COUNT)));
+            }
+
+            mPeptides.add(new PeptideData(peptide.toString(), "", ""));
+        }
+
+        mEncodedPeptides = new EncodedPeptides(PeptideLength, mPeptides, null);
+        mAllelePanelScorer = new BatchBindScorer(mAllelePanelMatrices);
+        mSingleAlleleScorer = new BatchBindScorer(mSingleAlleleMatrices);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SINGLE_ALLELE_PAIRS)
+    public double[][] matrixScoringSingleAllele()
+    {
+        return matrixScores(mSingleAlleleMatrices);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ALLELE_PANEL_PAIRS)
+    public double[][] matrixScoringAllelePanel()
+    {
+        return matrixScores(mAllelePanelMatrices);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SINGLE_ALLELE_PAIRS)
+    public double[][] batchScoringSingleAllele()
+    {
+        return mSingleAlleleScorer.score(mEncodedPeptides);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ALLELE_PANEL_PAIRS)
+    public double[][] batchScoringAllelePanel()
+    {
+        return mAllelePanelScorer.score(mEncodedPeptides);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SINGLE_ALLELE_PAIRS)
+    public double[][] encodeAndBatchScoreSingleAllele()
+    {
+        return mSingleAlleleScorer.score(new EncodedPeptides(PeptideLength, mPeptides, null));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ALLELE_PANEL_PAIRS)
+    public double[][] encodeAndBatchScoreAllelePanel()
+    {
+        return mAllelePanelScorer.score(new EncodedPeptides(PeptideLength, mPeptides, null));
+    }
+
+    private double[][] matrixScores(final List<BindScoreMatrix> matrices)
+    {
+        double[][] scores = new double[matrices.size()][PEPTIDE_COUNT];
+
+        for(int a = 0; a < matrices.size(); ++a)
+        {
+            BindScoreMatrix matrix = matrices.get(a);
+
+            for(int p = 0; p < PEPTIDE_COUNT; ++p)
+            {
+                scores[a][p] = matrix.calcScore(mPeptides.get(p).Peptide);
+            }
+        }
+
+        return scores;
+    }
+}
@@ -0,0 +1,123 @@
+package com.hartwig.hmftools.benchmarks.purple;
+
+import static com.hartwig.hmftools.benchmarks.BenchmarkUtils.createRandom;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.cobalt.CobaltTestUtils;
+import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosomes;
+import com.hartwig.hmftools.common.purple.GermlineStatus;
+import com.hartwig.hmftools.common.purple.SegmentSupport;
+import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+import com.hartwig.hmftools.purple.config.FittingConfig;
+import com.hartwig.hmftools.purple.purity.FittedPurityFactory;
+import com.hartwig.hmftools.purple.purity.PurityAdjuster;
+import com.hartwig.hmftools.purple.purity.RegionFitCalcs;
+import com.hartwig.hmftools.purple.purity.RegionFitCalculator;
+import com.hartwig.hmftools.purple.region.ObservedRegion;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// scores the purity and ploidy grid points for a single purity over a set of diploid observed regions, which is the unit of
+// work FittedPurityFactory runs per purity. The factory itself needs a full PURPLE config and sample inputs so the
+// per-point fit is reproduced here with the same region fit calculator and penalty weighting
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PurityFitBenchmark
+{
+    @Param({"200", "1000"})
+    public int RegionCount;
+
+    @Param({"0.3", "0.8"})
+    public double Purity;
+
+    private static final int AVERAGE_READ_DEPTH = 100;
+    private static final int REGION_LENGTH = 1_000_000;
+
+    private RegionFitCalculator mRegionFitCalculator;
+    private List<ObservedRegion> mRegions;
+    private List<Double> mPloidyRange;
+    private double mAverageFittingRatio;
+    private int mTotalBafCount;
+
+    @Setup
+    public void setup()
+    {
+        Random random = createRandom();
+
+        ConfigBuilder configBuilder = new ConfigBuilder();
+        FittingConfig.addConfig(configBuilder);
+        FittingConfig fittingConfig = new FittingConfig(configBuilder, false);
+
+        CobaltChromosomes cobaltChromosomes = CobaltTestUtils.female();
+        mRegionFitCalculator = new RegionFitCalculator(cobaltChromosomes, fittingConfig, AVERAGE_READ_DEPTH);
+        mPloidyRange = FittedPurityFactory.ploidyRange(fittingConfig.MinPloidy, fittingConfig.MaxPloidy);
+
+        // regions have copy number ratios and BAFs spread around diploid, across the autosomes
+        mRegions = Lists.newArrayListWithCapacity(RegionCount);
+        double weightedRatioTotal = 0;
+        mTotalBafCount = 0;
+
+        for(int i = 0; i < RegionCount; ++i)
+        {
+            String chromosome = String.valueOf(1 + i % 22);
+            int posStart = 1 + (i / 22) * REGION_LENGTH;
+            int bafCount = 10 + random.nextInt(200);
+            double observedBaf = 0.5 + random.nextDouble() * 0.45;
+            double observedTumorRatio = 0.5 + random.nextDouble() * 1.5;
+
+            mRegions.add(new ObservedRegion(
+                    chromosome, posStart, posStart + REGION_LENGTH - 1, true, SegmentSupport.NONE, bafCount, observedBaf,
+                    bafCount * 5, observedTumorRatio, 1, 1, GermlineStatus.DIPLOID, false, 0.45, posStart, posStart));
+
+            weightedRatioTotal += bafCount * observedTumorRatio;
+            mTotalBafCount += bafCount;
+        }
+
+        mAverageFittingRatio = weightedRatioTotal / mTotalBafCount;
+    }
+
+    @Benchmark
+    public void fitPurityGridPoints(final Blackhole blackhole)
+    {
+        for(double ploidy : mPloidyRange)
+        {
+            double normFactor = PurityAdjuster.impliedNormFactor(mAverageFittingRatio, Purity, ploidy);
+
+            double eventPenalty = 0;
+            double deviationPenalty = 0;
+            double averagePloidy = 0;
+
+            for(ObservedRegion region : mRegions)
+            {
+                RegionFitCalcs regionFitCalcs = mRegionFitCalculator.calculateRegionFit(Purity, normFactor, region);
+
+                double bafWeight = (double)region.bafCount() / mTotalBafCount;
+                eventPenalty += regionFitCalcs.EventPenalty * bafWeight;
+                deviationPenalty += regionFitCalcs.DeviationPenalty * bafWeight;
+                averagePloidy += regionFitCalcs.TumorCopyNumber * bafWeight;
+            }
+
+            blackhole.consume(eventPenalty * deviationPenalty);
+            blackhole.consume(averagePloidy);
+        }
+    }
+}
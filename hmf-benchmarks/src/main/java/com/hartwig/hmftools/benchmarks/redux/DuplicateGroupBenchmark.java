@@ -0,0 +1,132 @@
+package com.hartwig.hmftools.benchmarks.redux;
+
+import static com.hartwig.hmftools.benchmarks.BenchmarkUtils.createRandom;
+import static com.hartwig.hmftools.benchmarks.BenchmarkUtils.mutateBases;
+import static com.hartwig.hmftools.benchmarks.BenchmarkUtils.randomBases;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_1;
+import static com.hartwig.hmftools.common.test.SamRecordTestUtils.createSamRecord;
+import static com.hartwig.hmftools.redux.common.Constants.DEFAULT_PARTITION_SIZE;
+import static com.hartwig.hmftools.redux.common.Constants.DEFAULT_POS_BUFFER_SIZE;
+import static com.hartwig.hmftools.redux.common.DuplicateGroupBuilder.findDuplicateFragments;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.test.MockRefGenome;
+import com.hartwig.hmftools.redux.ReduxConfig;
+import com.hartwig.hmftools.redux.common.CandidateDuplicates;
+import com.hartwig.hmftools.redux.common.DuplicateGroup;
+import com.hartwig.hmftools.redux.common.DuplicateGroupBuilder;
+import com.hartwig.hmftools.redux.common.Fragment;
+import com.hartwig.hmftools.redux.consensus.ConsensusReadInfo;
+import com.hartwig.hmftools.redux.consensus.ConsensusReads;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import htsjdk.samtools.SAMRecord;
+
+// classifies the fragments starting at a single position into duplicate groups, and forms consensus reads from a duplicate
+// group, as REDUX does for each position in a partition
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DuplicateGroupBenchmark
+{
+    // fragments at the position when grouping, and reads in the group when forming a consensus
+    @Param({"10", "100", "1000"})
+    public int FragmentCount;
+
+    private static final int READ_LENGTH = 151;
+    private static final int READ_START = 1001;
+    private static final int REF_LENGTH = 3000;
+    private static final String READ_CIGAR = READ_LENGTH + "M";
+    private static final int DISTINCT_MATE_POSITIONS = 20;
+
+    private SAMRecord[] mPositionReads;
+    private List<SAMRecord> mDuplicateReads;
+
+    private DuplicateGroupBuilder mDuplicateGroupBuilder;
+    private ConsensusReads mConsensusReads;
+
+    @Setup
+    public void setup()
+    {
+        Random random = createRandom();
+        String refBases = randomBases(random, REF_LENGTH);
+        String readRefBases = refBases.substring(READ_START - 1, READ_START - 1 + READ_LENGTH);
+
+        MockRefGenome refGenome = new MockRefGenome(true);
+        refGenome.RefGenomeMap.put(CHR_1, refBases);
+        refGenome.ChromosomeLengths.put(CHR_1, REF_LENGTH);
+
+        ReduxConfig config = new ReduxConfig(DEFAULT_PARTITION_SIZE, DEFAULT_POS_BUFFER_SIZE, refGenome, false, false, true);
+        mDuplicateGroupBuilder = new DuplicateGroupBuilder(config);
+
+        mConsensusReads = new ConsensusReads(refGenome);
+        mConsensusReads.setChromosomeLength(REF_LENGTH);
+
+        // fragments share a start position, with their mates spread over a small number of positions to form duplicate groups
+        mPositionReads = new SAMRecord[FragmentCount];
+
+        for(int i = 0; i < FragmentCount; ++i)
+        {
+            int mateStart = READ_START + 200 + random.nextInt(DISTINCT_MATE_POSITIONS);
+
+            mPositionReads[i] = createSamRecord(
+                    String.format("READ_%05d", i), CHR_1, READ_START, mutateBases(random, readRefBases, 0.002, 0), READ_CIGAR,
+                    CHR_1, mateStart, false, false, null, true, READ_CIGAR);
+        }
+
+        // a duplicate group's reads carry independent sequencing errors
+        mDuplicateReads = Lists.newArrayListWithCapacity(FragmentCount);
+
+        for(int i = 0; i < FragmentCount; ++i)
+        {
+            mDuplicateReads.add(createSamRecord(
+                    String.format("DUP_%05d", i), CHR_1, READ_START, mutateBases(random, readRefBases, 0.005, 0), READ_CIGAR,
+                    CHR_1, READ_START + 200, false, false, null, true, READ_CIGAR));
+        }
+    }
+
+    @Benchmark
+    public List<DuplicateGroup> findDuplicateGroups()
+    {
+        // fragments record their duplicate status so are created each time, as they are when reads are first processed
+        List<Fragment> fragments = Lists.newArrayListWithCapacity(FragmentCount);
+
+        for(SAMRecord read : mPositionReads)
+        {
+            fragments.add(new Fragment(read));
+        }
+
+        List<Fragment> resolvedFragments = Lists.newArrayList();
+        List<CandidateDuplicates> candidateDuplicatesList = Lists.newArrayList();
+        List<List<Fragment>> positionDuplicateGroups = Lists.newArrayList();
+
+        findDuplicateFragments(fragments, resolvedFragments, positionDuplicateGroups, candidateDuplicatesList, false);
+
+        return mDuplicateGroupBuilder.processDuplicateGroups(positionDuplicateGroups, false, Collections.emptyList());
+    }
+
+    @Benchmark
+    public ConsensusReadInfo formConsensusRead()
+    {
+        return mConsensusReads.createConsensusRead(mDuplicateReads, null, null, null);
+    }
+}
@@ -0,0 +1,195 @@
+package com.hartwig.hmftools.benchmarks.sage;
+
+import static com.hartwig.hmftools.benchmarks.BenchmarkUtils.createRandom;
+import static com.hartwig.hmftools.benchmarks.BenchmarkUtils.randomBases;
+import static com.hartwig.hmftools.common.bam.SamRecordUtils.NUM_MUTATONS_ATTRIBUTE;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_1;
+import static com.hartwig.hmftools.common.test.MockRefGenome.getNextBase;
+import static com.hartwig.hmftools.common.test.SamRecordTestUtils.DEFAULT_MAP_QUAL;
+import static com.hartwig.hmftools.common.test.SamRecordTestUtils.buildDefaultBaseQuals;
+import static com.hartwig.hmftools.sage.common.VariantReadContextBuilder.determineAltIndexUpper;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.common.test.MockRefGenome;
+import com.hartwig.hmftools.sage.SageConfig;
+import com.hartwig.hmftools.sage.bqr.BqrRecordMap;
+import com.hartwig.hmftools.sage.common.RefSequence;
+import com.hartwig.hmftools.sage.common.SimpleVariant;
+import com.hartwig.hmftools.sage.common.VariantReadContext;
+import com.hartwig.hmftools.sage.common.VariantTier;
+import com.hartwig.hmftools.sage.evidence.ReadContextCounter;
+import com.hartwig.hmftools.sage.quality.MsiJitterCalcs;
+import com.hartwig.hmftools.sage.quality.QualityCalculator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import htsjdk.samtools.CigarElement;
+import htsjdk.samtools.CigarOperator;
+import htsjdk.samtools.SAMRecord;
+
+// matches a pileup of reads against an SNV's read context, and scores the quality of the supporting reads, as the SAGE
+// evidence stage does for each candidate variant
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadContextCounterBenchmark
+{
+    private static final int REF_LENGTH = 1000;
+    private static final int VARIANT_POSITION = 500;
+    private static final int READ_LENGTH = 151;
+    private static final int READ_COUNT = 500;
+    private static final int FLANK_LENGTH = 10;
+    private static final int CORE_LENGTH = 2;
+
+    private SageConfig mConfig;
+    private QualityCalculator mQualityCalculator;
+    private VariantReadContext mReadContext;
+    private ReadContextCounter mQualityReadCounter;
+
+    private SAMRecord[] mReads;
+    private int[] mAltReadIndices;
+
+    @Setup
+    public void setup()
+    {
+        Random random = createRandom();
+        String refBases = randomBases(random, REF_LENGTH);
+
+        mConfig = new SageConfig(false);
+
+        // ref sequence indices line up with positions
+        RefSequence refSequence = new RefSequence(0, refBases.getBytes());
+
+        mQualityCalculator = new QualityCalculator(
+                mConfig, new BqrRecordMap(Collections.emptyList()), refSequence, new MockRefGenome(), new MsiJitterCalcs());
+
+        String ref = refBases.substring(VARIANT_POSITION, VARIANT_POSITION + 1);
+        String alt = String.valueOf(getNextBase(ref.charAt(0)));
+        SimpleVariant variant = new SimpleVariant(CHR_1, VARIANT_POSITION, ref, alt);
+
+        mReadContext = createReadContext(variant, refBases);
+        mQualityReadCounter = createReadCounter();
+
+        // reads overlap the variant at varying offsets, with half supporting the alt and some carrying a core mismatch
+        mReads = new SAMRecord[READ_COUNT];
+        int altReadCount = 0;
+        int[] altReadIndices = new int[READ_COUNT];
+
+        for(int i = 0; i < READ_COUNT; ++i)
+        {
+            int readStart = VARIANT_POSITION - FLANK_LENGTH - CORE_LENGTH - random.nextInt(READ_LENGTH - 2 * (FLANK_LENGTH + CORE_LENGTH));
+            char[] readBases = refBases.substring(readStart, readStart + READ_LENGTH).toCharArray();
+            int readVarIndex = VARIANT_POSITION - readStart;
+
+            if(i % 2 == 0)
+            {
+                readBases[readVarIndex] = alt.charAt(0);
+                altReadIndices[altReadCount++] = i;
+            }
+
+            if(i % 10 == 1)
+                readBases[readVarIndex + 1] = getNextBase(readBases[readVarIndex + 1]);
+
+            mReads[i] = buildSamRecord(i, readStart, new String(readBases));
+        }
+
+        mAltReadIndices = new int[altReadCount];
+        System.arraycopy(altReadIndices, 0, mAltReadIndices, 0, altReadCount);
+    }
+
+    private ReadContextCounter createReadCounter()
+    {
+        return new ReadContextCounter(
+                0, mReadContext, VariantTier.LOW_CONFIDENCE, Integer.MAX_VALUE, 1, mConfig, mQualityCalculator, "SAMPLE");
+    }
+
+    private static VariantReadContext createReadContext(final SimpleVariant variant, final String refBases)
+    {
+        int position = variant.Position;
+        String leftFlank = refBases.substring(position - CORE_LENGTH - FLANK_LENGTH, position - CORE_LENGTH);
+        String leftCore = refBases.substring(position - CORE_LENGTH, position);
+        String rightCore = refBases.substring(position + 1, position + 1 + CORE_LENGTH);
+        String rightFlank = refBases.substring(position + 1 + CORE_LENGTH, position + 1 + CORE_LENGTH + FLANK_LENGTH);
+
+        int coreIndexStart = leftFlank.length();
+        int varReadIndex = coreIndexStart + leftCore.length();
+        int coreIndexEnd = varReadIndex + rightCore.length();
+        String contextRefBases = leftCore + variant.ref() + rightCore;
+        String readBases = leftFlank + leftCore + variant.alt() + rightCore + rightFlank;
+
+        int alignmentStart = position - varReadIndex;
+        int alignmentEnd = position + rightCore.length() + rightFlank.length();
+
+        List<CigarElement> readCigar = List.of(new CigarElement(readBases.length(), CigarOperator.M));
+
+        return new VariantReadContext(
+                variant, alignmentStart, alignmentEnd, contextRefBases.getBytes(), readBases.getBytes(), readCigar, coreIndexStart,
+                varReadIndex, coreIndexEnd, null, null, Collections.emptyList(), varReadIndex,
+                determineAltIndexUpper(variant, varReadIndex, null), position - leftCore.length(), position + rightCore.length());
+    }
+
+    private static SAMRecord buildSamRecord(int readIndex, int alignmentStart, final String readBases)
+    {
+        SAMRecord record = new SAMRecord(null);
+        record.setReadName(String.format("READ_%04d", readIndex));
+        record.setReferenceName(CHR_1);
+        record.setAlignmentStart(alignmentStart);
+        record.setCigarString(READ_LENGTH + "M");
+        record.setReadString(readBases);
+        record.setReadNegativeStrandFlag(readIndex % 4 >= 2);
+        record.setBaseQualities(buildDefaultBaseQuals(READ_LENGTH));
+        record.setMappingQuality(DEFAULT_MAP_QUAL);
+        record.setDuplicateReadFlag(false);
+        record.setReadUnmappedFlag(false);
+        record.setProperPairFlag(true);
+        record.setReadPairedFlag(true);
+        record.setInferredInsertSize(600);
+        record.setAttribute(NUM_MUTATONS_ATTRIBUTE, 1);
+        return record;
+    }
+
+    @Benchmark
+    public ReadContextCounter processReads()
+    {
+        // a new counter each time so every read is fully evaluated rather than counts accumulating across invocations
+        ReadContextCounter readCounter = createReadCounter();
+
+        for(SAMRecord read : mReads)
+        {
+            readCounter.processRead(read, 1, null);
+        }
+
+        return readCounter;
+    }
+
+    @Benchmark
+    public void calculateQualityScores(final Blackhole blackhole)
+    {
+        for(int readIndex : mAltReadIndices)
+        {
+            SAMRecord read = mReads[readIndex];
+            int readVarIndex = VARIANT_POSITION - read.getAlignmentStart();
+
+            double baseQuality = QualityCalculator.calculateBaseQuality(mQualityReadCounter, readVarIndex, read);
+
+            blackhole.consume(mQualityCalculator.calculateQualityScores(mQualityReadCounter, readVarIndex, read, 1, baseQuality));
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.google.common.base.Preconditions;
 
 class AlignerTraits
 {
+    public static final int NO_BAND = -1;
+
     // scores
     protected final int mMatchScore;
     protected final int mMismatchScore;
@@ -12,6 +14,10 @@ class AlignerTraits
 
     protected boolean mLogWorkMatrix = false;
 
+    // alternative matrix fills, see StripedAlignmentKernel
+    protected boolean mStriped = false;
+    protected int mBandWidth = NO_BAND;
+
     public AlignerTraits(int matchScore, int mismatchScore, int gapOpeningScore, int gapExtensionScore)
     {
         Preconditions.checkArgument(matchScore > 0);
@@ -28,4 +34,24 @@ class AlignerTraits
     {
         mLogWorkMatrix = b;
     }
+
+    // fill the matrix across striped lanes of the first sequence, giving the same alignments as the scalar fill
+    public void setStriped(boolean b)
+    {
+        mStriped = b;
+    }
+
+    // only score cells within this many diagonals of the alignment's start and end diagonals, or NO_BAND for all cells
+    public void setBandWidth(int bandWidth)
+    {
+        Preconditions.checkArgument(bandWidth >= 0 || bandWidth == NO_BAND);
+        mBandWidth = bandWidth;
+    }
+
+    protected boolean useKernel() { return mStriped || mBandWidth != NO_BAND; }
+
+    protected StripedAlignmentKernel createKernel(boolean local)
+    {
+        return new StripedAlignmentKernel(local, mMatchScore, mMismatchScore, mGapOpeningScore, mGapExtensionScore);
+    }
 }
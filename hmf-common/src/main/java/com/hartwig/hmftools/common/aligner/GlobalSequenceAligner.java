@@ -85,7 +85,26 @@ public class GlobalSequenceAligner extends AlignerTraits
     @NotNull
     public Alignment alignSequence(@NotNull String seq, @NotNull String refSeq)
     {
-        return alignSequenceImpl(seq, refSeq);
+        return useKernel() ? alignSequenceKernel(seq, refSeq) : alignSequenceImpl(seq, refSeq);
+    }
+
+    // score-only fast path, which skips the work matrix and traceback
+    public int alignScore(@NotNull String seq, @NotNull String refSeq)
+    {
+        StripedAlignmentKernel kernel = createKernel(false);
+        kernel.align(seq, refSeq, mStriped, mBandWidth, null);
+        return kernel.score();
+    }
+
+    @NotNull
+    private Alignment alignSequenceKernel(@NotNull String seq, @NotNull String refSeq)
+    {
+        var matrix = new WorkMatrix(seq.length() + 1, refSeq.length() + 1);
+
+        StripedAlignmentKernel kernel = createKernel(false);
+        kernel.align(seq, refSeq, mStriped, mBandWidth, matrix);
+
+        return createAlignment(seq, refSeq, matrix);
     }
 
     @NotNull
@@ -193,6 +212,15 @@ public class GlobalSequenceAligner extends AlignerTraits
             }
         }
 
+        return createAlignment(seq, refSeq, matrix);
+    }
+
+    @NotNull
+    private Alignment createAlignment(@NotNull String seq, @NotNull String refSeq, @NotNull WorkMatrix matrix)
+    {
+        int nRows = seq.length() + 1;
+        int nCols = refSeq.length() + 1;
+
         var alignOps = new ArrayList<AlignmentOperator>();
 
         // now we apply trace back, we start from the last cell and go backwards
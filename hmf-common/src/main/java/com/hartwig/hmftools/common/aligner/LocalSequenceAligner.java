@@ -110,7 +110,26 @@ public class LocalSequenceAligner extends AlignerTraits
     @NotNull
     public Alignment alignSequence(@NotNull String seq1, @NotNull String seq2)
     {
-        return alignSequenceImpl(seq1, seq2);
+        return useKernel() ? alignSequenceKernel(seq1, seq2) : alignSequenceImpl(seq1, seq2);
+    }
+
+    // score-only fast path, which skips the work matrix and traceback
+    public int alignScore(@NotNull String seq1, @NotNull String seq2)
+    {
+        StripedAlignmentKernel kernel = createKernel(true);
+        kernel.align(seq1, seq2, mStriped, mBandWidth, null);
+        return kernel.score();
+    }
+
+    @NotNull
+    private Alignment alignSequenceKernel(@NotNull String seq, @NotNull String refSeq)
+    {
+        var matrix = new WorkMatrix(seq.length() + 1, refSeq.length() + 1);
+
+        StripedAlignmentKernel kernel = createKernel(true);
+        kernel.align(seq, refSeq, mStriped, mBandWidth, matrix);
+
+        return createAlignment(seq, refSeq, matrix, kernel.score(), kernel.scoreRow(), kernel.scoreCol());
     }
 
     @NotNull
@@ -239,6 +258,14 @@ public class LocalSequenceAligner extends AlignerTraits
             }
         }
 
+        return createAlignment(seq, refSeq, matrix, highestScore, highestScoreX, highestScoreY);
+    }
+
+    @NotNull
+    private Alignment createAlignment(
+            @NotNull String seq, @NotNull String refSeq, @NotNull WorkMatrix matrix,
+            int highestScore, int highestScoreX, int highestScoreY)
+    {
         var alignOps = new ArrayList<AlignmentOperator>();
 
         int seq1AlignStart = -1;
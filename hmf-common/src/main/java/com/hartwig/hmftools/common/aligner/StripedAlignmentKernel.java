@@ -0,0 +1,423 @@
+package com.hartwig.hmftools.common.aligner;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import static com.hartwig.hmftools.common.aligner.AlignerTraits.NO_BAND;
+import static com.hartwig.hmftools.common.aligner.WorkMatrix.*;
+
+import org.jetbrains.annotations.Nullable;
+
+//
+// Fills the alignment matrix of the local and global aligners with the same scoring recurrence, either:
+//
+// - striped (Farrar): the first sequence is split into LANES segments which are processed together, one reference base at a
+//   time, over short arrays laid out so each inner loop runs across the lanes and can be auto-vectorised by the JIT. The
+//   vertical (insert) dependency between segments is resolved afterwards by the lazy-F loop, which re-propagates insert scores
+//   across lane boundaries until no cell changes
+// - banded: a row-by-row scalar fill limited to diagonals within the band width of the start and end diagonals, which is also
+//   used as the full-matrix fallback when scores could overflow the short lanes or gap extension scores below gap opening
+//
+// A gap is extended only if the neighbouring cell chose that gap, as in the scalar aligners. For a given neighbour this makes
+// each cell's insert score non-decreasing in the insert score it receives, as long as gap extension is no worse than gap
+// opening, which is what allows the lazy-F loop to stop at the first unchanged segment.
+//
+// The work matrix is only written if one is supplied, otherwise only the score and the position of the best local score
+// are kept.
+//
+class StripedAlignmentKernel
+{
+    static final int LANES = 16;
+
+    private static final short NEG_INF = Short.MIN_VALUE;
+    private static final int SCALAR_NEG_INF = Integer.MIN_VALUE / 4;
+    private static final int MAX_PROFILE_CHAR = 128;
+
+    private final boolean mLocal;
+    private final int mMatchScore;
+    private final int mMismatchScore;
+    private final int mGapOpeningScore;
+    private final int mGapExtensionScore;
+
+    // results
+    private int mScore;
+    private int mScoreRow;
+    private int mScoreCol;
+
+    StripedAlignmentKernel(boolean local, int matchScore, int mismatchScore, int gapOpeningScore, int gapExtensionScore)
+    {
+        mLocal = local;
+        mMatchScore = matchScore;
+        mMismatchScore = mismatchScore;
+        mGapOpeningScore = gapOpeningScore;
+        mGapExtensionScore = gapExtensionScore;
+        mScore = 0;
+        mScoreRow = 0;
+        mScoreCol = 0;
+    }
+
+    // the global score, or the highest local score and the row and column it ends at
+    public int score() { return mScore; }
+    public int scoreRow() { return mScoreRow; }
+    public int scoreCol() { return mScoreCol; }
+
+    public void align(final String seq, final String refSeq, boolean striped, int bandWidth, @Nullable final WorkMatrix matrix)
+    {
+        mScore = 0;
+        mScoreRow = 0;
+        mScoreCol = 0;
+
+        if (bandWidth != NO_BAND)
+        {
+            alignBanded(seq, refSeq, bandWidth, matrix);
+        }
+        else if (striped && canStripe(seq, refSeq))
+        {
+            alignStriped(seq, refSeq, matrix);
+        }
+        else
+        {
+            alignBanded(seq, refSeq, max(seq.length(), refSeq.length()), matrix);
+        }
+    }
+
+    private boolean canStripe(final String seq, final String refSeq)
+    {
+        if (seq.isEmpty() || refSeq.isEmpty() || mGapExtensionScore < mGapOpeningScore)
+            return false;
+
+        // scores are bounded by the path length times the largest step, and need to fit in the short lanes
+        int maxStepScore = max(max(mMatchScore, -mMismatchScore), max(-mGapOpeningScore, -mGapExtensionScore));
+        long maxAbsScore = (long)(seq.length() + refSeq.length() + LANES + 2) * maxStepScore;
+
+        if (maxAbsScore >= Short.MAX_VALUE / 2)
+            return false;
+
+        return seq.chars().allMatch(x -> x < MAX_PROFILE_CHAR) && refSeq.chars().allMatch(x -> x < MAX_PROFILE_CHAR);
+    }
+
+    private void alignStriped(final String seq, final String refSeq, @Nullable final WorkMatrix matrix)
+    {
+        final int seqLength = seq.length();
+        final int refLength = refSeq.length();
+        final int segLength = (seqLength + LANES - 1) / LANES;
+        final int size = segLength * LANES;
+
+        final int open = mGapOpeningScore;
+        final int ext = mGapExtensionScore;
+        final int gapDiff = ext - open;
+        final int minScore = mLocal ? 0 : SCALAR_NEG_INF;
+
+        // row x (1-based) is held in segment j of lane k, where x = k * segLength + j + 1, at index j * LANES + k
+        short[] hPrev = new short[size];
+        short[] hCur = new short[size];
+        short[] eIn = new short[size]; // delete scores into this column
+        short[] eOut = new short[size];
+        byte[] moves = new byte[size];
+        byte[] realRow = new byte[size]; // 1 for rows of the sequence, 0 for padding
+
+        int[] rowIndices = new int[seqLength + 1];
+
+        short[] fVec = new short[LANES]; // insert scores into the current segment
+        short[] hDiag = new short[LANES]; // previous column's scores for the row above the current segment
+
+        short[][] profiles = new short[MAX_PROFILE_CHAR][];
+
+        for (int i = 0; i < size; ++i)
+        {
+            int x = (i % LANES) * segLength + i / LANES + 1;
+            realRow[i] = (byte)(x <= seqLength ? 1 : 0);
+
+            if (x <= seqLength)
+                rowIndices[x] = i;
+
+            // first column, this corresponds to inserts at the start
+            hPrev[i] = (short)(mLocal ? 0 : x * open);
+            eIn[i] = (short)(hPrev[i] + open);
+        }
+
+        writeBoundaries(seqLength, refLength, matrix);
+
+        for (int y = 1; y <= refLength; ++y)
+        {
+            char refBase = refSeq.charAt(y - 1);
+            short[] profile = profiles[refBase];
+
+            if (profile == null)
+            {
+                profile = createProfile(seq, refBase, segLength, rowIndices);
+                profiles[refBase] = profile;
+            }
+
+            // the diagonal into the first segment comes from the previous lane's last segment, and the first row's from row 0
+            int lastSegIndex = (segLength - 1) * LANES;
+            hDiag[0] = (short)(mLocal ? 0 : (y - 1) * open);
+
+            for (int k = 1; k < LANES; ++k)
+            {
+                hDiag[k] = hPrev[lastSegIndex + k - 1];
+            }
+
+            for (int k = 1; k < LANES; ++k)
+            {
+                fVec[k] = NEG_INF;
+            }
+
+            // row 0 never chooses an insert
+            fVec[0] = (short)((mLocal ? 0 : y * open) + open);
+
+            int colMax = 0;
+
+            // first pass with insert scores carried within each lane only
+            for (int j = 0; j < segLength; ++j)
+            {
+                int base = j * LANES;
+
+                for (int k = 0; k < LANES; ++k)
+                {
+                    int i = base + k;
+                    int diag = hDiag[k] + profile[i];
+                    int left = eIn[i];
+                    int f = fVec[k];
+                    int d = max(max(diag, left), minScore);
+                    int h = max(d, f);
+
+                    // branch-free flags, 1 if the insert is chosen, or else 1 if the delete is chosen, otherwise the move is
+                    // diagonal (1) or for local alignments ends at 0
+                    int isUp = (d - f) >>> 31;
+                    int isLeft = (1 - isUp) & ((diag - left) >>> 31) & ((minScore - left) >>> 31);
+
+                    hDiag[k] = hPrev[i];
+                    hCur[i] = (short)h;
+                    eOut[i] = (short)(h + open + isLeft * gapDiff);
+                    fVec[k] = (short)(h + open + isUp * gapDiff);
+                    moves[i] = (byte)(isUp * TRACEBACK_UP + isLeft * TRACEBACK_LEFT + (1 - isUp - isLeft) * ((minScore - h) >>> 31));
+                    colMax = max(colMax, h * realRow[i]);
+                }
+            }
+
+            // lazy-F loop, carry each lane's last insert score into the next lane's first segment, and on down that lane for
+            // as long as it improves on a cell's score. An insert chain which stops improving leaves the rest of its lane as is
+            lazyLoop:
+            for (int round = 0; round < LANES; ++round)
+            {
+                for (int k = LANES - 1; k > 0; --k)
+                {
+                    fVec[k] = fVec[k - 1];
+                }
+
+                fVec[0] = NEG_INF;
+
+                for (int j = 0; j < segLength; ++j)
+                {
+                    int base = j * LANES;
+                    int changes = 0;
+
+                    for (int k = 0; k < LANES; ++k)
+                    {
+                        int i = base + k;
+                        int f = fVec[k];
+                        boolean isUp = f > hCur[i];
+                        changes |= isUp ? 1 : 0;
+
+                        if (isUp)
+                        {
+                            hCur[i] = (short)f;
+                            eOut[i] = (short)(f + open);
+
+                            moves[i] = TRACEBACK_UP;
+                        }
+
+                        fVec[k] = isUp ? (short)(f + ext) : NEG_INF;
+                    }
+
+                    if (changes == 0)
+                        break lazyLoop;
+                }
+            }
+
+            if (matrix != null)
+            {
+                for (int x = 1; x <= seqLength; ++x)
+                {
+                    int i = rowIndices[x];
+                    matrix.setEntry(x, y, hCur[i], moves[i]);
+                }
+            }
+
+            if (mLocal && colMax > 0 && colMax >= mScore)
+            {
+                // take the first row with the highest score, and on ties the earliest column, as the scalar aligner does
+                for (int x = 1; x <= seqLength; ++x)
+                {
+                    if (hCur[rowIndices[x]] != colMax)
+                        continue;
+
+                    if (colMax > mScore || x < mScoreRow)
+                    {
+                        mScore = colMax;
+                        mScoreRow = x;
+                        mScoreCol = y;
+                    }
+
+                    break;
+                }
+            }
+
+            short[] temp = hPrev;
+            hPrev = hCur;
+            hCur = temp;
+
+            temp = eIn;
+            eIn = eOut;
+            eOut = temp;
+        }
+
+        if (!mLocal)
+        {
+            mScore = hPrev[rowIndices[seqLength]];
+            mScoreRow = seqLength;
+            mScoreCol = refLength;
+        }
+    }
+
+    private short[] createProfile(final String seq, char refBase, int segLength, final int[] rowIndices)
+    {
+        // match scores of the reference base against each row, in striped order, and 0 for padding rows
+        short[] profile = new short[segLength * LANES];
+
+        for (int x = 1; x <= seq.length(); ++x)
+        {
+            profile[rowIndices[x]] = (short)(seq.charAt(x - 1) == refBase ? mMatchScore : mMismatchScore);
+        }
+
+        return profile;
+    }
+
+    private void alignBanded(final String seq, final String refSeq, int bandWidth, @Nullable final WorkMatrix matrix)
+    {
+        final int seqLength = seq.length();
+        final int refLength = refSeq.length();
+
+        // cells are within the band if their diagonal is within the band width of both the start and end diagonals
+        final int minDiagonal = min(0, refLength - seqLength) - bandWidth;
+        final int maxDiagonal = max(0, refLength - seqLength) + bandWidth;
+
+        int[] hPrev = new int[refLength + 1];
+        int[] hCur = new int[refLength + 1];
+        boolean[] upPrev = new boolean[refLength + 1];
+        boolean[] upCur = new boolean[refLength + 1];
+
+        for (int y = 0; y <= refLength; ++y)
+        {
+            // first row, this corresponds to deletes at the start
+            hPrev[y] = mLocal ? 0 : y * mGapOpeningScore;
+        }
+
+        writeBoundaries(seqLength, refLength, matrix);
+
+        for (int x = 1; x <= seqLength; ++x)
+        {
+            int yStart = max(1, x + minDiagonal);
+            int yEnd = min(refLength, x + maxDiagonal);
+
+            // first column, this corresponds to inserts at the start
+            hCur[0] = mLocal ? 0 : x * mGapOpeningScore;
+            upCur[0] = false;
+
+            if (yStart > 1)
+            {
+                hCur[yStart - 1] = SCALAR_NEG_INF;
+                upCur[yStart - 1] = false;
+            }
+
+            if (yEnd < refLength)
+            {
+                hCur[yEnd + 1] = SCALAR_NEG_INF;
+                upCur[yEnd + 1] = false;
+            }
+
+            boolean prevIsLeft = false;
+            char base = seq.charAt(x - 1);
+
+            for (int y = yStart; y <= yEnd; ++y)
+            {
+                int diagScore = hPrev[y - 1] + (base == refSeq.charAt(y - 1) ? mMatchScore : mMismatchScore);
+                int leftScore = hCur[y - 1] + (prevIsLeft ? mGapExtensionScore : mGapOpeningScore);
+                int upScore = hPrev[y] + (upPrev[y] ? mGapExtensionScore : mGapOpeningScore);
+
+                int score;
+                int move;
+
+                if (diagScore >= leftScore && diagScore >= upScore)
+                {
+                    score = diagScore;
+                    move = TRACEBACK_DIAG;
+                }
+                else if (leftScore >= upScore)
+                {
+                    score = leftScore;
+                    move = TRACEBACK_LEFT;
+                }
+                else
+                {
+                    score = upScore;
+                    move = TRACEBACK_UP;
+                }
+
+                if (mLocal && score <= 0)
+                {
+                    score = 0;
+                    move = TRACEBACK_END;
+                }
+
+                hCur[y] = score;
+                upCur[y] = move == TRACEBACK_UP;
+                prevIsLeft = move == TRACEBACK_LEFT;
+
+                if (matrix != null)
+                    matrix.setEntry(x, y, score, move);
+
+                if (mLocal && score > mScore)
+                {
+                    mScore = score;
+                    mScoreRow = x;
+                    mScoreCol = y;
+                }
+            }
+
+            int[] temp = hPrev;
+            hPrev = hCur;
+            hCur = temp;
+
+            boolean[] tempUp = upPrev;
+            upPrev = upCur;
+            upCur = tempUp;
+        }
+
+        if (!mLocal)
+        {
+            mScore = hPrev[refLength];
+            mScoreRow = seqLength;
+            mScoreCol = refLength;
+        }
+    }
+
+    private void writeBoundaries(int seqLength, int refLength, @Nullable final WorkMatrix matrix)
+    {
+        if (matrix == null)
+            return;
+
+        matrix.setEntry(0, 0, 0, TRACEBACK_END);
+
+        for (int y = 1; y <= refLength; ++y)
+        {
+            matrix.setEntry(0, y, mLocal ? 0 : y * mGapOpeningScore, mLocal ? TRACEBACK_END : TRACEBACK_LEFT);
+        }
+
+        for (int x = 1; x <= seqLength; ++x)
+        {
+            matrix.setEntry(x, 0, mLocal ? 0 : x * mGapOpeningScore, mLocal ? TRACEBACK_END : TRACEBACK_UP);
+        }
+    }
+}
@@ -3,7 +3,6 @@ package com.hartwig.hmftools.common.amber;
 import static com.hartwig.hmftools.common.utils.file.FileDelimiters.TSV_DELIM;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.*;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -11,7 +10,6 @@ import java.io.Writer;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.StringJoiner;
 
 import com.google.common.collect.ArrayListMultimap;
@@ -20,7 +18,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.primitives.Doubles;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
-import com.hartwig.hmftools.common.utils.file.FileReaderUtils;
+import com.hartwig.hmftools.common.utils.file.DelimFileByteReader;
 
 public final class AmberBAFFile
 {
@@ -57,29 +55,24 @@ public final class AmberBAFFile
     {
         ListMultimap<Chromosome,AmberBAF> chrBafMap = ArrayListMultimap.create();
 
-        try(BufferedReader reader = fileName.endsWith(".gz") ? createGzipBufferedReader(fileName) : createBufferedReader(fileName))
+        try(DelimFileByteReader reader = new DelimFileByteReader(fileName))
         {
-            String line = reader.readLine();
-            Map<String, Integer> fieldsIndexMap = FileReaderUtils.createFieldsIndexMap(line, TSV_DELIM);
-
-            int chrIndex = fieldsIndexMap.get(CHROMOSOME);
-            int posIndex = fieldsIndexMap.get(POSITION);
-            int tumorBafIndex = fieldsIndexMap.get(TUMOR_BAF);
-            int tumorDepthIndex = fieldsIndexMap.get(TUMOR_DEPTH);
-            int normBafIndex = fieldsIndexMap.get(NORM_BAF);
-            int normDepthIndex = fieldsIndexMap.get(NORM_DEPTH);
-
-            while((line = reader.readLine()) != null)
+            int chrIndex = reader.getColumnIndex(CHROMOSOME);
+            int posIndex = reader.getColumnIndex(POSITION);
+            int tumorBafIndex = reader.getColumnIndex(TUMOR_BAF);
+            int tumorDepthIndex = reader.getColumnIndex(TUMOR_DEPTH);
+            int normBafIndex = reader.getColumnIndex(NORM_BAF);
+            int normDepthIndex = reader.getColumnIndex(NORM_DEPTH);
+
+            for(DelimFileByteReader.Row row : reader)
             {
-                String[] values = line.split(TSV_DELIM, -1);
-
-                String chromosome = values[chrIndex];
+                String chromosome = row.getChromosome(chrIndex);
 
-                double tumorBAF = hasTumor ? Double.parseDouble(values[tumorBafIndex]) : 0.5;
+                double tumorBAF = hasTumor ? row.getDouble(tumorBafIndex) : 0.5;
 
                 AmberBAF amberBAF = new AmberBAF(
-                        chromosome, Integer.parseInt(values[posIndex]), tumorBAF, Integer.parseInt(values[tumorDepthIndex]),
-                        Double.parseDouble(values[normBafIndex]), Integer.parseInt(values[normDepthIndex]));
+                        chromosome, row.getInt(posIndex), tumorBAF, row.getInt(tumorDepthIndex),
+                        row.getDouble(normBafIndex), row.getInt(normDepthIndex));
 
                 chrBafMap.put(HumanChromosome.fromString(chromosome), amberBAF);
             }
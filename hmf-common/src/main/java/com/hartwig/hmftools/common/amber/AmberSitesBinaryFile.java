@@ -0,0 +1,111 @@
+package com.hartwig.hmftools.common.amber;
+
+import static java.lang.String.format;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.utils.file.ChromosomeBinaryFile;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// binary form of the Amber heterozygous sites, loaded by memory-mapping rather than parsing the text or VCF file
+public final class AmberSitesBinaryFile
+{
+    private static final Logger LOGGER = LogManager.getLogger(AmberSitesBinaryFile.class);
+
+    private static final int MAGIC = 0x414D4253; // "AMBS"
+    private static final int VERSION = 1;
+
+    private static final int RECORD_BYTES = Integer.BYTES + 3;
+
+    public static boolean isBinaryFile(final String filename)
+    {
+        return ChromosomeBinaryFile.hasMagic(filename, MAGIC);
+    }
+
+    public static MappedAmberSites load(final String filename) throws IOException
+    {
+        MappedAmberSites amberSites = new MappedAmberSites(ChromosomeBinaryFile.load(filename, MAGIC, VERSION));
+        LOGGER.info("mapped {} Amber germline sites from {}", amberSites.totalSiteCount(), filename);
+        return amberSites;
+    }
+
+    // sites must be single-base and sorted by position within each chromosome
+    public static void write(final String filename, final Map<String,List<AmberSite>> chrSites) throws IOException
+    {
+        List<String> chromosomes = Lists.newArrayList(chrSites.keySet());
+        List<Integer> counts = Lists.newArrayList();
+        chromosomes.forEach(x -> counts.add(chrSites.get(x).size()));
+
+        try(DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename))))
+        {
+            ChromosomeBinaryFile.writeHeader(outputStream, MAGIC, VERSION, 0, chromosomes, counts, RECORD_BYTES);
+
+            for(String chromosome : chromosomes)
+            {
+                List<AmberSite> sites = chrSites.get(chromosome);
+
+                for(AmberSite site : sites)
+                {
+                    if(site.Ref.length() != 1 || site.Alt.length() != 1)
+                        throw new IllegalArgumentException(format("Amber site(%s) is not a single-base variant", site));
+
+                    outputStream.writeInt(site.Position);
+                }
+
+                for(AmberSite site : sites)
+                {
+                    outputStream.writeByte(site.Ref.charAt(0));
+                }
+
+                for(AmberSite site : sites)
+                {
+                    outputStream.writeByte(site.Alt.charAt(0));
+                }
+
+                for(AmberSite site : sites)
+                {
+                    outputStream.writeByte(site.snpCheck() ? 1 : 0);
+                }
+            }
+        }
+    }
+
+    public static void main(final String[] args) throws IOException
+    {
+        if(args.length != 2)
+        {
+            LOGGER.error("usage: AmberSitesBinaryFile <input Amber sites file> <output binary file>");
+            System.exit(1);
+        }
+
+        ListMultimap<Chromosome,AmberSite> sitesMap = AmberSitesFile.sites(args[0]);
+        Map<String,List<AmberSite>> chrSites = Maps.newLinkedHashMap();
+
+        for(HumanChromosome chromosome : HumanChromosome.values())
+        {
+            List<AmberSite> sites = Lists.newArrayList(sitesMap.get(chromosome));
+
+            if(sites.isEmpty())
+                continue;
+
+            Collections.sort(sites);
+            chrSites.put(sites.get(0).Chromosome, sites);
+        }
+
+        write(args[1], chrSites);
+        LOGGER.info("wrote binary Amber sites for {} chromosomes to {}", chrSites.size(), args[1]);
+    }
+}
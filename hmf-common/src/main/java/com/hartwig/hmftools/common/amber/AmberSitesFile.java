@@ -17,6 +17,7 @@ import java.util.StringJoiner;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimaps;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.variant.VcfFileReader;
@@ -31,8 +32,20 @@ public final class AmberSitesFile
     private static final Logger LOGGER = LogManager.getLogger(AmberSitesFile.class);
     private static final String SNPCHECK = "SNPCHECK";
 
+    // a binary sites file is returned as views onto the mapped file rather than as loaded sites
+    public static Map<Chromosome,List<AmberSite>> chromosomeSites(final String filename) throws IOException
+    {
+        if(AmberSitesBinaryFile.isBinaryFile(filename))
+            return AmberSitesBinaryFile.load(filename).chromosomeSiteViews();
+
+        return Multimaps.asMap(sites(filename));
+    }
+
     public static ListMultimap<Chromosome,AmberSite> sites(final String filename) throws IOException
     {
+        if(AmberSitesBinaryFile.isBinaryFile(filename))
+            return AmberSitesBinaryFile.load(filename).toSiteMap();
+
         BufferedReader reader = createBufferedReader(filename);
 
         String header = reader.readLine();
@@ -0,0 +1,171 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.utils.file.ChromosomeBinaryFile;
+import com.hartwig.hmftools.common.utils.file.ChromosomeBinaryFile.ChromosomeEntry;
+
+// Amber sites read directly from a memory-mapped binary sites file, with values accessed by site index
+public class MappedAmberSites
+{
+    private final ByteBuffer mBuffer;
+    private final Map<String,ChromosomeEntry> mChromosomes;
+
+    public MappedAmberSites(final ChromosomeBinaryFile binaryFile)
+    {
+        mBuffer = binaryFile.buffer();
+        mChromosomes = binaryFile.chromosomes();
+    }
+
+    public Set<String> chromosomes() { return mChromosomes.keySet(); }
+
+    public int siteCount(final String chromosome)
+    {
+        ChromosomeEntry entry = mChromosomes.get(chromosome);
+        return entry != null ? entry.Count : 0;
+    }
+
+    public int totalSiteCount()
+    {
+        return mChromosomes.values().stream().mapToInt(x -> x.Count).sum();
+    }
+
+    // positions are held as an int column, then ref base, alt base and SnpCheck flag as byte columns
+    public int position(final String chromosome, int index)
+    {
+        ChromosomeEntry entry = entry(chromosome, index);
+        return mBuffer.getInt(entry.Offset + index * Integer.BYTES);
+    }
+
+    public char ref(final String chromosome, int index)
+    {
+        return (char)byteValue(entry(chromosome, index), 0, index);
+    }
+
+    public char alt(final String chromosome, int index)
+    {
+        return (char)byteValue(entry(chromosome, index), 1, index);
+    }
+
+    public boolean snpCheck(final String chromosome, int index)
+    {
+        return byteValue(entry(chromosome, index), 2, index) != 0;
+    }
+
+    // returns the index of the first site at or after the position
+    public int findSiteIndex(final String chromosome, int position)
+    {
+        ChromosomeEntry entry = mChromosomes.get(chromosome);
+
+        if(entry == null)
+            return 0;
+
+        int low = 0;
+        int high = entry.Count;
+
+        while(low < high)
+        {
+            int mid = (low + high) >>> 1;
+
+            if(mBuffer.getInt(entry.Offset + mid * Integer.BYTES) < position)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        return low;
+    }
+
+    private ChromosomeEntry entry(final String chromosome, int index)
+    {
+        ChromosomeEntry entry = mChromosomes.get(chromosome);
+        Objects.checkIndex(index, entry != null ? entry.Count : 0);
+        return entry;
+    }
+
+    private byte byteValue(final ChromosomeEntry entry, int column, int index)
+    {
+        return mBuffer.get(entry.Offset + entry.Count * Integer.BYTES + column * entry.Count + index);
+    }
+
+    public AmberSite site(final String chromosome, int index)
+    {
+        return new AmberSite(
+                chromosome, position(chromosome, index), String.valueOf(ref(chromosome, index)),
+                String.valueOf(alt(chromosome, index)), snpCheck(chromosome, index));
+    }
+
+    // a list view over a chromosome's sites, creating each site only when it is accessed. Chromosomes not in the file are empty
+    public List<AmberSite> sites(final String chromosome)
+    {
+        if(!mChromosomes.containsKey(chromosome))
+            return Collections.emptyList();
+
+        return new SiteList(chromosome);
+    }
+
+    public Map<Chromosome,List<AmberSite>> chromosomeSiteViews()
+    {
+        Map<Chromosome,List<AmberSite>> chrSites = Maps.newLinkedHashMap();
+
+        for(String chromosome : mChromosomes.keySet())
+        {
+            if(HumanChromosome.contains(chromosome))
+                chrSites.put(HumanChromosome.fromString(chromosome), sites(chromosome));
+        }
+
+        return chrSites;
+    }
+
+    // materialise site objects for the resource tools which still work with them
+    public ListMultimap<Chromosome,AmberSite> toSiteMap()
+    {
+        final ListMultimap<Chromosome,AmberSite> result = ArrayListMultimap.create();
+
+        for(String chromosome : mChromosomes.keySet())
+        {
+            if(!HumanChromosome.contains(chromosome))
+                continue;
+
+            HumanChromosome humanChromosome = HumanChromosome.fromString(chromosome);
+            int count = siteCount(chromosome);
+
+            for(int i = 0; i < count; ++i)
+            {
+                result.put(humanChromosome, site(chromosome, i));
+            }
+        }
+
+        return result;
+    }
+
+    private class SiteList extends AbstractList<AmberSite> implements RandomAccess
+    {
+        private final String mChromosome;
+        private final int mCount;
+
+        public SiteList(final String chromosome)
+        {
+            mChromosome = chromosome;
+            mCount = siteCount(chromosome);
+        }
+
+        @Override
+        public AmberSite get(int index) { return site(mChromosome, index); }
+
+        @Override
+        public int size() { return mCount; }
+    }
+}
@@ -24,7 +24,7 @@ import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.gc.GCProfileFactory;
 import com.hartwig.hmftools.common.purple.Gender;
-import com.hartwig.hmftools.common.utils.file.DelimFileReader;
+import com.hartwig.hmftools.common.utils.file.DelimFileByteReader;
 import com.hartwig.hmftools.common.utils.file.DelimFileWriter;
 
 import org.jetbrains.annotations.NotNull;
@@ -115,7 +115,7 @@ public final class CobaltRatioFile
     {
         Map<Chromosome,List<CobaltRatio>> chrRatiosMap = new HashMap<>();
 
-        try(DelimFileReader reader = new DelimFileReader(filename))
+        try(DelimFileByteReader reader = new DelimFileByteReader(filename))
         {
             List<CobaltRatio> ratios = null;
             String currentChromosome = null;
@@ -144,21 +144,16 @@ public final class CobaltRatioFile
             boolean useReadCount = refReadCountIndex != null && tumorReadCountIndex != null;
             boolean hasGcContent = refGcContentIndex != null && tumorGcContentIndex != null;
 
-            for(DelimFileReader.Row row : reader)
+            for(DelimFileByteReader.Row row : reader)
             {
-                String chromosome = row.get(chrIndex);
+                String chromosome = row.getChromosome(chrIndex);
 
-                if(currentChromosome == null || !currentChromosome.equals(chromosome))
+                if(!chromosome.equals(currentChromosome))
                 {
                     currentChromosome = chromosome;
                     ratios = new ArrayList<>();
                     chrRatiosMap.put(HumanChromosome.fromString(chromosome), ratios);
                 }
-                else
-                {
-                    // use the same String object for better performance
-                    chromosome = currentChromosome;
-                }
 
                 double refReadDepth = useReadCount ? convertReadCount(row.getDouble(refReadCountIndex)) : row.getDouble(refReadDepthIndex);
 
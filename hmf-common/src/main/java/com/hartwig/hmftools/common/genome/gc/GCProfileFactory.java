@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
@@ -38,13 +39,17 @@ public final class GCProfileFactory
 
     public static Multimap<Chromosome, GCProfile> loadGCContent(final String fileName) throws IOException
     {
-        return loadGCContent(WINDOW_SIZE, Files.readAllLines(new File(fileName).toPath()));
+        return loadGCContent(WINDOW_SIZE, fileName);
     }
 
+    // a binary GC profile is returned as views onto the mapped file rather than as loaded profiles
     public static Map<String,List<GCProfile>> loadChrGcProfileMap(final String fileName) throws IOException
     {
+        if(GcProfileBinaryFile.isBinaryFile(fileName))
+            return GcProfileBinaryFile.load(fileName, WINDOW_SIZE).chrProfileViews();
+
         List<String> lines = Files.readAllLines(new File(fileName).toPath());
-        Map<String,List<GCProfile>> chrProfileMap = Maps.newHashMap();
+        Map<String,List<GCProfile>> chrProfileMap = Maps.newLinkedHashMap();
 
         String currentChr = "";
         List<GCProfile> profiles = null;
@@ -66,14 +71,38 @@ public final class GCProfileFactory
         return chrProfileMap;
     }
 
+    public static Map<Chromosome,List<GCProfile>> loadChromosomeGcProfiles(int windowSize, final String fileName) throws IOException
+    {
+        if(GcProfileBinaryFile.isBinaryFile(fileName))
+            return GcProfileBinaryFile.load(fileName, windowSize).chromosomeProfileViews();
+
+        Map<Chromosome,List<GCProfile>> chrProfiles = Maps.newLinkedHashMap();
+        ListMultimap<Chromosome,GCProfile> gcProfiles = loadGCContent(windowSize, Files.readAllLines(new File(fileName).toPath()));
+
+        for(Chromosome chromosome : gcProfiles.keySet())
+        {
+            chrProfiles.put(chromosome, gcProfiles.get(chromosome));
+        }
+
+        return chrProfiles;
+    }
+
     public static Multimap<Chromosome, GCProfile> loadGCContent(int windowSize, final String fileName) throws IOException
     {
+        // loads every profile, so large callers should prefer the per-chromosome views from a binary file
+        if(GcProfileBinaryFile.isBinaryFile(fileName))
+        {
+            Multimap<Chromosome,GCProfile> gcProfiles = ArrayListMultimap.create();
+            loadChromosomeGcProfiles(windowSize, fileName).forEach(gcProfiles::putAll);
+            return gcProfiles;
+        }
+
         return loadGCContent(windowSize, Files.readAllLines(new File(fileName).toPath()));
     }
 
-    private static Multimap<Chromosome, GCProfile> loadGCContent(int windowSize, final List<String> lines)
+    private static ListMultimap<Chromosome, GCProfile> loadGCContent(int windowSize, final List<String> lines)
     {
-        final Multimap<Chromosome, GCProfile> result = ArrayListMultimap.create();
+        final ListMultimap<Chromosome, GCProfile> result = ArrayListMultimap.create();
         for(String line : lines)
         {
             final GCProfile gcProfile = fromLine(windowSize, line);
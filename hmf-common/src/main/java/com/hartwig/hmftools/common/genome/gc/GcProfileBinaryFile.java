@@ -0,0 +1,99 @@
+package com.hartwig.hmftools.common.genome.gc;
+
+import static java.lang.String.format;
+
+import static com.hartwig.hmftools.common.genome.gc.GCProfileFactory.WINDOW_SIZE;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.utils.file.ChromosomeBinaryFile;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// binary form of the GC profile, loaded by memory-mapping rather than parsing the text file
+public final class GcProfileBinaryFile
+{
+    private static final Logger LOGGER = LogManager.getLogger(GcProfileBinaryFile.class);
+
+    private static final int MAGIC = 0x47435046; // "GCPF"
+    private static final int VERSION = 1;
+
+    private static final int RECORD_BYTES = Integer.BYTES + Double.BYTES * 3;
+
+    public static boolean isBinaryFile(final String filename)
+    {
+        return ChromosomeBinaryFile.hasMagic(filename, MAGIC);
+    }
+
+    public static MappedGcProfiles load(final String filename, int windowSize) throws IOException
+    {
+        MappedGcProfiles gcProfiles = new MappedGcProfiles(ChromosomeBinaryFile.load(filename, MAGIC, VERSION));
+
+        if(gcProfiles.windowSize() != windowSize)
+        {
+            throw new IOException(format("binary GC profile(%s) window size(%d) differs from expected(%d)",
+                    filename, gcProfiles.windowSize(), windowSize));
+        }
+
+        LOGGER.debug("mapped binary GC profile from {}", filename);
+        return gcProfiles;
+    }
+
+    public static void write(final String filename, int windowSize, final Map<String,List<GCProfile>> chrProfiles) throws IOException
+    {
+        List<String> chromosomes = Lists.newArrayList(chrProfiles.keySet());
+        List<Integer> counts = Lists.newArrayList();
+        chromosomes.forEach(x -> counts.add(chrProfiles.get(x).size()));
+
+        try(DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename))))
+        {
+            ChromosomeBinaryFile.writeHeader(outputStream, MAGIC, VERSION, windowSize, chromosomes, counts, RECORD_BYTES);
+
+            for(String chromosome : chromosomes)
+            {
+                List<GCProfile> profiles = chrProfiles.get(chromosome);
+
+                for(GCProfile profile : profiles)
+                {
+                    outputStream.writeInt(profile.start());
+                }
+
+                for(GCProfile profile : profiles)
+                {
+                    outputStream.writeDouble(profile.gcContent());
+                }
+
+                for(GCProfile profile : profiles)
+                {
+                    outputStream.writeDouble(profile.nonNPercentage());
+                }
+
+                for(GCProfile profile : profiles)
+                {
+                    outputStream.writeDouble(profile.mappablePercentage());
+                }
+            }
+        }
+    }
+
+    public static void main(final String[] args) throws IOException
+    {
+        if(args.length != 2)
+        {
+            LOGGER.error("usage: GcProfileBinaryFile <input GC profile> <output binary file>");
+            System.exit(1);
+        }
+
+        Map<String,List<GCProfile>> chrProfiles = GCProfileFactory.loadChrGcProfileMap(args[0]);
+        write(args[1], WINDOW_SIZE, chrProfiles);
+
+        LOGGER.info("wrote binary GC profile for {} chromosomes to {}", chrProfiles.size(), args[1]);
+    }
+}
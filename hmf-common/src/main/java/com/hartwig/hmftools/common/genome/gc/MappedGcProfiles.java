@@ -0,0 +1,174 @@
+package com.hartwig.hmftools.common.genome.gc;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.utils.Doubles;
+import com.hartwig.hmftools.common.utils.file.ChromosomeBinaryFile;
+import com.hartwig.hmftools.common.utils.file.ChromosomeBinaryFile.ChromosomeEntry;
+
+// GC profile windows read directly from a memory-mapped binary GC profile file, with values accessed by window index
+public class MappedGcProfiles
+{
+    private final ByteBuffer mBuffer;
+    private final int mWindowSize;
+    private final Map<String,ChromosomeEntry> mChromosomes;
+
+    public MappedGcProfiles(final ChromosomeBinaryFile binaryFile)
+    {
+        mBuffer = binaryFile.buffer();
+        mWindowSize = binaryFile.headerValue();
+        mChromosomes = binaryFile.chromosomes();
+    }
+
+    public int windowSize() { return mWindowSize; }
+    public Set<String> chromosomes() { return mChromosomes.keySet(); }
+
+    public int windowCount(final String chromosome)
+    {
+        ChromosomeEntry entry = mChromosomes.get(chromosome);
+        return entry != null ? entry.Count : 0;
+    }
+
+    // window start positions are held as an int column, then GC content, non-N and mappable percentages as double columns
+    public int start(final String chromosome, int index)
+    {
+        ChromosomeEntry entry = entry(chromosome, index);
+        return mBuffer.getInt(entry.Offset + index * Integer.BYTES);
+    }
+
+    public double gcContent(final String chromosome, int index)
+    {
+        return doubleValue(entry(chromosome, index), 0, index);
+    }
+
+    public double nonNPercentage(final String chromosome, int index)
+    {
+        return doubleValue(entry(chromosome, index), 1, index);
+    }
+
+    public double mappablePercentage(final String chromosome, int index)
+    {
+        return doubleValue(entry(chromosome, index), 2, index);
+    }
+
+    public boolean isMappable(final String chromosome, int index)
+    {
+        return Doubles.greaterOrEqual(mappablePercentage(chromosome, index), GCProfile.MIN_MAPPABLE_PERCENTAGE);
+    }
+
+    // returns the index of the window containing the position, or -1 if none does
+    public int findWindowIndex(final String chromosome, int position)
+    {
+        ChromosomeEntry entry = mChromosomes.get(chromosome);
+
+        if(entry == null)
+            return -1;
+
+        int low = 0;
+        int high = entry.Count - 1;
+
+        while(low <= high)
+        {
+            int mid = (low + high) >>> 1;
+            int windowStart = mBuffer.getInt(entry.Offset + mid * Integer.BYTES);
+
+            if(position < windowStart)
+                high = mid - 1;
+            else if(position > windowStart + mWindowSize - 1)
+                low = mid + 1;
+            else
+                return mid;
+        }
+
+        return -1;
+    }
+
+    private ChromosomeEntry entry(final String chromosome, int index)
+    {
+        ChromosomeEntry entry = mChromosomes.get(chromosome);
+        Objects.checkIndex(index, entry != null ? entry.Count : 0);
+        return entry;
+    }
+
+    private double doubleValue(final ChromosomeEntry entry, int column, int index)
+    {
+        int columnOffset = entry.Offset + entry.Count * Integer.BYTES + column * entry.Count * Double.BYTES;
+        return mBuffer.getDouble(columnOffset + index * Double.BYTES);
+    }
+
+    public GCProfile profile(final String chromosome, int index)
+    {
+        int start = start(chromosome, index);
+
+        return ImmutableGCProfile.builder()
+                .chromosome(chromosome)
+                .start(start)
+                .end(start + mWindowSize - 1)
+                .gcContent(gcContent(chromosome, index))
+                .nonNPercentage(nonNPercentage(chromosome, index))
+                .mappablePercentage(mappablePercentage(chromosome, index))
+                .build();
+    }
+
+    // a list view over a chromosome's windows, creating each profile only when it is accessed. Chromosomes not in the file are empty
+    public List<GCProfile> profiles(final String chromosome)
+    {
+        if(!mChromosomes.containsKey(chromosome))
+            return Collections.emptyList();
+
+        return new ProfileList(chromosome);
+    }
+
+    public Map<String,List<GCProfile>> chrProfileViews()
+    {
+        Map<String,List<GCProfile>> chrProfiles = Maps.newLinkedHashMap();
+
+        for(String chromosome : mChromosomes.keySet())
+        {
+            chrProfiles.put(chromosome, profiles(chromosome));
+        }
+
+        return chrProfiles;
+    }
+
+    public Map<Chromosome,List<GCProfile>> chromosomeProfileViews()
+    {
+        Map<Chromosome,List<GCProfile>> chrProfiles = Maps.newLinkedHashMap();
+
+        for(String chromosome : mChromosomes.keySet())
+        {
+            if(HumanChromosome.contains(chromosome))
+                chrProfiles.put(HumanChromosome.fromString(chromosome), profiles(chromosome));
+        }
+
+        return chrProfiles;
+    }
+
+    private class ProfileList extends AbstractList<GCProfile> implements RandomAccess
+    {
+        private final String mChromosome;
+        private final int mCount;
+
+        public ProfileList(final String chromosome)
+        {
+            mChromosome = chromosome;
+            mCount = windowCount(chromosome);
+        }
+
+        @Override
+        public GCProfile get(int index) { return profile(mChromosome, index); }
+
+        @Override
+        public int size() { return mCount; }
+    }
+}
@@ -1,6 +1,7 @@
 package com.hartwig.hmftools.common.genome.region;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
@@ -52,14 +53,34 @@ public final class GenomeRegionSelectorFactory
     @NotNull
     public static <R extends GenomeRegion> GenomeRegionSelector<R> createImproved(@NotNull final Multimap<Chromosome, R> regions)
     {
-        final GenomeRegionSelector<R> nullSelector = new NullGenomeRegionSelector<>();
-
         final Map<Chromosome, GenomeRegionSelector<R>> chromosomeSelectors = Maps.newHashMap();
         for(final Chromosome chromosome : regions.keySet())
         {
             chromosomeSelectors.put(chromosome, new GenomeRegionSelectorListImpl<>(regions.get(chromosome)));
         }
 
+        return chromosomeSelector(chromosomeSelectors);
+    }
+
+    // regions must already be sorted within each chromosome, since the lists are used directly rather than copied
+    @NotNull
+    public static <R extends GenomeRegion> GenomeRegionSelector<R> createImproved(@NotNull final Map<Chromosome, List<R>> regions)
+    {
+        final Map<Chromosome, GenomeRegionSelector<R>> chromosomeSelectors = Maps.newHashMap();
+        for(Map.Entry<Chromosome, List<R>> entry : regions.entrySet())
+        {
+            chromosomeSelectors.put(entry.getKey(), new GenomeRegionSelectorListImpl<>(entry.getValue()));
+        }
+
+        return chromosomeSelector(chromosomeSelectors);
+    }
+
+    @NotNull
+    private static <R extends GenomeRegion> GenomeRegionSelector<R> chromosomeSelector(
+            @NotNull final Map<Chromosome, GenomeRegionSelector<R>> chromosomeSelectors)
+    {
+        final GenomeRegionSelector<R> nullSelector = new NullGenomeRegionSelector<>();
+
         return new GenomeRegionSelector<R>()
         {
             @NotNull
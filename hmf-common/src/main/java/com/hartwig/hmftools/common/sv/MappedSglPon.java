@@ -0,0 +1,83 @@
+package com.hartwig.hmftools.common.sv;
+
+import static com.hartwig.hmftools.common.region.BaseRegion.positionsOverlap;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import com.hartwig.hmftools.common.utils.file.ChromosomeBinaryFile;
+import com.hartwig.hmftools.common.utils.file.ChromosomeBinaryFile.ChromosomeEntry;
+
+// germline SGL PON read directly from a memory-mapped binary file, queried by binary search on region begin
+public class MappedSglPon
+{
+    private final ByteBuffer mBuffer;
+    private final Map<String,ChromosomeEntry> mChromosomes;
+    private final int mMaxLength;
+
+    public MappedSglPon(final ChromosomeBinaryFile binaryFile)
+    {
+        mBuffer = binaryFile.buffer();
+        mChromosomes = binaryFile.chromosomes();
+        mMaxLength = binaryFile.headerValue();
+    }
+
+    public int totalCount()
+    {
+        return mChromosomes.values().stream().mapToInt(x -> x.Count).sum();
+    }
+
+    // returns the PON count of the first entry, in position order, which overlaps the region with a matching orientation, or 0
+    public int findPonCount(final String chromosome, int lower, int upper, byte orient)
+    {
+        ChromosomeEntry entry = mChromosomes.get(chromosome);
+
+        if(entry == null || entry.Count == 0)
+            return 0;
+
+        int count = entry.Count;
+        int index = findFirstIndex(entry, lower - mMaxLength);
+
+        for(; index < count; ++index)
+        {
+            int regionBegin = intValue(entry, 0, index);
+
+            if(regionBegin > upper)
+                break;
+
+            if(positionsOverlap(regionBegin, intValue(entry, 1, index), lower, upper) && orientation(entry, index) == orient)
+                return intValue(entry, 2, index);
+        }
+
+        return 0;
+    }
+
+    private int findFirstIndex(final ChromosomeEntry entry, int position)
+    {
+        int low = 0;
+        int high = entry.Count;
+
+        while(low < high)
+        {
+            int mid = (low + high) >>> 1;
+
+            if(intValue(entry, 0, mid) < position)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        return low;
+    }
+
+    // layout: region begin, region end and PON count int columns, then an orientation byte column
+    private int intValue(final ChromosomeEntry entry, int column, int index)
+    {
+        return mBuffer.getInt(entry.Offset + (column * entry.Count + index) * Integer.BYTES);
+    }
+
+    private byte orientation(final ChromosomeEntry entry, int index)
+    {
+        return mBuffer.get(entry.Offset + 3 * entry.Count * Integer.BYTES + index);
+    }
+}
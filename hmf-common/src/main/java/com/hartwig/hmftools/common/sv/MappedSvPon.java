@@ -0,0 +1,114 @@
+package com.hartwig.hmftools.common.sv;
+
+import static com.hartwig.hmftools.common.region.BaseRegion.positionsOverlap;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.utils.file.ChromosomeBinaryFile;
+import com.hartwig.hmftools.common.utils.file.ChromosomeBinaryFile.ChromosomeEntry;
+
+// germline SV PON read directly from a memory-mapped binary file, queried by binary search on the start region
+public class MappedSvPon
+{
+    private final ByteBuffer mBuffer;
+    private final Map<String,ChromosomeEntry> mChromosomes;
+    private final Map<String,Integer> mChromosomeIndex;
+    private final int mMaxStartLength;
+
+    public MappedSvPon(final ChromosomeBinaryFile binaryFile)
+    {
+        mBuffer = binaryFile.buffer();
+        mChromosomes = binaryFile.chromosomes();
+        mMaxStartLength = binaryFile.headerValue();
+
+        mChromosomeIndex = Maps.newHashMap();
+        List<String> chromosomes = Lists.newArrayList(mChromosomes.keySet());
+
+        for(int i = 0; i < chromosomes.size(); ++i)
+        {
+            mChromosomeIndex.put(chromosomes.get(i), i);
+        }
+    }
+
+    public int totalCount()
+    {
+        return mChromosomes.values().stream().mapToInt(x -> x.Count).sum();
+    }
+
+    // returns the PON count of the first entry, in start order, which overlaps both regions with matching orientations, or 0
+    public int findPonCount(
+            final String chrStart, int startLower, int startUpper, byte orientStart,
+            final String chrEnd, int endLower, int endUpper, byte orientEnd)
+    {
+        ChromosomeEntry entry = mChromosomes.get(chrStart);
+        Integer chrEndIndex = mChromosomeIndex.get(chrEnd);
+
+        if(entry == null || entry.Count == 0 || chrEndIndex == null)
+            return 0;
+
+        int count = entry.Count;
+
+        // no entry beginning before this can reach the start region
+        int index = findFirstIndex(entry, startLower - mMaxStartLength);
+
+        for(; index < count; ++index)
+        {
+            int startBegin = intValue(entry, 0, index);
+
+            if(startBegin > startUpper)
+                break;
+
+            if(!positionsOverlap(startBegin, intValue(entry, 1, index), startLower, startUpper))
+                continue;
+
+            if(byteValue(entry, 0, index) != orientStart || byteValue(entry, 1, index) != orientEnd)
+                continue;
+
+            if(shortValue(entry, index) != chrEndIndex)
+                continue;
+
+            if(positionsOverlap(intValue(entry, 2, index), intValue(entry, 3, index), endLower, endUpper))
+                return intValue(entry, 4, index);
+        }
+
+        return 0;
+    }
+
+    private int findFirstIndex(final ChromosomeEntry entry, int position)
+    {
+        int low = 0;
+        int high = entry.Count;
+
+        while(low < high)
+        {
+            int mid = (low + high) >>> 1;
+
+            if(intValue(entry, 0, mid) < position)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        return low;
+    }
+
+    // layout: 5 int columns, the end chromosome index as a short column, then start and end orientation byte columns
+    private int intValue(final ChromosomeEntry entry, int column, int index)
+    {
+        return mBuffer.getInt(entry.Offset + (column * entry.Count + index) * Integer.BYTES);
+    }
+
+    private short shortValue(final ChromosomeEntry entry, int index)
+    {
+        return mBuffer.getShort(entry.Offset + 5 * entry.Count * Integer.BYTES + index * Short.BYTES);
+    }
+
+    private byte byteValue(final ChromosomeEntry entry, int column, int index)
+    {
+        return mBuffer.get(entry.Offset + entry.Count * (5 * Integer.BYTES + Short.BYTES) + column * entry.Count + index);
+    }
+}
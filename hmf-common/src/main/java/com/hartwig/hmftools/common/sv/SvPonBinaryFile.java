@@ -0,0 +1,311 @@
+package com.hartwig.hmftools.common.sv;
+
+import static com.hartwig.hmftools.common.utils.file.FileDelimiters.TSV_DELIM;
+import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.createBufferedReader;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.region.Orientation;
+import com.hartwig.hmftools.common.utils.file.ChromosomeBinaryFile;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// binary form of the germline SV and SGL PON files, which callers memory-map and query by binary search instead of parsing
+// the text files. The header value holds the longest start region so overlapping regions can be found from a start position
+public final class SvPonBinaryFile
+{
+    private static final Logger LOGGER = LogManager.getLogger(SvPonBinaryFile.class);
+
+    private static final int MAGIC_SV = 0x5356504E; // "SVPN"
+    private static final int MAGIC_SGL = 0x53474C50; // "SGLP"
+    private static final int VERSION = 1;
+
+    // SV columns: start region begin and end, end region begin and end, PON count, end chromosome index, orientations
+    static final int SV_RECORD_BYTES = Integer.BYTES * 5 + Short.BYTES + 2;
+
+    // SGL columns: region begin and end, PON count, orientation
+    static final int SGL_RECORD_BYTES = Integer.BYTES * 3 + 1;
+
+    public static class SvEntry
+    {
+        public final String ChrStart;
+        public final int StartBegin;
+        public final int StartEnd;
+        public final byte OrientStart;
+        public final String ChrEnd;
+        public final int EndBegin;
+        public final int EndEnd;
+        public final byte OrientEnd;
+        public final int PonCount;
+
+        public SvEntry(
+                final String chrStart, int startBegin, int startEnd, byte orientStart,
+                final String chrEnd, int endBegin, int endEnd, byte orientEnd, int ponCount)
+        {
+            ChrStart = chrStart;
+            StartBegin = startBegin;
+            StartEnd = startEnd;
+            OrientStart = orientStart;
+            ChrEnd = chrEnd;
+            EndBegin = endBegin;
+            EndEnd = endEnd;
+            OrientEnd = orientEnd;
+            PonCount = ponCount;
+        }
+    }
+
+    public static class SglEntry
+    {
+        public final String Chromosome;
+        public final int RegionBegin;
+        public final int RegionEnd;
+        public final byte Orient;
+        public final int PonCount;
+
+        public SglEntry(final String chromosome, int regionBegin, int regionEnd, byte orient, int ponCount)
+        {
+            Chromosome = chromosome;
+            RegionBegin = regionBegin;
+            RegionEnd = regionEnd;
+            Orient = orient;
+            PonCount = ponCount;
+        }
+    }
+
+    public static boolean isSvBinaryFile(final String filename) { return ChromosomeBinaryFile.hasMagic(filename, MAGIC_SV); }
+    public static boolean isSglBinaryFile(final String filename) { return ChromosomeBinaryFile.hasMagic(filename, MAGIC_SGL); }
+
+    public static MappedSvPon loadSv(final String filename) throws IOException
+    {
+        MappedSvPon svPon = new MappedSvPon(ChromosomeBinaryFile.load(filename, MAGIC_SV, VERSION));
+        LOGGER.info("mapped {} germline SV PON records from file({})", svPon.totalCount(), filename);
+        return svPon;
+    }
+
+    public static MappedSglPon loadSgl(final String filename) throws IOException
+    {
+        MappedSglPon sglPon = new MappedSglPon(ChromosomeBinaryFile.load(filename, MAGIC_SGL, VERSION));
+        LOGGER.info("mapped {} germline SGL PON records from file({})", sglPon.totalCount(), filename);
+        return sglPon;
+    }
+
+    // entries are keyed by start chromosome and must be sorted by start region begin
+    public static void writeSv(final String filename, final Map<String,List<SvEntry>> chrEntries) throws IOException
+    {
+        // end chromosomes are referenced by their index in the chromosome list, so include any without start entries
+        List<String> chromosomes = Lists.newArrayList(chrEntries.keySet());
+
+        for(List<SvEntry> entries : chrEntries.values())
+        {
+            entries.stream().map(x -> x.ChrEnd).distinct().filter(x -> !chromosomes.contains(x)).forEach(chromosomes::add);
+        }
+
+        List<Integer> counts = Lists.newArrayList();
+        int maxStartLength = 0;
+
+        for(String chromosome : chromosomes)
+        {
+            List<SvEntry> entries = chrEntries.getOrDefault(chromosome, Lists.newArrayList());
+            counts.add(entries.size());
+
+            for(SvEntry entry : entries)
+            {
+                maxStartLength = Math.max(maxStartLength, entry.StartEnd - entry.StartBegin);
+            }
+        }
+
+        try(DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename))))
+        {
+            ChromosomeBinaryFile.writeHeader(outputStream, MAGIC_SV, VERSION, maxStartLength, chromosomes, counts, SV_RECORD_BYTES);
+
+            for(String chromosome : chromosomes)
+            {
+                List<SvEntry> entries = chrEntries.getOrDefault(chromosome, Lists.newArrayList());
+                checkSorted(chromosome, entries.stream().mapToInt(x -> x.StartBegin).toArray());
+
+                for(SvEntry entry : entries)
+                {
+                    outputStream.writeInt(entry.StartBegin);
+                }
+
+                for(SvEntry entry : entries)
+                {
+                    outputStream.writeInt(entry.StartEnd);
+                }
+
+                for(SvEntry entry : entries)
+                {
+                    outputStream.writeInt(entry.EndBegin);
+                }
+
+                for(SvEntry entry : entries)
+                {
+                    outputStream.writeInt(entry.EndEnd);
+                }
+
+                for(SvEntry entry : entries)
+                {
+                    outputStream.writeInt(entry.PonCount);
+                }
+
+                for(SvEntry entry : entries)
+                {
+                    outputStream.writeShort(chromosomes.indexOf(entry.ChrEnd));
+                }
+
+                for(SvEntry entry : entries)
+                {
+                    outputStream.writeByte(entry.OrientStart);
+                }
+
+                for(SvEntry entry : entries)
+                {
+                    outputStream.writeByte(entry.OrientEnd);
+                }
+            }
+        }
+    }
+
+    // entries must be sorted by region begin within each chromosome
+    public static void writeSgl(final String filename, final Map<String,List<SglEntry>> chrEntries) throws IOException
+    {
+        List<String> chromosomes = Lists.newArrayList(chrEntries.keySet());
+        List<Integer> counts = Lists.newArrayList();
+        int maxLength = 0;
+
+        for(String chromosome : chromosomes)
+        {
+            List<SglEntry> entries = chrEntries.get(chromosome);
+            counts.add(entries.size());
+
+            for(SglEntry entry : entries)
+            {
+                maxLength = Math.max(maxLength, entry.RegionEnd - entry.RegionBegin);
+            }
+        }
+
+        try(DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename))))
+        {
+            ChromosomeBinaryFile.writeHeader(outputStream, MAGIC_SGL, VERSION, maxLength, chromosomes, counts, SGL_RECORD_BYTES);
+
+            for(String chromosome : chromosomes)
+            {
+                List<SglEntry> entries = chrEntries.get(chromosome);
+                checkSorted(chromosome, entries.stream().mapToInt(x -> x.RegionBegin).toArray());
+
+                for(SglEntry entry : entries)
+                {
+                    outputStream.writeInt(entry.RegionBegin);
+                }
+
+                for(SglEntry entry : entries)
+                {
+                    outputStream.writeInt(entry.RegionEnd);
+                }
+
+                for(SglEntry entry : entries)
+                {
+                    outputStream.writeInt(entry.PonCount);
+                }
+
+                for(SglEntry entry : entries)
+                {
+                    outputStream.writeByte(entry.Orient);
+                }
+            }
+        }
+    }
+
+    private static void checkSorted(final String chromosome, final int[] positions) throws IOException
+    {
+        for(int i = 1; i < positions.length; ++i)
+        {
+            if(positions[i] < positions[i - 1])
+                throw new IOException(String.format("chromosome(%s) PON entries not sorted at index(%d)", chromosome, i));
+        }
+    }
+
+    // text PON files have BED-style start positions, which are converted to 1-based as the PON caches do when loading them
+    public static Map<String,List<SvEntry>> readSvTextFile(final String filename) throws IOException
+    {
+        Map<String,List<SvEntry>> chrEntries = Maps.newLinkedHashMap();
+
+        try(BufferedReader fileReader = createBufferedReader(filename))
+        {
+            String line;
+
+            // fields: ChrStart,PosStartBegin,PosStartEnd,ChrEnd,PosEndBegin,PosEndEnd,Unknown,PonCount,OrientStart,OrientEnd
+            while((line = fileReader.readLine()) != null)
+            {
+                final String[] items = line.split(TSV_DELIM, -1);
+
+                SvEntry entry = new SvEntry(
+                        items[0], Integer.parseInt(items[1]) + 1, Integer.parseInt(items[2]),
+                        Orientation.fromChar(items[8].charAt(0)).asByte(),
+                        items[3], Integer.parseInt(items[4]) + 1, Integer.parseInt(items[5]),
+                        Orientation.fromChar(items[9].charAt(0)).asByte(), Integer.parseInt(items[7]));
+
+                chrEntries.computeIfAbsent(entry.ChrStart, k -> Lists.newArrayList()).add(entry);
+            }
+        }
+
+        return chrEntries;
+    }
+
+    public static Map<String,List<SglEntry>> readSglTextFile(final String filename) throws IOException
+    {
+        Map<String,List<SglEntry>> chrEntries = Maps.newLinkedHashMap();
+
+        try(BufferedReader fileReader = createBufferedReader(filename))
+        {
+            String line;
+
+            // fields: Chr,PosBegin,PosEnd,Unknown,PonCount,Orientation
+            while((line = fileReader.readLine()) != null)
+            {
+                final String[] items = line.split(TSV_DELIM, -1);
+
+                SglEntry entry = new SglEntry(
+                        items[0], Integer.parseInt(items[1]) + 1, Integer.parseInt(items[2]),
+                        Orientation.fromChar(items[5].charAt(0)).asByte(), Integer.parseInt(items[4]));
+
+                chrEntries.computeIfAbsent(entry.Chromosome, k -> Lists.newArrayList()).add(entry);
+            }
+        }
+
+        return chrEntries;
+    }
+
+    public static void main(final String[] args) throws IOException
+    {
+        if(args.length != 3 || !(args[0].equals("sv") || args[0].equals("sgl")))
+        {
+            LOGGER.error("usage: SvPonBinaryFile <sv|sgl> <input PON file> <output binary file>");
+            System.exit(1);
+        }
+
+        if(args[0].equals("sv"))
+        {
+            Map<String,List<SvEntry>> chrEntries = readSvTextFile(args[1]);
+            chrEntries.values().forEach(x -> x.sort((a, b) -> Integer.compare(a.StartBegin, b.StartBegin)));
+            writeSv(args[2], chrEntries);
+        }
+        else
+        {
+            Map<String,List<SglEntry>> chrEntries = readSglTextFile(args[1]);
+            chrEntries.values().forEach(x -> x.sort((a, b) -> Integer.compare(a.RegionBegin, b.RegionBegin)));
+            writeSgl(args[2], chrEntries);
+        }
+
+        LOGGER.info("wrote binary {} PON to {}", args[0].toUpperCase(), args[2]);
+    }
+}
@@ -0,0 +1,140 @@
+package com.hartwig.hmftools.common.utils;
+
+import static java.lang.Math.min;
+
+import java.util.Arrays;
+
+// matrix products over flat row-major arrays, blocked so the rows being combined stay in cache. Each output element
+// accumulates its products in increasing order of the common dimension starting from zero, so results are identical
+// to the naive triple loop in MatrixUtils
+public final class MatrixKernels
+{
+    private static final int COMMON_BLOCK = 128;
+    private static final int COL_BLOCK = 512;
+    private static final int ROW_BLOCK = 64;
+
+    // dest(m x n) = a(m x k) * b(k x n)
+    public static void multiply(final double[] a, final double[] b, final double[] dest, int m, int k, int n)
+    {
+        Arrays.fill(dest, 0, m * n, 0);
+
+        for(int cStart = 0; cStart < k; cStart += COMMON_BLOCK)
+        {
+            int cEnd = min(cStart + COMMON_BLOCK, k);
+
+            for(int jStart = 0; jStart < n; jStart += COL_BLOCK)
+            {
+                int jEnd = min(jStart + COL_BLOCK, n);
+
+                for(int i = 0; i < m; ++i)
+                {
+                    int aRow = i * k;
+                    int destRow = i * n;
+
+                    for(int c = cStart; c < cEnd; ++c)
+                    {
+                        double aValue = a[aRow + c];
+                        int bRow = c * n;
+
+                        for(int j = jStart; j < jEnd; ++j)
+                        {
+                            dest[destRow + j] += aValue * b[bRow + j];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // dest(m x n) = transpose(a) * b, where a is held as (k x m) and b as (k x n)
+    public static void multiplyTransposeFirst(final double[] a, final double[] b, final double[] dest, int m, int k, int n)
+    {
+        Arrays.fill(dest, 0, m * n, 0);
+
+        for(int cStart = 0; cStart < k; cStart += COMMON_BLOCK)
+        {
+            int cEnd = min(cStart + COMMON_BLOCK, k);
+
+            for(int jStart = 0; jStart < n; jStart += COL_BLOCK)
+            {
+                int jEnd = min(jStart + COL_BLOCK, n);
+
+                for(int c = cStart; c < cEnd; ++c)
+                {
+                    int aRow = c * m;
+                    int bRow = c * n;
+
+                    for(int i = 0; i < m; ++i)
+                    {
+                        double aValue = a[aRow + i];
+                        int destRow = i * n;
+
+                        for(int j = jStart; j < jEnd; ++j)
+                        {
+                            dest[destRow + j] += aValue * b[bRow + j];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // dest(m x n) = a * transpose(b), where a is held as (m x k) and b as (n x k)
+    public static void multiplyTransposeSecond(final double[] a, final double[] b, final double[] dest, int m, int k, int n)
+    {
+        for(int iStart = 0; iStart < m; iStart += ROW_BLOCK)
+        {
+            int iEnd = min(iStart + ROW_BLOCK, m);
+
+            for(int jStart = 0; jStart < n; jStart += ROW_BLOCK)
+            {
+                int jEnd = min(jStart + ROW_BLOCK, n);
+
+                for(int i = iStart; i < iEnd; ++i)
+                {
+                    int aRow = i * k;
+
+                    for(int j = jStart; j < jEnd; ++j)
+                    {
+                        int bRow = j * k;
+                        double total = 0;
+
+                        for(int c = 0; c < k; ++c)
+                        {
+                            total += a[aRow + c] * b[bRow + c];
+                        }
+
+                        dest[i * n + j] = total;
+                    }
+                }
+            }
+        }
+    }
+
+    public static double[] toFlat(final Matrix matrix)
+    {
+        double[] flat = new double[matrix.Rows * matrix.Cols];
+        toFlat(matrix, flat);
+        return flat;
+    }
+
+    public static void toFlat(final Matrix matrix, final double[] flat)
+    {
+        final double[][] data = matrix.getData();
+
+        for(int i = 0; i < matrix.Rows; ++i)
+        {
+            System.arraycopy(data[i], 0, flat, i * matrix.Cols, matrix.Cols);
+        }
+    }
+
+    public static void fromFlat(final double[] flat, final Matrix matrix)
+    {
+        double[][] data = matrix.getData();
+
+        for(int i = 0; i < matrix.Rows; ++i)
+        {
+            System.arraycopy(flat, i * matrix.Cols, data[i], 0, matrix.Cols);
+        }
+    }
+}
@@ -10,6 +10,8 @@ import java.util.Comparator;
 import java.util.List;
 
 import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.utils.metrics.MetricsRegistry;
+import com.hartwig.hmftools.common.utils.metrics.Timer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -35,6 +37,9 @@ public class PerformanceCounter
     private double mLastTime;
     private String mCurrentIntervalName;
 
+    // feeds intervals to the metrics registry's timer of the same name when metrics are enabled
+    private Timer.Sample mMetricsSample;
+
     public static final double NANOS_IN_SECOND = 1000000000;
     public static final double NANO_IN_MILLISECOND = 1000000;
     public static final double MS_IN_SECOND = 1000;
@@ -57,6 +62,7 @@ public class PerformanceCounter
         mIntervalCount = 0;
         mLastTime = 0;
         mCurrentIntervalName = null;
+        mMetricsSample = null;
     }
 
     public void reset()
@@ -97,6 +103,7 @@ public class PerformanceCounter
         mIsPaused = false;
         mPausedTime = 0;
         mStartTime = System.nanoTime();
+        startMetricsSample(false);
 
         if(intervalName != null)
         {
@@ -112,6 +119,19 @@ public class PerformanceCounter
         mIsRunning = true;
         mIsPaused = true;
         mPausedTime = 0;
+        startMetricsSample(true);
+    }
+
+    private void startMetricsSample(boolean paused)
+    {
+        if(!MetricsRegistry.enabled())
+        {
+            mMetricsSample = null;
+            return;
+        }
+
+        Timer timer = MetricsRegistry.timer(mName);
+        mMetricsSample = paused ? timer.startPaused() : timer.start();
     }
 
     public void pause()
@@ -121,6 +141,9 @@ public class PerformanceCounter
 
         mIsPaused = true;
         mPausedTime += System.nanoTime() - mStartTime;
+
+        if(mMetricsSample != null)
+            mMetricsSample.pause();
     }
 
     public void resume()
@@ -130,6 +153,9 @@ public class PerformanceCounter
 
         mIsPaused = false;
         mStartTime = System.nanoTime();
+
+        if(mMetricsSample != null)
+            mMetricsSample.resume();
     }
 
     public void stop()
@@ -151,6 +177,12 @@ public class PerformanceCounter
 
         if(mCurrentIntervalName != null)
             mNamedTimes.add(new NamedTime(sampleTimeSeconds, mCurrentIntervalName));
+
+        if(mMetricsSample != null)
+        {
+            mMetricsSample.stop(sampleTime);
+            mMetricsSample = null;
+        }
     }
 
     public boolean isRunning() { return mIsRunning; }
@@ -0,0 +1,174 @@
+package com.hartwig.hmftools.common.utils.file;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.jetbrains.annotations.Nullable;
+
+// reads the compressed blocks of a BGZF file without inflating them, so blocks can be inflated independently on other threads
+public class BgzfBlockReader implements AutoCloseable
+{
+    private final DataInputStream mInputStream;
+
+    public static final int MAX_BLOCK_SIZE = 1 << 16;
+
+    private static final int GZIP_ID1 = 31;
+    private static final int GZIP_ID2 = 139;
+    private static final int GZIP_FLAG_EXTRA = 4;
+    private static final int FIXED_HEADER_LENGTH = 12; // up to and including the extra field length
+    private static final int FOOTER_LENGTH = 8; // CRC32 and uncompressed size
+
+    public BgzfBlockReader(final InputStream inputStream)
+    {
+        mInputStream = new DataInputStream(inputStream);
+    }
+
+    public BgzfBlockReader(final String filename) throws IOException
+    {
+        this(new BufferedInputStream(new FileInputStream(filename), MAX_BLOCK_SIZE));
+    }
+
+    public static boolean isBgzfFile(final String filename)
+    {
+        byte[] header = new byte[FIXED_HEADER_LENGTH + 6];
+
+        try(DataInputStream inputStream = new DataInputStream(new FileInputStream(filename)))
+        {
+            inputStream.readFully(header);
+        }
+        catch(IOException e)
+        {
+            return false;
+        }
+
+        int extraLength = Math.min(readShort(header, 10), header.length - FIXED_HEADER_LENGTH);
+        return isGzipHeader(header) && extraFieldBlockSize(header, FIXED_HEADER_LENGTH, extraLength) > 0;
+    }
+
+    // returns the next whole compressed block, or null at the end of the file
+    @Nullable
+    public byte[] nextBlock() throws IOException
+    {
+        byte[] header = new byte[FIXED_HEADER_LENGTH];
+
+        int firstByte = mInputStream.read();
+
+        if(firstByte < 0)
+            return null;
+
+        header[0] = (byte)firstByte;
+        mInputStream.readFully(header, 1, FIXED_HEADER_LENGTH - 1);
+
+        if(!isGzipHeader(header))
+            throw new IOException("invalid BGZF block header");
+
+        int extraLength = readShort(header, 10);
+        byte[] extra = new byte[extraLength];
+        mInputStream.readFully(extra);
+
+        int blockSize = extraFieldBlockSize(extra, 0, extraLength);
+
+        if(blockSize <= FIXED_HEADER_LENGTH + extraLength + FOOTER_LENGTH)
+            throw new IOException("invalid BGZF block size: " + blockSize);
+
+        byte[] block = new byte[blockSize];
+        System.arraycopy(header, 0, block, 0, FIXED_HEADER_LENGTH);
+        System.arraycopy(extra, 0, block, FIXED_HEADER_LENGTH, extraLength);
+
+        try
+        {
+            mInputStream.readFully(block, FIXED_HEADER_LENGTH + extraLength, blockSize - FIXED_HEADER_LENGTH - extraLength);
+        }
+        catch(EOFException e)
+        {
+            throw new IOException("truncated BGZF block");
+        }
+
+        return block;
+    }
+
+    public static int uncompressedSize(final byte[] block)
+    {
+        return readInt(block, block.length - 4);
+    }
+
+    // inflates a block into the output at the given offset and returns the number of bytes written
+    public static int inflateBlock(final byte[] block, final Inflater inflater, final byte[] output, int outputOffset) throws IOException
+    {
+        int dataStart = FIXED_HEADER_LENGTH + readShort(block, 10);
+        int dataLength = block.length - dataStart - FOOTER_LENGTH;
+        int uncompressedSize = uncompressedSize(block);
+
+        inflater.reset();
+        inflater.setInput(block, dataStart, dataLength);
+
+        try
+        {
+            int inflated = 0;
+
+            while(inflated < uncompressedSize && !inflater.finished())
+            {
+                int bytes = inflater.inflate(output, outputOffset + inflated, uncompressedSize - inflated);
+
+                if(bytes == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+
+                inflated += bytes;
+            }
+
+            if(inflated != uncompressedSize)
+                throw new IOException(String.format("BGZF block inflated to %d bytes, expected %d", inflated, uncompressedSize));
+
+            return inflated;
+        }
+        catch(DataFormatException e)
+        {
+            throw new IOException("invalid BGZF block data: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        mInputStream.close();
+    }
+
+    private static boolean isGzipHeader(final byte[] header)
+    {
+        return (header[0] & 0xFF) == GZIP_ID1 && (header[1] & 0xFF) == GZIP_ID2 && (header[3] & GZIP_FLAG_EXTRA) != 0;
+    }
+
+    private static int extraFieldBlockSize(final byte[] data, int offset, int length)
+    {
+        // find the 'BC' sub-field holding the total block size minus 1
+        int index = offset;
+
+        while(index + 4 <= offset + length)
+        {
+            int subfieldLength = readShort(data, index + 2);
+
+            if(data[index] == 'B' && data[index + 1] == 'C' && subfieldLength == 2 && index + 6 <= offset + length)
+                return readShort(data, index + 4) + 1;
+
+            index += 4 + subfieldLength;
+        }
+
+        return -1;
+    }
+
+    private static int readShort(final byte[] data, int offset)
+    {
+        return (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8);
+    }
+
+    private static int readInt(final byte[] data, int offset)
+    {
+        return readShort(data, offset) | (readShort(data, offset + 2) << 16);
+    }
+}
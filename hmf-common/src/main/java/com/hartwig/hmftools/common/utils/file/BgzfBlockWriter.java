@@ -0,0 +1,75 @@
+package com.hartwig.hmftools.common.utils.file;
+
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// compresses data into independent BGZF blocks, so blocks can be compressed on separate threads and written in order
+public final class BgzfBlockWriter
+{
+    // leaves room for the block header and footer, and for deflate expanding incompressible data
+    public static final int MAX_BLOCK_DATA_SIZE = 0xff00;
+
+    public static final int DEFAULT_COMPRESSION_LEVEL = 5;
+
+    private static final int HEADER_LENGTH = 18;
+    private static final int FOOTER_LENGTH = 8;
+
+    // the empty block which marks the end of a BGZF file
+    public static final byte[] EOF_BLOCK = {
+            31, (byte)139, 8, 4, 0, 0, 0, 0, 0, (byte)255, 6, 0, 66, 67, 2, 0, 27, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+
+    private BgzfBlockWriter() {}
+
+    public static Deflater createDeflater() { return new Deflater(DEFAULT_COMPRESSION_LEVEL, true); }
+
+    // returns a complete block holding the data, which cannot exceed the maximum block data size
+    public static byte[] compressBlock(final byte[] data, int offset, int length, final Deflater deflater)
+    {
+        if(length > MAX_BLOCK_DATA_SIZE)
+            throw new IllegalArgumentException("BGZF block data exceeds maximum size: " + length);
+
+        byte[] block = new byte[BgzfBlockReader.MAX_BLOCK_SIZE];
+
+        deflater.reset();
+        deflater.setInput(data, offset, length);
+        deflater.finish();
+
+        int compressedLength = deflater.deflate(block, HEADER_LENGTH, block.length - HEADER_LENGTH - FOOTER_LENGTH);
+
+        if(!deflater.finished())
+        {
+            // store the data uncompressed if it doesn't fit once deflated
+            Deflater storeDeflater = new Deflater(Deflater.NO_COMPRESSION, true);
+            storeDeflater.setInput(data, offset, length);
+            storeDeflater.finish();
+            compressedLength = storeDeflater.deflate(block, HEADER_LENGTH, block.length - HEADER_LENGTH - FOOTER_LENGTH);
+            storeDeflater.end();
+        }
+
+        int blockSize = HEADER_LENGTH + compressedLength + FOOTER_LENGTH;
+
+        System.arraycopy(EOF_BLOCK, 0, block, 0, HEADER_LENGTH);
+        writeShort(block, 16, blockSize - 1);
+
+        CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+
+        writeInt(block, HEADER_LENGTH + compressedLength, (int)crc.getValue());
+        writeInt(block, HEADER_LENGTH + compressedLength + 4, length);
+
+        return Arrays.copyOf(block, blockSize);
+    }
+
+    private static void writeShort(final byte[] data, int offset, int value)
+    {
+        data[offset] = (byte)(value & 0xFF);
+        data[offset + 1] = (byte)((value >> 8) & 0xFF);
+    }
+
+    private static void writeInt(final byte[] data, int offset, int value)
+    {
+        writeShort(data, offset, value);
+        writeShort(data, offset + 2, value >>> 16);
+    }
+}
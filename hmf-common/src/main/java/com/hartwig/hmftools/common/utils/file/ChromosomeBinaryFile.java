@@ -0,0 +1,136 @@
+package com.hartwig.hmftools.common.utils.file;
+
+import static java.lang.String.format;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// common layout for binary per-chromosome resource files, which are memory-mapped when loaded:
+// magic, version, a resource-specific header value, chromosome count, then per chromosome its name,
+// record count and the byte offset of its data. Each chromosome's data holds fixed-width records laid out as columns
+public final class ChromosomeBinaryFile
+{
+    private final ByteBuffer mBuffer;
+    private final int mHeaderValue;
+    private final Map<String,ChromosomeEntry> mChromosomes;
+
+    public static class ChromosomeEntry
+    {
+        public final String Chromosome;
+        public final int Count;
+        public final int Offset;
+
+        public ChromosomeEntry(final String chromosome, final int count, final int offset)
+        {
+            Chromosome = chromosome;
+            Count = count;
+            Offset = offset;
+        }
+    }
+
+    private ChromosomeBinaryFile(final ByteBuffer buffer, int headerValue, final Map<String,ChromosomeEntry> chromosomes)
+    {
+        mBuffer = buffer;
+        mHeaderValue = headerValue;
+        mChromosomes = chromosomes;
+    }
+
+    public ByteBuffer buffer() { return mBuffer; }
+    public int headerValue() { return mHeaderValue; }
+    public Map<String,ChromosomeEntry> chromosomes() { return mChromosomes; }
+
+    public static boolean hasMagic(final String filename, int magic)
+    {
+        File file = new File(filename);
+
+        if(!file.exists() || file.length() < Integer.BYTES)
+            return false;
+
+        try(DataInputStream inputStream = new DataInputStream(new FileInputStream(file)))
+        {
+            return inputStream.readInt() == magic;
+        }
+        catch(IOException e)
+        {
+            return false;
+        }
+    }
+
+    public static void writeHeader(
+            final DataOutputStream outputStream, int magic, int version, int headerValue,
+            final List<String> chromosomes, final List<Integer> counts, int recordBytes) throws IOException
+    {
+        int headerSize = Integer.BYTES * 4;
+
+        for(String chromosome : chromosomes)
+        {
+            headerSize += Short.BYTES + chromosome.getBytes(StandardCharsets.UTF_8).length + Integer.BYTES * 2;
+        }
+
+        outputStream.writeInt(magic);
+        outputStream.writeInt(version);
+        outputStream.writeInt(headerValue);
+        outputStream.writeInt(chromosomes.size());
+
+        long offset = headerSize;
+
+        for(int i = 0; i < chromosomes.size(); ++i)
+        {
+            if(offset > Integer.MAX_VALUE)
+                throw new IOException("binary resource file exceeds maximum size");
+
+            outputStream.writeUTF(chromosomes.get(i));
+            outputStream.writeInt(counts.get(i));
+            outputStream.writeInt((int)offset);
+            offset += (long)counts.get(i) * recordBytes;
+        }
+    }
+
+    public static ChromosomeBinaryFile load(final String filename, int magic, int version) throws IOException
+    {
+        ByteBuffer buffer;
+
+        try(RandomAccessFile file = new RandomAccessFile(filename, "r"); FileChannel channel = file.getChannel())
+        {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int fileMagic = buffer.getInt();
+        int fileVersion = buffer.getInt();
+
+        if(fileMagic != magic || fileVersion != version)
+        {
+            throw new IOException(format("file(%s) invalid binary resource: magic(%x) version(%d), expected magic(%x) version(%d)",
+                    filename, fileMagic, fileVersion, magic, version));
+        }
+
+        int headerValue = buffer.getInt();
+        int chromosomeCount = buffer.getInt();
+
+        Map<String,ChromosomeEntry> chromosomes = new LinkedHashMap<>();
+
+        for(int i = 0; i < chromosomeCount; ++i)
+        {
+            byte[] nameBytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(nameBytes);
+            String chromosome = new String(nameBytes, StandardCharsets.UTF_8);
+
+            int count = buffer.getInt();
+            int offset = buffer.getInt();
+            chromosomes.put(chromosome, new ChromosomeEntry(chromosome, count, offset));
+        }
+
+        return new ChromosomeBinaryFile(buffer, headerValue, Collections.unmodifiableMap(chromosomes));
+    }
+}
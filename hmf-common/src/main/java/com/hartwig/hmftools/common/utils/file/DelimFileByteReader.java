@@ -0,0 +1,651 @@
+package com.hartwig.hmftools.common.utils.file;
+
+import static com.hartwig.hmftools.common.utils.file.FileDelimiters.TSV_DELIM;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reads a CSV / TSV file from a byte buffer, with the same column-by-name API as DelimFileReader but without creating a String
+ * per line and field. Numeric fields are parsed in place, and chromosome fields are returned as shared String instances.
+ * Files ending in .gz are inflated on a background thread.
+ *
+ * The row is reused for each line, so values must be extracted before moving to the next line, and rows cannot be collected.
+ *
+ *  try(DelimFileByteReader reader = new DelimFileByteReader(filename))
+ *  {
+ *      int posIndex = reader.getColumnIndex(Column.position);
+ *
+ *      for(DelimFileByteReader.Row row : reader)
+ *      {
+ *          String chromosome = row.getChromosome(Column.chromosome);
+ *          int position = row.getInt(posIndex);
+ *          double ratio = row.getDouble(Column.ratio);
+ *      }
+ *  }
+ */
+public class DelimFileByteReader implements Iterable<DelimFileByteReader.Row>, AutoCloseable
+{
+    private static final int BUFFER_SIZE = 1 << 18;
+    private static final int MAX_INTERNED_VALUES = 256;
+
+    private final InputStream mInputStream;
+    private byte mDelim = (byte)TSV_DELIM.charAt(0);
+
+    private byte[] mBuffer;
+    private int mBufferLength; // bytes of valid data in the buffer
+    private int mLineStart;
+    private int mLineEnd; // exclusive, excluding any line terminator
+    private int mNextLineStart;
+    private boolean mEndOfStream;
+
+    private int[] mFieldStarts;
+    private int[] mFieldEnds;
+    private int mFieldCount;
+
+    private Map<String,Integer> mColumnIndexMap = null;
+    private List<String> mColumnNames = null;
+
+    private final String[] mInternedValues;
+    private int mInternedCount;
+
+    private final Row mRow;
+
+    public DelimFileByteReader(final InputStream inputStream)
+    {
+        mInputStream = inputStream;
+        mBuffer = new byte[BUFFER_SIZE];
+        mBufferLength = 0;
+        mLineStart = 0;
+        mLineEnd = 0;
+        mNextLineStart = 0;
+        mEndOfStream = false;
+        mFieldStarts = new int[32];
+        mFieldEnds = new int[32];
+        mFieldCount = 0;
+        mInternedValues = new String[MAX_INTERNED_VALUES];
+        mInternedCount = 0;
+        mRow = new Row();
+    }
+
+    public DelimFileByteReader(final String filename)
+    {
+        this(filename, true);
+    }
+
+    public DelimFileByteReader(final String filename, boolean initialiseColumns)
+    {
+        this(openFile(filename));
+
+        if(initialiseColumns)
+            setColumnNames();
+    }
+
+    private static InputStream openFile(final String filename)
+    {
+        try
+        {
+            InputStream inputStream = new FileInputStream(filename);
+            return filename.endsWith(".gz") ? new PipedInflaterInputStream(inputStream) : inputStream;
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void setDelimiter(final String delimiter)
+    {
+        if(mColumnIndexMap != null)
+            throw new IllegalStateException("cannot set delimiter after reading started");
+
+        if(delimiter.length() != 1 || delimiter.charAt(0) > 0x7F)
+            throw new IllegalArgumentException("delimiter must be a single ASCII character: " + delimiter);
+
+        mDelim = (byte)delimiter.charAt(0);
+    }
+
+    public void setColumnNames(final List<String> columnNames)
+    {
+        if(mColumnIndexMap != null)
+            throw new IllegalStateException("cannot set column names after reading started");
+
+        mColumnIndexMap = new HashMap<>();
+        int i = 0;
+
+        for(String columName : columnNames)
+        {
+            if(mColumnIndexMap.putIfAbsent(columName, i++) != null)
+                throw new RuntimeException("duplicate column name: " + columName);
+        }
+
+        mColumnNames = Collections.unmodifiableList(columnNames);
+    }
+
+    public List<String> getColumnNames()
+    {
+        if(mColumnIndexMap == null)
+            setColumnNames();
+
+        return mColumnNames;
+    }
+
+    private void setColumnNames()
+    {
+        if(mColumnIndexMap != null)
+            return;
+
+        if(!nextLine())
+            throw new IllegalStateException("missing header line");
+
+        String[] columnNames = new String[mFieldCount];
+
+        for(int i = 0; i < mFieldCount; ++i)
+        {
+            columnNames[i] = fieldString(i);
+        }
+
+        setColumnNames(Arrays.asList(columnNames));
+    }
+
+    public boolean hasColumn(final String column) { return mColumnIndexMap.containsKey(column); }
+    public boolean hasColumn(final Enum<?> column) { return hasColumn(column.name()); }
+
+    // return null if the column is not found
+    @Nullable
+    public Integer getColumnIndex(final String column) { return mColumnIndexMap.get(column); }
+    @Nullable
+    public Integer getColumnIndex(final Enum<?> column) { return getColumnIndex(column.name()); }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            mInputStream.close();
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Iterator<Row> iterator()
+    {
+        getColumnNames();
+
+        return new Iterator<>()
+        {
+            private boolean mHasLine = false;
+
+            @Override
+            public boolean hasNext()
+            {
+                if(!mHasLine)
+                    mHasLine = nextLine();
+
+                return mHasLine;
+            }
+
+            @Override
+            public Row next()
+            {
+                if(!hasNext())
+                    throw new NoSuchElementException();
+
+                mHasLine = false;
+                return mRow;
+            }
+        };
+    }
+
+    private boolean nextLine()
+    {
+        try
+        {
+            while(true)
+            {
+                // look for the end of the next line in the buffered data
+                for(int i = mNextLineStart; i < mBufferLength; ++i)
+                {
+                    if(mBuffer[i] == '\n')
+                    {
+                        setLine(mNextLineStart, i, i + 1);
+                        return true;
+                    }
+                }
+
+                if(mEndOfStream)
+                {
+                    if(mNextLineStart >= mBufferLength)
+                        return false;
+
+                    // last line without a terminator
+                    setLine(mNextLineStart, mBufferLength, mBufferLength);
+                    return true;
+                }
+
+                fillBuffer();
+            }
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void fillBuffer() throws IOException
+    {
+        // move the partial line to the start of the buffer, growing it if the line fills the buffer
+        int remaining = mBufferLength - mNextLineStart;
+
+        if(remaining == mBuffer.length)
+        {
+            mBuffer = Arrays.copyOf(mBuffer, mBuffer.length * 2);
+        }
+        else if(mNextLineStart > 0)
+        {
+            System.arraycopy(mBuffer, mNextLineStart, mBuffer, 0, remaining);
+        }
+
+        mBufferLength = remaining;
+        mNextLineStart = 0;
+
+        while(mBufferLength < mBuffer.length)
+        {
+            int bytesRead = mInputStream.read(mBuffer, mBufferLength, mBuffer.length - mBufferLength);
+
+            if(bytesRead < 0)
+            {
+                mEndOfStream = true;
+                return;
+            }
+
+            if(bytesRead == 0)
+                continue;
+
+            mBufferLength += bytesRead;
+            return;
+        }
+    }
+
+    private void setLine(int lineStart, int lineEnd, int nextLineStart)
+    {
+        if(lineEnd > lineStart && mBuffer[lineEnd - 1] == '\r')
+            --lineEnd;
+
+        mLineStart = lineStart;
+        mLineEnd = lineEnd;
+        mNextLineStart = nextLineStart;
+
+        // record each field's bounds
+        mFieldCount = 0;
+        int fieldStart = lineStart;
+
+        for(int i = lineStart; i <= lineEnd; ++i)
+        {
+            if(i == lineEnd || mBuffer[i] == mDelim)
+            {
+                if(mFieldCount == mFieldStarts.length)
+                {
+                    mFieldStarts = Arrays.copyOf(mFieldStarts, mFieldCount * 2);
+                    mFieldEnds = Arrays.copyOf(mFieldEnds, mFieldCount * 2);
+                }
+
+                mFieldStarts[mFieldCount] = fieldStart;
+                mFieldEnds[mFieldCount] = i;
+                ++mFieldCount;
+                fieldStart = i + 1;
+            }
+        }
+    }
+
+    private String fieldString(int index)
+    {
+        int start = mFieldStarts[index];
+        return new String(mBuffer, start, mFieldEnds[index] - start, StandardCharsets.UTF_8);
+    }
+
+    private int fieldIndex(int columnIndex)
+    {
+        if(columnIndex >= mFieldCount)
+            throw new IndexOutOfBoundsException(String.format("column index(%d) beyond fields(%d)", columnIndex, mFieldCount));
+
+        return columnIndex;
+    }
+
+    private boolean fieldIsNull(int index)
+    {
+        int start = mFieldStarts[index];
+
+        if(mFieldEnds[index] - start != 4)
+            return false;
+
+        return (mBuffer[start] == 'n' && mBuffer[start + 1] == 'u' && mBuffer[start + 2] == 'l' && mBuffer[start + 3] == 'l')
+            || (mBuffer[start] == 'N' && mBuffer[start + 1] == 'U' && mBuffer[start + 2] == 'L' && mBuffer[start + 3] == 'L');
+    }
+
+    private String internedField(int index)
+    {
+        // low-cardinality values such as chromosomes are compared with prior values and share their String
+        int start = mFieldStarts[index];
+        int length = mFieldEnds[index] - start;
+
+        for(int i = 0; i < mInternedCount; ++i)
+        {
+            String value = mInternedValues[i];
+
+            if(value.length() == length && matchesAscii(value, start, length))
+                return value;
+        }
+
+        String value = fieldString(index);
+
+        if(mInternedCount < MAX_INTERNED_VALUES && value.length() == length)
+            mInternedValues[mInternedCount++] = value;
+
+        return value;
+    }
+
+    private boolean matchesAscii(final String value, int start, int length)
+    {
+        for(int i = 0; i < length; ++i)
+        {
+            if(value.charAt(i) != mBuffer[start + i])
+                return false;
+        }
+
+        return true;
+    }
+
+    private long parseLong(int index, long minValue, long maxValue)
+    {
+        int start = mFieldStarts[index];
+        int end = mFieldEnds[index];
+
+        if(start == end)
+            throw numberFormatException(index);
+
+        boolean negative = mBuffer[start] == '-';
+        int i = (negative || mBuffer[start] == '+') ? start + 1 : start;
+
+        if(i == end || end - i > 18)
+            return parseLongString(index, minValue, maxValue);
+
+        long value = 0;
+
+        for(; i < end; ++i)
+        {
+            int digit = mBuffer[i] - '0';
+
+            if(digit < 0 || digit > 9)
+                throw numberFormatException(index);
+
+            value = value * 10 + digit;
+        }
+
+        value = negative ? -value : value;
+
+        if(value < minValue || value > maxValue)
+            throw numberFormatException(index);
+
+        return value;
+    }
+
+    private long parseLongString(int index, long minValue, long maxValue)
+    {
+        long value = Long.parseLong(fieldString(index));
+
+        if(value < minValue || value > maxValue)
+            throw numberFormatException(index);
+
+        return value;
+    }
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private double parseDouble(int index)
+    {
+        // decimal values of up to 15 significant digits and a power of ten up to 22 are exactly representable as doubles,
+        // so a single multiply or divide gives the correctly rounded value as Double.parseDouble does. Other values fall back
+        int start = mFieldStarts[index];
+        int end = mFieldEnds[index];
+
+        if(start == end)
+            throw numberFormatException(index);
+
+        boolean negative = mBuffer[start] == '-';
+        int i = (negative || mBuffer[start] == '+') ? start + 1 : start;
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean hasDigits = false;
+        boolean inFraction = false;
+
+        for(; i < end; ++i)
+        {
+            byte b = mBuffer[i];
+
+            if(b >= '0' && b <= '9')
+            {
+                hasDigits = true;
+
+                if(mantissa == 0 && b == '0')
+                {
+                    // leading zeros are not significant
+                    if(inFraction)
+                        ++scale;
+
+                    continue;
+                }
+
+                if(++digits > MAX_EXACT_DIGITS)
+                    return parseDoubleString(index);
+
+                mantissa = mantissa * 10 + (b - '0');
+
+                if(inFraction)
+                    ++scale;
+            }
+            else if(b == '.' && !inFraction)
+            {
+                inFraction = true;
+            }
+            else
+            {
+                break;
+            }
+        }
+
+        if(!hasDigits)
+            return parseDoubleString(index);
+
+        int exponent = 0;
+
+        if(i < end)
+        {
+            if(mBuffer[i] != 'e' && mBuffer[i] != 'E')
+                return parseDoubleString(index);
+
+            ++i;
+            boolean negativeExponent = i < end && mBuffer[i] == '-';
+
+            if(i < end && (mBuffer[i] == '-' || mBuffer[i] == '+'))
+                ++i;
+
+            if(i == end || end - i > 3)
+                return parseDoubleString(index);
+
+            for(; i < end; ++i)
+            {
+                int digit = mBuffer[i] - '0';
+
+                if(digit < 0 || digit > 9)
+                    return parseDoubleString(index);
+
+                exponent = exponent * 10 + digit;
+            }
+
+            if(negativeExponent)
+                exponent = -exponent;
+        }
+
+        int powerOfTen = exponent - scale;
+        double value;
+
+        if(mantissa == 0)
+            value = 0;
+        else if(powerOfTen >= 0 && powerOfTen < POWERS_OF_TEN.length)
+            value = mantissa * POWERS_OF_TEN[powerOfTen];
+        else if(powerOfTen < 0 && -powerOfTen < POWERS_OF_TEN.length)
+            value = mantissa / POWERS_OF_TEN[-powerOfTen];
+        else
+            return parseDoubleString(index);
+
+        return negative ? -value : value;
+    }
+
+    private double parseDoubleString(int index)
+    {
+        return Double.parseDouble(fieldString(index));
+    }
+
+    private NumberFormatException numberFormatException(int index)
+    {
+        return new NumberFormatException("For input string: \"" + fieldString(index) + "\"");
+    }
+
+    public class Row
+    {
+        private Row() {}
+
+        public int fieldCount() { return mFieldCount; }
+
+        // the whole line, for logging
+        public String line() { return new String(mBuffer, mLineStart, mLineEnd - mLineStart, StandardCharsets.UTF_8); }
+
+        public boolean isNull(final int columnIndex) { return fieldIsNull(fieldIndex(columnIndex)); }
+
+        public String get(final int columnIndex)
+        {
+            int index = fieldIndex(columnIndex);
+
+            if(fieldIsNull(index))
+                throw new NoSuchElementException();
+
+            return fieldString(index);
+        }
+
+        public @Nullable String getOrNull(final int columnIndex)
+        {
+            int index = fieldIndex(columnIndex);
+            return fieldIsNull(index) ? null : fieldString(index);
+        }
+
+        // chromosomes and other values with few distinct values, returned as the same String instance for each value
+        public String getChromosome(final int columnIndex)
+        {
+            int index = fieldIndex(columnIndex);
+
+            if(fieldIsNull(index))
+                throw new NoSuchElementException();
+
+            return internedField(index);
+        }
+
+        public int getInt(final int columnIndex)
+        {
+            return (int)parseLong(fieldIndex(columnIndex), Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+
+        public @Nullable Integer getIntOrNull(final int columnIndex)
+        {
+            return isNull(columnIndex) ? null : getInt(columnIndex);
+        }
+
+        public long getLong(final int columnIndex)
+        {
+            return parseLong(fieldIndex(columnIndex), Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+
+        // store boolean as 1 and 0
+        public boolean getBoolean(final int columnIndex)
+        {
+            return getInt(columnIndex) != 0;
+        }
+
+        public char getChar(final int columnIndex)
+        {
+            int index = fieldIndex(columnIndex);
+
+            if(fieldIsNull(index) || mFieldEnds[index] == mFieldStarts[index])
+                throw new NoSuchElementException();
+
+            return (char)(mBuffer[mFieldStarts[index]] & 0xFF);
+        }
+
+        public double getDouble(final int columnIndex)
+        {
+            return parseDouble(fieldIndex(columnIndex));
+        }
+
+        public @Nullable Double getDoubleOrNull(final int columnIndex)
+        {
+            return isNull(columnIndex) ? null : getDouble(columnIndex);
+        }
+
+        // overloads by column name and enum
+
+        public boolean isNull(final String column) { return isNull(columnIndex(column)); }
+        public String get(final String column) { return get(columnIndex(column)); }
+        public @Nullable String getOrNull(final String column) { return getOrNull(columnIndex(column)); }
+        public String getChromosome(final String column) { return getChromosome(columnIndex(column)); }
+        public int getInt(final String column) { return getInt(columnIndex(column)); }
+        public @Nullable Integer getIntOrNull(final String column) { return getIntOrNull(columnIndex(column)); }
+        public long getLong(final String column) { return getLong(columnIndex(column)); }
+        public boolean getBoolean(final String column) { return getBoolean(columnIndex(column)); }
+        public char getChar(final String column) { return getChar(columnIndex(column)); }
+        public double getDouble(final String column) { return getDouble(columnIndex(column)); }
+        public @Nullable Double getDoubleOrNull(final String column) { return getDoubleOrNull(columnIndex(column)); }
+
+        public boolean isNull(final Enum<?> column) { return isNull(column.name()); }
+        public String get(final Enum<?> column) { return get(column.name()); }
+        public @Nullable String getOrNull(final Enum<?> column) { return getOrNull(column.name()); }
+        public String getChromosome(final Enum<?> column) { return getChromosome(column.name()); }
+        public int getInt(final Enum<?> column) { return getInt(column.name()); }
+        public @Nullable Integer getIntOrNull(final Enum<?> column) { return getIntOrNull(column.name()); }
+        public long getLong(final Enum<?> column) { return getLong(column.name()); }
+        public boolean getBoolean(final Enum<?> column) { return getBoolean(column.name()); }
+        public char getChar(final Enum<?> column) { return getChar(column.name()); }
+        public double getDouble(final Enum<?> column) { return getDouble(column.name()); }
+        public @Nullable Double getDoubleOrNull(final Enum<?> column) { return getDoubleOrNull(column.name()); }
+
+        private int columnIndex(final String column)
+        {
+            Integer index = mColumnIndexMap.get(column);
+
+            if(index == null)
+                throw new NoSuchElementException(String.format("column: %s not found", column));
+
+            return index;
+        }
+    }
+}
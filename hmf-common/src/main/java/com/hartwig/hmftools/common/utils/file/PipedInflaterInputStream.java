@@ -0,0 +1,193 @@
+package com.hartwig.hmftools.common.utils.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+// inflates a gzip stream on a background thread into a small queue of chunks, so decompression runs alongside the parsing
+// of previously inflated data. A gzip stream can only be inflated sequentially, so this pipelines rather than splits the work
+public class PipedInflaterInputStream extends InputStream
+{
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final int QUEUED_CHUNKS = 4;
+    private static final int INPUT_BUFFER_SIZE = 1 << 16;
+
+    private final InputStream mSource;
+    private final BlockingQueue<Chunk> mChunks;
+    private final Thread mInflaterThread;
+
+    private volatile Throwable mInflaterFailure;
+    private volatile boolean mClosed;
+
+    private Chunk mCurrent;
+    private int mCurrentOffset;
+    private boolean mEndOfStream;
+
+    private static final Chunk END_OF_STREAM = new Chunk(new byte[0], -1);
+
+    private static class Chunk
+    {
+        public final byte[] Data;
+        public final int Length;
+
+        public Chunk(final byte[] data, int length)
+        {
+            Data = data;
+            Length = length;
+        }
+    }
+
+    public PipedInflaterInputStream(final InputStream source)
+    {
+        mSource = source;
+        mChunks = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+        mInflaterFailure = null;
+        mClosed = false;
+        mCurrent = null;
+        mCurrentOffset = 0;
+        mEndOfStream = false;
+
+        mInflaterThread = new Thread(this::inflate, "gzip-inflater");
+        mInflaterThread.setDaemon(true);
+        mInflaterThread.start();
+    }
+
+    private void inflate()
+    {
+        try(InputStream inflater = new GZIPInputStream(mSource, INPUT_BUFFER_SIZE))
+        {
+            while(!mClosed)
+            {
+                byte[] data = new byte[CHUNK_SIZE];
+                int length = 0;
+
+                // fill each chunk to limit the number of hand-offs between the threads
+                while(length < CHUNK_SIZE)
+                {
+                    int bytesRead = inflater.read(data, length, CHUNK_SIZE - length);
+
+                    if(bytesRead < 0)
+                        break;
+
+                    length += bytesRead;
+                }
+
+                if(length > 0)
+                    mChunks.put(new Chunk(data, length));
+
+                if(length < CHUNK_SIZE)
+                    break;
+            }
+        }
+        catch(InterruptedException e)
+        {
+            if(!mClosed)
+                mInflaterFailure = new InterruptedIOException("gzip inflater interrupted");
+        }
+        catch(Throwable t)
+        {
+            mInflaterFailure = t;
+        }
+        finally
+        {
+            // always mark the end of the stream, after any failure has been recorded, so the reader cannot block forever
+            if(!mClosed)
+                queueEndOfStream();
+        }
+    }
+
+    private void queueEndOfStream()
+    {
+        try
+        {
+            mChunks.put(END_OF_STREAM);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean nextChunk() throws IOException
+    {
+        if(mEndOfStream)
+            return false;
+
+        try
+        {
+            mCurrent = mChunks.take();
+            mCurrentOffset = 0;
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted waiting for inflated data");
+        }
+
+        if(mCurrent == END_OF_STREAM)
+        {
+            mEndOfStream = true;
+
+            Throwable failure = mInflaterFailure;
+
+            if(failure instanceof IOException)
+                throw (IOException)failure;
+            else if(failure instanceof RuntimeException)
+                throw (RuntimeException)failure;
+            else if(failure instanceof Error)
+                throw (Error)failure;
+
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        if((mCurrent == null || mCurrentOffset >= mCurrent.Length) && !nextChunk())
+            return -1;
+
+        return mCurrent.Data[mCurrentOffset++] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] buffer, int offset, int length) throws IOException
+    {
+        if(length == 0)
+            return 0;
+
+        if((mCurrent == null || mCurrentOffset >= mCurrent.Length) && !nextChunk())
+            return -1;
+
+        int copyLength = Math.min(length, mCurrent.Length - mCurrentOffset);
+        System.arraycopy(mCurrent.Data, mCurrentOffset, buffer, offset, copyLength);
+        mCurrentOffset += copyLength;
+        return copyLength;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if(mClosed)
+            return;
+
+        mClosed = true;
+        mInflaterThread.interrupt();
+
+        try
+        {
+            mInflaterThread.join();
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        mSource.close();
+    }
+}
@@ -0,0 +1,23 @@
+package com.hartwig.hmftools.common.utils.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// a striped count which threads can increment without contention
+public class Counter
+{
+    private final String mName;
+    private final LongAdder mCount;
+
+    public Counter(final String name)
+    {
+        mName = name;
+        mCount = new LongAdder();
+    }
+
+    public String name() { return mName; }
+
+    public void increment() { mCount.increment(); }
+    public void add(long value) { mCount.add(value); }
+
+    public long value() { return mCount.sum(); }
+}
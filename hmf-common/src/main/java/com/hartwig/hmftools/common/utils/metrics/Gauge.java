@@ -0,0 +1,61 @@
+package com.hartwig.hmftools.common.utils.metrics;
+
+import java.util.function.LongSupplier;
+
+import org.jetbrains.annotations.Nullable;
+
+// a value such as a queue depth or heap size, read periodically by the registry's sampling thread
+public class Gauge
+{
+    private final String mName;
+    private volatile LongSupplier mSupplier; // null once the source is released
+
+    // only updated by the sampling thread
+    private volatile long mLastValue;
+    private volatile long mMaxValue;
+    private volatile long mTotal;
+    private volatile long mSampleCount;
+
+    public Gauge(final String name, final LongSupplier supplier)
+    {
+        mName = name;
+        mSupplier = supplier;
+        mLastValue = 0;
+        mMaxValue = 0;
+        mTotal = 0;
+        mSampleCount = 0;
+    }
+
+    public String name() { return mName; }
+
+    // a new source replaces the previous one, whose samples are kept
+    public synchronized void setSupplier(final LongSupplier supplier) { mSupplier = supplier; }
+
+    // stops sampling and drops the reference to the source, unless it has since been replaced
+    public synchronized void releaseSupplier(final LongSupplier supplier)
+    {
+        if(mSupplier == supplier)
+            mSupplier = null;
+    }
+
+    @Nullable
+    public Long sample()
+    {
+        LongSupplier supplier = mSupplier;
+
+        if(supplier == null)
+            return null;
+
+        long value = supplier.getAsLong();
+        mLastValue = value;
+        mMaxValue = mSampleCount == 0 ? value : Math.max(mMaxValue, value);
+        mTotal += value;
+        ++mSampleCount;
+        return value;
+    }
+
+    public long lastValue() { return mLastValue; }
+    public long maxValue() { return mMaxValue; }
+    public long sampleCount() { return mSampleCount; }
+    public double meanValue() { return mSampleCount > 0 ? mTotal / (double)mSampleCount : 0; }
+}
@@ -0,0 +1,78 @@
+package com.hartwig.hmftools.common.utils.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// log-linear histogram of non-negative values with 8 sub-buckets per power of 2, so values are resolved to within 12.5%
+// each instance has a single writing thread, which updates it without locks, and readers take snapshots
+public class Histogram
+{
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS; // values below this have their own bucket
+
+    static final int BUCKET_COUNT = LINEAR_LIMIT + (Long.SIZE - 1 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+    private static final int COUNT = 0;
+    private static final int TOTAL = 1;
+    private static final int MAX = 2;
+
+    private final AtomicLongArray mBuckets;
+    private final AtomicLongArray mSummary;
+
+    public Histogram()
+    {
+        mBuckets = new AtomicLongArray(BUCKET_COUNT);
+        mSummary = new AtomicLongArray(3);
+    }
+
+    // must only be called from the owning thread
+    public void record(long value)
+    {
+        if(value < 0)
+            value = 0;
+
+        int bucket = bucketIndex(value);
+
+        // ordered writes without a compare-and-set, since no other thread updates this histogram
+        mBuckets.lazySet(bucket, mBuckets.get(bucket) + 1);
+        mSummary.lazySet(COUNT, mSummary.get(COUNT) + 1);
+        mSummary.lazySet(TOTAL, mSummary.get(TOTAL) + value);
+
+        if(value > mSummary.get(MAX))
+            mSummary.lazySet(MAX, value);
+    }
+
+    public void addTo(final HistogramSnapshot snapshot)
+    {
+        for(int i = 0; i < BUCKET_COUNT; ++i)
+        {
+            snapshot.BucketCounts[i] += mBuckets.get(i);
+        }
+
+        snapshot.Count += mSummary.get(COUNT);
+        snapshot.Total += mSummary.get(TOTAL);
+        snapshot.Max = Math.max(snapshot.Max, mSummary.get(MAX));
+    }
+
+    static int bucketIndex(long value)
+    {
+        if(value < LINEAR_LIMIT)
+            return (int)value;
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int)(value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // the highest value falling in a bucket
+    static long bucketUpperValue(int bucket)
+    {
+        if(bucket < LINEAR_LIMIT)
+            return bucket;
+
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        long subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long lowerValue = (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowerValue + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,40 @@
+package com.hartwig.hmftools.common.utils.metrics;
+
+// combined histogram values across threads at a point in time
+public class HistogramSnapshot
+{
+    public final long[] BucketCounts;
+    public long Count;
+    public long Total;
+    public long Max;
+
+    public HistogramSnapshot()
+    {
+        BucketCounts = new long[Histogram.BUCKET_COUNT];
+        Count = 0;
+        Total = 0;
+        Max = 0;
+    }
+
+    public double mean() { return Count > 0 ? Total / (double)Count : 0; }
+
+    // the upper bound of the bucket holding the percentile, capped at the observed maximum
+    public long percentile(double percentile)
+    {
+        if(Count == 0)
+            return 0;
+
+        long rank = Math.max(1, (long)Math.ceil(Count * percentile / 100));
+        long cumulative = 0;
+
+        for(int i = 0; i < BucketCounts.length; ++i)
+        {
+            cumulative += BucketCounts[i];
+
+            if(cumulative >= rank)
+                return Math.min(Histogram.bucketUpperValue(i), Max);
+        }
+
+        return Max;
+    }
+}
@@ -0,0 +1,23 @@
+package com.hartwig.hmftools.common.utils.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// a periodic sample of a gauge or counter
+@Name("hmftools.MetricSample")
+@Label("Metric Sample")
+@Category({"HMF Tools", "Metrics"})
+@Description("A periodic sample of a gauge or counter")
+@StackTrace(false)
+public class MetricSampleEvent extends Event
+{
+    @Label("Metric")
+    public String Metric;
+
+    @Label("Value")
+    public long Value;
+}
@@ -0,0 +1,311 @@
+package com.hartwig.hmftools.common.utils.metrics;
+
+import static java.lang.String.format;
+
+import static com.hartwig.hmftools.common.utils.PerformanceCounter.NANOS_IN_SECOND;
+import static com.hartwig.hmftools.common.utils.file.FileDelimiters.TSV_DELIM;
+import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.createBufferedWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+// process-wide timers, counters and gauges, written to TSV and JSON files and optionally a JFR recording at the end of a run
+public final class MetricsRegistry
+{
+    private static final Logger LOGGER = LogManager.getLogger(MetricsRegistry.class);
+
+    public static final String METRICS_OUTPUT = "metrics_output";
+    public static final String METRICS_OUTPUT_DESC = "Write timer, counter and gauge metrics to files with this path prefix";
+
+    public static final String METRICS_JFR = "metrics_jfr";
+    public static final String METRICS_JFR_DESC = "Also write a JFR recording with stage and metric events";
+
+    public static final String METRICS_TSV_EXTENSION = ".metrics.tsv";
+    public static final String METRICS_JSON_EXTENSION = ".metrics.json";
+    public static final String METRICS_JFR_EXTENSION = ".jfr";
+
+    private static final long SAMPLE_INTERVAL_MS = 1000;
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
+    private static final Map<String,Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String,Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String,Gauge> GAUGES = new ConcurrentHashMap<>();
+
+    private static volatile boolean sEnabled = false;
+    private static String sOutputPrefix = null;
+    private static ScheduledExecutorService sSampler = null;
+    private static Recording sRecording = null;
+    private static boolean sShutdownHookAdded = false;
+
+    private MetricsRegistry() {}
+
+    public static void addConfig(final ConfigBuilder configBuilder)
+    {
+        configBuilder.addConfigItem(METRICS_OUTPUT, false, METRICS_OUTPUT_DESC);
+        configBuilder.addFlag(METRICS_JFR, METRICS_JFR_DESC);
+    }
+
+    public static void startFromConfig(final ConfigBuilder configBuilder)
+    {
+        if(configBuilder.hasValue(METRICS_OUTPUT))
+            start(configBuilder.getValue(METRICS_OUTPUT), configBuilder.hasFlag(METRICS_JFR));
+    }
+
+    public static boolean enabled() { return sEnabled; }
+
+    public static Timer timer(final String name) { return TIMERS.computeIfAbsent(name, Timer::new); }
+
+    public static Counter counter(final String name) { return COUNTERS.computeIfAbsent(name, Counter::new); }
+
+    // gauges are only sampled while metrics are enabled, and a gauge registered again under the same name, for example by each
+    // new reader, keeps its samples but reads from the new source
+    public static void registerGauge(final String name, final LongSupplier supplier)
+    {
+        if(!sEnabled)
+            return;
+
+        GAUGES.compute(name, (key, gauge) ->
+        {
+            if(gauge == null)
+                return new Gauge(name, supplier);
+
+            gauge.setSupplier(supplier);
+            return gauge;
+        });
+    }
+
+    // called when the source is closed, so the registry no longer holds a reference to it
+    public static void releaseGauge(final String name, final LongSupplier supplier)
+    {
+        Gauge gauge = GAUGES.get(name);
+
+        if(gauge != null)
+            gauge.releaseSupplier(supplier);
+    }
+
+    public static synchronized void start(final String outputPrefix, boolean recordJfr)
+    {
+        if(sEnabled)
+            return;
+
+        sOutputPrefix = outputPrefix;
+        sEnabled = true;
+
+        Runtime runtime = Runtime.getRuntime();
+        registerGauge("HeapUsedMb", () -> (runtime.totalMemory() - runtime.freeMemory()) / BYTES_PER_MB);
+        registerGauge("HeapCommittedMb", () -> runtime.totalMemory() / BYTES_PER_MB);
+
+        if(recordJfr)
+        {
+            try
+            {
+                sRecording = new Recording(Configuration.getConfiguration("default"));
+                sRecording.enable(StageEvent.class);
+                sRecording.enable(MetricSampleEvent.class);
+                sRecording.start();
+            }
+            catch(IOException | ParseException e)
+            {
+                LOGGER.error("failed to start JFR recording: {}", e.toString());
+                sRecording = null;
+            }
+        }
+
+        sSampler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("metrics-sampler").setDaemon(true).build());
+
+        sSampler.scheduleAtFixedRate(MetricsRegistry::sampleMetrics, 0, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        // write metrics when the JVM exits without an explicit stop, such as after a failure or System.exit
+        if(!sShutdownHookAdded)
+        {
+            Runtime.getRuntime().addShutdownHook(new Thread(MetricsRegistry::stop, "metrics-shutdown"));
+            sShutdownHookAdded = true;
+        }
+
+        LOGGER.info("recording metrics to {}*{}", outputPrefix, sRecording != null ? " with JFR" : "");
+    }
+
+    public static synchronized void stop()
+    {
+        if(!sEnabled)
+            return;
+
+        sSampler.shutdownNow();
+        sSampler = null;
+        sampleMetrics();
+
+        try
+        {
+            writeTsv(sOutputPrefix + METRICS_TSV_EXTENSION);
+            writeJson(sOutputPrefix + METRICS_JSON_EXTENSION);
+
+            if(sRecording != null)
+            {
+                sRecording.stop();
+                sRecording.dump(Paths.get(sOutputPrefix + METRICS_JFR_EXTENSION));
+                sRecording.close();
+                sRecording = null;
+            }
+        }
+        catch(IOException e)
+        {
+            LOGGER.error("failed to write metrics: {}", e.toString());
+        }
+
+        sEnabled = false;
+        GAUGES.clear();
+    }
+
+    private static synchronized void sampleMetrics()
+    {
+        for(Gauge gauge : GAUGES.values())
+        {
+            Long value = gauge.sample();
+
+            if(value == null)
+                continue;
+
+            MetricSampleEvent event = new MetricSampleEvent();
+
+            if(event.isEnabled())
+            {
+                event.Metric = gauge.name();
+                event.Value = value;
+                event.commit();
+            }
+        }
+
+        for(Counter counter : COUNTERS.values())
+        {
+            MetricSampleEvent event = new MetricSampleEvent();
+
+            if(event.isEnabled())
+            {
+                event.Metric = counter.name();
+                event.Value = counter.value();
+                event.commit();
+            }
+        }
+    }
+
+    public static void writeTsv(final String filename) throws IOException
+    {
+        BufferedWriter writer = createBufferedWriter(filename, false);
+
+        StringJoiner header = new StringJoiner(TSV_DELIM);
+        header.add("Name").add("Type").add("Count").add("Total").add("Mean").add("P50").add("P90").add("P99").add("Max");
+        writer.write(header.toString());
+        writer.newLine();
+
+        // timer values are in seconds
+        for(Timer timer : new TreeMap<>(TIMERS).values())
+        {
+            HistogramSnapshot snapshot = timer.snapshot();
+
+            if(snapshot.Count == 0)
+                continue;
+
+            writer.write(format("%s\tTIMER\t%d\t%.6f\t%.6f\t%.6f\t%.6f\t%.6f\t%.6f",
+                    timer.name(), snapshot.Count, snapshot.Total / NANOS_IN_SECOND, snapshot.mean() / NANOS_IN_SECOND,
+                    snapshot.percentile(50) / NANOS_IN_SECOND, snapshot.percentile(90) / NANOS_IN_SECOND,
+                    snapshot.percentile(99) / NANOS_IN_SECOND, snapshot.Max / NANOS_IN_SECOND));
+            writer.newLine();
+        }
+
+        for(Counter counter : new TreeMap<>(COUNTERS).values())
+        {
+            writer.write(format("%s\tCOUNTER\t%d\t\t\t\t\t\t", counter.name(), counter.value()));
+            writer.newLine();
+        }
+
+        // gauge totals hold the last sampled value
+        for(Gauge gauge : new TreeMap<>(GAUGES).values())
+        {
+            writer.write(format("%s\tGAUGE\t%d\t%d\t%.1f\t\t\t\t%d",
+                    gauge.name(), gauge.sampleCount(), gauge.lastValue(), gauge.meanValue(), gauge.maxValue()));
+            writer.newLine();
+        }
+
+        writer.close();
+    }
+
+    public static void writeJson(final String filename) throws IOException
+    {
+        JsonArray timers = new JsonArray();
+
+        for(Timer timer : new TreeMap<>(TIMERS).values())
+        {
+            HistogramSnapshot snapshot = timer.snapshot();
+
+            if(snapshot.Count == 0)
+                continue;
+
+            JsonObject timerJson = new JsonObject();
+            timerJson.addProperty("name", timer.name());
+            timerJson.addProperty("count", snapshot.Count);
+            timerJson.addProperty("totalSeconds", snapshot.Total / NANOS_IN_SECOND);
+            timerJson.addProperty("meanSeconds", snapshot.mean() / NANOS_IN_SECOND);
+            timerJson.addProperty("p50Seconds", snapshot.percentile(50) / NANOS_IN_SECOND);
+            timerJson.addProperty("p90Seconds", snapshot.percentile(90) / NANOS_IN_SECOND);
+            timerJson.addProperty("p99Seconds", snapshot.percentile(99) / NANOS_IN_SECOND);
+            timerJson.addProperty("maxSeconds", snapshot.Max / NANOS_IN_SECOND);
+            timers.add(timerJson);
+        }
+
+        JsonArray counters = new JsonArray();
+
+        for(Counter counter : new TreeMap<>(COUNTERS).values())
+        {
+            JsonObject counterJson = new JsonObject();
+            counterJson.addProperty("name", counter.name());
+            counterJson.addProperty("value", counter.value());
+            counters.add(counterJson);
+        }
+
+        JsonArray gauges = new JsonArray();
+
+        for(Gauge gauge : new TreeMap<>(GAUGES).values())
+        {
+            JsonObject gaugeJson = new JsonObject();
+            gaugeJson.addProperty("name", gauge.name());
+            gaugeJson.addProperty("samples", gauge.sampleCount());
+            gaugeJson.addProperty("last", gauge.lastValue());
+            gaugeJson.addProperty("mean", gauge.meanValue());
+            gaugeJson.addProperty("max", gauge.maxValue());
+            gauges.add(gaugeJson);
+        }
+
+        JsonObject metrics = new JsonObject();
+        metrics.add("timers", timers);
+        metrics.add("counters", counters);
+        metrics.add("gauges", gauges);
+
+        BufferedWriter writer = createBufferedWriter(filename, false);
+        writer.write(new GsonBuilder().setPrettyPrinting().create().toJson(metrics));
+        writer.newLine();
+        writer.close();
+    }
+}
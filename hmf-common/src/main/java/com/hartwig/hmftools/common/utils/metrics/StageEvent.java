@@ -0,0 +1,25 @@
+package com.hartwig.hmftools.common.utils.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// a timed processing stage, visible alongside CPU, allocation and GC data in a JFR recording
+@Name("hmftools.Stage")
+@Label("Stage")
+@Category({"HMF Tools", "Stages"})
+@Description("A timed processing stage")
+@StackTrace(false)
+public class StageEvent extends Event
+{
+    @Label("Stage")
+    public String Stage;
+
+    public StageEvent(final String stage)
+    {
+        Stage = stage;
+    }
+}
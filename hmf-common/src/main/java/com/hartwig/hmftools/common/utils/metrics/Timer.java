@@ -0,0 +1,87 @@
+package com.hartwig.hmftools.common.utils.metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// records durations in nanoseconds into a histogram per thread, and optionally a JFR stage event per interval
+public class Timer
+{
+    private final String mName;
+    private final List<Histogram> mHistograms;
+    private final ThreadLocal<Histogram> mThreadHistogram;
+
+    public Timer(final String name)
+    {
+        mName = name;
+        mHistograms = new CopyOnWriteArrayList<>();
+
+        mThreadHistogram = ThreadLocal.withInitial(() ->
+        {
+            Histogram histogram = new Histogram();
+            mHistograms.add(histogram);
+            return histogram;
+        });
+    }
+
+    public String name() { return mName; }
+
+    public void record(long nanos) { mThreadHistogram.get().record(nanos); }
+
+    public Sample start() { return new Sample(false); }
+    public Sample startPaused() { return new Sample(true); }
+
+    public HistogramSnapshot snapshot()
+    {
+        HistogramSnapshot snapshot = new HistogramSnapshot();
+        mHistograms.forEach(x -> x.addTo(snapshot));
+        return snapshot;
+    }
+
+    public class Sample
+    {
+        private final long mStartTime;
+        private StageEvent mEvent; // covers the current active interval, and is null while paused
+
+        private Sample(boolean paused)
+        {
+            mEvent = null;
+            mStartTime = System.nanoTime();
+
+            if(!paused)
+                resume();
+        }
+
+        // paused time is excluded from the stage events, which are committed for each active interval
+        public void pause()
+        {
+            if(mEvent == null)
+                return;
+
+            mEvent.commit();
+            mEvent = null;
+        }
+
+        public void resume()
+        {
+            if(mEvent != null)
+                return;
+
+            mEvent = new StageEvent(mName);
+            mEvent.begin();
+        }
+
+        public long stop()
+        {
+            long elapsed = System.nanoTime() - mStartTime;
+            stop(elapsed);
+            return elapsed;
+        }
+
+        // records a duration measured by the caller, for example excluding paused time
+        public void stop(long elapsedNanos)
+        {
+            record(elapsedNanos);
+            pause();
+        }
+    }
+}
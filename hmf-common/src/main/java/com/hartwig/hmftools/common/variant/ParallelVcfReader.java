@@ -0,0 +1,632 @@
+package com.hartwig.hmftools.common.variant;
+
+import static java.lang.Math.max;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.zip.Inflater;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hartwig.hmftools.common.utils.file.BgzfBlockReader;
+import com.hartwig.hmftools.common.utils.file.PipedInflaterInputStream;
+import com.hartwig.hmftools.common.utils.metrics.Counter;
+import com.hartwig.hmftools.common.utils.metrics.MetricsRegistry;
+
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.tribble.readers.LineIteratorImpl;
+import htsjdk.tribble.readers.SynchronousLineReader;
+import htsjdk.variant.vcf.VCFCodec;
+import htsjdk.variant.vcf.VCFHeader;
+
+/**
+ * Reads a VCF with its records decoded on a pool of threads and returned in file order.
+ *
+ * BGZF files have their blocks inflated by the decoder threads, a plain gzip file is inflated on a single background thread.
+ * Each decoder thread splits its chunk into lines and creates VcfRecords, which parse their INFO and sample fields only when
+ * accessed. Materialising htsjdk VariantContexts is optional and also done on the decoder threads, and an optional filter
+ * drops records before they reach the caller.
+ *
+ *  try(ParallelVcfReader reader = new ParallelVcfReader(vcfFile, threads))
+ *  {
+ *      reader.setRecordFilter(VcfRecord::isPass);
+ *
+ *      for(VcfRecord record : reader)
+ *      {
+ *          int repeatCount = record.getInfoInt(REPEAT_COUNT, 0);
+ *      }
+ *  }
+ */
+public class ParallelVcfReader implements Iterable<VcfRecord>, AutoCloseable
+{
+    private final String mFilename;
+    private final int mThreads;
+    private final boolean mIsBgzf;
+
+    private final List<String> mHeaderLines;
+    private final List<RawChunk> mHeaderChunks; // chunks read while finding the header, yet to be decoded
+    private final Map<String,String> mChromosomeCache;
+
+    private boolean mMaterialiseVariants;
+    private Predicate<VcfRecord> mRecordFilter;
+
+    private InputStream mInputStream;
+    private BgzfBlockReader mBlockReader;
+    private ExecutorService mExecutorService;
+    private Thread mChunkReaderThread;
+    private BlockingQueue<Future<DecodedChunk>> mDecodedChunks;
+    private LongSupplier mQueueDepth; // registered as a gauge while reading
+    private final Counter mRecordsRead;
+    private volatile boolean mClosed;
+
+    private ThreadLocal<VCFCodec> mCodecs;
+
+    private static final int CHUNK_SIZE = 1 << 22; // uncompressed bytes per decoder task
+    private static final int CHUNKS_PER_THREAD = 2;
+
+    private static final String QUEUE_METRIC = "VcfReaderQueue";
+    private static final String RECORDS_READ_METRIC = "VcfRecordsRead";
+
+    private static final Future<DecodedChunk> END_OF_CHUNKS = CompletableFuture.completedFuture(null);
+
+    public ParallelVcfReader(final String filename, int threads)
+    {
+        mFilename = filename;
+        mThreads = max(threads, 1);
+        mIsBgzf = BgzfBlockReader.isBgzfFile(filename);
+        mHeaderLines = Lists.newArrayList();
+        mHeaderChunks = Lists.newArrayList();
+        mChromosomeCache = new ConcurrentHashMap<>();
+        mMaterialiseVariants = false;
+        mRecordFilter = null;
+        mExecutorService = null;
+        mChunkReaderThread = null;
+        mDecodedChunks = null;
+        mQueueDepth = null;
+        mRecordsRead = MetricsRegistry.counter(RECORDS_READ_METRIC);
+        mClosed = false;
+
+        try
+        {
+            if(mIsBgzf)
+            {
+                mBlockReader = new BgzfBlockReader(filename);
+                mInputStream = null;
+            }
+            else
+            {
+                InputStream inputStream = new BufferedInputStream(new FileInputStream(filename), 1 << 16);
+                mInputStream = isGzipped(filename) ? new PipedInflaterInputStream(inputStream) : inputStream;
+                mBlockReader = null;
+            }
+
+            readHeader();
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // decode each record into a VariantContext on the decoder threads, with genotypes decoded lazily by htsjdk
+    public void setMaterialiseVariants(boolean materialise)
+    {
+        checkNotStarted();
+        mMaterialiseVariants = materialise;
+    }
+
+    // records failing the filter are dropped on the decoder threads, before any VariantContext is materialised
+    public void setRecordFilter(@Nullable final Predicate<VcfRecord> filter)
+    {
+        checkNotStarted();
+        mRecordFilter = filter;
+    }
+
+    public List<String> headerLines() { return Collections.unmodifiableList(mHeaderLines); }
+
+    public VCFHeader vcfHeader() { return readCodecHeader(new VCFCodec()); }
+
+    public List<String> sampleNames()
+    {
+        String columnsLine = mHeaderLines.get(mHeaderLines.size() - 1);
+        String[] columns = columnsLine.split("\t", -1);
+        return columns.length > 9 ? Lists.newArrayList(columns).subList(9, columns.length) : Collections.emptyList();
+    }
+
+    @Override
+    public Iterator<VcfRecord> iterator()
+    {
+        checkNotStarted();
+        startDecoding();
+
+        return new Iterator<>()
+        {
+            private DecodedChunk mCurrentChunk = null;
+            private int mRecordIndex = 0;
+            private byte[] mPartialLine = new byte[0];
+            private VcfRecord mJoinedRecord = null; // record from a line spanning two chunks
+            private boolean mFinished = false;
+
+            @Override
+            public boolean hasNext()
+            {
+                while(!mFinished)
+                {
+                    if(mJoinedRecord != null)
+                        return true;
+
+                    if(mCurrentChunk != null && mRecordIndex < mCurrentChunk.Records.size())
+                        return true;
+
+                    nextChunk();
+                }
+
+                return false;
+            }
+
+            @Override
+            public VcfRecord next()
+            {
+                if(!hasNext())
+                    throw new NoSuchElementException();
+
+                if(mJoinedRecord != null)
+                {
+                    VcfRecord record = mJoinedRecord;
+                    mJoinedRecord = null;
+                    return record;
+                }
+
+                return mCurrentChunk.Records.get(mRecordIndex++);
+            }
+
+            private void nextChunk()
+            {
+                DecodedChunk chunk = takeDecodedChunk();
+
+                if(chunk == null)
+                {
+                    // a final line without a line terminator
+                    mFinished = mPartialLine.length == 0;
+                    mJoinedRecord = mPartialLine.length > 0 ? decodeRecord(mPartialLine, 0, mPartialLine.length) : null;
+                    mPartialLine = new byte[0];
+                    mCurrentChunk = null;
+                    return;
+                }
+
+                if(!chunk.HasLineEnd)
+                {
+                    mPartialLine = concat(mPartialLine, chunk.Head);
+                    mCurrentChunk = null;
+                    return;
+                }
+
+                // the chunk's first line completes the line left over from the previous chunk
+                byte[] joinedLine = concat(mPartialLine, chunk.Head);
+                mJoinedRecord = decodeRecord(joinedLine, 0, joinedLine.length);
+                mPartialLine = chunk.Tail;
+                mCurrentChunk = chunk;
+                mRecordIndex = 0;
+            }
+        };
+    }
+
+    @Override
+    public void close()
+    {
+        mClosed = true;
+
+        if(mChunkReaderThread != null)
+        {
+            mChunkReaderThread.interrupt();
+
+            try
+            {
+                mChunkReaderThread.join();
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if(mExecutorService != null)
+            mExecutorService.shutdownNow();
+
+        if(mQueueDepth != null)
+            MetricsRegistry.releaseGauge(QUEUE_METRIC, mQueueDepth);
+
+        try
+        {
+            if(mBlockReader != null)
+                mBlockReader.close();
+
+            if(mInputStream != null)
+                mInputStream.close();
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkNotStarted()
+    {
+        if(mDecodedChunks != null)
+            throw new IllegalStateException("VCF reading already started: " + mFilename);
+    }
+
+    private static boolean isGzipped(final String filename)
+    {
+        return filename.endsWith(".gz") || filename.endsWith(".bgz");
+    }
+
+    private void readHeader() throws IOException
+    {
+        // read chunks until the column header line, keeping them to be decoded as normal
+        byte[] partialLine = new byte[0];
+
+        while(true)
+        {
+            RawChunk chunk = readChunk();
+
+            if(chunk == null)
+                throw new IOException("VCF missing column header line: " + mFilename);
+
+            mHeaderChunks.add(chunk);
+
+            byte[] data = concat(partialLine, chunk.inflate());
+            int lineStart = 0;
+
+            for(int i = 0; i < data.length; ++i)
+            {
+                if(data[i] != '\n')
+                    continue;
+
+                String line = lineString(data, lineStart, i);
+                lineStart = i + 1;
+
+                if(!line.startsWith("#"))
+                    throw new IOException("VCF missing column header line: " + mFilename);
+
+                mHeaderLines.add(line);
+
+                if(line.startsWith("#CHROM"))
+                    return;
+            }
+
+            partialLine = Arrays.copyOfRange(data, lineStart, data.length);
+        }
+    }
+
+    private VCFCodec createCodec()
+    {
+        VCFCodec codec = new VCFCodec();
+        readCodecHeader(codec);
+        return codec;
+    }
+
+    private VCFHeader readCodecHeader(final VCFCodec codec)
+    {
+        String header = String.join("\n", mHeaderLines);
+        return (VCFHeader)codec.readActualHeader(new LineIteratorImpl(new SynchronousLineReader(new StringReader(header))));
+    }
+
+    private void startDecoding()
+    {
+        mCodecs = ThreadLocal.withInitial(this::createCodec);
+        mDecodedChunks = new ArrayBlockingQueue<>(mThreads * CHUNKS_PER_THREAD);
+        mQueueDepth = mDecodedChunks::size;
+        MetricsRegistry.registerGauge(QUEUE_METRIC, mQueueDepth);
+
+        mExecutorService = Executors.newFixedThreadPool(
+                mThreads, new ThreadFactoryBuilder().setNameFormat("vcf-decoder-%d").setDaemon(true).build());
+
+        mChunkReaderThread = new Thread(this::readChunks, "vcf-chunk-reader");
+        mChunkReaderThread.setDaemon(true);
+        mChunkReaderThread.start();
+    }
+
+    private void readChunks()
+    {
+        // submits chunks for decoding in file order, blocking while the queue of decoded chunks is full
+        Throwable failure = null;
+
+        try
+        {
+            for(RawChunk chunk : mHeaderChunks)
+            {
+                mDecodedChunks.put(mExecutorService.submit(() -> decodeChunk(chunk)));
+            }
+
+            mHeaderChunks.clear();
+
+            while(!mClosed)
+            {
+                RawChunk chunk = readChunk();
+
+                if(chunk == null)
+                    break;
+
+                mDecodedChunks.put(mExecutorService.submit(() -> decodeChunk(chunk)));
+            }
+        }
+        catch(InterruptedException e)
+        {
+            if(!mClosed)
+                failure = new InterruptedIOException("interrupted reading VCF: " + mFilename);
+        }
+        catch(Throwable t)
+        {
+            failure = t;
+        }
+        finally
+        {
+            // always end the queue, with any failure ahead of the end marker, so the caller cannot block forever
+            if(!mClosed)
+                putEndOfChunks(failure);
+        }
+    }
+
+    private void putEndOfChunks(@Nullable final Throwable failure)
+    {
+        try
+        {
+            if(failure != null)
+                mDecodedChunks.put(CompletableFuture.failedFuture(failure));
+
+            mDecodedChunks.put(END_OF_CHUNKS);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Nullable
+    private DecodedChunk takeDecodedChunk()
+    {
+        try
+        {
+            Future<DecodedChunk> future = mDecodedChunks.take();
+
+            if(future == END_OF_CHUNKS)
+            {
+                // leave the marker for any further calls
+                mDecodedChunks.put(END_OF_CHUNKS);
+                return null;
+            }
+
+            return future.get();
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted reading VCF: " + mFilename);
+        }
+        catch(ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+
+            if(cause instanceof IOException)
+                throw new UncheckedIOException((IOException)cause);
+
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+
+            if(cause instanceof Error)
+                throw (Error)cause;
+
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Nullable
+    private RawChunk readChunk() throws IOException
+    {
+        if(mIsBgzf)
+        {
+            // group whole compressed blocks up to the chunk size, to be inflated by the decoder
+            List<byte[]> blocks = Lists.newArrayList();
+            int uncompressedSize = 0;
+
+            while(uncompressedSize < CHUNK_SIZE - BgzfBlockReader.MAX_BLOCK_SIZE)
+            {
+                byte[] block = mBlockReader.nextBlock();
+
+                if(block == null)
+                    break;
+
+                blocks.add(block);
+                uncompressedSize += BgzfBlockReader.uncompressedSize(block);
+            }
+
+            return blocks.isEmpty() ? null : new RawChunk(null, blocks, uncompressedSize);
+        }
+
+        byte[] data = new byte[CHUNK_SIZE];
+        int length = 0;
+
+        while(length < CHUNK_SIZE)
+        {
+            int bytesRead = mInputStream.read(data, length, CHUNK_SIZE - length);
+
+            if(bytesRead < 0)
+                break;
+
+            length += bytesRead;
+        }
+
+        if(length == 0)
+            return null;
+
+        return new RawChunk(length < CHUNK_SIZE ? Arrays.copyOf(data, length) : data, null, length);
+    }
+
+    private DecodedChunk decodeChunk(final RawChunk chunk) throws IOException
+    {
+        byte[] data = chunk.inflate();
+
+        int firstLineEnd = indexOf(data, 0, data.length);
+
+        if(firstLineEnd < 0)
+            return new DecodedChunk(data, false, Collections.emptyList(), null);
+
+        int lastLineEnd = firstLineEnd;
+
+        for(int i = data.length - 1; i > firstLineEnd; --i)
+        {
+            if(data[i] == '\n')
+            {
+                lastLineEnd = i;
+                break;
+            }
+        }
+
+        // the first line may continue a line from the previous chunk, and the last may continue into the next chunk
+        byte[] head = Arrays.copyOfRange(data, 0, firstLineEnd);
+        byte[] tail = Arrays.copyOfRange(data, lastLineEnd + 1, data.length);
+
+        List<VcfRecord> records = Lists.newArrayList();
+        int lineStart = firstLineEnd + 1;
+
+        while(lineStart < lastLineEnd)
+        {
+            int lineEnd = indexOf(data, lineStart, lastLineEnd + 1);
+
+            VcfRecord record = decodeRecord(data, lineStart, lineEnd);
+
+            if(record != null)
+                records.add(record);
+
+            lineStart = lineEnd + 1;
+        }
+
+        return new DecodedChunk(head, true, records, tail);
+    }
+
+    @Nullable
+    private VcfRecord decodeRecord(final byte[] data, int lineStart, int lineEnd)
+    {
+        if(lineEnd > lineStart && data[lineEnd - 1] == '\r')
+            --lineEnd;
+
+        if(lineEnd == lineStart || data[lineStart] == '#')
+            return null;
+
+        VcfRecord record = VcfRecord.fromLine(lineString(data, lineStart, lineEnd), mChromosomeCache);
+
+        if(mRecordFilter != null && !mRecordFilter.test(record))
+            return null;
+
+        if(mMaterialiseVariants)
+            record.setVariantContext(mCodecs.get().decode(record.line()));
+
+        mRecordsRead.increment();
+        return record;
+    }
+
+    private static String lineString(final byte[] data, int start, int end)
+    {
+        // VCF lines are ASCII, which decodes directly to a compact String
+        return new String(data, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+
+    private static int indexOf(final byte[] data, int start, int end)
+    {
+        for(int i = start; i < end; ++i)
+        {
+            if(data[i] == '\n')
+                return i;
+        }
+
+        return -1;
+    }
+
+    private static byte[] concat(final byte[] first, final byte[] second)
+    {
+        if(first.length == 0)
+            return second;
+
+        byte[] joined = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        return joined;
+    }
+
+    private static class RawChunk
+    {
+        private final byte[] mData; // uncompressed data, or null for compressed blocks
+        private final List<byte[]> mBlocks;
+        private final int mUncompressedSize;
+
+        public RawChunk(@Nullable final byte[] data, @Nullable final List<byte[]> blocks, int uncompressedSize)
+        {
+            mData = data;
+            mBlocks = blocks;
+            mUncompressedSize = uncompressedSize;
+        }
+
+        public byte[] inflate() throws IOException
+        {
+            if(mData != null)
+                return mData;
+
+            byte[] data = new byte[mUncompressedSize];
+            int offset = 0;
+            Inflater inflater = new Inflater(true);
+
+            try
+            {
+                for(byte[] block : mBlocks)
+                {
+                    offset += BgzfBlockReader.inflateBlock(block, inflater, data, offset);
+                }
+            }
+            finally
+            {
+                inflater.end();
+            }
+
+            return data;
+        }
+    }
+
+    private static class DecodedChunk
+    {
+        public final byte[] Head; // up to the first line end, or the whole chunk if it has none
+        public final boolean HasLineEnd;
+        public final List<VcfRecord> Records;
+        public final byte[] Tail; // after the last line end
+
+        public DecodedChunk(final byte[] head, boolean hasLineEnd, final List<VcfRecord> records, @Nullable final byte[] tail)
+        {
+            Head = head;
+            HasLineEnd = hasLineEnd;
+            Records = records;
+            Tail = tail;
+        }
+    }
+}
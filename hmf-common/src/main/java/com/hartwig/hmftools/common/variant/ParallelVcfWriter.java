@@ -0,0 +1,401 @@
+package com.hartwig.hmftools.common.variant;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+import java.util.zip.Deflater;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hartwig.hmftools.common.utils.file.BgzfBlockWriter;
+import com.hartwig.hmftools.common.utils.metrics.Counter;
+import com.hartwig.hmftools.common.utils.metrics.MetricsRegistry;
+
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.tribble.index.Index;
+import htsjdk.tribble.index.tabix.TabixFormat;
+import htsjdk.tribble.index.tabix.TabixIndexCreator;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.writer.VariantContextWriter;
+import htsjdk.variant.vcf.VCFEncoder;
+import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderLine;
+import htsjdk.variant.vcf.VCFHeaderVersion;
+
+/**
+ * Writes a VCF with records encoded and compressed on a pool of threads.
+ *
+ * Records are collected into batches, and each batch is encoded and compressed into independent BGZF blocks by a worker thread.
+ * A writer thread writes the blocks in the order the batches were added and builds the tabix index as it goes. Files not ending
+ * in .gz are written uncompressed and without an index.
+ *
+ * Variant contexts must not be modified once added, since they are encoded later on another thread.
+ */
+public class ParallelVcfWriter implements VariantContextWriter
+{
+    private final String mFilename;
+    private final boolean mCompress;
+    private final SAMSequenceDictionary mSequenceDictionary;
+
+    private final OutputStream mOutputStream;
+    private final ExecutorService mExecutorService;
+    private final BlockingQueue<Future<EncodedBatch>> mEncodedBatches;
+    private final LongSupplier mQueueDepth; // registered as a gauge while writing
+    private final Counter mRecordsWritten;
+    private final Thread mWriterThread;
+    private final ThreadLocal<Deflater> mDeflaters;
+
+    private VCFHeader mHeader;
+    private ThreadLocal<VCFEncoder> mEncoders;
+    private List<VariantContext> mCurrentBatch;
+
+    private TabixIndexCreator mIndexCreator;
+    private long mCompressedPosition; // of the next block to be written
+    private volatile Exception mWriteException;
+    private boolean mClosed;
+
+    private static final int BATCH_SIZE = 2000;
+    private static final int BATCHES_PER_THREAD = 2;
+
+    private static final String QUEUE_METRIC = "VcfWriterQueue";
+    private static final String RECORDS_WRITTEN_METRIC = "VcfRecordsWritten";
+
+    private static final Future<EncodedBatch> END_OF_BATCHES = CompletableFuture.completedFuture(null);
+
+    public ParallelVcfWriter(final String filename, int threads, @Nullable final SAMSequenceDictionary sequenceDictionary)
+    {
+        mFilename = filename;
+        mCompress = filename.endsWith(".gz");
+        mSequenceDictionary = sequenceDictionary;
+
+        try
+        {
+            mOutputStream = new BufferedOutputStream(new FileOutputStream(filename), 1 << 20);
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        int workerThreads = max(threads, 1);
+
+        mExecutorService = Executors.newFixedThreadPool(
+                workerThreads, new ThreadFactoryBuilder().setNameFormat("vcf-encoder-%d").setDaemon(true).build());
+
+        mEncodedBatches = new ArrayBlockingQueue<>(workerThreads * BATCHES_PER_THREAD);
+        mQueueDepth = mEncodedBatches::size;
+        MetricsRegistry.registerGauge(QUEUE_METRIC, mQueueDepth);
+        mRecordsWritten = MetricsRegistry.counter(RECORDS_WRITTEN_METRIC);
+        mDeflaters = ThreadLocal.withInitial(BgzfBlockWriter::createDeflater);
+
+        mHeader = null;
+        mEncoders = null;
+        mCurrentBatch = Lists.newArrayListWithCapacity(BATCH_SIZE);
+        mIndexCreator = null;
+        mCompressedPosition = 0;
+        mWriteException = null;
+        mClosed = false;
+
+        mWriterThread = new Thread(this::writeBatches, "vcf-writer");
+        mWriterThread.setDaemon(true);
+        mWriterThread.start();
+    }
+
+    @Override
+    public void writeHeader(final VCFHeader header)
+    {
+        setHeader(header);
+        submitBatch(Lists.newArrayList(), encodeHeader(header));
+    }
+
+    @Override
+    public void setHeader(final VCFHeader header)
+    {
+        if(mHeader != null)
+            throw new IllegalStateException("VCF header already set: " + mFilename);
+
+        mHeader = header;
+
+        // matches the defaults of htsjdk's VCF writer
+        mEncoders = ThreadLocal.withInitial(() -> new VCFEncoder(header, false, false));
+
+        SAMSequenceDictionary dictionary = mSequenceDictionary != null ? mSequenceDictionary : header.getSequenceDictionary();
+
+        if(mCompress)
+        {
+            mIndexCreator = dictionary != null
+                    ? new TabixIndexCreator(dictionary, TabixFormat.VCF) : new TabixIndexCreator(TabixFormat.VCF);
+        }
+    }
+
+    @Override
+    public void add(final VariantContext variant)
+    {
+        if(mHeader == null)
+            throw new IllegalStateException("VCF header must be set before adding variants: " + mFilename);
+
+        mCurrentBatch.add(variant);
+
+        if(mCurrentBatch.size() >= BATCH_SIZE)
+        {
+            submitBatch(mCurrentBatch, null);
+            mCurrentBatch = Lists.newArrayListWithCapacity(BATCH_SIZE);
+        }
+    }
+
+    @Override
+    public boolean checkError() { return mWriteException != null; }
+
+    @Override
+    public void close()
+    {
+        if(mClosed)
+            return;
+
+        mClosed = true;
+
+        if(!mCurrentBatch.isEmpty())
+            submitBatch(mCurrentBatch, null);
+
+        putBatch(END_OF_BATCHES);
+
+        try
+        {
+            mWriterThread.join();
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        mExecutorService.shutdown();
+        MetricsRegistry.releaseGauge(QUEUE_METRIC, mQueueDepth);
+
+        try
+        {
+            if(mWriteException == null && mCompress)
+                mOutputStream.write(BgzfBlockWriter.EOF_BLOCK);
+
+            mOutputStream.close();
+
+            if(mWriteException == null && mIndexCreator != null)
+            {
+                // the end of the records is the start of the EOF block
+                Index index = mIndexCreator.finalizeIndex(mCompressedPosition << 16);
+                index.writeBasedOnFeatureFile(new File(mFilename));
+            }
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        if(mWriteException != null)
+        {
+            if(mWriteException instanceof IOException)
+                throw new UncheckedIOException((IOException)mWriteException);
+
+            throw new IllegalStateException("failed to write VCF: " + mFilename, mWriteException);
+        }
+    }
+
+    private byte[] encodeHeader(final VCFHeader header)
+    {
+        // as written by htsjdk, with the file format line first and the column header line last
+        StringBuilder sb = new StringBuilder();
+        VCFHeaderVersion version = VCFHeaderVersion.VCF4_2;
+        sb.append("##").append(version.getFormatString()).append('=').append(version.getVersionString()).append('\n');
+
+        for(VCFHeaderLine line : header.getMetaDataInInputOrder())
+        {
+            if(VCFHeaderVersion.isFormatString(line.getKey()))
+                continue;
+
+            sb.append("##").append(line.toString()).append('\n');
+        }
+
+        sb.append('#');
+
+        for(VCFHeader.HEADER_FIELDS field : VCFHeader.HEADER_FIELDS.values())
+        {
+            if(field != VCFHeader.HEADER_FIELDS.CHROM)
+                sb.append('\t');
+
+            sb.append(field);
+        }
+
+        if(header.hasGenotypingData())
+        {
+            sb.append("\tFORMAT");
+            header.getGenotypeSamples().forEach(x -> sb.append('\t').append(x));
+        }
+
+        sb.append('\n');
+
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void submitBatch(final List<VariantContext> variants, @Nullable final byte[] encodedHeader)
+    {
+        if(mWriteException != null)
+            throw new IllegalStateException("failed to write VCF: " + mFilename, mWriteException);
+
+        putBatch(mExecutorService.submit(() -> encodeBatch(variants, encodedHeader)));
+    }
+
+    private void putBatch(final Future<EncodedBatch> batch)
+    {
+        try
+        {
+            // blocks while the writer is behind, limiting the batches held in memory
+            mEncodedBatches.put(batch);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted writing VCF: " + mFilename);
+        }
+    }
+
+    private EncodedBatch encodeBatch(final List<VariantContext> variants, @Nullable final byte[] encodedHeader)
+    {
+        ByteArrayOutputStream data = new ByteArrayOutputStream(encodedHeader != null ? encodedHeader.length : variants.size() * 256);
+        int[] recordOffsets = new int[variants.size()];
+
+        if(encodedHeader != null)
+            data.write(encodedHeader, 0, encodedHeader.length);
+
+        VCFEncoder encoder = mEncoders.get();
+
+        for(int i = 0; i < variants.size(); ++i)
+        {
+            recordOffsets[i] = data.size();
+
+            byte[] line = encoder.encode(variants.get(i)).getBytes(StandardCharsets.UTF_8);
+            data.write(line, 0, line.length);
+            data.write('\n');
+        }
+
+        byte[] uncompressed = data.toByteArray();
+
+        if(!mCompress)
+            return new EncodedBatch(variants, recordOffsets, Lists.newArrayList(uncompressed));
+
+        List<byte[]> blocks = Lists.newArrayList();
+        Deflater deflater = mDeflaters.get();
+
+        for(int offset = 0; offset < uncompressed.length; offset += BgzfBlockWriter.MAX_BLOCK_DATA_SIZE)
+        {
+            int length = min(BgzfBlockWriter.MAX_BLOCK_DATA_SIZE, uncompressed.length - offset);
+            blocks.add(BgzfBlockWriter.compressBlock(uncompressed, offset, length, deflater));
+        }
+
+        return new EncodedBatch(variants, recordOffsets, blocks);
+    }
+
+    private void writeBatches()
+    {
+        try
+        {
+            while(true)
+            {
+                EncodedBatch batch = mEncodedBatches.take().get();
+
+                if(batch == null)
+                    return;
+
+                writeBatch(batch);
+                mRecordsWritten.add(batch.Variants.size());
+            }
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch(ExecutionException e)
+        {
+            mWriteException = e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
+            drainBatches();
+        }
+        catch(IOException | RuntimeException e)
+        {
+            mWriteException = e;
+            drainBatches();
+        }
+    }
+
+    private void drainBatches()
+    {
+        // keep taking batches so the caller is never blocked, until the end marker
+        try
+        {
+            while(mEncodedBatches.take() != END_OF_BATCHES) {}
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeBatch(final EncodedBatch batch) throws IOException
+    {
+        if(!mCompress)
+        {
+            mOutputStream.write(batch.Blocks.get(0));
+            return;
+        }
+
+        // each record's index position is its block's compressed position and its offset within the uncompressed block
+        int recordIndex = 0;
+
+        for(int blockIndex = 0; blockIndex < batch.Blocks.size(); ++blockIndex)
+        {
+            int blockDataStart = blockIndex * BgzfBlockWriter.MAX_BLOCK_DATA_SIZE;
+            int blockDataEnd = blockDataStart + BgzfBlockWriter.MAX_BLOCK_DATA_SIZE;
+
+            while(mIndexCreator != null && recordIndex < batch.Variants.size() && batch.RecordOffsets[recordIndex] < blockDataEnd)
+            {
+                long filePointer = (mCompressedPosition << 16) | (batch.RecordOffsets[recordIndex] - blockDataStart);
+                mIndexCreator.addFeature(batch.Variants.get(recordIndex), filePointer);
+                ++recordIndex;
+            }
+
+            byte[] block = batch.Blocks.get(blockIndex);
+            mOutputStream.write(block);
+            mCompressedPosition += block.length;
+        }
+    }
+
+    private static class EncodedBatch
+    {
+        public final List<VariantContext> Variants;
+        public final int[] RecordOffsets; // start of each record in the batch's uncompressed data
+        public final List<byte[]> Blocks;
+
+        public EncodedBatch(final List<VariantContext> variants, final int[] recordOffsets, final List<byte[]> blocks)
+        {
+            Variants = variants;
+            RecordOffsets = recordOffsets;
+            Blocks = blocks;
+        }
+    }
+}
@@ -118,6 +118,9 @@ public class VcfFileReader
         }
     }
 
+    // decodes records on multiple threads into lightweight records, materialising variant contexts only if requested
+    public ParallelVcfReader parallelReader(int threads) { return new ParallelVcfReader(mFilename, threads); }
+
     @Nullable
     public VariantContext nextVariant() { return iterator().next(); }
 
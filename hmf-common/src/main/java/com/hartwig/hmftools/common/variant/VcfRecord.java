@@ -0,0 +1,270 @@
+package com.hartwig.hmftools.common.variant;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.variant.variantcontext.VariantContext;
+
+// a VCF data line with its fixed fields decoded and INFO and sample fields parsed on first use
+public class VcfRecord
+{
+    public final String Chromosome;
+    public final int Position;
+    public final String Ref;
+    public final String Alt; // comma-separated if multi-allelic
+
+    private final String mLine;
+    private final int[] mFixedColumnStarts; // start of each column up to and including INFO
+
+    private Map<String,String> mInfo;
+    private List<String> mFormatKeys;
+    private int[] mSampleColumnStarts;
+
+    private VariantContext mVariantContext;
+
+    private static final int COL_ID = 2;
+    private static final int COL_QUAL = 5;
+    private static final int COL_FILTER = 6;
+    private static final int COL_INFO = 7;
+    private static final int FIXED_COLUMNS = 8;
+
+    private static final String MISSING_VALUE = ".";
+    private static final String PASS_FILTER = "PASS";
+
+    public VcfRecord(final String line, final String chromosome, final int[] fixedColumnStarts)
+    {
+        mLine = line;
+        mFixedColumnStarts = fixedColumnStarts;
+        Chromosome = chromosome;
+        Position = Integer.parseInt(column(1));
+        Ref = column(3);
+        Alt = column(4);
+
+        mInfo = null;
+        mFormatKeys = null;
+        mSampleColumnStarts = null;
+        mVariantContext = null;
+    }
+
+    public static VcfRecord fromLine(final String line, final Map<String,String> chromosomeCache)
+    {
+        int[] columnStarts = new int[FIXED_COLUMNS + 1];
+        int column = 0;
+
+        for(int i = 0; i < line.length() && column < FIXED_COLUMNS; ++i)
+        {
+            if(line.charAt(i) == '\t')
+                columnStarts[++column] = i + 1;
+        }
+
+        if(column < COL_INFO)
+            throw new IllegalArgumentException("invalid VCF line: " + line);
+
+        // the end of the INFO column, or the end of the line if there are no sample columns
+        columnStarts[FIXED_COLUMNS] = column == FIXED_COLUMNS ? columnStarts[FIXED_COLUMNS] : line.length() + 1;
+
+        String chromosome = line.substring(0, columnStarts[1] - 1);
+        String cachedChromosome = chromosomeCache.putIfAbsent(chromosome, chromosome);
+
+        return new VcfRecord(line, cachedChromosome != null ? cachedChromosome : chromosome, columnStarts);
+    }
+
+    public String line() { return mLine; }
+
+    public String id() { return column(COL_ID); }
+
+    public List<String> alts()
+    {
+        return Alt.equals(MISSING_VALUE) ? Collections.emptyList() : Arrays.asList(Alt.split(",", -1));
+    }
+
+    @Nullable
+    public Double qual()
+    {
+        String qual = column(COL_QUAL);
+        return qual.equals(MISSING_VALUE) ? null : Double.parseDouble(qual);
+    }
+
+    public String filter() { return column(COL_FILTER); }
+
+    // unfiltered, matching VariantContext.isNotFiltered
+    public boolean isPass()
+    {
+        String filter = filter();
+        return filter.equals(PASS_FILTER) || filter.equals(MISSING_VALUE);
+    }
+
+    public List<String> filters()
+    {
+        return isPass() ? Collections.emptyList() : Arrays.asList(filter().split(";", -1));
+    }
+
+    public boolean hasInfo(final String key) { return info().containsKey(key); }
+
+    // flags have an empty value, and absent keys return null
+    @Nullable
+    public String getInfo(final String key) { return info().get(key); }
+
+    public String getInfo(final String key, final String defaultValue)
+    {
+        String value = info().get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public int getInfoInt(final String key, int defaultValue)
+    {
+        String value = info().get(key);
+        return value != null && !value.isEmpty() && !value.equals(MISSING_VALUE) ? Integer.parseInt(value) : defaultValue;
+    }
+
+    public double getInfoDouble(final String key, double defaultValue)
+    {
+        String value = info().get(key);
+        return value != null && !value.isEmpty() && !value.equals(MISSING_VALUE) ? Double.parseDouble(value) : defaultValue;
+    }
+
+    public List<String> getInfoList(final String key)
+    {
+        String value = info().get(key);
+        return value == null || value.isEmpty() ? Collections.emptyList() : Arrays.asList(value.split(",", -1));
+    }
+
+    public Map<String,String> info()
+    {
+        if(mInfo != null)
+            return mInfo;
+
+        String info = column(COL_INFO);
+        mInfo = Maps.newHashMap();
+
+        if(info.equals(MISSING_VALUE))
+            return mInfo;
+
+        int start = 0;
+
+        while(start <= info.length())
+        {
+            int end = info.indexOf(';', start);
+
+            if(end < 0)
+                end = info.length();
+
+            if(end > start)
+            {
+                int equalsIndex = info.indexOf('=', start);
+
+                if(equalsIndex < 0 || equalsIndex > end)
+                    mInfo.put(info.substring(start, end), "");
+                else
+                    mInfo.put(info.substring(start, equalsIndex), info.substring(equalsIndex + 1, end));
+            }
+
+            start = end + 1;
+        }
+
+        return mInfo;
+    }
+
+    public int sampleCount()
+    {
+        parseSampleColumns();
+        return mSampleColumnStarts.length - 1;
+    }
+
+    public List<String> formatKeys()
+    {
+        parseSampleColumns();
+        return mFormatKeys;
+    }
+
+    // the value of a FORMAT field for the sample at the given ordinal, or null if absent or missing
+    @Nullable
+    public String getGenotypeField(int sampleOrdinal, final String key)
+    {
+        parseSampleColumns();
+
+        int keyIndex = mFormatKeys.indexOf(key);
+
+        if(keyIndex < 0 || sampleOrdinal >= mSampleColumnStarts.length - 1)
+            return null;
+
+        int start = mSampleColumnStarts[sampleOrdinal];
+        int end = mSampleColumnStarts[sampleOrdinal + 1] - 1;
+
+        for(int i = 0; i < keyIndex; ++i)
+        {
+            int nextField = mLine.indexOf(':', start);
+
+            if(nextField < 0 || nextField >= end)
+                return null; // trailing fields may be dropped
+
+            start = nextField + 1;
+        }
+
+        int fieldEnd = mLine.indexOf(':', start);
+        String value = mLine.substring(start, fieldEnd < 0 || fieldEnd > end ? end : fieldEnd);
+        return value.equals(MISSING_VALUE) ? null : value;
+    }
+
+    public boolean hasVariantContext() { return mVariantContext != null; }
+
+    public VariantContext variantContext()
+    {
+        if(mVariantContext == null)
+            throw new IllegalStateException("variant context not decoded for record: " + this);
+
+        return mVariantContext;
+    }
+
+    void setVariantContext(final VariantContext variantContext) { mVariantContext = variantContext; }
+
+    private void parseSampleColumns()
+    {
+        if(mSampleColumnStarts != null)
+            return;
+
+        mFormatKeys = Collections.emptyList();
+
+        if(mFixedColumnStarts[FIXED_COLUMNS] > mLine.length())
+        {
+            mSampleColumnStarts = new int[] { mLine.length() + 1 };
+            return;
+        }
+
+        // tab-delimited FORMAT column, then one column per sample
+        int formatStart = mFixedColumnStarts[FIXED_COLUMNS];
+        int formatEnd = mLine.indexOf('\t', formatStart);
+
+        if(formatEnd < 0)
+            formatEnd = mLine.length();
+
+        mFormatKeys = Arrays.asList(mLine.substring(formatStart, formatEnd).split(":", -1));
+
+        List<Integer> sampleStarts = Lists.newArrayList();
+        int index = formatEnd;
+
+        while(index < mLine.length())
+        {
+            sampleStarts.add(index + 1);
+            int next = mLine.indexOf('\t', index + 1);
+            index = next < 0 ? mLine.length() : next;
+        }
+
+        sampleStarts.add(mLine.length() + 1);
+        mSampleColumnStarts = sampleStarts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private String column(int column)
+    {
+        return mLine.substring(mFixedColumnStarts[column], mFixedColumnStarts[column + 1] - 1);
+    }
+
+    public String toString() { return String.format("%s:%d %s>%s", Chromosome, Position, Ref, Alt); }
+}
@@ -0,0 +1,212 @@
+package com.hartwig.hmftools.common.aligner;
+
+import static junit.framework.TestCase.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class StripedAlignmentKernelTest
+{
+    private static final int[][] SCORINGS = {
+            { 1, -4, -6, -1 },
+            { 2, -1, -2, -1 },
+            { 1, -3, -2, -1 },
+            { 2, -3, -5, -2 },
+            { 1, -1, -1, -1 },
+            { 2, -2, -2, -3 }
+    };
+
+    @Test
+    public void testExhaustiveShortSequences()
+    {
+        // every pair of sequences up to length 3 over all bases, and up to length 5 over two bases
+        List<String> sequences = Lists.newArrayList();
+        addAllSequences(sequences, "ACGT", 3);
+
+        List<String> twoBaseSequences = Lists.newArrayList();
+        addAllSequences(twoBaseSequences, "AT", 5);
+
+        for(int[] scoring : SCORINGS)
+        {
+            Aligners aligners = new Aligners(scoring);
+
+            for(String seq : sequences)
+            {
+                for(String refSeq : sequences)
+                {
+                    aligners.checkEquivalent(seq, refSeq);
+                }
+            }
+
+            for(String seq : twoBaseSequences)
+            {
+                for(String refSeq : twoBaseSequences)
+                {
+                    aligners.checkEquivalent(seq, refSeq);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRandomSequences()
+    {
+        // longer sequences to cover multiple segments per lane and the lazy insert loop across lane boundaries
+        Random random = new Random(42);
+
+        for(int[] scoring : SCORINGS)
+        {
+            Aligners aligners = new Aligners(scoring);
+
+            for(int i = 0; i < 150; ++i)
+            {
+                String refSeq = randomSequence(random, 1 + random.nextInt(120));
+                String seq = mutateSequence(random, refSeq);
+
+                aligners.checkEquivalent(seq, refSeq);
+                aligners.checkEquivalent(refSeq, seq);
+                aligners.checkEquivalent(seq, randomSequence(random, 1 + random.nextInt(120)));
+            }
+        }
+    }
+
+    @Test
+    public void testBandedAlignment()
+    {
+        // an alignment within the band is unchanged by banding
+        LocalSequenceAligner localAligner = new LocalSequenceAligner();
+        GlobalSequenceAligner globalAligner = new GlobalSequenceAligner();
+
+        String seq =    "TTAGGGTTAGGGTTAGCGTTAGGGTTAGGG";
+        String refSeq = "TTAGGGTTAGGGTTAGGGTTAGGGTTAGGG";
+
+        int localScore = localAligner.alignScore(seq, refSeq);
+        String globalOps = globalAligner.alignSequence(seq, refSeq).getOperatorsString();
+
+        localAligner.setBandWidth(2);
+        globalAligner.setBandWidth(2);
+
+        assertEquals(localScore, localAligner.alignScore(seq, refSeq));
+        assertEquals(globalOps, globalAligner.alignSequence(seq, refSeq).getOperatorsString());
+
+        // a delete and a later insert move the alignment off the main diagonal, which a band width of 0 does not allow
+        seq =    "TTAGGGTTAGGGTTAGGGCCTTAGGG";
+        refSeq = "TTAGGGAATTAGGGTTAGGGTTAGGG";
+
+        globalAligner.setBandWidth(AlignerTraits.NO_BAND);
+        assertEquals("MMMMMM--MMMMMMMMMMMM++MMMMMM", globalAligner.alignSequence(seq, refSeq).getOperatorsString());
+
+        globalAligner.setBandWidth(0);
+        assertEquals("MMMMMMSSSSSMSSSSSMSSMMMMMM", globalAligner.alignSequence(seq, refSeq).getOperatorsString());
+    }
+
+    private static class Aligners
+    {
+        private final LocalSequenceAligner mLocal;
+        private final LocalSequenceAligner mLocalStriped;
+        private final GlobalSequenceAligner mGlobal;
+        private final GlobalSequenceAligner mGlobalStriped;
+        private final GlobalSequenceAligner mGlobalBanded;
+
+        public Aligners(final int[] scoring)
+        {
+            mLocal = new LocalSequenceAligner(scoring[0], scoring[1], scoring[2], scoring[3]);
+            mLocalStriped = new LocalSequenceAligner(scoring[0], scoring[1], scoring[2], scoring[3]);
+            mLocalStriped.setStriped(true);
+
+            mGlobal = new GlobalSequenceAligner(scoring[0], scoring[1], scoring[2], scoring[3]);
+            mGlobalStriped = new GlobalSequenceAligner(scoring[0], scoring[1], scoring[2], scoring[3]);
+            mGlobalStriped.setStriped(true);
+
+            // a band covering every cell
+            mGlobalBanded = new GlobalSequenceAligner(scoring[0], scoring[1], scoring[2], scoring[3]);
+            mGlobalBanded.setBandWidth(1000);
+        }
+
+        public void checkEquivalent(final String seq, final String refSeq)
+        {
+            LocalSequenceAligner.Alignment expected = mLocal.alignSequence(seq, refSeq);
+            LocalSequenceAligner.Alignment actual = mLocalStriped.alignSequence(seq, refSeq);
+
+            String info = String.format("seq(%s) refSeq(%s)", seq, refSeq);
+            assertEquals(info, expected.getOperatorsString(), actual.getOperatorsString());
+            assertEquals(info, expected.getScore(), actual.getScore());
+            assertEquals(info, expected.getFirstSequenceAlignStart(), actual.getFirstSequenceAlignStart());
+            assertEquals(info, expected.getFirstSequenceAlignEnd(), actual.getFirstSequenceAlignEnd());
+            assertEquals(info, expected.getSecondSequenceAlignStart(), actual.getSecondSequenceAlignStart());
+            assertEquals(info, expected.getSecondSequenceAlignEnd(), actual.getSecondSequenceAlignEnd());
+            assertEquals(info, expected.getScore(), mLocalStriped.alignScore(seq, refSeq));
+            assertEquals(info, expected.getScore(), mLocal.alignScore(seq, refSeq));
+
+            GlobalSequenceAligner.Alignment expectedGlobal = mGlobal.alignSequence(seq, refSeq);
+            GlobalSequenceAligner.Alignment actualGlobal = mGlobalStriped.alignSequence(seq, refSeq);
+
+            assertEquals(info, expectedGlobal.getOperatorsString(), actualGlobal.getOperatorsString());
+            assertEquals(info, expectedGlobal.getScore(), actualGlobal.getScore());
+            assertEquals(info, expectedGlobal.getScore(), mGlobalStriped.alignScore(seq, refSeq));
+
+            GlobalSequenceAligner.Alignment bandedGlobal = mGlobalBanded.alignSequence(seq, refSeq);
+            assertEquals(info, expectedGlobal.getOperatorsString(), bandedGlobal.getOperatorsString());
+            assertEquals(info, expectedGlobal.getScore(), bandedGlobal.getScore());
+        }
+    }
+
+    private static void addAllSequences(final List<String> sequences, final String bases, int maxLength)
+    {
+        List<String> current = Lists.newArrayList("");
+
+        for(int length = 1; length <= maxLength; ++length)
+        {
+            List<String> next = Lists.newArrayList();
+
+            for(String seq : current)
+            {
+                for(int b = 0; b < bases.length(); ++b)
+                {
+                    next.add(seq + bases.charAt(b));
+                }
+            }
+
+            sequences.addAll(next);
+            current = next;
+        }
+    }
+
+    private static String randomSequence(final Random random, int length)
+    {
+        StringBuilder sb = new StringBuilder(length);
+
+        for(int i = 0; i < length; ++i)
+        {
+            sb.append("ACGT".charAt(random.nextInt(4)));
+        }
+
+        return sb.toString();
+    }
+
+    private static String mutateSequence(final Random random, final String seq)
+    {
+        // apply a few substitutions, inserts and deletes
+        StringBuilder sb = new StringBuilder(seq);
+        int mutations = random.nextInt(6);
+
+        for(int i = 0; i < mutations && sb.length() > 1; ++i)
+        {
+            int index = random.nextInt(sb.length());
+            int type = random.nextInt(3);
+
+            if(type == 0)
+                sb.setCharAt(index, "ACGT".charAt(random.nextInt(4)));
+            else if(type == 1)
+                sb.insert(index, randomSequence(random, 1 + random.nextInt(4)));
+            else
+                sb.delete(index, Math.min(sb.length() - 1, index + 1 + random.nextInt(4)));
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,67 @@
+package com.hartwig.hmftools.common.amber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+import org.junit.Test;
+
+public class AmberSitesBinaryFileTest
+{
+    @Test
+    public void testWriteAndLoad() throws IOException
+    {
+        Map<String,List<AmberSite>> chrSites = Maps.newLinkedHashMap();
+
+        chrSites.put("1", Lists.newArrayList(
+                new AmberSite("1", 100, "A", "G", false),
+                new AmberSite("1", 250, "C", "T", true),
+                new AmberSite("1", 900, "G", "A", false)));
+
+        chrSites.put("X", Lists.newArrayList(new AmberSite("X", 5000, "T", "C", false)));
+
+        File binaryFile = File.createTempFile("amber_sites", ".bin");
+        binaryFile.deleteOnExit();
+
+        AmberSitesBinaryFile.write(binaryFile.getPath(), chrSites);
+        assertTrue(AmberSitesBinaryFile.isBinaryFile(binaryFile.getPath()));
+
+        MappedAmberSites mappedSites = AmberSitesBinaryFile.load(binaryFile.getPath());
+        assertEquals(4, mappedSites.totalSiteCount());
+        assertEquals(3, mappedSites.siteCount("1"));
+        assertEquals(250, mappedSites.position("1", 1));
+        assertEquals('C', mappedSites.ref("1", 1));
+        assertEquals('T', mappedSites.alt("1", 1));
+        assertTrue(mappedSites.snpCheck("1", 1));
+        assertFalse(mappedSites.snpCheck("1", 2));
+
+        assertEquals(1, mappedSites.findSiteIndex("1", 101));
+        assertEquals(1, mappedSites.findSiteIndex("1", 250));
+        assertEquals(3, mappedSites.findSiteIndex("1", 1000));
+
+        ListMultimap<Chromosome,AmberSite> sitesMap = AmberSitesFile.sites(binaryFile.getPath());
+        assertEquals(chrSites.get("1"), sitesMap.get(HumanChromosome._1));
+        assertEquals(chrSites.get("X"), sitesMap.get(HumanChromosome._X));
+
+        Map<Chromosome,List<AmberSite>> siteViews = AmberSitesFile.chromosomeSites(binaryFile.getPath());
+        assertEquals(2, siteViews.size());
+        assertEquals(chrSites.get("1"), siteViews.get(HumanChromosome._1));
+        assertEquals(chrSites.get("X"), siteViews.get(HumanChromosome._X));
+
+        // chromosomes not in the file have no sites
+        assertTrue(mappedSites.sites("2").isEmpty());
+        assertEquals(0, mappedSites.siteCount("2"));
+        assertEquals(0, mappedSites.findSiteIndex("2", 100));
+    }
+}
@@ -1,12 +1,18 @@
 package com.hartwig.hmftools.common.genome.gc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 
 import com.google.common.collect.Multimap;
 import com.google.common.io.Resources;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 
 import org.junit.Test;
 
@@ -20,4 +26,45 @@ public class GCProfileFactoryTest
         final Multimap<Chromosome, GCProfile> gcContent = GCProfileFactory.loadGCContent(1000, GC_PROFILE_PATH);
         assertEquals(100, gcContent.size());
     }
+
+    @Test
+    public void canLoadBinaryFile() throws IOException
+    {
+        File binaryFile = File.createTempFile("gc_profile", ".bin");
+        binaryFile.deleteOnExit();
+
+        GcProfileBinaryFile.write(binaryFile.getPath(), 1000, GCProfileFactory.loadChrGcProfileMap(GC_PROFILE_PATH));
+        assertTrue(GcProfileBinaryFile.isBinaryFile(binaryFile.getPath()));
+        assertFalse(GcProfileBinaryFile.isBinaryFile(GC_PROFILE_PATH));
+
+        final Multimap<Chromosome, GCProfile> textProfiles = GCProfileFactory.loadGCContent(1000, GC_PROFILE_PATH);
+        final Multimap<Chromosome, GCProfile> binaryProfiles = GCProfileFactory.loadGCContent(1000, binaryFile.getPath());
+        assertEquals(textProfiles, binaryProfiles);
+
+        MappedGcProfiles mappedProfiles = GcProfileBinaryFile.load(binaryFile.getPath(), 1000);
+        GCProfile firstProfile = textProfiles.values().iterator().next();
+        int index = mappedProfiles.findWindowIndex(firstProfile.chromosome(), firstProfile.start() + 10);
+        assertEquals(0, index);
+        assertEquals(firstProfile.gcContent(), mappedProfiles.gcContent(firstProfile.chromosome(), index), 0);
+        assertEquals(-1, mappedProfiles.findWindowIndex(firstProfile.chromosome(), firstProfile.start() - 1));
+
+        // per-chromosome views match the text profiles, and are empty for chromosomes not in the file
+        Map<Chromosome,List<GCProfile>> textChrProfiles = GCProfileFactory.loadChromosomeGcProfiles(1000, GC_PROFILE_PATH);
+        Map<Chromosome,List<GCProfile>> binaryChrProfiles = GCProfileFactory.loadChromosomeGcProfiles(1000, binaryFile.getPath());
+        assertEquals(textChrProfiles, binaryChrProfiles);
+
+        assertTrue(mappedProfiles.profiles("22").isEmpty());
+        assertEquals(0, mappedProfiles.windowCount("22"));
+        assertFalse(binaryChrProfiles.containsKey(HumanChromosome._22));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsBinaryFileWithOtherWindowSize() throws IOException
+    {
+        File binaryFile = File.createTempFile("gc_profile", ".bin");
+        binaryFile.deleteOnExit();
+
+        GcProfileBinaryFile.write(binaryFile.getPath(), 1000, GCProfileFactory.loadChrGcProfileMap(GC_PROFILE_PATH));
+        GCProfileFactory.loadChromosomeGcProfiles(500, binaryFile.getPath());
+    }
 }
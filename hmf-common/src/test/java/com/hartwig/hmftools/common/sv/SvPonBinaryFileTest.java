@@ -0,0 +1,86 @@
+package com.hartwig.hmftools.common.sv;
+
+import static com.hartwig.hmftools.common.genome.region.Orientation.ORIENT_FWD;
+import static com.hartwig.hmftools.common.genome.region.Orientation.ORIENT_REV;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.sv.SvPonBinaryFile.SglEntry;
+import com.hartwig.hmftools.common.sv.SvPonBinaryFile.SvEntry;
+
+import org.junit.Test;
+
+public class SvPonBinaryFileTest
+{
+    @Test
+    public void testSvPonWriteAndQuery() throws IOException
+    {
+        Map<String,List<SvEntry>> chrEntries = Maps.newLinkedHashMap();
+
+        chrEntries.put("1", Lists.newArrayList(
+                new SvEntry("1", 100, 2000, ORIENT_FWD, "1", 5000, 5010, ORIENT_REV, 3),
+                new SvEntry("1", 1500, 1510, ORIENT_FWD, "1", 5000, 5010, ORIENT_FWD, 4),
+                new SvEntry("1", 1600, 1610, ORIENT_FWD, "5", 800, 810, ORIENT_REV, 5)));
+
+        chrEntries.put("2", Lists.newArrayList(new SvEntry("2", 300, 310, ORIENT_REV, "X", 900, 910, ORIENT_REV, 2)));
+
+        File binaryFile = File.createTempFile("sv_pon", ".bin");
+        binaryFile.deleteOnExit();
+
+        SvPonBinaryFile.writeSv(binaryFile.getPath(), chrEntries);
+        assertTrue(SvPonBinaryFile.isSvBinaryFile(binaryFile.getPath()));
+        assertFalse(SvPonBinaryFile.isSglBinaryFile(binaryFile.getPath()));
+
+        MappedSvPon svPon = SvPonBinaryFile.loadSv(binaryFile.getPath());
+        assertEquals(4, svPon.totalCount());
+
+        // the first, long start region is found from a query well beyond its start
+        assertEquals(3, svPon.findPonCount("1", 1800, 1810, ORIENT_FWD, "1", 5005, 5006, ORIENT_REV));
+        assertEquals(4, svPon.findPonCount("1", 1505, 1506, ORIENT_FWD, "1", 5005, 5006, ORIENT_FWD));
+
+        // end chromosomes without start entries are still matched
+        assertEquals(5, svPon.findPonCount("1", 1605, 1606, ORIENT_FWD, "5", 805, 806, ORIENT_REV));
+        assertEquals(2, svPon.findPonCount("2", 305, 306, ORIENT_REV, "X", 905, 906, ORIENT_REV));
+
+        assertEquals(0, svPon.findPonCount("1", 1605, 1606, ORIENT_REV, "5", 805, 806, ORIENT_REV));
+        assertEquals(0, svPon.findPonCount("1", 1605, 1606, ORIENT_FWD, "6", 805, 806, ORIENT_REV));
+        assertEquals(0, svPon.findPonCount("1", 1605, 1606, ORIENT_FWD, "5", 811, 820, ORIENT_REV));
+        assertEquals(0, svPon.findPonCount("1", 2001, 2100, ORIENT_FWD, "1", 5005, 5006, ORIENT_REV));
+        assertEquals(0, svPon.findPonCount("3", 100, 200, ORIENT_FWD, "1", 5005, 5006, ORIENT_REV));
+    }
+
+    @Test
+    public void testSglPonWriteAndQuery() throws IOException
+    {
+        Map<String,List<SglEntry>> chrEntries = Maps.newLinkedHashMap();
+
+        chrEntries.put("1", Lists.newArrayList(
+                new SglEntry("1", 100, 110, ORIENT_FWD, 2),
+                new SglEntry("1", 105, 120, ORIENT_REV, 6),
+                new SglEntry("1", 1000, 1010, ORIENT_FWD, 3)));
+
+        File binaryFile = File.createTempFile("sgl_pon", ".bin");
+        binaryFile.deleteOnExit();
+
+        SvPonBinaryFile.writeSgl(binaryFile.getPath(), chrEntries);
+        assertTrue(SvPonBinaryFile.isSglBinaryFile(binaryFile.getPath()));
+
+        MappedSglPon sglPon = SvPonBinaryFile.loadSgl(binaryFile.getPath());
+        assertEquals(3, sglPon.totalCount());
+
+        assertEquals(2, sglPon.findPonCount("1", 108, 112, ORIENT_FWD));
+        assertEquals(6, sglPon.findPonCount("1", 108, 112, ORIENT_REV));
+        assertEquals(3, sglPon.findPonCount("1", 990, 1000, ORIENT_FWD));
+        assertEquals(0, sglPon.findPonCount("1", 121, 999, ORIENT_FWD));
+        assertEquals(0, sglPon.findPonCount("2", 100, 110, ORIENT_FWD));
+    }
+}
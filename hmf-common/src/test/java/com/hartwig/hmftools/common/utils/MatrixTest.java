@@ -1,5 +1,9 @@
 package com.hartwig.hmftools.common.utils;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
 import org.junit.Test;
 
 public class MatrixTest
@@ -26,4 +30,56 @@ public class MatrixTest
 
         // assertTrue(NmfRun.signaturesEqual(matrix1, matrix2));
     }
+
+    @Test
+    public void testFlatKernelsMatchMultiply()
+    {
+        Random random = new Random(1);
+
+        // sizes span several cache blocks
+        int m = 70;
+        int k = 150;
+        int n = 600;
+
+        Matrix matrix1 = new Matrix(m, k);
+        Matrix matrix2 = new Matrix(k, n);
+
+        for(int i = 0; i < m; ++i)
+        {
+            for(int j = 0; j < k; ++j)
+            {
+                matrix1.set(i, j, random.nextDouble());
+            }
+        }
+
+        for(int i = 0; i < k; ++i)
+        {
+            for(int j = 0; j < n; ++j)
+            {
+                matrix2.set(i, j, random.nextDouble());
+            }
+        }
+
+        double[] expected = MatrixKernels.toFlat(MatrixUtils.multiply(matrix1, matrix2));
+
+        double[] result = new double[m * n];
+        MatrixKernels.multiply(MatrixKernels.toFlat(matrix1), MatrixKernels.toFlat(matrix2), result, m, k, n);
+        assertExactlyEqual(expected, result);
+
+        MatrixKernels.multiplyTransposeFirst(
+                MatrixKernels.toFlat(matrix1.transpose()), MatrixKernels.toFlat(matrix2), result, m, k, n);
+        assertExactlyEqual(expected, result);
+
+        MatrixKernels.multiplyTransposeSecond(
+                MatrixKernels.toFlat(matrix1), MatrixKernels.toFlat(matrix2.transpose()), result, m, k, n);
+        assertExactlyEqual(expected, result);
+    }
+
+    private static void assertExactlyEqual(final double[] expected, final double[] actual)
+    {
+        for(int i = 0; i < expected.length; ++i)
+        {
+            assertEquals(expected[i], actual[i], 0);
+        }
+    }
 }
@@ -0,0 +1,228 @@
+package com.hartwig.hmftools.common.utils.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class DelimFileByteReaderTest
+{
+    enum Column { chromosome, position, ratio, tag }
+
+    @Test
+    public void testReadFields()
+    {
+        String content = "chromosome\tposition\tratio\ttag\n"
+                + "1\t1001\t0.5\tA\n"
+                + "1\t2001\t-1.25e-3\tnull\r\n"
+                + "X\t-3\t1e10\t\n"
+                + "X\t4\tNaN\tlast";
+
+        try(DelimFileByteReader reader = new DelimFileByteReader(toStream(content)))
+        {
+            assertEquals(Lists.newArrayList("chromosome", "position", "ratio", "tag"), reader.getColumnNames());
+            assertEquals(2, (int)reader.getColumnIndex(Column.ratio));
+            assertNull(reader.getColumnIndex("other"));
+
+            List<String> chromosomes = Lists.newArrayList();
+            List<Integer> positions = Lists.newArrayList();
+            List<Double> ratios = Lists.newArrayList();
+            List<String> tags = Lists.newArrayList();
+
+            for(DelimFileByteReader.Row row : reader)
+            {
+                chromosomes.add(row.getChromosome(Column.chromosome));
+                positions.add(row.getInt(Column.position));
+                ratios.add(row.getDouble(Column.ratio));
+                tags.add(row.getOrNull(Column.tag));
+            }
+
+            assertEquals(Lists.newArrayList("1", "1", "X", "X"), chromosomes);
+            assertSame(chromosomes.get(0), chromosomes.get(1));
+            assertSame(chromosomes.get(2), chromosomes.get(3));
+            assertEquals(Lists.newArrayList(1001, 2001, -3, 4), positions);
+            assertEquals(Lists.newArrayList(0.5, -1.25e-3, 1e10, Double.NaN), ratios);
+            assertEquals(Lists.newArrayList("A", null, "", "last"), tags);
+        }
+    }
+
+    @Test
+    public void testLongLinesAndNumberErrors()
+    {
+        // lines longer than the initial buffer
+        String longValue = "ACGT".repeat(200_000);
+        String content = "id\tcount\tvalue\n" + "a\t12\t" + longValue + "\n" + "b\t12x\t" + longValue + "\n";
+
+        try(DelimFileByteReader reader = new DelimFileByteReader(toStream(content)))
+        {
+            reader.getColumnNames();
+            int rowIndex = 0;
+
+            for(DelimFileByteReader.Row row : reader)
+            {
+                assertEquals(longValue, row.get("value"));
+
+                if(rowIndex++ == 0)
+                {
+                    assertEquals(12, row.getInt("count"));
+                    assertEquals(12L, row.getLong("count"));
+                    assertTrue(row.getBoolean("count"));
+                    assertEquals('a', row.getChar("id"));
+                    continue;
+                }
+
+                try
+                {
+                    row.getInt("count");
+                    fail();
+                }
+                catch(NumberFormatException e)
+                {
+                    assertFalse(row.isNull("count"));
+                }
+            }
+
+            assertEquals(2, rowIndex);
+        }
+    }
+
+    @Test
+    public void testDoublesMatchParseDouble()
+    {
+        Random random = new Random(0);
+        List<String> values = Lists.newArrayList(
+                "0", "-0", "0.0", "1", "-1", "0.1", "0.30000000000000004", "123456789012345", "1234567890123456789",
+                "1e22", "1e23", "1e-22", "1e-23", "4.9e-324", "1.7976931348623157E308", "0.0000001234", ".5", "5.", "+2.5",
+                "Infinity", "-Infinity", "1.0d");
+
+        for(int i = 0; i < 5000; ++i)
+        {
+            values.add(String.valueOf(random.nextDouble() * Math.pow(10, random.nextInt(30) - 15)));
+            values.add(String.format(Locale.ENGLISH, "%.4f", random.nextGaussian() * 100));
+            values.add(String.format(Locale.ENGLISH, "%.6e", random.nextGaussian()));
+        }
+
+        StringBuilder content = new StringBuilder("value\n");
+        values.forEach(x -> content.append(x).append('\n'));
+
+        try(DelimFileByteReader reader = new DelimFileByteReader(toStream(content.toString())))
+        {
+            reader.getColumnNames();
+            int index = 0;
+
+            for(DelimFileByteReader.Row row : reader)
+            {
+                String value = values.get(index++);
+                assertEquals(value, Double.doubleToRawLongBits(Double.parseDouble(value)), Double.doubleToRawLongBits(row.getDouble(0)));
+            }
+
+            assertEquals(values.size(), index);
+        }
+    }
+
+    @Test
+    public void testGzipInput() throws IOException
+    {
+        StringBuilder content = new StringBuilder("chromosome,position\n");
+
+        for(int i = 0; i < 500_000; ++i)
+        {
+            content.append(i % 22 + 1).append(',').append(i).append('\n');
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try(GZIPOutputStream gzipStream = new GZIPOutputStream(bytes))
+        {
+            gzipStream.write(content.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        try(DelimFileByteReader reader = new DelimFileByteReader(
+                new PipedInflaterInputStream(new ByteArrayInputStream(bytes.toByteArray()))))
+        {
+            reader.setDelimiter(",");
+            reader.getColumnNames();
+
+            long positionTotal = 0;
+            int rowCount = 0;
+
+            for(DelimFileByteReader.Row row : reader)
+            {
+                assertEquals(String.valueOf(rowCount % 22 + 1), row.getChromosome(Column.chromosome));
+                positionTotal += row.getInt(Column.position);
+                ++rowCount;
+            }
+
+            assertEquals(500_000, rowCount);
+            assertEquals(500_000L * 499_999 / 2, positionTotal);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testGzipInflaterFailures() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try(GZIPOutputStream gzipStream = new GZIPOutputStream(bytes))
+        {
+            gzipStream.write("chromosome,position\n1,100\n".repeat(1000).getBytes(StandardCharsets.UTF_8));
+        }
+
+        byte[] gzipBytes = bytes.toByteArray();
+
+        // a truncated stream fails on the read side with the inflater's IO error
+        byte[] truncatedBytes = Arrays.copyOf(gzipBytes, gzipBytes.length / 2);
+
+        try(PipedInflaterInputStream inflater = new PipedInflaterInputStream(new ByteArrayInputStream(truncatedBytes)))
+        {
+            inflater.readAllBytes();
+            fail();
+        }
+        catch(IOException e)
+        {
+            // expected
+        }
+
+        // any other failure in the inflater thread is also passed to the reader rather than leaving it waiting
+        InputStream failingSource = new ByteArrayInputStream(gzipBytes)
+        {
+            @Override
+            public synchronized int read(final byte[] buffer, int offset, int length)
+            {
+                throw new IllegalStateException("source failure");
+            }
+        };
+
+        try(PipedInflaterInputStream inflater = new PipedInflaterInputStream(failingSource))
+        {
+            inflater.readAllBytes();
+            fail();
+        }
+        catch(IllegalStateException e)
+        {
+            assertEquals("source failure", e.getMessage());
+        }
+    }
+
+    private static InputStream toStream(final String content)
+    {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
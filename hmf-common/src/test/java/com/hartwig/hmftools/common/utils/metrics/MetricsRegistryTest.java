@@ -0,0 +1,170 @@
+package com.hartwig.hmftools.common.utils.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.utils.PerformanceCounter;
+
+import org.junit.Test;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class MetricsRegistryTest
+{
+    @Test
+    public void testHistogramPercentiles()
+    {
+        Histogram histogram = new Histogram();
+
+        for(long value = 1; value <= 1000; ++value)
+        {
+            histogram.record(value * 1000);
+        }
+
+        HistogramSnapshot snapshot = new HistogramSnapshot();
+        histogram.addTo(snapshot);
+
+        assertEquals(1000, snapshot.Count);
+        assertEquals(1_000_000, snapshot.Max);
+        assertEquals(500500.0, snapshot.mean(), 0.01);
+
+        // buckets resolve values to within an eighth
+        assertEquals(500_000, snapshot.percentile(50), 500_000 / 8);
+        assertEquals(990_000, snapshot.percentile(99), 990_000 / 8);
+        assertEquals(1_000_000, snapshot.percentile(100));
+
+        for(long value : new long[] { 0, 15, 16, 1000, 123_456_789, Long.MAX_VALUE })
+        {
+            int bucket = Histogram.bucketIndex(value);
+            assertTrue(bucket < Histogram.BUCKET_COUNT);
+            assertTrue(Histogram.bucketUpperValue(bucket) >= value);
+            assertTrue(bucket == 0 || Histogram.bucketUpperValue(bucket - 1) < value);
+        }
+    }
+
+    @Test
+    public void testThreadTimersAndOutput() throws Exception
+    {
+        File outputDir = Files.createTempDirectory("metrics_test").toFile();
+        outputDir.deleteOnExit();
+        String outputPrefix = new File(outputDir, "test").getAbsolutePath();
+
+        MetricsRegistry.start(outputPrefix, false);
+
+        List<Thread> threads = Lists.newArrayList();
+
+        for(int t = 0; t < 4; ++t)
+        {
+            threads.add(new Thread(() ->
+            {
+                Timer timer = MetricsRegistry.timer("Work");
+
+                for(int i = 0; i < 100; ++i)
+                {
+                    timer.record(1000);
+                    MetricsRegistry.counter("Items").increment();
+                }
+
+                // existing performance counters feed a timer of the same name
+                PerformanceCounter perfCounter = new PerformanceCounter("Stage");
+                perfCounter.start();
+                perfCounter.stop();
+            }));
+        }
+
+        threads.forEach(Thread::start);
+
+        for(Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertEquals(400, MetricsRegistry.timer("Work").snapshot().Count);
+        assertEquals(4, MetricsRegistry.timer("Stage").snapshot().Count);
+        assertEquals(400, MetricsRegistry.counter("Items").value());
+
+        MetricsRegistry.stop();
+
+        List<String> lines = Files.readAllLines(new File(outputPrefix + MetricsRegistry.METRICS_TSV_EXTENSION).toPath());
+        assertTrue(lines.get(0).startsWith("Name\tType\tCount"));
+        assertTrue(lines.stream().anyMatch(x -> x.startsWith("Work\tTIMER\t400\t")));
+        assertTrue(lines.stream().anyMatch(x -> x.startsWith("Items\tCOUNTER\t400")));
+        assertTrue(lines.stream().anyMatch(x -> x.startsWith("HeapUsedMb\tGAUGE\t")));
+
+        String json = new String(Files.readAllBytes(new File(outputPrefix + MetricsRegistry.METRICS_JSON_EXTENSION).toPath()));
+        assertTrue(json.contains("\"name\": \"Work\""));
+    }
+
+    @Test
+    public void testGaugeReplacement()
+    {
+        AtomicLong firstQueue = new AtomicLong(5);
+        AtomicLong secondQueue = new AtomicLong(20);
+        LongSupplier firstSource = firstQueue::get;
+        LongSupplier secondSource = secondQueue::get;
+
+        Gauge gauge = new Gauge("Queue", firstSource);
+        assertEquals(5L, (long)gauge.sample());
+
+        // a new source replaces the old one, so releasing the old one has no effect
+        gauge.setSupplier(secondSource);
+        gauge.releaseSupplier(firstSource);
+        assertEquals(20L, (long)gauge.sample());
+
+        gauge.releaseSupplier(secondSource);
+        assertNull(gauge.sample());
+
+        assertEquals(2, gauge.sampleCount());
+        assertEquals(20, gauge.maxValue());
+        assertEquals(12.5, gauge.meanValue(), 0.001);
+    }
+
+    @Test
+    public void testStageEventsExcludePausedTime() throws Exception
+    {
+        File outputDir = Files.createTempDirectory("metrics_test").toFile();
+        outputDir.deleteOnExit();
+        String outputPrefix = new File(outputDir, "test").getAbsolutePath();
+
+        MetricsRegistry.start(outputPrefix, true);
+
+        PerformanceCounter perfCounter = new PerformanceCounter("PausedStage");
+        perfCounter.start();
+        perfCounter.pause();
+        Thread.sleep(300);
+        perfCounter.resume();
+        perfCounter.stop();
+
+        MetricsRegistry.stop();
+
+        File jfrFile = new File(outputPrefix + MetricsRegistry.METRICS_JFR_EXTENSION);
+        jfrFile.deleteOnExit();
+
+        Duration stageDuration = Duration.ZERO;
+        int stageEvents = 0;
+
+        for(RecordedEvent event : RecordingFile.readAllEvents(jfrFile.toPath()))
+        {
+            if(event.getEventType().getName().equals("hmftools.Stage") && event.getString("Stage").equals("PausedStage"))
+            {
+                stageDuration = stageDuration.plus(event.getDuration());
+                ++stageEvents;
+            }
+        }
+
+        // one event before and one after the pause, neither covering it
+        assertEquals(2, stageEvents);
+        assertTrue(stageDuration.toMillis() < 150);
+    }
+}
@@ -0,0 +1,255 @@
+package com.hartwig.hmftools.common.variant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class ParallelVcfReaderTest
+{
+    private static final int VARIANT_COUNT = 100_000; // enough to span several decoder chunks
+
+    @Test
+    public void testReadRecordFields() throws IOException
+    {
+        String vcf = vcfHeader()
+                + "1\t100\trs1\tA\tG\t50.5\tPASS\tTNC=AAG;REP=3;HOT\tGT:AD:DP\t0/1:10,5:15\t0/0:.:20\n"
+                + "1\t200\t.\tAT\tA,ATT\t.\tPON;LOW\t.\tGT:AD\t1/2:3,4,5\n"
+                + "2\t300\t.\tC\tT\t10\t.\tTNC=CCT\n";
+
+        File file = writeFile(vcf.getBytes(StandardCharsets.UTF_8), ".vcf");
+
+        try(ParallelVcfReader reader = new ParallelVcfReader(file.getAbsolutePath(), 2))
+        {
+            assertEquals(Lists.newArrayList("REF", "TUMOR"), reader.sampleNames());
+
+            List<VcfRecord> records = Lists.newArrayList(reader);
+            assertEquals(3, records.size());
+
+            VcfRecord record = records.get(0);
+            assertEquals("1", record.Chromosome);
+            assertEquals(100, record.Position);
+            assertEquals("rs1", record.id());
+            assertEquals(50.5, record.qual(), 1e-10);
+            assertTrue(record.isPass());
+            assertEquals("AAG", record.getInfo("TNC"));
+            assertEquals(3, record.getInfoInt("REP", 0));
+            assertTrue(record.hasInfo("HOT"));
+            assertEquals("", record.getInfo("HOT"));
+            assertNull(record.getInfo("GENE"));
+            assertEquals(2, record.sampleCount());
+            assertEquals("10,5", record.getGenotypeField(0, "AD"));
+            assertEquals("20", record.getGenotypeField(1, "DP"));
+            assertNull(record.getGenotypeField(1, "AD"));
+            assertFalse(record.hasVariantContext());
+
+            record = records.get(1);
+            assertSame(records.get(0).Chromosome, record.Chromosome);
+            assertEquals(Lists.newArrayList("A", "ATT"), record.alts());
+            assertNull(record.qual());
+            assertFalse(record.isPass());
+            assertEquals(Lists.newArrayList("PON", "LOW"), record.filters());
+            assertTrue(record.info().isEmpty());
+            assertEquals("1/2", record.getGenotypeField(0, "GT"));
+            assertNull(record.getGenotypeField(1, "GT"));
+
+            record = records.get(2);
+            assertTrue(record.isPass());
+            assertEquals(0, record.sampleCount());
+            assertEquals("CCT", record.getInfo("TNC", ""));
+        }
+    }
+
+    @Test
+    public void testCompressedFilesAcrossChunks() throws IOException
+    {
+        StringBuilder vcf = new StringBuilder(vcfHeader());
+
+        for(int i = 0; i < VARIANT_COUNT; ++i)
+        {
+            vcf.append(i % 22 + 1).append('\t').append(i + 1).append("\t.\tA\tC\t.\t").append(i % 3 == 0 ? "PON" : "PASS")
+                    .append("\tINDEX=").append(i).append("\tGT:DP\t0/1:").append(i % 100).append("\t0/0:1");
+
+            if(i < VARIANT_COUNT - 1)
+                vcf.append('\n'); // no final line terminator
+        }
+
+        byte[] data = vcf.toString().getBytes(StandardCharsets.UTF_8);
+
+        checkAllRecords(writeFile(data, ".vcf"));
+        checkAllRecords(writeFile(gzip(data), ".vcf.gz"));
+        checkAllRecords(writeFile(bgzf(data), ".vcf.gz"));
+
+        File file = writeFile(bgzf(data), ".vcf.gz");
+
+        try(ParallelVcfReader reader = new ParallelVcfReader(file.getAbsolutePath(), 3))
+        {
+            reader.setRecordFilter(VcfRecord::isPass);
+
+            int index = 1;
+            int passCount = 0;
+
+            for(VcfRecord record : reader)
+            {
+                assertEquals(index, record.getInfoInt("INDEX", -1));
+                index += index % 3 == 1 ? 1 : 2; // skip each third record
+                ++passCount;
+            }
+
+            assertEquals(VARIANT_COUNT * 2 / 3, passCount);
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testReadFailuresReachCaller() throws IOException
+    {
+        StringBuilder vcf = new StringBuilder(vcfHeader());
+
+        for(int i = 0; i < VARIANT_COUNT * 4; ++i)
+        {
+            vcf.append(i % 22 + 1).append('\t').append(i + 1).append("\t.\tA\tC\t.\tPASS\tINDEX=").append(i).append('\n');
+        }
+
+        byte[] data = vcf.toString().getBytes(StandardCharsets.UTF_8);
+
+        // files truncated after the header chunk fail part way through reading, rather than leaving the caller waiting
+        for(byte[] compressed : Lists.newArrayList(gzip(data), bgzf(data)))
+        {
+            File file = writeFile(Arrays.copyOf(compressed, compressed.length * 2 / 3), ".vcf.gz");
+
+            try(ParallelVcfReader reader = new ParallelVcfReader(file.getAbsolutePath(), 2))
+            {
+                int recordCount = 0;
+
+                for(VcfRecord record : reader)
+                {
+                    ++recordCount;
+                }
+
+                fail("read " + recordCount + " records from truncated file");
+            }
+            catch(RuntimeException e)
+            {
+                // expected
+            }
+        }
+    }
+
+    private static void checkAllRecords(final File file)
+    {
+        try(ParallelVcfReader reader = new ParallelVcfReader(file.getAbsolutePath(), 4))
+        {
+            int index = 0;
+
+            for(VcfRecord record : reader)
+            {
+                assertEquals(String.valueOf(index % 22 + 1), record.Chromosome);
+                assertEquals(index + 1, record.Position);
+                assertEquals(index, record.getInfoInt("INDEX", -1));
+                assertEquals(String.valueOf(index % 100), record.getGenotypeField(0, "DP"));
+                ++index;
+            }
+
+            assertEquals(VARIANT_COUNT, index);
+        }
+    }
+
+    private static String vcfHeader()
+    {
+        return "##fileformat=VCFv4.2\n"
+                + "##INFO=<ID=INDEX,Number=1,Type=Integer,Description=\"Index\">\n"
+                + "##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">\n"
+                + "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tREF\tTUMOR\n";
+    }
+
+    private static File writeFile(final byte[] data, final String extension) throws IOException
+    {
+        File file = File.createTempFile("parallel_vcf_reader", extension);
+        file.deleteOnExit();
+
+        try(OutputStream outputStream = new FileOutputStream(file))
+        {
+            outputStream.write(data);
+        }
+
+        return file;
+    }
+
+    private static byte[] gzip(final byte[] data) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try(GZIPOutputStream gzipStream = new GZIPOutputStream(bytes))
+        {
+            gzipStream.write(data);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static byte[] bgzf(final byte[] data)
+    {
+        // BGZF blocks of up to 60KB of input each, followed by the empty end-of-file block
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+
+        for(int offset = 0; offset < data.length; offset += 60_000)
+        {
+            writeBgzfBlock(bytes, deflater, data, offset, Math.min(60_000, data.length - offset));
+        }
+
+        writeBgzfBlock(bytes, deflater, data, 0, 0);
+
+        deflater.end();
+        return bytes.toByteArray();
+    }
+
+    private static void writeBgzfBlock(
+            final ByteArrayOutputStream bytes, final Deflater deflater, final byte[] data, int offset, int length)
+    {
+        byte[] compressed = new byte[70_000];
+
+        deflater.reset();
+        deflater.setInput(data, offset, length);
+        deflater.finish();
+        int compressedLength = deflater.deflate(compressed);
+
+        CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+
+        int blockSize = 18 + compressedLength + 8;
+        byte[] header = { 31, (byte)139, 8, 4, 0, 0, 0, 0, 0, (byte)255, 6, 0, 'B', 'C', 2, 0,
+                (byte)((blockSize - 1) & 0xFF), (byte)((blockSize - 1) >> 8) };
+
+        bytes.write(header, 0, header.length);
+        bytes.write(compressed, 0, compressedLength);
+        writeInt(bytes, (int)crc.getValue());
+        writeInt(bytes, length);
+    }
+
+    private static void writeInt(final ByteArrayOutputStream bytes, int value)
+    {
+        for(int i = 0; i < 4; ++i)
+        {
+            bytes.write((value >> (i * 8)) & 0xFF);
+        }
+    }
+}
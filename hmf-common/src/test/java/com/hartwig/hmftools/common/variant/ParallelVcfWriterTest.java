@@ -0,0 +1,110 @@
+package com.hartwig.hmftools.common.variant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import org.junit.Test;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.GenotypeBuilder;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import htsjdk.variant.vcf.VCFFileReader;
+import htsjdk.variant.vcf.VCFFormatHeaderLine;
+import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderLineType;
+import htsjdk.variant.vcf.VCFInfoHeaderLine;
+
+public class ParallelVcfWriterTest
+{
+    private static final int VARIANT_COUNT = 10_000; // spans several batches and blocks
+    private static final String SAMPLE_ID = "TUMOR";
+
+    @Test
+    public void testWriteIndexedVcf() throws IOException
+    {
+        File file = File.createTempFile("parallel_vcf_writer", ".vcf.gz");
+        file.deleteOnExit();
+
+        File indexFile = new File(file.getAbsolutePath() + ".tbi");
+        indexFile.deleteOnExit();
+
+        SAMSequenceDictionary dictionary = new SAMSequenceDictionary(Lists.newArrayList(
+                new SAMSequenceRecord("1", 10_000_000), new SAMSequenceRecord("2", 10_000_000)));
+
+        VCFHeader header = new VCFHeader(Sets.newHashSet(
+                new VCFInfoHeaderLine("INDEX", 1, VCFHeaderLineType.Integer, "Index"),
+                new VCFFormatHeaderLine("DP", 1, VCFHeaderLineType.Integer, "Depth")), Lists.newArrayList(SAMPLE_ID));
+
+        header.setSequenceDictionary(dictionary);
+
+        try(ParallelVcfWriter writer = new ParallelVcfWriter(file.getAbsolutePath(), 3, dictionary))
+        {
+            writer.writeHeader(header);
+
+            for(int i = 0; i < VARIANT_COUNT; ++i)
+            {
+                writer.add(createVariant(i));
+            }
+        }
+
+        assertTrue(indexFile.exists());
+
+        try(VCFFileReader reader = new VCFFileReader(file, true))
+        {
+            int index = 0;
+
+            for(VariantContext variant : reader)
+            {
+                assertEquals(index, variant.getAttributeAsInt("INDEX", -1));
+                assertEquals(index % 50, variant.getGenotype(SAMPLE_ID).getDP());
+                ++index;
+            }
+
+            assertEquals(VARIANT_COUNT, index);
+
+            // the second chromosome holds variants every 100 bases from position 1
+            List<VariantContext> variants = reader.query("2", 100_001, 200_000).toList();
+            assertEquals(1000, variants.size());
+            assertEquals(100_001, variants.get(0).getStart());
+        }
+
+        try(ParallelVcfReader reader = new ParallelVcfReader(file.getAbsolutePath(), 2))
+        {
+            int index = 0;
+
+            for(VcfRecord record : reader)
+            {
+                assertEquals(index, record.getInfoInt("INDEX", -1));
+                ++index;
+            }
+
+            assertEquals(VARIANT_COUNT, index);
+        }
+    }
+
+    private static VariantContext createVariant(int index)
+    {
+        int chromosomeVariants = VARIANT_COUNT / 2;
+        String chromosome = index < chromosomeVariants ? "1" : "2";
+        int position = (index % chromosomeVariants) * 100 + 1;
+
+        List<Allele> alleles = Lists.newArrayList(Allele.create("A", true), Allele.create("C", false));
+        Genotype genotype = new GenotypeBuilder(SAMPLE_ID, alleles).DP(index % 50).make();
+
+        return new VariantContextBuilder("test", chromosome, position, position, alleles)
+                .attribute("INDEX", index)
+                .genotypes(genotype)
+                .make();
+    }
+}
@@ -62,6 +62,7 @@ public class ChromosomeTaskExecutor implements Callable
     private final GcTranscriptCalculator mTranscriptGcRatios;
     private final ExpectedCountsCache mExpectedCountsCache;
 
+    private final GeneCollectionBatch mGeneBatch;
     private final List<GeneData> mGeneDataList;
     private int mCollectionId;
     private int mCurrentGeneIndex;
@@ -84,19 +85,20 @@ public class ChromosomeTaskExecutor implements Callable
     private final PerformanceCounter[] mPerfCounters;
 
     public ChromosomeTaskExecutor(
-            final IsofoxConfig config, final String chromosome, final List<GeneData> geneDataList,
+            final IsofoxConfig config, final GeneCollectionBatch geneBatch,
             final EnsemblDataCache geneTransCache, final ResultsWriter resultsWriter, final FusionTaskManager fusionManager,
             final ExpectedCountsCache expectedCountsCache, final GcTranscriptCalculator transcriptGcCalcs)
     {
         mConfig = config;
-        mChromosome = chromosome;
+        mChromosome = geneBatch.Chromosome;
         mGeneTransCache = geneTransCache;
         mResultsWriter = resultsWriter;
 
-        mGeneDataList = geneDataList;
-        mCollectionId = 0;
+        mGeneBatch = geneBatch;
+        mGeneDataList = geneBatch.ChromosomeGenes;
+        mCollectionId = geneBatch.CollectionStartId;
 
-        mCurrentGeneIndex = 0;
+        mCurrentGeneIndex = geneBatch.GeneStartIndex;
         mCurrentTaskType = null;
 
         mExpectedCountsCache = expectedCountsCache;
@@ -117,12 +119,13 @@ public class ChromosomeTaskExecutor implements Callable
         mPerfCounters = PerformanceTracking.createPerfCounters();
 
         mChromosomeFusions = mConfig.runFunction(FUSIONS) ? new ChromosomeFusions(
-                        config, chromosome, fusionManager, mBamFragmentAllocator.getChimericReadTracker(),mPerfCounters[PERF_FUSIONS]) : null;
+                        config, mChromosome, fusionManager, mBamFragmentAllocator.getChimericReadTracker(),mPerfCounters[PERF_FUSIONS]) : null;
 
         mIsValid = true;
     }
 
     public String chromosome() { return mChromosome; }
+    public GeneCollectionBatch geneBatch() { return mGeneBatch; }
     public final List<GeneCollectionSummary> getGeneCollectionSummaryData() { return mGeneCollectionSummaryData; }
     public final GcRatioCounts getGcRatioCounts() { return mGcRatioCounts; }
 
@@ -160,19 +163,22 @@ public class ChromosomeTaskExecutor implements Callable
 
     public void assignTranscriptCounts()
     {
-        if(mGeneDataList.size() > 10)
+        int batchGeneCount = mGeneBatch.geneCount();
+
+        if(batchGeneCount > 10)
         {
-            ISF_LOGGER.info("chr({}) processing {} genes", mChromosome, mGeneDataList.size());
+            ISF_LOGGER.info("chr({}) processing {} genes from index({})", mChromosome, batchGeneCount, mGeneBatch.GeneStartIndex);
         }
 
-        mCurrentGeneIndex = 0;
+        // the batch may cover only part of the chromosome, but the next gene and chromosome end are taken from the full gene list
+        mCurrentGeneIndex = mGeneBatch.GeneStartIndex;
         final List<GeneData> overlappingGenes = Lists.newArrayList();
         int nextLogCount = 100;
-        int lastGeneCollectionEndPosition = 1;
+        int lastGeneCollectionEndPosition = mGeneBatch.NonGenicStartPosition;
 
         boolean genesFiltered = !mConfig.Filters.RestrictedGeneIds.isEmpty() || mConfig.Filters.SpecificChrRegions.hasFilters();
 
-        while(mCurrentGeneIndex < mGeneDataList.size())
+        while(mCurrentGeneIndex < mGeneBatch.GeneEndIndex)
         {
             mCurrentGeneIndex = findNextOverlappingGenes(mGeneDataList, mCurrentGeneIndex, overlappingGenes);
 
@@ -228,7 +234,7 @@ public class ChromosomeTaskExecutor implements Callable
             mPerfCounters[PERF_TOTAL].stop();
 
             ISF_LOGGER.debug("chr({}) gene({}) processed({} of {})",
-                    mChromosome, geneCollection.geneNames(10), mCurrentGeneIndex, mGeneDataList.size());
+                    mChromosome, geneCollection.geneNames(10), mCurrentGeneIndex - mGeneBatch.GeneStartIndex, batchGeneCount);
 
             mGenesProcessed += geneCollection.genes().size();
             mTotalReadsProcessed = mBamFragmentAllocator.totalReadCount();
@@ -238,14 +244,14 @@ public class ChromosomeTaskExecutor implements Callable
             if(mGenesProcessed >= nextLogCount)
             {
                 nextLogCount += 100;
-                ISF_LOGGER.info("chr({}) processed {} of {} genes", mChromosome, mGenesProcessed, mGeneDataList.size());
+                ISF_LOGGER.info("chr({}) processed {} of {} genes", mChromosome, mGenesProcessed, batchGeneCount);
             }
         }
 
         if(mChromosomeFusions != null)
             mChromosomeFusions.onChromosomeComplete();
 
-        if(mGeneDataList.size() > 10)
+        if(batchGeneCount > 10)
         {
             ISF_LOGGER.info("chr({}) processing complete", mChromosome);
         }
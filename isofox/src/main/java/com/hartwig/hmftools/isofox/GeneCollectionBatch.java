@@ -0,0 +1,214 @@
+package com.hartwig.hmftools.isofox;
+
+import static java.lang.Math.max;
+
+import static com.hartwig.hmftools.isofox.ChromosomeTaskExecutor.findNextOverlappingGenes;
+import static com.hartwig.hmftools.isofox.IsofoxConstants.GENE_BATCHES_PER_THREAD;
+import static com.hartwig.hmftools.isofox.IsofoxFunction.FUSIONS;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
+import com.hartwig.hmftools.common.gene.ExonData;
+import com.hartwig.hmftools.common.gene.GeneData;
+import com.hartwig.hmftools.common.gene.TranscriptData;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+public class GeneCollectionBatch
+{
+    // a run of consecutive gene collections on a chromosome, processed as a single task
+    public final String Chromosome;
+    public final List<GeneData> ChromosomeGenes;
+    public final int GeneStartIndex;
+    public final int GeneEndIndex; // exclusive
+    public final int CollectionStartId;
+    public final int NonGenicStartPosition; // end of the previous gene collection on the chromosome, or 1 if the first
+    public final long Weight;
+    public final boolean HasEnrichedGenes;
+
+    public GeneCollectionBatch(
+            final String chromosome, final List<GeneData> chromosomeGenes, int geneStartIndex, int geneEndIndex, int collectionStartId,
+            int nonGenicStartPosition, long weight, boolean hasEnrichedGenes)
+    {
+        Chromosome = chromosome;
+        ChromosomeGenes = chromosomeGenes;
+        GeneStartIndex = geneStartIndex;
+        GeneEndIndex = geneEndIndex;
+        CollectionStartId = collectionStartId;
+        NonGenicStartPosition = nonGenicStartPosition;
+        Weight = weight;
+        HasEnrichedGenes = hasEnrichedGenes;
+    }
+
+    public int geneCount() { return GeneEndIndex - GeneStartIndex; }
+    public boolean coversChromosome() { return GeneStartIndex == 0 && GeneEndIndex == ChromosomeGenes.size(); }
+
+    public static List<GeneCollectionBatch> createBatches(
+            final IsofoxConfig config, final Map<String,List<GeneData>> chrGeneMap, final EnsemblDataCache geneTransCache)
+    {
+        return createBatches(config, chrGeneMap, geneTransCache, config.Threads);
+    }
+
+    @VisibleForTesting
+    public static List<GeneCollectionBatch> createBatches(
+            final IsofoxConfig config, final Map<String,List<GeneData>> chrGeneMap, final EnsemblDataCache geneTransCache, int threads)
+    {
+        // split each chromosome's gene collections into batches of similar exonic length, returned in genomic order
+        List<List<CollectionInfo>> chrCollections = Lists.newArrayList();
+        long totalWeight = 0;
+
+        for(HumanChromosome humanChromosome : HumanChromosome.values())
+        {
+            String chromosome = config.RefGenVersion.versionedChromosome(humanChromosome.toString());
+            List<GeneData> geneDataList = chrGeneMap.get(chromosome);
+
+            if(geneDataList == null || geneDataList.isEmpty())
+                continue;
+
+            List<CollectionInfo> collections = findCollections(config, geneDataList, geneTransCache);
+            chrCollections.add(collections);
+            totalWeight += collections.stream().mapToLong(x -> x.Weight).sum();
+        }
+
+        // fusion calling links chimeric reads across all gene collections on a chromosome, so requires whole chromosomes
+        boolean splitChromosomes = !config.runFunction(FUSIONS);
+        long targetWeight = max(totalWeight / max(threads * GENE_BATCHES_PER_THREAD, 1), 1);
+
+        List<GeneCollectionBatch> batches = Lists.newArrayList();
+
+        for(List<CollectionInfo> collections : chrCollections)
+        {
+            int startIndex = 0;
+
+            for(int i = 0; i < collections.size(); ++i)
+            {
+                CollectionInfo collection = collections.get(i);
+                boolean isLast = i == collections.size() - 1;
+
+                // high-depth enriched genes are kept in their own batch so they can be scheduled first
+                boolean nextEnriched = !isLast && collections.get(i + 1).HasEnrichedGenes;
+
+                if(!isLast && splitChromosomes)
+                {
+                    long batchWeight = collections.subList(startIndex, i + 1).stream().mapToLong(x -> x.Weight).sum();
+
+                    if(batchWeight < targetWeight && !collection.HasEnrichedGenes && !nextEnriched)
+                        continue;
+                }
+                else if(!isLast)
+                {
+                    continue;
+                }
+
+                batches.add(createBatch(collections, startIndex, i));
+                startIndex = i + 1;
+            }
+        }
+
+        return batches;
+    }
+
+    public static List<GeneCollectionBatch> prioritiseBatches(final List<GeneCollectionBatch> batches)
+    {
+        // process enriched genes first, then the remaining batches by decreasing weight
+        List<GeneCollectionBatch> prioritisedBatches = Lists.newArrayList(batches);
+
+        prioritisedBatches.sort(Comparator.comparing((GeneCollectionBatch x) -> !x.HasEnrichedGenes)
+                .thenComparing(Comparator.comparingLong((GeneCollectionBatch x) -> x.Weight).reversed()));
+
+        return prioritisedBatches;
+    }
+
+    private static GeneCollectionBatch createBatch(final List<CollectionInfo> collections, int startIndex, int endIndex)
+    {
+        CollectionInfo first = collections.get(startIndex);
+        CollectionInfo last = collections.get(endIndex);
+
+        int nonGenicStartPosition = startIndex > 0 ? collections.get(startIndex - 1).RegionEnd + 1 : 1;
+
+        List<CollectionInfo> batchCollections = collections.subList(startIndex, endIndex + 1);
+
+        return new GeneCollectionBatch(
+                first.Genes.get(0).Chromosome, first.ChromosomeGenes, first.GeneStartIndex, last.GeneEndIndex, startIndex,
+                nonGenicStartPosition, batchCollections.stream().mapToLong(x -> x.Weight).sum(),
+                batchCollections.stream().anyMatch(x -> x.HasEnrichedGenes));
+    }
+
+    private static List<CollectionInfo> findCollections(
+            final IsofoxConfig config, final List<GeneData> geneDataList, final EnsemblDataCache geneTransCache)
+    {
+        // forms gene collections in the same way as the chromosome task, recording their transcript bounds and exonic length
+        List<CollectionInfo> collections = Lists.newArrayList();
+        List<GeneData> overlappingGenes = Lists.newArrayList();
+
+        int geneIndex = 0;
+
+        while(geneIndex < geneDataList.size())
+        {
+            int startIndex = geneIndex;
+            geneIndex = findNextOverlappingGenes(geneDataList, geneIndex, overlappingGenes);
+
+            long weight = 0;
+            int regionEnd = 0;
+            boolean hasEnrichedGenes = false;
+
+            for(GeneData geneData : overlappingGenes)
+            {
+                List<TranscriptData> transcripts = geneTransCache.getTranscripts(geneData.GeneId);
+
+                if(transcripts == null)
+                    continue;
+
+                int maxExonicLength = 0;
+
+                for(TranscriptData transData : transcripts)
+                {
+                    regionEnd = max(regionEnd, transData.TransEnd);
+                    maxExonicLength = max(maxExonicLength, transData.exons().stream().mapToInt(ExonData::baseLength).sum());
+                }
+
+                weight += maxExonicLength;
+                hasEnrichedGenes |= config.Filters.EnrichedGeneIds.contains(geneData.GeneId);
+            }
+
+            collections.add(new CollectionInfo(
+                    geneDataList, Lists.newArrayList(overlappingGenes), startIndex, geneIndex, regionEnd, weight, hasEnrichedGenes));
+        }
+
+        return collections;
+    }
+
+    private static class CollectionInfo
+    {
+        public final List<GeneData> ChromosomeGenes;
+        public final List<GeneData> Genes;
+        public final int GeneStartIndex;
+        public final int GeneEndIndex;
+        public final int RegionEnd;
+        public final long Weight;
+        public final boolean HasEnrichedGenes;
+
+        public CollectionInfo(
+                final List<GeneData> chromosomeGenes, final List<GeneData> genes, int geneStartIndex, int geneEndIndex, int regionEnd,
+                long weight, boolean hasEnrichedGenes)
+        {
+            ChromosomeGenes = chromosomeGenes;
+            Genes = genes;
+            GeneStartIndex = geneStartIndex;
+            GeneEndIndex = geneEndIndex;
+            RegionEnd = regionEnd;
+            Weight = weight;
+            HasEnrichedGenes = hasEnrichedGenes;
+        }
+    }
+
+    public String toString()
+    {
+        return String.format("chr(%s) genes(%d - %d) collectionStart(%d) weight(%d)",
+                Chromosome, GeneStartIndex, GeneEndIndex, CollectionStartId, Weight);
+    }
+}
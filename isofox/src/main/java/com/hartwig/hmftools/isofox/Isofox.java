@@ -11,7 +11,6 @@ import static com.hartwig.hmftools.common.region.BaseRegion.positionsOverlap;
 import static com.hartwig.hmftools.isofox.IsofoxConfig.ISF_LOGGER;
 import static com.hartwig.hmftools.isofox.IsofoxConstants.APP_NAME;
 import static com.hartwig.hmftools.isofox.IsofoxConstants.PANEL_LOW_COVERAGE_FACTOR;
-import static com.hartwig.hmftools.isofox.IsofoxConstants.PRIORITISED_CHROMOSOMES;
 import static com.hartwig.hmftools.isofox.IsofoxFunction.FUSIONS;
 import static com.hartwig.hmftools.isofox.IsofoxFunction.NEO_EPITOPES;
 import static com.hartwig.hmftools.isofox.IsofoxFunction.READ_COUNTS;
@@ -23,7 +22,6 @@ import static com.hartwig.hmftools.isofox.expression.TranscriptExpression.calcTp
 import static com.hartwig.hmftools.isofox.expression.TranscriptExpression.setTranscriptsPerMillion;
 import static com.hartwig.hmftools.isofox.results.SummaryStats.createSummaryStats;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -33,7 +31,6 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
 import com.hartwig.hmftools.common.gene.GeneData;
-import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.rna.RnaStatistics;
 import com.hartwig.hmftools.common.utils.PerformanceCounter;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
@@ -156,31 +153,26 @@ public class Isofox
 
         final List<ChromosomeTaskExecutor> chrTasks = Lists.newArrayList();
         final List<Callable> callableList = Lists.newArrayList();
-        final List<String> chromosomes = Lists.newArrayList();
 
-        // process any enriched genes first, then add the rest in order of decreasing length
-        PRIORITISED_CHROMOSOMES.forEach(x -> chromosomes.add(mConfig.RefGenVersion.versionedChromosome(x)));
+        // gene collections are split into batches of similar exonic length across all chromosomes, with tasks kept in genomic
+        // order for merging and writing results, and then run with any enriched genes first and the rest by decreasing length
+        List<GeneCollectionBatch> geneBatches = GeneCollectionBatch.createBatches(mConfig, chrGeneMap, mGeneTransCache);
 
-        Arrays.stream(HumanChromosome.values())
-                .map(chromosome -> mConfig.RefGenVersion.versionedChromosome(chromosome.toString()))
-                .filter(chromosome -> !chromosomes.contains(chromosome))
-                .forEach(chromosome -> chromosomes.add(chromosome));
+        ISF_LOGGER.debug("split {} chromosomes into {} gene collection batches", chrGeneMap.size(), geneBatches.size());
 
-        for(String chromosome : chromosomes)
-        {
-            List<GeneData> geneDataList = chrGeneMap.get(chromosome);
-
-            if(geneDataList == null)
-                continue;
+        final Map<GeneCollectionBatch,ChromosomeTaskExecutor> batchTasks = Maps.newIdentityHashMap();
 
+        for(GeneCollectionBatch geneBatch : geneBatches)
+        {
             ChromosomeTaskExecutor bamReaderTask = new ChromosomeTaskExecutor(
-                    mConfig, chromosome, geneDataList, mGeneTransCache, mResultsWriter,
-                    mFusionTaskManager, mExpectedCountsCache, mGcTranscriptCalcs);
+                    mConfig, geneBatch, mGeneTransCache, mResultsWriter, mFusionTaskManager, mExpectedCountsCache, mGcTranscriptCalcs);
 
             chrTasks.add(bamReaderTask);
-            callableList.add(bamReaderTask);
+            batchTasks.put(geneBatch, bamReaderTask);
         }
 
+        GeneCollectionBatch.prioritiseBatches(geneBatches).forEach(x -> callableList.add(batchTasks.get(x)));
+
         chrTasks.forEach(x -> x.setTaskType(TRANSCRIPT_COUNTS));
 
         if(!TaskExecutor.executeTasks(callableList, mConfig.Threads))
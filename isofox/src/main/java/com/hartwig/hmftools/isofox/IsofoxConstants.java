@@ -4,7 +4,6 @@ import static com.hartwig.hmftools.common.immune.ImmuneRegions.getIgRegions;
 
 import java.util.List;
 
-import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 
@@ -53,8 +52,8 @@ public class IsofoxConstants
         }
     }
 
-    // process genes with longer expected processing times first
-    public static final List<String> PRIORITISED_CHROMOSOMES = Lists.newArrayList("14", "22", "2", "3", "6", "9", "16", "17");
+    // gene collection batches per thread, so that tasks with longer than expected processing times can be balanced
+    public static final int GENE_BATCHES_PER_THREAD = 4;
 
     public static void populateImmuneRegions(final List<ChrBaseRegion> regions, final RefGenomeVersion version)
     {
@@ -18,6 +18,8 @@ import static com.hartwig.hmftools.common.utils.TaskExecutor.addThreadOptions;
 import static com.hartwig.hmftools.common.utils.TaskExecutor.parseThreads;
 import static com.hartwig.hmftools.isofox.IsofoxConfig.ISF_LOGGER;
 import static com.hartwig.hmftools.isofox.results.ResultsWriter.DELIMITER;
+import static com.hartwig.hmftools.patientdb.dao.BulkLoader.BULK_LOAD;
+import static com.hartwig.hmftools.patientdb.dao.BulkLoader.BULK_LOAD_DESC;
 import static com.hartwig.hmftools.patientdb.dao.DatabaseAccess.addDatabaseCmdLineArgs;
 
 import java.io.IOException;
@@ -60,6 +62,7 @@ public class DataLoaderConfig
     public final List<DataLoadType> LoadTypes;
     public final Map<String,String> SampleCancerTypes;
     public final Integer Threads;
+    public final boolean BulkLoad;
 
     public final ConfigBuilder ConfigItems;
 
@@ -123,6 +126,7 @@ public class DataLoaderConfig
         RestrictedGeneIds = Lists.newArrayList();
 
         Threads = parseThreads(configBuilder);
+        BulkLoad = configBuilder.hasFlag(BULK_LOAD);
 
         if(configBuilder.hasValue(GENE_ID_FILE))
         {
@@ -211,6 +215,7 @@ public class DataLoaderConfig
         configBuilder.addPath(GENE_DIST_FILE, false, GENE_DIST_FILE_DESC);
         configBuilder.addPath(ALT_SJ_COHORT_FILE, false, "Alternate splice junction cohort file");
         configBuilder.addPath(GENE_ID_FILE, false, GENE_ID_FILE_DESC);
+        configBuilder.addFlag(BULK_LOAD, BULK_LOAD_DESC);
 
         addLoggingOptions(configBuilder);
         addThreadOptions(configBuilder);
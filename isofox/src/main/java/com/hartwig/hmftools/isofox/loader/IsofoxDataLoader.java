@@ -69,7 +69,9 @@ public class IsofoxDataLoader
             }
 
             final List<Callable> callableList = sampleTasks.stream().collect(Collectors.toList());
-            TaskExecutor.executeTasks(callableList, mConfig.Threads);
+
+            if(!TaskExecutor.executeTasks(callableList, mConfig.Threads))
+                return false;
         }
         else
         {
@@ -78,7 +80,16 @@ public class IsofoxDataLoader
             sampleTask.getSampleIds().addAll(mConfig.SampleIds);
 
             sampleTasks.add(sampleTask);
-            sampleTask.call();
+
+            try
+            {
+                sampleTask.call();
+            }
+            catch(Exception e)
+            {
+                ISF_LOGGER.error("data loading failed: {}", e.toString());
+                return false;
+            }
         }
 
         ISF_LOGGER.info("Isofox data loading complete");
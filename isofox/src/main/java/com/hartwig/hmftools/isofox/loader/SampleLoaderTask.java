@@ -45,6 +45,7 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -100,6 +101,13 @@ public class SampleLoaderTask implements Callable
         else
         {
             mRnaDAO = new IsofoxDAO(mDbAccess.context());
+
+            if(mConfig.BulkLoad)
+            {
+                // gene expression and novel junctions are loaded alongside each other
+                mDbAccess.enableBulkLoad(2);
+                mRnaDAO.setBulkLoader(mDbAccess.bulkLoader());
+            }
         }
     }
 
@@ -113,17 +121,25 @@ public class SampleLoaderTask implements Callable
 
         ISF_LOGGER.info("{}: loading data for {} samples", mTaskId, mSampleIds.size());
 
-        for(int i = 0; i < mSampleIds.size(); ++i)
+        try
         {
-            String sampleId = mSampleIds.get(i);
+            for(int i = 0; i < mSampleIds.size(); ++i)
+            {
+                String sampleId = mSampleIds.get(i);
 
-            loadSampleData(sampleId);
+                loadSampleData(sampleId);
 
-            if(i > 0 && (i % 100) == 0)
-            {
-                ISF_LOGGER.info("{}: processed {} samples", mTaskId, i);
+                if(i > 0 && (i % 100) == 0)
+                {
+                    ISF_LOGGER.info("{}: processed {} samples", mTaskId, i);
+                }
             }
         }
+        finally
+        {
+            // also shuts down the bulk load threads
+            mDbAccess.close();
+        }
 
         if(mConfig.Threads > 1)
         {
@@ -149,6 +165,16 @@ public class SampleLoaderTask implements Callable
         loadGeneExpression(sampleId, cancerType);
         loadNovelJunctions(sampleId);
         loadFusions(sampleId);
+
+        try
+        {
+            mDbAccess.completeBulkLoads();
+        }
+        catch(SQLException e)
+        {
+            ISF_LOGGER.error("sample({}) bulk load failed: {}", sampleId, e.toString());
+            throw new IllegalStateException(String.format("sample(%s) bulk load failed", sampleId), e);
+        }
     }
 
     private String getSampleCancerType(final String sampleId)
@@ -0,0 +1,164 @@
+package com.hartwig.hmftools.isofox;
+
+import static com.hartwig.hmftools.common.gene.TranscriptProteinData.BIOTYPE_PROTEIN_CODING;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.addGeneData;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.addTransExonData;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.createEnsemblGeneData;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.createGeneDataCache;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.createTransExons;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.generateExonStarts;
+import static com.hartwig.hmftools.isofox.IsofoxConstants.GENE_BATCHES_PER_THREAD;
+import static com.hartwig.hmftools.isofox.IsofoxFunction.FUSIONS;
+import static com.hartwig.hmftools.isofox.TestUtils.CHR_1;
+import static com.hartwig.hmftools.isofox.TestUtils.CHR_2;
+import static com.hartwig.hmftools.isofox.TestUtils.EXON_LENGTH;
+import static com.hartwig.hmftools.isofox.TestUtils.POS_STRAND;
+import static com.hartwig.hmftools.isofox.TestUtils.createIsofoxConfig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
+import com.hartwig.hmftools.common.gene.GeneData;
+
+import org.junit.Test;
+
+public class GeneCollectionBatchTest
+{
+    private static final int GENE_EXONIC_LENGTH = 3 * (EXON_LENGTH + 1); // 3 exons, with inclusive ends
+
+    @Test
+    public void testBatchesPerThread()
+    {
+        IsofoxConfig config = createIsofoxConfig();
+        EnsemblDataCache geneTransCache = createGeneDataCache();
+
+        // genes of equal exonic length, each forming its own gene collection
+        addGenes(geneTransCache, CHR_1, 24);
+        addGenes(geneTransCache, CHR_2, 8);
+
+        Map<String,List<GeneData>> chrGeneMap = geneTransCache.getChrGeneDataMap();
+
+        // the genome is split into roughly GENE_BATCHES_PER_THREAD batches per thread, of 4 gene collections each
+        int threads = 2;
+        List<GeneCollectionBatch> batches = GeneCollectionBatch.createBatches(config, chrGeneMap, geneTransCache, threads);
+
+        assertEquals(threads * GENE_BATCHES_PER_THREAD, batches.size());
+        assertTrue(batches.stream().allMatch(x -> x.geneCount() == 4 && x.Weight == 4 * GENE_EXONIC_LENGTH));
+
+        // batches are returned in genomic order, each continuing from the previous batch on its chromosome
+        assertBatchesInGenomicOrder(batches, chrGeneMap);
+        assertEquals(6, batches.stream().filter(x -> x.Chromosome.equals(CHR_1)).count());
+
+        // a single thread still splits each chromosome
+        batches = GeneCollectionBatch.createBatches(config, chrGeneMap, geneTransCache, 1);
+        assertEquals(GENE_BATCHES_PER_THREAD, batches.size());
+        assertBatchesInGenomicOrder(batches, chrGeneMap);
+
+        // fusion calling keeps each chromosome in a single batch
+        config.Functions.add(FUSIONS);
+        batches = GeneCollectionBatch.createBatches(config, chrGeneMap, geneTransCache, threads);
+
+        assertEquals(2, batches.size());
+        assertTrue(batches.stream().allMatch(GeneCollectionBatch::coversChromosome));
+        assertBatchesInGenomicOrder(batches, chrGeneMap);
+    }
+
+    @Test
+    public void testEnrichedGenePriority()
+    {
+        IsofoxConfig config = createIsofoxConfig();
+        EnsemblDataCache geneTransCache = createGeneDataCache();
+
+        addGenes(geneTransCache, CHR_1, 24);
+        addGenes(geneTransCache, CHR_2, 8);
+
+        Map<String,List<GeneData>> chrGeneMap = geneTransCache.getChrGeneDataMap();
+        GeneData enrichedGene = chrGeneMap.get(CHR_2).get(5);
+        config.Filters.EnrichedGeneIds.add(enrichedGene.GeneId);
+
+        List<GeneCollectionBatch> batches = GeneCollectionBatch.createBatches(config, chrGeneMap, geneTransCache, 2);
+        assertBatchesInGenomicOrder(batches, chrGeneMap);
+
+        // the enriched gene is split into its own batch, which ends the batch before it early
+        List<GeneCollectionBatch> chr2Batches = batches.stream().filter(x -> x.Chromosome.equals(CHR_2)).collect(Collectors.toList());
+        assertEquals(4, chr2Batches.size());
+        assertEquals(4, chr2Batches.get(0).geneCount());
+        assertEquals(1, chr2Batches.get(1).geneCount());
+        assertEquals(1, chr2Batches.get(2).geneCount());
+        assertTrue(chr2Batches.get(2).HasEnrichedGenes);
+        assertEquals(2, chr2Batches.get(3).geneCount());
+
+        // tasks are run with the enriched batch first and then by decreasing weight, while the batches stay in genomic order
+        List<GeneCollectionBatch> prioritisedBatches = GeneCollectionBatch.prioritiseBatches(batches);
+
+        assertEquals(batches.size(), prioritisedBatches.size());
+        assertTrue(prioritisedBatches.get(0) == chr2Batches.get(2));
+
+        for(int i = 1; i < prioritisedBatches.size(); ++i)
+        {
+            assertFalse(prioritisedBatches.get(i).HasEnrichedGenes);
+
+            if(i > 1)
+                assertTrue(prioritisedBatches.get(i - 1).Weight >= prioritisedBatches.get(i).Weight);
+        }
+
+        assertBatchesInGenomicOrder(batches, chrGeneMap);
+    }
+
+    private static void addGenes(final EnsemblDataCache geneTransCache, final String chromosome, int geneCount)
+    {
+        List<GeneData> geneList = Lists.newArrayList();
+
+        for(int i = 0; i < geneCount; ++i)
+        {
+            String geneId = String.format("ENSG%s_%03d", chromosome, i);
+            int geneStart = 1000 + i * 1000;
+
+            geneList.add(createEnsemblGeneData(geneId, geneId, chromosome, POS_STRAND, geneStart, geneStart + 500));
+
+            // exons at gene start + 0-100, 200-300, 400-500
+            addTransExonData(geneTransCache, geneId, Lists.newArrayList(createTransExons(
+                    geneId, geneTransCache.getTranscriptDataMap().size() + 1, POS_STRAND,
+                    generateExonStarts(geneStart, 3, EXON_LENGTH, 100), EXON_LENGTH, null, null, true, BIOTYPE_PROTEIN_CODING)));
+        }
+
+        addGeneData(geneTransCache, chromosome, geneList);
+    }
+
+    private static void assertBatchesInGenomicOrder(final List<GeneCollectionBatch> batches, final Map<String,List<GeneData>> chrGeneMap)
+    {
+        String currentChromosome = null;
+        int nextGeneIndex = 0;
+        int chromosomeCount = 0;
+
+        for(GeneCollectionBatch batch : batches)
+        {
+            if(!batch.Chromosome.equals(currentChromosome))
+            {
+                // each chromosome's batches together cover all its genes
+                if(currentChromosome != null)
+                    assertEquals(chrGeneMap.get(currentChromosome).size(), nextGeneIndex);
+
+                currentChromosome = batch.Chromosome;
+                nextGeneIndex = 0;
+                ++chromosomeCount;
+            }
+
+            // each gene forms its own collection, so collection and gene indices match
+            assertEquals(nextGeneIndex, batch.GeneStartIndex);
+            assertEquals(nextGeneIndex, batch.CollectionStartId);
+            nextGeneIndex = batch.GeneEndIndex;
+        }
+
+        assertEquals(chrGeneMap.get(currentChromosome).size(), nextGeneIndex);
+        assertEquals(chrGeneMap.size(), chromosomeCount);
+        assertEquals(CHR_1, batches.get(0).Chromosome);
+    }
+}
@@ -0,0 +1,466 @@
+package com.hartwig.hmftools.neo;
+
+import static java.lang.String.format;
+
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache.ENSEMBL_DATA_DIR;
+import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache.addEnsemblDir;
+import static com.hartwig.hmftools.common.utils.config.ConfigUtils.addLoggingOptions;
+import static com.hartwig.hmftools.neo.NeoCommon.APP_NAME;
+import static com.hartwig.hmftools.neo.NeoCommon.NE_LOGGER;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader;
+import com.hartwig.hmftools.common.gene.TranscriptAminoAcids;
+import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// exact-match index over the proteome: all transcripts' amino acids are concatenated, separated by a non-amino-acid byte,
+// and the start of every k-mer is bucketed by its hash. Peptides are located by checking only the positions in the bucket of
+// their first k-mer, instead of scanning every transcript. Positions within a bucket are in increasing order, so matches are
+// returned in transcript order, and within a transcript the first match is the lowest amino acid index
+public class ProteomeIndex
+{
+    private final List<TranscriptAminoAcids> mTranscripts;
+    private final Map<String,Integer> mTranscriptIndices;
+
+    private final byte[] mAminoAcids;
+    private final int[] mTranscriptStarts; // offset of each transcript in the concatenated amino acids, plus a final end offset
+    private final int[] mBucketStarts;
+    private final int[] mPositions;
+
+    public static final String PROTEOME_INDEX_FILE = "proteome_index_file";
+    public static final String PROTEOME_INDEX_FILE_DESC = "Binary proteome index file, built from Ensembl data if not provided";
+
+    public static final int KMER_LENGTH = 8;
+
+    private static final int BUCKET_BITS = 22;
+    private static final byte SEPARATOR = '|';
+
+    private static final int MAGIC = 0x50524958; // "PRIX"
+    private static final int VERSION = 1;
+
+    public static class Match
+    {
+        public final TranscriptAminoAcids Transcript;
+        public final int AminoAcidIndex;
+
+        public Match(final TranscriptAminoAcids transcript, int aminoAcidIndex)
+        {
+            Transcript = transcript;
+            AminoAcidIndex = aminoAcidIndex;
+        }
+    }
+
+    public ProteomeIndex(final List<TranscriptAminoAcids> transcripts)
+    {
+        mTranscripts = Collections.unmodifiableList(Lists.newArrayList(transcripts));
+        mTranscriptIndices = buildTranscriptIndices(mTranscripts);
+
+        mTranscriptStarts = new int[mTranscripts.size() + 1];
+
+        long totalLength = 0;
+
+        for(int i = 0; i < mTranscripts.size(); ++i)
+        {
+            mTranscriptStarts[i] = (int)totalLength;
+            totalLength += mTranscripts.get(i).AminoAcids.length() + 1;
+
+            if(totalLength > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("proteome exceeds maximum index size");
+        }
+
+        mTranscriptStarts[mTranscripts.size()] = (int)totalLength;
+
+        mAminoAcids = new byte[(int)totalLength];
+
+        for(int i = 0; i < mTranscripts.size(); ++i)
+        {
+            String aminoAcids = mTranscripts.get(i).AminoAcids;
+            int start = mTranscriptStarts[i];
+
+            for(int j = 0; j < aminoAcids.length(); ++j)
+            {
+                mAminoAcids[start + j] = (byte)aminoAcids.charAt(j);
+            }
+
+            mAminoAcids[start + aminoAcids.length()] = SEPARATOR;
+        }
+
+        // count k-mers per bucket, convert to offsets, then fill positions in increasing order
+        mBucketStarts = new int[(1 << BUCKET_BITS) + 1];
+
+        int kmerCount = 0;
+
+        for(int pos = firstKmerStart(0); pos >= 0; pos = firstKmerStart(pos + 1))
+        {
+            ++mBucketStarts[bucket(mAminoAcids, pos) + 1];
+            ++kmerCount;
+        }
+
+        for(int i = 1; i < mBucketStarts.length; ++i)
+        {
+            mBucketStarts[i] += mBucketStarts[i - 1];
+        }
+
+        mPositions = new int[kmerCount];
+        int[] bucketFill = new int[1 << BUCKET_BITS];
+
+        for(int pos = firstKmerStart(0); pos >= 0; pos = firstKmerStart(pos + 1))
+        {
+            int bucket = bucket(mAminoAcids, pos);
+            mPositions[mBucketStarts[bucket] + bucketFill[bucket]++] = pos;
+        }
+    }
+
+    private ProteomeIndex(
+            final List<TranscriptAminoAcids> transcripts, final byte[] aminoAcids, final int[] transcriptStarts,
+            final int[] bucketStarts, final int[] positions)
+    {
+        mTranscripts = Collections.unmodifiableList(transcripts);
+        mTranscriptIndices = buildTranscriptIndices(mTranscripts);
+        mAminoAcids = aminoAcids;
+        mTranscriptStarts = transcriptStarts;
+        mBucketStarts = bucketStarts;
+        mPositions = positions;
+    }
+
+    public List<TranscriptAminoAcids> transcripts() { return mTranscripts; }
+
+    // returns the first match in each transcript containing the peptide, in transcript order
+    public List<Match> findMatches(final String peptide, boolean firstOnly)
+    {
+        List<Match> matches = Lists.newArrayList();
+
+        if(peptide.length() < KMER_LENGTH)
+        {
+            for(TranscriptAminoAcids transAminoAcids : mTranscripts)
+            {
+                int aaIndex = transAminoAcids.AminoAcids.indexOf(peptide);
+
+                if(aaIndex < 0)
+                    continue;
+
+                matches.add(new Match(transAminoAcids, aaIndex));
+
+                if(firstOnly)
+                    break;
+            }
+
+            return matches;
+        }
+
+        int bucket = bucket(peptide);
+        int lastTransIndex = -1;
+
+        for(int i = mBucketStarts[bucket]; i < mBucketStarts[bucket + 1]; ++i)
+        {
+            int pos = mPositions[i];
+
+            if(!matchesAt(peptide, pos))
+                continue;
+
+            int transIndex = transcriptIndex(pos);
+
+            if(transIndex == lastTransIndex)
+                continue;
+
+            lastTransIndex = transIndex;
+            matches.add(new Match(mTranscripts.get(transIndex), pos - mTranscriptStarts[transIndex]));
+
+            if(firstOnly)
+                break;
+        }
+
+        return matches;
+    }
+
+    @Nullable
+    public Match findFirst(final String peptide)
+    {
+        List<Match> matches = findMatches(peptide, true);
+        return !matches.isEmpty() ? matches.get(0) : null;
+    }
+
+    public boolean contains(final String peptide) { return findFirst(peptide) != null; }
+
+    public boolean transcriptContains(final String transName, final String peptide)
+    {
+        Integer transIndex = mTranscriptIndices.get(transName);
+
+        if(transIndex == null)
+            return false;
+
+        if(peptide.length() < KMER_LENGTH)
+            return mTranscripts.get(transIndex).AminoAcids.contains(peptide);
+
+        int transStart = mTranscriptStarts[transIndex];
+        int transEnd = mTranscriptStarts[transIndex + 1];
+        int bucket = bucket(peptide);
+
+        for(int i = mBucketStarts[bucket]; i < mBucketStarts[bucket + 1]; ++i)
+        {
+            int pos = mPositions[i];
+
+            if(pos >= transEnd)
+                break;
+
+            if(pos >= transStart && matchesAt(peptide, pos))
+                return true;
+        }
+
+        return false;
+    }
+
+    private boolean matchesAt(final String peptide, int pos)
+    {
+        // the separator after each transcript prevents a match running into the next one
+        if(pos + peptide.length() > mAminoAcids.length)
+            return false;
+
+        for(int i = 0; i < peptide.length(); ++i)
+        {
+            if(mAminoAcids[pos + i] != (byte)peptide.charAt(i))
+                return false;
+        }
+
+        return true;
+    }
+
+    private int transcriptIndex(int pos)
+    {
+        int low = 0;
+        int high = mTranscripts.size() - 1;
+
+        while(low < high)
+        {
+            int mid = (low + high + 1) >>> 1;
+
+            if(mTranscriptStarts[mid] <= pos)
+                low = mid;
+            else
+                high = mid - 1;
+        }
+
+        return low;
+    }
+
+    // returns the start of the next k-mer at or after the position which doesn't span a separator, or -1 if none remain
+    private int firstKmerStart(int pos)
+    {
+        int runStart = pos;
+
+        for(int i = pos; i < mAminoAcids.length; ++i)
+        {
+            if(mAminoAcids[i] == SEPARATOR)
+            {
+                runStart = i + 1;
+            }
+            else if(i - runStart + 1 == KMER_LENGTH)
+            {
+                return runStart;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int bucket(final byte[] aminoAcids, int pos)
+    {
+        int hash = 0;
+
+        for(int i = 0; i < KMER_LENGTH; ++i)
+        {
+            hash = hash * 31 + aminoAcids[pos + i];
+        }
+
+        return mixHash(hash);
+    }
+
+    private static int bucket(final String peptide)
+    {
+        int hash = 0;
+
+        for(int i = 0; i < KMER_LENGTH; ++i)
+        {
+            hash = hash * 31 + (byte)peptide.charAt(i);
+        }
+
+        return mixHash(hash);
+    }
+
+    private static int mixHash(int hash)
+    {
+        return (hash * 0x9E3779B1) >>> (Integer.SIZE - BUCKET_BITS);
+    }
+
+    private static Map<String,Integer> buildTranscriptIndices(final List<TranscriptAminoAcids> transcripts)
+    {
+        Map<String,Integer> transcriptIndices = Maps.newHashMapWithExpectedSize(transcripts.size());
+
+        for(int i = 0; i < transcripts.size(); ++i)
+        {
+            transcriptIndices.put(transcripts.get(i).TransName, i);
+        }
+
+        return transcriptIndices;
+    }
+
+    public void write(final String filename) throws IOException
+    {
+        try(DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename))))
+        {
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(VERSION);
+            outputStream.writeInt(KMER_LENGTH);
+            outputStream.writeInt(BUCKET_BITS);
+            outputStream.writeInt(mTranscripts.size());
+
+            for(TranscriptAminoAcids transAminoAcids : mTranscripts)
+            {
+                outputStream.writeUTF(transAminoAcids.GeneId);
+                outputStream.writeUTF(transAminoAcids.GeneName);
+                outputStream.writeUTF(transAminoAcids.TransName);
+                outputStream.writeBoolean(transAminoAcids.Canonical);
+            }
+
+            writeInts(outputStream, mTranscriptStarts);
+
+            outputStream.writeInt(mAminoAcids.length);
+            outputStream.write(mAminoAcids);
+
+            writeInts(outputStream, mBucketStarts);
+            writeInts(outputStream, mPositions);
+        }
+    }
+
+    private static void writeInts(final DataOutputStream outputStream, final int[] values) throws IOException
+    {
+        outputStream.writeInt(values.length);
+
+        for(int value : values)
+        {
+            outputStream.writeInt(value);
+        }
+    }
+
+    public static ProteomeIndex load(final String filename) throws IOException
+    {
+        ByteBuffer buffer;
+
+        try(RandomAccessFile file = new RandomAccessFile(filename, "r"); FileChannel channel = file.getChannel())
+        {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int fileMagic = buffer.getInt();
+        int fileVersion = buffer.getInt();
+        int kmerLength = buffer.getInt();
+        int bucketBits = buffer.getInt();
+
+        if(fileMagic != MAGIC || fileVersion != VERSION || kmerLength != KMER_LENGTH || bucketBits != BUCKET_BITS)
+        {
+            throw new IOException(format("file(%s) invalid proteome index: magic(%x) version(%d) kmerLength(%d) bucketBits(%d)",
+                    filename, fileMagic, fileVersion, kmerLength, bucketBits));
+        }
+
+        int transcriptCount = buffer.getInt();
+
+        String[][] transcriptFields = new String[transcriptCount][];
+        boolean[] canonical = new boolean[transcriptCount];
+
+        for(int i = 0; i < transcriptCount; ++i)
+        {
+            transcriptFields[i] = new String[] { readUTF(buffer), readUTF(buffer), readUTF(buffer) };
+            canonical[i] = buffer.get() != 0;
+        }
+
+        int[] transcriptStarts = readInts(buffer);
+
+        byte[] aminoAcids = new byte[buffer.getInt()];
+        buffer.get(aminoAcids);
+
+        int[] bucketStarts = readInts(buffer);
+        int[] positions = readInts(buffer);
+
+        List<TranscriptAminoAcids> transcripts = Lists.newArrayListWithCapacity(transcriptCount);
+
+        for(int i = 0; i < transcriptCount; ++i)
+        {
+            int start = transcriptStarts[i];
+            int length = transcriptStarts[i + 1] - start - 1;
+            String transAminoAcids = new String(aminoAcids, start, length, StandardCharsets.US_ASCII);
+
+            transcripts.add(new TranscriptAminoAcids(
+                    transcriptFields[i][0], transcriptFields[i][1], transcriptFields[i][2], canonical[i], transAminoAcids));
+        }
+
+        NE_LOGGER.debug("loaded proteome index with {} transcripts from {}", transcriptCount, filename);
+
+        return new ProteomeIndex(transcripts, aminoAcids, transcriptStarts, bucketStarts, positions);
+    }
+
+    private static String readUTF(final ByteBuffer buffer)
+    {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int[] readInts(final ByteBuffer buffer)
+    {
+        int[] values = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    public static ProteomeIndex fromConfig(final ConfigBuilder configBuilder) throws IOException
+    {
+        if(configBuilder.hasValue(PROTEOME_INDEX_FILE))
+            return load(configBuilder.getValue(PROTEOME_INDEX_FILE));
+
+        Map<String,TranscriptAminoAcids> transAminoAcidMap = Maps.newHashMap();
+
+        EnsemblDataLoader.loadTranscriptAminoAcidData(
+                configBuilder.getValue(ENSEMBL_DATA_DIR), transAminoAcidMap, Lists.newArrayList(), false);
+
+        return new ProteomeIndex(Lists.newArrayList(transAminoAcidMap.values()));
+    }
+
+    public static void main(@NotNull final String[] args) throws IOException
+    {
+        ConfigBuilder configBuilder = new ConfigBuilder(APP_NAME);
+        configBuilder.addConfigItem(PROTEOME_INDEX_FILE, true, "Output binary proteome index file");
+        addEnsemblDir(configBuilder, true);
+        addLoggingOptions(configBuilder);
+
+        configBuilder.checkAndParseCommandLine(args);
+
+        String outputFile = configBuilder.getValue(PROTEOME_INDEX_FILE);
+
+        Map<String,TranscriptAminoAcids> transAminoAcidMap = Maps.newHashMap();
+
+        EnsemblDataLoader.loadTranscriptAminoAcidData(
+                configBuilder.getValue(ENSEMBL_DATA_DIR), transAminoAcidMap, Lists.newArrayList(), false);
+
+        ProteomeIndex proteomeIndex = new ProteomeIndex(Lists.newArrayList(transAminoAcidMap.values()));
+        proteomeIndex.write(outputFile);
+
+        NE_LOGGER.info("wrote proteome index for {} transcripts to {}", transAminoAcidMap.size(), outputFile);
+    }
+}
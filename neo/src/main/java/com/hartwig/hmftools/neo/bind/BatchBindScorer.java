@@ -0,0 +1,99 @@
+package com.hartwig.hmftools.neo.bind;
+
+import static java.lang.Math.min;
+
+import static com.hartwig.hmftools.neo.bind.BindConstants.AMINO_ACID_COUNT;
+
+import java.util.List;
+
+// scores encoded peptides against the position weights of one or more alleles for a single peptide length. Weights are
+// flattened by allele, then position, then amino acid, and peptides are scored in blocks so each block stays in cache
+// while it is scored against every allele
+public class BatchBindScorer
+{
+    public final int PeptideLength;
+
+    private final int mAlleleCount;
+    private final double[] mWeights;
+
+    private static final int PEPTIDE_BLOCK_SIZE = 1024;
+
+    public BatchBindScorer(final List<BindScoreMatrix> matrices)
+    {
+        PeptideLength = matrices.get(0).PeptideLength;
+        mAlleleCount = matrices.size();
+
+        int alleleStride = PeptideLength * AMINO_ACID_COUNT;
+        mWeights = new double[mAlleleCount * alleleStride];
+
+        for(int a = 0; a < mAlleleCount; ++a)
+        {
+            BindScoreMatrix matrix = matrices.get(a);
+
+            if(matrix.PeptideLength != PeptideLength)
+                throw new IllegalArgumentException("batch scoring requires matrices of a single peptide length");
+
+            double[][] posWeights = matrix.getBindScores();
+
+            for(int pos = 0; pos < PeptideLength; ++pos)
+            {
+                for(int aa = 0; aa < AMINO_ACID_COUNT; ++aa)
+                {
+                    mWeights[a * alleleStride + pos * AMINO_ACID_COUNT + aa] = posWeights[aa][pos];
+                }
+            }
+        }
+    }
+
+    public int alleleCount() { return mAlleleCount; }
+
+    // returns scores by allele then peptide, including each peptide's flank score
+    public double[][] score(final EncodedPeptides peptides)
+    {
+        if(peptides.PeptideLength != PeptideLength)
+            throw new IllegalArgumentException("peptide length mismatch");
+
+        int peptideCount = peptides.count();
+        double[][] scores = new double[mAlleleCount][peptideCount];
+
+        for(int blockStart = 0; blockStart < peptideCount; blockStart += PEPTIDE_BLOCK_SIZE)
+        {
+            int blockEnd = min(blockStart + PEPTIDE_BLOCK_SIZE, peptideCount);
+
+            for(int a = 0; a < mAlleleCount; ++a)
+            {
+                scoreBlock(peptides, a, blockStart, blockEnd, scores[a]);
+            }
+        }
+
+        return scores;
+    }
+
+    private void scoreBlock(final EncodedPeptides peptides, int alleleIndex, int blockStart, int blockEnd, final double[] results)
+    {
+        final byte[] aminoAcids = peptides.aminoAcids();
+        final int weightsOffset = alleleIndex * PeptideLength * AMINO_ACID_COUNT;
+
+        for(int p = blockStart; p < blockEnd; ++p)
+        {
+            double score;
+
+            if(peptides.isValid(p))
+            {
+                score = 0;
+                int peptideOffset = p * PeptideLength;
+
+                for(int pos = 0; pos < PeptideLength; ++pos)
+                {
+                    score += mWeights[weightsOffset + pos * AMINO_ACID_COUNT + aminoAcids[peptideOffset + pos]];
+                }
+            }
+            else
+            {
+                score = BindScoreMatrix.INVALID_SCORE;
+            }
+
+            results[p] = score + peptides.flankScore(p);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.hartwig.hmftools.neo.bind;
 
 import static org.apache.commons.math3.util.FastMath.log;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -17,20 +18,25 @@ public final class BindConstants
 
     public static final Map<Character,Integer> AMINO_ACID_INDICES = Maps.newHashMap();
 
+    public static final int INVALID_AMINO_ACID = -1;
+
+    // indexed by character to avoid boxed map lookups when scoring
+    private static final int[] AMINO_ACID_INDEX_LOOKUP = new int[128];
+
     static
     {
+        Arrays.fill(AMINO_ACID_INDEX_LOOKUP, INVALID_AMINO_ACID);
+
         for(int i = 0; i < AMINO_ACIDS.size(); ++i)
         {
             AMINO_ACID_INDICES.put(AMINO_ACIDS.get(i), i);
+            AMINO_ACID_INDEX_LOOKUP[AMINO_ACIDS.get(i)] = i;
         }
     }
 
-    public static final int INVALID_AMINO_ACID = -1;
-
     public static int aminoAcidIndex(final char aminoAcid)
     {
-        Integer index = AMINO_ACID_INDICES.get(aminoAcid);
-        return index != null ? index : INVALID_AMINO_ACID;
+        return aminoAcid < AMINO_ACID_INDEX_LOOKUP.length ? AMINO_ACID_INDEX_LOOKUP[aminoAcid] : INVALID_AMINO_ACID;
     }
 
     public static final List<Integer> DEFAULT_PEPTIDE_LENGTHS = Lists.newArrayList(8, 9, 10, 11, 12);
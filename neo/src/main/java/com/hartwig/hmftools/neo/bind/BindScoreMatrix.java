@@ -34,7 +34,7 @@ public class BindScoreMatrix
 
     private final double[][] mPosWeights; // by amino acid and position
 
-    private static final double INVALID_SCORE = -1000;
+    static final double INVALID_SCORE = -1000;
 
     public BindScoreMatrix(final String allele, final int peptideLength)
     {
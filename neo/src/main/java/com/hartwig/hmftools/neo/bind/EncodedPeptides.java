@@ -0,0 +1,64 @@
+package com.hartwig.hmftools.neo.bind;
+
+import static com.hartwig.hmftools.neo.bind.BindConstants.INVALID_AMINO_ACID;
+import static com.hartwig.hmftools.neo.bind.BindConstants.aminoAcidIndex;
+
+import java.util.List;
+
+import com.hartwig.hmftools.neo.PeptideData;
+
+// peptides of a single length encoded once as amino acid indices for batch scoring, with their flank scores
+// calculated up-front since these don't depend on the allele
+public class EncodedPeptides
+{
+    public final int PeptideLength;
+    public final List<PeptideData> Peptides;
+
+    private final byte[] mAminoAcids; // amino acid indices, by peptide then position
+    private final boolean[] mValid;
+    private final double[] mFlankScores;
+
+    public EncodedPeptides(final int peptideLength, final List<PeptideData> peptides, final FlankScores flankScores)
+    {
+        PeptideLength = peptideLength;
+        Peptides = peptides;
+
+        int count = peptides.size();
+        mAminoAcids = new byte[count * peptideLength];
+        mValid = new boolean[count];
+        mFlankScores = new double[count];
+
+        for(int p = 0; p < count; ++p)
+        {
+            PeptideData peptideData = peptides.get(p);
+            mValid[p] = encode(peptideData.Peptide, p * peptideLength);
+
+            if(flankScores != null && flankScores.hasData())
+                mFlankScores[p] = flankScores.calcScore(peptideData.UpFlank, peptideData.DownFlank);
+        }
+    }
+
+    private boolean encode(final String peptide, int offset)
+    {
+        if(peptide.length() != PeptideLength)
+            return false;
+
+        for(int i = 0; i < PeptideLength; ++i)
+        {
+            int aaIndex = aminoAcidIndex(peptide.charAt(i));
+
+            if(aaIndex == INVALID_AMINO_ACID)
+                return false;
+
+            mAminoAcids[offset + i] = (byte)aaIndex;
+        }
+
+        return true;
+    }
+
+    public int count() { return mValid.length; }
+
+    public byte[] aminoAcids() { return mAminoAcids; }
+    public boolean isValid(int index) { return mValid[index]; }
+    public double flankScore(int index) { return mFlankScores[index]; }
+}
@@ -6,8 +6,9 @@ import static java.lang.Math.round;
 import static com.hartwig.hmftools.neo.NeoCommon.NE_LOGGER;
 import static com.hartwig.hmftools.neo.bind.BindConstants.PAN_PEPTIDE_LENGTH;
 import static com.hartwig.hmftools.neo.bind.BindConstants.PAN_PEPTIDE_MAX_LENGTH;
-import static com.hartwig.hmftools.neo.bind.RandomPeptideDistribution.getScoreRank;
+import static com.hartwig.hmftools.neo.bind.BindConstants.INVALID_SCORE;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -15,16 +16,14 @@ import java.util.concurrent.Callable;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.utils.Doubles;
-import com.hartwig.hmftools.common.utils.VectorUtils;
 import com.hartwig.hmftools.neo.PeptideData;
 
 public class RandomDistributionTask implements Callable
 {
     private final String mAllele;
 
-    private final Map<Integer,List<PeptideData>> mRandomPeptideMap; // by length and with flanking data
-    private final Map<String,Map<Integer,List<ScoreDistributionData>>> mAlleleScoreDistributions;
-    private final FlankScores mFlankScores;
+    private final Map<Integer,EncodedPeptides> mRandomPeptides; // by length and with flank scores
+    private final Map<Integer,ScoreRankDistribution> mScoreRanks; // by length, for this allele
     private final Map<Integer,BindScoreMatrix> mPeptideLengthMatrixMap;
 
     private final int mTaskType;
@@ -47,34 +46,30 @@ public class RandomDistributionTask implements Callable
     // instantiate one of 2 tasks
     public RandomDistributionTask(
             final String allele, final Map<Integer,BindScoreMatrix> peptideLengthMatrixMap,
-            final Map<Integer,List<PeptideData>> randomPeptideMap, final FlankScores flankScores)
+            final Map<Integer,EncodedPeptides> randomPeptides)
     {
-        this(TASK_TYPE_SCORE_RANK, allele, peptideLengthMatrixMap, randomPeptideMap, flankScores,
-                null, null, null);
+        this(TASK_TYPE_SCORE_RANK, allele, peptideLengthMatrixMap, randomPeptides, null, null, null);
     }
 
     public RandomDistributionTask(
             final String allele, final Map<Integer,BindScoreMatrix> peptideLengthMatrixMap,
-            final Map<Integer,List<PeptideData>> randomPeptideMap, final FlankScores flankScores,
-            final Map<String,Map<Integer,List<ScoreDistributionData>>> alleleScoreDistributions,
+            final Map<Integer,EncodedPeptides> randomPeptides, final Map<Integer,ScoreRankDistribution> scoreRanks,
             final BindingLikelihood bindingLikelihood, final ExpressionLikelihood expressionLikelihood)
     {
-        this(TASK_TYPE_LIKELIHOOD_RANK, allele, peptideLengthMatrixMap, randomPeptideMap, flankScores,
-                alleleScoreDistributions, bindingLikelihood, expressionLikelihood);
+        this(TASK_TYPE_LIKELIHOOD_RANK, allele, peptideLengthMatrixMap, randomPeptides, scoreRanks,
+                bindingLikelihood, expressionLikelihood);
     }
 
     private RandomDistributionTask(
             final int taskType, final String allele, final Map<Integer,BindScoreMatrix> peptideLengthMatrixMap,
-            final Map<Integer,List<PeptideData>> randomPeptideMap, final FlankScores flankScores,
-            final Map<String,Map<Integer,List<ScoreDistributionData>>> alleleScoreDistributions,
+            final Map<Integer,EncodedPeptides> randomPeptides, final Map<Integer,ScoreRankDistribution> scoreRanks,
             final BindingLikelihood bindingLikelihood, final ExpressionLikelihood expressionLikelihood)
     {
         mTaskType = taskType;
         mAllele = allele;
         mPeptideLengthMatrixMap = peptideLengthMatrixMap;
-        mRandomPeptideMap = randomPeptideMap;
-        mFlankScores = flankScores;
-        mAlleleScoreDistributions = alleleScoreDistributions;
+        mRandomPeptides = randomPeptides;
+        mScoreRanks = scoreRanks;
         mBindingLikelihood = bindingLikelihood;
         mExpressionLikelihood = expressionLikelihood;
 
@@ -112,7 +107,7 @@ public class RandomDistributionTask implements Callable
 
     private void buildScoreDistribution()
     {
-        if(mRandomPeptideMap.isEmpty())
+        if(mRandomPeptides.isEmpty())
             return;
 
         // score each against each allele and build up a percentiles for each
@@ -120,45 +115,31 @@ public class RandomDistributionTask implements Callable
 
         for(BindScoreMatrix matrix : mPeptideLengthMatrixMap.values())
         {
-            List<PeptideData> randomPeptides = mRandomPeptideMap.get(matrix.PeptideLength);
+            EncodedPeptides randomPeptides = mRandomPeptides.get(matrix.PeptideLength);
 
-            if(randomPeptides == null || randomPeptides.isEmpty())
+            if(randomPeptides == null || randomPeptides.count() == 0)
             {
                 NE_LOGGER.error("missing random peptide data for length({})", matrix.PeptideLength);
                 return;
             }
 
-            List<Double> peptideScores = Lists.newArrayListWithExpectedSize(randomPeptides.size());
+            double[] scores = new BatchBindScorer(Lists.newArrayList(matrix)).score(randomPeptides)[0];
 
-            int count = 0;
+            List<ScoreDistributionData> scoresDistributions = generateDistribution(
+                    matrix.Allele, matrix.PeptideLength, sortedDescending(scores));
 
-            for(PeptideData peptideData : randomPeptides)
-            {
-                double score = BindScorer.calcScore(matrix, mFlankScores, peptideData.Peptide, peptideData.UpFlank, peptideData.DownFlank);
-
-                VectorUtils.optimisedAdd(peptideScores, score, false);
-
-                ++count;
-
-                if(count > 0 && (count % 500000) == 0)
-                {
-                    NE_LOGGER.debug("added {} sorted random peptide scores", count);
-                }
-            }
-
-            List<ScoreDistributionData> scoresDistributions = generateDistribution(matrix.Allele, matrix.PeptideLength, peptideScores);
             mPeptideLengthDistributions.put(matrix.PeptideLength, scoresDistributions);
         }
     }
 
     public void buildLikelihoodDistribution()
     {
-        if(mRandomPeptideMap.isEmpty())
+        if(mRandomPeptides.isEmpty())
             return;
 
         NE_LOGGER.debug("building likelihood distribution for allele({})", mAllele);
 
-        List<Double> likelihoodScores = Lists.newArrayList();
+        List<double[]> lengthLikelihoods = Lists.newArrayList();
 
         for(BindScoreMatrix matrix : mPeptideLengthMatrixMap.values())
         {
@@ -166,17 +147,21 @@ public class RandomDistributionTask implements Callable
             if(matrix.PeptideLength > PAN_PEPTIDE_MAX_LENGTH)
                 continue;
 
-            int count = 0;
-
-            List<PeptideData> randomPeptides = mRandomPeptideMap.get(matrix.PeptideLength);
+            EncodedPeptides randomPeptides = mRandomPeptides.get(matrix.PeptideLength);
 
-            if(randomPeptides == null || randomPeptides.isEmpty())
+            if(randomPeptides == null || randomPeptides.count() == 0)
                 return;
 
-            for(PeptideData peptideData : randomPeptides)
+            ScoreRankDistribution scoreRanks = mScoreRanks != null ? mScoreRanks.get(matrix.PeptideLength) : null;
+
+            double[] scores = new BatchBindScorer(Lists.newArrayList(matrix)).score(randomPeptides)[0];
+            double[] likelihoods = new double[scores.length];
+
+            for(int i = 0; i < scores.length; ++i)
             {
-                double score = BindScorer.calcScore(matrix, mFlankScores, peptideData.Peptide, peptideData.UpFlank, peptideData.DownFlank);
-                double rank = getScoreRank(mAlleleScoreDistributions, mAllele, matrix.PeptideLength, score);
+                PeptideData peptideData = randomPeptides.Peptides.get(i);
+
+                double rank = scoreRanks != null ? scoreRanks.rank(scores[i]) : INVALID_SCORE;
                 double likelihood = mBindingLikelihood.getBindingLikelihood(mAllele, peptideData.Peptide, rank);
 
                 if(likelihood > 0 && mExpressionLikelihood != null && mExpressionLikelihood.hasData())
@@ -185,18 +170,37 @@ public class RandomDistributionTask implements Callable
                     likelihood *= expLikelihood;
                 }
 
-                VectorUtils.optimisedAdd(likelihoodScores, likelihood, false);
+                likelihoods[i] = likelihood;
+            }
 
-                ++count;
+            lengthLikelihoods.add(likelihoods);
+        }
 
-                if(count > 0 && (count % 500000) == 0)
-                {
-                    NE_LOGGER.debug("added {} sorted random peptide likelihood scores", count);
-                }
-            }
+        int totalCount = lengthLikelihoods.stream().mapToInt(x -> x.length).sum();
+        double[] likelihoodScores = new double[totalCount];
+
+        int index = 0;
+        for(double[] likelihoods : lengthLikelihoods)
+        {
+            System.arraycopy(likelihoods, 0, likelihoodScores, index, likelihoods.length);
+            index += likelihoods.length;
+        }
+
+        mLikelihoodDistributions.addAll(generateDistribution(mAllele, PAN_PEPTIDE_LENGTH, sortedDescending(likelihoodScores)));
+    }
+
+    private static List<Double> sortedDescending(final double[] values)
+    {
+        Arrays.sort(values);
+
+        List<Double> sortedValues = Lists.newArrayListWithCapacity(values.length);
+
+        for(int i = values.length - 1; i >= 0; --i)
+        {
+            sortedValues.add(values[i]);
         }
 
-        mLikelihoodDistributions.addAll(generateDistribution(mAllele, PAN_PEPTIDE_LENGTH, likelihoodScores));
+        return sortedValues;
     }
 
     private List<ScoreDistributionData> generateDistribution(final String allele, final int peptideLength, final List<Double> peptideScores)
@@ -28,7 +28,6 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.hartwig.hmftools.common.utils.TaskExecutor;
-import com.hartwig.hmftools.common.utils.Doubles;
 import com.hartwig.hmftools.neo.PeptideData;
 
 public class RandomPeptideDistribution
@@ -37,6 +36,7 @@ public class RandomPeptideDistribution
     private boolean mDataLoaded;
 
     private final Map<Integer,List<PeptideData>> mRandomPeptideMap; // by length and with flanking data
+    private final Map<Integer,EncodedPeptides> mEncodedRandomPeptides;
 
     // allele to peptide length to distribution
     private final Map<String,Map<Integer,List<ScoreDistributionData>>> mAlleleScoreDistributions;
@@ -47,6 +47,11 @@ public class RandomPeptideDistribution
     // allele to distribution of expression likelihoods
     private final Map<String,List<ScoreDistributionData>> mAlleleExpressionLikelihoodDistributions;
 
+    // the same distributions in primitive form for rank lookups
+    private final Map<String,Map<Integer,ScoreRankDistribution>> mAlleleScoreRanks;
+    private final Map<String,ScoreRankDistribution> mAlleleLikelihoodRanks;
+    private final Map<String,ScoreRankDistribution> mAlleleExpressionLikelihoodRanks;
+
     public RandomPeptideDistribution(final RandomPeptideConfig config)
     {
         mConfig = config;
@@ -54,7 +59,11 @@ public class RandomPeptideDistribution
         mAlleleScoreDistributions = Maps.newHashMap();
         mAlleleLikelihoodDistributions = Maps.newHashMap();
         mAlleleExpressionLikelihoodDistributions = Maps.newHashMap();
+        mAlleleScoreRanks = Maps.newHashMap();
+        mAlleleLikelihoodRanks = Maps.newHashMap();
+        mAlleleExpressionLikelihoodRanks = Maps.newHashMap();
         mRandomPeptideMap = Maps.newHashMap();
+        mEncodedRandomPeptides = Maps.newHashMap();
         mDataLoaded = false;
     }
 
@@ -63,6 +72,11 @@ public class RandomPeptideDistribution
         mDataLoaded = loadDistribution()
                 && loadLikelihoodDistribution(mConfig.LikelihoodDistributionFile, mAlleleLikelihoodDistributions, true)
                 && loadLikelihoodDistribution(mConfig.ExpressionLikelihoodDistributionFile, mAlleleExpressionLikelihoodDistributions, false);
+
+        buildScoreRanks();
+        buildLikelihoodRanks(mAlleleLikelihoodDistributions, mAlleleLikelihoodRanks);
+        buildLikelihoodRanks(mAlleleExpressionLikelihoodDistributions, mAlleleExpressionLikelihoodRanks);
+
         return mDataLoaded;
     }
 
@@ -72,91 +86,52 @@ public class RandomPeptideDistribution
 
     public double getScoreRank(final String allele, final int peptideLength, double score)
     {
-        return getScoreRank(mAlleleScoreDistributions, allele, peptideLength, score);
-    }
-
-    public static double getScoreRank(
-            final Map<String,Map<Integer,List<ScoreDistributionData>>> scoresMap, final String allele, final int peptideLength, double score)
-    {
-        Map<Integer,List<ScoreDistributionData>> peptideLengthMap = scoresMap.get(allele);
+        Map<Integer,ScoreRankDistribution> peptideLengthMap = mAlleleScoreRanks.get(allele);
 
         if(peptideLengthMap == null)
             return INVALID_SCORE;
 
-        List<ScoreDistributionData> scores = peptideLengthMap.get(peptideLength);
-
-        if(scores == null || scores.size() < 2)
-            return INVALID_SCORE;
+        ScoreRankDistribution scoreRanks = peptideLengthMap.get(peptideLength);
 
-        return getRank(scores, score);
+        return scoreRanks != null ? scoreRanks.rank(score) : INVALID_SCORE;
     }
 
     public double getLikelihoodRank(final String allele, double likelihood)
     {
-        List<ScoreDistributionData> likelihoodDist = mAlleleLikelihoodDistributions.get(allele);
-
-        if(likelihoodDist == null || likelihoodDist.size() < 2)
-            return INVALID_SCORE;
-
-        return getRank(likelihoodDist, likelihood);
+        ScoreRankDistribution likelihoodRanks = mAlleleLikelihoodRanks.get(allele);
+        return likelihoodRanks != null ? likelihoodRanks.rank(likelihood) : INVALID_SCORE;
     }
 
     public double getExpressionLikelihoodRank(final String allele, double likelihood)
     {
-        List<ScoreDistributionData> likelihoodDist = mAlleleExpressionLikelihoodDistributions.get(allele);
-
-        if(likelihoodDist == null || likelihoodDist.size() < 2)
-            return INVALID_SCORE;
-
-        return getRank(likelihoodDist, likelihood);
+        ScoreRankDistribution likelihoodRanks = mAlleleExpressionLikelihoodRanks.get(allele);
+        return likelihoodRanks != null ? likelihoodRanks.rank(likelihood) : INVALID_SCORE;
     }
 
-    private static double getRank(final List<ScoreDistributionData> distribution, double score)
+    private void buildScoreRanks()
     {
-        boolean isAscending = distribution.get(0).Score < distribution.get(1).Score;
-
-        if((isAscending && score < distribution.get(0).Score) || (!isAscending && score > distribution.get(0).Score))
-            return 0; // zero-th percentile if the score is better than any in the random distribution
+        mAlleleScoreRanks.clear();
 
-        int distSize = distribution.size();
-        if((isAscending && score > distribution.get(distSize - 1).Score) || (!isAscending && score < distribution.get(distSize - 1).Score))
-            return 1; // return the 100th percentile if outside the distribution
-
-        for(int i = 0; i < distribution.size(); ++i)
+        for(Map.Entry<String,Map<Integer,List<ScoreDistributionData>>> alleleEntry : mAlleleScoreDistributions.entrySet())
         {
-            ScoreDistributionData scoreData = distribution.get(i);
-
-            if(Doubles.equal(score, scoreData.Score))
-                return scoreData.ScoreBucket;
-
-            ScoreDistributionData nextScoreData = i < distribution.size() - 1 ? distribution.get(i + 1) : null;
-
-            if(nextScoreData != null && Doubles.equal(score, nextScoreData.Score))
-                return nextScoreData.ScoreBucket;
-
-            if((isAscending && score > scoreData.Score) || (!isAscending && score < scoreData.Score))
-            {
-                if(nextScoreData == null)
-                    break;
-
-                if((isAscending && score < nextScoreData.Score) || (!isAscending && score > nextScoreData.Score))
-                {
-                    // interpolate between the distribution to set the rank
-                    if(isAscending)
-                    {
-                        double upperPerc = (score - scoreData.Score) / (nextScoreData.Score - scoreData.Score);
-                        return upperPerc * nextScoreData.ScoreBucket + (1 - upperPerc) * scoreData.ScoreBucket;
-                    }
-                    else
-                    {
-                        double upperPerc = (score - nextScoreData.Score) / (scoreData.Score - nextScoreData.Score);
-                        return upperPerc * scoreData.ScoreBucket + (1 - upperPerc) * nextScoreData.ScoreBucket;
-                    }
-                }
-            }
+            Map<Integer,ScoreRankDistribution> peptideLengthMap = Maps.newHashMap();
+            alleleEntry.getValue().forEach((key, value) -> peptideLengthMap.put(key, new ScoreRankDistribution(value)));
+            mAlleleScoreRanks.put(alleleEntry.getKey(), peptideLengthMap);
         }
+    }
 
-        return 1;
+    private static void buildLikelihoodRanks(
+            final Map<String,List<ScoreDistributionData>> alleleDistributions, final Map<String,ScoreRankDistribution> alleleRanks)
+    {
+        alleleRanks.clear();
+        alleleDistributions.forEach((key, value) -> alleleRanks.put(key, new ScoreRankDistribution(value)));
+    }
+
+    private void encodeRandomPeptides(final FlankScores flankScores)
+    {
+        // encoded once and shared by all allele tasks
+        mEncodedRandomPeptides.clear();
+        mRandomPeptideMap.forEach((key, value) -> mEncodedRandomPeptides.put(key, new EncodedPeptides(key, value, flankScores)));
     }
 
     public void buildDistribution(final Map<String,Map<Integer,BindScoreMatrix>> alleleBindMatrixMap, final FlankScores flankScores)
@@ -173,6 +148,7 @@ public class RandomPeptideDistribution
             return;
 
         mAlleleScoreDistributions.clear();
+        encodeRandomPeptides(flankScores);
 
         List<RandomDistributionTask> alleleTasks = Lists.newArrayList();
 
@@ -187,7 +163,7 @@ public class RandomPeptideDistribution
 
             final Map<Integer, BindScoreMatrix> peptideLengthMatrixMap = alleleEntry.getValue();
 
-            alleleTasks.add(new RandomDistributionTask(allele, peptideLengthMatrixMap, mRandomPeptideMap, flankScores));
+            alleleTasks.add(new RandomDistributionTask(allele, peptideLengthMatrixMap, mEncodedRandomPeptides));
         }
 
         NE_LOGGER.info("building distribution for {} allele(s)", alleleTasks.size());
@@ -203,6 +179,7 @@ public class RandomPeptideDistribution
         }
 
         alleleTasks.forEach(x -> mAlleleScoreDistributions.put(x.allele(), x.getPeptideLengthScoreDistributions()));
+        buildScoreRanks();
 
         if(mConfig.WriteRandomDistribution)
             writeDistribution();
@@ -216,6 +193,7 @@ public class RandomPeptideDistribution
             return;
 
         mAlleleLikelihoodDistributions.clear();
+        encodeRandomPeptides(flankScores);
 
         List<RandomDistributionTask> alleleTasks = Lists.newArrayList();
 
@@ -229,7 +207,7 @@ public class RandomPeptideDistribution
             final Map<Integer, BindScoreMatrix> peptideLengthMatrixMap = alleleEntry.getValue();
 
             alleleTasks.add(new RandomDistributionTask(
-                    allele, peptideLengthMatrixMap, mRandomPeptideMap, flankScores, mAlleleScoreDistributions,
+                    allele, peptideLengthMatrixMap, mEncodedRandomPeptides, mAlleleScoreRanks.get(allele),
                     bindingLikelihood, expressionLikelihood));
         }
 
@@ -246,6 +224,7 @@ public class RandomPeptideDistribution
         }
 
         alleleTasks.forEach(x -> mAlleleLikelihoodDistributions.put(x.allele(), x.getLikelihoodDistributions()));
+        buildLikelihoodRanks(mAlleleLikelihoodDistributions, mAlleleLikelihoodRanks);
 
         if(mConfig.WriteRandomDistribution)
             writeLikelihoodDistribution();
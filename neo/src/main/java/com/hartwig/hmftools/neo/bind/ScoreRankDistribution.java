@@ -0,0 +1,71 @@
+package com.hartwig.hmftools.neo.bind;
+
+import static com.hartwig.hmftools.neo.bind.BindConstants.INVALID_SCORE;
+
+import java.util.List;
+
+import com.hartwig.hmftools.common.utils.Doubles;
+
+// a score or likelihood distribution held in primitive arrays for rank lookups by binary search. Descending distributions
+// have their scores negated so the search is always over ascending values
+public class ScoreRankDistribution
+{
+    private final double[] mScores;
+    private final double[] mBuckets;
+    private final boolean mNegated;
+
+    public ScoreRankDistribution(final List<ScoreDistributionData> distribution)
+    {
+        int size = distribution.size();
+        mNegated = size >= 2 && !(distribution.get(0).Score < distribution.get(1).Score);
+
+        mScores = new double[size];
+        mBuckets = new double[size];
+
+        for(int i = 0; i < size; ++i)
+        {
+            ScoreDistributionData scoreData = distribution.get(i);
+            mScores[i] = mNegated ? -scoreData.Score : scoreData.Score;
+            mBuckets[i] = scoreData.ScoreBucket;
+        }
+    }
+
+    public boolean isValid() { return mScores.length >= 2; }
+
+    public double rank(double score)
+    {
+        if(!isValid())
+            return INVALID_SCORE;
+
+        double value = mNegated ? -score : score;
+
+        if(value < mScores[0])
+            return 0; // zero-th percentile if the score is better than any in the random distribution
+
+        int last = mScores.length - 1;
+
+        if(value > mScores[last])
+            return 1; // return the 100th percentile if outside the distribution
+
+        // find the first score which is not below the value, treating near-equal scores as equal
+        int low = 0;
+        int high = last;
+
+        while(low < high)
+        {
+            int mid = (low + high) >>> 1;
+
+            if(mScores[mid] < value && !Doubles.equal(mScores[mid], value))
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        if(Doubles.equal(value, mScores[low]) || low == 0)
+            return mBuckets[low];
+
+        // interpolate between the distribution to set the rank
+        double upperPerc = (value - mScores[low - 1]) / (mScores[low] - mScores[low - 1]);
+        return upperPerc * mBuckets[low] + (1 - upperPerc) * mBuckets[low - 1];
+    }
+}
@@ -24,6 +24,8 @@ import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.checkAddDir
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.parseOutputDir;
 import static com.hartwig.hmftools.common.utils.TaskExecutor.addThreadOptions;
 import static com.hartwig.hmftools.common.utils.TaskExecutor.parseThreads;
+import static com.hartwig.hmftools.neo.ProteomeIndex.PROTEOME_INDEX_FILE;
+import static com.hartwig.hmftools.neo.ProteomeIndex.PROTEOME_INDEX_FILE_DESC;
 import static com.hartwig.hmftools.neo.score.SampleData.loadFromConfig;
 
 import java.util.Arrays;
@@ -146,6 +148,7 @@ public class NeoScorerConfig
         ScoreConfig.registerConfig(configBuilder);
         ConfigUtils.addLoggingOptions(configBuilder);
         EnsemblDataCache.addEnsemblDir(configBuilder);
+        configBuilder.addPath(PROTEOME_INDEX_FILE, false, PROTEOME_INDEX_FILE_DESC);
 
         configBuilder.addDecimal(
                 LIKELIHOOD_THRESHOLD, "Rank threshold to write full peptide data, default 0 (not applied)", 0);
@@ -1,26 +1,22 @@
 package com.hartwig.hmftools.neo.score;
 
-import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache.ENSEMBL_DATA_DIR;
 import static com.hartwig.hmftools.common.rna.RnaExpressionMatrix.EXPRESSION_SCOPE_TRANS;
 import static com.hartwig.hmftools.neo.NeoCommon.NE_LOGGER;
 import static com.hartwig.hmftools.neo.score.NeoScorerConfig.COHORT_SAMPLE_TPM_FILE;
 import static com.hartwig.hmftools.neo.score.NeoScorerConfig.COHORT_TPM_MEDIANS_FILE;
 
-import java.util.Map;
+import java.io.IOException;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
-import com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader;
-import com.hartwig.hmftools.common.gene.TranscriptAminoAcids;
 import com.hartwig.hmftools.common.rna.RnaExpressionMatrix;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+import com.hartwig.hmftools.neo.ProteomeIndex;
 import com.hartwig.hmftools.neo.bind.BindScorer;
 import com.hartwig.hmftools.neo.bind.ScoreConfig;
 
 public class ReferenceData
 {
     public final BindScorer PeptideScorer;
-    public final Map<String,TranscriptAminoAcids> TransAminoAcidMap;
+    public final ProteomeIndex Proteome;
     public final RnaExpressionMatrix TranscriptExpression;
     public final TpmMediansCache TpmMedians;
 
@@ -45,18 +41,23 @@ public class ReferenceData
         String cohortTpmMediansFile = configBuilder.getValue(COHORT_TPM_MEDIANS_FILE);
         TpmMedians = new TpmMediansCache(cohortTpmMediansFile);
 
-        TransAminoAcidMap = Maps.newHashMap();
-        EnsemblDataLoader.loadTranscriptAminoAcidData(
-                configBuilder.getValue(ENSEMBL_DATA_DIR), TransAminoAcidMap, Lists.newArrayList(), false);
+        ProteomeIndex proteome = null;
+
+        try
+        {
+            proteome = ProteomeIndex.fromConfig(configBuilder);
+        }
+        catch(IOException e)
+        {
+            NE_LOGGER.error("failed to load proteome index: {}", e.toString());
+            System.exit(1);
+        }
+
+        Proteome = proteome;
     }
 
     public boolean peptideMatchesWildtype(final String peptide, final String transName)
     {
-        TranscriptAminoAcids transAAs = TransAminoAcidMap.get(transName);
-
-        if(transAAs == null)
-            return false;
-
-        return transAAs.AminoAcids.contains(peptide);
+        return Proteome.transcriptContains(transName, peptide);
     }
 }
@@ -2,7 +2,6 @@ package com.hartwig.hmftools.neo.utils;
 
 import static java.lang.Math.min;
 
-import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache.ENSEMBL_DATA_DIR;
 import static com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache.addEnsemblDir;
 import static com.hartwig.hmftools.common.utils.config.ConfigUtils.addLoggingOptions;
 import static com.hartwig.hmftools.common.utils.config.ConfigUtils.loadDelimitedIdFile;
@@ -18,6 +17,8 @@ import static com.hartwig.hmftools.common.utils.TaskExecutor.addThreadOptions;
 import static com.hartwig.hmftools.common.utils.TaskExecutor.parseThreads;
 import static com.hartwig.hmftools.neo.NeoCommon.APP_NAME;
 import static com.hartwig.hmftools.neo.NeoCommon.NE_LOGGER;
+import static com.hartwig.hmftools.neo.ProteomeIndex.PROTEOME_INDEX_FILE;
+import static com.hartwig.hmftools.neo.ProteomeIndex.PROTEOME_INDEX_FILE_DESC;
 import static com.hartwig.hmftools.neo.bind.BindCommon.FLD_PEPTIDE;
 import static com.hartwig.hmftools.neo.bind.TranscriptExpression.IMMUNE_EXPRESSION_FILE;
 import static com.hartwig.hmftools.neo.bind.TranscriptExpression.IMMUNE_EXPRESSION_FILE_CFG;
@@ -25,19 +26,17 @@ import static com.hartwig.hmftools.neo.bind.TranscriptExpression.IMMUNE_EXPRESSI
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
-import com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader;
 import com.hartwig.hmftools.common.gene.TranscriptAminoAcids;
 import com.hartwig.hmftools.common.utils.TaskExecutor;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+import com.hartwig.hmftools.neo.ProteomeIndex;
 import com.hartwig.hmftools.neo.bind.BindCommon;
 import com.hartwig.hmftools.neo.bind.TranscriptExpression;
 
@@ -49,7 +48,7 @@ public class PeptideProteomeLocator
     private final int mThreads;
     private final boolean mFindRepeats;
 
-    private final Map<String,TranscriptAminoAcids> mTransAminoAcidMap;
+    private final ProteomeIndex mProteomeIndex;
     private final TranscriptExpression mTranscriptExpression;
 
     private final List<String> mPeptides;
@@ -64,8 +63,7 @@ public class PeptideProteomeLocator
     {
         mPeptides = loadDelimitedIdFile(configBuilder.getValue(PEPTIDE_FILE), FLD_PEPTIDE, CSV_DELIM);
 
-        mTransAminoAcidMap = Maps.newHashMap();
-        EnsemblDataLoader.loadTranscriptAminoAcidData(configBuilder.getValue(ENSEMBL_DATA_DIR), mTransAminoAcidMap, Lists.newArrayList(), false);
+        mProteomeIndex = loadProteomeIndex(configBuilder);
 
         mTranscriptExpression = new TranscriptExpression(configBuilder.getValue(IMMUNE_EXPRESSION_FILE));
 
@@ -100,7 +98,7 @@ public class PeptideProteomeLocator
                 taskPeptideLists.add(peptideList);
 
                 searchTasks.add(new PeptideSearchTask(
-                        i, mTransAminoAcidMap, mTranscriptExpression, peptideList, mFindRepeats, mFlankLength, mWriter));
+                        i, mProteomeIndex, mTranscriptExpression, peptideList, mFindRepeats, mFlankLength, mWriter));
             }
 
             int taskIndex = 0;
@@ -119,7 +117,7 @@ public class PeptideProteomeLocator
         else
         {
             PeptideSearchTask searchTask = new PeptideSearchTask(
-                    0, mTransAminoAcidMap, mTranscriptExpression, mPeptides, mFindRepeats, mFlankLength, mWriter);
+                    0, mProteomeIndex, mTranscriptExpression, mPeptides, mFindRepeats, mFlankLength, mWriter);
 
             searchTasks.add(searchTask);
             searchTask.run();
@@ -132,6 +130,20 @@ public class PeptideProteomeLocator
         closeBufferedWriter(mWriter);
     }
 
+    private static ProteomeIndex loadProteomeIndex(final ConfigBuilder configBuilder)
+    {
+        try
+        {
+            return ProteomeIndex.fromConfig(configBuilder);
+        }
+        catch(IOException e)
+        {
+            NE_LOGGER.error("failed to load proteome index: {}", e.toString());
+            System.exit(1);
+            return null;
+        }
+    }
+
     private BufferedWriter initialiseWriter(final String outputDir, final String outputId)
     {
         try
@@ -177,7 +189,7 @@ public class PeptideProteomeLocator
     private class PeptideSearchTask implements Callable
     {
         private final int mTaskId;
-        private final Map<String,TranscriptAminoAcids> mTransAminoAcidMap;
+        private final ProteomeIndex mProteomeIndex;
         private final TranscriptExpression mTranscriptExpression;
         private final List<String> mPeptides;
         private final int mFlankLength;
@@ -186,12 +198,12 @@ public class PeptideProteomeLocator
         private int mFound;
 
         public PeptideSearchTask(
-                int taskId, final Map<String,TranscriptAminoAcids> transAminoAcidMap, final TranscriptExpression transcriptExpression,
+                int taskId, final ProteomeIndex proteomeIndex, final TranscriptExpression transcriptExpression,
                 final List<String> peptides, boolean findRepeats, final int flankLength, final BufferedWriter writer)
         {
             mTaskId = taskId;
             mFlankLength = flankLength;
-            mTransAminoAcidMap = transAminoAcidMap;
+            mProteomeIndex = proteomeIndex;
             mTranscriptExpression = transcriptExpression;
             mPeptides = peptides;
             mFindRepeats = findRepeats;
@@ -237,11 +249,11 @@ public class PeptideProteomeLocator
             Set<String> geneNames = Sets.newHashSet();
             List<String> transNames = Lists.newArrayList();
 
-            for(TranscriptAminoAcids transAminoAcids : mTransAminoAcidMap.values())
+            // without repeats only the first transcript containing the peptide is required
+            for(ProteomeIndex.Match match : mProteomeIndex.findMatches(peptide, !mFindRepeats))
             {
-                int aaIndex = transAminoAcids.AminoAcids.indexOf(peptide);
-                if(aaIndex < 0)
-                    continue;
+                TranscriptAminoAcids transAminoAcids = match.Transcript;
+                int aaIndex = match.AminoAcidIndex;
 
                 ++matches;
 
@@ -283,9 +295,6 @@ public class PeptideProteomeLocator
                         tpmTotal += tpm;
                 }
 
-                if(!mFindRepeats)
-                    break;
-
                 // NE_LOGGER.info("found {} random peptides from {} coding transcripts", totalPeptideCount, transCodingCount);
             }
 
@@ -312,6 +321,7 @@ public class PeptideProteomeLocator
         configBuilder.addFlag(FIND_REPEATS, "Look for repeated matches");
         configBuilder.addPath(IMMUNE_EXPRESSION_FILE, true, IMMUNE_EXPRESSION_FILE_CFG);
         addEnsemblDir(configBuilder);
+        configBuilder.addPath(PROTEOME_INDEX_FILE, false, PROTEOME_INDEX_FILE_DESC);
         addLoggingOptions(configBuilder);
         addOutputOptions(configBuilder);
         addThreadOptions(configBuilder);
@@ -43,6 +43,7 @@ import com.hartwig.hmftools.common.ensemblcache.EnsemblDataLoader;
 import com.hartwig.hmftools.common.gene.TranscriptAminoAcids;
 import com.hartwig.hmftools.common.utils.TaskExecutor;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+import com.hartwig.hmftools.neo.ProteomeIndex;
 import com.hartwig.hmftools.neo.bind.BindCommon;
 import com.hartwig.hmftools.neo.bind.BindData;
 import com.hartwig.hmftools.neo.bind.BindScorer;
@@ -55,6 +56,7 @@ public class PeptideProteomeSimilarity
     private final List<PeptideSimilarity> mPeptideSimilarities;
 
     private final Map<String,List<TranscriptAminoAcids>> mTransAminoAcidMap;
+    private final ProteomeIndex mProteomeIndex;
     private final RankedProteomePeptides mRankedProteomePeptides;
     private final BindScorer mScorer;
 
@@ -74,10 +76,16 @@ public class PeptideProteomeSimilarity
             Map<String, TranscriptAminoAcids> transAminoAcidMap = Maps.newHashMap();
             EnsemblDataLoader.loadTranscriptAminoAcidData(configBuilder.getValue(ENSEMBL_DATA_DIR), transAminoAcidMap, Lists.newArrayList(), false);
             mTransAminoAcidMap = convertAminoAcidsToGeneMap(transAminoAcidMap);
+
+            // indexed in the same order as the similarity search so an exact match resolves to the same transcript
+            List<TranscriptAminoAcids> transcripts = Lists.newArrayList();
+            mTransAminoAcidMap.values().forEach(transcripts::addAll);
+            mProteomeIndex = new ProteomeIndex(transcripts);
         }
         else
         {
             mTransAminoAcidMap = null;
+            mProteomeIndex = null;
         }
 
         if(configBuilder.hasValue(PROTEOME_RANKS_FILE))
@@ -126,7 +134,7 @@ public class PeptideProteomeSimilarity
 
             for(int i = 0; i < threads; ++i)
             {
-                searchTasks.add(new PeptideSearchTask(i, mTransAminoAcidMap, mRankedProteomePeptides));
+                searchTasks.add(new PeptideSearchTask(i, mTransAminoAcidMap, mProteomeIndex, mRankedProteomePeptides));
             }
 
             int taskIndex = 0;
@@ -144,7 +152,7 @@ public class PeptideProteomeSimilarity
         }
         else
         {
-            PeptideSearchTask searchTask = new PeptideSearchTask(0, mTransAminoAcidMap, mRankedProteomePeptides);
+            PeptideSearchTask searchTask = new PeptideSearchTask(0, mTransAminoAcidMap, mProteomeIndex, mRankedProteomePeptides);
             searchTask.getPeptides().addAll(mPeptideSimilarities);
             searchTasks.add(searchTask);
             searchTask.run();
@@ -290,6 +298,7 @@ public class PeptideProteomeSimilarity
     {
         private final int mTaskId;
         private final Map<String,List<TranscriptAminoAcids>> mTransAminoAcidMap;
+        private final ProteomeIndex mProteomeIndex;
         private final RankedProteomePeptides mRankedProteomePeptides;
 
         private final List<PeptideSimilarity> mPeptideSimilarities;
@@ -297,11 +306,12 @@ public class PeptideProteomeSimilarity
         private final BlosumMapping mBlosumMapping;
 
         public PeptideSearchTask(
-                int taskId, final Map<String,List<TranscriptAminoAcids>> transAminoAcidMap,
+                int taskId, final Map<String,List<TranscriptAminoAcids>> transAminoAcidMap, final ProteomeIndex proteomeIndex,
                 final RankedProteomePeptides rankedProteomePeptides)
         {
             mTaskId = taskId;
             mTransAminoAcidMap = transAminoAcidMap;
+            mProteomeIndex = proteomeIndex;
             mRankedProteomePeptides = rankedProteomePeptides;
 
             mPeptideSimilarities = Lists.newArrayList();
@@ -426,6 +436,14 @@ public class PeptideProteomeSimilarity
 
             String peptide = peptideSim.Peptide;
 
+            ProteomeIndex.Match exactMatch = mProteomeIndex.findFirst(peptide);
+
+            if(exactMatch != null)
+            {
+                peptideSim.setTopSimilarity(peptide, 0, exactMatch.Transcript);
+                return;
+            }
+
             int peptideLength = peptide.length();
 
             for(List<TranscriptAminoAcids> transAaList : mTransAminoAcidMap.values())
@@ -436,12 +454,6 @@ public class PeptideProteomeSimilarity
                 {
                     final String aminoAcids = transAminoAcids.AminoAcids;
 
-                    if(aminoAcids.contains(peptide))
-                    {
-                        peptideSim.setTopSimilarity(peptide, 0, transAminoAcids);
-                        return;
-                    }
-
                     int aaLength = aminoAcids.length();
 
                     for(int startIndex = 0; startIndex < aaLength - peptideLength; ++startIndex)
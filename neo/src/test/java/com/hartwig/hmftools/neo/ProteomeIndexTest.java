@@ -0,0 +1,83 @@
+package com.hartwig.hmftools.neo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.gene.TranscriptAminoAcids;
+
+import org.junit.Test;
+
+public class ProteomeIndexTest
+{
+    private static final String TRANS_AAS_1 = "MKLVAARNDCQEGHILKMFPSTWYV";
+    private static final String TRANS_AAS_2 = "GGGGQEGHILKMFPAAAQEGHILKMF";
+    private static final String TRANS_AAS_3 = "MSTTWYVMKLVAAR";
+
+    private static List<TranscriptAminoAcids> transcripts()
+    {
+        return Lists.newArrayList(
+                new TranscriptAminoAcids("GENE_ID_1", "GENE_1", "TRANS_1", true, TRANS_AAS_1),
+                new TranscriptAminoAcids("GENE_ID_2", "GENE_2", "TRANS_2", true, TRANS_AAS_2),
+                new TranscriptAminoAcids("GENE_ID_3", "GENE_3", "TRANS_3", false, TRANS_AAS_3));
+    }
+
+    @Test
+    public void testPeptideMatches()
+    {
+        ProteomeIndex proteomeIndex = new ProteomeIndex(transcripts());
+        checkMatches(proteomeIndex);
+    }
+
+    @Test
+    public void testWriteAndLoad() throws IOException
+    {
+        File indexFile = File.createTempFile("proteome_index", ".bin");
+        indexFile.deleteOnExit();
+
+        new ProteomeIndex(transcripts()).write(indexFile.getAbsolutePath());
+
+        ProteomeIndex proteomeIndex = ProteomeIndex.load(indexFile.getAbsolutePath());
+
+        assertEquals(3, proteomeIndex.transcripts().size());
+        assertEquals(TRANS_AAS_2, proteomeIndex.transcripts().get(1).AminoAcids);
+        assertFalse(proteomeIndex.transcripts().get(2).Canonical);
+
+        checkMatches(proteomeIndex);
+    }
+
+    private static void checkMatches(final ProteomeIndex proteomeIndex)
+    {
+        // present in the first 2 transcripts, and twice in the second
+        String peptide = "QEGHILKMF";
+        List<ProteomeIndex.Match> matches = proteomeIndex.findMatches(peptide, false);
+        assertEquals(2, matches.size());
+        assertEquals("TRANS_1", matches.get(0).Transcript.TransName);
+        assertEquals(TRANS_AAS_1.indexOf(peptide), matches.get(0).AminoAcidIndex);
+        assertEquals("TRANS_2", matches.get(1).Transcript.TransName);
+        assertEquals(TRANS_AAS_2.indexOf(peptide), matches.get(1).AminoAcidIndex);
+
+        assertEquals(1, proteomeIndex.findMatches(peptide, true).size());
+
+        // a peptide spanning the end of one transcript and the start of the next is not a match
+        assertNull(proteomeIndex.findFirst("TWYVGGGGQ"));
+
+        assertTrue(proteomeIndex.transcriptContains("TRANS_3", "MSTTWYVMKL"));
+        assertFalse(proteomeIndex.transcriptContains("TRANS_1", "MSTTWYVMKL"));
+        assertFalse(proteomeIndex.transcriptContains("TRANS_4", "MSTTWYVMKL"));
+
+        // peptides shorter than the k-mer length are found by scanning
+        matches = proteomeIndex.findMatches("MKLVAAR", false);
+        assertEquals(2, matches.size());
+        assertEquals("TRANS_3", matches.get(1).Transcript.TransName);
+        assertEquals(7, matches.get(1).AminoAcidIndex);
+        assertTrue(proteomeIndex.contains("WYV"));
+        assertFalse(proteomeIndex.contains("WWW"));
+    }
+}
@@ -7,6 +7,7 @@ import static junit.framework.TestCase.assertEquals;
 import java.util.List;
 
 import com.google.common.collect.Lists;
+import com.hartwig.hmftools.neo.PeptideData;
 
 import org.junit.Test;
 
@@ -44,5 +45,53 @@ public class BindUtilsTest
         data = distributionData.get(distributionData.size() - 1);
         assertEquals(peptideScores.get(peptideScores.size() - 1), data.Score);
         assertEquals(peptideScores.size(), data.CumulativeCount);
+
+        // ranks interpolate between the distribution's scores
+        ScoreRankDistribution scoreRanks = new ScoreRankDistribution(distributionData);
+        assertEquals(0.0, scoreRanks.rank(scoreStart + 1), 1e-6);
+        assertEquals(1.0, scoreRanks.rank(scoreStart - totalScoreCount), 1e-6);
+        assertEquals(distributionData.get(5).ScoreBucket, scoreRanks.rank(distributionData.get(5).Score), 1e-6);
+
+        double midScore = (distributionData.get(5).Score + distributionData.get(6).Score) * 0.5;
+        double midBucket = (distributionData.get(5).ScoreBucket + distributionData.get(6).ScoreBucket) * 0.5;
+        assertEquals(midBucket, scoreRanks.rank(midScore), 1e-6);
+    }
+
+    @Test
+    public void testBatchScoring()
+    {
+        int peptideLength = 4;
+
+        List<BindScoreMatrix> matrices = Lists.newArrayList(
+                new BindScoreMatrix("A0101", peptideLength), new BindScoreMatrix("B0702", peptideLength));
+
+        for(int m = 0; m < matrices.size(); ++m)
+        {
+            double[][] posWeights = matrices.get(m).getBindScores();
+
+            for(int aa = 0; aa < posWeights.length; ++aa)
+            {
+                for(int pos = 0; pos < peptideLength; ++pos)
+                {
+                    posWeights[aa][pos] = (m + 1) * aa * 0.1 - pos;
+                }
+            }
+        }
+
+        List<PeptideData> peptides = Lists.newArrayList(
+                new PeptideData("ACDE", "", ""),
+                new PeptideData("YWVT", "", ""),
+                new PeptideData("AXDE", "", ""));
+
+        EncodedPeptides encodedPeptides = new EncodedPeptides(peptideLength, peptides, new FlankScores());
+        double[][] scores = new BatchBindScorer(matrices).score(encodedPeptides);
+
+        for(int m = 0; m < matrices.size(); ++m)
+        {
+            for(int p = 0; p < peptides.size(); ++p)
+            {
+                assertEquals(matrices.get(m).calcScore(peptides.get(p).Peptide), scores[m][p], 1e-9);
+            }
+        }
     }
 }
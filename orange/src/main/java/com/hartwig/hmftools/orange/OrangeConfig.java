@@ -13,6 +13,8 @@ import static com.hartwig.hmftools.common.pipeline.PipelineToolDirectories.LINX_
 import static com.hartwig.hmftools.common.pipeline.PipelineToolDirectories.METRICS_DIR;
 import static com.hartwig.hmftools.common.pipeline.PipelineToolDirectories.PURPLE_DIR;
 import static com.hartwig.hmftools.common.pipeline.PipelineToolDirectories.SAGE_SOMATIC_DIR;
+import static com.hartwig.hmftools.common.utils.TaskExecutor.addThreadOptions;
+import static com.hartwig.hmftools.common.utils.TaskExecutor.parseThreads;
 import static com.hartwig.hmftools.common.utils.config.CommonConfig.LILAC_DIR_CFG;
 import static com.hartwig.hmftools.common.utils.config.CommonConfig.LILAC_DIR_DESC;
 import static com.hartwig.hmftools.common.utils.config.CommonConfig.LINX_DIR_CFG;
@@ -124,6 +126,7 @@ public interface OrangeConfig
         configBuilder.addFlag(CONVERT_GERMLINE_TO_SOMATIC, "If set, germline events are converted to somatic events.");
         configBuilder.addFlag(LIMIT_JSON_OUTPUT, "If set, limits every list in the json output to 1 entry.");
         configBuilder.addFlag(ADD_DISCLAIMER, "If set, prints a disclaimer on each page.");
+        addThreadOptions(configBuilder);
         addLoggingOptions(configBuilder);
 
         OrangeRnaConfig.registerConfig(configBuilder);
@@ -208,6 +211,13 @@ public interface OrangeConfig
 
     boolean addDisclaimer();
 
+    // inputs are loaded concurrently when more than one thread is configured
+    @Value.Default
+    default int threads()
+    {
+        return 1;
+    }
+
     @NotNull
     static OrangeConfig createConfig(@NotNull ConfigBuilder configBuilder)
     {
@@ -280,7 +290,8 @@ public interface OrangeConfig
                 .linxPlotDirectory(optionalPath(pathResolver.resolveOptionalToolPlotsDirectory(LINX_PLOT_DIR_CFG, LINX_SOMATIC_DIR)))
                 .convertGermlineToSomatic(convertGermlineToSomatic)
                 .limitJsonOutput(limitJsonOutput)
-                .addDisclaimer(addDisclaimer);
+                .addDisclaimer(addDisclaimer)
+                .threads(parseThreads(configBuilder));
 
         String sageSomaticDir = pathResolver.resolveMandatoryToolDirectory(SAGE_DIR_CFG, SAGE_SOMATIC_DIR);
         builder.sageSomaticTumorSampleBQRPlot(mandatoryPath(SageCommon.generateBqrPlotFilename(sageSomaticDir, tumorSampleId)));
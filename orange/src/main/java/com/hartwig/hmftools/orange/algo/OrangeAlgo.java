@@ -76,6 +76,7 @@ import com.hartwig.hmftools.orange.algo.purple.PurpleInterpreter;
 import com.hartwig.hmftools.orange.algo.purple.PurpleVariantFactory;
 import com.hartwig.hmftools.orange.algo.sage.GermlineMVLHFactory;
 import com.hartwig.hmftools.orange.algo.util.GermlineConversion;
+import com.hartwig.hmftools.orange.algo.util.InputLoader;
 import com.hartwig.hmftools.orange.algo.util.ReportLimiter;
 import com.hartwig.hmftools.orange.algo.wildtype.WildTypeAlgo;
 import com.hartwig.hmftools.orange.cohort.datamodel.ImmutableObservation;
@@ -115,42 +116,76 @@ public class OrangeAlgo
     private boolean suppressGeneWarnings;
 
     @NotNull
-    public static OrangeAlgo fromConfig(@NotNull OrangeConfig config) throws IOException
+    public static OrangeAlgo fromConfig(@NotNull OrangeConfig config) throws Exception
     {
-        LOGGER.info("Loading DOID database from {}", config.doidJsonFile());
-        DoidEntry doidEntry = DiseaseOntology.readDoidOwlEntryFromDoidJson(config.doidJsonFile());
-        DoidParents doidParentModel = DoidParents.fromEdges(doidEntry.edges());
+        try(InputLoader loader = new InputLoader("reference", config.threads()))
+        {
+            InputLoader.Input<DoidEntry> doidEntry = loader.submit("DOID", () ->
+            {
+                LOGGER.info("Loading DOID database from {}", config.doidJsonFile());
+                return DiseaseOntology.readDoidOwlEntryFromDoidJson(config.doidJsonFile());
+            });
 
-        LOGGER.info("Reading cohort mappings from {}", config.cohortMappingTsv());
-        List<CohortMapping> mappings = CohortMappingFile.read(config.cohortMappingTsv());
-        LOGGER.info(" Reading {} cohort mappings", mappings.size());
-        CohortMapper mapper = new DoidCohortMapper(doidParentModel, mappings);
+            InputLoader.Input<List<CohortMapping>> mappings = loader.submit("cohort mappings", () ->
+            {
+                LOGGER.info("Reading cohort mappings from {}", config.cohortMappingTsv());
+                List<CohortMapping> cohortMappings = CohortMappingFile.read(config.cohortMappingTsv());
+                LOGGER.info(" Reading {} cohort mappings", cohortMappings.size());
+                return cohortMappings;
+            });
 
-        LOGGER.info("Reading percentiles from {}", config.cohortPercentilesTsv());
-        Multimap<PercentileType, CohortPercentiles> percentilesMap = CohortPercentilesFile.read(config.cohortPercentilesTsv());
-        LOGGER.info(" Read {} percentiles", percentilesMap.values().size());
-        CohortPercentilesModel percentilesModel = new CohortPercentilesModel(mapper, percentilesMap);
+            InputLoader.Input<Multimap<PercentileType, CohortPercentiles>> percentilesMap = loader.submit("cohort percentiles", () ->
+            {
+                LOGGER.info("Reading percentiles from {}", config.cohortPercentilesTsv());
+                Multimap<PercentileType, CohortPercentiles> percentiles = CohortPercentilesFile.read(config.cohortPercentilesTsv());
+                LOGGER.info(" Read {} percentiles", percentiles.values().size());
+                return percentiles;
+            });
 
-        LOGGER.info("Reading driver genes from {}", config.driverGenePanelTsv());
-        List<DriverGene> driverGenes = DriverGeneFile.read(config.driverGenePanelTsv());
-        LOGGER.info(" Read {} driver genes", driverGenes.size());
+            InputLoader.Input<List<DriverGene>> driverGenes = loader.submit("driver genes", () ->
+            {
+                LOGGER.info("Reading driver genes from {}", config.driverGenePanelTsv());
+                List<DriverGene> genes = DriverGeneFile.read(config.driverGenePanelTsv());
+                LOGGER.info(" Read {} driver genes", genes.size());
+                return genes;
+            });
 
-        LOGGER.info("Reading known fusions from {}", config.knownFusionFile());
-        KnownFusionCache knownFusionCache = new KnownFusionCache();
-        if(!knownFusionCache.loadFile(config.knownFusionFile()))
-        {
-            throw new IOException("Could not load known fusions from " + config.knownFusionFile());
-        }
-        LOGGER.info(" Read {} known fusion entries", knownFusionCache.getData().size());
+            InputLoader.Input<KnownFusionCache> knownFusionCache = loader.submit("known fusions", () ->
+            {
+                LOGGER.info("Reading known fusions from {}", config.knownFusionFile());
+                KnownFusionCache fusionCache = new KnownFusionCache();
+                if(!fusionCache.loadFile(config.knownFusionFile()))
+                {
+                    throw new IOException("Could not load known fusions from " + config.knownFusionFile());
+                }
+                LOGGER.info(" Read {} known fusion entries", fusionCache.getData().size());
+                return fusionCache;
+            });
+
+            InputLoader.Input<EnsemblDataCache> ensemblDataCache = loader.submit("Ensembl data cache", () ->
+            {
+                LOGGER.info("Reading ensembl data cache from {}", config.ensemblDataDirectory());
+                EnsemblDataCache ensemblCache = loadEnsemblDataCache(config);
+                LOGGER.info(" Read ensembl data dir");
+                return ensemblCache;
+            });
+
+            // the cohort mapper needs the DOID tree
+            InputLoader.Input<CohortMapper> mapper = loader.submit("cohort mapper",
+                    () -> new DoidCohortMapper(DoidParents.fromEdges(doidEntry.get().edges()), mappings.get()),
+                    doidEntry, mappings);
+
+            CohortPercentilesModel percentilesModel = new CohortPercentilesModel(mapper.get(), percentilesMap.get());
 
-        LOGGER.info("Reading ensembl data cache from {}", config.ensemblDataDirectory());
-        EnsemblDataCache ensemblDataCache = loadEnsemblDataCache(config);
-        LOGGER.info(" Read ensembl data dir");
+            String outputDir = config.outputDir();
+            PlotManager plotManager = !outputDir.isEmpty() ? new FileBasedPlotManager(outputDir) : new DummyPlotManager();
 
-        String outputDir = config.outputDir();
-        PlotManager plotManager = !outputDir.isEmpty() ? new FileBasedPlotManager(outputDir) : new DummyPlotManager();
+            OrangeAlgo algo = new OrangeAlgo(doidEntry.get(), mapper.get(), percentilesModel, driverGenes.get(), knownFusionCache.get(),
+                    ensemblDataCache.get(), plotManager);
 
-        return new OrangeAlgo(doidEntry, mapper, percentilesModel, driverGenes, knownFusionCache, ensemblDataCache, plotManager);
+            loader.logTimings();
+            return algo;
+        }
     }
 
     private OrangeAlgo(@NotNull final DoidEntry doidEntry, @NotNull final CohortMapper cohortMapper,
@@ -173,22 +208,57 @@ public class OrangeAlgo
     {
         Set<DoidNode> configuredPrimaryTumor = loadConfiguredPrimaryTumor(config);
         String platinumVersion = determinePlatinumVersion(config);
-        OrangeSample refSample = loadSampleData(config, false);
-        OrangeSample tumorSample = loadSampleData(config, true);
-
-        PurpleData purpleData = loadPurpleData(config);
-        LinxData linxData = loadLinxData(config);
-        Map<String, Double> mvlhPerGene = loadGermlineMVLHPerGene(config, driverGenes);
-        ChordData chord = loadChordAnalysis(config);
-        LilacSummaryData lilac = loadLilacData(config);
-        VirusInterpreterData virusInterpreter = loadVirusInterpreterData(config);
-        CuppaData cuppa = loadCuppaData(config);
-        List<PeachGenotype> peach = loadPeachData(config);
-        List<SignatureAllocation> sigAllocations = loadSigAllocations(config);
-        IsofoxData isofoxData = loadIsofoxData(config);
-
-        LinxInterpreter linxInterpreter = new LinxInterpreter(driverGenes, knownFusionCache);
-        LinxRecord linx = linxInterpreter.interpret(linxData);
+
+        OrangeSample refSample;
+        OrangeSample tumorSample;
+        PurpleData purpleData;
+        LinxData linxData;
+        LinxRecord linx;
+        Map<String, Double> mvlhPerGene;
+        ChordData chord;
+        LilacSummaryData lilac;
+        VirusInterpreterData virusInterpreter;
+        CuppaData cuppa;
+        List<PeachGenotype> peach;
+        List<SignatureAllocation> sigAllocations;
+        IsofoxData isofoxData;
+
+        try(InputLoader loader = new InputLoader("sample", config.threads()))
+        {
+            InputLoader.Input<OrangeSample> refSampleInput = loader.submit("reference sample metrics", () -> loadSampleData(config, false));
+            InputLoader.Input<OrangeSample> tumorSampleInput = loader.submit("tumor sample metrics", () -> loadSampleData(config, true));
+            InputLoader.Input<PurpleData> purpleInput = loader.submit("PURPLE", () -> loadPurpleData(config));
+            InputLoader.Input<LinxData> linxInput = loader.submit("LINX", () -> loadLinxData(config));
+            InputLoader.Input<Map<String, Double>> mvlhInput =
+                    loader.submit("germline MVLH", () -> loadGermlineMVLHPerGene(config, driverGenes));
+            InputLoader.Input<ChordData> chordInput = loader.submit("CHORD", () -> loadChordAnalysis(config));
+            InputLoader.Input<LilacSummaryData> lilacInput = loader.submit("LILAC", () -> loadLilacData(config));
+            InputLoader.Input<VirusInterpreterData> virusInput = loader.submit("Virus Interpreter", () -> loadVirusInterpreterData(config));
+            InputLoader.Input<CuppaData> cuppaInput = loader.submit("CUPPA", () -> loadCuppaData(config));
+            InputLoader.Input<List<PeachGenotype>> peachInput = loader.submit("PEACH", () -> loadPeachData(config));
+            InputLoader.Input<List<SignatureAllocation>> sigsInput = loader.submit("SIGS", () -> loadSigAllocations(config));
+            InputLoader.Input<IsofoxData> isofoxInput = loader.submit("Isofox", () -> loadIsofoxData(config));
+
+            // LINX interpretation only needs the LINX data, so can overlap with the remaining loads
+            InputLoader.Input<LinxRecord> linxRecordInput = loader.submit("LINX interpretation",
+                    () -> new LinxInterpreter(driverGenes, knownFusionCache).interpret(linxInput.get()), linxInput);
+
+            refSample = refSampleInput.get();
+            tumorSample = tumorSampleInput.get();
+            purpleData = purpleInput.get();
+            linxData = linxInput.get();
+            linx = linxRecordInput.get();
+            mvlhPerGene = mvlhInput.get();
+            chord = chordInput.get();
+            lilac = lilacInput.get();
+            virusInterpreter = virusInput.get();
+            cuppa = cuppaInput.get();
+            peach = peachInput.get();
+            sigAllocations = sigsInput.get();
+            isofoxData = isofoxInput.get();
+
+            loader.logTimings();
+        }
 
         PaveAlgo pave = new PaveAlgo(ensemblDataCache, !suppressGeneWarnings);
 
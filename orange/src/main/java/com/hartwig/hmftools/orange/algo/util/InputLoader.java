@@ -0,0 +1,191 @@
+package com.hartwig.hmftools.orange.algo.util;
+
+import static com.hartwig.hmftools.orange.OrangeApplication.LOGGER;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// runs input loaders concurrently once the inputs they depend on have loaded, and records how long each one took.
+// With a single thread each loader runs inline when submitted, as sequential loading did. Once any loader fails, loaders
+// yet to start are skipped and fail with the same exception
+public class InputLoader implements AutoCloseable
+{
+    public interface LoadFunction<T>
+    {
+        @Nullable
+        T load() throws Exception;
+    }
+
+    public static class Input<T>
+    {
+        @NotNull
+        private final String name;
+        @NotNull
+        private final CompletableFuture<T> future;
+
+        private Input(@NotNull String name, @NotNull CompletableFuture<T> future)
+        {
+            this.name = name;
+            this.future = future;
+        }
+
+        @NotNull
+        public String name()
+        {
+            return name;
+        }
+
+        @Nullable
+        public T get() throws Exception
+        {
+            try
+            {
+                return future.get();
+            }
+            catch(ExecutionException e)
+            {
+                throw unwrap(e.getCause());
+            }
+        }
+    }
+
+    private static class Timing
+    {
+        @NotNull
+        public final String name;
+        public final long millis;
+
+        public Timing(@NotNull String name, long millis)
+        {
+            this.name = name;
+            this.millis = millis;
+        }
+    }
+
+    @NotNull
+    private final String stage;
+    @Nullable
+    private final ExecutorService executorService;
+    @NotNull
+    private final List<Timing> timings;
+    @NotNull
+    private final AtomicReference<Exception> firstFailure;
+    private final long startTimeMs;
+
+    public InputLoader(@NotNull String stage, int threads)
+    {
+        this.stage = stage;
+        this.executorService = threads > 1
+                ? Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("loader-%d").build())
+                : null;
+        this.timings = Collections.synchronizedList(Lists.newArrayList());
+        this.firstFailure = new AtomicReference<>();
+        this.startTimeMs = System.currentTimeMillis();
+    }
+
+    @NotNull
+    public <T> Input<T> submit(@NotNull String name, @NotNull LoadFunction<T> loadFunction, @NotNull Input<?>... dependencies)
+    {
+        CompletableFuture<?>[] dependencyFutures = new CompletableFuture<?>[dependencies.length];
+
+        for(int i = 0; i < dependencies.length; ++i)
+        {
+            dependencyFutures[i] = dependencies[i].future;
+        }
+
+        // a failed dependency fails this input without running its loader
+        CompletableFuture<Void> dependenciesLoaded = CompletableFuture.allOf(dependencyFutures);
+
+        CompletableFuture<T> future = executorService != null
+                ? dependenciesLoaded.thenApplyAsync(x -> runLoad(name, loadFunction), executorService)
+                : dependenciesLoaded.thenApply(x -> runLoad(name, loadFunction));
+
+        return new Input<>(name, future);
+    }
+
+    @Nullable
+    private <T> T runLoad(@NotNull String name, @NotNull LoadFunction<T> loadFunction)
+    {
+        Exception failure = firstFailure.get();
+
+        if(failure != null)
+        {
+            LOGGER.debug("Skipped loading {} after an earlier failure", name);
+            throw new CompletionException(failure);
+        }
+
+        long loadStartMs = System.currentTimeMillis();
+
+        try
+        {
+            T result = loadFunction.load();
+            timings.add(new Timing(name, System.currentTimeMillis() - loadStartMs));
+            return result;
+        }
+        catch(Exception e)
+        {
+            firstFailure.compareAndSet(null, e);
+            LOGGER.error("Failed to load {}: {}", name, e.toString());
+            throw new CompletionException(e);
+        }
+    }
+
+    public void logTimings()
+    {
+        List<Timing> sortedTimings;
+
+        synchronized(timings)
+        {
+            sortedTimings = Lists.newArrayList(timings);
+        }
+
+        sortedTimings.sort(Comparator.comparingLong((Timing x) -> x.millis).reversed());
+
+        LOGGER.info("Loaded {} {} inputs in {}ms", sortedTimings.size(), stage, System.currentTimeMillis() - startTimeMs);
+
+        for(Timing timing : sortedTimings)
+        {
+            LOGGER.info(" {}: {}ms", timing.name, timing.millis);
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if(executorService != null)
+        {
+            executorService.shutdownNow();
+        }
+    }
+
+    @NotNull
+    private static Exception unwrap(@NotNull Throwable throwable)
+    {
+        Throwable cause = throwable;
+
+        while(cause instanceof CompletionException && cause.getCause() != null)
+        {
+            cause = cause.getCause();
+        }
+
+        if(cause instanceof Error)
+        {
+            throw (Error) cause;
+        }
+
+        return (Exception) cause;
+    }
+}
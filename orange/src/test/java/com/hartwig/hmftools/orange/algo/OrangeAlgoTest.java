@@ -2,8 +2,7 @@ package com.hartwig.hmftools.orange.algo;
 
 import static org.junit.Assert.assertNotNull;
 
-import java.io.IOException;
-
+import com.hartwig.hmftools.orange.ImmutableOrangeConfig;
 import com.hartwig.hmftools.orange.OrangeConfig;
 import com.hartwig.hmftools.orange.TestOrangeConfigFactory;
 
@@ -57,8 +56,17 @@ public class OrangeAlgoTest
         assertNotNull(algo.run(config));
     }
 
+    @Test
+    public void canRunReportFromTestDirWithConcurrentLoading() throws Exception
+    {
+        OrangeConfig config = ImmutableOrangeConfig.copyOf(TestOrangeConfigFactory.createWGTSConfigTumorNormal()).withThreads(4);
+        OrangeAlgo algo = createOrangeAlgo(config);
+
+        assertNotNull(algo.run(config));
+    }
+
     @NotNull
-    private static OrangeAlgo createOrangeAlgo(@NotNull OrangeConfig config) throws IOException
+    private static OrangeAlgo createOrangeAlgo(@NotNull OrangeConfig config) throws Exception
     {
         OrangeAlgo algo = OrangeAlgo.fromConfig(config);
         algo.setSuppressGeneWarnings();
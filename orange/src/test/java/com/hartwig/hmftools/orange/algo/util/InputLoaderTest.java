@@ -0,0 +1,96 @@
+package com.hartwig.hmftools.orange.algo.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class InputLoaderTest
+{
+    @Test
+    public void canLoadWithDependencies() throws Exception
+    {
+        for(int threads : new int[] { 1, 3 })
+        {
+            try(InputLoader loader = new InputLoader("test", threads))
+            {
+                InputLoader.Input<Integer> first = loader.submit("first", () -> 1);
+                InputLoader.Input<Integer> second = loader.submit("second", () -> 2);
+                InputLoader.Input<Integer> sum = loader.submit("sum", () -> first.get() + second.get(), first, second);
+
+                assertEquals(3, (int) sum.get());
+            }
+        }
+    }
+
+    @Test
+    public void sequentialLoadingStopsAtFirstFailure() throws Exception
+    {
+        IOException failure = new IOException("missing file");
+        List<String> loaded = Lists.newArrayList();
+
+        try(InputLoader loader = new InputLoader("test", 1))
+        {
+            InputLoader.Input<String> before = loader.submit("before", () -> record(loaded, "before"));
+            InputLoader.Input<String> failed = loader.submit("failed", () -> { throw failure; });
+            InputLoader.Input<String> after = loader.submit("after", () -> record(loaded, "after"));
+            InputLoader.Input<String> dependant = loader.submit("dependant", () -> record(loaded, "dependant"), before);
+
+            // loaders after the failure are not run, and fail with the original exception
+            assertEquals(Lists.newArrayList("before"), loaded);
+            assertEquals("before", before.get());
+            assertFailsWith(failure, failed);
+            assertFailsWith(failure, after);
+            assertFailsWith(failure, dependant);
+        }
+    }
+
+    @Test
+    public void concurrentLoadingSkipsLoadersAfterFailure() throws Exception
+    {
+        IOException failure = new IOException("missing file");
+        List<String> loaded = Lists.newArrayList();
+
+        try(InputLoader loader = new InputLoader("test", 2))
+        {
+            InputLoader.Input<String> failed = loader.submit("failed", () -> { throw failure; });
+            assertFailsWith(failure, failed);
+
+            InputLoader.Input<String> after = loader.submit("after", () -> record(loaded, "after"));
+            assertFailsWith(failure, after);
+            assertTrue(loaded.isEmpty());
+        }
+    }
+
+    @NotNull
+    private static String record(@NotNull List<String> loaded, @NotNull String name)
+    {
+        synchronized(loaded)
+        {
+            loaded.add(name);
+        }
+
+        return name;
+    }
+
+    private static void assertFailsWith(@NotNull Exception expected, @NotNull InputLoader.Input<?> input)
+    {
+        try
+        {
+            input.get();
+            fail("Expected " + input.name() + " to fail");
+        }
+        catch(Exception e)
+        {
+            assertSame(expected, e);
+        }
+    }
+}
@@ -10,9 +10,13 @@ import static com.hartwig.hmftools.common.utils.config.CommonConfig.REFERENCE;
 import static com.hartwig.hmftools.common.utils.config.CommonConfig.REFERENCE_DESC;
 import static com.hartwig.hmftools.common.utils.config.CommonConfig.SAMPLE;
 import static com.hartwig.hmftools.common.utils.config.CommonConfig.SAMPLE_DESC;
+import static com.hartwig.hmftools.common.utils.TaskExecutor.addThreadOptions;
+import static com.hartwig.hmftools.common.utils.TaskExecutor.parseThreads;
 import static com.hartwig.hmftools.common.utils.config.ConfigUtils.setLogLevel;
 import static com.hartwig.hmftools.patientdb.CommonUtils.LOGGER;
 import static com.hartwig.hmftools.patientdb.CommonUtils.logVersion;
+import static com.hartwig.hmftools.patientdb.dao.BulkLoader.BULK_LOAD;
+import static com.hartwig.hmftools.patientdb.dao.BulkLoader.BULK_LOAD_DESC;
 import static com.hartwig.hmftools.patientdb.dao.DatabaseAccess.addDatabaseCmdLineArgs;
 import static com.hartwig.hmftools.patientdb.dao.DatabaseAccess.databaseAccess;
 
@@ -111,6 +115,9 @@ public class LoadPurpleData
 
             final String sample = sampleId;
 
+            if(configBuilder.hasFlag(BULK_LOAD))
+                dbAccess.enableBulkLoad(parseThreads(configBuilder));
+
             dbAccess.context().transaction(tr ->
             {
                 loadCommonData(dbSampleId, sample, dbAccess, purpleDir);
@@ -120,6 +127,9 @@ public class LoadPurpleData
 
                 if(loadGermline)
                     loadGermlineData(dbSampleId, sample, referenceId, rnaId, dbAccess, purpleDir);
+
+                // a failed bulk load rolls back the remaining tables
+                dbAccess.completeBulkLoads();
             });
 
             LOGGER.info("Purple data loading complete");
@@ -278,6 +288,8 @@ public class LoadPurpleData
         configBuilder.addConfigItem(PURPLE_DIR_CFG, true, PURPLE_DIR_DESC);
         configBuilder.addFlag(SOMATIC_ONLY, "Only load somatic data");
         configBuilder.addFlag(GERMLINE_ONLY, "Only load germline data");
+        configBuilder.addFlag(BULK_LOAD, BULK_LOAD_DESC);
+        addThreadOptions(configBuilder);
         addDatabaseCmdLineArgs(configBuilder, true);
         ConfigUtils.addLoggingOptions(configBuilder);
     }
@@ -64,5 +64,8 @@ public class BufferedWriter<T> implements Consumer<T>, AutoCloseable
         {
             writeBuffer();
         }
+
+        if(mInitialised)
+            mConsumer.complete();
     }
 }
@@ -8,4 +8,7 @@ interface BufferedWriterConsumer<T> {
     void initialise();
 
     void accept(Timestamp timestamp, List<T> entries);
+
+    // called once all entries have been accepted
+    default void complete() {}
 }
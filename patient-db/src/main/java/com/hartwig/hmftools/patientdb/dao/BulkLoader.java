@@ -0,0 +1,323 @@
+package com.hartwig.hmftools.patientdb.dao;
+
+import static java.lang.String.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jooq.Field;
+import org.jooq.Table;
+import org.jooq.TableField;
+
+// loads a sample's rows for a table by streaming them to a TSV file and running LOAD DATA LOCAL INFILE, after deleting the
+// sample's existing rows in the same transaction. Each table load runs on its own connection so tables are loaded in parallel
+public class BulkLoader implements AutoCloseable
+{
+    private static final Logger LOGGER = LogManager.getLogger(BulkLoader.class);
+
+    public static final String BULK_LOAD = "bulk_load";
+    public static final String BULK_LOAD_DESC = "Load large tables with LOAD DATA LOCAL INFILE on parallel connections";
+
+    private static final String LOCAL_INFILE_ARG = "allowLoadLocalInfile=true";
+
+    private static final String NULL_VALUE = "\\N";
+
+    interface RowValues<T>
+    {
+        List<Object> values(Timestamp timestamp, T entry);
+    }
+
+    private final String mJdbcUrl;
+    private final String mUserName;
+    private final String mPassword;
+    private final ExecutorService mExecutorService;
+    private final List<Future<?>> mLoads;
+
+    BulkLoader(final String jdbcUrl, final String userName, final String password, int threads)
+    {
+        mJdbcUrl = jdbcUrl + (jdbcUrl.contains("?") ? "&" : "?") + LOCAL_INFILE_ARG;
+        mUserName = userName;
+        mPassword = password;
+
+        mExecutorService = Executors.newFixedThreadPool(
+                Math.max(threads, 1), new ThreadFactoryBuilder().setNameFormat("bulk-load-%d").build());
+
+        mLoads = Lists.newArrayList();
+    }
+
+    // returns a consumer for a streaming BufferedWriter, which submits the load once the writer is closed
+    <T> BufferedWriterConsumer<T> tableWriter(
+            final String sampleId, final Table<?> table, final TableField<?,String> sampleField, final List<Field<?>> fields,
+            final RowValues<T> rowValues)
+    {
+        return new TableLoad<>(sampleId, table, sampleField, fields, rowValues);
+    }
+
+    <T> void load(
+            final String sampleId, final Table<?> table, final TableField<?,String> sampleField, final List<Field<?>> fields,
+            final RowValues<T> rowValues, final List<T> entries)
+    {
+        TableLoad<T> tableLoad = new TableLoad<>(sampleId, table, sampleField, fields, rowValues);
+        tableLoad.initialise();
+        tableLoad.accept(new Timestamp(new Date().getTime()), entries);
+        tableLoad.complete();
+    }
+
+    // waits for all submitted loads, failing if any table could not be loaded
+    public void awaitLoads() throws SQLException
+    {
+        List<Future<?>> loads;
+
+        synchronized(mLoads)
+        {
+            loads = Lists.newArrayList(mLoads);
+            mLoads.clear();
+        }
+
+        SQLException loadException = null;
+
+        for(Future<?> load : loads)
+        {
+            try
+            {
+                load.get();
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new SQLException("bulk load interrupted", e);
+            }
+            catch(ExecutionException e)
+            {
+                if(loadException == null)
+                    loadException = new SQLException("bulk load failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        if(loadException != null)
+            throw loadException;
+    }
+
+    @Override
+    public void close()
+    {
+        mExecutorService.shutdown();
+    }
+
+    private class TableLoad<T> implements BufferedWriterConsumer<T>
+    {
+        private final String mSampleId;
+        private final Table<?> mTable;
+        private final TableField<?,String> mSampleField;
+        private final List<Field<?>> mFields;
+        private final RowValues<T> mRowValues;
+
+        private File mTsvFile;
+        private Writer mWriter;
+        private int mRowCount;
+
+        public TableLoad(
+                final String sampleId, final Table<?> table, final TableField<?,String> sampleField, final List<Field<?>> fields,
+                final RowValues<T> rowValues)
+        {
+            mSampleId = sampleId;
+            mTable = table;
+            mSampleField = sampleField;
+            mFields = fields;
+            mRowValues = rowValues;
+            mRowCount = 0;
+        }
+
+        @Override
+        public void initialise()
+        {
+            try
+            {
+                mTsvFile = File.createTempFile(mTable.getName() + ".", ".tsv");
+                mWriter = Files.newBufferedWriter(mTsvFile.toPath(), StandardCharsets.UTF_8);
+            }
+            catch(IOException e)
+            {
+                throw new IllegalStateException(format("failed to create bulk load file for table(%s)", mTable.getName()), e);
+            }
+        }
+
+        @Override
+        public void accept(final Timestamp timestamp, final List<T> entries)
+        {
+            try
+            {
+                for(T entry : entries)
+                {
+                    mWriter.write(formatRow(mRowValues.values(timestamp, entry)));
+                    mWriter.write('\n');
+                    ++mRowCount;
+                }
+            }
+            catch(IOException e)
+            {
+                throw new IllegalStateException(format("failed to write bulk load file for table(%s)", mTable.getName()), e);
+            }
+        }
+
+        @Override
+        public void complete()
+        {
+            try
+            {
+                mWriter.close();
+            }
+            catch(IOException e)
+            {
+                throw new IllegalStateException(format("failed to close bulk load file for table(%s)", mTable.getName()), e);
+            }
+
+            synchronized(mLoads)
+            {
+                mLoads.add(mExecutorService.submit(() -> { loadTable(); return null; }));
+            }
+        }
+
+        private void loadTable() throws SQLException
+        {
+            long startTimeMs = System.currentTimeMillis();
+
+            StringJoiner columns = new StringJoiner(",");
+            mFields.forEach(x -> columns.add("`" + x.getName() + "`"));
+
+            String loadSql = format("LOAD DATA LOCAL INFILE '%s' INTO TABLE `%s` CHARACTER SET utf8mb4 "
+                    + "FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (%s)",
+                    mTsvFile.getAbsolutePath().replace("\\", "\\\\").replace("'", "\\'"), mTable.getName(), columns);
+
+            try(Connection connection = DriverManager.getConnection(mJdbcUrl, mUserName, mPassword))
+            {
+                // if anything fails the connection is closed without committing, leaving the sample's previous rows in place
+                connection.setAutoCommit(false);
+
+                try(PreparedStatement deleteStatement = connection.prepareStatement(
+                        format("DELETE FROM `%s` WHERE `%s` = ?", mTable.getName(), mSampleField.getName())))
+                {
+                    deleteStatement.setString(1, mSampleId);
+                    deleteStatement.executeUpdate();
+                }
+
+                int loadedCount;
+
+                try(Statement loadStatement = connection.createStatement())
+                {
+                    loadedCount = loadStatement.executeUpdate(loadSql);
+                }
+
+                connection.commit();
+
+                if(loadedCount != mRowCount)
+                {
+                    LOGGER.warn("sample({}) table({}) bulk loaded {} of {} rows",
+                            mSampleId, mTable.getName(), loadedCount, mRowCount);
+                }
+
+                LOGGER.debug("sample({}) table({}) bulk loaded {} rows in {}ms",
+                        mSampleId, mTable.getName(), loadedCount, System.currentTimeMillis() - startTimeMs);
+            }
+            finally
+            {
+                if(!mTsvFile.delete())
+                    LOGGER.warn("failed to delete bulk load file({})", mTsvFile);
+            }
+        }
+    }
+
+    @NotNull
+    static String formatRow(final List<Object> values)
+    {
+        StringJoiner row = new StringJoiner("\t");
+
+        for(Object value : values)
+        {
+            row.add(formatValue(value));
+        }
+
+        return row.toString();
+    }
+
+    // matches the conversions jOOQ applies for the equivalent INSERT
+    @NotNull
+    static String formatValue(@Nullable Object value)
+    {
+        if(value == null)
+            return NULL_VALUE;
+
+        if(value instanceof Boolean)
+            return (Boolean) value ? "1" : "0";
+
+        // MySQL has no representation for NaN or infinite doubles
+        if(value instanceof Double && !Double.isFinite((Double) value))
+            return NULL_VALUE;
+
+        if(value instanceof Float && !Float.isFinite((Float) value))
+            return NULL_VALUE;
+
+        if(value instanceof Number || value instanceof Timestamp)
+            return value.toString();
+
+        String str = value.toString();
+
+        if(str.indexOf('\\') < 0 && str.indexOf('\t') < 0 && str.indexOf('\n') < 0 && str.indexOf('\r') < 0)
+            return str;
+
+        StringBuilder sb = new StringBuilder(str.length() + 8);
+
+        for(int i = 0; i < str.length(); ++i)
+        {
+            char c = str.charAt(i);
+
+            switch(c)
+            {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+
+                case '\t':
+                    sb.append("\\t");
+                    break;
+
+                case '\n':
+                    sb.append("\\n");
+                    break;
+
+                case '\r':
+                    sb.append("\\r");
+                    break;
+
+                default:
+                    sb.append(c);
+                    break;
+            }
+        }
+
+        return sb.toString();
+    }
+}
@@ -4,6 +4,7 @@ import static com.hartwig.hmftools.patientdb.dao.DatabaseUtil.DB_BATCH_INSERT_SI
 import static com.hartwig.hmftools.patientdb.database.hmfpatients.tables.Copynumber.COPYNUMBER;
 
 import java.sql.Timestamp;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -17,12 +18,33 @@ import com.hartwig.hmftools.common.purple.SegmentSupport;
 
 import org.jetbrains.annotations.NotNull;
 import org.jooq.DSLContext;
-import org.jooq.InsertValuesStep18;
+import org.jooq.Field;
+import org.jooq.InsertValuesStepN;
 import org.jooq.Record;
 import org.jooq.Result;
 
 class CopyNumberDAO
 {
+    private static final List<Field<?>> COPY_NUMBER_FIELDS = List.of(
+            COPYNUMBER.SAMPLEID,
+            COPYNUMBER.CHROMOSOME,
+            COPYNUMBER.START,
+            COPYNUMBER.END,
+            COPYNUMBER.COPYNUMBERMETHOD,
+            COPYNUMBER.SEGMENTSTARTSUPPORT,
+            COPYNUMBER.SEGMENTENDSUPPORT,
+            COPYNUMBER.BAFCOUNT,
+            COPYNUMBER.OBSERVEDBAF,
+            COPYNUMBER.BAF,
+            COPYNUMBER.COPYNUMBER_,
+            COPYNUMBER.MINORALLELECOPYNUMBER,
+            COPYNUMBER.MAJORALLELECOPYNUMBER,
+            COPYNUMBER.DEPTHWINDOWCOUNT,
+            COPYNUMBER.GCCONTENT,
+            COPYNUMBER.MINSTART,
+            COPYNUMBER.MAXSTART,
+            COPYNUMBER.MODIFIED);
+
     private final DSLContext context;
 
     CopyNumberDAO(final DSLContext context)
@@ -67,34 +89,21 @@ class CopyNumberDAO
 
         for(List<PurpleCopyNumber> splitCopyNumbers : Iterables.partition(copyNumbers, DB_BATCH_INSERT_SIZE))
         {
-            InsertValuesStep18 inserter = context.insertInto(COPYNUMBER,
-                    COPYNUMBER.SAMPLEID,
-                    COPYNUMBER.CHROMOSOME,
-                    COPYNUMBER.START,
-                    COPYNUMBER.END,
-                    COPYNUMBER.COPYNUMBERMETHOD,
-                    COPYNUMBER.SEGMENTSTARTSUPPORT,
-                    COPYNUMBER.SEGMENTENDSUPPORT,
-                    COPYNUMBER.BAFCOUNT,
-                    COPYNUMBER.OBSERVEDBAF,
-                    COPYNUMBER.BAF,
-                    COPYNUMBER.COPYNUMBER_,
-                    COPYNUMBER.MINORALLELECOPYNUMBER,
-                    COPYNUMBER.MAJORALLELECOPYNUMBER,
-                    COPYNUMBER.DEPTHWINDOWCOUNT,
-                    COPYNUMBER.GCCONTENT,
-                    COPYNUMBER.MINSTART,
-                    COPYNUMBER.MAXSTART,
-                    COPYNUMBER.MODIFIED);
-            splitCopyNumbers.forEach(x -> addCopynumberRecord(timestamp, inserter, sample, x));
+            InsertValuesStepN inserter = context.insertInto(COPYNUMBER, COPY_NUMBER_FIELDS);
+            splitCopyNumbers.forEach(x -> inserter.values(copyNumberValues(timestamp, sample, x)));
             inserter.execute();
         }
     }
 
-    private static void addCopynumberRecord(
-            final Timestamp timestamp, final InsertValuesStep18 inserter, final String sample, final PurpleCopyNumber region)
+    void bulkLoadCopyNumber(final BulkLoader bulkLoader, final String sample, final List<PurpleCopyNumber> copyNumbers)
+    {
+        bulkLoader.load(sample, COPYNUMBER, COPYNUMBER.SAMPLEID, COPY_NUMBER_FIELDS,
+                (timestamp, region) -> copyNumberValues(timestamp, sample, region), copyNumbers);
+    }
+
+    private static List<Object> copyNumberValues(final Timestamp timestamp, final String sample, final PurpleCopyNumber region)
     {
-        inserter.values(sample,
+        return Arrays.asList(sample,
                 region.chromosome(),
                 region.start(),
                 region.end(),
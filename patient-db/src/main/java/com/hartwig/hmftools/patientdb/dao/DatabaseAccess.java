@@ -140,6 +140,15 @@ public class DatabaseAccess implements AutoCloseable
     @NotNull
     private final TealDAO tealDAO;
 
+    @NotNull
+    private final String url;
+    @NotNull
+    private final String userName;
+    @NotNull
+    private final String password;
+    @Nullable
+    private BulkLoader bulkLoader;
+
     public DatabaseAccess(@NotNull final String userName, @NotNull final String password, @NotNull final String url) throws SQLException
     {
         System.setProperty("org.jooq.no-logo", "true");
@@ -176,6 +185,11 @@ public class DatabaseAccess implements AutoCloseable
         this.virusInterpreterDAO = new VirusInterpreterDAO(context);
         this.ciderDAO = new CiderDAO(context);
         this.tealDAO = new TealDAO(context);
+
+        this.url = url;
+        this.userName = userName;
+        this.password = password;
+        this.bulkLoader = null;
     }
 
     public static void addDatabaseCmdLineArgs(final ConfigBuilder configBuilder, boolean isRequired)
@@ -282,9 +296,31 @@ public class DatabaseAccess implements AutoCloseable
         return context;
     }
 
+    // large sample tables are then loaded with LOAD DATA on separate connections, so are not part of any transaction on this one
+    public void enableBulkLoad(int threads)
+    {
+        if(bulkLoader == null)
+            bulkLoader = new BulkLoader(url, userName, password, threads);
+    }
+
+    @Nullable
+    public BulkLoader bulkLoader()
+    {
+        return bulkLoader;
+    }
+
+    public void completeBulkLoads() throws SQLException
+    {
+        if(bulkLoader != null)
+            bulkLoader.awaitLoads();
+    }
+
     @Override
     public void close()
     {
+        if(bulkLoader != null)
+            bulkLoader.close();
+
         try
         {
             connection.close();
@@ -427,7 +463,10 @@ public class DatabaseAccess implements AutoCloseable
 
     public void writeCopynumbers(@NotNull String sample, @NotNull List<PurpleCopyNumber> copyNumbers)
     {
-        copyNumberDAO.writeCopyNumber(sample, copyNumbers);
+        if(bulkLoader != null)
+            copyNumberDAO.bulkLoadCopyNumber(bulkLoader, sample, copyNumbers);
+        else
+            copyNumberDAO.writeCopyNumber(sample, copyNumbers);
     }
 
     public void writeAmberMapping(@NotNull String sample, List<AmberMapping> mapping)
@@ -481,12 +520,15 @@ public class DatabaseAccess implements AutoCloseable
     @NotNull
     public BufferedWriter<SomaticVariant> somaticVariantWriter(@NotNull final String sampleId)
     {
-        return somaticVariantDAO.writer(sampleId);
+        return bulkLoader != null ? somaticVariantDAO.bulkLoadWriter(bulkLoader, sampleId) : somaticVariantDAO.writer(sampleId);
     }
 
     public void writeStructuralVariants(@NotNull String sampleId, @NotNull List<StructuralVariantData> variants)
     {
-        structuralVariantDAO.write(sampleId, variants);
+        if(bulkLoader != null)
+            structuralVariantDAO.bulkLoad(bulkLoader, sampleId, variants);
+        else
+            structuralVariantDAO.write(sampleId, variants);
     }
 
     public void writeSvClusters(@NotNull String sample, @NotNull List<LinxCluster> clusters)
@@ -526,7 +568,10 @@ public class DatabaseAccess implements AutoCloseable
 
     public void writeGeneCopyNumbers(@NotNull String sample, @NotNull List<GeneCopyNumber> geneCopyNumbers)
     {
-        geneCopyNumberDAO.writeCopyNumber(sample, geneCopyNumbers);
+        if(bulkLoader != null)
+            geneCopyNumberDAO.bulkLoadCopyNumber(bulkLoader, sample, geneCopyNumbers);
+        else
+            geneCopyNumberDAO.writeCopyNumber(sample, geneCopyNumbers);
     }
 
     public void writeGermlineDeletions(@NotNull String sample, @NotNull List<GermlineDeletion> deletions)
@@ -7,6 +7,7 @@ import static com.hartwig.hmftools.patientdb.database.hmfpatients.Tables.GERMLIN
 import static com.hartwig.hmftools.patientdb.database.hmfpatients.tables.Copynumber.COPYNUMBER;
 
 import java.sql.Timestamp;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -22,14 +23,36 @@ import com.hartwig.hmftools.common.purple.SegmentSupport;
 
 import org.jetbrains.annotations.NotNull;
 import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.InsertValuesStep18;
-import org.jooq.InsertValuesStep19;
+import org.jooq.InsertValuesStepN;
 import org.jooq.Record;
 import org.jooq.Record15;
 import org.jooq.Result;
 
 public class GeneCopyNumberDAO
 {
+    private static final List<Field<?>> GENE_COPY_NUMBER_FIELDS = List.of(
+            GENECOPYNUMBER.SAMPLEID,
+            GENECOPYNUMBER.CHROMOSOME,
+            GENECOPYNUMBER.START,
+            GENECOPYNUMBER.END,
+            GENECOPYNUMBER.GENE,
+            GENECOPYNUMBER.MINCOPYNUMBER,
+            GENECOPYNUMBER.MAXCOPYNUMBER,
+            GENECOPYNUMBER.SOMATICREGIONS,
+            GENECOPYNUMBER.TRANSCRIPTID,
+            GENECOPYNUMBER.CANONICALTRANSCRIPT,
+            GENECOPYNUMBER.CHROMOSOMEBAND,
+            GENECOPYNUMBER.MINREGIONS,
+            GENECOPYNUMBER.MINREGIONSTART,
+            GENECOPYNUMBER.MINREGIONEND,
+            GENECOPYNUMBER.MINREGIONSTARTSUPPORT,
+            GENECOPYNUMBER.MINREGIONENDSUPPORT,
+            GENECOPYNUMBER.MINREGIONMETHOD,
+            GENECOPYNUMBER.MINMINORALLELECOPYNUMBER,
+            GENECOPYNUMBER.MODIFIED);
+
     private final DSLContext context;
 
     GeneCopyNumberDAO(final DSLContext context)
@@ -117,35 +140,21 @@ public class GeneCopyNumberDAO
 
         for(List<GeneCopyNumber> splitCopyNumbers : Iterables.partition(copyNumbers, DB_BATCH_INSERT_SIZE))
         {
-            InsertValuesStep19 inserter = context.insertInto(GENECOPYNUMBER,
-                    GENECOPYNUMBER.SAMPLEID,
-                    GENECOPYNUMBER.CHROMOSOME,
-                    GENECOPYNUMBER.START,
-                    GENECOPYNUMBER.END,
-                    GENECOPYNUMBER.GENE,
-                    GENECOPYNUMBER.MINCOPYNUMBER,
-                    GENECOPYNUMBER.MAXCOPYNUMBER,
-                    GENECOPYNUMBER.SOMATICREGIONS,
-                    GENECOPYNUMBER.TRANSCRIPTID,
-                    GENECOPYNUMBER.CANONICALTRANSCRIPT,
-                    GENECOPYNUMBER.CHROMOSOMEBAND,
-                    GENECOPYNUMBER.MINREGIONS,
-                    GENECOPYNUMBER.MINREGIONSTART,
-                    GENECOPYNUMBER.MINREGIONEND,
-                    GENECOPYNUMBER.MINREGIONSTARTSUPPORT,
-                    GENECOPYNUMBER.MINREGIONENDSUPPORT,
-                    GENECOPYNUMBER.MINREGIONMETHOD,
-                    GENECOPYNUMBER.MINMINORALLELECOPYNUMBER,
-                    COPYNUMBER.MODIFIED);
-            splitCopyNumbers.forEach(x -> addCopynumberRecord(timestamp, inserter, sample, x));
+            InsertValuesStepN inserter = context.insertInto(GENECOPYNUMBER, GENE_COPY_NUMBER_FIELDS);
+            splitCopyNumbers.forEach(x -> inserter.values(copyNumberValues(timestamp, sample, x)));
             inserter.execute();
         }
     }
 
-    private static void addCopynumberRecord(
-            final Timestamp timestamp, final InsertValuesStep19 inserter, final String sample, final GeneCopyNumber gene)
+    public void bulkLoadCopyNumber(final BulkLoader bulkLoader, final String sample, final List<GeneCopyNumber> copyNumbers)
+    {
+        bulkLoader.load(sample, GENECOPYNUMBER, GENECOPYNUMBER.SAMPLEID, GENE_COPY_NUMBER_FIELDS,
+                (timestamp, gene) -> copyNumberValues(timestamp, sample, gene), copyNumbers);
+    }
+
+    private static List<Object> copyNumberValues(final Timestamp timestamp, final String sample, final GeneCopyNumber gene)
     {
-        inserter.values(sample,
+        return Arrays.asList(sample,
                 gene.chromosome(),
                 gene.start(),
                 gene.end(),
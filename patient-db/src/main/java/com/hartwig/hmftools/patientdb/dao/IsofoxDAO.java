@@ -8,6 +8,7 @@ import static com.hartwig.hmftools.patientdb.database.hmfpatients.Tables.RNAFUSI
 import static com.hartwig.hmftools.patientdb.database.hmfpatients.Tables.RNASTATISTICS;
 
 import java.sql.Timestamp;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -19,9 +20,10 @@ import com.hartwig.hmftools.common.rna.RnaStatistics;
 
 import org.jetbrains.annotations.NotNull;
 import org.jooq.DSLContext;
-import org.jooq.InsertValuesStep10;
+import org.jooq.Field;
 import org.jooq.InsertValuesStep15;
 import org.jooq.InsertValuesStep20;
+import org.jooq.InsertValuesStepN;
 
 public class IsofoxDAO
 {
@@ -29,8 +31,46 @@ public class IsofoxDAO
 
     private static final int DB_BATCH_INSERT_SIZE = 10000;
 
+    private static final List<Field<?>> GENE_EXPRESSION_FIELDS = List.of(
+            GENEEXPRESSION.MODIFIED,
+            GENEEXPRESSION.SAMPLEID,
+            GENEEXPRESSION.GENE,
+            GENEEXPRESSION.TPM,
+            GENEEXPRESSION.SPLICEDFRAGMENTS,
+            GENEEXPRESSION.UNSPLICEDFRAGMENTS,
+            GENEEXPRESSION.MEDIANTPMCANCER,
+            GENEEXPRESSION.PERCENTILECANCER,
+            GENEEXPRESSION.MEDIANTPMCOHORT,
+            GENEEXPRESSION.PERCENTILECOHORT);
+
+    private static final List<Field<?>> NOVEL_JUNCTION_FIELDS = List.of(
+            NOVELSPLICEJUNCTION.MODIFIED,
+            NOVELSPLICEJUNCTION.SAMPLEID,
+            NOVELSPLICEJUNCTION.GENE,
+            NOVELSPLICEJUNCTION.CHROMOSOME,
+            NOVELSPLICEJUNCTION.JUNCTIONSTART,
+            NOVELSPLICEJUNCTION.JUNCTIONEND,
+            NOVELSPLICEJUNCTION.TYPE,
+            NOVELSPLICEJUNCTION.FRAGMENTCOUNT,
+            NOVELSPLICEJUNCTION.DEPTHSTART,
+            NOVELSPLICEJUNCTION.DEPTHEND,
+            NOVELSPLICEJUNCTION.REGIONSTART,
+            NOVELSPLICEJUNCTION.REGIONEND,
+            NOVELSPLICEJUNCTION.BASESSTART,
+            NOVELSPLICEJUNCTION.BASESEND,
+            NOVELSPLICEJUNCTION.COHORTFREQUENCY);
+
+    // when set, gene expression and novel splice junctions are bulk loaded on the loader's own connections
+    private BulkLoader bulkLoader;
+
     public IsofoxDAO(final DSLContext context) {
         this.context = context;
+        this.bulkLoader = null;
+    }
+
+    public void setBulkLoader(final BulkLoader bulkLoader)
+    {
+        this.bulkLoader = bulkLoader;
     }
 
     void deleteSampleData(final String sampleId)
@@ -85,33 +125,29 @@ public class IsofoxDAO
 
     public void writeGeneExpressions(final String sampleId, final List<GeneExpression> geneExpressions)
     {
+        if(bulkLoader != null)
+        {
+            bulkLoader.load(sampleId, GENEEXPRESSION, GENEEXPRESSION.SAMPLEID, GENE_EXPRESSION_FIELDS,
+                    (timestamp, geneExpression) -> geneExpressionValues(timestamp, sampleId, geneExpression), geneExpressions);
+            return;
+        }
+
         context.delete(GENEEXPRESSION).where(GENEEXPRESSION.SAMPLEID.eq(sampleId)).execute();
 
         Timestamp timestamp = new Timestamp(new Date().getTime());
 
         for (List<GeneExpression> batch : Iterables.partition(geneExpressions, DB_BATCH_INSERT_SIZE))
         {
-            InsertValuesStep10 inserter = context.insertInto(GENEEXPRESSION,
-                    GENEEXPRESSION.MODIFIED,
-                    GENEEXPRESSION.SAMPLEID,
-                    GENEEXPRESSION.GENE,
-                    GENEEXPRESSION.TPM,
-                    GENEEXPRESSION.SPLICEDFRAGMENTS,
-                    GENEEXPRESSION.UNSPLICEDFRAGMENTS,
-                    GENEEXPRESSION.MEDIANTPMCANCER,
-                    GENEEXPRESSION.PERCENTILECANCER,
-                    GENEEXPRESSION.MEDIANTPMCOHORT,
-                    GENEEXPRESSION.PERCENTILECOHORT);
+            InsertValuesStepN inserter = context.insertInto(GENEEXPRESSION, GENE_EXPRESSION_FIELDS);
 
-            batch.forEach(entry -> addRecord(timestamp, inserter, sampleId, entry));
+            batch.forEach(entry -> inserter.values(geneExpressionValues(timestamp, sampleId, entry)));
             inserter.execute();
         }
     }
 
-    private static void addRecord(
-            final Timestamp timestamp, final InsertValuesStep10 inserter, final String sampleId, final GeneExpression geneExpression)
+    private static List<Object> geneExpressionValues(final Timestamp timestamp, final String sampleId, final GeneExpression geneExpression)
     {
-        inserter.values(
+        return Arrays.asList(
                 timestamp,
                 sampleId,
                 checkStringLength(geneExpression.geneName(), GENEEXPRESSION.GENE),
@@ -126,38 +162,30 @@ public class IsofoxDAO
 
     public void writeNovelSpliceJunctions(final String sampleId, final List<NovelSpliceJunction> novelJunctions)
     {
+        if(bulkLoader != null)
+        {
+            bulkLoader.load(sampleId, NOVELSPLICEJUNCTION, NOVELSPLICEJUNCTION.SAMPLEID, NOVEL_JUNCTION_FIELDS,
+                    (timestamp, novelJunction) -> novelJunctionValues(timestamp, sampleId, novelJunction), novelJunctions);
+            return;
+        }
+
         context.delete(NOVELSPLICEJUNCTION).where(NOVELSPLICEJUNCTION.SAMPLEID.eq(sampleId)).execute();
 
         Timestamp timestamp = new Timestamp(new Date().getTime());
 
         for (List<NovelSpliceJunction> batch : Iterables.partition(novelJunctions, DB_BATCH_INSERT_SIZE))
         {
-            InsertValuesStep15 inserter = context.insertInto(NOVELSPLICEJUNCTION,
-                    NOVELSPLICEJUNCTION.MODIFIED,
-                    NOVELSPLICEJUNCTION.SAMPLEID,
-                    NOVELSPLICEJUNCTION.GENE,
-                    NOVELSPLICEJUNCTION.CHROMOSOME,
-                    NOVELSPLICEJUNCTION.JUNCTIONSTART,
-                    NOVELSPLICEJUNCTION.JUNCTIONEND,
-                    NOVELSPLICEJUNCTION.TYPE,
-                    NOVELSPLICEJUNCTION.FRAGMENTCOUNT,
-                    NOVELSPLICEJUNCTION.DEPTHSTART,
-                    NOVELSPLICEJUNCTION.DEPTHEND,
-                    NOVELSPLICEJUNCTION.REGIONSTART,
-                    NOVELSPLICEJUNCTION.REGIONEND,
-                    NOVELSPLICEJUNCTION.BASESSTART,
-                    NOVELSPLICEJUNCTION.BASESEND,
-                    NOVELSPLICEJUNCTION.COHORTFREQUENCY);
+            InsertValuesStepN inserter = context.insertInto(NOVELSPLICEJUNCTION, NOVEL_JUNCTION_FIELDS);
 
-            batch.forEach(entry -> addRecord(timestamp, inserter, sampleId, entry));
+            batch.forEach(entry -> inserter.values(novelJunctionValues(timestamp, sampleId, entry)));
             inserter.execute();
         }
     }
 
-    private static void addRecord(
-            final Timestamp timestamp, final InsertValuesStep15 inserter, final String sampleId, final NovelSpliceJunction novelJunction)
+    private static List<Object> novelJunctionValues(
+            final Timestamp timestamp, final String sampleId, final NovelSpliceJunction novelJunction)
     {
-        inserter.values(
+        return Arrays.asList(
                 timestamp,
                 sampleId,
                 checkStringLength(novelJunction.geneName(), NOVELSPLICEJUNCTION.GENE),
@@ -9,6 +9,7 @@ import static com.hartwig.hmftools.patientdb.dao.GermlineVariantDAO.checkTrimHgs
 import static com.hartwig.hmftools.patientdb.database.hmfpatients.Tables.SOMATICVARIANT;
 
 import java.sql.Timestamp;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +29,7 @@ import com.hartwig.hmftools.common.variant.VariantType;
 import org.apache.logging.log4j.util.Strings;
 import org.jetbrains.annotations.NotNull;
 import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.InsertValuesStepN;
 import org.jooq.Record;
 import org.jooq.Record1;
@@ -39,6 +41,53 @@ public class SomaticVariantDAO
 
     private static final int DB_BATCH_INSERT_SIZE = 10000;
 
+    private static final List<Field<?>> SOMATIC_VARIANT_FIELDS = List.of(
+            SOMATICVARIANT.SAMPLEID,
+            SOMATICVARIANT.CHROMOSOME,
+            SOMATICVARIANT.POSITION,
+            SOMATICVARIANT.FILTER,
+            SOMATICVARIANT.TYPE,
+            SOMATICVARIANT.REF,
+            SOMATICVARIANT.ALT,
+            SOMATICVARIANT.GENE,
+            SOMATICVARIANT.GENESAFFECTED,
+            SOMATICVARIANT.REPORTED,
+            SOMATICVARIANT.WORSTCODINGEFFECT,
+            SOMATICVARIANT.CANONICALEFFECT,
+            SOMATICVARIANT.CANONICALCODINGEFFECT,
+            SOMATICVARIANT.CANONICALHGVSCODINGIMPACT,
+            SOMATICVARIANT.CANONICALHGVSPROTEINIMPACT,
+            SOMATICVARIANT.SPLICEREGION,
+            SOMATICVARIANT.OTHERTRANSCRIPTEFFECTS,
+            SOMATICVARIANT.ALLELEREADCOUNT,
+            SOMATICVARIANT.TOTALREADCOUNT,
+            SOMATICVARIANT.COPYNUMBER,
+            SOMATICVARIANT.ADJUSTEDVAF,
+            SOMATICVARIANT.VARIANTCOPYNUMBER,
+            SOMATICVARIANT.TRINUCLEOTIDECONTEXT,
+            SOMATICVARIANT.MICROHOMOLOGY,
+            SOMATICVARIANT.REPEATSEQUENCE,
+            SOMATICVARIANT.REPEATCOUNT,
+            SOMATICVARIANT.SUBCLONALLIKELIHOOD,
+            SOMATICVARIANT.BIALLELIC,
+            SOMATICVARIANT.HOTSPOT,
+            SOMATICVARIANT.MAPPABILITY,
+            SOMATICVARIANT.GERMLINESTATUS,
+            SOMATICVARIANT.MINORALLELECOPYNUMBER,
+            SOMATICVARIANT.RECOVERED,
+            SOMATICVARIANT.KATAEGIS,
+            SOMATICVARIANT.TIER,
+            SOMATICVARIANT.REFERENCEALLELEREADCOUNT,
+            SOMATICVARIANT.REFERENCETOTALREADCOUNT,
+            SOMATICVARIANT.RNAALLELEREADCOUNT,
+            SOMATICVARIANT.RNATOTALREADCOUNT,
+            SOMATICVARIANT.QUAL,
+            SOMATICVARIANT.LOCALPHASESET,
+            SOMATICVARIANT.CLINVARINFO,
+            SOMATICVARIANT.GNOMADFREQUENCY,
+            SOMATICVARIANT.SOMATICLIKELIHOOD,
+            SOMATICVARIANT.MODIFIED);
+
     SomaticVariantDAO(final DSLContext context)
     {
         this.context = context;
@@ -64,6 +113,14 @@ public class SomaticVariantDAO
         return new BufferedWriter<>(consumer, DB_BATCH_INSERT_SIZE);
     }
 
+    public BufferedWriter<SomaticVariant> bulkLoadWriter(final BulkLoader bulkLoader, final String tumorSample)
+    {
+        BufferedWriterConsumer<SomaticVariant> consumer = bulkLoader.tableWriter(tumorSample, SOMATICVARIANT, SOMATICVARIANT.SAMPLEID,
+                SOMATIC_VARIANT_FIELDS, (timestamp, variant) -> recordValues(timestamp, tumorSample, variant));
+
+        return new BufferedWriter<>(consumer, DB_BATCH_INSERT_SIZE);
+    }
+
     public List<SomaticVariant> read(final String sample, VariantType type)
     {
         List<SomaticVariant> variants = Lists.newArrayList();
@@ -152,57 +209,12 @@ public class SomaticVariantDAO
 
     void writeAll(final Timestamp timestamp, final String sample, final List<SomaticVariant> variants)
     {
-        final InsertValuesStepN inserter = context.insertInto(SOMATICVARIANT,
-                SOMATICVARIANT.SAMPLEID,
-                SOMATICVARIANT.CHROMOSOME,
-                SOMATICVARIANT.POSITION,
-                SOMATICVARIANT.FILTER,
-                SOMATICVARIANT.TYPE,
-                SOMATICVARIANT.REF,
-                SOMATICVARIANT.ALT,
-                SOMATICVARIANT.GENE,
-                SOMATICVARIANT.GENESAFFECTED,
-                SOMATICVARIANT.REPORTED,
-                SOMATICVARIANT.WORSTCODINGEFFECT,
-                SOMATICVARIANT.CANONICALEFFECT,
-                SOMATICVARIANT.CANONICALCODINGEFFECT,
-                SOMATICVARIANT.CANONICALHGVSCODINGIMPACT,
-                SOMATICVARIANT.CANONICALHGVSPROTEINIMPACT,
-                SOMATICVARIANT.SPLICEREGION,
-                SOMATICVARIANT.OTHERTRANSCRIPTEFFECTS,
-                SOMATICVARIANT.ALLELEREADCOUNT,
-                SOMATICVARIANT.TOTALREADCOUNT,
-                SOMATICVARIANT.COPYNUMBER,
-                SOMATICVARIANT.ADJUSTEDVAF,
-                SOMATICVARIANT.VARIANTCOPYNUMBER,
-                SOMATICVARIANT.TRINUCLEOTIDECONTEXT,
-                SOMATICVARIANT.MICROHOMOLOGY,
-                SOMATICVARIANT.REPEATSEQUENCE,
-                SOMATICVARIANT.REPEATCOUNT,
-                SOMATICVARIANT.SUBCLONALLIKELIHOOD,
-                SOMATICVARIANT.BIALLELIC,
-                SOMATICVARIANT.HOTSPOT,
-                SOMATICVARIANT.MAPPABILITY,
-                SOMATICVARIANT.GERMLINESTATUS,
-                SOMATICVARIANT.MINORALLELECOPYNUMBER,
-                SOMATICVARIANT.RECOVERED,
-                SOMATICVARIANT.KATAEGIS,
-                SOMATICVARIANT.TIER,
-                SOMATICVARIANT.REFERENCEALLELEREADCOUNT,
-                SOMATICVARIANT.REFERENCETOTALREADCOUNT,
-                SOMATICVARIANT.RNAALLELEREADCOUNT,
-                SOMATICVARIANT.RNATOTALREADCOUNT,
-                SOMATICVARIANT.QUAL,
-                SOMATICVARIANT.LOCALPHASESET,
-                SOMATICVARIANT.CLINVARINFO,
-                SOMATICVARIANT.GNOMADFREQUENCY,
-                SOMATICVARIANT.SOMATICLIKELIHOOD,
-                SOMATICVARIANT.MODIFIED);
-        variants.forEach(variant -> addRecord(timestamp, inserter, sample, variant));
+        InsertValuesStepN inserter = context.insertInto(SOMATICVARIANT, SOMATIC_VARIANT_FIELDS);
+        variants.forEach(variant -> inserter.values(recordValues(timestamp, sample, variant)));
         inserter.execute();
     }
 
-    private static void addRecord(Timestamp timestamp, InsertValuesStepN inserter, String sample, SomaticVariant variant)
+    private static List<Object> recordValues(final Timestamp timestamp, final String sample, final SomaticVariant variant)
     {
         // append reportable status for each transcript where non-canonical may be reportable
         String otherReportedEffects = variant.otherReportedEffects();
@@ -223,7 +235,7 @@ public class SomaticVariantDAO
                 otherReportedEffects = otherReportedEffects + ";CANONICAL_NOT_REPORTED";
         }
 
-        inserter.values(sample,
+        return Arrays.asList(sample,
                 variant.chromosome(),
                 variant.position(),
                 variant.filter(),
@@ -8,6 +8,7 @@ import static com.hartwig.hmftools.patientdb.dao.DatabaseUtil.valueNotNull;
 import static com.hartwig.hmftools.patientdb.database.hmfpatients.Tables.STRUCTURALVARIANT;
 
 import java.sql.Timestamp;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.StringJoiner;
@@ -20,6 +21,7 @@ import com.hartwig.hmftools.common.sv.StructuralVariantType;
 
 import org.jetbrains.annotations.NotNull;
 import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.InsertValuesStepN;
 import org.jooq.Record;
 import org.jooq.Record1;
@@ -29,6 +31,63 @@ class StructuralVariantDAO
 {
     private static final int MAX_LINKED_BY = 1024;
 
+    private static final List<Field<?>> STRUCTURAL_VARIANT_FIELDS = List.of(
+            STRUCTURALVARIANT.SAMPLEID,
+            STRUCTURALVARIANT.SVID,
+            STRUCTURALVARIANT.STARTCHROMOSOME,
+            STRUCTURALVARIANT.ENDCHROMOSOME,
+            STRUCTURALVARIANT.STARTPOSITION,
+            STRUCTURALVARIANT.ENDPOSITION,
+            STRUCTURALVARIANT.STARTORIENTATION,
+            STRUCTURALVARIANT.ENDORIENTATION,
+            STRUCTURALVARIANT.STARTHOMOLOGYSEQUENCE,
+            STRUCTURALVARIANT.ENDHOMOLOGYSEQUENCE,
+            STRUCTURALVARIANT.INSERTSEQUENCE,
+            STRUCTURALVARIANT.TYPE,
+            STRUCTURALVARIANT.STARTAF,
+            STRUCTURALVARIANT.ADJUSTEDAFSTART,
+            STRUCTURALVARIANT.ADJUSTEDCOPYNUMBERSTART,
+            STRUCTURALVARIANT.ADJUSTEDCOPYNUMBERCHANGESTART,
+            STRUCTURALVARIANT.ENDAF,
+            STRUCTURALVARIANT.ADJUSTEDAFEND,
+            STRUCTURALVARIANT.ADJUSTEDCOPYNUMBEREND,
+            STRUCTURALVARIANT.ADJUSTEDCOPYNUMBERCHANGEEND,
+            STRUCTURALVARIANT.JUNCTIONCOPYNUMBER,
+            STRUCTURALVARIANT.FILTER,
+            STRUCTURALVARIANT.IMPRECISE,
+            STRUCTURALVARIANT.QUALSCORE,
+            STRUCTURALVARIANT.EVENT,
+            STRUCTURALVARIANT.STARTTUMORVARIANTFRAGMENTCOUNT,
+            STRUCTURALVARIANT.STARTTUMORREFERENCEFRAGMENTCOUNT,
+            STRUCTURALVARIANT.STARTNORMALVARIANTFRAGMENTCOUNT,
+            STRUCTURALVARIANT.STARTNORMALREFERENCEFRAGMENTCOUNT,
+            STRUCTURALVARIANT.ENDTUMORVARIANTFRAGMENTCOUNT,
+            STRUCTURALVARIANT.ENDTUMORREFERENCEFRAGMENTCOUNT,
+            STRUCTURALVARIANT.ENDNORMALVARIANTFRAGMENTCOUNT,
+            STRUCTURALVARIANT.ENDNORMALREFERENCEFRAGMENTCOUNT,
+            STRUCTURALVARIANT.STARTINTERVALOFFSETSTART,
+            STRUCTURALVARIANT.STARTINTERVALOFFSETEND,
+            STRUCTURALVARIANT.ENDINTERVALOFFSETSTART,
+            STRUCTURALVARIANT.ENDINTERVALOFFSETEND,
+            STRUCTURALVARIANT.INEXACTHOMOLOGYOFFSETSTART,
+            STRUCTURALVARIANT.INEXACTHOMOLOGYOFFSETEND,
+            STRUCTURALVARIANT.VCFID,
+            STRUCTURALVARIANT.STARTLINKEDBY,
+            STRUCTURALVARIANT.ENDLINKEDBY,
+            STRUCTURALVARIANT.RECOVERED,
+            STRUCTURALVARIANT.RECOVERYMETHOD,
+            STRUCTURALVARIANT.RECOVERYFILTER,
+            STRUCTURALVARIANT.STARTREFCONTEXT,
+            STRUCTURALVARIANT.ENDREFCONTEXT,
+            STRUCTURALVARIANT.INSERTSEQUENCEALIGNMENTS,
+            STRUCTURALVARIANT.INSERTSEQUENCEREPEATCLASS,
+            STRUCTURALVARIANT.INSERTSEQUENCEREPEATTYPE,
+            STRUCTURALVARIANT.INSERTSEQUENCEREPEATORIENTATION,
+            STRUCTURALVARIANT.INSERTSEQUENCEREPEATCOVERAGE,
+            STRUCTURALVARIANT.STARTANCHORINGSUPPORTDISTANCE,
+            STRUCTURALVARIANT.ENDANCHORINGSUPPORTDISTANCE,
+            STRUCTURALVARIANT.MODIFIED);
+
     private final DSLContext context;
 
     StructuralVariantDAO(final DSLContext context)
@@ -130,73 +189,23 @@ class StructuralVariantDAO
 
         for(List<StructuralVariantData> batch : Iterables.partition(variants, DB_BATCH_INSERT_SIZE))
         {
-            InsertValuesStepN inserter = context.insertInto(STRUCTURALVARIANT,
-                    STRUCTURALVARIANT.SAMPLEID,
-                    STRUCTURALVARIANT.SVID,
-                    STRUCTURALVARIANT.STARTCHROMOSOME,
-                    STRUCTURALVARIANT.ENDCHROMOSOME,
-                    STRUCTURALVARIANT.STARTPOSITION,
-                    STRUCTURALVARIANT.ENDPOSITION,
-                    STRUCTURALVARIANT.STARTORIENTATION,
-                    STRUCTURALVARIANT.ENDORIENTATION,
-                    STRUCTURALVARIANT.STARTHOMOLOGYSEQUENCE,
-                    STRUCTURALVARIANT.ENDHOMOLOGYSEQUENCE,
-                    STRUCTURALVARIANT.INSERTSEQUENCE,
-                    STRUCTURALVARIANT.TYPE,
-                    STRUCTURALVARIANT.STARTAF,
-                    STRUCTURALVARIANT.ADJUSTEDAFSTART,
-                    STRUCTURALVARIANT.ADJUSTEDCOPYNUMBERSTART,
-                    STRUCTURALVARIANT.ADJUSTEDCOPYNUMBERCHANGESTART,
-                    STRUCTURALVARIANT.ENDAF,
-                    STRUCTURALVARIANT.ADJUSTEDAFEND,
-                    STRUCTURALVARIANT.ADJUSTEDCOPYNUMBEREND,
-                    STRUCTURALVARIANT.ADJUSTEDCOPYNUMBERCHANGEEND,
-                    STRUCTURALVARIANT.JUNCTIONCOPYNUMBER,
-                    STRUCTURALVARIANT.FILTER,
-                    STRUCTURALVARIANT.IMPRECISE,
-                    STRUCTURALVARIANT.QUALSCORE,
-                    STRUCTURALVARIANT.EVENT,
-                    STRUCTURALVARIANT.STARTTUMORVARIANTFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.STARTTUMORREFERENCEFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.STARTNORMALVARIANTFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.STARTNORMALREFERENCEFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.ENDTUMORVARIANTFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.ENDTUMORREFERENCEFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.ENDNORMALVARIANTFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.ENDNORMALREFERENCEFRAGMENTCOUNT,
-                    STRUCTURALVARIANT.STARTINTERVALOFFSETSTART,
-                    STRUCTURALVARIANT.STARTINTERVALOFFSETEND,
-                    STRUCTURALVARIANT.ENDINTERVALOFFSETSTART,
-                    STRUCTURALVARIANT.ENDINTERVALOFFSETEND,
-                    STRUCTURALVARIANT.INEXACTHOMOLOGYOFFSETSTART,
-                    STRUCTURALVARIANT.INEXACTHOMOLOGYOFFSETEND,
-                    STRUCTURALVARIANT.VCFID,
-                    STRUCTURALVARIANT.STARTLINKEDBY,
-                    STRUCTURALVARIANT.ENDLINKEDBY,
-                    STRUCTURALVARIANT.RECOVERED,
-                    STRUCTURALVARIANT.RECOVERYMETHOD,
-                    STRUCTURALVARIANT.RECOVERYFILTER,
-                    STRUCTURALVARIANT.STARTREFCONTEXT,
-                    STRUCTURALVARIANT.ENDREFCONTEXT,
-                    STRUCTURALVARIANT.INSERTSEQUENCEALIGNMENTS,
-                    STRUCTURALVARIANT.INSERTSEQUENCEREPEATCLASS,
-                    STRUCTURALVARIANT.INSERTSEQUENCEREPEATTYPE,
-                    STRUCTURALVARIANT.INSERTSEQUENCEREPEATORIENTATION,
-                    STRUCTURALVARIANT.INSERTSEQUENCEREPEATCOVERAGE,
-                    STRUCTURALVARIANT.STARTANCHORINGSUPPORTDISTANCE,
-                    STRUCTURALVARIANT.ENDANCHORINGSUPPORTDISTANCE,
-                    STRUCTURALVARIANT.MODIFIED);
-            batch.forEach(entry -> addRecord(timestamp, inserter, sample, entry));
+            InsertValuesStepN inserter = context.insertInto(STRUCTURALVARIANT, STRUCTURAL_VARIANT_FIELDS);
+            batch.forEach(entry -> inserter.values(recordValues(timestamp, sample, entry)));
             inserter.execute();
         }
     }
 
-    private static void addRecord(final Timestamp timestamp, final InsertValuesStepN inserter, final String sample,
-            final StructuralVariantData variant)
+    void bulkLoad(final BulkLoader bulkLoader, final String sample, final List<StructuralVariantData> variants)
+    {
+        bulkLoader.load(sample, STRUCTURALVARIANT, STRUCTURALVARIANT.SAMPLEID, STRUCTURAL_VARIANT_FIELDS,
+                (timestamp, variant) -> recordValues(timestamp, sample, variant), variants);
+    }
+
+    private static List<Object> recordValues(final Timestamp timestamp, final String sample, final StructuralVariantData variant)
     {
         boolean isSingle = variant.type() == SGL;
 
-        inserter.values(sample,
+        return Arrays.asList(sample,
                 variant.id(),
                 variant.startChromosome(),
                 isSingle ? null : variant.endChromosome(),
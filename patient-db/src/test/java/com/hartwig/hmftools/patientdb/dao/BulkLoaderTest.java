@@ -0,0 +1,42 @@
+package com.hartwig.hmftools.patientdb.dao;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import com.hartwig.hmftools.common.purple.SegmentSupport;
+
+import org.junit.Test;
+
+public class BulkLoaderTest
+{
+    @Test
+    public void testFormatValues()
+    {
+        assertEquals("\\N", BulkLoader.formatValue(null));
+        assertEquals("1", BulkLoader.formatValue(true));
+        assertEquals("0", BulkLoader.formatValue(false));
+        assertEquals("12", BulkLoader.formatValue((byte)12));
+        assertEquals("-1", BulkLoader.formatValue(-1));
+        assertEquals("0.125", BulkLoader.formatValue(0.125));
+        assertEquals("\\N", BulkLoader.formatValue(Double.NaN));
+        assertEquals("\\N", BulkLoader.formatValue(Double.POSITIVE_INFINITY));
+        assertEquals("\\N", BulkLoader.formatValue(Float.NEGATIVE_INFINITY));
+        assertEquals("BND", BulkLoader.formatValue(SegmentSupport.BND));
+        assertEquals("", BulkLoader.formatValue(""));
+
+        Timestamp timestamp = Timestamp.valueOf("2024-01-02 03:04:05");
+        assertEquals("2024-01-02 03:04:05.0", BulkLoader.formatValue(timestamp));
+    }
+
+    @Test
+    public void testEscapeValues()
+    {
+        assertEquals("a\\tb", BulkLoader.formatValue("a\tb"));
+        assertEquals("a\\nb\\r", BulkLoader.formatValue("a\nb\r"));
+        assertEquals("C\\\\N", BulkLoader.formatValue("C\\N"));
+
+        assertEquals("S1\t\\N\t1\tx\\ty", BulkLoader.formatRow(Arrays.asList("S1", null, true, "x\ty")));
+    }
+}
@@ -0,0 +1,62 @@
+package com.hartwig.hmftools.pave;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Maps;
+
+public class OrderedRegionBuffer<T>
+{
+    private final Consumer<T> mWriter;
+    private final int mMaxRegionsAhead;
+
+    // reorder buffer of items from regions completed ahead of the next region to write
+    private final Map<Integer,List<T>> mPendingRegions;
+    private int mNextRegionIndex;
+
+    public OrderedRegionBuffer(final Consumer<T> writer, int maxRegionsAhead)
+    {
+        mWriter = writer;
+        mMaxRegionsAhead = maxRegionsAhead;
+        mPendingRegions = Maps.newHashMap();
+        mNextRegionIndex = 0;
+    }
+
+    public synchronized void waitForRegionStart(int regionIndex) throws InterruptedException
+    {
+        // bound the reorder buffer by holding back any region too far ahead of the next region to write
+        while(regionIndex >= mNextRegionIndex + mMaxRegionsAhead)
+        {
+            wait();
+        }
+    }
+
+    public synchronized void onRegionComplete(int regionIndex, final List<T> items)
+    {
+        // regions are indexed in genomic order, and each is written once all regions before it have been written
+        if(regionIndex != mNextRegionIndex)
+        {
+            mPendingRegions.put(regionIndex, items);
+            return;
+        }
+
+        items.forEach(mWriter);
+        ++mNextRegionIndex;
+
+        List<T> pendingItems = mPendingRegions.remove(mNextRegionIndex);
+
+        while(pendingItems != null)
+        {
+            pendingItems.forEach(mWriter);
+            ++mNextRegionIndex;
+
+            pendingItems = mPendingRegions.remove(mNextRegionIndex);
+        }
+
+        notifyAll();
+    }
+
+    public synchronized int writtenRegionCount() { return mNextRegionIndex; }
+    public synchronized int pendingRegionCount() { return mPendingRegions.size(); }
+}
@@ -1,6 +1,7 @@
 package com.hartwig.hmftools.pave;
 
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 
 import static com.hartwig.hmftools.common.utils.PerformanceCounter.runTimeMinsStr;
 import static com.hartwig.hmftools.common.utils.version.VersionInfo.fromAppName;
@@ -10,13 +11,17 @@ import static com.hartwig.hmftools.pave.PaveConstants.APP_NAME;
 import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeCoordinates;
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
 import com.hartwig.hmftools.common.utils.TaskExecutor;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.common.utils.version.VersionInfo;
+import com.hartwig.hmftools.common.variant.VcfFileReader;
 import com.hartwig.hmftools.pave.annotation.ReferenceData;
 
 import org.jetbrains.annotations.NotNull;
@@ -66,46 +71,90 @@ public class PaveApplication
 
         long startTimeMs = System.currentTimeMillis();
 
-        List<ChromosomeTask> chromosomeTasks = Lists.newArrayList();
+        List<RegionTask> regionTasks = createRegionTasks();
+
+        // initialise the reference data for the chromosomes which will be processed immediately to avoid data locking
         List<String> initialRefChromosomes = Lists.newArrayList();
 
-        for(HumanChromosome chromosome : HumanChromosome.values())
+        for(int i = 0; i < min(regionTasks.size(), max(mConfig.Threads, 1)); ++i)
         {
-            String chrStr = mConfig.RefGenVersion.versionedChromosome(chromosome.toString());
+            String chromosome = regionTasks.get(i).region().Chromosome;
 
-            if(!mConfig.SpecificRegions.isEmpty() && mConfig.SpecificRegions.stream().noneMatch(x -> x.Chromosome.equals(chrStr)))
-            {
-                mVcfWriter.onChromosomeComplete(chromosome);
-                continue;
-            }
-
-            ChromosomeTask chromosomeTask = new ChromosomeTask(chromosome, mConfig, mReferenceData, mVcfWriter, mTranscriptWriter);
-
-            chromosomeTasks.add(chromosomeTask);
-
-            // initialise the reference data for the set of chromosomes which will be processed immediately to avoid data locking
-            if(initialRefChromosomes.size() < max(mConfig.Threads, 1))
-                initialRefChromosomes.add(chrStr);
+            if(!initialRefChromosomes.contains(chromosome))
+                initialRefChromosomes.add(chromosome);
         }
 
         // PV_LOGGER.debug("initialising reference data");
         mReferenceData.initialiseChromosomeData(initialRefChromosomes, mConfig.Threads);
 
-        PV_LOGGER.info("sample({}) processing VCF file({})", mConfig.SampleId, mConfig.VcfFile);
+        PV_LOGGER.info("sample({}) processing VCF file({}) with {} regions", mConfig.SampleId, mConfig.VcfFile, regionTasks.size());
+
+        mVcfWriter.setRegionCount(regionTasks.size());
 
-        final List<Callable> callableList = chromosomeTasks.stream().collect(Collectors.toList());
+        final List<Callable> callableList = regionTasks.stream().collect(Collectors.toList());
 
         if(!TaskExecutor.executeTasks(callableList, mConfig.Threads))
         {
             System.exit(1);
         }
 
+        if(!mVcfWriter.allRegionsWritten())
+        {
+            PV_LOGGER.error("not all regions were written to the VCF, exiting");
+            System.exit(1);
+        }
+
         mTranscriptWriter.close();
         mVcfWriter.close();
 
         PV_LOGGER.info("Pave complete, mins({})", runTimeMinsStr(startTimeMs));
     }
 
+    private List<RegionTask> createRegionTasks()
+    {
+        // split each chromosome into regions, indexed in genomic order so their output can be written in order
+        List<RegionTask> regionTasks = Lists.newArrayList();
+
+        RefGenomeCoordinates coordinates = mConfig.RefGenVersion.is37() ? RefGenomeCoordinates.COORDS_37 : RefGenomeCoordinates.COORDS_38;
+
+        VcfFileReader vcfFileReader = new VcfFileReader(mConfig.VcfFile, true);
+
+        if(!vcfFileReader.fileValid())
+        {
+            PV_LOGGER.error("invalid somatic VCF file({})", mConfig.VcfFile);
+            System.exit(1);
+        }
+
+        for(HumanChromosome chromosome : HumanChromosome.values())
+        {
+            String chrStr = mConfig.RefGenVersion.versionedChromosome(chromosome.toString());
+            int chromosomeLength = coordinates.Lengths.get(chromosome);
+
+            if(!mConfig.SpecificRegions.isEmpty() && mConfig.SpecificRegions.stream().noneMatch(x -> x.Chromosome.equals(chrStr)))
+                continue;
+
+            List<ChrBaseRegion> regions = RegionSplitter.splitChromosome(vcfFileReader, chrStr, chromosomeLength, mConfig.RegionSize);
+
+            if(!mConfig.SpecificRegions.isEmpty())
+                regions.removeIf(region -> mConfig.SpecificRegions.stream().noneMatch(x -> x.overlaps(region)));
+
+            if(regions.isEmpty())
+                continue;
+
+            AtomicInteger chrRemainingRegions = new AtomicInteger(regions.size());
+
+            for(ChrBaseRegion region : regions)
+            {
+                regionTasks.add(new RegionTask(
+                        regionTasks.size(), region, chrRemainingRegions, mConfig, mReferenceData, mVcfWriter, mTranscriptWriter));
+            }
+        }
+
+        vcfFileReader.close();
+
+        return regionTasks;
+    }
+
     private VcfWriter initialiseVcfWriter()
     {
         // append 'pave' to the input vcf file name if not specified
@@ -128,7 +177,7 @@ public class PaveApplication
 
         PV_LOGGER.info("writing VCF file({})", outputVcfFilename);
 
-        VcfWriter vcfWriter = new VcfWriter(outputVcfFilename, mConfig.VcfFile);
+        VcfWriter vcfWriter = new VcfWriter(outputVcfFilename, mConfig.VcfFile, mConfig.Threads);
 
         vcfWriter.writeHeader(mReferenceData, mConfig.SetReportable);
 
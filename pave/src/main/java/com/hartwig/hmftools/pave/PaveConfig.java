@@ -12,6 +12,7 @@ import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.OUTPUT_DIR;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.addOutputDir;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.checkAddDirSeparator;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.parseOutputDir;
+import static com.hartwig.hmftools.pave.PaveConstants.DEFAULT_REGION_SIZE;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -53,6 +54,7 @@ public class PaveConfig
     public final boolean SetReportable;
     public final List<ChrBaseRegion> SpecificRegions;
     public final int Threads;
+    public final int RegionSize;
 
     public static final String VCF_FILE = "vcf_file";
     private static final String OUTPUT_VCF_FILE = "output_vcf_file";
@@ -67,6 +69,7 @@ public class PaveConfig
     private static final String WRITE_PASS_ONLY = "write_pass_only";
     private static final String WRITE_TRANSCRIPT_DATA = "write_transcript_data";
     private static final String SET_REPORTABLE = "set_reportable";
+    private static final String REGION_SIZE = "region_size";
 
     public static final Logger PV_LOGGER = LogManager.getLogger(PaveConfig.class);
 
@@ -85,6 +88,7 @@ public class PaveConfig
         WritePassOnly = configBuilder.hasFlag(WRITE_PASS_ONLY);
         SetReportable = configBuilder.hasFlag(SET_REPORTABLE);
         Threads = parseThreads(configBuilder);
+        RegionSize = configBuilder.getInteger(REGION_SIZE);
 
         SpecificRegions = Lists.newArrayList();
 
@@ -142,6 +146,7 @@ public class PaveConfig
         ClinvarAnnotation.addConfig(configBuilder);
         Blacklistings.addConfig(configBuilder);
         addThreadOptions(configBuilder);
+        configBuilder.addInteger(REGION_SIZE, "Region size for parallel annotation", DEFAULT_REGION_SIZE);
         addSpecificChromosomesRegionsConfig(configBuilder);
 
         addOutputDir(configBuilder);
@@ -8,6 +8,13 @@ public class PaveConstants
 {
     public static final String APP_NAME = "Pave";
 
+    // chromosomes are split into regions for annotation, with boundaries moved to where no local phase set is open
+    public static final int DEFAULT_REGION_SIZE = 5_000_000;
+    public static final int REGION_PHASE_SET_BUFFER = 1000;
+
+    // regions completed but not yet written, per thread
+    public static final int REGION_WRITE_BUFFER_PER_THREAD = 2;
+
     public static final int GENE_UPSTREAM_DISTANCE = 1000;
     public static final int SPLICE_REGION_INTRON_RANGE = 8;
     public static final int SPLICE_REGION_EXON_RANGE = 3;
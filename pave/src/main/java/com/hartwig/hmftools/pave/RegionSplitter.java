@@ -0,0 +1,119 @@
+package com.hartwig.hmftools.pave;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import static com.hartwig.hmftools.pave.PaveConstants.REGION_PHASE_SET_BUFFER;
+import static com.hartwig.hmftools.pave.VariantData.NO_LOCAL_PHASE_SET;
+import static com.hartwig.hmftools.pave.VariantData.localPhaseSet;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+import com.hartwig.hmftools.common.variant.VcfFileReader;
+
+import htsjdk.tribble.CloseableTribbleIterator;
+import htsjdk.variant.variantcontext.VariantContext;
+
+public final class RegionSplitter
+{
+    // splits a chromosome into regions of roughly the requested size, moving each boundary forward to the first point at which
+    // no local phase set is open, so that each region's variants can be annotated independently
+    public static List<ChrBaseRegion> splitChromosome(
+            final VcfFileReader vcfFileReader, final String chromosome, int chromosomeLength, int regionSize)
+    {
+        List<ChrBaseRegion> regions = Lists.newArrayList();
+
+        int regionStart = 1;
+
+        while(regionStart <= chromosomeLength)
+        {
+            int regionEnd = regionStart + regionSize - 1;
+
+            if(regionEnd < chromosomeLength)
+                regionEnd = findPhaseSetFreeEnd(vcfFileReader, chromosome, regionEnd, chromosomeLength);
+
+            regionEnd = min(regionEnd, chromosomeLength);
+
+            regions.add(new ChrBaseRegion(chromosome, regionStart, regionEnd));
+            regionStart = regionEnd + 1;
+        }
+
+        return regions;
+    }
+
+    private static int findPhaseSetFreeEnd(final VcfFileReader vcfFileReader, final String chromosome, int nominalEnd, int chromosomeEnd)
+    {
+        // read the variants around the boundary, extending the window until the chosen end is followed by a full buffer of variants
+        int readStart = max(1, nominalEnd - REGION_PHASE_SET_BUFFER);
+
+        List<Integer> positions = Lists.newArrayList();
+        List<Integer> localPhaseSets = Lists.newArrayList();
+
+        CloseableTribbleIterator<VariantContext> iterator = vcfFileReader.regionIterator(chromosome, readStart, chromosomeEnd);
+
+        int readLimit = nominalEnd + REGION_PHASE_SET_BUFFER;
+        int lastPosition = 0;
+        int regionEnd = nominalEnd;
+
+        while(true)
+        {
+            while(lastPosition <= readLimit && iterator.hasNext())
+            {
+                VariantContext variantContext = iterator.next();
+                lastPosition = variantContext.getStart();
+
+                // skip any overlapping variant starting before the window
+                if(lastPosition < readStart)
+                    continue;
+
+                positions.add(lastPosition);
+                localPhaseSets.add(localPhaseSet(variantContext));
+            }
+
+            regionEnd = findPhaseSetFreeEnd(nominalEnd, positions, localPhaseSets);
+
+            if(regionEnd + REGION_PHASE_SET_BUFFER <= readLimit || !iterator.hasNext())
+                break;
+
+            readLimit = regionEnd + REGION_PHASE_SET_BUFFER;
+        }
+
+        iterator.close();
+
+        return regionEnd;
+    }
+
+    @VisibleForTesting
+    public static int findPhaseSetFreeEnd(int nominalEnd, final List<Integer> positions, final List<Integer> localPhaseSets)
+    {
+        // find the first end at or after the nominal end for which no phase set has variants both at or before and after it
+        Map<Integer,Integer> phaseSetLastPositions = Maps.newHashMap();
+
+        for(int i = 0; i < positions.size(); ++i)
+        {
+            if(localPhaseSets.get(i) != NO_LOCAL_PHASE_SET)
+                phaseSetLastPositions.put(localPhaseSets.get(i), positions.get(i));
+        }
+
+        int openPhaseSetEnd = 0; // last position of any phase set started at or before the candidate end
+
+        for(int i = 0; i < positions.size(); ++i)
+        {
+            int position = positions.get(i);
+
+            // no phase set started before this variant is still open at it
+            if(position > nominalEnd && position > openPhaseSetEnd)
+                break;
+
+            if(localPhaseSets.get(i) != NO_LOCAL_PHASE_SET)
+                openPhaseSetEnd = max(openPhaseSetEnd, phaseSetLastPositions.get(localPhaseSets.get(i)));
+        }
+
+        return max(nominalEnd, openPhaseSetEnd);
+    }
+}
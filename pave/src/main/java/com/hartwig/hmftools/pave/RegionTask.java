@@ -23,10 +23,11 @@ import static htsjdk.variant.vcf.VCFConstants.ALLELE_FREQUENCY_KEY;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
-import com.hartwig.hmftools.common.genome.refgenome.RefGenomeCoordinates;
 import com.hartwig.hmftools.common.pathogenic.PathogenicSummaryFactory;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 import com.hartwig.hmftools.common.variant.VariantTier;
@@ -43,12 +44,15 @@ import com.hartwig.hmftools.pave.impact.ImpactClassifier;
 import com.hartwig.hmftools.pave.impact.VariantImpactBuilder;
 import com.hartwig.hmftools.pave.impact.VariantTransImpact;
 
+import htsjdk.tribble.CloseableTribbleIterator;
 import htsjdk.variant.variantcontext.VariantContext;
 
-public class ChromosomeTask implements Callable
+public class RegionTask implements Callable
 {
+    private final int mRegionIndex;
+    private final ChrBaseRegion mRegion;
     private final HumanChromosome mChromosome;
-    private final String mChromosomeStr;
+    private final AtomicInteger mChrRemainingRegions;
     private final PaveConfig mConfig;
     private final VcfWriter mVcfWriter;
     private final TranscriptWriter mTranscriptWriter;
@@ -57,7 +61,7 @@ public class ChromosomeTask implements Callable
     private final ImpactClassifier mImpactClassifier;
     private final VariantImpactBuilder mImpactBuilder;
 
-    // local chromosome annotation caches
+    // local chromosome annotation caches, shared by all regions on the chromosome
     private GnomadChrCache mGnomadCache;
     private ClinvarChrCache mClinvarCache;
     private MappabilityChrCache mMappability;
@@ -65,12 +69,17 @@ public class ChromosomeTask implements Callable
     private PonChrCache mArtefactsPon;
     private final GeneCacheIndexing mGeneCacheIndexing;
 
-    public ChromosomeTask(
-            final HumanChromosome chromosome, final PaveConfig config, final ReferenceData referenceData,
-            final VcfWriter vcfWriter, final TranscriptWriter transcriptWriter)
+    // annotated variants are held until the region is complete and then handed to the writer in region order
+    private final List<VariantContext> mRegionVariants;
+
+    public RegionTask(
+            int regionIndex, final ChrBaseRegion region, final AtomicInteger chrRemainingRegions, final PaveConfig config,
+            final ReferenceData referenceData, final VcfWriter vcfWriter, final TranscriptWriter transcriptWriter)
     {
-        mChromosome = chromosome;
-        mChromosomeStr = config.RefGenVersion.versionedChromosome(chromosome.toString());
+        mRegionIndex = regionIndex;
+        mRegion = region;
+        mChromosome = HumanChromosome.fromString(region.Chromosome);
+        mChrRemainingRegions = chrRemainingRegions;
         mConfig = config;
         mVcfWriter = vcfWriter;
         mTranscriptWriter = transcriptWriter;
@@ -84,12 +93,18 @@ public class ChromosomeTask implements Callable
         mMappability = null;
         mStandardPon = null;
         mArtefactsPon = null;
-        mGeneCacheIndexing = mReferenceData.GeneDataCache.createIndexing(mChromosomeStr);
+        mGeneCacheIndexing = mReferenceData.GeneDataCache.createIndexing(region.Chromosome);
+        mRegionVariants = Lists.newArrayList();
     }
 
+    public ChrBaseRegion region() { return mRegion; }
+
     @Override
-    public Long call()
+    public Long call() throws InterruptedException
     {
+        // hold back this region while it is too far ahead of the next region to be written
+        mVcfWriter.waitForRegionStart(mRegionIndex);
+
         int variantCount = 0;
 
         VcfFileReader vcfFileReader = new VcfFileReader(mConfig.VcfFile, true);
@@ -100,58 +115,75 @@ public class ChromosomeTask implements Callable
             System.exit(1);
         }
 
-        mGnomadCache = mReferenceData.Gnomad.getChromosomeCache(mChromosomeStr);
-        mClinvarCache = mReferenceData.Clinvar.getChromosomeCache(mChromosomeStr);
-        mMappability = mReferenceData.VariantMappability.getChromosomeCache(mChromosomeStr);
-        mStandardPon = mReferenceData.StandardPon.getChromosomeCache(mChromosomeStr);
-        mArtefactsPon = mReferenceData.ArtefactsPon.getChromosomeCache(mChromosomeStr);
+        String chromosome = mRegion.Chromosome;
+        mGnomadCache = mReferenceData.Gnomad.getChromosomeCache(chromosome);
+        mClinvarCache = mReferenceData.Clinvar.getChromosomeCache(chromosome);
+        mMappability = mReferenceData.VariantMappability.getChromosomeCache(chromosome);
+        mStandardPon = mReferenceData.StandardPon.getChromosomeCache(chromosome);
+        mArtefactsPon = mReferenceData.ArtefactsPon.getChromosomeCache(chromosome);
 
-        RefGenomeCoordinates coordinates = mConfig.RefGenVersion.is37() ? RefGenomeCoordinates.COORDS_37 : RefGenomeCoordinates.COORDS_38;
-        ChrBaseRegion chrRegion = new ChrBaseRegion(mChromosomeStr, 1, coordinates.Lengths.get(mChromosome));
+        PV_LOGGER.trace("region({}) starting variant annotation", mRegion);
 
-        PV_LOGGER.debug("chr({}) starting variant annotation", mChromosome);
+        // region boundaries fall where no local phase set is open, so each region's variants are annotated independently
+        CloseableTribbleIterator<VariantContext> iterator = vcfFileReader.regionIterator(chromosome, mRegion.start(), mRegion.end());
 
-        for(VariantContext variantContext : vcfFileReader.regionIterator(chrRegion))
+        while(iterator.hasNext())
         {
-            if(!mConfig.SpecificRegions.isEmpty())
-            {
-                if(mConfig.SpecificRegions.stream().noneMatch(x -> x.containsPosition(variantContext.getContig(), variantContext.getStart())))
-                    continue;
-            }
+            VariantContext variantContext = iterator.next();
+
+            // skip any overlapping variant starting in the previous region
+            if(variantContext.getStart() < mRegion.start())
+                continue;
+
+            if(!includeVariant(variantContext))
+                continue;
 
             processVariant(variantContext);
             ++variantCount;
-
-            if(variantCount > 0 && (variantCount % 100000) == 0)
-            {
-                PV_LOGGER.debug("chr({}) processed {} variants", mChromosome, variantCount);
-            }
         }
 
+        iterator.close();
+        vcfFileReader.close();
+
         processPhasedVariants(NO_LOCAL_PHASE_SET);
 
-        PV_LOGGER.info("chr({}) complete for {} variants", mChromosome, variantCount);
+        PV_LOGGER.debug("region({}) complete for {} variants", mRegion, variantCount);
 
-        mReferenceData.onChromosomeComplete(mChromosomeStr);
+        mVcfWriter.onRegionComplete(mRegionIndex, mRegionVariants);
 
-        mVcfWriter.onChromosomeComplete(mChromosome);
+        if(mChrRemainingRegions.decrementAndGet() == 0)
+        {
+            PV_LOGGER.info("chr({}) complete", mChromosome);
+            mReferenceData.onChromosomeComplete(chromosome);
+        }
 
         return (long)0;
     }
 
-    private void processVariant(final VariantContext variantContext)
+    private boolean includeVariant(final VariantContext variantContext)
     {
         if(!HumanChromosome.contains(variantContext.getContig()))
-            return;
+            return false;
 
-        VariantData variant = VariantData.fromContext(variantContext);
+        if(!mConfig.SpecificRegions.isEmpty())
+        {
+            if(mConfig.SpecificRegions.stream().noneMatch(x -> x.containsPosition(variantContext.getContig(), variantContext.getStart())))
+                return false;
+        }
 
         if(mConfig.ReadPassOnly)
         {
             if(!variantContext.getFilters().isEmpty() && !variantContext.getFilters().contains(PASS_FILTER))
-                return;
+                return false;
         }
 
+        return true;
+    }
+
+    private void processVariant(final VariantContext variantContext)
+    {
+        VariantData variant = VariantData.fromContext(variantContext);
+
         try
         {
             variant.setRealignedVariant(createRightAlignedVariant(variant, mImpactClassifier.refGenome()));
@@ -193,7 +225,7 @@ public class ChromosomeTask implements Callable
             return;
 
         VariantContext newVariant = buildVariant(variant.context(), variant, variantImpact);
-        mVcfWriter.writeVariant(mChromosome, newVariant);
+        mRegionVariants.add(newVariant);
 
         if(mConfig.WriteTranscriptFile)
         {
@@ -1,22 +1,22 @@
 package com.hartwig.hmftools.pave;
 
+import static java.lang.Math.max;
+import static java.lang.String.format;
+
 import static com.hartwig.hmftools.common.utils.version.VersionInfo.fromAppName;
 import static com.hartwig.hmftools.common.variant.PaveVcfTags.GNOMAD_FREQ;
-import static com.hartwig.hmftools.pave.PaveConfig.PV_LOGGER;
 import static com.hartwig.hmftools.pave.PaveConstants.APP_NAME;
+import static com.hartwig.hmftools.pave.PaveConstants.REGION_WRITE_BUFFER_PER_THREAD;
 import static com.hartwig.hmftools.pave.annotation.PonAnnotation.PON_COUNT;
 import static com.hartwig.hmftools.pave.annotation.PonAnnotation.PON_MAX;
 
 import java.io.File;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
-import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.utils.version.VersionInfo;
+import com.hartwig.hmftools.common.variant.ParallelVcfWriter;
 import com.hartwig.hmftools.common.variant.impact.VariantImpact;
 import com.hartwig.hmftools.common.variant.impact.VariantImpactSerialiser;
 import com.hartwig.hmftools.common.variant.impact.VariantTranscriptImpact;
@@ -32,7 +32,6 @@ import com.hartwig.hmftools.pave.impact.VariantTransImpact;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.VariantContextBuilder;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
-import htsjdk.variant.variantcontext.writer.VariantContextWriterBuilder;
 import htsjdk.variant.vcf.VCFFileReader;
 import htsjdk.variant.vcf.VCFHeader;
 import htsjdk.variant.vcf.VCFHeaderLine;
@@ -42,32 +41,25 @@ public class VcfWriter
     private final VCFFileReader mHeader;
     private final VariantContextWriter mWriter;
 
-    private final Map<HumanChromosome,List<VariantContext>> mChrPendingVariants;
-    private final Set<HumanChromosome> mCompleteChromosomes;
-    private HumanChromosome mCurrentChromosome;
+    // annotated variants are written in region order, with regions held back from starting too far ahead of the writer
+    private final OrderedRegionBuffer<VariantContext> mRegionBuffer;
+    private int mRegionCount;
 
     public static final String PASS = "PASS";
 
-    public VcfWriter(final String outputVCF, final String templateVCF)
+    public VcfWriter(final String outputVCF, final String templateVCF, int threads)
     {
         mHeader = new VCFFileReader(new File(templateVCF), false);
 
-        mWriter = new VariantContextWriterBuilder()
-                .setReferenceDictionary(mHeader.getFileHeader().getSequenceDictionary())
-                .setOutputFile(outputVCF)
-                .setOutputFileType(VariantContextWriterBuilder.OutputType.BLOCK_COMPRESSED_VCF)
-                .build();
-
-        mChrPendingVariants = Maps.newHashMap();
-        mCompleteChromosomes = Sets.newHashSet();
-        mCurrentChromosome = HumanChromosome._1;
+        // records are encoded and compressed on worker threads, and indexed as they are written
+        mWriter = new ParallelVcfWriter(outputVCF, threads, mHeader.getFileHeader().getSequenceDictionary());
 
-        for(HumanChromosome chromosome : HumanChromosome.values())
-        {
-            mChrPendingVariants.put(chromosome, Lists.newArrayList());
-        }
+        mRegionBuffer = new OrderedRegionBuffer<>(mWriter::add, max(threads, 1) * REGION_WRITE_BUFFER_PER_THREAD);
+        mRegionCount = 0;
     }
 
+    public void setRegionCount(int regionCount) { mRegionCount = regionCount; }
+
     public final void writeHeader(final ReferenceData referenceData, boolean setReportability)
     {
         final VersionInfo version = fromAppName(APP_NAME);
@@ -162,67 +154,27 @@ public class VcfWriter
         return newContext;
     }
 
-    public synchronized void onChromosomeComplete(final HumanChromosome chromosome)
+    public void waitForRegionStart(int regionIndex) throws InterruptedException
     {
-        mCompleteChromosomes.add(chromosome);
-        writePendingVariants();
+        mRegionBuffer.waitForRegionStart(regionIndex);
     }
 
-    public synchronized void writeVariant(final HumanChromosome chromosome, final VariantContext variantContext)
+    public void onRegionComplete(int regionIndex, final List<VariantContext> variants)
     {
-        if(mCurrentChromosome == chromosome)
-        {
-            mWriter.add(variantContext);
-            return;
-        }
-
-        List<VariantContext> pendingVariants = mChrPendingVariants.get(chromosome);
-
-        if(pendingVariants == null)
-        {
-            pendingVariants = Lists.newArrayList();
-            mChrPendingVariants.put(chromosome, pendingVariants);
-        }
-
-        pendingVariants.add(variantContext);
+        mRegionBuffer.onRegionComplete(regionIndex, variants);
     }
 
-    private void writePendingVariants()
-    {
-        boolean exitOnNext = false;
+    public boolean allRegionsWritten() { return mRegionBuffer.writtenRegionCount() == mRegionCount; }
 
-        for(HumanChromosome chromosome : HumanChromosome.values())
+    public void close()
+    {
+        // a VCF missing any region must not be completed as if it were valid
+        if(!allRegionsWritten())
         {
-            if(!mCompleteChromosomes.contains(chromosome))
-            {
-                // move to the next chromosome to allow writing of current or pending variants
-                mCurrentChromosome = chromosome;
-                exitOnNext = true;
-            }
-
-            List<VariantContext> pendingVariants = mChrPendingVariants.get(chromosome);
-
-            if(pendingVariants != null)
-            {
-                if(!pendingVariants.isEmpty())
-                {
-                    PV_LOGGER.debug("chr({}) writing {} pending variants", chromosome, pendingVariants.size());
-
-                    pendingVariants.forEach(x -> mWriter.add(x));
-                    pendingVariants.clear();
-                }
-
-                mChrPendingVariants.remove(chromosome);
-            }
-
-            if(exitOnNext)
-                break;
+            throw new IllegalStateException(format("VCF incomplete, %d of %d regions written, %d pending",
+                    mRegionBuffer.writtenRegionCount(), mRegionCount, mRegionBuffer.pendingRegionCount()));
         }
-    }
 
-    public void close()
-    {
-        writePendingVariants();
         mWriter.close();
     }
 }
@@ -13,14 +13,12 @@ public class ClinvarChrCache
 {
     public final String Chromosome;
 
-    private int mCurrentIndex;
     private final List<ClinvarEntry> mEntries;
     private final StringCache mStringCache;
 
     public ClinvarChrCache(final String chromosome, final StringCache stringCache)
     {
         Chromosome = chromosome;
-        mCurrentIndex = 0;
         mEntries = Lists.newArrayList();
         mStringCache = stringCache;
     }
@@ -44,22 +42,16 @@ public class ClinvarChrCache
         if(mEntries.isEmpty() || mEntries.get(mEntries.size() - 1).Position < variant.Position)
             return;
 
+        // entries are ordered by position and searched without any cursor state so region tasks can share the cache
         int position = variant.Position;
-        int firstPosMatchIndex = -1;
 
-        for(; mCurrentIndex < mEntries.size(); ++mCurrentIndex)
+        for(int index = findFirstIndex(position); index < mEntries.size(); ++index)
         {
-            ClinvarEntry entry = mEntries.get(mCurrentIndex);
-
-            if(entry.Position < position)
-                continue;
+            ClinvarEntry entry = mEntries.get(index);
 
             if(entry.Position > position)
                 break;
 
-            if(firstPosMatchIndex == -1)
-                firstPosMatchIndex = mCurrentIndex;
-
             if(entry.matches(variant))
             {
                 variant.context().getCommonInfo().putAttribute(CLNSIG, entry.Significance);
@@ -70,12 +62,25 @@ public class ClinvarChrCache
                 break;
             }
         }
+    }
+
+    private int findFirstIndex(int position)
+    {
+        // first entry at or after the position
+        int lower = 0;
+        int upper = mEntries.size();
+
+        while(lower < upper)
+        {
+            int mid = (lower + upper) >>> 1;
+
+            if(mEntries.get(mid).Position < position)
+                lower = mid + 1;
+            else
+                upper = mid;
+        }
 
-        // move the index back to the prior position or the first at this position
-        if(firstPosMatchIndex >= 0)
-            mCurrentIndex = firstPosMatchIndex;
-        else if(mCurrentIndex > 0)
-            --mCurrentIndex;
+        return lower;
     }
 
     private class ClinvarEntry
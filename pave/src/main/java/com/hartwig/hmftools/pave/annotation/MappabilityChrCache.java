@@ -12,14 +12,12 @@ public class MappabilityChrCache
 {
     public final String Chromosome;
 
-    private int mCurrentIndex;
     private final List<MapEntry> mEntries;
     private boolean mComplete;
 
     public MappabilityChrCache(final String chromosome)
     {
         Chromosome = chromosome;
-        mCurrentIndex = 0;
         mEntries = Lists.newArrayList();
         mComplete = false;
     }
@@ -39,28 +37,32 @@ public class MappabilityChrCache
         if(mEntries.isEmpty() || mEntries.get(mEntries.size() - 1).Region.end() < variant.Position)
             return;
 
+        // find the first region ending at or after the variant, without cursor state so region tasks can share the cache
         int position = variant.Position;
+        int lower = 0;
+        int upper = mEntries.size();
 
-        for(; mCurrentIndex < mEntries.size(); ++mCurrentIndex)
+        while(lower < upper)
         {
-            MapEntry entry = mEntries.get(mCurrentIndex);
-
-            if(entry.Region.end() < position)
-                continue;
-
-            if(entry.Region.containsPosition(variant.Position))
-            {
-                setMappability(variant, entry.Mappability);
-            }
-            else if(variant.Position < entry.Region.start() && mCurrentIndex > 0)
-            {
-                // take previous if the next is past this variant
-                --mCurrentIndex;
-                MapEntry prevEntry = mEntries.get(mCurrentIndex);
-                setMappability(variant, prevEntry.Mappability);
-            }
+            int mid = (lower + upper) >>> 1;
 
-            return;
+            if(mEntries.get(mid).Region.end() < position)
+                lower = mid + 1;
+            else
+                upper = mid;
+        }
+
+        MapEntry entry = mEntries.get(lower);
+
+        if(entry.Region.containsPosition(position))
+        {
+            setMappability(variant, entry.Mappability);
+        }
+        else if(position < entry.Region.start() && lower > 0)
+        {
+            // take previous if the next is past this variant
+            MapEntry prevEntry = mEntries.get(lower - 1);
+            setMappability(variant, prevEntry.Mappability);
         }
     }
 
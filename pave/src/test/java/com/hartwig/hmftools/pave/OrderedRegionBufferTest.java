@@ -0,0 +1,79 @@
+package com.hartwig.hmftools.pave;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class OrderedRegionBufferTest
+{
+    @Test
+    public void testOutOfOrderCompletion()
+    {
+        List<Integer> written = Lists.newArrayList();
+        OrderedRegionBuffer<Integer> buffer = new OrderedRegionBuffer<>(written::add, 10);
+
+        buffer.onRegionComplete(2, Lists.newArrayList(5, 6));
+        buffer.onRegionComplete(1, Lists.newArrayList(3, 4));
+
+        assertTrue(written.isEmpty());
+        assertEquals(2, buffer.pendingRegionCount());
+
+        buffer.onRegionComplete(0, Lists.newArrayList(1, 2));
+
+        assertEquals(Lists.newArrayList(1, 2, 3, 4, 5, 6), written);
+        assertEquals(0, buffer.pendingRegionCount());
+        assertEquals(3, buffer.writtenRegionCount());
+
+        // an empty region still advances the writer
+        buffer.onRegionComplete(4, Lists.newArrayList(9));
+        buffer.onRegionComplete(3, Lists.newArrayList());
+
+        assertEquals(Lists.newArrayList(1, 2, 3, 4, 5, 6, 9), written);
+        assertEquals(5, buffer.writtenRegionCount());
+    }
+
+    @Test
+    public void testRegionsAheadOfWriterWait() throws InterruptedException
+    {
+        List<Integer> written = Lists.newArrayList();
+        OrderedRegionBuffer<Integer> buffer = new OrderedRegionBuffer<>(written::add, 2);
+
+        // regions within the window start immediately
+        buffer.waitForRegionStart(0);
+        buffer.waitForRegionStart(1);
+
+        Thread laterRegion = new Thread(() ->
+        {
+            try
+            {
+                buffer.waitForRegionStart(2);
+                buffer.onRegionComplete(2, Lists.newArrayList(3));
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        laterRegion.start();
+
+        // region 2 is held back until region 0 is written, even once region 1 completes
+        buffer.onRegionComplete(1, Lists.newArrayList(2));
+        laterRegion.join(200);
+
+        assertTrue(laterRegion.isAlive());
+        assertEquals(1, buffer.pendingRegionCount());
+
+        buffer.onRegionComplete(0, Lists.newArrayList(1));
+        laterRegion.join(5000);
+
+        assertFalse(laterRegion.isAlive());
+        assertEquals(Lists.newArrayList(1, 2, 3), written);
+    }
+}
@@ -0,0 +1,63 @@
+package com.hartwig.hmftools.pave;
+
+import static com.hartwig.hmftools.pave.RegionSplitter.findPhaseSetFreeEnd;
+import static com.hartwig.hmftools.pave.VariantData.NO_LOCAL_PHASE_SET;
+
+import static junit.framework.TestCase.assertEquals;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class RegionSplitterTest
+{
+    private static final int NO_LPS = NO_LOCAL_PHASE_SET;
+
+    @Test
+    public void testBoundaryWithoutPhaseSets()
+    {
+        List<Integer> positions = Lists.newArrayList(900, 1000, 1001, 1100);
+        List<Integer> phaseSets = Lists.newArrayList(NO_LPS, NO_LPS, NO_LPS, NO_LPS);
+
+        assertEquals(1000, findPhaseSetFreeEnd(1000, positions, phaseSets));
+
+        // a phase set closed at the boundary does not move it
+        phaseSets = Lists.newArrayList(1, 1, NO_LPS, NO_LPS);
+        assertEquals(1000, findPhaseSetFreeEnd(1000, positions, phaseSets));
+
+        // nor does one starting after it
+        phaseSets = Lists.newArrayList(NO_LPS, NO_LPS, 2, 2);
+        assertEquals(1000, findPhaseSetFreeEnd(1000, positions, phaseSets));
+
+        assertEquals(1000, findPhaseSetFreeEnd(1000, Lists.newArrayList(), Lists.newArrayList()));
+    }
+
+    @Test
+    public void testBoundaryMovedPastOpenPhaseSet()
+    {
+        List<Integer> positions = Lists.newArrayList(900, 990, 1010, 1050, 3000);
+        List<Integer> phaseSets = Lists.newArrayList(NO_LPS, 1, 1, NO_LPS, NO_LPS);
+
+        assertEquals(1010, findPhaseSetFreeEnd(1000, positions, phaseSets));
+
+        // a phase set whose last variant in the region is far from the boundary is still kept together
+        positions = Lists.newArrayList(100, 1050, 2500, 2600);
+        phaseSets = Lists.newArrayList(1, NO_LPS, 1, NO_LPS);
+
+        assertEquals(2500, findPhaseSetFreeEnd(1000, positions, phaseSets));
+
+        // chained and overlapping phase sets move the boundary past all of them
+        positions = Lists.newArrayList(980, 995, 1005, 1020, 1030, 1040, 1200);
+        phaseSets = Lists.newArrayList(1, 2, 1, 3, 2, 3, NO_LPS);
+
+        assertEquals(1040, findPhaseSetFreeEnd(1000, positions, phaseSets));
+
+        // a phase set still open at the last variant read extends the boundary to it
+        positions = Lists.newArrayList(990, 1500);
+        phaseSets = Lists.newArrayList(4, 4);
+
+        assertEquals(1500, findPhaseSetFreeEnd(1000, positions, phaseSets));
+    }
+}
@@ -8,7 +8,7 @@ import static com.hartwig.hmftools.common.variant.SageVcfTags.REPEAT_SEQUENCE;
 import static com.hartwig.hmftools.common.variant.VariantTier.HOTSPOT;
 import static com.hartwig.hmftools.common.variant.VariantTier.PANEL;
 import static com.hartwig.hmftools.common.variant.VariantTier.TIER;
-import static com.hartwig.hmftools.pave.ChromosomeTask.applyFilters;
+import static com.hartwig.hmftools.pave.RegionTask.applyFilters;
 import static com.hartwig.hmftools.pave.annotation.GnomadAnnotation.PON_GNOMAD_FILTER;
 import static com.hartwig.hmftools.pave.annotation.PonAnnotation.PON_ARTEFACT_FILTER;
 import static com.hartwig.hmftools.pave.annotation.PonAnnotation.PON_FILTER;
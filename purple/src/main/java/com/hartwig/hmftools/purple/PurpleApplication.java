@@ -266,6 +266,7 @@ public class PurpleApplication
         PurityAdjuster purityAdjuster = null;
         Set<String> reportedGenes = Sets.newHashSet();
         SomaticStream somaticStream = null;
+        final List<PeakModelData> somaticPeaks = Lists.newArrayList();
 
         RegionFitCalculator regionFitCalculator = createFittedRegionFactory(amberData.AverageTumorDepth, cobaltChromosomes, mConfig.Fitting);
 
@@ -313,8 +314,6 @@ public class PurpleApplication
             geneCopyNumbers.addAll(GeneCopyNumberBuilder.createGeneCopyNumbers(
                     mReferenceData.RefGenVersion, mReferenceData.GeneTransCache, copyNumbers));
 
-            final List<PeakModelData> somaticPeaks = Lists.newArrayList();
-
             PPL_LOGGER.info("modelling somatic peaks");
             final SomaticPeakStream somaticPeakStream = new SomaticPeakStream();
 
@@ -406,7 +405,8 @@ public class PurpleApplication
                 charts.write(
                         referenceId, tumorId, !sampleDataFiles.SomaticVcfFile.isEmpty(),
                         gender, copyNumbers, somaticStream.downsampledVariants(), sampleData.SvCache.variants(),
-                        fittedRegions, Lists.newArrayList(amberData.ChromosomeBafs.values()));
+                        fittedRegions, Lists.newArrayList(amberData.ChromosomeBafs.values()),
+                        bestFit, somaticPeaks, somaticStream.chartData());
 
                 // clean up any temporary files
                 // RChartData.cleanupFiles(mConfig, tumorId);
@@ -687,6 +687,9 @@ public class PurpleApplication
 
     public static void main(final String... args) throws IOException
     {
+        // charts rendered in-process need no display
+        System.setProperty("java.awt.headless", "true");
+
         ConfigBuilder configBuilder = new ConfigBuilder(APP_NAME);
 
         PurpleConfig.addOptions(configBuilder);
@@ -3,16 +3,23 @@ package com.hartwig.hmftools.purple.config;
 import java.io.File;
 
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+import com.hartwig.hmftools.purple.plot.ChartFormat;
 
 public class ChartConfig
 {
     private static final String CIRCOS = "circos";
     private static final String DISABLE = "no_charts";
+    private static final String JAVA_CHARTS = "java_charts";
+    private static final String CHART_FORMAT = "chart_format";
 
     public final boolean Disabled;
 
     public final String CircosBinary;
 
+    // charts are generated by the R scripts unless the in-process renderer is requested
+    public final boolean UseJavaCharts;
+    public final ChartFormat Format;
+
     public final String PlotDirectory;
     public final String CircosDirectory;
 
@@ -22,12 +29,16 @@ public class ChartConfig
         PlotDirectory = outputDir + "plot" + File.separator;
         CircosDirectory = outputDir + "circos" + File.separator;
         CircosBinary = configBuilder.getValue(CIRCOS);
+        UseJavaCharts = configBuilder.hasFlag(JAVA_CHARTS);
+        Format = ChartFormat.valueOf(configBuilder.getValue(CHART_FORMAT).toUpperCase());
     }
 
     public static void addConfig(final ConfigBuilder configBuilder)
     {
         configBuilder.addPath(CIRCOS, false, "Location of circos binary");
         configBuilder.addFlag(DISABLE, "Disable charts");
+        configBuilder.addFlag(JAVA_CHARTS, "Render charts in-process instead of with the R scripts");
+        configBuilder.addConfigItem(CHART_FORMAT, false, "Chart output format: PNG or SVG", ChartFormat.PNG.toString());
     }
 
 }
@@ -0,0 +1,71 @@
+package com.hartwig.hmftools.purple.plot;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.imageio.ImageIO;
+
+import org.jfree.svg.SVGGraphics2D;
+
+// a drawing surface in chart units, backed by either a raster image or an SVG document
+public class ChartCanvas
+{
+    public final double Width;
+    public final double Height;
+
+    private final ChartFormat mFormat;
+    private final BufferedImage mImage;
+    private final SVGGraphics2D mSvgGraphics;
+    private final Graphics2D mGraphics;
+
+    // raster charts are drawn at a multiple of the chart units, giving 300 DPI at the R charts' size of 4.8 x 4 inches
+    private static final int PNG_SCALE = 3;
+
+    public ChartCanvas(final ChartFormat format, double width, double height)
+    {
+        Width = width;
+        Height = height;
+        mFormat = format;
+
+        if(format == ChartFormat.SVG)
+        {
+            mImage = null;
+            mSvgGraphics = new SVGGraphics2D(width, height);
+            mGraphics = mSvgGraphics;
+        }
+        else
+        {
+            mSvgGraphics = null;
+            mImage = new BufferedImage((int)(width * PNG_SCALE), (int)(height * PNG_SCALE), BufferedImage.TYPE_INT_RGB);
+            mGraphics = mImage.createGraphics();
+            mGraphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            mGraphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            mGraphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            mGraphics.scale(PNG_SCALE, PNG_SCALE);
+        }
+
+        mGraphics.setColor(Color.WHITE);
+        mGraphics.fillRect(0, 0, (int)Math.ceil(width), (int)Math.ceil(height));
+    }
+
+    public Graphics2D graphics() { return mGraphics; }
+
+    // writes the chart to the file name plus the format's extension
+    public void write(final String filenameBase) throws IOException
+    {
+        String filename = filenameBase + mFormat.extension();
+
+        if(mSvgGraphics != null)
+            Files.write(new File(filename).toPath(), mSvgGraphics.getSVGDocument().getBytes(StandardCharsets.UTF_8));
+        else
+            ImageIO.write(mImage, "png", new File(filename));
+
+        mGraphics.dispose();
+    }
+}
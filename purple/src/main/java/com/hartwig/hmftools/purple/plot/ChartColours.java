@@ -0,0 +1,75 @@
+package com.hartwig.hmftools.purple.plot;
+
+import java.awt.Color;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+// palettes matching the R and Circos charts
+public final class ChartColours
+{
+    public static final List<Color> COPY_NUMBER_CLASS_COLOURS = Lists.newArrayList(
+            hex("#8dd3c7"), hex("#ffffb3"), hex("#bebada"), hex("#fb8072"), hex("#80b1d3"), hex("#fdb462"), hex("#b3de69"));
+
+    public static final List<String> COPY_NUMBER_CLASSES = Lists.newArrayList("CN0", "CN1", "CN2", "CN3", "CN4", "CN5", "CN6+");
+
+    public static final List<String> MINOR_ALLELE_CLASSES = Lists.newArrayList("MACN0", "MACN1", "MACN2", "MACN3", "MACN4", "MACN5+");
+
+    public static final Color SINGLE_BLUE = hex("#6baed6");
+    public static final Color SINGLE_RED = hex("#d94701");
+
+    public static final Color GAIN = new Color(0, 200, 0);
+    public static final Color LOSS = new Color(220, 0, 0);
+    public static final Color MINOR_ALLELE_GAIN = new Color(0, 0, 220);
+    public static final Color MINOR_ALLELE_LOSS = new Color(255, 165, 0);
+    public static final Color SOMATIC = new Color(138, 43, 226);
+
+    public static final Color[] SCORE_GRADIENT = { Color.BLUE, Color.GREEN, Color.YELLOW, Color.ORANGE, Color.RED };
+
+    private ChartColours() {}
+
+    public static Color hex(final String hexColour) { return Color.decode(hexColour); }
+
+    public static Color withAlpha(final Color colour, double alpha)
+    {
+        return new Color(colour.getRed(), colour.getGreen(), colour.getBlue(), (int)Math.round(alpha * 255));
+    }
+
+    // interpolates between colours at the given stops, for a value in the range 0-1
+    public static Color gradient(double value, final Color[] colours, final double[] stops)
+    {
+        double clamped = Math.max(0, Math.min(1, value));
+
+        for(int i = 1; i < stops.length; ++i)
+        {
+            if(clamped > stops[i])
+                continue;
+
+            double span = stops[i] - stops[i - 1];
+            double fraction = span > 0 ? (clamped - stops[i - 1]) / span : 1;
+            return blend(colours[i - 1], colours[i], fraction);
+        }
+
+        return colours[colours.length - 1];
+    }
+
+    public static Color gradient(double value, final Color[] colours)
+    {
+        double[] stops = new double[colours.length];
+
+        for(int i = 0; i < colours.length; ++i)
+        {
+            stops[i] = i / (double)(colours.length - 1);
+        }
+
+        return gradient(value, colours, stops);
+    }
+
+    private static Color blend(final Color from, final Color to, double fraction)
+    {
+        return new Color(
+                (int)Math.round(from.getRed() + (to.getRed() - from.getRed()) * fraction),
+                (int)Math.round(from.getGreen() + (to.getGreen() - from.getGreen()) * fraction),
+                (int)Math.round(from.getBlue() + (to.getBlue() - from.getBlue()) * fraction));
+    }
+}
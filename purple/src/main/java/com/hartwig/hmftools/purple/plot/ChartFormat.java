@@ -0,0 +1,9 @@
+package com.hartwig.hmftools.purple.plot;
+
+public enum ChartFormat
+{
+    PNG,
+    SVG;
+
+    public String extension() { return "." + name().toLowerCase(); }
+}
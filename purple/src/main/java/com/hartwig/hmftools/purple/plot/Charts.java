@@ -9,23 +9,27 @@ import java.util.concurrent.Future;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.purple.BestFit;
 import com.hartwig.hmftools.common.purple.PurpleCopyNumber;
 import com.hartwig.hmftools.common.purple.Gender;
 import com.hartwig.hmftools.common.variant.VariantContextDecorator;
 import com.hartwig.hmftools.common.sv.StructuralVariant;
 import com.hartwig.hmftools.purple.config.ChartConfig;
 import com.hartwig.hmftools.purple.config.PurpleConfig;
+import com.hartwig.hmftools.purple.fitting.PeakModelData;
 import com.hartwig.hmftools.purple.region.ObservedRegion;
 
 public class Charts
 {
     private final RCharts mRCharts;
+    private final JavaCharts mJavaCharts;
     private final PurpleConfig mConfig;
     private final CircosCharts mCircosCharts;
 
     public Charts(final PurpleConfig config, final ExecutorService executorService, boolean isHg38) throws IOException
     {
-        mRCharts = new RCharts(config, executorService);
+        mRCharts = !config.Charting.UseJavaCharts ? new RCharts(config, executorService) : null;
+        mJavaCharts = config.Charting.UseJavaCharts ? new JavaCharts(config, executorService, isHg38) : null;
         mConfig = config;
         mCircosCharts = config.Charting.CircosBinary != null ? new CircosCharts(config, executorService, isHg38) : null;
     }
@@ -34,7 +38,8 @@ public class Charts
             final String referenceId, final String sampleId, boolean plotSomatics,
             final Gender gender, final List<PurpleCopyNumber> copyNumbers,
             final List<VariantContextDecorator> somaticVariants, final List<StructuralVariant> structuralVariants,
-            final List<ObservedRegion> regions, final List<AmberBAF> bafs) throws Exception
+            final List<ObservedRegion> regions, final List<AmberBAF> bafs,
+            final BestFit bestFit, final List<PeakModelData> peakModel, final RChartData somaticChartData) throws Exception
     {
         final ChartConfig chartConfig = mConfig.Charting;
 
@@ -48,7 +53,17 @@ public class Charts
 
         if(!chartConfig.Disabled)
         {
-            chartFutures.addAll(mRCharts.chartFutures(sampleId, plotSomatics));
+            if(mRCharts != null)
+            {
+                chartFutures.addAll(mRCharts.chartFutures(sampleId, plotSomatics));
+            }
+            else
+            {
+                // the circos-style plot is only rendered in-process if the Circos binary has not been provided
+                chartFutures.addAll(mJavaCharts.chartFutures(
+                        sampleId, plotSomatics, mCircosCharts == null, gender, copyNumbers, somaticVariants, structuralVariants,
+                        regions, bafs, bestFit, peakModel, somaticChartData));
+            }
         }
 
         for(final Future<Integer> future : chartFutures)
@@ -0,0 +1,392 @@
+package com.hartwig.hmftools.purple.plot;
+
+import static java.lang.String.format;
+
+import static com.hartwig.hmftools.purple.plot.ChartColours.COPY_NUMBER_CLASSES;
+import static com.hartwig.hmftools.purple.plot.ChartColours.COPY_NUMBER_CLASS_COLOURS;
+import static com.hartwig.hmftools.purple.plot.ChartColours.MINOR_ALLELE_CLASSES;
+import static com.hartwig.hmftools.purple.plot.ChartColours.SCORE_GRADIENT;
+import static com.hartwig.hmftools.purple.plot.PlotPanel.percentLabels;
+import static com.hartwig.hmftools.purple.plot.PlotPanel.tickLabels;
+import static com.hartwig.hmftools.purple.plot.PlotPanel.ticks;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.purple.BestFit;
+import com.hartwig.hmftools.common.purple.FittedPurity;
+import com.hartwig.hmftools.common.purple.GermlineStatus;
+import com.hartwig.hmftools.common.purple.PurpleCopyNumber;
+import com.hartwig.hmftools.purple.region.ObservedRegion;
+
+// in-process equivalents of the copy number, purity range and segment score R charts
+public final class CopyNumberCharts
+{
+    public static final double CHART_WIDTH = 480;
+    public static final double CHART_HEIGHT = 400;
+
+    public static final double PANEL_LEFT = 50;
+    public static final double PANEL_TOP = 30;
+    public static final double PANEL_WIDTH = 340;
+    public static final double PANEL_HEIGHT = 320;
+    public static final double LEGEND_LEFT = PANEL_LEFT + PANEL_WIDTH + 10;
+
+    private static final double BIN_WIDTH = 0.1;
+    private static final double PDF_PROPORTION = 0.9;
+
+    private static final int MAX_MINOR_ALLELE_CLASS = 5;
+    private static final int MAX_COPY_NUMBER_CLASS = 6;
+
+    private CopyNumberCharts() {}
+
+    public static List<PurpleCopyNumber> autosomalBafSegments(final List<PurpleCopyNumber> copyNumbers)
+    {
+        return copyNumbers.stream()
+                .filter(x -> HumanChromosome.contains(x.chromosome()) && HumanChromosome.fromString(x.chromosome()).isAutosome())
+                .filter(x -> x.bafCount() > 0)
+                .collect(Collectors.toList());
+    }
+
+    public static void writeCopyNumber(
+            final String filenameBase, final ChartFormat chartFormat, final List<PurpleCopyNumber> copyNumbers) throws IOException
+    {
+        StackedHistogram histogram = new StackedHistogram(BIN_WIDTH, MINOR_ALLELE_CLASSES.size());
+
+        for(PurpleCopyNumber copyNumber : copyNumbers)
+        {
+            int alleleClass = classIndex(copyNumber.minorAlleleCopyNumber(), MAX_MINOR_ALLELE_CLASS);
+            histogram.add(copyNumber.averageTumorCopyNumber(), alleleClass, copyNumber.bafCount());
+        }
+
+        double minCopyNumber = Math.floor(copyNumbers.stream().mapToDouble(PurpleCopyNumber::averageTumorCopyNumber).min().orElse(0));
+        double maxCopyNumber = weightedProportionBucket(copyNumbers, PurpleCopyNumber::averageTumorCopyNumber, PDF_PROPORTION);
+
+        writeHistogram(filenameBase, chartFormat, histogram, minCopyNumber - BIN_WIDTH, maxCopyNumber + BIN_WIDTH,
+                "Copy Number PDF", "Copy Number", MINOR_ALLELE_CLASSES);
+    }
+
+    public static void writeMinorAlleleCopyNumber(
+            final String filenameBase, final ChartFormat chartFormat, final List<PurpleCopyNumber> copyNumbers) throws IOException
+    {
+        StackedHistogram histogram = new StackedHistogram(BIN_WIDTH, COPY_NUMBER_CLASSES.size());
+
+        for(PurpleCopyNumber copyNumber : copyNumbers)
+        {
+            int copyNumberClass = classIndex(copyNumber.averageTumorCopyNumber(), MAX_COPY_NUMBER_CLASS);
+            histogram.add(copyNumber.minorAlleleCopyNumber(), copyNumberClass, copyNumber.bafCount());
+        }
+
+        double maxMinorAlleleCopyNumber = weightedProportionBucket(copyNumbers, PurpleCopyNumber::minorAlleleCopyNumber, PDF_PROPORTION);
+
+        writeHistogram(filenameBase, chartFormat, histogram, -BIN_WIDTH, maxMinorAlleleCopyNumber + BIN_WIDTH,
+                "Minor Allele Copy Number PDF", "Minor Allele Copy Number", COPY_NUMBER_CLASSES);
+    }
+
+    private static void writeHistogram(
+            final String filenameBase, final ChartFormat chartFormat, final StackedHistogram histogram, double xMin, double xMax,
+            final String title, final String xTitle, final List<String> classes) throws IOException
+    {
+        ChartCanvas canvas = new ChartCanvas(chartFormat, CHART_WIDTH, CHART_HEIGHT);
+        PlotPanel panel = new PlotPanel(canvas.graphics(), PANEL_LEFT, PANEL_TOP, PANEL_WIDTH, PANEL_HEIGHT);
+
+        panel.setXRange(xMin, xMax);
+        panel.setYRange(0, histogram.maxTotal(xMin, xMax) * 1.05);
+
+        double[] xTicks = ticks(Math.ceil(xMin), Math.floor(xMax), (int)Math.min(10, Math.floor(xMax) - Math.ceil(xMin)));
+        double[] yTicks = ticks(0, histogram.maxTotal(xMin, xMax), 5);
+
+        panel.drawGrid(xTicks, yTicks);
+        histogram.draw(panel, COPY_NUMBER_CLASS_COLOURS);
+        panel.drawBorder();
+
+        panel.drawXAxis(xTicks, tickLabels(xTicks), xTitle);
+        panel.drawYAxis(yTicks, tickLabels(yTicks), "Baf Count");
+        panel.drawTitle(title);
+        panel.drawLegend(null, classes, COPY_NUMBER_CLASS_COLOURS.subList(0, classes.size()), LEGEND_LEFT, PANEL_TOP + 100);
+
+        canvas.write(filenameBase);
+    }
+
+    public static void writePurityRange(final String filenameBase, final ChartFormat chartFormat, final BestFit bestFit)
+            throws IOException
+    {
+        if(bestFit.allFits().isEmpty())
+            return;
+
+        double bestPurity = bestFit.fit().purity();
+        double bestPloidy = bestFit.fit().ploidy();
+        double bestScore = bestFit.fit().score();
+
+        Map<Double,List<FittedPurity>> purityFits = new TreeMap<>();
+
+        for(FittedPurity fittedPurity : bestFit.allFits())
+        {
+            purityFits.computeIfAbsent(fittedPurity.purity(), x -> Lists.newArrayList()).add(fittedPurity);
+        }
+
+        // each fit covers the ploidy range halfway to its neighbours at the same purity
+        List<double[]> cells = Lists.newArrayList();
+        double maxPloidy = Double.MAX_VALUE;
+        double minPloidy = -Double.MAX_VALUE;
+
+        for(List<FittedPurity> fits : purityFits.values())
+        {
+            fits.sort(Comparator.comparingDouble(FittedPurity::ploidy));
+
+            for(int i = 0; i < fits.size(); ++i)
+            {
+                FittedPurity fit = fits.get(i);
+                double ploidy = fit.ploidy();
+                double xMin = i > 0 ? ploidy - (ploidy - fits.get(i - 1).ploidy()) / 2 : ploidy;
+                double xMax = i < fits.size() - 1 ? ploidy + (fits.get(i + 1).ploidy() - ploidy) / 2 : ploidy;
+                double relativeScore = Math.min(1, Math.abs(fit.score() - bestScore) / fit.score());
+
+                cells.add(new double[] { xMin, xMax, fit.purity() - 0.005, fit.purity() + 0.005, relativeScore });
+
+                if(i == 0)
+                    minPloidy = Math.max(minPloidy, xMin);
+
+                if(i == fits.size() - 1)
+                    maxPloidy = Math.min(maxPloidy, xMax);
+            }
+        }
+
+        maxPloidy = Math.max(maxPloidy, bestPloidy);
+        minPloidy = Math.min(minPloidy, bestPloidy);
+
+        ChartCanvas canvas = new ChartCanvas(chartFormat, CHART_WIDTH, CHART_HEIGHT);
+        PlotPanel panel = new PlotPanel(canvas.graphics(), PANEL_LEFT, PANEL_TOP, PANEL_WIDTH, PANEL_HEIGHT);
+
+        panel.setXRange(minPloidy - 0.1, maxPloidy + 0.6);
+        panel.setYRange(0.05, 1.1);
+
+        double[] xTicks = ticks(Math.ceil(minPloidy), Math.floor(maxPloidy), 8);
+        double[] yTicks = { 0.25, 0.5, 0.75, 1 };
+
+        panel.drawGrid(xTicks, yTicks);
+        panel.clip();
+
+        Color[] scoreColours = { Color.BLUE, Color.BLUE, Color.GREEN, Color.YELLOW, Color.ORANGE, Color.RED, new Color(238, 0, 0) };
+        double[] scoreStops = { 0, 0.0999, 0.1, 0.5, 0.8, 0.9, 1 };
+
+        for(double[] cell : cells)
+        {
+            if(cell[0] > maxPloidy || cell[1] < minPloidy)
+                continue;
+
+            Color colour = ChartColours.gradient(cell[4], scoreColours, scoreStops);
+            panel.fillRect(Math.max(cell[0], minPloidy), Math.min(cell[1], maxPloidy), cell[2], cell[3], colour, null);
+        }
+
+        panel.drawSegment(bestPloidy, 0.085, bestPloidy, 1.05, Color.BLACK, 0.3f, true);
+        panel.drawSegment(minPloidy, bestPurity, maxPloidy + 0.4, bestPurity, Color.BLACK, 0.3f, true);
+        panel.unclip();
+
+        panel.drawLabel(format("%.2f", bestPloidy), bestPloidy, 1.05);
+        panel.drawLabel(format("%.0f%%", bestPurity * 100), maxPloidy + 0.4, bestPurity);
+        panel.drawBorder();
+
+        panel.drawXAxis(xTicks, tickLabels(xTicks), "Ploidy");
+        panel.drawYAxis(yTicks, percentLabels(yTicks), "Purity");
+        panel.drawTitle("Purity/Ploidy Scores");
+
+        drawColourBar(panel, "Relative\nScore", scoreColours, scoreStops, new double[] { 0.1, 0.5, 1 });
+
+        canvas.write(filenameBase);
+    }
+
+    public static void writeSegmentScores(final String filenameBase, final ChartFormat chartFormat, final List<ObservedRegion> regions)
+            throws IOException
+    {
+        List<ObservedRegion> segments = regions.stream()
+                .filter(x -> x.germlineStatus() == GermlineStatus.DIPLOID && x.bafCount() > 0)
+                .sorted(Comparator.comparingDouble(ObservedRegion::majorAlleleCopyNumber))
+                .collect(Collectors.toList());
+
+        if(segments.isEmpty())
+            return;
+
+        // scale the axes and colours to the segments making up 90% of the weighted major allele copy number
+        double weightedTotal = segments.stream().mapToDouble(x -> x.bafCount() * x.majorAlleleCopyNumber()).sum();
+        double cumulative = 0;
+        double minScore = Double.MAX_VALUE;
+        double maxScore = -Double.MAX_VALUE;
+        double minMajorAllele = Double.MAX_VALUE;
+        double maxMajorAllele = -Double.MAX_VALUE;
+
+        for(ObservedRegion segment : segments)
+        {
+            cumulative += segment.bafCount() * segment.majorAlleleCopyNumber();
+
+            if(weightedTotal > 0 && cumulative / weightedTotal > PDF_PROPORTION)
+                continue;
+
+            double score = segmentScore(segment);
+            minScore = Math.min(minScore, score);
+            maxScore = Math.max(maxScore, score);
+            minMajorAllele = Math.min(minMajorAllele, segment.majorAlleleCopyNumber());
+            maxMajorAllele = Math.max(maxMajorAllele, segment.majorAlleleCopyNumber());
+        }
+
+        if(minScore > maxScore)
+        {
+            minScore = 0;
+            maxScore = 1;
+            minMajorAllele = 0;
+            maxMajorAllele = 2;
+        }
+
+        minScore = Math.floor(minScore);
+        maxScore = Math.ceil(maxScore);
+        double xMin = Math.min(0, Math.floor(minMajorAllele));
+        double xMax = Math.ceil(maxMajorAllele);
+        double yMax = xMax - 1;
+
+        ChartCanvas canvas = new ChartCanvas(chartFormat, CHART_WIDTH, CHART_HEIGHT);
+        PlotPanel panel = new PlotPanel(canvas.graphics(), PANEL_LEFT, PANEL_TOP, PANEL_WIDTH, PANEL_HEIGHT);
+
+        panel.setXRange(xMin - 0.2, xMax + 0.2);
+        panel.setYRange(-0.2, Math.max(yMax, 1) + 0.2);
+
+        double[] xTicks = ticks(xMin, xMax, (int)Math.min(10, xMax - xMin));
+        double[] yTicks = ticks(0, Math.max(yMax, 1), (int)Math.min(10, Math.max(yMax, 1)));
+
+        panel.drawGrid(xTicks, yTicks);
+        panel.clip();
+
+        int maxBafCount = segments.stream().mapToInt(ObservedRegion::bafCount).max().orElse(1);
+
+        for(ObservedRegion segment : segments)
+        {
+            if(segment.majorAlleleCopyNumber() < xMin || segment.majorAlleleCopyNumber() > xMax)
+                continue;
+
+            if(segment.minorAlleleCopyNumber() < 0 || segment.minorAlleleCopyNumber() > yMax)
+                continue;
+
+            double scoreFraction = maxScore > minScore ? (segmentScore(segment) - minScore) / (maxScore - minScore) : 0;
+            Color colour = ChartColours.withAlpha(ChartColours.gradient(scoreFraction, SCORE_GRADIENT), 0.7);
+
+            // point areas scale with BAF count, from 1 to 9 in R's size units
+            double radius = 0.5 + 4 * Math.sqrt(segment.bafCount() / (double)maxBafCount);
+            panel.drawPoint(segment.majorAlleleCopyNumber(), segment.minorAlleleCopyNumber(), radius, colour);
+        }
+
+        panel.unclip();
+        panel.drawBorder();
+
+        panel.drawXAxis(xTicks, tickLabels(xTicks), "Major Allele");
+        panel.drawYAxis(yTicks, tickLabels(yTicks), "Minor Allele");
+        panel.drawTitle("Segment Scores");
+
+        double[] scoreTicks = ticks(0, 1, 4);
+        double[] scoreStops = new double[SCORE_GRADIENT.length];
+
+        for(int i = 0; i < scoreStops.length; ++i)
+        {
+            scoreStops[i] = i / (double)(scoreStops.length - 1);
+        }
+
+        String[] scoreLabels = new String[scoreTicks.length];
+
+        for(int i = 0; i < scoreTicks.length; ++i)
+        {
+            scoreLabels[i] = format("%.1f", minScore + scoreTicks[i] * (maxScore - minScore));
+        }
+
+        drawColourBar(panel, "Score", SCORE_GRADIENT, scoreStops, scoreTicks, scoreLabels);
+
+        canvas.write(filenameBase);
+    }
+
+    private static double segmentScore(final ObservedRegion segment)
+    {
+        return segment.deviationPenalty() * segment.eventPenalty();
+    }
+
+    private static void drawColourBar(
+            final PlotPanel panel, final String title, final Color[] colours, final double[] stops, final double[] ticks)
+    {
+        drawColourBar(panel, title, colours, stops, ticks, percentLabels(ticks));
+    }
+
+    // a vertical gradient key for values in the range 0-1
+    private static void drawColourBar(
+            final PlotPanel panel, final String title, final Color[] colours, final double[] stops, final double[] ticks,
+            final String[] labels)
+    {
+        final double barWidth = 10;
+        final double barHeight = 80;
+        final int steps = 50;
+
+        double top = PANEL_TOP + 110;
+        Graphics2D graphics = panel.graphics();
+
+        graphics.setColor(Color.BLACK);
+        graphics.setFont(PlotPanel.LEGEND_FONT);
+
+        String[] titleLines = title.split("\n");
+
+        for(int i = 0; i < titleLines.length; ++i)
+        {
+            graphics.drawString(titleLines[i], (float)LEGEND_LEFT, (float)(top - 4 - (titleLines.length - 1 - i) * 9));
+        }
+
+        for(int i = 0; i < steps; ++i)
+        {
+            double value = 1 - i / (double)steps;
+            graphics.setColor(ChartColours.gradient(value, colours, stops));
+            graphics.fill(new Rectangle2D.Double(LEGEND_LEFT, top + i * barHeight / steps, barWidth, barHeight / steps + 0.2));
+        }
+
+        graphics.setColor(Color.BLACK);
+        graphics.setStroke(new BasicStroke(0.3f));
+
+        for(int i = 0; i < ticks.length; ++i)
+        {
+            float tickY = (float)(top + (1 - ticks[i]) * barHeight);
+            graphics.drawString(labels[i], (float)(LEGEND_LEFT + barWidth + 3), tickY + 2.5f);
+        }
+    }
+
+    // the first whole-number bucket, rounding values up, at which the cumulative BAF count exceeds the proportion
+    private static double weightedProportionBucket(
+            final List<PurpleCopyNumber> copyNumbers, final ToDoubleFunction<PurpleCopyNumber> valueFunc, double proportion)
+    {
+        TreeMap<Double,Double> bucketWeights = new TreeMap<>();
+
+        for(PurpleCopyNumber copyNumber : copyNumbers)
+        {
+            bucketWeights.merge(Math.ceil(valueFunc.applyAsDouble(copyNumber)), (double)copyNumber.bafCount(), Double::sum);
+        }
+
+        double total = bucketWeights.values().stream().mapToDouble(Double::doubleValue).sum();
+        double cumulative = 0;
+
+        for(Map.Entry<Double,Double> entry : bucketWeights.entrySet())
+        {
+            cumulative += entry.getValue();
+
+            if(cumulative / total > proportion)
+                return entry.getKey();
+        }
+
+        return bucketWeights.isEmpty() ? 0 : bucketWeights.lastKey();
+    }
+
+    private static int classIndex(double copyNumber, int maxClass)
+    {
+        return (int)Math.max(0, Math.min(maxClass, Math.round(copyNumber)));
+    }
+}
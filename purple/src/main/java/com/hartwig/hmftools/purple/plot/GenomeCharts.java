@@ -0,0 +1,428 @@
+package com.hartwig.hmftools.purple.plot;
+
+import static com.hartwig.hmftools.purple.plot.ChartColours.GAIN;
+import static com.hartwig.hmftools.purple.plot.ChartColours.LOSS;
+import static com.hartwig.hmftools.purple.plot.ChartColours.MINOR_ALLELE_GAIN;
+import static com.hartwig.hmftools.purple.plot.ChartColours.MINOR_ALLELE_LOSS;
+import static com.hartwig.hmftools.purple.plot.ChartColours.SOMATIC;
+import static com.hartwig.hmftools.purple.plot.ChartColours.withAlpha;
+import static com.hartwig.hmftools.purple.plot.PlotPanel.tickLabels;
+import static com.hartwig.hmftools.purple.plot.PlotPanel.ticks;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.io.IOException;
+import java.util.List;
+
+import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeCoordinates;
+import com.hartwig.hmftools.common.purple.Gender;
+import com.hartwig.hmftools.common.purple.PurpleCopyNumber;
+import com.hartwig.hmftools.common.sv.StructuralVariant;
+import com.hartwig.hmftools.common.variant.VariantContextDecorator;
+import com.hartwig.hmftools.common.variant.VariantType;
+
+// a circos-style circular genome plot and a linear copy number and BAF plot
+public final class GenomeCharts
+{
+    private static final double CIRCOS_SIZE = 600;
+    private static final double CIRCOS_RADIUS = 270;
+    private static final double CIRCOS_GAP_FRACTION = 0.004;
+
+    // ring radii as fractions of the plot radius, following the Circos template
+    private static final double IDEOGRAM_INNER = 0.985;
+    private static final double IDEOGRAM_OUTER = 1.0;
+    private static final double SNV_INNER = 0.775;
+    private static final double SNV_OUTER = 0.975;
+    private static final double INDEL_INNER = 0.725;
+    private static final double COPY_NUMBER_BASE = 0.55;
+    private static final double COPY_NUMBER_GAIN_OUTER = 0.70;
+    private static final double COPY_NUMBER_LOSS_INNER = 0.50;
+    private static final double MINOR_ALLELE_BASE = 0.40;
+    private static final double MINOR_ALLELE_GAIN_OUTER = 0.475;
+    private static final double MINOR_ALLELE_LOSS_INNER = 0.375;
+    private static final double LINK_RADIUS = 0.37;
+
+    private static final double MAX_COPY_NUMBER_GAIN = 4;
+    private static final double MAX_COPY_NUMBER_LOSS = 2;
+    private static final double MAX_MINOR_ALLELE_GAIN = 2;
+    private static final double MAX_MINOR_ALLELE_LOSS = 1;
+
+    private static final double ARC_STEP_RADIANS = Math.toRadians(0.5);
+
+    private static final double GENOME_WIDTH = 960;
+    private static final double GENOME_HEIGHT = 400;
+    private static final double GENOME_GAP_FRACTION = 0.002;
+    private static final double MAX_GENOME_COPY_NUMBER = 6;
+
+    private static final Color IDEOGRAM_COLOUR = new Color(150, 150, 150);
+    private static final Color IDEOGRAM_ALT_COLOUR = new Color(200, 200, 200);
+    private static final Color BAF_POINT_COLOUR = withAlpha(new Color(120, 120, 120), 0.3);
+
+    private GenomeCharts() {}
+
+    public static void writeCircos(
+            final String filenameBase, final ChartFormat chartFormat, final RefGenomeCoordinates coordinates, final Gender gender,
+            final List<PurpleCopyNumber> copyNumbers, final List<VariantContextDecorator> somaticVariants,
+            final List<StructuralVariant> structuralVariants) throws IOException
+    {
+        GenomeLayout layout = new GenomeLayout(coordinates, gender, CIRCOS_GAP_FRACTION);
+
+        ChartCanvas canvas = new ChartCanvas(chartFormat, CIRCOS_SIZE, CIRCOS_SIZE);
+        CircularPlot plot = new CircularPlot(canvas.graphics(), layout);
+
+        plot.drawIdeogram();
+
+        for(VariantContextDecorator variant : somaticVariants)
+        {
+            if(!layout.contains(variant.chromosome()))
+                continue;
+
+            long position = layout.position(variant.chromosome(), variant.position());
+
+            if(variant.type() == VariantType.INDEL)
+            {
+                plot.drawRadialLine(position, INDEL_INNER, SNV_INNER, withAlpha(SOMATIC, 0.3));
+            }
+            else
+            {
+                double vaf = Math.max(0, Math.min(1, variant.adjustedVaf()));
+                plot.drawPoint(position, SNV_INNER + vaf * (SNV_OUTER - SNV_INNER), withAlpha(SOMATIC, 0.5));
+            }
+        }
+
+        for(PurpleCopyNumber copyNumber : copyNumbers)
+        {
+            if(!layout.contains(copyNumber.chromosome()))
+                continue;
+
+            long start = layout.position(copyNumber.chromosome(), copyNumber.start());
+            long end = layout.position(copyNumber.chromosome(), copyNumber.end());
+
+            double copyNumberChange = copyNumber.averageTumorCopyNumber() - 2;
+
+            if(copyNumberChange > 0)
+            {
+                double fraction = Math.min(copyNumberChange, MAX_COPY_NUMBER_GAIN) / MAX_COPY_NUMBER_GAIN;
+                plot.fillSector(start, end, COPY_NUMBER_BASE,
+                        COPY_NUMBER_BASE + fraction * (COPY_NUMBER_GAIN_OUTER - COPY_NUMBER_BASE), GAIN);
+            }
+            else if(copyNumberChange < 0)
+            {
+                double fraction = Math.min(-copyNumberChange, MAX_COPY_NUMBER_LOSS) / MAX_COPY_NUMBER_LOSS;
+                plot.fillSector(start, end, COPY_NUMBER_BASE - fraction * (COPY_NUMBER_BASE - COPY_NUMBER_LOSS_INNER),
+                        COPY_NUMBER_BASE, LOSS);
+            }
+
+            double minorAlleleChange = copyNumber.minorAlleleCopyNumber() - 1;
+
+            if(minorAlleleChange > 0)
+            {
+                double fraction = Math.min(minorAlleleChange, MAX_MINOR_ALLELE_GAIN) / MAX_MINOR_ALLELE_GAIN;
+                plot.fillSector(start, end, MINOR_ALLELE_BASE,
+                        MINOR_ALLELE_BASE + fraction * (MINOR_ALLELE_GAIN_OUTER - MINOR_ALLELE_BASE), MINOR_ALLELE_GAIN);
+            }
+            else if(minorAlleleChange < 0)
+            {
+                double fraction = Math.min(-minorAlleleChange, MAX_MINOR_ALLELE_LOSS) / MAX_MINOR_ALLELE_LOSS;
+                plot.fillSector(start, end, MINOR_ALLELE_BASE - fraction * (MINOR_ALLELE_BASE - MINOR_ALLELE_LOSS_INNER),
+                        MINOR_ALLELE_BASE, MINOR_ALLELE_LOSS);
+            }
+        }
+
+        plot.drawRingOutline(COPY_NUMBER_BASE);
+        plot.drawRingOutline(MINOR_ALLELE_BASE);
+
+        for(StructuralVariant variant : structuralVariants)
+        {
+            // single breakends have no link
+            if(variant.end() == null)
+                continue;
+
+            String startChromosome = variant.chromosome(true);
+            String endChromosome = variant.chromosome(false);
+
+            if(!layout.contains(startChromosome) || !layout.contains(endChromosome))
+                continue;
+
+            plot.drawLink(
+                    layout.position(startChromosome, variant.position(true)),
+                    layout.position(endChromosome, variant.position(false)),
+                    startChromosome.equals(endChromosome), linkColour(variant));
+        }
+
+        canvas.write(filenameBase);
+    }
+
+    public static void writeCopyNumberBaf(
+            final String filenameBase, final ChartFormat chartFormat, final RefGenomeCoordinates coordinates, final Gender gender,
+            final List<PurpleCopyNumber> copyNumbers, final List<AmberBAF> bafs) throws IOException
+    {
+        GenomeLayout layout = new GenomeLayout(coordinates, gender, GENOME_GAP_FRACTION);
+
+        ChartCanvas canvas = new ChartCanvas(chartFormat, GENOME_WIDTH, GENOME_HEIGHT);
+
+        double panelLeft = 50;
+        double panelWidth = GENOME_WIDTH - panelLeft - 20;
+        double panelHeight = (GENOME_HEIGHT - 30 - 30 - 20) / 2;
+
+        PlotPanel copyNumberPanel = new PlotPanel(canvas.graphics(), panelLeft, 30, panelWidth, panelHeight);
+        copyNumberPanel.setXRange(0, layout.totalLength());
+        copyNumberPanel.setYRange(0, MAX_GENOME_COPY_NUMBER);
+
+        PlotPanel bafPanel = new PlotPanel(canvas.graphics(), panelLeft, 30 + panelHeight + 20, panelWidth, panelHeight);
+        bafPanel.setXRange(0, layout.totalLength());
+        bafPanel.setYRange(0, 1);
+
+        double[] copyNumberTicks = ticks(0, MAX_GENOME_COPY_NUMBER, 6);
+        double[] bafTicks = { 0, 0.25, 0.5, 0.75, 1 };
+
+        drawChromosomeBands(copyNumberPanel, layout, copyNumberTicks, false);
+        drawChromosomeBands(bafPanel, layout, bafTicks, true);
+
+        bafPanel.clip();
+
+        for(AmberBAF baf : bafs)
+        {
+            if(layout.contains(baf.chromosome()))
+                bafPanel.drawPoint(layout.position(baf.chromosome(), baf.position()), baf.TumorBAF, 0.4, BAF_POINT_COLOUR);
+        }
+
+        for(PurpleCopyNumber copyNumber : copyNumbers)
+        {
+            if(copyNumber.bafCount() > 0 && layout.contains(copyNumber.chromosome()))
+            {
+                bafPanel.drawSegment(
+                        layout.position(copyNumber.chromosome(), copyNumber.start()), copyNumber.averageActualBAF(),
+                        layout.position(copyNumber.chromosome(), copyNumber.end()), copyNumber.averageActualBAF(), LOSS, 1.2f, false);
+            }
+        }
+
+        bafPanel.unclip();
+        copyNumberPanel.clip();
+
+        for(PurpleCopyNumber copyNumber : copyNumbers)
+        {
+            if(!layout.contains(copyNumber.chromosome()))
+                continue;
+
+            double tumorCopyNumber = copyNumber.averageTumorCopyNumber();
+            double capped = Math.min(tumorCopyNumber, MAX_GENOME_COPY_NUMBER);
+            Color colour = tumorCopyNumber > 2.5 ? GAIN : (tumorCopyNumber < 1.5 ? LOSS : Color.BLACK);
+
+            copyNumberPanel.drawSegment(
+                    layout.position(copyNumber.chromosome(), copyNumber.start()), capped,
+                    layout.position(copyNumber.chromosome(), copyNumber.end()), capped, colour, 1.5f, false);
+        }
+
+        copyNumberPanel.unclip();
+
+        copyNumberPanel.drawBorder();
+        bafPanel.drawBorder();
+        copyNumberPanel.drawYAxis(copyNumberTicks, tickLabels(copyNumberTicks), "Copy Number");
+        bafPanel.drawYAxis(bafTicks, tickLabels(bafTicks), "BAF");
+        copyNumberPanel.drawTitle("Copy Number and BAF");
+
+        canvas.write(filenameBase);
+    }
+
+    private static void drawChromosomeBands(final PlotPanel panel, final GenomeLayout layout, final double[] yTicks, boolean labelled)
+    {
+        Graphics2D graphics = panel.graphics();
+        panel.drawGrid(new double[0], yTicks);
+
+        graphics.setFont(PlotPanel.AXIS_FONT);
+        FontMetrics metrics = graphics.getFontMetrics();
+
+        for(int i = 0; i < layout.chromosomes().size(); ++i)
+        {
+            HumanChromosome chromosome = layout.chromosomes().get(i);
+            double left = panel.x(layout.start(chromosome));
+            double right = panel.x(layout.end(chromosome));
+
+            if(i > 0)
+            {
+                graphics.setColor(PlotPanel.GRID_COLOUR.darker());
+                graphics.setStroke(new BasicStroke(0.3f));
+                graphics.draw(new Line2D.Double(left, panel.area().getMinY(), left, panel.area().getMaxY()));
+            }
+
+            if(labelled)
+            {
+                String label = chromosome.toString();
+                graphics.setColor(PlotPanel.TEXT_COLOUR);
+                graphics.drawString(label, (float)((left + right - metrics.stringWidth(label)) / 2),
+                        (float)(panel.area().getMaxY() + 3 + metrics.getAscent()));
+            }
+        }
+    }
+
+    private static Color linkColour(final StructuralVariant variant)
+    {
+        switch(variant.type())
+        {
+            case DUP:
+                return GAIN;
+            case DEL:
+                return LOSS;
+            case BND:
+                return Color.BLUE;
+            case INS:
+                return new Color(204, 153, 0);
+            case INV:
+                return Color.BLACK;
+            default:
+                return SOMATIC;
+        }
+    }
+
+    // draws rings and links around a circle, with the genome running clockwise from the top
+    private static class CircularPlot
+    {
+        private final Graphics2D mGraphics;
+        private final GenomeLayout mLayout;
+        private final double mCentre;
+
+        public CircularPlot(final Graphics2D graphics, final GenomeLayout layout)
+        {
+            mGraphics = graphics;
+            mLayout = layout;
+            mCentre = CIRCOS_SIZE / 2;
+        }
+
+        private double angle(long genomePosition)
+        {
+            return 2 * Math.PI * genomePosition / mLayout.totalLength();
+        }
+
+        private double x(double angle, double radiusFraction)
+        {
+            return mCentre + Math.sin(angle) * radiusFraction * CIRCOS_RADIUS;
+        }
+
+        private double y(double angle, double radiusFraction)
+        {
+            return mCentre - Math.cos(angle) * radiusFraction * CIRCOS_RADIUS;
+        }
+
+        public void drawIdeogram()
+        {
+            mGraphics.setFont(PlotPanel.AXIS_TITLE_FONT);
+            FontMetrics metrics = mGraphics.getFontMetrics();
+
+            for(int i = 0; i < mLayout.chromosomes().size(); ++i)
+            {
+                HumanChromosome chromosome = mLayout.chromosomes().get(i);
+                long start = mLayout.start(chromosome);
+                long end = mLayout.end(chromosome);
+
+                fillSector(start, end, IDEOGRAM_INNER, IDEOGRAM_OUTER, i % 2 == 0 ? IDEOGRAM_COLOUR : IDEOGRAM_ALT_COLOUR);
+
+                double midAngle = angle((start + end) / 2);
+                String label = chromosome.toString();
+
+                mGraphics.setColor(Color.BLACK);
+                mGraphics.drawString(label,
+                        (float)(x(midAngle, 1.05) - metrics.stringWidth(label) / 2.0),
+                        (float)(y(midAngle, 1.05) + metrics.getAscent() / 2.0));
+
+                // light background for the data rings
+                fillSector(start, end, SNV_INNER, SNV_OUTER, new Color(248, 248, 248));
+                fillSector(start, end, COPY_NUMBER_LOSS_INNER, COPY_NUMBER_GAIN_OUTER, new Color(248, 248, 248));
+                fillSector(start, end, MINOR_ALLELE_LOSS_INNER, MINOR_ALLELE_GAIN_OUTER, new Color(248, 248, 248));
+            }
+        }
+
+        public void fillSector(long start, long end, double innerFraction, double outerFraction, final Color colour)
+        {
+            double startAngle = angle(start);
+            double endAngle = angle(Math.max(end, start + 1));
+            int steps = Math.max(1, (int)Math.ceil((endAngle - startAngle) / ARC_STEP_RADIANS));
+
+            Path2D sector = new Path2D.Double();
+            sector.moveTo(x(startAngle, outerFraction), y(startAngle, outerFraction));
+
+            for(int i = 1; i <= steps; ++i)
+            {
+                double angle = startAngle + (endAngle - startAngle) * i / steps;
+                sector.lineTo(x(angle, outerFraction), y(angle, outerFraction));
+            }
+
+            for(int i = steps; i >= 0; --i)
+            {
+                double angle = startAngle + (endAngle - startAngle) * i / steps;
+                sector.lineTo(x(angle, innerFraction), y(angle, innerFraction));
+            }
+
+            sector.closePath();
+
+            mGraphics.setColor(colour);
+            mGraphics.fill(sector);
+
+            // very short segments would otherwise be invisible
+            if(steps == 1)
+            {
+                mGraphics.setStroke(new BasicStroke(0.2f));
+                mGraphics.draw(sector);
+            }
+        }
+
+        public void drawRingOutline(double radiusFraction)
+        {
+            double radius = radiusFraction * CIRCOS_RADIUS;
+            mGraphics.setColor(new Color(100, 100, 100));
+            mGraphics.setStroke(new BasicStroke(0.3f));
+            mGraphics.draw(new Ellipse2D.Double(mCentre - radius, mCentre - radius, radius * 2, radius * 2));
+        }
+
+        public void drawPoint(long position, double radiusFraction, final Color colour)
+        {
+            double angle = angle(position);
+            mGraphics.setColor(colour);
+            mGraphics.fill(new Ellipse2D.Double(x(angle, radiusFraction) - 0.6, y(angle, radiusFraction) - 0.6, 1.2, 1.2));
+        }
+
+        public void drawRadialLine(long position, double innerFraction, double outerFraction, final Color colour)
+        {
+            double angle = angle(position);
+            mGraphics.setColor(colour);
+            mGraphics.setStroke(new BasicStroke(0.3f));
+            mGraphics.draw(new Line2D.Double(
+                    x(angle, innerFraction), y(angle, innerFraction), x(angle, outerFraction), y(angle, outerFraction)));
+        }
+
+        // links curve towards the centre, with short intra-chromosomal links staying closer to the rings
+        public void drawLink(long startPosition, long endPosition, boolean sameChromosome, final Color colour)
+        {
+            double startAngle = angle(startPosition);
+            double endAngle = angle(endPosition);
+
+            double controlFraction = 0;
+
+            if(sameChromosome)
+            {
+                double length = Math.max(1, Math.abs(endPosition - startPosition));
+                controlFraction = Math.max(0, LINK_RADIUS * (1 - Math.log10(length) / 9));
+            }
+
+            double midAngle = (startAngle + endAngle) / 2;
+
+            if(Math.abs(endAngle - startAngle) > Math.PI)
+                midAngle += Math.PI;
+
+            Path2D link = new Path2D.Double();
+            link.moveTo(x(startAngle, LINK_RADIUS), y(startAngle, LINK_RADIUS));
+            link.quadTo(x(midAngle, controlFraction), y(midAngle, controlFraction), x(endAngle, LINK_RADIUS), y(endAngle, LINK_RADIUS));
+
+            mGraphics.setColor(colour);
+            mGraphics.setStroke(new BasicStroke(0.6f));
+            mGraphics.draw(link);
+        }
+    }
+}
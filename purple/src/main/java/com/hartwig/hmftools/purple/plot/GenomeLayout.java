@@ -0,0 +1,66 @@
+package com.hartwig.hmftools.purple.plot;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeCoordinates;
+import com.hartwig.hmftools.common.purple.Gender;
+
+// lays chromosomes end to end, separated by a gap, so genome positions can be mapped to a single plotting axis
+public class GenomeLayout
+{
+    private final List<HumanChromosome> mChromosomes;
+    private final Map<HumanChromosome,Long> mOffsets;
+    private final Map<HumanChromosome,Integer> mLengths;
+    private final long mTotalLength;
+
+    public GenomeLayout(final RefGenomeCoordinates coordinates, final Gender gender, double gapFraction)
+    {
+        mChromosomes = Lists.newArrayList();
+        mOffsets = Maps.newHashMap();
+        mLengths = Maps.newHashMap();
+
+        long genomeLength = 0;
+
+        for(HumanChromosome chromosome : HumanChromosome.values())
+        {
+            if(chromosome == HumanChromosome._Y && gender != Gender.MALE)
+                continue;
+
+            mChromosomes.add(chromosome);
+            mLengths.put(chromosome, coordinates.Lengths.get(chromosome));
+            genomeLength += coordinates.Lengths.get(chromosome);
+        }
+
+        long gap = Math.round(genomeLength * gapFraction);
+        long offset = 0;
+
+        for(HumanChromosome chromosome : mChromosomes)
+        {
+            mOffsets.put(chromosome, offset);
+            offset += mLengths.get(chromosome) + gap;
+        }
+
+        mTotalLength = offset;
+    }
+
+    public List<HumanChromosome> chromosomes() { return mChromosomes; }
+    public long totalLength() { return mTotalLength; }
+
+    public long start(final HumanChromosome chromosome) { return mOffsets.get(chromosome); }
+    public long end(final HumanChromosome chromosome) { return mOffsets.get(chromosome) + mLengths.get(chromosome); }
+
+    public boolean contains(final String chromosome)
+    {
+        return HumanChromosome.contains(chromosome) && mOffsets.containsKey(HumanChromosome.fromString(chromosome));
+    }
+
+    // callers check the chromosome is contained in the layout
+    public long position(final String chromosome, int position)
+    {
+        return mOffsets.get(HumanChromosome.fromString(chromosome)) + position;
+    }
+}
@@ -0,0 +1,111 @@
+package com.hartwig.hmftools.purple.plot;
+
+import static com.hartwig.hmftools.purple.PurpleUtils.PPL_LOGGER;
+import static com.hartwig.hmftools.purple.plot.CopyNumberCharts.autosomalBafSegments;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeCoordinates;
+import com.hartwig.hmftools.common.purple.BestFit;
+import com.hartwig.hmftools.common.purple.Gender;
+import com.hartwig.hmftools.common.purple.PurpleCopyNumber;
+import com.hartwig.hmftools.common.sv.StructuralVariant;
+import com.hartwig.hmftools.common.utils.collection.Downsample;
+import com.hartwig.hmftools.common.variant.VariantContextDecorator;
+import com.hartwig.hmftools.purple.config.ChartConfig;
+import com.hartwig.hmftools.purple.config.PurpleConfig;
+import com.hartwig.hmftools.purple.fitting.PeakModelData;
+import com.hartwig.hmftools.purple.region.ObservedRegion;
+
+// renders the PURPLE charts in-process from the data already held in memory, one chart per task
+public class JavaCharts
+{
+    private static final int MAX_PLOT_POINTS = 25000;
+
+    private final ChartConfig mChartConfig;
+    private final ExecutorService mExecutorService;
+    private final RefGenomeCoordinates mCoordinates;
+
+    public JavaCharts(final PurpleConfig config, final ExecutorService executorService, boolean isHg38)
+    {
+        mChartConfig = config.Charting;
+        mExecutorService = executorService;
+        mCoordinates = isHg38 ? RefGenomeCoordinates.COORDS_38 : RefGenomeCoordinates.COORDS_37;
+    }
+
+    public List<Future<Integer>> chartFutures(
+            final String sampleId, boolean plotSomatics, boolean plotCircos, final Gender gender,
+            final List<PurpleCopyNumber> copyNumbers, final List<VariantContextDecorator> somaticVariants,
+            final List<StructuralVariant> structuralVariants, final List<ObservedRegion> regions, final List<AmberBAF> bafs,
+            final BestFit bestFit, final List<PeakModelData> peakModel, final RChartData somaticChartData)
+    {
+        final List<Future<Integer>> result = Lists.newArrayList();
+
+        final String plotBase = mChartConfig.PlotDirectory + sampleId;
+        final ChartFormat format = mChartConfig.Format;
+
+        List<PurpleCopyNumber> bafSegments = autosomalBafSegments(copyNumbers);
+
+        if(!bafSegments.isEmpty())
+        {
+            result.add(submit("copynumber", () -> CopyNumberCharts.writeCopyNumber(plotBase + ".copynumber", format, bafSegments)));
+            result.add(submit("map", () -> CopyNumberCharts.writeMinorAlleleCopyNumber(plotBase + ".map", format, bafSegments)));
+        }
+
+        result.add(submit("purity.range", () -> CopyNumberCharts.writePurityRange(plotBase + ".purity.range", format, bestFit)));
+        result.add(submit("segment", () -> CopyNumberCharts.writeSegmentScores(plotBase + ".segment", format, regions)));
+
+        result.add(submit("genome", () -> GenomeCharts.writeCopyNumberBaf(
+                plotBase + ".genome", format, mCoordinates, gender, copyNumbers, Downsample.downsample(MAX_PLOT_POINTS, bafs))));
+
+        if(plotCircos)
+        {
+            result.add(submit("circos", () -> GenomeCharts.writeCircos(
+                    plotBase + ".circos", format, mCoordinates, gender, copyNumbers,
+                    Downsample.downsample(MAX_PLOT_POINTS, somaticVariants), structuralVariants)));
+        }
+
+        if(plotSomatics && somaticChartData != null)
+        {
+            List<SomaticHistogramEntry> somaticHistogram = somaticChartData.somaticHistogram();
+
+            result.add(submit("somatic", () -> SomaticCharts.writeVariantCopyNumber(plotBase + ".somatic", format, somaticHistogram)));
+
+            result.add(submit("somatic.clonality", () -> SomaticCharts.writeClonality(
+                    plotBase + ".somatic.clonality", format, somaticHistogram, peakModel)));
+
+            result.add(submit("somatic.rainfall", () -> SomaticCharts.writeRainfall(
+                    plotBase + ".somatic.rainfall", format, somaticChartData.rainfallVariants())));
+        }
+
+        return result;
+    }
+
+    private Future<Integer> submit(final String chartName, final ChartTask chartTask)
+    {
+        return mExecutorService.submit(() ->
+        {
+            try
+            {
+                chartTask.write();
+                return 0;
+            }
+            catch(Exception e)
+            {
+                PPL_LOGGER.error("failed to write chart({}): {}", chartName, e.toString());
+                return 1;
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface ChartTask
+    {
+        void write() throws IOException;
+    }
+}
@@ -0,0 +1,350 @@
+package com.hartwig.hmftools.purple.plot;
+
+import static java.lang.String.format;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+// an x-y plotting area within a chart, mapping data values to chart units and drawing axes, grid lines and legends
+public class PlotPanel
+{
+    private final Graphics2D mGraphics;
+    private final Rectangle2D mArea;
+
+    private double mXMin;
+    private double mXMax;
+    private double mYMin;
+    private double mYMax;
+    private boolean mLogY;
+
+    public static final Font TITLE_FONT = new Font("SansSerif", Font.PLAIN, 12);
+    public static final Font AXIS_TITLE_FONT = new Font("SansSerif", Font.PLAIN, 10);
+    public static final Font AXIS_FONT = new Font("SansSerif", Font.PLAIN, 8);
+    public static final Font LEGEND_FONT = new Font("SansSerif", Font.PLAIN, 7);
+
+    public static final Color GRID_COLOUR = new Color(235, 235, 235);
+    public static final Color BORDER_COLOUR = new Color(51, 51, 51);
+    public static final Color TEXT_COLOUR = new Color(77, 77, 77);
+
+    private static final double TICK_LABEL_GAP = 3;
+    private static final double LEGEND_KEY_SIZE = 8;
+
+    public PlotPanel(final Graphics2D graphics, double left, double top, double width, double height)
+    {
+        mGraphics = graphics;
+        mArea = new Rectangle2D.Double(left, top, width, height);
+        mXMin = 0;
+        mXMax = 1;
+        mYMin = 0;
+        mYMax = 1;
+        mLogY = false;
+    }
+
+    public Graphics2D graphics() { return mGraphics; }
+    public Rectangle2D area() { return mArea; }
+
+    public void setXRange(double min, double max)
+    {
+        mXMin = min;
+        mXMax = max > min ? max : min + 1;
+    }
+
+    public void setYRange(double min, double max)
+    {
+        mYMin = min;
+        mYMax = max > min ? max : min + 1;
+    }
+
+    // log scale ranges are given as data values
+    public void setLogYRange(double min, double max)
+    {
+        mLogY = true;
+        setYRange(Math.log10(Math.max(min, 1)), Math.log10(Math.max(max, 1)));
+    }
+
+    public double xMin() { return mXMin; }
+    public double xMax() { return mXMax; }
+
+    public double x(double value)
+    {
+        return mArea.getX() + (value - mXMin) / (mXMax - mXMin) * mArea.getWidth();
+    }
+
+    public double y(double value)
+    {
+        double scaled = mLogY ? Math.log10(Math.max(value, 1)) : value;
+        return mArea.getMaxY() - (scaled - mYMin) / (mYMax - mYMin) * mArea.getHeight();
+    }
+
+    public void clip() { mGraphics.setClip(mArea); }
+    public void unclip() { mGraphics.setClip(null); }
+
+    public void drawGrid(final double[] xTicks, final double[] yTicks)
+    {
+        mGraphics.setColor(GRID_COLOUR);
+        mGraphics.setStroke(new BasicStroke(0.5f));
+
+        for(double tick : xTicks)
+        {
+            mGraphics.draw(new Line2D.Double(x(tick), mArea.getMinY(), x(tick), mArea.getMaxY()));
+        }
+
+        for(double tick : yTicks)
+        {
+            mGraphics.draw(new Line2D.Double(mArea.getMinX(), y(tick), mArea.getMaxX(), y(tick)));
+        }
+    }
+
+    public void drawBorder()
+    {
+        mGraphics.setColor(BORDER_COLOUR);
+        mGraphics.setStroke(new BasicStroke(0.5f));
+        mGraphics.draw(mArea);
+    }
+
+    public void drawXAxis(final double[] ticks, final String[] labels, final String title)
+    {
+        mGraphics.setColor(TEXT_COLOUR);
+        mGraphics.setFont(AXIS_FONT);
+        FontMetrics metrics = mGraphics.getFontMetrics();
+
+        for(int i = 0; i < ticks.length; ++i)
+        {
+            double labelWidth = metrics.stringWidth(labels[i]);
+            drawString(labels[i], x(ticks[i]) - labelWidth / 2, mArea.getMaxY() + TICK_LABEL_GAP + metrics.getAscent());
+        }
+
+        if(title != null && !title.isEmpty())
+        {
+            mGraphics.setFont(AXIS_TITLE_FONT);
+            double titleWidth = mGraphics.getFontMetrics().stringWidth(title);
+            drawString(title, mArea.getCenterX() - titleWidth / 2, mArea.getMaxY() + TICK_LABEL_GAP + metrics.getHeight() + 12);
+        }
+    }
+
+    public void drawYAxis(final double[] ticks, final String[] labels, final String title)
+    {
+        mGraphics.setColor(TEXT_COLOUR);
+        mGraphics.setFont(AXIS_FONT);
+        FontMetrics metrics = mGraphics.getFontMetrics();
+
+        double maxLabelWidth = 0;
+
+        for(int i = 0; i < ticks.length; ++i)
+        {
+            double labelWidth = metrics.stringWidth(labels[i]);
+            maxLabelWidth = Math.max(maxLabelWidth, labelWidth);
+            drawString(labels[i], mArea.getMinX() - TICK_LABEL_GAP - labelWidth, y(ticks[i]) + metrics.getAscent() / 2.0 - 1);
+        }
+
+        if(title != null && !title.isEmpty())
+        {
+            mGraphics.setFont(AXIS_TITLE_FONT);
+            double titleWidth = mGraphics.getFontMetrics().stringWidth(title);
+
+            AffineTransform transform = mGraphics.getTransform();
+            mGraphics.translate(mArea.getMinX() - TICK_LABEL_GAP - maxLabelWidth - 6, mArea.getCenterY() + titleWidth / 2);
+            mGraphics.rotate(-Math.PI / 2);
+            drawString(title, 0, 0);
+            mGraphics.setTransform(transform);
+        }
+    }
+
+    public void drawTitle(final String title)
+    {
+        mGraphics.setColor(Color.BLACK);
+        mGraphics.setFont(TITLE_FONT);
+        drawString(title, mArea.getMinX(), mArea.getMinY() - 8);
+    }
+
+    // draws a vertical legend with coloured keys, starting at the given top-left point
+    public void drawLegend(final String title, final List<String> labels, final List<Color> colours, double left, double top)
+    {
+        double rowTop = top;
+
+        if(title != null && !title.isEmpty())
+        {
+            mGraphics.setColor(Color.BLACK);
+            mGraphics.setFont(LEGEND_FONT);
+
+            for(String titleLine : title.split("\n"))
+            {
+                rowTop += LEGEND_KEY_SIZE + 2;
+                drawString(titleLine, left, rowTop);
+            }
+
+            rowTop += 4;
+        }
+
+        mGraphics.setFont(LEGEND_FONT);
+
+        for(int i = 0; i < labels.size(); ++i)
+        {
+            Rectangle2D key = new Rectangle2D.Double(left, rowTop, LEGEND_KEY_SIZE, LEGEND_KEY_SIZE);
+            mGraphics.setColor(colours.get(i));
+            mGraphics.fill(key);
+            mGraphics.setColor(Color.BLACK);
+            mGraphics.setStroke(new BasicStroke(0.2f));
+            mGraphics.draw(key);
+
+            drawString(labels.get(i), left + LEGEND_KEY_SIZE + 4, rowTop + LEGEND_KEY_SIZE - 1);
+            rowTop += LEGEND_KEY_SIZE + 3;
+        }
+    }
+
+    public void fillRect(double xStart, double xEnd, double yStart, double yEnd, final Color fill, final Color outline)
+    {
+        double left = x(Math.min(xStart, xEnd));
+        double right = x(Math.max(xStart, xEnd));
+        double top = y(Math.max(yStart, yEnd));
+        double bottom = y(Math.min(yStart, yEnd));
+
+        Rectangle2D rect = new Rectangle2D.Double(left, top, right - left, bottom - top);
+
+        mGraphics.setColor(fill);
+        mGraphics.fill(rect);
+
+        if(outline != null)
+        {
+            mGraphics.setColor(outline);
+            mGraphics.setStroke(new BasicStroke(0.1f));
+            mGraphics.draw(rect);
+        }
+    }
+
+    public void drawPoint(double xValue, double yValue, double radius, final Color colour)
+    {
+        Shape point = new Ellipse2D.Double(x(xValue) - radius, y(yValue) - radius, radius * 2, radius * 2);
+        mGraphics.setColor(colour);
+        mGraphics.fill(point);
+    }
+
+    public void drawLine(final double[] xValues, final double[] yValues, final Color colour, float width)
+    {
+        if(xValues.length == 0)
+            return;
+
+        Path2D path = new Path2D.Double();
+        path.moveTo(x(xValues[0]), y(yValues[0]));
+
+        for(int i = 1; i < xValues.length; ++i)
+        {
+            path.lineTo(x(xValues[i]), y(yValues[i]));
+        }
+
+        mGraphics.setColor(colour);
+        mGraphics.setStroke(new BasicStroke(width));
+        mGraphics.draw(path);
+    }
+
+    public void drawSegment(double xStart, double yStart, double xEnd, double yEnd, final Color colour, float width, boolean dashed)
+    {
+        mGraphics.setColor(colour);
+
+        mGraphics.setStroke(dashed
+                ? new BasicStroke(width, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10, new float[] { 3, 3 }, 0)
+                : new BasicStroke(width));
+
+        mGraphics.draw(new Line2D.Double(x(xStart), y(yStart), x(xEnd), y(yEnd)));
+    }
+
+    // a value label in a white box, centred on the data point
+    public void drawLabel(final String label, double xValue, double yValue)
+    {
+        mGraphics.setFont(AXIS_FONT);
+        FontMetrics metrics = mGraphics.getFontMetrics();
+
+        double width = metrics.stringWidth(label) + 4;
+        double height = metrics.getHeight() + 2;
+        Rectangle2D box = new Rectangle2D.Double(x(xValue) - width / 2, y(yValue) - height / 2, width, height);
+
+        mGraphics.setColor(Color.WHITE);
+        mGraphics.fill(box);
+        mGraphics.setColor(BORDER_COLOUR);
+        mGraphics.setStroke(new BasicStroke(0.3f));
+        mGraphics.draw(box);
+        mGraphics.setColor(Color.BLACK);
+        drawString(label, box.getX() + 2, box.getY() + 1 + metrics.getAscent());
+    }
+
+    private void drawString(final String text, double x, double y)
+    {
+        mGraphics.drawString(text, (float)x, (float)y);
+    }
+
+    // evenly spaced tick values on round numbers, covering the range
+    public static double[] ticks(double min, double max, int targetCount)
+    {
+        double range = max - min;
+
+        if(range <= 0 || targetCount < 1)
+            return new double[] { min };
+
+        double rawStep = range / targetCount;
+        double magnitude = Math.pow(10, Math.floor(Math.log10(rawStep)));
+        double fraction = rawStep / magnitude;
+
+        double step;
+
+        if(fraction <= 1)
+            step = magnitude;
+        else if(fraction <= 2)
+            step = 2 * magnitude;
+        else if(fraction <= 5)
+            step = 5 * magnitude;
+        else
+            step = 10 * magnitude;
+
+        List<Double> ticks = Lists.newArrayList();
+
+        for(double tick = Math.ceil(min / step) * step; tick <= max + step * 1e-6; tick += step)
+        {
+            ticks.add(Math.abs(tick) < step * 1e-6 ? 0 : tick);
+        }
+
+        return ticks.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    public static String[] tickLabels(final double[] ticks)
+    {
+        boolean allIntegers = true;
+
+        for(double tick : ticks)
+        {
+            allIntegers &= tick == Math.rint(tick);
+        }
+
+        String[] labels = new String[ticks.length];
+
+        for(int i = 0; i < ticks.length; ++i)
+        {
+            labels[i] = allIntegers ? format("%.0f", ticks[i]) : format("%.2f", ticks[i]).replaceAll("0$", "");
+        }
+
+        return labels;
+    }
+
+    public static String[] percentLabels(final double[] ticks)
+    {
+        String[] labels = new String[ticks.length];
+
+        for(int i = 0; i < ticks.length; ++i)
+        {
+            labels[i] = format("%.0f%%", ticks[i] * 100);
+        }
+
+        return labels;
+    }
+}
@@ -38,6 +38,7 @@ public class RChartData
     private final Map<String, AtomicInteger> mSomaticHistogram = Maps.newHashMap();
     private final String mHistogramFilename;
     private final BufferedWriter mSomaticWriter;
+    private final List<RainfallVariant> mRainfallVariants; // retained for in-process charting
     private int mSomaticCount;
 
     public RChartData(final PurpleConfig config, final String tumorSample)
@@ -45,7 +46,9 @@ public class RChartData
         mHistogramFilename = config.OutputDir + tumorSample + ".purple.somatic.hist.tsv";
 
         String somaticFilename = somaticDataFilename(config, tumorSample);
-        mSomaticWriter = !config.Charting.Disabled ? initialiseSomaticWriter(somaticFilename) : null;
+        boolean writeSomaticData = !config.Charting.Disabled && !config.Charting.UseJavaCharts;
+        mSomaticWriter = writeSomaticData ? initialiseSomaticWriter(somaticFilename) : null;
+        mRainfallVariants = !config.Charting.Disabled && config.Charting.UseJavaCharts ? Lists.newArrayList() : null;
         mSomaticCount = 0;
     }
 
@@ -66,6 +69,24 @@ public class RChartData
         writeSomaticData(variant);
     }
 
+    public List<SomaticHistogramEntry> somaticHistogram()
+    {
+        final List<SomaticHistogramEntry> entries = Lists.newArrayList();
+
+        for(Map.Entry<String,AtomicInteger> entry : mSomaticHistogram.entrySet())
+        {
+            String[] keys = entry.getKey().split(">");
+
+            entries.add(new SomaticHistogramEntry(
+                    Integer.parseInt(keys[0]) * VARIANT_COPY_NUMBER_BUCKET_SIZE, Integer.parseInt(keys[1]) * COPY_NUMBER_BUCKET_SIZE,
+                    entry.getValue().get()));
+        }
+
+        return entries;
+    }
+
+    public List<RainfallVariant> rainfallVariants() { return mRainfallVariants != null ? mRainfallVariants : Lists.newArrayList(); }
+
     public void write() throws IOException
     {
         Files.write(new File(mHistogramFilename).toPath(), variantCopyNumberByCopyNumberString());
@@ -120,17 +141,23 @@ public class RChartData
 
     private void writeSomaticData(final SomaticVariant variant)
     {
-        if(mSomaticWriter == null)
+        if(mSomaticWriter == null && mRainfallVariants == null)
             return;
 
         if(variant.type() != VariantType.SNP || !variant.isPass())
             return;
 
-        try
+        String mutation = format("%s>%s", variant.decorator().ref(), variant.decorator().alt());
+        String kataegis = variant.context().getAttributeAsString(KATAEGIS_FLAG, "");
+
+        if(mRainfallVariants != null)
         {
-            String mutation = format("%s>%s", variant.decorator().ref(), variant.decorator().alt());
-            String kataegis = variant.context().getAttributeAsString(KATAEGIS_FLAG, "");
+            mRainfallVariants.add(new RainfallVariant(variant.chromosome(), variant.position(), mutation, kataegis));
+            return;
+        }
 
+        try
+        {
             mSomaticWriter.write(format("%s\t%d\t%s\t%s",
                     variant.chromosome(), variant.position(), mutation, kataegis));
             mSomaticWriter.newLine();
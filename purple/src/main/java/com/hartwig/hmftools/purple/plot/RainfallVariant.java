@@ -0,0 +1,17 @@
+package com.hartwig.hmftools.purple.plot;
+
+public class RainfallVariant
+{
+    public final String Chromosome;
+    public final int Position;
+    public final String Mutation;
+    public final String Kataegis;
+
+    public RainfallVariant(final String chromosome, final int position, final String mutation, final String kataegis)
+    {
+        Chromosome = chromosome;
+        Position = position;
+        Mutation = mutation;
+        Kataegis = kataegis;
+    }
+}
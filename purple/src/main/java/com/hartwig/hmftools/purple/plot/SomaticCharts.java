@@ -0,0 +1,365 @@
+package com.hartwig.hmftools.purple.plot;
+
+import static java.lang.String.format;
+
+import static com.hartwig.hmftools.purple.plot.ChartColours.COPY_NUMBER_CLASSES;
+import static com.hartwig.hmftools.purple.plot.ChartColours.COPY_NUMBER_CLASS_COLOURS;
+import static com.hartwig.hmftools.purple.plot.ChartColours.SINGLE_BLUE;
+import static com.hartwig.hmftools.purple.plot.ChartColours.SINGLE_RED;
+import static com.hartwig.hmftools.purple.plot.ChartColours.hex;
+import static com.hartwig.hmftools.purple.plot.ChartColours.withAlpha;
+import static com.hartwig.hmftools.purple.plot.CopyNumberCharts.CHART_HEIGHT;
+import static com.hartwig.hmftools.purple.plot.CopyNumberCharts.CHART_WIDTH;
+import static com.hartwig.hmftools.purple.plot.CopyNumberCharts.LEGEND_LEFT;
+import static com.hartwig.hmftools.purple.plot.CopyNumberCharts.PANEL_HEIGHT;
+import static com.hartwig.hmftools.purple.plot.CopyNumberCharts.PANEL_LEFT;
+import static com.hartwig.hmftools.purple.plot.CopyNumberCharts.PANEL_TOP;
+import static com.hartwig.hmftools.purple.plot.CopyNumberCharts.PANEL_WIDTH;
+import static com.hartwig.hmftools.purple.plot.PlotPanel.percentLabels;
+import static com.hartwig.hmftools.purple.plot.PlotPanel.tickLabels;
+import static com.hartwig.hmftools.purple.plot.PlotPanel.ticks;
+
+import java.awt.Color;
+import java.awt.geom.Path2D;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.purple.fitting.PeakModelData;
+
+// in-process equivalents of the somatic variant copy number, clonality and rainfall R charts
+public final class SomaticCharts
+{
+    private static final double VARIANT_COPY_NUMBER_BIN_WIDTH = 0.05;
+    private static final double PDF_PROPORTION = 0.95;
+    private static final int MAX_COPY_NUMBER_CLASS = 6;
+
+    private static final double CLONALITY_WIDTH = 640;
+    private static final double CLONALITY_HEIGHT = 480;
+    private static final double CLONALITY_MAX_VARIANT_COPY_NUMBER = 3.5;
+
+    private static final double RAINFALL_WIDTH = 640;
+    private static final double RAINFALL_HEIGHT = 320;
+
+    private static final List<String> MUTATIONS = Lists.newArrayList("C>A", "C>G", "C>T", "T>A", "T>C", "T>G");
+
+    private static final List<Color> MUTATION_COLOURS = Lists.newArrayList(
+            hex("#14B0EF"), hex("#060809"), hex("#E00714"), hex("#BFBEBF"), hex("#90CA4B"), hex("#E9BBB8"));
+
+    private static final Color KATAEGIS_FORWARD = hex("#6bd692");
+    private static final Color KATAEGIS_REVERSE = hex("#7e6bd6");
+
+    private SomaticCharts() {}
+
+    public static void writeVariantCopyNumber(
+            final String filenameBase, final ChartFormat chartFormat, final List<SomaticHistogramEntry> histogramEntries) throws IOException
+    {
+        StackedHistogram histogram = new StackedHistogram(VARIANT_COPY_NUMBER_BIN_WIDTH, COPY_NUMBER_CLASSES.size());
+        TreeMap<Double,Double> bucketCounts = new TreeMap<>();
+
+        for(SomaticHistogramEntry entry : histogramEntries)
+        {
+            int copyNumberClass = (int)Math.max(0, Math.min(MAX_COPY_NUMBER_CLASS, Math.round(entry.CopyNumber)));
+            histogram.add(entry.VariantCopyNumber, copyNumberClass, entry.Count);
+            bucketCounts.merge(Math.ceil(entry.VariantCopyNumber), (double)entry.Count, Double::sum);
+        }
+
+        double maxVariantCopyNumber = proportionBucket(bucketCounts, PDF_PROPORTION);
+        double xMin = -0.1;
+        double xMax = maxVariantCopyNumber + 1.1;
+
+        ChartCanvas canvas = new ChartCanvas(chartFormat, CHART_WIDTH, CHART_HEIGHT);
+        PlotPanel panel = new PlotPanel(canvas.graphics(), PANEL_LEFT, PANEL_TOP, PANEL_WIDTH, PANEL_HEIGHT);
+
+        double maxCount = histogram.maxTotal(xMin, xMax);
+        panel.setXRange(xMin, xMax);
+        panel.setYRange(0, maxCount * 1.05);
+
+        double[] xTicks = ticks(0, Math.min(10, Math.floor(xMax)), (int)Math.min(10, Math.floor(xMax)));
+        double[] yTicks = ticks(0, maxCount, 5);
+
+        panel.drawGrid(xTicks, yTicks);
+        histogram.draw(panel, COPY_NUMBER_CLASS_COLOURS);
+        panel.drawBorder();
+
+        panel.drawXAxis(xTicks, tickLabels(xTicks), "Variant Copy Number");
+        panel.drawYAxis(yTicks, tickLabels(yTicks), "Count");
+        panel.drawTitle("Somatic Variant Copy Number PDF");
+        panel.drawLegend(null, COPY_NUMBER_CLASSES, COPY_NUMBER_CLASS_COLOURS, LEGEND_LEFT, PANEL_TOP + 100);
+
+        canvas.write(filenameBase);
+    }
+
+    public static void writeClonality(
+            final String filenameBase, final ChartFormat chartFormat, final List<SomaticHistogramEntry> histogramEntries,
+            final List<PeakModelData> peakModel) throws IOException
+    {
+        TreeMap<Double,Double> variantCounts = new TreeMap<>();
+
+        for(SomaticHistogramEntry entry : histogramEntries)
+        {
+            variantCounts.merge(entry.VariantCopyNumber, (double)entry.Count, Double::sum);
+        }
+
+        // the residual peak is excluded from the model lines but included when calculating subclonal likelihood
+        TreeMap<Double,Double> bucketTotals = new TreeMap<>();
+        TreeMap<Double,Double> subclonalTotals = new TreeMap<>();
+        TreeMap<Double,Double> nonResidualTotals = new TreeMap<>();
+        TreeMap<Double,Double> nonResidualSubclonal = new TreeMap<>();
+        Map<Double,TreeMap<Double,Double>> peakWeights = Maps.newTreeMap();
+
+        for(PeakModelData data : peakModel)
+        {
+            if(!data.IsValid)
+                continue;
+
+            bucketTotals.merge(data.Bucket, data.BucketWeight, Double::sum);
+
+            if(data.IsSubclonal)
+                subclonalTotals.merge(data.Bucket, data.BucketWeight, Double::sum);
+
+            if(data.Peak == 0)
+                continue;
+
+            nonResidualTotals.merge(data.Bucket, data.BucketWeight, Double::sum);
+            peakWeights.computeIfAbsent(data.Peak, x -> new TreeMap<>()).merge(data.Bucket, data.BucketWeight, Double::sum);
+
+            if(data.IsSubclonal)
+                nonResidualSubclonal.merge(data.Bucket, data.BucketWeight, Double::sum);
+        }
+
+        double maxValue = Math.max(
+                variantCounts.values().stream().mapToDouble(Double::doubleValue).max().orElse(0),
+                nonResidualTotals.values().stream().mapToDouble(Double::doubleValue).max().orElse(0));
+
+        ChartCanvas canvas = new ChartCanvas(chartFormat, CLONALITY_WIDTH, CLONALITY_HEIGHT);
+
+        double panelWidth = CLONALITY_WIDTH - PANEL_LEFT - 20;
+        double availableHeight = CLONALITY_HEIGHT - 30 - 40 - 20;
+        double topHeight = availableHeight * 5 / 6;
+        double bottomHeight = availableHeight / 6;
+
+        PlotPanel topPanel = new PlotPanel(canvas.graphics(), PANEL_LEFT, 20, panelWidth, topHeight);
+        topPanel.setXRange(0, CLONALITY_MAX_VARIANT_COPY_NUMBER);
+        topPanel.setYRange(-maxValue * 0.02, maxValue * 1.02);
+
+        double[] xTicks = ticks(0, CLONALITY_MAX_VARIANT_COPY_NUMBER, 7);
+        double[] yTicks = ticks(0, maxValue, 5);
+
+        topPanel.drawGrid(xTicks, yTicks);
+        topPanel.clip();
+
+        double halfWidth = VARIANT_COPY_NUMBER_BIN_WIDTH / 2;
+
+        for(Map.Entry<Double,Double> entry : variantCounts.entrySet())
+        {
+            topPanel.fillRect(entry.getKey() - halfWidth, entry.getKey() + halfWidth, 0, entry.getValue(),
+                    withAlpha(SINGLE_BLUE, 0.4), SINGLE_BLUE);
+        }
+
+        fillArea(topPanel, nonResidualSubclonal, withAlpha(SINGLE_RED, 0.3), SINGLE_RED);
+        drawLine(topPanel, nonResidualTotals, withAlpha(Color.BLACK, 0.8), 0.8f);
+
+        int peakIndex = 0;
+
+        for(TreeMap<Double,Double> weights : peakWeights.values())
+        {
+            Color peakColour = Color.getHSBColor(peakIndex / (float)Math.max(1, peakWeights.size()), 0.7f, 0.8f);
+            drawLine(topPanel, weights, peakColour, 0.6f);
+            ++peakIndex;
+        }
+
+        topPanel.unclip();
+        topPanel.drawXAxis(xTicks, tickLabels(xTicks), "Variant Copy Number");
+        topPanel.drawYAxis(yTicks, tickLabels(yTicks), "");
+
+        PlotPanel bottomPanel = new PlotPanel(canvas.graphics(), PANEL_LEFT, 20 + topHeight + 40, panelWidth, bottomHeight);
+        bottomPanel.setXRange(0, CLONALITY_MAX_VARIANT_COPY_NUMBER);
+        bottomPanel.setYRange(-0.02, 1.02);
+
+        double[] likelihoodTicks = { 0, 0.25, 0.5, 0.75, 1 };
+        bottomPanel.drawGrid(xTicks, likelihoodTicks);
+        bottomPanel.clip();
+
+        for(Map.Entry<Double,Double> entry : subclonalTotals.entrySet())
+        {
+            double total = bucketTotals.getOrDefault(entry.getKey(), 0.0);
+            double likelihood = entry.getValue() == 0 || total == 0 ? 0 : entry.getValue() / total;
+
+            bottomPanel.fillRect(entry.getKey() - halfWidth, entry.getKey() + halfWidth, 0, likelihood,
+                    withAlpha(SINGLE_RED, 0.3), SINGLE_RED);
+        }
+
+        bottomPanel.unclip();
+        bottomPanel.drawXAxis(xTicks, tickLabels(xTicks), "");
+        bottomPanel.drawYAxis(likelihoodTicks, percentLabels(likelihoodTicks), "");
+
+        canvas.write(filenameBase);
+    }
+
+    public static void writeRainfall(final String filenameBase, final ChartFormat chartFormat, final List<RainfallVariant> variants)
+            throws IOException
+    {
+        if(variants.isEmpty())
+            return;
+
+        // distance to the nearest neighbour on the same chromosome, or to the chromosome start if there is none
+        int variantCount = variants.size();
+        double[] distances = new double[variantCount];
+        double minDistance = Double.MAX_VALUE;
+        double maxDistance = 1;
+
+        for(int i = 0; i < variantCount; ++i)
+        {
+            RainfallVariant variant = variants.get(i);
+
+            RainfallVariant previous = i > 0 && variants.get(i - 1).Chromosome.equals(variant.Chromosome) ? variants.get(i - 1) : null;
+            RainfallVariant next = i < variantCount - 1 && variants.get(i + 1).Chromosome.equals(variant.Chromosome)
+                    ? variants.get(i + 1) : null;
+
+            double previousDistance = Math.abs(variant.Position - (previous != null ? previous.Position : 0));
+            double nextDistance = Math.abs((next != null ? next.Position : 0) - variant.Position);
+
+            distances[i] = Math.max(1, Math.min(previousDistance, nextDistance));
+            minDistance = Math.min(minDistance, distances[i]);
+            maxDistance = Math.max(maxDistance, distances[i]);
+        }
+
+        ChartCanvas canvas = new ChartCanvas(chartFormat, RAINFALL_WIDTH, RAINFALL_HEIGHT);
+
+        double panelWidth = RAINFALL_WIDTH - PANEL_LEFT - 110;
+        double panelHeight = RAINFALL_HEIGHT - 20 - 40;
+        PlotPanel panel = new PlotPanel(canvas.graphics(), PANEL_LEFT + 10, 20, panelWidth, panelHeight);
+
+        panel.setXRange(0, variantCount + 1);
+        panel.setLogYRange(minDistance, maxDistance);
+
+        double[] xTicks = ticks(0, variantCount, 5);
+
+        List<Double> logTicks = Lists.newArrayList();
+
+        for(double tick = 1; tick <= maxDistance; tick *= 10)
+        {
+            if(tick >= minDistance)
+                logTicks.add(tick);
+        }
+
+        double[] yTicks = logTicks.stream().mapToDouble(Double::doubleValue).toArray();
+        String[] yLabels = new String[yTicks.length];
+
+        for(int i = 0; i < yTicks.length; ++i)
+        {
+            yLabels[i] = format("%.0f", yTicks[i]);
+        }
+
+        panel.drawGrid(xTicks, yTicks);
+        panel.clip();
+
+        // kataegis regions span the ranks of their variants
+        Map<String,int[]> kataegisRanks = Maps.newLinkedHashMap();
+
+        for(int i = 0; i < variantCount; ++i)
+        {
+            String kataegis = variants.get(i).Kataegis;
+
+            if(kataegis == null || kataegis.isEmpty())
+                continue;
+
+            int rank = i + 1;
+            int[] range = kataegisRanks.computeIfAbsent(kataegis, x -> new int[] { rank, rank });
+            range[1] = rank;
+        }
+
+        for(Map.Entry<String,int[]> entry : kataegisRanks.entrySet())
+        {
+            Color colour = entry.getKey().startsWith("FWD") ? KATAEGIS_FORWARD : KATAEGIS_REVERSE;
+            panel.fillRect(entry.getValue()[0], entry.getValue()[1], minDistance, maxDistance, withAlpha(colour, 0.6), null);
+        }
+
+        for(int i = 0; i < variantCount; ++i)
+        {
+            int mutationIndex = MUTATIONS.indexOf(standardMutation(variants.get(i).Mutation));
+            Color colour = mutationIndex >= 0 ? MUTATION_COLOURS.get(mutationIndex) : Color.GRAY;
+            panel.drawPoint(i + 1, distances[i], 0.5, colour);
+        }
+
+        panel.unclip();
+        panel.drawBorder();
+
+        panel.drawXAxis(xTicks, tickLabels(xTicks), "Mutation number");
+        panel.drawYAxis(yTicks, yLabels, "Intermutation distance (bp)");
+
+        double legendLeft = PANEL_LEFT + 10 + panelWidth + 10;
+        panel.drawLegend("Mutation", MUTATIONS, MUTATION_COLOURS, legendLeft, 40);
+
+        if(!kataegisRanks.isEmpty())
+        {
+            panel.drawLegend("Kataegis Regions", Lists.newArrayList("Forward", "Reverse"),
+                    Lists.newArrayList(withAlpha(KATAEGIS_FORWARD, 0.6), withAlpha(KATAEGIS_REVERSE, 0.6)), legendLeft, 150);
+        }
+
+        canvas.write(filenameBase);
+    }
+
+    // reports substitutions relative to the pyrimidine base
+    public static String standardMutation(final String mutation)
+    {
+        switch(mutation)
+        {
+            case "G>T": return "C>A";
+            case "G>C": return "C>G";
+            case "G>A": return "C>T";
+            case "A>T": return "T>A";
+            case "A>G": return "T>C";
+            case "A>C": return "T>G";
+            default: return mutation;
+        }
+    }
+
+    private static void drawLine(final PlotPanel panel, final TreeMap<Double,Double> values, final Color colour, float width)
+    {
+        double[] xValues = values.keySet().stream().mapToDouble(Double::doubleValue).toArray();
+        double[] yValues = values.values().stream().mapToDouble(Double::doubleValue).toArray();
+        panel.drawLine(xValues, yValues, colour, width);
+    }
+
+    private static void fillArea(final PlotPanel panel, final TreeMap<Double,Double> values, final Color fill, final Color outline)
+    {
+        if(values.isEmpty())
+            return;
+
+        Path2D area = new Path2D.Double();
+        area.moveTo(panel.x(values.firstKey()), panel.y(0));
+
+        for(Map.Entry<Double,Double> entry : values.entrySet())
+        {
+            area.lineTo(panel.x(entry.getKey()), panel.y(entry.getValue()));
+        }
+
+        area.lineTo(panel.x(values.lastKey()), panel.y(0));
+        area.closePath();
+
+        panel.graphics().setColor(fill);
+        panel.graphics().fill(area);
+        drawLine(panel, values, outline, 0.5f);
+    }
+
+    private static double proportionBucket(final TreeMap<Double,Double> bucketCounts, double proportion)
+    {
+        double total = bucketCounts.values().stream().mapToDouble(Double::doubleValue).sum();
+        double cumulative = 0;
+
+        for(Map.Entry<Double,Double> entry : bucketCounts.entrySet())
+        {
+            cumulative += entry.getValue();
+
+            if(cumulative / total > proportion)
+                return entry.getKey();
+        }
+
+        return bucketCounts.isEmpty() ? 0 : bucketCounts.lastKey();
+    }
+}
@@ -0,0 +1,15 @@
+package com.hartwig.hmftools.purple.plot;
+
+public class SomaticHistogramEntry
+{
+    public final double VariantCopyNumber;
+    public final double CopyNumber;
+    public final int Count;
+
+    public SomaticHistogramEntry(final double variantCopyNumber, final double copyNumber, final int count)
+    {
+        VariantCopyNumber = variantCopyNumber;
+        CopyNumber = copyNumber;
+        Count = count;
+    }
+}
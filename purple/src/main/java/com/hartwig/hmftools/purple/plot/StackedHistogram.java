@@ -0,0 +1,83 @@
+package com.hartwig.hmftools.purple.plot;
+
+import java.awt.Color;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// weights binned by value and split by class, drawn as stacked bars
+public class StackedHistogram
+{
+    private final double mBinWidth;
+    private final int mClassCount;
+    private final TreeMap<Integer,double[]> mBins;
+
+    public StackedHistogram(double binWidth, int classCount)
+    {
+        mBinWidth = binWidth;
+        mClassCount = classCount;
+        mBins = new TreeMap<>();
+    }
+
+    // bins are centred on multiples of the bin width
+    public void add(double value, int classIndex, double weight)
+    {
+        int bin = (int)Math.round(value / mBinWidth);
+        mBins.computeIfAbsent(bin, x -> new double[mClassCount])[classIndex] += weight;
+    }
+
+    public boolean isEmpty() { return mBins.isEmpty(); }
+
+    public double maxTotal(double minValue, double maxValue)
+    {
+        double maxTotal = 0;
+
+        for(Map.Entry<Integer,double[]> entry : mBins.entrySet())
+        {
+            double binCentre = entry.getKey() * mBinWidth;
+
+            if(binCentre < minValue || binCentre > maxValue)
+                continue;
+
+            double total = 0;
+
+            for(double weight : entry.getValue())
+            {
+                total += weight;
+            }
+
+            maxTotal = Math.max(maxTotal, total);
+        }
+
+        return maxTotal;
+    }
+
+    // bars outside the panel's x-range are dropped rather than clipped
+    public void draw(final PlotPanel panel, final List<Color> classColours)
+    {
+        double halfWidth = mBinWidth / 2;
+
+        for(Map.Entry<Integer,double[]> entry : mBins.entrySet())
+        {
+            double binCentre = entry.getKey() * mBinWidth;
+
+            if(binCentre - halfWidth < panel.xMin() || binCentre + halfWidth > panel.xMax())
+                continue;
+
+            double base = 0;
+            double[] weights = entry.getValue();
+
+            for(int classIndex = 0; classIndex < weights.length; ++classIndex)
+            {
+                if(weights[classIndex] <= 0)
+                    continue;
+
+                panel.fillRect(
+                        binCentre - halfWidth, binCentre + halfWidth, base, base + weights[classIndex],
+                        classColours.get(classIndex), Color.BLACK);
+
+                base += weights[classIndex];
+            }
+        }
+    }
+}
@@ -244,7 +244,7 @@ public class FittedPurityFactory
         return 1d * value * bafCount / mTotalBAFCount;
     }
 
-    protected static List<Double> ploidyRange(double minPloidy, double maxPloidy)
+    public static List<Double> ploidyRange(double minPloidy, double maxPloidy)
     {
         List<Double> results = Lists.newArrayList();
         results.addAll(sequence(Math.max(0, minPloidy), Math.min(3, maxPloidy), 0.02));
@@ -100,7 +100,7 @@ public class ObservedRegionFactory
 
     public List<ObservedRegion> formObservedRegions(
             final List<PurpleSegment> regions, final Multimap<Chromosome, AmberBAF> bafs,
-            final Map<Chromosome,List<CobaltRatio>> ratios, final Multimap<Chromosome,GCProfile> gcProfiles)
+            final Map<Chromosome,List<CobaltRatio>> ratios, final Map<Chromosome,List<GCProfile>> gcProfiles)
     {
         List<ObservedRegion> observedRegions = Lists.newArrayList();
 
@@ -9,7 +9,6 @@ import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.gc.GCProfile;
 import com.hartwig.hmftools.common.genome.gc.GCProfileFactory;
@@ -26,7 +25,7 @@ import com.hartwig.hmftools.purple.segment.PCFPositionsSupplier;
 
 public class Segmentation
 {
-    private final Multimap<Chromosome, GCProfile> mGcProfiles;
+    private final Map<Chromosome,List<GCProfile>> mGcProfiles;
     private final ReferenceData mReferenceData;
     private final int mWindowSize;
 
@@ -36,7 +35,7 @@ public class Segmentation
         mWindowSize = WINDOW_SIZE;
 
         PPL_LOGGER.info("reading GC Profiles from {}", referenceData.GcProfileFilename);
-        mGcProfiles = GCProfileFactory.loadGCContent(referenceData.GcProfileFilename);
+        mGcProfiles = GCProfileFactory.loadChromosomeGcProfiles(mWindowSize, referenceData.GcProfileFilename);
     }
 
     public List<ObservedRegion> createObservedRegions(
@@ -158,6 +158,8 @@ public class SomaticStream
 
     public List<VariantContextDecorator> downsampledVariants() { return mDownsampledVariants; }
 
+    public RChartData chartData() { return mRChartData; }
+
     public void processAndWrite(final PurityAdjuster purityAdjuster)
     {
         if(!mEnabled || mPeakModel == null)
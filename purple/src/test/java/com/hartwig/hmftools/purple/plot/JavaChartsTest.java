@@ -0,0 +1,195 @@
+package com.hartwig.hmftools.purple.plot;
+
+import static com.hartwig.hmftools.common.purple.PurpleTestUtils.createCopyNumber;
+import static com.hartwig.hmftools.common.purple.PurpleTestUtils.createRandomPurityBuilder;
+import static com.hartwig.hmftools.common.purple.PurpleTestUtils.createStructuralVariant;
+import static com.hartwig.hmftools.purple.TestUtils.createDefaultFittedRegion;
+import static com.hartwig.hmftools.purple.TestUtils.createVariant;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeCoordinates;
+import com.hartwig.hmftools.common.purple.BestFit;
+import com.hartwig.hmftools.common.purple.FittedPurity;
+import com.hartwig.hmftools.common.purple.FittedPurityMethod;
+import com.hartwig.hmftools.common.purple.Gender;
+import com.hartwig.hmftools.common.purple.ImmutableBestFit;
+import com.hartwig.hmftools.common.purple.ImmutableFittedPurityScore;
+import com.hartwig.hmftools.common.purple.PurpleCopyNumber;
+import com.hartwig.hmftools.common.sv.StructuralVariant;
+import com.hartwig.hmftools.common.sv.StructuralVariantType;
+import com.hartwig.hmftools.common.variant.CodingEffect;
+import com.hartwig.hmftools.common.variant.Hotspot;
+import com.hartwig.hmftools.common.variant.VariantContextDecorator;
+import com.hartwig.hmftools.common.variant.VariantType;
+import com.hartwig.hmftools.purple.fitting.PeakModelData;
+import com.hartwig.hmftools.purple.region.ObservedRegion;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JavaChartsTest
+{
+    private File mPlotDir;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        System.setProperty("java.awt.headless", "true");
+        mPlotDir = Files.createTempDirectory("purple_plot").toFile();
+    }
+
+    @After
+    public void tearDown()
+    {
+        File[] files = mPlotDir.listFiles();
+
+        if(files != null)
+        {
+            for(File file : files)
+            {
+                file.delete();
+            }
+        }
+
+        mPlotDir.delete();
+    }
+
+    @Test
+    public void testCopyNumberCharts() throws IOException
+    {
+        List<PurpleCopyNumber> copyNumbers = copyNumbers();
+
+        CopyNumberCharts.writeCopyNumber(plotBase("copynumber"), ChartFormat.PNG, copyNumbers);
+        assertChartWritten("copynumber", ChartFormat.PNG);
+
+        CopyNumberCharts.writeMinorAlleleCopyNumber(plotBase("map"), ChartFormat.SVG, copyNumbers);
+        assertChartWritten("map", ChartFormat.SVG);
+    }
+
+    @Test
+    public void testPurityRangeChart() throws IOException
+    {
+        Random random = new Random(1);
+        List<FittedPurity> allFits = Lists.newArrayList();
+
+        for(int i = 0; i < 20; ++i)
+        {
+            allFits.add(createRandomPurityBuilder(random).purity(0.1 + i * 0.04).ploidy(1.5 + (i % 5) * 0.5).build());
+        }
+
+        BestFit bestFit = ImmutableBestFit.builder()
+                .fit(allFits.get(10))
+                .score(ImmutableFittedPurityScore.builder()
+                        .minPurity(0.4).maxPurity(0.6).minPloidy(2).maxPloidy(3).minDiploidProportion(0.5).maxDiploidProportion(0.7)
+                        .build())
+                .method(FittedPurityMethod.NORMAL)
+                .allFits(allFits)
+                .build();
+
+        CopyNumberCharts.writePurityRange(plotBase("purity.range"), ChartFormat.PNG, bestFit);
+        assertChartWritten("purity.range", ChartFormat.PNG);
+    }
+
+    @Test
+    public void testSegmentChart() throws IOException
+    {
+        List<ObservedRegion> regions = Lists.newArrayList();
+
+        for(int i = 0; i < 10; ++i)
+        {
+            regions.add(createDefaultFittedRegion("1", i * 1000 + 1, (i + 1) * 1000));
+        }
+
+        CopyNumberCharts.writeSegmentScores(plotBase("segment"), ChartFormat.PNG, regions);
+        assertChartWritten("segment", ChartFormat.PNG);
+    }
+
+    @Test
+    public void testGenomeCharts() throws IOException
+    {
+        List<PurpleCopyNumber> copyNumbers = copyNumbers();
+
+        List<AmberBAF> bafs = Lists.newArrayList(
+                new AmberBAF("1", 1000, 0.5, 50, 0.5, 40),
+                new AmberBAF("2", 5000, 0.3, 60, 0.5, 40));
+
+        GenomeCharts.writeCopyNumberBaf(plotBase("genome"), ChartFormat.PNG, RefGenomeCoordinates.COORDS_37, Gender.FEMALE, copyNumbers, bafs);
+        assertChartWritten("genome", ChartFormat.PNG);
+
+        List<VariantContextDecorator> somaticVariants = Lists.newArrayList(
+                createVariant(VariantType.SNP, CodingEffect.MISSENSE, 0, Hotspot.NON_HOTSPOT, 0.4).decorator(),
+                createVariant(VariantType.INDEL, CodingEffect.NONE, 0, Hotspot.NON_HOTSPOT, 0.2).decorator());
+
+        List<StructuralVariant> structuralVariants = Lists.newArrayList(
+                createStructuralVariant("1", 1000, "2", 5000, StructuralVariantType.BND).build(),
+                createStructuralVariant("3", 1000, "3", 90000, StructuralVariantType.DEL).build());
+
+        GenomeCharts.writeCircos(
+                plotBase("circos"), ChartFormat.PNG, RefGenomeCoordinates.COORDS_37, Gender.MALE, copyNumbers,
+                somaticVariants, structuralVariants);
+
+        assertChartWritten("circos", ChartFormat.PNG);
+    }
+
+    @Test
+    public void testSomaticCharts() throws IOException
+    {
+        List<SomaticHistogramEntry> histogram = Lists.newArrayList(
+                new SomaticHistogramEntry(0.5, 2, 30),
+                new SomaticHistogramEntry(1.0, 2, 100),
+                new SomaticHistogramEntry(1.0, 3, 40),
+                new SomaticHistogramEntry(2.0, 4, 20));
+
+        SomaticCharts.writeVariantCopyNumber(plotBase("somatic"), ChartFormat.PNG, histogram);
+        assertChartWritten("somatic", ChartFormat.PNG);
+
+        List<PeakModelData> peakModel = Lists.newArrayList(
+                new PeakModelData(1.0, 100, 0.95, 40, true, false),
+                new PeakModelData(1.0, 100, 1.0, 60, true, false),
+                new PeakModelData(0.5, 30, 0.5, 30, true, true),
+                new PeakModelData(0, 5, 0.2, 5, true, true));
+
+        SomaticCharts.writeClonality(plotBase("somatic.clonality"), ChartFormat.PNG, histogram, peakModel);
+        assertChartWritten("somatic.clonality", ChartFormat.PNG);
+
+        List<RainfallVariant> variants = Lists.newArrayList(
+                new RainfallVariant("1", 1000, "C>T", ""),
+                new RainfallVariant("1", 1200, "C>A", "KAT_1"),
+                new RainfallVariant("1", 50000, "T>G", ""),
+                new RainfallVariant("2", 3000, "G>A", ""));
+
+        SomaticCharts.writeRainfall(plotBase("somatic.rainfall"), ChartFormat.PNG, variants);
+        assertChartWritten("somatic.rainfall", ChartFormat.PNG);
+    }
+
+    private static List<PurpleCopyNumber> copyNumbers()
+    {
+        return Lists.newArrayList(
+                createCopyNumber("1", 1, 100000, 2).bafCount(50).build(),
+                createCopyNumber("1", 100001, 200000, 3).bafCount(30).averageActualBAF(0.66).build(),
+                createCopyNumber("2", 1, 150000, 1).bafCount(20).averageActualBAF(1).build(),
+                createCopyNumber("X", 1, 150000, 2).bafCount(10).build());
+    }
+
+    private String plotBase(final String chartName)
+    {
+        return mPlotDir.getPath() + File.separator + "SAMPLE." + chartName;
+    }
+
+    private void assertChartWritten(final String chartName, final ChartFormat format)
+    {
+        File chartFile = new File(plotBase(chartName) + format.extension());
+        assertTrue(chartFile.exists());
+        assertTrue(chartFile.length() > 0);
+    }
+}
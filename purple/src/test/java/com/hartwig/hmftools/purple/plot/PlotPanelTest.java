@@ -0,0 +1,60 @@
+package com.hartwig.hmftools.purple.plot;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class PlotPanelTest
+{
+    @Test
+    public void testTicks()
+    {
+        assertArrayEquals(new double[] { 0, 2, 4, 6, 8, 10 }, PlotPanel.ticks(0, 10, 5), 1e-9);
+        assertArrayEquals(new double[] { 0, 0.5, 1 }, PlotPanel.ticks(0, 1, 4), 1e-9);
+        assertArrayEquals(new double[] { -1, -0.5, 0, 0.5, 1 }, PlotPanel.ticks(-1.2, 1.3, 5), 1e-9);
+        assertArrayEquals(new double[] { 200, 400, 600, 800 }, PlotPanel.ticks(150, 850, 4), 1e-9);
+
+        // an empty range gives a single tick
+        assertArrayEquals(new double[] { 3 }, PlotPanel.ticks(3, 3, 5), 1e-9);
+    }
+
+    @Test
+    public void testTickLabels()
+    {
+        assertArrayEquals(new String[] { "0", "2", "4" }, PlotPanel.tickLabels(new double[] { 0, 2, 4 }));
+        assertArrayEquals(new String[] { "0.25", "0.5", "0.75" }, PlotPanel.tickLabels(new double[] { 0.25, 0.5, 0.75 }));
+        assertArrayEquals(new String[] { "0%", "50%", "100%" }, PlotPanel.percentLabels(new double[] { 0, 0.5, 1 }));
+    }
+
+    @Test
+    public void testScales()
+    {
+        PlotPanel panel = new PlotPanel(null, 10, 20, 100, 50);
+
+        panel.setXRange(0, 10);
+        panel.setYRange(0, 100);
+
+        assertEquals(10, panel.x(0), 1e-9);
+        assertEquals(60, panel.x(5), 1e-9);
+        assertEquals(110, panel.x(10), 1e-9);
+
+        // y increases downwards from the top of the panel
+        assertEquals(70, panel.y(0), 1e-9);
+        assertEquals(45, panel.y(50), 1e-9);
+        assertEquals(20, panel.y(100), 1e-9);
+
+        // an empty range is widened rather than dividing by zero
+        panel.setXRange(5, 5);
+        assertEquals(6, panel.xMax(), 1e-9);
+        assertEquals(10, panel.x(5), 1e-9);
+
+        panel.setLogYRange(1, 1000);
+        assertEquals(70, panel.y(1), 1e-9);
+        assertEquals(70 - 50 / 3.0, panel.y(10), 1e-9);
+        assertEquals(20, panel.y(1000), 1e-9);
+
+        // values below 1 are drawn at the base of a log scale
+        assertEquals(70, panel.y(0.5), 1e-9);
+    }
+}
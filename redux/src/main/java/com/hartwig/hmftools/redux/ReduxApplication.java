@@ -30,6 +30,7 @@ import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 import com.hartwig.hmftools.common.utils.PerformanceCounter;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+import com.hartwig.hmftools.common.utils.metrics.MetricsRegistry;
 import com.hartwig.hmftools.redux.common.FragmentStatus;
 import com.hartwig.hmftools.redux.common.PartitionData;
 import com.hartwig.hmftools.redux.common.Statistics;
@@ -362,8 +363,11 @@ public class ReduxApplication
         registerConfig(configBuilder);
 
         configBuilder.checkAndParseCommandLine(args);
+        MetricsRegistry.startFromConfig(configBuilder);
 
         ReduxApplication reduxApplication = new ReduxApplication(configBuilder);
         reduxApplication.run();
+
+        MetricsRegistry.stop();
     }
 }
@@ -53,6 +53,7 @@ import com.hartwig.hmftools.common.region.ExcludedRegions;
 import com.hartwig.hmftools.common.region.SpecificRegions;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.common.utils.config.ConfigUtils;
+import com.hartwig.hmftools.common.utils.metrics.MetricsRegistry;
 import com.hartwig.hmftools.redux.common.FilterReadsType;
 import com.hartwig.hmftools.redux.common.HighDepthRegion;
 import com.hartwig.hmftools.redux.common.ReadUnmapper;
@@ -311,6 +312,7 @@ public class ReduxConfig
         addThreadOptions(configBuilder);
         addOutputOptions(configBuilder);
         ConfigUtils.addLoggingOptions(configBuilder);
+        MetricsRegistry.addConfig(configBuilder);
 
         addSpecificChromosomesRegionsConfig(configBuilder);
         configBuilder.addConfigItem(LOG_READ_IDS, LOG_READ_IDS_DESC);
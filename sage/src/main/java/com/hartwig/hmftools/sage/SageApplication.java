@@ -13,6 +13,7 @@ import java.util.Map;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+import com.hartwig.hmftools.common.utils.metrics.MetricsRegistry;
 import com.hartwig.hmftools.common.utils.version.VersionInfo;
 import com.hartwig.hmftools.sage.coverage.Coverage;
 import com.hartwig.hmftools.sage.evidence.FragmentLengths;
@@ -141,9 +142,12 @@ public class SageApplication implements AutoCloseable
         SageCallConfig.registerConfig(configBuilder);
 
         configBuilder.checkAndParseCommandLine(args);
+        MetricsRegistry.startFromConfig(configBuilder);
 
         SageApplication application = new SageApplication(configBuilder);
         application.run();
         application.close();
+
+        MetricsRegistry.stop();
     }
 }
\ No newline at end of file
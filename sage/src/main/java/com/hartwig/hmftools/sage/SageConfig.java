@@ -45,6 +45,7 @@ import com.hartwig.hmftools.common.region.SpecificRegions;
 import com.hartwig.hmftools.common.bam.BamUtils;
 import com.hartwig.hmftools.common.sequencing.SequencingType;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+import com.hartwig.hmftools.common.utils.metrics.MetricsRegistry;
 import com.hartwig.hmftools.sage.bqr.BqrConfig;
 import com.hartwig.hmftools.sage.common.SimpleVariant;
 import com.hartwig.hmftools.sage.filter.FilterConfig;
@@ -351,6 +352,7 @@ public class SageConfig
 
         addLoggingOptions(configBuilder);
         addThreadOptions(configBuilder);
+        MetricsRegistry.addConfig(configBuilder);
     }
 
     @VisibleForTesting
@@ -0,0 +1,108 @@
+package com.hartwig.hmftools.sage.append;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.hartwig.hmftools.sage.vcf.VariantVCF;
+
+import htsjdk.variant.variantcontext.VariantContext;
+
+// runs region tasks on a thread pool and writes their variants in submission order as soon as each task and all
+// those before it have completed, limiting how many tasks and their results are held at once
+public class OrderedAppendWriter implements AutoCloseable
+{
+    private final Consumer<VariantContext> mWriter;
+    private final ExecutorService mExecutorService;
+    private final Queue<PendingTask> mPendingTasks;
+    private final int mMaxPendingTasks;
+
+    private int mWrittenCount;
+
+    public static final int PENDING_TASKS_PER_THREAD = 4;
+
+    private class PendingTask
+    {
+        public final Supplier<List<VariantContext>> TaskVariants;
+        public final Future<?> Result;
+
+        public PendingTask(final Supplier<List<VariantContext>> taskVariants, final Future<?> result)
+        {
+            TaskVariants = taskVariants;
+            Result = result;
+        }
+    }
+
+    public OrderedAppendWriter(final VariantVCF outputVcf, int threads)
+    {
+        this(outputVcf::write, threads);
+    }
+
+    @VisibleForTesting
+    public OrderedAppendWriter(final Consumer<VariantContext> writer, int threads)
+    {
+        mWriter = writer;
+        mExecutorService = Executors.newFixedThreadPool(Math.max(threads, 1));
+        mPendingTasks = new ArrayDeque<>();
+        mMaxPendingTasks = Math.max(threads, 1) * PENDING_TASKS_PER_THREAD;
+        mWrittenCount = 0;
+    }
+
+    public int pendingTaskCount() { return mPendingTasks.size(); }
+    public int maxPendingTasks() { return mMaxPendingTasks; }
+
+    public void submit(final RegionAppendTask task) throws ExecutionException, InterruptedException
+    {
+        submit(task, task::finalVariants);
+    }
+
+    // a task's variants are taken once it has completed, and any task failure is thrown here or from finish
+    @VisibleForTesting
+    public void submit(final Callable<?> task, final Supplier<List<VariantContext>> taskVariants)
+            throws ExecutionException, InterruptedException
+    {
+        mPendingTasks.add(new PendingTask(taskVariants, mExecutorService.submit(task)));
+
+        while(!mPendingTasks.isEmpty() && (mPendingTasks.peek().Result.isDone() || mPendingTasks.size() > mMaxPendingTasks))
+        {
+            writeNext();
+        }
+    }
+
+    // writes all remaining tasks' variants and returns the total written
+    public int finish() throws ExecutionException, InterruptedException
+    {
+        while(!mPendingTasks.isEmpty())
+        {
+            writeNext();
+        }
+
+        mExecutorService.shutdown();
+        return mWrittenCount;
+    }
+
+    @Override
+    public void close()
+    {
+        // stops any running tasks if writing did not finish, for example after a task or input failure
+        mExecutorService.shutdownNow();
+    }
+
+    private void writeNext() throws ExecutionException, InterruptedException
+    {
+        PendingTask pendingTask = mPendingTasks.poll();
+        pendingTask.Result.get();
+
+        List<VariantContext> variants = pendingTask.TaskVariants.get();
+        variants.forEach(mWriter);
+        mWrittenCount += variants.size();
+    }
+}
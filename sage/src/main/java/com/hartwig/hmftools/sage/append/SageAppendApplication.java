@@ -24,12 +24,14 @@ import com.google.common.collect.Sets;
 import com.hartwig.hmftools.common.utils.Doubles;
 import com.hartwig.hmftools.common.utils.TaskExecutor;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+import com.hartwig.hmftools.common.utils.metrics.MetricsRegistry;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 import com.hartwig.hmftools.common.utils.version.VersionInfo;
 import com.hartwig.hmftools.common.variant.VcfFileReader;
 import com.hartwig.hmftools.common.variant.impact.VariantImpact;
 import com.hartwig.hmftools.common.variant.impact.VariantImpactSerialiser;
 import com.hartwig.hmftools.sage.SageCommon;
+import com.hartwig.hmftools.sage.append.VariantRegionGrouper.RegionVariants;
 import com.hartwig.hmftools.sage.evidence.FragmentLengths;
 import com.hartwig.hmftools.sage.pipeline.ChromosomePartition;
 import com.hartwig.hmftools.sage.bqr.BaseQualityRecalibration;
@@ -44,6 +46,7 @@ import htsjdk.samtools.SamReader;
 import htsjdk.samtools.SamReaderFactory;
 import htsjdk.samtools.cram.ref.ReferenceSource;
 import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.tribble.CloseableTribbleIterator;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFHeader;
 import htsjdk.variant.vcf.VCFHeaderLine;
@@ -56,6 +59,9 @@ public class SageAppendApplication
 
     private static final double MIN_PRIOR_VERSION = 2.8;
 
+    // variants per task when streaming, with tasks also limited to the region slice size
+    private static final int STREAMED_TASK_MAX_VARIANTS = 250;
+
     public SageAppendApplication(final ConfigBuilder configBuilder)
     {
         final VersionInfo version = fromAppName(APP_NAME);
@@ -103,7 +109,7 @@ public class SageAppendApplication
 
         long startTimeMs = System.currentTimeMillis();
 
-        VcfFileReader vcfFileReader = new VcfFileReader(mConfig.InputVcf);
+        VcfFileReader vcfFileReader = new VcfFileReader(mConfig.InputVcf, mConfig.StreamVariants);
 
         if(!vcfFileReader.fileValid())
         {
@@ -118,29 +124,23 @@ public class SageAppendApplication
             System.exit(1);
         }
 
+        if(mConfig.StreamVariants)
+        {
+            runStreamed(vcfFileReader, inputHeader);
+            vcfFileReader.close();
+
+            SG_LOGGER.info("SageAppend complete, mins({})", runTimeMinsStr(startTimeMs));
+            return;
+        }
+
         final List<VariantContext> existingVariants = Lists.newArrayList();
 
         for(VariantContext variantContext : vcfFileReader.iterator())
         {
             VariantContext variant = variantContext.fullyDecode(inputHeader, false);
 
-            if(mConfig.FilterToGenes)
-            {
-                VariantImpact variantImpact = VariantImpactSerialiser.fromVariantContext(variant);
-
-                if(variantImpact == null || variantImpact.GeneName.isEmpty())
-                    continue;
-            }
-
-            if(!mConfig.Common.SpecificPositions.isEmpty())
-            {
-                if(mConfig.Common.SpecificPositions.stream().noneMatch(x -> x.matches(variant.getContig(), variant.getStart())))
-                {
-                    continue;
-                }
-            }
-
-            existingVariants.add(variant);
+            if(keepVariant(variant))
+                existingVariants.add(variant);
         }
 
         vcfFileReader.close();
@@ -225,6 +225,119 @@ public class SageAppendApplication
         SG_LOGGER.info("SageAppend complete, mins({})", runTimeMinsStr(startTimeMs));
     }
 
+    private boolean keepVariant(final VariantContext variant)
+    {
+        if(mConfig.FilterToGenes)
+        {
+            VariantImpact variantImpact = VariantImpactSerialiser.fromVariantContext(variant);
+
+            if(variantImpact == null || variantImpact.GeneName.isEmpty())
+                return false;
+        }
+
+        if(!mConfig.Common.SpecificPositions.isEmpty())
+        {
+            if(mConfig.Common.SpecificPositions.stream().noneMatch(x -> x.matches(variant.getContig(), variant.getStart())))
+                return false;
+        }
+
+        return true;
+    }
+
+    private void runStreamed(final VcfFileReader vcfFileReader, final VCFHeader inputHeader)
+            throws IOException, ExecutionException, InterruptedException
+    {
+        // variants are read from the indexed VCF a chromosome at a time and grouped into tasks around clusters of variants,
+        // rather than loading all variants and assigning them to every chromosome partition
+        SG_LOGGER.info("writing to file: {}", mConfig.Common.OutputFile);
+        VariantVCF outputVCF = new VariantVCF(mRefGenome, mConfig.Common, inputHeader);
+
+        SageCommon.setReadLength(mConfig.Common, Collections.emptyMap(), mConfig.Common.ReferenceBams.get(0));
+
+        BaseQualityRecalibration baseQualityRecalibration = new BaseQualityRecalibration(
+                mConfig.Common, mRefGenome, "", Collections.emptyList(), Collections.emptyList());
+
+        if(mConfig.Common.BQR.ExcludeKnown)
+        {
+            // only known SNV positions are retained from this pass
+            for(VariantContext variantContext : vcfFileReader.iterator())
+            {
+                VariantContext variant = mConfig.FilterToGenes ? variantContext.fullyDecode(inputHeader, false) : variantContext;
+
+                if(keepVariant(variant))
+                    baseQualityRecalibration.addKnownVariant(variant);
+            }
+        }
+
+        baseQualityRecalibration.produceRecalibrationMap();
+
+        if(!baseQualityRecalibration.isValid())
+            System.exit(1);
+
+        final Map<String, BqrRecordMap> recalibrationMap = baseQualityRecalibration.getSampleRecalibrationMap();
+
+        int taskId = 0;
+        int writtenCount;
+
+        try(OrderedAppendWriter appendWriter = new OrderedAppendWriter(outputVCF, mConfig.Common.Threads))
+        {
+            for(final SAMSequenceRecord samSequenceRecord : dictionary().getSequences())
+            {
+                final String chromosome = samSequenceRecord.getSequenceName();
+
+                if(!mConfig.Common.processChromosome(chromosome))
+                    continue;
+
+                CloseableTribbleIterator<VariantContext> variantIter = vcfFileReader.regionIterator(
+                        chromosome, 1, samSequenceRecord.getSequenceLength());
+
+                if(variantIter == null)
+                    throw new IOException("failed to read input VCF for chromosome: " + chromosome);
+
+                SG_LOGGER.debug("processing chromosome({})", chromosome);
+
+                VariantRegionGrouper regionGrouper = new VariantRegionGrouper(
+                        chromosome, STREAMED_TASK_MAX_VARIANTS, mConfig.Common.RegionSliceSize);
+
+                for(VariantContext variantContext : variantIter)
+                {
+                    VariantContext variant = variantContext.fullyDecode(inputHeader, false);
+
+                    if(!keepVariant(variant))
+                        continue;
+
+                    RegionVariants regionVariants = regionGrouper.add(variant);
+
+                    if(regionVariants != null)
+                        appendWriter.submit(createStreamedTask(taskId++, regionVariants, recalibrationMap));
+                }
+
+                variantIter.close();
+
+                RegionVariants regionVariants = regionGrouper.flush();
+
+                if(regionVariants != null)
+                    appendWriter.submit(createStreamedTask(taskId++, regionVariants, recalibrationMap));
+            }
+
+            writtenCount = appendWriter.finish();
+        }
+
+        SG_LOGGER.info("appended {} variants from {} regions", writtenCount, taskId);
+
+        outputVCF.close();
+        mFragmentLengths.close();
+
+        mRefGenome.close();
+    }
+
+    private RegionAppendTask createStreamedTask(
+            int taskId, final RegionVariants regionVariants, final Map<String, BqrRecordMap> recalibrationMap)
+    {
+        return new RegionAppendTask(
+                taskId, regionVariants.Region, regionVariants.Variants, mConfig, mRefGenome, recalibrationMap, mFragmentLengths);
+    }
+
     private boolean validateInputHeader(VCFHeader header)
     {
         double oldVersion = sageVersion(header);
@@ -300,6 +413,7 @@ public class SageAppendApplication
         SageAppendConfig.registerConfig(configBuilder);
 
         configBuilder.checkAndParseCommandLine(args);
+        MetricsRegistry.startFromConfig(configBuilder);
 
         SageAppendApplication application = new SageAppendApplication(configBuilder);
 
@@ -313,5 +427,7 @@ public class SageAppendApplication
             e.printStackTrace();
             System.exit(1);
         }
+
+        MetricsRegistry.stop();
     }
 }
@@ -8,9 +8,11 @@ public class SageAppendConfig
     public final SageConfig Common;
     public final String InputVcf;
     public final boolean FilterToGenes;
+    public final boolean StreamVariants;
 
     private static final String INPUT_VCF = "input_vcf";
     private static final String FILTER_TO_GENES = "require_gene";
+    private static final String STREAM_VARIANTS = "stream_variants";
 
     public SageAppendConfig(final String version, final ConfigBuilder configBuilder)
     {
@@ -18,6 +20,7 @@ public class SageAppendConfig
 
         InputVcf = configBuilder.getValue(INPUT_VCF);
         FilterToGenes = configBuilder.hasFlag(FILTER_TO_GENES);
+        StreamVariants = configBuilder.hasFlag(STREAM_VARIANTS);
     }
 
     public static void registerConfig(final ConfigBuilder configBuilder)
@@ -25,5 +28,6 @@ public class SageAppendConfig
         SageConfig.registerCommonConfig(configBuilder);
         configBuilder.addPath(INPUT_VCF, true, "Path to input vcf");
         configBuilder.addFlag(FILTER_TO_GENES, "Only process variants with gene annotations");
+        configBuilder.addFlag(STREAM_VARIANTS, "Read the indexed input VCF by chromosome and write variants as regions complete");
     }
 }
@@ -0,0 +1,98 @@
+package com.hartwig.hmftools.sage.append;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.variant.variantcontext.VariantContext;
+
+// groups a chromosome's variants, added in position order, into task regions around clusters of variants, each with at most the
+// max variants and with every variant starting within the max region size of the first
+public class VariantRegionGrouper
+{
+    private final String mChromosome;
+    private final int mMaxVariants;
+    private final int mMaxRegionSize;
+
+    private List<VariantContext> mVariants;
+
+    public static class RegionVariants
+    {
+        public final ChrBaseRegion Region;
+        public final List<VariantContext> Variants;
+
+        public RegionVariants(final ChrBaseRegion region, final List<VariantContext> variants)
+        {
+            Region = region;
+            Variants = variants;
+        }
+
+        public String toString() { return String.format("region(%s) variants(%d)", Region, Variants.size()); }
+    }
+
+    public VariantRegionGrouper(final String chromosome, int maxVariants, int maxRegionSize)
+    {
+        mChromosome = chromosome;
+        mMaxVariants = maxVariants;
+        mMaxRegionSize = maxRegionSize;
+        mVariants = Lists.newArrayList();
+    }
+
+    // returns the previous group if this variant starts a new one
+    @Nullable
+    public RegionVariants add(final VariantContext variant)
+    {
+        RegionVariants completedGroup = null;
+
+        if(!mVariants.isEmpty())
+        {
+            int regionStart = mVariants.get(0).getStart();
+
+            if(mVariants.size() >= mMaxVariants || variant.getStart() - regionStart >= mMaxRegionSize)
+                completedGroup = flush();
+        }
+
+        mVariants.add(variant);
+        return completedGroup;
+    }
+
+    @Nullable
+    public RegionVariants flush()
+    {
+        if(mVariants.isEmpty())
+            return null;
+
+        // the region runs from the first variant to the furthest end of any variant, since a deletion may extend past later variants
+        int regionStart = mVariants.get(0).getStart();
+        int regionEnd = mVariants.stream().mapToInt(VariantContext::getEnd).max().orElse(regionStart);
+
+        RegionVariants group = new RegionVariants(new ChrBaseRegion(mChromosome, regionStart, regionEnd), mVariants);
+        mVariants = Lists.newArrayList();
+        return group;
+    }
+
+    public static List<RegionVariants> groupVariants(
+            final String chromosome, final List<VariantContext> variants, int maxVariants, int maxRegionSize)
+    {
+        VariantRegionGrouper grouper = new VariantRegionGrouper(chromosome, maxVariants, maxRegionSize);
+        List<RegionVariants> groups = Lists.newArrayList();
+
+        for(VariantContext variant : variants)
+        {
+            RegionVariants group = grouper.add(variant);
+
+            if(group != null)
+                groups.add(group);
+        }
+
+        RegionVariants lastGroup = grouper.flush();
+
+        if(lastGroup != null)
+            groups.add(lastGroup);
+
+        return groups;
+    }
+}
@@ -79,23 +79,25 @@ public class BaseQualityRecalibration
 
     public void setKnownVariants(final List<VariantContext> variants)
     {
-        for(VariantContext variant : variants)
-        {
-            if(VariantType.type(variant) != VariantType.SNP)
-                continue;
+        variants.forEach(x -> addKnownVariant(x));
+    }
 
-            String chromosome = variant.getContig();
+    public void addKnownVariant(final VariantContext variant)
+    {
+        if(VariantType.type(variant) != VariantType.SNP)
+            return;
 
-            List<Integer> positions = mKnownVariantMap.get(chromosome);
+        String chromosome = variant.getContig();
 
-            if(positions == null)
-            {
-                positions = Lists.newArrayList();
-                mKnownVariantMap.put(chromosome, positions);
-            }
+        List<Integer> positions = mKnownVariantMap.get(chromosome);
 
-            positions.add(variant.getStart());
+        if(positions == null)
+        {
+            positions = Lists.newArrayList();
+            mKnownVariantMap.put(chromosome, positions);
         }
+
+        positions.add(variant.getStart());
     }
 
     public void produceRecalibrationMap()
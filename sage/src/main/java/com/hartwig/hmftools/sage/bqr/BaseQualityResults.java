@@ -2,19 +2,18 @@ package com.hartwig.hmftools.sage.bqr;
 
 import java.util.Map;
 
-import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.qual.BqrKey;
 import com.hartwig.hmftools.common.utils.PerformanceCounter;
 
 public class BaseQualityResults
 {
-    private final Map<BqrKey,Integer> mCombinedQualityCounts;
+    private final BqrCounts mCombinedQualityCounts;
 
     private PerformanceCounter mPerfCounter;
 
     public BaseQualityResults()
     {
-        mCombinedQualityCounts = Maps.newHashMap();
+        mCombinedQualityCounts = new BqrCounts();
         mPerfCounter = null;
     }
 
@@ -23,13 +22,9 @@ public class BaseQualityResults
         mCombinedQualityCounts.clear();
     }
 
-    public synchronized void addBaseQualityRegionCounter(final BqrRegionReader regionCounter)
+    public synchronized void addQualityCounts(final BqrCounts qualityCounts)
     {
-        for(BqrKeyCounter counter : regionCounter.getQualityCounts())
-        {
-            Integer count = mCombinedQualityCounts.get(counter.Key);
-            mCombinedQualityCounts.put(counter.Key, count != null ? count + counter.count() : counter.count());
-        }
+        mCombinedQualityCounts.merge(qualityCounts);
     }
 
     public synchronized void addPerfCounter(final PerformanceCounter perfCounter)
@@ -44,7 +39,7 @@ public class BaseQualityResults
         }
     }
 
-    public Map<BqrKey,Integer> getCombinedQualityCounts() { return mCombinedQualityCounts; }
+    public Map<BqrKey,Integer> getCombinedQualityCounts() { return mCombinedQualityCounts.toKeyCounts(); }
 
     public void logPerfStats()
     {
@@ -0,0 +1,133 @@
+package com.hartwig.hmftools.sage.bqr;
+
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.qual.BqrKey;
+import com.hartwig.hmftools.common.qual.BqrReadType;
+
+// BQR key counts held in a flat array indexed by packed read type, trinucleotide context, alt base and quality, so
+// counting needs no key objects and counts from each thread merge by array addition
+public class BqrCounts
+{
+    private final long[] mCounts;
+    private final Map<BqrKey,Integer> mOtherCounts; // for alts or qualities outside the packed ranges
+
+    private static final byte[] BASES = { 'A', 'C', 'G', 'T' };
+    private static final int BASE_COUNT = BASES.length;
+    private static final int CONTEXT_COUNT = BASE_COUNT * BASE_COUNT * BASE_COUNT;
+    private static final int QUALITY_COUNT = 128;
+    private static final BqrReadType[] READ_TYPES = BqrReadType.values();
+
+    private static final int[] BASE_INDEX = new int[256];
+
+    static
+    {
+        for(int i = 0; i < BASE_INDEX.length; ++i)
+        {
+            BASE_INDEX[i] = -1;
+        }
+
+        for(int i = 0; i < BASE_COUNT; ++i)
+        {
+            BASE_INDEX[BASES[i]] = i;
+        }
+    }
+
+    public BqrCounts()
+    {
+        mCounts = new long[READ_TYPES.length * CONTEXT_COUNT * BASE_COUNT * QUALITY_COUNT];
+        mOtherCounts = Maps.newHashMap();
+    }
+
+    public static int baseIndex(byte base) { return BASE_INDEX[base & 0xFF]; }
+
+    // returns -1 if any base is not A, C, G or T
+    public static int contextIndex(byte prevBase, byte base, byte nextBase)
+    {
+        int prevIndex = baseIndex(prevBase);
+        int index = baseIndex(base);
+        int nextIndex = baseIndex(nextBase);
+
+        if(prevIndex < 0 || index < 0 || nextIndex < 0)
+            return -1;
+
+        return (prevIndex * BASE_COUNT + index) * BASE_COUNT + nextIndex;
+    }
+
+    public static byte[] contextBases(int contextIndex)
+    {
+        return new byte[] {
+                BASES[contextIndex / (BASE_COUNT * BASE_COUNT)], BASES[(contextIndex / BASE_COUNT) % BASE_COUNT], BASES[contextIndex % BASE_COUNT] };
+    }
+
+    public static byte contextRef(int contextIndex) { return BASES[(contextIndex / BASE_COUNT) % BASE_COUNT]; }
+
+    public void add(final BqrReadType readType, int contextIndex, byte alt, byte quality, int count)
+    {
+        int altIndex = baseIndex(alt);
+
+        if(altIndex >= 0 && quality >= 0)
+        {
+            mCounts[countIndex(readType.ordinal(), contextIndex, altIndex, quality)] += count;
+            return;
+        }
+
+        BqrKey key = new BqrKey(contextRef(contextIndex), alt, contextBases(contextIndex), quality, readType);
+        mOtherCounts.merge(key, count, Integer::sum);
+    }
+
+    public void merge(final BqrCounts other)
+    {
+        for(int i = 0; i < mCounts.length; ++i)
+        {
+            mCounts[i] += other.mCounts[i];
+        }
+
+        other.mOtherCounts.forEach((key, count) -> mOtherCounts.merge(key, count, Integer::sum));
+    }
+
+    public void clear()
+    {
+        for(int i = 0; i < mCounts.length; ++i)
+        {
+            mCounts[i] = 0;
+        }
+
+        mOtherCounts.clear();
+    }
+
+    public Map<BqrKey,Integer> toKeyCounts()
+    {
+        Map<BqrKey,Integer> keyCounts = Maps.newHashMap(mOtherCounts);
+
+        int index = 0;
+
+        for(BqrReadType readType : READ_TYPES)
+        {
+            for(int contextIndex = 0; contextIndex < CONTEXT_COUNT; ++contextIndex)
+            {
+                for(int altIndex = 0; altIndex < BASE_COUNT; ++altIndex)
+                {
+                    for(int quality = 0; quality < QUALITY_COUNT; ++quality, ++index)
+                    {
+                        if(mCounts[index] == 0)
+                            continue;
+
+                        BqrKey key = new BqrKey(
+                                contextRef(contextIndex), BASES[altIndex], contextBases(contextIndex), (byte)quality, readType);
+
+                        keyCounts.merge(key, (int)mCounts[index], Integer::sum);
+                    }
+                }
+            }
+        }
+
+        return keyCounts;
+    }
+
+    private static int countIndex(int readTypeIndex, int contextIndex, int altIndex, int quality)
+    {
+        return ((readTypeIndex * CONTEXT_COUNT + contextIndex) * BASE_COUNT + altIndex) * QUALITY_COUNT + quality;
+    }
+}
@@ -9,20 +9,22 @@ import static com.hartwig.hmftools.common.sequencing.SequencingType.ULTIMA;
 import static com.hartwig.hmftools.common.sequencing.UltimaBamUtils.ULTIMA_MAX_QUAL;
 import static com.hartwig.hmftools.common.sequencing.UltimaBamUtils.extractConsensusType;
 import static com.hartwig.hmftools.sage.SageCommon.SG_LOGGER;
+import static com.hartwig.hmftools.sage.SageConstants.BQR_DUAL_AD;
+import static com.hartwig.hmftools.sage.SageConstants.BQR_DUAL_AF_HIGH;
+import static com.hartwig.hmftools.sage.SageConstants.BQR_DUAL_AF_LOW;
+import static com.hartwig.hmftools.sage.SageConstants.BQR_NON_DUAL_AD;
+import static com.hartwig.hmftools.sage.SageConstants.BQR_NON_DUAL_AF_HIGH;
+import static com.hartwig.hmftools.sage.SageConstants.BQR_NON_DUAL_AF_LOW;
 import static com.hartwig.hmftools.sage.bqr.BqrConfig.useReadType;
 
-import java.util.Collection;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Set;
 import java.util.concurrent.CompletionException;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
-import com.hartwig.hmftools.common.codon.Nucleotides;
 import com.hartwig.hmftools.common.bam.BamSlicer;
 import com.hartwig.hmftools.common.bam.CigarHandler;
-import com.hartwig.hmftools.common.qual.BqrKey;
 import com.hartwig.hmftools.common.qual.BqrReadType;
 import com.hartwig.hmftools.common.sequencing.SequencingType;
 import com.hartwig.hmftools.common.utils.PerformanceCounter;
@@ -31,7 +33,6 @@ import com.hartwig.hmftools.sage.SageConfig;
 import com.hartwig.hmftools.sage.common.RefSequence;
 
 import htsjdk.samtools.CigarElement;
-import htsjdk.samtools.CigarOperator;
 import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SamReader;
 import htsjdk.samtools.reference.ReferenceSequenceFile;
@@ -48,14 +49,22 @@ public class BqrRegionReader implements CigarHandler
 
     private ChrBaseRegion mRegion;
     private RefSequence mRefSequence;
-    private final Set<Integer> mKnownVariants;
+    private final BitSet mKnownVariants; // by offset from the region start
 
-    private final Set<BqrKeyCounter> mQualityCounts; // summarised counts with position removed
-    private final Map<BqrKey,Integer> mKeyCountsMap;
-    private int mPurgeIndex;
-    private int mMaxIndex;
+    private final BqrCounts mQualityCounts; // summarised counts with position removed, across all regions read
 
-    private BaseQualityDataCollection[] mBaseQualityData; // base-qual data by position for this region
+    // per-position tallies of alt and quality counts, held in a ring buffer until no later read can reach the position,
+    // at which point they are filtered and added to the summarised counts
+    private int[] mSlotPositions;
+    private int[] mSlotContexts;
+    private int[] mSlotIndelReadTypes; // bit per read type with an indel at the position
+    private int[] mSlotEntryCounts;
+    private int[][] mSlotEntryKeys; // packed read type, alt and quality
+    private int[][] mSlotEntryTotals;
+
+    private int mFlushPosition; // positions before this have been summarised
+    private int mMaxPosition;
+    private final int[] mReadTypeTotals;
 
     private final PerformanceCounter mPerfCounter;
     private int mReadCounter;
@@ -64,10 +73,12 @@ public class BqrRegionReader implements CigarHandler
     private final boolean mUseReadType;
     private final SequencingType mSequencingType;
 
-    private static final CigarElement SINGLE = new CigarElement(1, CigarOperator.M);
     private static final byte N = (byte) 'N';
-    private static final byte M = (byte) 'M';
     private static final int BASE_DATA_POS_BUFFER = 100;
+    private static final int INITIAL_RING_SIZE = 1024;
+    private static final int INITIAL_SLOT_ENTRIES = 4;
+    private static final int EMPTY_SLOT = -1;
+    private static final BqrReadType[] READ_TYPES = BqrReadType.values();
 
     public BqrRegionReader(
             final SageConfig config, final SamReader bamReader, final ReferenceSequenceFile refGenome, final BaseQualityResults results,
@@ -86,12 +97,12 @@ public class BqrRegionReader implements CigarHandler
         mCurrentReadType = BqrReadType.NONE;
         mSequencingType = mConfig.Sequencing.Type;
 
-        mBaseQualityData = null;
-        mQualityCounts = Sets.newHashSet();
-        mKnownVariants = Sets.newHashSet();
-        mKeyCountsMap = Maps.newHashMap();
-        mPurgeIndex = 0;
-        mMaxIndex = 0;
+        mQualityCounts = new BqrCounts();
+        mKnownVariants = new BitSet();
+        mReadTypeTotals = new int[READ_TYPES.length];
+        allocateSlots(INITIAL_RING_SIZE);
+        mFlushPosition = 0;
+        mMaxPosition = 0;
 
         mPerfCounter = new PerformanceCounter("BaseQualBuild");
         mReadCounter = 0;
@@ -101,40 +112,31 @@ public class BqrRegionReader implements CigarHandler
     {
         mRegion = region;
         mKnownVariants.clear();
-        mKnownVariants.addAll(knownVariants);
 
-        if(mRefGenome != null)
+        for(Integer position : knownVariants)
         {
-            mRefSequence = new RefSequence(mRegion, mRefGenome);
-        }
-        else
-        {
-            mRefSequence = null;
+            if(region.containsPosition(position))
+                mKnownVariants.set(position - region.start());
         }
 
-        if(mBaseQualityData == null || mBaseQualityData.length != region.baseLength())
+        if(mRefGenome != null)
         {
-            int regionPositionCount = region.baseLength();
-            mBaseQualityData = new BaseQualityDataCollection[regionPositionCount];
+            mRefSequence = new RefSequence(mRegion, mRefGenome);
         }
         else
         {
-            for(int i = 0; i < mBaseQualityData.length; ++i)
-            {
-                mBaseQualityData[i] = null;
-            }
+            mRefSequence = null;
         }
 
-        mKeyCountsMap.clear();
-        mQualityCounts.clear();
+        Arrays.fill(mSlotPositions, EMPTY_SLOT);
+        mFlushPosition = region.start();
+        mMaxPosition = region.start() - 1;
         mReadCounter = 0;
-        mPurgeIndex = 0;
-        mMaxIndex = 0;
 
         mPerfCounter.reset();
     }
 
-    public Collection<BqrKeyCounter> getQualityCounts() { return mQualityCounts; }
+    public BqrCounts qualityCounts() { return mQualityCounts; }
 
     public void run()
     {
@@ -146,8 +148,6 @@ public class BqrRegionReader implements CigarHandler
 
         buildQualityCounts();
 
-        mKeyCountsMap.clear();
-
         mPerfCounter.stop();
 
         if(mConfig.PerfWarnTime > 0 && mPerfCounter.getLastTime() > mConfig.PerfWarnTime)
@@ -156,78 +156,13 @@ public class BqrRegionReader implements CigarHandler
                     mRegion, String.format("%.1f", mPerfCounter.getLastTime()), mReadCounter);
         }
 
-        mResults.addBaseQualityRegionCounter(this);
         mResults.addPerfCounter(mPerfCounter);
     }
 
     @VisibleForTesting
     protected void buildQualityCounts()
     {
-        for(int i = mPurgeIndex; i <= mMaxIndex; ++i)
-        {
-            BaseQualityDataCollection bqDataCollection = mBaseQualityData[i];
-
-            if(bqDataCollection == null)
-                continue;
-
-            buildSummaryData(bqDataCollection);
-        }
-
-        for(Map.Entry<BqrKey,Integer> entry : mKeyCountsMap.entrySet())
-        {
-            BqrKeyCounter counter = new BqrKeyCounter(entry.getKey());
-            counter.increment(entry.getValue());
-            mQualityCounts.add(counter);
-        }
-
-    }
-
-    private void buildSummaryData(final BaseQualityDataCollection bqDataCollection)
-    {
-        if(bqDataCollection != null)
-        {
-            if(mWritePositionData)
-            {
-                for(Map.Entry<BqrReadType,BaseQualityData> entry : bqDataCollection.DataMap.entrySet())
-                {
-                    BqrReadType readType = entry.getKey();
-
-                    if(readType != BqrReadType.DUAL)
-                        continue;
-
-                    BaseQualityData bqData = entry.getValue();
-
-                    if(bqData.hasIndel())
-                        continue;
-
-                    for(AltQualityCount altQualityCount : bqData.altQualityCounts())
-                    {
-                        mRecordWriter.writePositionData(
-                                mRegion.Chromosome, bqDataCollection.Position, bqData.Ref, altQualityCount.Alt,
-                                bqData.TrinucleotideContext, altQualityCount.Quality, readType, altQualityCount.Count);
-                    }
-                }
-            }
-
-            bqDataCollection.DataMap.values().forEach(x -> buildSummaryData(x));
-        }
-    }
-
-    private void buildSummaryData(final BaseQualityData bqData)
-    {
-        if(bqData == null)
-            return;
-
-        if(bqData.hasIndel())
-            return;
-
-        Map<BqrKey,Integer> keyCounts = bqData.formKeyCounts();
-
-        for(Map.Entry<BqrKey,Integer> entry : keyCounts.entrySet())
-        {
-            Integer count = mKeyCountsMap.get(entry.getKey());
-            mKeyCountsMap.put(entry.getKey(), count != null ? count + entry.getValue() : entry.getValue());
-        }
+        flushPositions(mMaxPosition + 1);
     }
 
     private void readBam()
@@ -251,17 +186,15 @@ public class BqrRegionReader implements CigarHandler
     {
         ++mReadCounter;
 
+        // positions this far before the read's start will not be reached by any later read
+        flushPositions(record.getAlignmentStart() - BASE_DATA_POS_BUFFER);
+
         setShortFragmentBoundaries(record);
 
         if(mUseReadType)
             mCurrentReadType = extractReadType(record, mSequencingType);
 
         CigarHandler.traverseCigar(record, this);
-
-        if(mReadCounter > 0 && (mReadCounter % 1000) == 0)
-        {
-            purgeBaseDataList(record.getAlignmentStart());
-        }
     }
 
     public static BqrReadType extractReadType(final SAMRecord record, final SequencingType sequencingType)
@@ -327,15 +260,18 @@ public class BqrRegionReader implements CigarHandler
         if(!mRegion.containsPosition(position))
             return;
 
-        byte ref = mRefSequence.base(position);
-        byte[] trinucleotideContext = mRefSequence.trinucleotideContext(position);
-        BaseQualityData bqData = getOrCreateBaseQualData(position, ref, trinucleotideContext, mCurrentReadType);
-        bqData.setHasIndel();
+        int slot = getOrCreateSlot(position, refContextIndex(position));
+
+        if(slot != EMPTY_SLOT)
+            mSlotIndelReadTypes[slot] |= 1 << mCurrentReadType.ordinal();
     }
 
     @Override
     public void handleAlignment(final SAMRecord record, final CigarElement cigarElement, final int startReadIndex, final int refPos)
     {
+        final byte[] readBases = record.getReadBases();
+        final byte[] baseQualities = record.getBaseQualities();
+
         for(int i = 0; i < cigarElement.getLength(); i++)
         {
             int position = refPos + i;
@@ -352,92 +288,256 @@ public class BqrRegionReader implements CigarHandler
             if(mMaxReadEndPosition > 0 && position > mMaxReadEndPosition)
                 break;
 
-            if(mKnownVariants.contains(position))
+            if(mKnownVariants.get(position - mRegion.start()))
                 continue;
 
             int readIndex = startReadIndex + i;
 
-            byte ref = mRefSequence.base(position);
-            byte alt = record.getReadBases()[readIndex];
-            byte quality = record.getBaseQualities()[readIndex];
+            byte alt = readBases[readIndex];
+            byte quality = baseQualities[readIndex];
 
             if(mSequencingType == ULTIMA && quality != ULTIMA_MAX_QUAL)
                 continue;
 
-            byte[] trinucleotideContext = mRefSequence.trinucleotideContext(position);
+            int contextIndex = refContextIndex(position);
 
-            if(alt == N || !isValid(trinucleotideContext))
+            if(alt == N || contextIndex < 0)
                 continue;
 
-            BaseQualityData baseQualityData = getOrCreateBaseQualData(position, ref, trinucleotideContext, mCurrentReadType);
-            baseQualityData.processReadBase(alt, quality);
+            addReadBase(position, contextIndex, mCurrentReadType, alt, quality);
+
+            byte ref = BqrCounts.contextRef(contextIndex);
 
             if(mWriteReadData && ref != alt)
-                mRecordWriter.writeRecordData(record, position, readIndex, ref, alt, trinucleotideContext, quality, mCurrentReadType);
+            {
+                mRecordWriter.writeRecordData(
+                        record, position, readIndex, ref, alt, BqrCounts.contextBases(contextIndex), quality, mCurrentReadType);
+            }
+        }
+    }
+
+    private int refContextIndex(int position)
+    {
+        int index = mRefSequence.index(position);
+        byte[] refBases = mRefSequence.Bases;
+        return BqrCounts.contextIndex(refBases[index - 1], refBases[index], refBases[index + 1]);
+    }
+
+    @VisibleForTesting
+    protected void addReadBase(int position, final byte[] trinucleotideContext, final BqrReadType readType, byte alt, byte quality)
+    {
+        int contextIndex = BqrCounts.contextIndex(trinucleotideContext[0], trinucleotideContext[1], trinucleotideContext[2]);
+        addReadBase(position, contextIndex, readType, alt, quality);
+    }
+
+    private void addReadBase(int position, int contextIndex, final BqrReadType readType, byte alt, byte quality)
+    {
+        int slot = getOrCreateSlot(position, contextIndex);
+
+        if(slot == EMPTY_SLOT)
+            return;
+
+        int key = (readType.ordinal() << 16) | ((alt & 0xFF) << 8) | (quality & 0xFF);
+
+        int[] entryKeys = mSlotEntryKeys[slot];
+        int entryCount = mSlotEntryCounts[slot];
+
+        for(int i = 0; i < entryCount; ++i)
+        {
+            if(entryKeys[i] == key)
+            {
+                ++mSlotEntryTotals[slot][i];
+                return;
+            }
+        }
+
+        if(entryCount == entryKeys.length)
+        {
+            mSlotEntryKeys[slot] = entryKeys = Arrays.copyOf(entryKeys, entryCount * 2);
+            mSlotEntryTotals[slot] = Arrays.copyOf(mSlotEntryTotals[slot], entryCount * 2);
         }
+
+        entryKeys[entryCount] = key;
+        mSlotEntryTotals[slot][entryCount] = 1;
+        mSlotEntryCounts[slot] = entryCount + 1;
     }
 
-    private void purgeBaseDataList(int currentReadStartPos)
+    private int getOrCreateSlot(int position, int contextIndex)
     {
-        for(; mPurgeIndex <= mMaxIndex; ++mPurgeIndex)
+        if(position < mFlushPosition)
+            return EMPTY_SLOT; // already summarised
+
+        if(position - mFlushPosition >= mSlotPositions.length)
+            growSlots(position - mFlushPosition + 1);
+
+        int slot = position & (mSlotPositions.length - 1);
+
+        if(mSlotPositions[slot] != position)
         {
-            BaseQualityDataCollection bqData = mBaseQualityData[mPurgeIndex];
+            mSlotPositions[slot] = position;
+            mSlotContexts[slot] = contextIndex;
+            mSlotIndelReadTypes[slot] = 0;
+            mSlotEntryCounts[slot] = 0;
+            mMaxPosition = Math.max(mMaxPosition, position);
+        }
 
-            if(bqData == null)
-                continue;
+        return slot;
+    }
 
-            if(bqData.Position >= currentReadStartPos - BASE_DATA_POS_BUFFER)
-                break;
+    private void allocateSlots(int ringSize)
+    {
+        mSlotPositions = new int[ringSize];
+        mSlotContexts = new int[ringSize];
+        mSlotIndelReadTypes = new int[ringSize];
+        mSlotEntryCounts = new int[ringSize];
+        mSlotEntryKeys = new int[ringSize][];
+        mSlotEntryTotals = new int[ringSize][];
+
+        Arrays.fill(mSlotPositions, EMPTY_SLOT);
 
-            buildSummaryData(bqData);
-            mBaseQualityData[mPurgeIndex] = null;
+        for(int i = 0; i < ringSize; ++i)
+        {
+            mSlotEntryKeys[i] = new int[INITIAL_SLOT_ENTRIES];
+            mSlotEntryTotals[i] = new int[INITIAL_SLOT_ENTRIES];
         }
     }
 
-    protected BaseQualityData getOrCreateBaseQualData(
-            int position, final byte ref, final byte[] trinucleotideContext, final BqrReadType readType)
+    private void growSlots(int requiredSize)
     {
-        int posIndex = position - mRegion.start();
-        BaseQualityDataCollection bqDataCollection = mBaseQualityData[posIndex];
+        int[] positions = mSlotPositions;
+        int[] contexts = mSlotContexts;
+        int[] indelReadTypes = mSlotIndelReadTypes;
+        int[] entryCounts = mSlotEntryCounts;
+        int[][] entryKeys = mSlotEntryKeys;
+        int[][] entryTotals = mSlotEntryTotals;
+
+        int ringSize = positions.length;
 
-        if(bqDataCollection == null)
+        while(ringSize < requiredSize)
         {
-            bqDataCollection = new BaseQualityDataCollection(position);
-            mBaseQualityData[posIndex] = bqDataCollection;
-            mMaxIndex = posIndex;
+            ringSize *= 2;
         }
 
-        BaseQualityData bqData = bqDataCollection.DataMap.get(readType);
+        allocateSlots(ringSize);
 
-        if(bqData == null)
+        for(int i = 0; i < positions.length; ++i)
         {
-            bqData = new BaseQualityData(ref, trinucleotideContext, readType);
-            bqDataCollection.DataMap.put(readType, bqData);
+            if(positions[i] == EMPTY_SLOT)
+                continue;
+
+            int slot = positions[i] & (ringSize - 1);
+            mSlotPositions[slot] = positions[i];
+            mSlotContexts[slot] = contexts[i];
+            mSlotIndelReadTypes[slot] = indelReadTypes[i];
+            mSlotEntryCounts[slot] = entryCounts[i];
+            mSlotEntryKeys[slot] = entryKeys[i];
+            mSlotEntryTotals[slot] = entryTotals[i];
         }
+    }
+
+    private void flushPositions(int position)
+    {
+        if(position <= mFlushPosition)
+            return;
 
-        return bqData;
+        int lastPosition = Math.min(position - 1, mMaxPosition);
+        int ringMask = mSlotPositions.length - 1;
+
+        for(int pos = mFlushPosition; pos <= lastPosition; ++pos)
+        {
+            int slot = pos & ringMask;
+
+            if(mSlotPositions[slot] != pos)
+                continue;
+
+            buildSummaryData(slot);
+            mSlotPositions[slot] = EMPTY_SLOT;
+        }
+
+        mFlushPosition = position;
     }
 
-    private static boolean isValid(final byte[] trinucleotideContext)
+    private void buildSummaryData(int slot)
     {
-        for(byte b : trinucleotideContext)
+        int entryCount = mSlotEntryCounts[slot];
+        int contextIndex = mSlotContexts[slot];
+
+        if(entryCount == 0 || contextIndex < 0)
+            return;
+
+        int[] entryKeys = mSlotEntryKeys[slot];
+        int[] entryTotals = mSlotEntryTotals[slot];
+        int indelReadTypes = mSlotIndelReadTypes[slot];
+        byte ref = BqrCounts.contextRef(contextIndex);
+
+        if(mWritePositionData)
+            writePositionData(slot, ref);
+
+        Arrays.fill(mReadTypeTotals, 0);
+
+        for(int i = 0; i < entryCount; ++i)
         {
-            if(!Nucleotides.isValidDnaBase((char)b))
-                return false;
+            mReadTypeTotals[entryKeys[i] >>> 16] += entryTotals[i];
         }
 
-        return trinucleotideContext.length == 3;
+        for(int i = 0; i < entryCount; ++i)
+        {
+            int readTypeIndex = entryKeys[i] >>> 16;
+
+            if((indelReadTypes & (1 << readTypeIndex)) != 0)
+                continue;
+
+            BqrReadType readType = READ_TYPES[readTypeIndex];
+            byte alt = (byte)(entryKeys[i] >>> 8);
+            byte quality = (byte)entryKeys[i];
+
+            if(alt != ref)
+            {
+                // exclude any alt with too much support (regardless of quality)
+                int altCount = 0;
+                int altKey = entryKeys[i] & 0xFFFF00;
+
+                for(int j = 0; j < entryCount; ++j)
+                {
+                    if((entryKeys[j] & 0xFFFF00) == altKey)
+                        altCount += entryTotals[j];
+                }
+
+                double altVaf = altCount / (double)mReadTypeTotals[readTypeIndex];
+
+                double lowAfLimit = readType.isHighQuality() ? BQR_DUAL_AF_LOW : BQR_NON_DUAL_AF_LOW;
+                double highAfLimit = readType.isHighQuality() ? BQR_DUAL_AF_HIGH : BQR_NON_DUAL_AF_HIGH;
+                int adLimit = readType.isHighQuality() ? BQR_DUAL_AD : BQR_NON_DUAL_AD;
+
+                // for the dual condition it means: use a site if (AF<1% | AD<3) & AF <7.5%, or equivalently, AF<1% | (AD<3 & AF<7.5%)
+                boolean includeAlt = altVaf < lowAfLimit || (altVaf < highAfLimit && altCount <= adLimit);
+
+                if(!includeAlt)
+                    continue;
+            }
+
+            mQualityCounts.add(readType, contextIndex, alt, quality, entryTotals[i]);
+        }
     }
 
-    private class BaseQualityDataCollection
+    private void writePositionData(int slot, byte ref)
     {
-        public final int Position;
-        public final Map<BqrReadType,BaseQualityData> DataMap;
+        int dualIndex = BqrReadType.DUAL.ordinal();
+
+        if((mSlotIndelReadTypes[slot] & (1 << dualIndex)) != 0)
+            return;
+
+        int[] entryKeys = mSlotEntryKeys[slot];
+        byte[] trinucleotideContext = BqrCounts.contextBases(mSlotContexts[slot]);
 
-        public BaseQualityDataCollection(final int position)
+        for(int i = 0; i < mSlotEntryCounts[slot]; ++i)
         {
-            Position = position;
-            DataMap = Maps.newHashMap();
+            if((entryKeys[i] >>> 16) != dualIndex)
+                continue;
+
+            mRecordWriter.writePositionData(
+                    mRegion.Chromosome, mSlotPositions[slot], ref, (byte)(entryKeys[i] >>> 8), trinucleotideContext,
+                    (byte)entryKeys[i], BqrReadType.DUAL, mSlotEntryTotals[slot][i]);
         }
     }
 }
@@ -96,5 +96,8 @@ public class BqrThread extends Thread
                 break;
             }
         }
+
+        // counts from all regions read by this thread are merged once
+        mResults.addQualityCounts(mRegionCounter.qualityCounts());
     }
 }
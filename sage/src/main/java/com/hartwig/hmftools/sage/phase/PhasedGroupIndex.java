@@ -0,0 +1,102 @@
+package com.hartwig.hmftools.sage.phase;
+
+import static java.lang.Math.max;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+public class PhasedGroupIndex
+{
+    // indexes groups by their min positive position so groups with overlapping positives are found from a positional sweep
+    // rather than by comparing all pairs, returning them in the order of the original list
+    private final List<PhasedVariantGroup> mGroups;
+    private final Map<PhasedVariantGroup,Integer> mGroupIndices;
+    private final Integer[] mSortedIndices;
+    private final int[] mSortedPosMins;
+    private final boolean[] mRemoved;
+    private int mMaxPosSpan;
+
+    public PhasedGroupIndex(final List<PhasedVariantGroup> groups)
+    {
+        mGroups = Lists.newArrayList(groups);
+        mGroupIndices = Maps.newIdentityHashMap();
+        mSortedIndices = new Integer[mGroups.size()];
+        mSortedPosMins = new int[mGroups.size()];
+        mRemoved = new boolean[mGroups.size()];
+        mMaxPosSpan = 0;
+
+        for(int i = 0; i < mGroups.size(); ++i)
+        {
+            PhasedVariantGroup group = mGroups.get(i);
+            mGroupIndices.put(group, i);
+            mSortedIndices[i] = i;
+            mMaxPosSpan = max(mMaxPosSpan, group.posVariantMax() - group.posVariantMin());
+        }
+
+        Arrays.sort(mSortedIndices, Comparator.comparingInt(x -> mGroups.get(x).posVariantMin()));
+
+        for(int i = 0; i < mSortedIndices.length; ++i)
+        {
+            mSortedPosMins[i] = mGroups.get(mSortedIndices[i]).posVariantMin();
+        }
+    }
+
+    public int groupCount() { return mGroups.size(); }
+    public PhasedVariantGroup group(int index) { return mGroups.get(index); }
+    public int groupIndex(final PhasedVariantGroup group) { return mGroupIndices.get(group); }
+
+    public boolean isRemoved(int index) { return mRemoved[index]; }
+    public void markRemoved(final PhasedVariantGroup group) { mRemoved[groupIndex(group)] = true; }
+
+    public List<PhasedVariantGroup> findOverlapping(final PhasedVariantGroup group, int minIndex)
+    {
+        // returns groups after the min index whose positive positions overlap this group's, excluding the group itself
+        int groupIndex = groupIndex(group);
+        int lowerIndex = lowerBound(group.posVariantMin() - mMaxPosSpan);
+        int upperIndex = lowerBound(group.posVariantMax() + 1);
+
+        List<Integer> overlapIndices = Lists.newArrayList();
+
+        for(int i = lowerIndex; i < upperIndex; ++i)
+        {
+            int index = mSortedIndices[i];
+
+            if(index == groupIndex || index < minIndex || mRemoved[index])
+                continue;
+
+            if(group.positionsOverlap(mGroups.get(index)))
+                overlapIndices.add(index);
+        }
+
+        Collections.sort(overlapIndices);
+
+        List<PhasedVariantGroup> overlapGroups = Lists.newArrayListWithCapacity(overlapIndices.size());
+        overlapIndices.forEach(x -> overlapGroups.add(mGroups.get(x)));
+        return overlapGroups;
+    }
+
+    private int lowerBound(int position)
+    {
+        // first sorted group with a min position at or after the specified position
+        int lower = 0;
+        int upper = mSortedPosMins.length;
+
+        while(lower < upper)
+        {
+            int mid = (lower + upper) >>> 1;
+
+            if(mSortedPosMins[mid] < position)
+                lower = mid + 1;
+            else
+                upper = mid;
+        }
+
+        return lower;
+    }
+}
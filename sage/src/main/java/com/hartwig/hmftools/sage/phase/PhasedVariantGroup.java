@@ -5,6 +5,7 @@ import static java.lang.Math.min;
 
 import static com.hartwig.hmftools.common.region.BaseRegion.positionWithin;
 
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
@@ -22,6 +23,10 @@ public class PhasedVariantGroup
     public final List<ReadContextCounter> PositiveReadCounters; // supported by the reads
     public final List<ReadContextCounter> NegativeReadCounters; // not supported by the reads
 
+    // read counter IDs are unique within a region, and mirror the counter lists for fast set comparisons
+    private final BitSet mPosCounterIds;
+    private final BitSet mNegCounterIds;
+
     public int ReadCount; // from uniquely supporting reads
     public double AllocatedReadCount; // allocated from subset groups
 
@@ -41,6 +46,9 @@ public class PhasedVariantGroup
         PositiveReadCounters = posCounters;
         NegativeReadCounters = negCounters;
 
+        mPosCounterIds = counterIds(posCounters);
+        mNegCounterIds = counterIds(negCounters);
+
         mPosVariantMin = minVariantPos;
         mPosVariantMax = maxVariantPos;
 
@@ -68,6 +76,16 @@ public class PhasedVariantGroup
         return BaseRegion.positionsOverlap(mPosVariantMin, mPosVariantMax, other.posVariantMin(), other.posVariantMax());
     }
 
+    public boolean hasPositive(final ReadContextCounter readCounter) { return mPosCounterIds.get(readCounter.id()); }
+    public boolean hasNegative(final ReadContextCounter readCounter) { return mNegCounterIds.get(readCounter.id()); }
+
+    private static BitSet counterIds(final List<ReadContextCounter> readCounters)
+    {
+        BitSet counterIds = new BitSet();
+        readCounters.forEach(x -> counterIds.set(x.id()));
+        return counterIds;
+    }
+
     public boolean cullReadCounters(final Set<ReadContextCounter> validCounters)
     {
         // return true if the counters in this group have been culled
@@ -88,6 +106,8 @@ public class PhasedVariantGroup
 
         invalidPosCounters.forEach(x -> PositiveReadCounters.remove(x));
         invalidNegCounters.forEach(x -> NegativeReadCounters.remove(x));
+        invalidPosCounters.forEach(x -> mPosCounterIds.clear(x.id()));
+        invalidNegCounters.forEach(x -> mNegCounterIds.clear(x.id()));
 
         mPosVariantMin = minPosition(PositiveReadCounters, true);
         mPosVariantMax = maxPosition(PositiveReadCounters, true);
@@ -117,10 +137,11 @@ public class PhasedVariantGroup
         if(PositiveReadCounters.size() != posCounters.size() || NegativeReadCounters.size() != negCounters.size())
             return false;
 
-        if(PositiveReadCounters.stream().anyMatch(x -> !posCounters.contains(x)))
+        // counters are unique within each list so matching sizes and membership means the sets are equal
+        if(posCounters.stream().anyMatch(x -> !hasPositive(x)))
             return false;
 
-        if(NegativeReadCounters.stream().anyMatch(x -> !negCounters.contains(x)))
+        if(negCounters.stream().anyMatch(x -> !hasNegative(x)))
             return false;
 
         return true;
@@ -128,7 +149,10 @@ public class PhasedVariantGroup
 
     public boolean positivesMatch(final PhasedVariantGroup other)
     {
-        return positivesMatch(other.posVariantMin(), other.posVariantMax(), other.PositiveReadCounters);
+        if(other.posVariantMin() != mPosVariantMin || other.posVariantMax() != mPosVariantMax)
+            return false;
+
+        return mPosCounterIds.equals(other.mPosCounterIds);
     }
 
     public boolean positivesMatch(final int minVariantPos, final int maxVariantPos, final List<ReadContextCounter> posCounters)
@@ -140,7 +164,7 @@ public class PhasedVariantGroup
         if(PositiveReadCounters.size() != posCounters.size())
             return false;
 
-        if(PositiveReadCounters.stream().anyMatch(x -> !posCounters.contains(x)))
+        if(posCounters.stream().anyMatch(x -> !hasPositive(x)))
             return false;
 
         return true;
@@ -152,39 +176,50 @@ public class PhasedVariantGroup
         if(other.PositiveReadCounters.size() < PositiveReadCounters.size())
             return false;
 
-        if(!PositiveReadCounters.stream().allMatch(x -> other.PositiveReadCounters.contains(x)))
+        if(!containsAll(other.mPosCounterIds, mPosCounterIds))
             return false;
 
-        if(hasAnyOverlap(other.PositiveReadCounters, NegativeReadCounters) || hasAnyOverlap(PositiveReadCounters, other.NegativeReadCounters))
+        if(hasConflicts(other))
             return false;
 
         return true;
     }
 
+    private boolean hasConflicts(final PhasedVariantGroup other)
+    {
+        // a positive in either group is a negative in the other
+        return mNegCounterIds.intersects(other.mPosCounterIds) || mPosCounterIds.intersects(other.mNegCounterIds);
+    }
+
+    private static boolean containsAll(final BitSet superset, final BitSet subset)
+    {
+        for(int id = subset.nextSetBit(0); id >= 0; id = subset.nextSetBit(id + 1))
+        {
+            if(!superset.get(id))
+                return false;
+        }
+
+        return true;
+    }
+
     public boolean populateCommon(final PhasedVariantGroup other, final List<ReadContextCounter> posCounters, final List<ReadContextCounter> negCounters)
     {
         // cannot have contradictory negatives
-        if(hasAnyOverlap(other.PositiveReadCounters, NegativeReadCounters) || hasAnyOverlap(PositiveReadCounters, other.NegativeReadCounters))
+        if(hasConflicts(other))
             return false;
 
-        PositiveReadCounters.stream().filter(x -> other.PositiveReadCounters.contains(x)).forEach(x -> posCounters.add(x));
-        NegativeReadCounters.stream().filter(x -> other.NegativeReadCounters.contains(x)).forEach(x -> negCounters.add(x));
+        PositiveReadCounters.stream().filter(x -> other.hasPositive(x)).forEach(x -> posCounters.add(x));
+        NegativeReadCounters.stream().filter(x -> other.hasNegative(x)).forEach(x -> negCounters.add(x));
         return !posCounters.isEmpty();
     }
 
     public boolean hasCommonSubset(
             final PhasedVariantGroup other, final List<ReadContextCounter> posCounters, final List<ReadContextCounter> negCounters)
     {
-        if(hasAnyOverlap(other.PositiveReadCounters, NegativeReadCounters) || hasAnyOverlap(PositiveReadCounters, other.NegativeReadCounters))
+        if(hasConflicts(other))
             return false;
 
-        return posCounters.stream().allMatch(x -> PositiveReadCounters.contains(x))
-                && negCounters.stream().allMatch(x -> NegativeReadCounters.contains(x));
-    }
-
-    private static boolean hasAnyOverlap(final List<ReadContextCounter> counters1, final List<ReadContextCounter> counters2)
-    {
-        return counters1.stream().anyMatch(x -> counters2.contains(x)) || counters2.stream().anyMatch(x -> counters1.contains(x));
+        return posCounters.stream().allMatch(x -> hasPositive(x)) && negCounters.stream().allMatch(x -> hasNegative(x));
     }
 
     public void merge(final PhasedVariantGroup other)
@@ -233,7 +268,10 @@ public class PhasedVariantGroup
             }
 
             if(!matched)
+            {
                 PositiveReadCounters.add(index, readCounter);
+                mPosCounterIds.set(readCounter.id());
+            }
         }
 
         mPosVariantMin = minPosition(PositiveReadCounters, true);
@@ -246,7 +284,14 @@ public class PhasedVariantGroup
 
     public void mergeNegatives(final List<ReadContextCounter> negCounters)
     {
-        negCounters.stream().filter(x -> !NegativeReadCounters.contains(x)).forEach(x -> NegativeReadCounters.add(x));
+        for(ReadContextCounter readCounter : negCounters)
+        {
+            if(!hasNegative(readCounter))
+            {
+                NegativeReadCounters.add(readCounter);
+                mNegCounterIds.set(readCounter.id());
+            }
+        }
 
         if(!NegativeReadCounters.isEmpty())
         {
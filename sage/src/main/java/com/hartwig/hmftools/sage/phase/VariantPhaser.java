@@ -9,6 +9,8 @@ import static com.hartwig.hmftools.sage.SageCommon.SG_LOGGER;
 import static com.hartwig.hmftools.sage.phase.PhasedVariantGroup.maxPosition;
 import static com.hartwig.hmftools.sage.phase.PhasedVariantGroup.minPosition;
 
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -272,29 +274,28 @@ public class VariantPhaser
         if(filteredGroups.size() < 2)
             return;
 
-        int i = 0;
-        while(i < filteredGroups.size())
-        {
-            PhasedVariantGroup group = filteredGroups.get(i);
+        // these merges leave positives unchanged, so the positional index remains valid as groups are merged and removed
+        PhasedGroupIndex groupIndex = new PhasedGroupIndex(filteredGroups);
+        Set<PhasedVariantGroup> removedGroups = Sets.newIdentityHashSet();
 
-            // find groups which have matching +ves and aren't subsets of any other group
-            List<PhasedVariantGroup> superGroups = Lists.newArrayList();
+        for(int i = 0; i < groupIndex.groupCount(); ++i)
+        {
+            if(groupIndex.isRemoved(i))
+                continue;
 
-            for(int j = i + 1; j < filteredGroups.size(); ++j)
-            {
-                PhasedVariantGroup otherGroup = filteredGroups.get(j);
+            PhasedVariantGroup group = groupIndex.group(i);
 
-                if(group.positionsOverlap(otherGroup) && group.isSubsetOf(otherGroup))
-                    superGroups.add(otherGroup);
-            }
+            // find groups which have matching +ves and aren't subsets of any other group
+            List<PhasedVariantGroup> superGroups = groupIndex.findOverlapping(group, i + 1).stream()
+                    .filter(x -> group.isSubsetOf(x)).collect(Collectors.toList());
 
             if(superGroups.isEmpty())
             {
                 if(group.PositiveReadCounters.size() == 1)
                 {
                     // remove any group with a single variant not present as a +ve in another group
-                    filteredGroups.remove(group);
-                    continue;
+                    groupIndex.markRemoved(group);
+                    removedGroups.add(group);
                 }
             }
             else
@@ -305,14 +306,15 @@ public class VariantPhaser
                     for(PhasedVariantGroup superGroup : superGroups)
                     {
                         group.merge(superGroup);
+                        groupIndex.markRemoved(superGroup);
+                        removedGroups.add(superGroup);
                     }
-
-                    filteredGroups.removeAll(superGroups);
                 }
             }
-
-            ++i;
         }
+
+        if(!removedGroups.isEmpty())
+            filteredGroups.removeIf(x -> removedGroups.contains(x));
     }
 
     public static void mergeByExtension(final List<PhasedVariantGroup> filteredGroups)
@@ -333,6 +335,9 @@ public class VariantPhaser
             lastModifiedGroups.addAll(modifiedGroups);
             modifiedGroups.clear();
 
+            // a merge extends the merged groups' positives and ends this pass, so the positional index is rebuilt for each pass
+            PhasedGroupIndex groupIndex = new PhasedGroupIndex(filteredGroups);
+
             for(int i = 0; i < filteredGroups.size(); ++i)
             {
                 PhasedVariantGroup group = filteredGroups.get(i);
@@ -345,16 +350,8 @@ public class VariantPhaser
                 commonPosCounters.clear();
                 commonNegCounters.clear();
 
-                for(int j = 0; j < filteredGroups.size(); ++j)
+                for(PhasedVariantGroup otherPhasedGroup : groupIndex.findOverlapping(group, 0))
                 {
-                    if(j == i)
-                        continue;
-
-                    PhasedVariantGroup otherPhasedGroup = filteredGroups.get(j);
-
-                    if(!group.positionsOverlap(otherPhasedGroup))
-                        continue;
-
                     if(commonPosCounters.isEmpty())
                     {
                         if(!group.populateCommon(otherPhasedGroup, commonPosCounters, commonNegCounters))
@@ -414,6 +411,8 @@ public class VariantPhaser
     public static void mergeUninformative(final List<PhasedVariantGroup> filteredGroups)
     {
         // finally merge any groups with the same +ves or are non-conflicting subsets of others now that supersets have been considered
+        PhasedGroupIndex groupIndex = new PhasedGroupIndex(filteredGroups);
+
         int index = 0;
         while(index < filteredGroups.size())
         {
@@ -427,13 +426,13 @@ public class VariantPhaser
                 {
                     // remove any group with a single variant not present as a +ve in another group
                     filteredGroups.remove(group);
+                    groupIndex.markRemoved(group);
                     continue;
                 }
             }
 
-            // find groups which have matching +ves and aren't subsets of any other group
-            List<PhasedVariantGroup> matchingGroups = filteredGroups.stream()
-                    .filter(x -> x != group)
+            // find groups which have matching +ves and aren't subsets of any other group, both of which require overlapping positives
+            List<PhasedVariantGroup> matchingGroups = groupIndex.findOverlapping(group, 0).stream()
                     .filter(x -> group.positivesMatch(x) || x.isSubsetOf(group))
                     .collect(Collectors.toList());
 
@@ -443,6 +442,7 @@ public class VariantPhaser
                 for(PhasedVariantGroup otherGroup : matchingGroups)
                 {
                     group.merge(otherGroup);
+                    groupIndex.markRemoved(otherGroup);
                 }
 
                 filteredGroups.removeAll(matchingGroups);
@@ -456,118 +456,137 @@ public class VariantPhaser
     {
         // remove any uninformative local phasings sets where they all have the same passing variants
         Map<Integer,List<SageVariant>> lpsVariantsMap = Maps.newHashMap();
-        Map<Integer,List<SageVariant>> lpsPassingVariantsMap = Maps.newHashMap();
-        Map<Integer,Integer> lpsMaxReadCountMap = Maps.newHashMap();
+        Map<Integer,BitSet> lpsPassingVariantsMap = Maps.newHashMap(); // passing variants by their index in the variant list
+        Map<Integer,Integer> lpsReadCountMap = Maps.newHashMap();
 
-        List<Integer> uninformativeLpsIds = Lists.newArrayList();
-        List<Integer> processedLpsIds = Lists.newArrayList();
+        Set<Integer> uninformativeLpsIds = Sets.newHashSet();
         Set<Integer> singlePassingVarGroups = Sets.newHashSet();
 
-        // first put all variants into LPS datasets
+        // first put all variants into LPS datasets, from a single pass of the variants
+        Map<Integer,List<SageVariant>> phaseSetVariants = Maps.newHashMap();
+        Map<Integer,BitSet> phaseSetPassingVariants = Maps.newHashMap();
+
+        for(int i = 0; i < variants.size(); ++i)
+        {
+            SageVariant variant = variants.get(i);
+
+            if(!variant.hasLocalPhaseSets())
+                continue;
+
+            for(Integer lpsId : variant.localPhaseSets())
+            {
+                if(!passingPhaseSets.contains(lpsId))
+                    continue;
+
+                List<SageVariant> lpsVariants = phaseSetVariants.computeIfAbsent(lpsId, k -> Lists.newArrayList());
+
+                if(!lpsVariants.isEmpty() && lpsVariants.get(lpsVariants.size() - 1) == variant)
+                    continue;
+
+                lpsVariants.add(variant);
+
+                if(variant.isPassing())
+                    phaseSetPassingVariants.computeIfAbsent(lpsId, k -> new BitSet()).set(i);
+            }
+        }
+
         for(Integer lpsId : passingPhaseSets)
         {
-            List<SageVariant> lpsVariants = variants.stream().filter(x -> x.hasMatchingLps(lpsId)).collect(Collectors.toList());
-            List<SageVariant> passingVariants = lpsVariants.stream().filter(x -> x.isPassing()).collect(Collectors.toList());
+            List<SageVariant> lpsVariants = phaseSetVariants.getOrDefault(lpsId, Collections.emptyList());
+            BitSet passingVariants = phaseSetPassingVariants.get(lpsId);
 
             lpsVariantsMap.put(lpsId, lpsVariants);
 
-            if(passingVariants.isEmpty())
+            if(passingVariants == null)
             {
                 uninformativeLpsIds.add(lpsId);
-                processedLpsIds.add(lpsId);
                 continue;
             }
 
-            if(lpsVariants.size() == 1 && passingVariants.get(0).localPhaseSets().size() == 1)
+            SageVariant firstPassingVariant = variants.get(passingVariants.nextSetBit(0));
+
+            if(lpsVariants.size() == 1 && firstPassingVariant.localPhaseSets().size() == 1)
                 singlePassingVarGroups.add(lpsId);
 
             lpsPassingVariantsMap.put(lpsId, passingVariants);
-            lpsMaxReadCountMap.put(lpsId, lpsVariants.get(0).getLpsReadCount(lpsId));
+            lpsReadCountMap.put(lpsId, firstPassingVariant.getLpsReadCount(lpsId));
         }
 
-        for(Map.Entry<Integer,List<SageVariant>> entry : lpsVariantsMap.entrySet())
+        // group LPS with matching passing variants, and index them by their passing variants to find supersets
+        Map<BitSet,List<Integer>> matchingPassingLpsIds = Maps.newLinkedHashMap();
+        Map<Integer,List<Integer>> variantLpsIds = Maps.newHashMap();
+
+        for(Integer lpsId : lpsVariantsMap.keySet())
         {
-            Integer lpsId = entry.getKey();
+            BitSet passingVariants = lpsPassingVariantsMap.get(lpsId);
 
-            if(processedLpsIds.contains(lpsId))
+            if(passingVariants == null)
                 continue;
 
-            processedLpsIds.add(lpsId);
+            matchingPassingLpsIds.computeIfAbsent(passingVariants, k -> Lists.newArrayList()).add(lpsId);
 
-            List<SageVariant> passingVariants = lpsPassingVariantsMap.get(lpsId);
-            int maxReadCount = passingVariants.get(0).getLpsReadCount(lpsId);
+            for(int i = passingVariants.nextSetBit(0); i >= 0; i = passingVariants.nextSetBit(i + 1))
+            {
+                variantLpsIds.computeIfAbsent(i, k -> Lists.newArrayList()).add(lpsId);
+            }
+        }
 
-            // look for matching passing variants
-            int maxLpsId = lpsId;
+        // keep the LPS with the highest read count from those with matching passing variants
+        for(List<Integer> matchedVariantsLpsIds : matchingPassingLpsIds.values())
+        {
+            if(matchedVariantsLpsIds.size() < 2)
+                continue;
 
-            List<Integer> matchedVariantsLpsIds = Lists.newArrayList(lpsId);
+            int maxLpsId = matchedVariantsLpsIds.get(0);
+            int maxReadCount = lpsReadCountMap.get(maxLpsId);
 
-            for(Map.Entry<Integer,List<SageVariant>> entry2 : lpsVariantsMap.entrySet())
+            for(int i = 1; i < matchedVariantsLpsIds.size(); ++i)
             {
-                Integer otherLpsId = entry2.getKey();
+                int otherLpsId = matchedVariantsLpsIds.get(i);
+                int otherReadCount = lpsReadCountMap.get(otherLpsId);
 
-                if(otherLpsId == lpsId || processedLpsIds.contains(otherLpsId))
-                    continue;
-
-                // List<SageVariant> otherLpsVariants = entry.getValue();
-                List<SageVariant> otherPassingVariants = lpsPassingVariantsMap.get(otherLpsId);
-
-                if(otherPassingVariants.size() == passingVariants.size() && otherPassingVariants.stream().allMatch(x -> passingVariants.contains(x)))
+                if(otherReadCount > maxReadCount)
                 {
-                    processedLpsIds.add(otherLpsId);
-
-                    int otherReadCount = otherPassingVariants.get(0).getLpsReadCount(otherLpsId);
-                    matchedVariantsLpsIds.add(otherLpsId);
-
-                    if(otherReadCount > maxReadCount)
-                    {
-                        maxReadCount = otherReadCount;
-                        maxLpsId = otherLpsId;
-                    }
+                    maxReadCount = otherReadCount;
+                    maxLpsId = otherLpsId;
                 }
             }
 
-            if(matchedVariantsLpsIds.size() > 1)
-            {
-                int maxId = maxLpsId;
-                matchedVariantsLpsIds.stream().filter(x -> x != maxId).forEach(x -> uninformativeLpsIds.add(x));
+            int maxId = maxLpsId;
+            matchedVariantsLpsIds.stream().filter(x -> x != maxId).forEach(x -> uninformativeLpsIds.add(x));
 
-                if(passingVariants.size() == 1)
-                    singlePassingVarGroups.add(maxLpsId);
-            }
+            if(lpsPassingVariantsMap.get(maxLpsId).cardinality() == 1)
+                singlePassingVarGroups.add(maxLpsId);
         }
 
         // and filter any subsets of PASS variants with <25% read support of a superset of PASS variants
-        for(Map.Entry<Integer,List<SageVariant>> entry : lpsVariantsMap.entrySet())
+        for(Integer lpsId : lpsVariantsMap.keySet())
         {
-            Integer lpsId = entry.getKey();
-
             if(uninformativeLpsIds.contains(lpsId))
                 continue;
 
-            List<SageVariant> passingVariants = lpsPassingVariantsMap.get(lpsId);
-
-            int readCount = passingVariants.get(0).getLpsReadCount(lpsId);
+            BitSet passingVariants = lpsPassingVariantsMap.get(lpsId);
+            int passingCount = passingVariants.cardinality();
+            int readCount = lpsReadCountMap.get(lpsId);
 
-            // look for superset of these passing variants
-            for(Map.Entry<Integer, List<SageVariant>> entry2 : lpsVariantsMap.entrySet())
+            // look for superset of these passing variants, which must include its first passing variant
+            for(Integer otherLpsId : variantLpsIds.get(passingVariants.nextSetBit(0)))
             {
-                Integer otherLpsId = entry2.getKey();
-
-                if(otherLpsId == lpsId || uninformativeLpsIds.contains(otherLpsId))
+                if(otherLpsId.equals(lpsId) || uninformativeLpsIds.contains(otherLpsId))
                     continue;
 
-                List<SageVariant> otherPassingVariants = lpsPassingVariantsMap.get(otherLpsId);
+                BitSet otherPassingVariants = lpsPassingVariantsMap.get(otherLpsId);
+                int otherPassingCount = otherPassingVariants.cardinality();
 
-                if(otherPassingVariants.size() > passingVariants.size() && passingVariants.stream().allMatch(x -> otherPassingVariants.contains(x)))
+                if(otherPassingCount > passingCount && isSubset(passingVariants, otherPassingVariants))
                 {
                     // is a subset
-                    int otherReadCount = otherPassingVariants.get(0).getLpsReadCount(otherLpsId);
+                    int otherReadCount = lpsReadCountMap.get(otherLpsId);
                     if(readCount < otherReadCount * SUBSET_READ_COUNT_LIMIT)
                     {
                         uninformativeLpsIds.add(lpsId);
 
-                        if(otherPassingVariants.size() == 1)
+                        if(otherPassingCount == 1)
                             singlePassingVarGroups.add(otherLpsId);
 
                         break;
@@ -596,6 +615,17 @@ public class VariantPhaser
         }
     }
 
+    private static boolean isSubset(final BitSet subset, final BitSet superset)
+    {
+        for(int i = subset.nextSetBit(0); i >= 0; i = subset.nextSetBit(i + 1))
+        {
+            if(!superset.get(i))
+                return false;
+        }
+
+        return true;
+    }
+
     private void logPhasedReadCounters(final List<PhasedVariantGroup> phasedGroups, final String stage)
     {
         for(PhasedVariantGroup group : phasedGroups)
@@ -68,6 +68,7 @@ import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.chromosome.MitochondrialChromosome;
 import com.hartwig.hmftools.common.sequencing.SequencingType;
+import com.hartwig.hmftools.common.variant.ParallelVcfWriter;
 import com.hartwig.hmftools.common.variant.VariantReadSupport;
 import com.hartwig.hmftools.sage.SageConfig;
 import com.hartwig.hmftools.sage.filter.SoftFilter;
@@ -76,9 +77,7 @@ import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.samtools.SAMSequenceRecord;
 import htsjdk.samtools.reference.IndexedFastaSequenceFile;
 import htsjdk.variant.variantcontext.VariantContext;
-import htsjdk.variant.variantcontext.writer.Options;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
-import htsjdk.variant.variantcontext.writer.VariantContextWriterBuilder;
 import htsjdk.variant.vcf.VCFConstants;
 import htsjdk.variant.vcf.VCFFilterHeaderLine;
 import htsjdk.variant.vcf.VCFFormatHeaderLine;
@@ -99,11 +98,8 @@ public class VariantVCF implements AutoCloseable
     {
         final SAMSequenceDictionary sequenceDictionary = reference.getSequenceDictionary();
 
-        mWriter = new VariantContextWriterBuilder().setOutputFile(config.OutputFile)
-                .modifyOption(Options.INDEX_ON_THE_FLY, true)
-                .modifyOption(Options.USE_ASYNC_IO, false)
-                .setReferenceDictionary(sequenceDictionary)
-                .build();
+        // records are encoded and compressed on worker threads, and indexed as they are written
+        mWriter = new ParallelVcfWriter(config.OutputFile, config.Threads, sequenceDictionary);
 
         final List<String> samples = Lists.newArrayList();
         samples.addAll(referenceIds);
@@ -132,11 +128,7 @@ public class VariantVCF implements AutoCloseable
 
         final VCFHeader newHeader = new VCFHeader(headerLines, samples);
 
-        mWriter = new VariantContextWriterBuilder().setOutputFile(config.OutputFile)
-                .modifyOption(Options.INDEX_ON_THE_FLY, true)
-                .modifyOption(Options.USE_ASYNC_IO, false)
-                .setReferenceDictionary(reference.getSequenceDictionary())
-                .build();
+        mWriter = new ParallelVcfWriter(config.OutputFile, config.Threads, reference.getSequenceDictionary());
         mWriter.writeHeader(newHeader);
     }
 
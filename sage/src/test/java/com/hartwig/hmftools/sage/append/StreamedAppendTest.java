@@ -0,0 +1,196 @@
+package com.hartwig.hmftools.sage.append;
+
+import static com.hartwig.hmftools.sage.append.OrderedAppendWriter.PENDING_TASKS_PER_THREAD;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.sage.append.VariantRegionGrouper.RegionVariants;
+
+import org.junit.Test;
+
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+
+public class StreamedAppendTest
+{
+    private static final String CHR_1 = "1";
+
+    @Test
+    public void testGroupingByVariantCount()
+    {
+        List<VariantContext> variants = Lists.newArrayList();
+
+        for(int i = 0; i < 7; ++i)
+        {
+            variants.add(createSnv(100 + i * 10));
+        }
+
+        List<RegionVariants> groups = VariantRegionGrouper.groupVariants(CHR_1, variants, 3, 10000);
+
+        assertEquals(3, groups.size());
+        assertEquals(variants.subList(0, 3), groups.get(0).Variants);
+        assertEquals(variants.subList(3, 6), groups.get(1).Variants);
+        assertEquals(variants.subList(6, 7), groups.get(2).Variants);
+
+        assertRegion(groups.get(0), 100, 120);
+        assertRegion(groups.get(1), 130, 150);
+        assertRegion(groups.get(2), 160, 160);
+    }
+
+    @Test
+    public void testGroupingByRegionSize()
+    {
+        List<VariantContext> variants = Lists.newArrayList(
+                createSnv(1000), createSnv(1500), createSnv(1999), createSnv(2000), createSnv(2100), createSnv(5000));
+
+        // a variant starting the max region size or more after the group's first variant starts a new group
+        List<RegionVariants> groups = VariantRegionGrouper.groupVariants(CHR_1, variants, 100, 1000);
+
+        assertEquals(3, groups.size());
+        assertEquals(variants.subList(0, 3), groups.get(0).Variants);
+        assertEquals(variants.subList(3, 5), groups.get(1).Variants);
+        assertEquals(variants.subList(5, 6), groups.get(2).Variants);
+
+        assertRegion(groups.get(0), 1000, 1999);
+        assertRegion(groups.get(1), 2000, 2100);
+        assertRegion(groups.get(2), 5000, 5000);
+
+        assertTrue(VariantRegionGrouper.groupVariants(CHR_1, Collections.emptyList(), 100, 1000).isEmpty());
+    }
+
+    @Test
+    public void testRegionCoversVariantEnds()
+    {
+        // a deletion extending past later variants sets the region's end
+        List<VariantContext> variants = Lists.newArrayList(createSnv(100), createDel(110, 50), createSnv(130), createSnv(400));
+
+        List<RegionVariants> groups = VariantRegionGrouper.groupVariants(CHR_1, variants, 3, 1000);
+
+        assertEquals(2, groups.size());
+        assertEquals(CHR_1, groups.get(0).Region.Chromosome);
+        assertRegion(groups.get(0), 100, 160);
+        assertRegion(groups.get(1), 400, 400);
+    }
+
+    @Test
+    public void testWritesInSubmissionOrder() throws Exception
+    {
+        List<VariantContext> written = Lists.newArrayList();
+        List<VariantContext> expected = Lists.newArrayList();
+        int taskCount = 8;
+
+        try(OrderedAppendWriter writer = new OrderedAppendWriter(written::add, 4))
+        {
+            for(int i = 0; i < taskCount; ++i)
+            {
+                List<VariantContext> taskVariants = Lists.newArrayList(createSnv(100 + i * 10), createSnv(105 + i * 10));
+                expected.addAll(taskVariants);
+
+                // earlier tasks take longer, so complete after later ones
+                int delayMs = (taskCount - i) * 20;
+                writer.submit(() -> { Thread.sleep(delayMs); return null; }, () -> taskVariants);
+            }
+
+            assertEquals(expected.size(), writer.finish());
+        }
+
+        assertEquals(expected, written);
+    }
+
+    @Test
+    public void testPendingTaskLimit() throws Exception
+    {
+        List<VariantContext> written = Lists.newArrayList();
+
+        try(OrderedAppendWriter writer = new OrderedAppendWriter(written::add, 1))
+        {
+            assertEquals(PENDING_TASKS_PER_THREAD, writer.maxPendingTasks());
+
+            int maxPending = 0;
+
+            for(int i = 0; i < 12; ++i)
+            {
+                List<VariantContext> taskVariants = Lists.newArrayList(createSnv(100 + i));
+                writer.submit(() -> { Thread.sleep(20); return null; }, () -> taskVariants);
+
+                assertTrue(writer.pendingTaskCount() <= writer.maxPendingTasks());
+                maxPending = Math.max(maxPending, writer.pendingTaskCount());
+            }
+
+            // slow tasks fill the pending limit, with the submitter waiting on the oldest task
+            assertEquals(writer.maxPendingTasks(), maxPending);
+            assertEquals(12, writer.finish());
+        }
+
+        assertEquals(12, written.size());
+    }
+
+    @Test
+    public void testTaskFailure() throws Exception
+    {
+        IllegalStateException failure = new IllegalStateException("task failed");
+
+        // a failed task is reported by finish
+        try(OrderedAppendWriter writer = new OrderedAppendWriter(x -> {}, 1))
+        {
+            writer.submit(() -> { Thread.sleep(50); throw failure; }, Collections::emptyList);
+            writer.finish();
+            fail("expected task failure");
+        }
+        catch(ExecutionException e)
+        {
+            assertSame(failure, e.getCause());
+        }
+
+        // or by submit once the failed task is the oldest and the pending limit is reached
+        List<VariantContext> written = Lists.newArrayList();
+
+        try(OrderedAppendWriter writer = new OrderedAppendWriter(written::add, 1))
+        {
+            writer.submit(() -> { throw failure; }, Collections::emptyList);
+
+            for(int i = 0; i < PENDING_TASKS_PER_THREAD; ++i)
+            {
+                List<VariantContext> taskVariants = Lists.newArrayList(createSnv(100 + i));
+                writer.submit(() -> null, () -> taskVariants);
+            }
+
+            fail("expected task failure");
+        }
+        catch(ExecutionException e)
+        {
+            assertSame(failure, e.getCause());
+        }
+
+        assertTrue(written.isEmpty());
+    }
+
+    private static void assertRegion(final RegionVariants group, int expectedStart, int expectedEnd)
+    {
+        assertEquals(expectedStart, group.Region.start());
+        assertEquals(expectedEnd, group.Region.end());
+    }
+
+    private static VariantContext createSnv(int position)
+    {
+        return new VariantContextBuilder("test", CHR_1, position, position,
+                Lists.newArrayList(Allele.create("A", true), Allele.create("G", false))).make();
+    }
+
+    private static VariantContext createDel(int position, int deletedBases)
+    {
+        String ref = "A" + "C".repeat(deletedBases);
+
+        return new VariantContextBuilder("test", CHR_1, position, position + deletedBases,
+                Lists.newArrayList(Allele.create(ref, true), Allele.create("A", false))).make();
+    }
+}
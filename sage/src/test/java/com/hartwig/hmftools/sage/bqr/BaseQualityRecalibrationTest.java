@@ -6,9 +6,8 @@ import static com.hartwig.hmftools.sage.common.TestUtils.createSageConfig;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertNull;
 
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -40,61 +39,51 @@ public class BaseQualityRecalibrationTest
         BqrKey key2 = createKey('A', 'A', 20, BqrReadType.NONE);
         BqrKey key3 = createKey('A', 'G', 15, BqrReadType.NONE); // a repeated alt
 
-        BaseQualityData bqData1 = bqrCounter.getOrCreateBaseQualData(pos1, key1.Ref, key1.TrinucleotideContext, BqrReadType.NONE);
-
-        bqData1.processReadBase(key1.Alt, key1.Quality);
+        addReadBase(bqrCounter, pos1, key1);
 
         for(int i = 0; i < 10; ++i)
         {
-            bqData1.processReadBase(key2.Alt, key2.Quality);
+            addReadBase(bqrCounter, pos1, key2);
         }
 
         for(int i = 0; i < 3; ++i)
         {
-            bqData1.processReadBase(key3.Alt, key3.Quality);
+            addReadBase(bqrCounter, pos1, key3);
         }
 
         // repeated alt at different locations
         int pos2 = 150;
         BqrKey key4 = createKey('C', 'G', 25, BqrReadType.NONE); // another repeated alt
-        BaseQualityData bqData2 = bqrCounter.getOrCreateBaseQualData(pos2, key4.Ref, key4.TrinucleotideContext, BqrReadType.NONE);
 
         for(int i = 0; i < 4; ++i)
         {
-            bqData2.processReadBase(key4.Alt, key4.Quality);
+            addReadBase(bqrCounter, pos2, key4);
         }
 
         int pos3 = 200;
         BqrKey key5 = createKey('A', 'G', 20, BqrReadType.NONE); // an alt but not repeated
-        BaseQualityData bqData3 = bqrCounter.getOrCreateBaseQualData(pos3, key5.Ref, key5.TrinucleotideContext, BqrReadType.NONE);
 
-        bqData3.processReadBase(key5.Alt, key5.Quality);
+        addReadBase(bqrCounter, pos3, key5);
 
         for(int i = 0; i < 9; ++i)
         {
-            bqData3.processReadBase(key2.Ref, key2.Quality); // AF of 10% but count of 1 is permitted
+            addReadBase(bqrCounter, pos3, key2); // AF of 10% but count of 1 is permitted
         }
 
         bqrCounter.buildQualityCounts();
 
-        Collection<BqrKeyCounter> qualityCounts = bqrCounter.getQualityCounts();
-
-        BqrKeyCounter qc = qualityCounts.stream().filter(x -> x.Key.equals(key1)).findFirst().orElse(null);
-        assertTrue(qc == null);
+        Map<BqrKey,Integer> qualityCounts = bqrCounter.qualityCounts().toKeyCounts();
 
-        qc = qualityCounts.stream().filter(x -> x.Key.equals(key2)).findFirst().orElse(null);
-        assertTrue(qc != null);
-        assertEquals(19, qc.count());
+        assertNull(qualityCounts.get(key1));
 
-        qc = qualityCounts.stream().filter(x -> x.Key.equals(key3)).findFirst().orElse(null);
-        assertTrue(qc == null);
+        assertNotNull(qualityCounts.get(key2));
+        assertEquals(19, qualityCounts.get(key2).intValue());
 
-        qc = qualityCounts.stream().filter(x -> x.Key.equals(key4)).findFirst().orElse(null);
-        assertTrue(qc == null);
+        assertNull(qualityCounts.get(key3));
+        assertNull(qualityCounts.get(key4));
 
-        qc = qualityCounts.stream().filter(x -> x.Key.equals(key5)).findFirst().orElse(null);
-        assertTrue(qc != null);
-        assertEquals(1, qc.count());
+        assertNotNull(qualityCounts.get(key5));
+        assertEquals(1, qualityCounts.get(key5).intValue());
     }
 
     @Test
@@ -134,30 +123,24 @@ public class BaseQualityRecalibrationTest
 
         bqrCounter.buildQualityCounts();
 
-        Collection<BqrKeyCounter> qualityCounts = bqrCounter.getQualityCounts();
-
-        BqrKeyCounter qc = qualityCounts.stream().filter(x -> x.Key.equals(keyNone)).findFirst().orElse(null);
-        assertNotNull(qc);
-        assertEquals(3, qc.count());
-
-        qc = qualityCounts.stream().filter(x -> x.Key.equals(keySingle)).findFirst().orElse(null);
-        assertNotNull(qc);
-        assertEquals(2, qc.count());
+        Map<BqrKey,Integer> qualityCounts = bqrCounter.qualityCounts().toKeyCounts();
 
-        qc = qualityCounts.stream().filter(x -> x.Key.equals(keyDualQ1)).findFirst().orElse(null);
-        assertNotNull(qc);
-        assertEquals(4, qc.count());
-
-        qc = qualityCounts.stream().filter(x -> x.Key.equals(keyDualQ2)).findFirst().orElse(null);
-        assertNotNull(qc);
-        assertEquals(2, qc.count());
+        assertEquals(3, qualityCounts.get(keyNone).intValue());
+        assertEquals(2, qualityCounts.get(keySingle).intValue());
+        assertEquals(4, qualityCounts.get(keyDualQ1).intValue());
+        assertEquals(2, qualityCounts.get(keyDualQ2).intValue());
     }
 
     private static void addReadBaseQual(
             final BqrRegionReader bqrCounter, int position, char ref, char alt, final BqrReadType readType, byte quality)
     {
         byte[] context = new byte[] { 65,  (byte)ref, 65};
-        bqrCounter.getOrCreateBaseQualData(position, (byte)ref, context, readType).processReadBase((byte)alt, quality);
+        bqrCounter.addReadBase(position, context, readType, (byte)alt, quality);
+    }
+
+    private static void addReadBase(final BqrRegionReader bqrCounter, int position, final BqrKey key)
+    {
+        bqrCounter.addReadBase(position, key.TrinucleotideContext, key.ReadType, key.Alt, key.Quality);
     }
 
     private BqrKey createKey(char ref, char alt, int qual, final BqrReadType readType)
@@ -0,0 +1,371 @@
+package com.hartwig.hmftools.sage.phase;
+
+import static com.hartwig.hmftools.sage.common.VariantUtils.createReadContext;
+import static com.hartwig.hmftools.sage.common.VariantUtils.createReadCounter;
+import static com.hartwig.hmftools.sage.common.VariantUtils.createSimpleVariant;
+import static com.hartwig.hmftools.sage.phase.VariantPhaser.mergeByExtension;
+import static com.hartwig.hmftools.sage.phase.VariantPhaser.mergeMatching;
+import static com.hartwig.hmftools.sage.phase.VariantPhaser.mergeUninformative;
+
+import static junit.framework.TestCase.assertEquals;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.hartwig.hmftools.sage.evidence.ReadContextCounter;
+
+import org.junit.Test;
+
+public class PhasedGroupIndexTest
+{
+    private static final int COUNTER_COUNT = 40;
+    private static final int GROUP_COUNT = 60;
+    private static final int TRIALS = 50;
+
+    @Test
+    public void testFindOverlappingMatchesLinearSearch()
+    {
+        Random random = new Random(1);
+
+        for(int trial = 0; trial < TRIALS; ++trial)
+        {
+            List<PhasedVariantGroup> groups = Lists.newArrayList();
+
+            for(int i = 0; i < GROUP_COUNT; ++i)
+            {
+                int posMin = 10 * random.nextInt(COUNTER_COUNT);
+                int posMax = posMin + 10 * random.nextInt(random.nextInt(10) < 8 ? 4 : 30);
+                groups.add(new PhasedVariantGroup(i, posMin, posMax, Lists.newArrayList(), Lists.newArrayList()));
+            }
+
+            Collections.sort(groups, new PhasedVariantGroup.PhasedGroupComparator());
+
+            PhasedGroupIndex groupIndex = new PhasedGroupIndex(groups);
+
+            for(int i = 0; i < groups.size(); ++i)
+            {
+                if(random.nextInt(5) == 0)
+                    groupIndex.markRemoved(groups.get(i));
+            }
+
+            for(int i = 0; i < groups.size(); ++i)
+            {
+                PhasedVariantGroup group = groups.get(i);
+
+                assertEquals(linearFindOverlapping(groups, groupIndex, group, 0), groupIndex.findOverlapping(group, 0));
+                assertEquals(linearFindOverlapping(groups, groupIndex, group, i + 1), groupIndex.findOverlapping(group, i + 1));
+            }
+        }
+    }
+
+    @Test
+    public void testMergesMatchLinearSearch()
+    {
+        // the same groups merged using the index and using the previous search over all pairs give the same groups
+        List<ReadContextCounter> readCounters = Lists.newArrayList();
+
+        for(int i = 0; i < COUNTER_COUNT; ++i)
+        {
+            // some variants share a position
+            readCounters.add(createReadCounter(i, createReadContext(createSimpleVariant(10 + 10 * (i - i / 5)))));
+        }
+
+        Random random = new Random(1);
+
+        for(int trial = 0; trial < TRIALS; ++trial)
+        {
+            List<GroupSpec> groupSpecs = Lists.newArrayList();
+
+            for(int i = 0; i < GROUP_COUNT; ++i)
+            {
+                groupSpecs.add(randomGroup(random));
+            }
+
+            List<PhasedVariantGroup> indexedGroups = createGroups(groupSpecs, readCounters);
+            List<PhasedVariantGroup> linearGroups = createGroups(groupSpecs, readCounters);
+
+            mergeMatching(indexedGroups);
+            linearMergeMatching(linearGroups);
+            assertEquals(describe(linearGroups), describe(indexedGroups));
+
+            mergeByExtension(indexedGroups);
+            linearMergeByExtension(linearGroups);
+            assertEquals(describe(linearGroups), describe(indexedGroups));
+
+            mergeUninformative(indexedGroups);
+            linearMergeUninformative(linearGroups);
+            assertEquals(describe(linearGroups), describe(indexedGroups));
+
+            mergeByExtension(indexedGroups);
+            linearMergeByExtension(linearGroups);
+            assertEquals(describe(linearGroups), describe(indexedGroups));
+        }
+    }
+
+    private static List<PhasedVariantGroup> linearFindOverlapping(
+            final List<PhasedVariantGroup> groups, final PhasedGroupIndex groupIndex, final PhasedVariantGroup group, int minIndex)
+    {
+        List<PhasedVariantGroup> overlapGroups = Lists.newArrayList();
+
+        for(int j = minIndex; j < groups.size(); ++j)
+        {
+            PhasedVariantGroup otherGroup = groups.get(j);
+
+            if(otherGroup != group && !groupIndex.isRemoved(j) && group.positionsOverlap(otherGroup))
+                overlapGroups.add(otherGroup);
+        }
+
+        return overlapGroups;
+    }
+
+    private static class GroupSpec
+    {
+        public final List<Integer> PosCounters;
+        public final List<Integer> NegCounters;
+        public final int ReadCount;
+
+        public GroupSpec(final List<Integer> posCounters, final List<Integer> negCounters, int readCount)
+        {
+            PosCounters = posCounters;
+            NegCounters = negCounters;
+            ReadCount = readCount;
+        }
+    }
+
+    private static GroupSpec randomGroup(final Random random)
+    {
+        // a read covers a few nearby variants, supporting some and not others
+        int start = random.nextInt(COUNTER_COUNT - 5);
+        int end = start + 2 + random.nextInt(4);
+        List<Integer> posCounters = Lists.newArrayList();
+        List<Integer> negCounters = Lists.newArrayList();
+
+        for(int i = start; i < end; ++i)
+        {
+            if(posCounters.isEmpty() || random.nextInt(3) > 0)
+                posCounters.add(i);
+            else
+                negCounters.add(i);
+        }
+
+        return new GroupSpec(posCounters, negCounters, 1 + random.nextInt(3));
+    }
+
+    private static List<PhasedVariantGroup> createGroups(final List<GroupSpec> groupSpecs, final List<ReadContextCounter> readCounters)
+    {
+        List<PhasedVariantGroup> groups = Lists.newArrayList();
+
+        for(GroupSpec groupSpec : groupSpecs)
+        {
+            List<ReadContextCounter> posCounters = groupSpec.PosCounters.stream().map(readCounters::get).collect(Collectors.toList());
+            List<ReadContextCounter> negCounters = groupSpec.NegCounters.stream().map(readCounters::get).collect(Collectors.toList());
+
+            PhasedVariantGroup group = new PhasedVariantGroup(
+                    groups.size(), posCounters.get(0).position(), posCounters.get(posCounters.size() - 1).position(),
+                    posCounters, negCounters);
+
+            group.ReadCount = groupSpec.ReadCount;
+            groups.add(group);
+        }
+
+        Collections.sort(groups, new PhasedVariantGroup.PhasedGroupComparator());
+        return groups;
+    }
+
+    private static String describe(final List<PhasedVariantGroup> groups)
+    {
+        StringJoiner sj = new StringJoiner("\n");
+
+        for(PhasedVariantGroup group : groups)
+        {
+            sj.add(String.format("%d pos(%s) neg(%s) rc(%d) alloc(%.6f)", group.Id,
+                    group.PositiveReadCounters.stream().map(x -> String.valueOf(x.id())).collect(Collectors.joining(",")),
+                    group.NegativeReadCounters.stream().map(x -> String.valueOf(x.id())).collect(Collectors.joining(",")),
+                    group.ReadCount, group.AllocatedReadCount));
+        }
+
+        return sj.toString();
+    }
+
+    // the merge routines as they were before the positional index, comparing each group with every other group
+
+    private static void linearMergeMatching(final List<PhasedVariantGroup> filteredGroups)
+    {
+        if(filteredGroups.size() < 2)
+            return;
+
+        int i = 0;
+        while(i < filteredGroups.size())
+        {
+            PhasedVariantGroup group = filteredGroups.get(i);
+
+            List<PhasedVariantGroup> superGroups = Lists.newArrayList();
+
+            for(int j = i + 1; j < filteredGroups.size(); ++j)
+            {
+                PhasedVariantGroup otherGroup = filteredGroups.get(j);
+
+                if(group.positionsOverlap(otherGroup) && group.isSubsetOf(otherGroup))
+                    superGroups.add(otherGroup);
+            }
+
+            if(superGroups.isEmpty())
+            {
+                if(group.PositiveReadCounters.size() == 1)
+                {
+                    filteredGroups.remove(group);
+                    continue;
+                }
+            }
+            else
+            {
+                if(superGroups.stream().noneMatch(x -> x.PositiveReadCounters.size() > group.PositiveReadCounters.size()))
+                {
+                    for(PhasedVariantGroup superGroup : superGroups)
+                    {
+                        group.merge(superGroup);
+                    }
+
+                    filteredGroups.removeAll(superGroups);
+                }
+            }
+
+            ++i;
+        }
+    }
+
+    private static void linearMergeByExtension(final List<PhasedVariantGroup> filteredGroups)
+    {
+        if(filteredGroups.size() < 2)
+            return;
+
+        List<ReadContextCounter> commonPosCounters = Lists.newArrayList();
+        List<ReadContextCounter> commonNegCounters = Lists.newArrayList();
+        Set<PhasedVariantGroup> modifiedGroups = Sets.newHashSet();
+        Set<PhasedVariantGroup> lastModifiedGroups = Sets.newHashSet();
+        boolean initialLoop = true;
+
+        while(initialLoop || !modifiedGroups.isEmpty())
+        {
+            lastModifiedGroups.clear();
+            lastModifiedGroups.addAll(modifiedGroups);
+            modifiedGroups.clear();
+
+            for(int i = 0; i < filteredGroups.size(); ++i)
+            {
+                PhasedVariantGroup group = filteredGroups.get(i);
+
+                if(!initialLoop && !lastModifiedGroups.contains(group))
+                    continue;
+
+                List<PhasedVariantGroup> candidateGroups = Lists.newArrayList(group);
+
+                commonPosCounters.clear();
+                commonNegCounters.clear();
+
+                for(int j = 0; j < filteredGroups.size(); ++j)
+                {
+                    if(j == i)
+                        continue;
+
+                    PhasedVariantGroup otherPhasedGroup = filteredGroups.get(j);
+
+                    if(!group.positionsOverlap(otherPhasedGroup))
+                        continue;
+
+                    if(commonPosCounters.isEmpty())
+                    {
+                        if(!group.populateCommon(otherPhasedGroup, commonPosCounters, commonNegCounters))
+                            continue;
+
+                        candidateGroups.add(otherPhasedGroup);
+                    }
+                    else if(candidateGroups.stream().allMatch(x -> otherPhasedGroup.hasCommonSubset(x, commonPosCounters, commonNegCounters)))
+                    {
+                        candidateGroups.add(otherPhasedGroup);
+                    }
+                }
+
+                if(candidateGroups.size() == 1)
+                    continue;
+
+                commonPosCounters.addAll(commonNegCounters);
+                int minSubsetPos = commonPosCounters.stream().mapToInt(x -> x.position()).min().orElse(0);
+                int maxSubsetPos = commonPosCounters.stream().mapToInt(x -> x.position()).max().orElse(0);
+
+                List<PhasedVariantGroup> lowerGroups = candidateGroups.stream()
+                        .filter(x -> x.variantMin() < minSubsetPos && x.variantMax() == maxSubsetPos).collect(Collectors.toList());
+
+                List<PhasedVariantGroup> upperGroups = candidateGroups.stream()
+                        .filter(x -> x.variantMin() == minSubsetPos && x.variantMax() > maxSubsetPos).collect(Collectors.toList());
+
+                if(lowerGroups.size() == 1 || upperGroups.size() == 1)
+                {
+                    PhasedVariantGroup mergedGroup = lowerGroups.size() == 1 ? lowerGroups.get(0) : upperGroups.get(0);
+
+                    List<PhasedVariantGroup> mergingGroups = lowerGroups.size() == 1 ? upperGroups : lowerGroups;
+
+                    if(mergingGroups.isEmpty())
+                        mergingGroups = candidateGroups.stream().filter(x -> x != mergedGroup).collect(Collectors.toList());
+
+                    double totalReads = mergingGroups.stream().mapToInt(x -> x.ReadCount).sum();
+
+                    for(PhasedVariantGroup otherGroup : mergingGroups)
+                    {
+                        double allocFraction = otherGroup.ReadCount / totalReads;
+                        otherGroup.merge(mergedGroup, allocFraction);
+                        modifiedGroups.add(otherGroup);
+                    }
+
+                    filteredGroups.remove(mergedGroup);
+                    break;
+                }
+            }
+
+            initialLoop = false;
+        }
+    }
+
+    private static void linearMergeUninformative(final List<PhasedVariantGroup> filteredGroups)
+    {
+        int index = 0;
+        while(index < filteredGroups.size())
+        {
+            PhasedVariantGroup group = filteredGroups.get(index);
+
+            if(group.PositiveReadCounters.size() == 1)
+            {
+                ReadContextCounter readCounter = group.PositiveReadCounters.get(0);
+
+                if(filteredGroups.stream().filter(x -> x != group).noneMatch(x -> group.PositiveReadCounters.contains(readCounter)))
+                {
+                    filteredGroups.remove(group);
+                    continue;
+                }
+            }
+
+            List<PhasedVariantGroup> matchingGroups = filteredGroups.stream()
+                    .filter(x -> x != group)
+                    .filter(x -> group.positivesMatch(x) || x.isSubsetOf(group))
+                    .collect(Collectors.toList());
+
+            if(!matchingGroups.isEmpty())
+            {
+                for(PhasedVariantGroup otherGroup : matchingGroups)
+                {
+                    group.merge(otherGroup);
+                }
+
+                filteredGroups.removeAll(matchingGroups);
+            }
+
+            ++index;
+        }
+    }
+}
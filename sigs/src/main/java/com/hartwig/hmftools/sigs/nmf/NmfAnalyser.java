@@ -122,6 +122,12 @@ public class NmfAnalyser
 
     private void runNmf()
     {
+        if(mConfig.Threads > 1)
+        {
+            runNmfConcurrently();
+            return;
+        }
+
         mPerfCounter.start("NMF");
 
         int startSigCount = mConfig.SigCount;
@@ -168,6 +174,62 @@ public class NmfAnalyser
         mPerfCounter.logStats();
     }
 
+    private void runNmfConcurrently()
+    {
+        mPerfCounter.start("NMF");
+
+        int startSigCount = mConfig.SigCount;
+        int maxSigCount = max(mConfig.SigExpansionCount, mConfig.SigCount);
+
+        List<NmfRun> nmfRuns = Lists.newArrayList();
+
+        for(int sigCount = startSigCount; sigCount <= maxSigCount; ++sigCount)
+        {
+            nmfRuns.add(new NmfRun(mConfig, sigCount, mNmfCalculator, mReferenceSigs));
+        }
+
+        NmfRunExecutor runExecutor = new NmfRunExecutor(mNmfCalculator, nmfRuns, mConfig.RunCount, mConfig.Threads);
+        runExecutor.run();
+
+        mPerfCounter.stop();
+
+        // evaluate in signature count order, as for sequential runs
+        double lowestRunScore = -1;
+        int lowestRunIndex = -1;
+
+        for(NmfRun nmfRun : nmfRuns)
+        {
+            if(!nmfRun.completeRuns())
+            {
+                LOGGER.warn("run with sigCount({}) invalid, exiting", nmfRun.getSigCount());
+                break;
+            }
+
+            if(lowestRunScore < 0 || nmfRun.getLowestRunScore() < lowestRunScore)
+            {
+                lowestRunScore = nmfRun.getLowestRunScore();
+                lowestRunIndex = mRuns.size();
+            }
+
+            mRuns.add(nmfRun);
+        }
+
+        if(!mRuns.isEmpty())
+        {
+            final NmfRun nmfRun = mRuns.get(lowestRunIndex);
+
+            if(mRuns.size() > 1)
+            {
+                LOGGER.info("optimal sigCount({})", nmfRun.getSigCount());
+            }
+
+            writeSignatures(nmfRun.getBestSignatures());
+            writeContributions(nmfRun.getBestContributions());
+        }
+
+        mPerfCounter.logStats();
+    }
+
     private void runFitOnly()
     {
         if(mReferenceSigs == null)
@@ -13,6 +13,7 @@ import java.util.Random;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.utils.Matrix;
+import com.hartwig.hmftools.common.utils.MatrixKernels;
 import com.hartwig.hmftools.common.utils.MatrixUtils;
 
 import org.apache.logging.log4j.LogManager;
@@ -56,6 +57,17 @@ public class NmfCalculator
 
     private Random mRandom;
 
+    // flat row-major copies of the counts and W, H and V, plus working arrays for the update products
+    private final double[] mCountsFlat;
+    private double[] mWFlat;
+    private double[] mHFlat;
+    private double[] mVFlat;
+    private double[] mHAdj;
+    private double[] mHDenom;
+    private double[] mWAdj;
+    private double[] mWDenom;
+    private double[] mWHFlat;
+
     // internal constants
     private static double MIN_COST_CHANGE_PERCENT = 0.00001;
 
@@ -103,6 +115,17 @@ public class NmfCalculator
 
         // could seed from config instead
         mRandom = new Random(123456);
+
+        mCountsFlat = MatrixKernels.toFlat(mSampleCounts);
+    }
+
+    // a calculator for running restarts concurrently with the other, with its own copy of the counts and working matrices
+    public NmfCalculator(final NmfCalculator other)
+    {
+        this(new Matrix(other.mSampleCounts), other.mConfig);
+
+        mRefSignatures = other.mRefSignatures;
+        mRefContributions = other.mRefContributions;
     }
 
     public void setSigCount(int sigCount) { mSigCount = sigCount; }
@@ -124,6 +147,8 @@ public class NmfCalculator
     public double[] getSampleTotals() { return mSampleTotals; }
     public double getTotalResiduals() { return mTotalResiduals; }
     public void clearLowestCost() { mLowestCost = 0; }
+    public void setLowestCost(double lowestCost) { mLowestCost = lowestCost; }
+    public double getLowestCost() { return mLowestCost; }
 
     public double getTotalCount() { return mTotalCount; }
     public final Matrix getRefSignatures() { return mRefSignatures; }
@@ -131,20 +156,49 @@ public class NmfCalculator
     public boolean isValid() { return mIsValid; }
 
     public void performRun(final int runId)
+    {
+        if(!initialiseRun(runId))
+            return;
+
+        calculateRun();
+    }
+
+    // sets the starting signatures and contributions for a run, without fitting them
+    public boolean initialiseRun(final int runId)
     {
         mRunId = runId;
         mIsValid = false;
         mTotalResiduals = 0;
 
         if(mSigCount <= 0)
-            return;
+            return false;
 
 //        LOGGER.debug("initialised with samples({}) buckets({}) sigCount({}) totalCount({})",
 //                mSampleCount, mBucketCount, mSigCount, mTotalCount);
 
         initSignatures();
         initContributions();
+        return true;
+    }
 
+    // fits from starting signatures and contributions set up by another calculator
+    public void performRun(final int runId, final Matrix startSignatures, final Matrix startContributions)
+    {
+        mRunId = runId;
+        mIsValid = false;
+        mTotalResiduals = 0;
+
+        if(mSigCount <= 0)
+            return;
+
+        mW = new Matrix(startSignatures);
+        mH = new Matrix(startContributions);
+
+        calculateRun();
+    }
+
+    private void calculateRun()
+    {
         if(mConfig.LogVerbose && mRefSignatures != null && mRefContributions != null)
         {
             MatrixUtils.multiply(mW, mH, mV, true);
@@ -484,7 +538,29 @@ public class NmfCalculator
 
     public void produceFit()
     {
-        MatrixUtils.multiply(mW, mH, mV, true); // ensure fit is the latest
+        // ensure fit is the latest
+        allocateFlatData();
+        MatrixKernels.toFlat(mW, mWFlat);
+        MatrixKernels.toFlat(mH, mHFlat);
+        MatrixKernels.multiply(mWFlat, mHFlat, mVFlat, mBucketCount, mW.Cols, mSampleCount);
+        MatrixKernels.fromFlat(mVFlat, mV);
+    }
+
+    private void allocateFlatData()
+    {
+        int sigCount = mW.Cols;
+
+        if(mWFlat != null && mWFlat.length == mBucketCount * sigCount)
+            return;
+
+        mWFlat = new double[mBucketCount * sigCount];
+        mHFlat = new double[sigCount * mSampleCount];
+        mVFlat = new double[mBucketCount * mSampleCount];
+        mHAdj = new double[sigCount * mSampleCount];
+        mHDenom = new double[sigCount * mSampleCount];
+        mWAdj = new double[mBucketCount * sigCount];
+        mWDenom = new double[mBucketCount * sigCount];
+        mWHFlat = new double[mBucketCount * mSampleCount];
     }
 
     private void applyAdjustments()
@@ -507,32 +583,56 @@ public class NmfCalculator
         // the multiplicative update method (described by Lee and Seund, 2001)
         // https://papers.nips.cc/paper/1861-algorithms-for-non-negative-matrix-factorization.pdf
 
-        // update contribution matrix
-        Matrix wt = mW.transpose();
-        Matrix hAdj = MatrixUtils.multiply(wt, mSampleCounts);
-        Matrix hd = MatrixUtils.multiply(wt, mV);
+        // the flat copies of W, H and V are current from the preceding fit
+        int sigCount = mW.Cols;
 
-        MatrixUtils.scalarDivide(hAdj, hd, true);
-        MatrixUtils.scalarMultiply(mH, hAdj);
+        // update contribution matrix: H *= (Wt x counts) / (Wt x V), leaving values with a zero denominator undivided
+        MatrixKernels.multiplyTransposeFirst(mWFlat, mCountsFlat, mHAdj, sigCount, mBucketCount, mSampleCount);
+        MatrixKernels.multiplyTransposeFirst(mWFlat, mVFlat, mHDenom, sigCount, mBucketCount, mSampleCount);
+
+        for(int i = 0; i < mHFlat.length; ++i)
+        {
+            double adjust = mHAdj[i];
+
+            if(mHDenom[i] != 0)
+                adjust /= mHDenom[i];
+
+            mHFlat[i] *= adjust;
+        }
+
+        MatrixKernels.fromFlat(mHFlat, mH);
 
         if(mConfig.SigFloatRate > 0)
         {
-            // update signatures matrix
-            Matrix ht = mH.transpose();
-            Matrix wAdj = MatrixUtils.multiply(mSampleCounts, ht);
-            Matrix wd1 = MatrixUtils.multiply(mW, mH);
-            Matrix wd = MatrixUtils.multiply(wd1, ht);
+            // update signatures matrix: W *= (counts x Ht) / (W x H x Ht)
+            MatrixKernels.multiplyTransposeSecond(mCountsFlat, mHFlat, mWAdj, mBucketCount, mSampleCount, sigCount);
+            MatrixKernels.multiply(mWFlat, mHFlat, mWHFlat, mBucketCount, sigCount, mSampleCount);
+            MatrixKernels.multiplyTransposeSecond(mWHFlat, mHFlat, mWDenom, mBucketCount, mSampleCount, sigCount);
 
-            MatrixUtils.scalarDivide(wAdj, wd, true);
+            int adjustColLimit = mConfig.SigFloatRate == 1 ? 0 : mRefSignatures.Cols;
 
-            if(mConfig.SigFloatRate == 1)
+            for(int i = 0; i < mWFlat.length; ++i)
             {
-                MatrixUtils.scalarMultiply(mW, wAdj);
-            }
-            else
-            {
-                MatrixUtils.scalarMultiplyRateAdjusted(mW, wAdj, mConfig.SigFloatRate, mRefSignatures.Cols);
+                double adjust = mWAdj[i];
+
+                if(mWDenom[i] != 0)
+                    adjust /= mWDenom[i];
+
+                if((i % sigCount) < adjustColLimit)
+                {
+                    // dampen the adjustment for the ref signatures
+                    if(adjust >= 1)
+                        mWFlat[i] *= 1 + (adjust - 1) * mConfig.SigFloatRate;
+                    else
+                        mWFlat[i] *= 1 - (1 - adjust) * mConfig.SigFloatRate;
+                }
+                else
+                {
+                    mWFlat[i] *= adjust;
+                }
             }
+
+            MatrixKernels.fromFlat(mWFlat, mW);
         }
     }
 
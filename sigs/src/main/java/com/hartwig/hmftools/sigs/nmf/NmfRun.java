@@ -26,6 +26,8 @@ public class NmfRun {
 
     // record data for the best run
     private double mLowestResidualCount;
+    private double mLowestCost; // lowest fit cost of the restarts so far, carried into each subsequent restart
+    private int mBestRunIndex;
     private Matrix mBestSignatures;
     private Matrix mBestContributions;
     private List<Matrix> mUniqueSignatures;
@@ -55,6 +57,8 @@ public class NmfRun {
         mBucketCount = mCalculator.getSampleCounts().Rows;
 
         mLowestResidualCount = -1;
+        mLowestCost = 0;
+        mBestRunIndex = -1;
         mBestSignatures = null;
         mBestContributions = null;
         mUniqueSignatures = Lists.newArrayList();
@@ -69,14 +73,16 @@ public class NmfRun {
 
     public int getSigCount() { return mSigCount; }
 
-    public boolean isValid() { return mValid; }
-
     public double getLowestRunScore() { return mLowestResidualCount; }
 
+    public synchronized double getLowestCost() { return mLowestCost; }
+
     public final Matrix getBestSignatures() { return mBestSignatures; }
 
     public final Matrix getBestContributions() { return mBestContributions; }
 
+    public final Matrix getRandomStartSignatures() { return mRandomStartSignatures; }
+
     public boolean run()
     {
         mValid = true;
@@ -89,8 +95,6 @@ public class NmfRun {
 
         PerformanceCounter runPC = new PerformanceCounter("NMF Runs");
 
-        boolean hasValidRun = false;
-
         for (int i = 0; i < mConfig.RunCount; ++i)
         {
             runPC.start();
@@ -103,40 +107,70 @@ public class NmfRun {
                 break;
             }
 
-            double newRunScore = mCalculator.getTotalResiduals();
-            final Matrix newSigs = mCalculator.getSignatures();
+            addRunResult(i, mCalculator);
+        }
 
-            if (i == 0 || !hasValidRun)
-            {
-                hasValidRun = true;
+        mPerfCounter.stop();
 
-                mLowestResidualCount = newRunScore;
-                mBestSignatures = new Matrix(newSigs);
-                mBestContributions = new Matrix(mCalculator.getContributions());
+        if (!completeRuns())
+            return false;
 
-                // mUniqueSignatures.add(new SigMatrix(newSigs));
-            }
-            else
-            {
-                if (newRunScore < mLowestResidualCount)
-                {
-                    double residualsPercent = newRunScore / mCalculator.getTotalCount();
-                    LOGGER.debug(String.format("run %d: score lowered(%.0f > %.0f) percent(%.5f)",
-                            i, mLowestResidualCount, newRunScore, residualsPercent));
-
-                    mLowestResidualCount = newRunScore;
-                    mBestSignatures.setData(newSigs.getData());
-                    mBestContributions.setData(mCalculator.getContributions().getData());
-                }
-
-                // store if this new signature is significantly different
-                // cacheUniqueSignatures(newSigs); // currently unused
-            }
+        mPerfCounter.logStats();
+        runPC.logStats();
+
+        return mValid;
+    }
+
+    // prepares for restarts which are run concurrently and registered through addRunResult
+    public void initialiseConcurrentRuns()
+    {
+        mValid = true;
+        mBestRunIndex = -1;
+        mLowestCost = 0;
+    }
+
+    public synchronized boolean isValid() { return mValid; }
+
+    public synchronized void markInvalid()
+    {
+        LOGGER.warn("sigCount({}) has invalid NMF run", mSigCount);
+        mValid = false;
+    }
+
+    // keeps the run with the lowest residuals, taking the earliest run where residuals are equal
+    public synchronized void addRunResult(int runIndex, final NmfCalculator calculator)
+    {
+        double newRunScore = calculator.getTotalResiduals();
+        mLowestCost = calculator.getLowestCost();
+
+        if (mBestRunIndex < 0)
+        {
+            mBestRunIndex = runIndex;
+            mLowestResidualCount = newRunScore;
+            mBestSignatures = new Matrix(calculator.getSignatures());
+            mBestContributions = new Matrix(calculator.getContributions());
+            return;
         }
 
-        mPerfCounter.stop();
+        if (newRunScore < mLowestResidualCount || (newRunScore == mLowestResidualCount && runIndex < mBestRunIndex))
+        {
+            double residualsPercent = newRunScore / calculator.getTotalCount();
+            LOGGER.debug(String.format("run %d: score lowered(%.0f > %.0f) percent(%.5f)",
+                    runIndex, mLowestResidualCount, newRunScore, residualsPercent));
+
+            mBestRunIndex = runIndex;
+            mLowestResidualCount = newRunScore;
+            mBestSignatures.setData(calculator.getSignatures().getData());
+            mBestContributions.setData(calculator.getContributions().getData());
+        }
+
+        // store if this new signature is significantly different
+        // cacheUniqueSignatures(newSigs); // currently unused
+    }
 
-        if (!mValid)
+    public boolean completeRuns()
+    {
+        if (!mValid || mBestSignatures == null)
             return false;
 
         double bestFitPercent = mLowestResidualCount / mCalculator.getTotalCount();
@@ -152,10 +186,7 @@ public class NmfRun {
 
         sigReporter.runAnalysis();
 
-        mPerfCounter.logStats();
-        runPC.logStats();
-
-        return mValid;
+        return true;
     }
 
     private void cacheUniqueSignatures(final Matrix newSigs) {
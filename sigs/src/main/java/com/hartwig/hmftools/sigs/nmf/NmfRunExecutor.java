@@ -0,0 +1,188 @@
+package com.hartwig.hmftools.sigs.nmf;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.utils.Matrix;
+import com.hartwig.hmftools.common.utils.TaskExecutor;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// runs the signature counts concurrently, with each thread fitting on its own calculator. Starting signatures and
+// contributions are drawn in sequential order from the single seeding calculator, and each signature count's restarts run
+// one at a time in run order starting from that count's lowest cost, so the cost-based early exit and iteration extension
+// behave exactly as when run sequentially
+public class NmfRunExecutor
+{
+    private final NmfCalculator mSeedCalculator;
+    private final List<NmfRun> mRuns;
+    private final int mRunCount;
+    private final int mThreads;
+
+    private int mNextJob; // next start to draw from the seeding calculator
+    private final List<Deque<RunStart>> mPendingStarts; // starts drawn but not yet run, per signature count
+    private final boolean[] mRunActive; // whether a restart is in progress for each signature count
+
+    private static final Logger LOGGER = LogManager.getLogger(NmfRunExecutor.class);
+
+    public NmfRunExecutor(final NmfCalculator seedCalculator, final List<NmfRun> runs, int runCount, int threads)
+    {
+        mSeedCalculator = seedCalculator;
+        mRuns = runs;
+        mRunCount = runCount;
+        mThreads = threads;
+        mNextJob = 0;
+        mPendingStarts = Lists.newArrayList();
+        mRuns.forEach(x -> mPendingStarts.add(new ArrayDeque<>()));
+        mRunActive = new boolean[mRuns.size()];
+    }
+
+    public void run()
+    {
+        mRuns.forEach(NmfRun::initialiseConcurrentRuns);
+
+        // restarts for a signature count run in order, so there is no use for more threads than signature counts
+        List<Callable> workers = Lists.newArrayList();
+
+        for(int i = 0; i < Math.min(mThreads, mRuns.size()); ++i)
+        {
+            workers.add(new RunWorker(new NmfCalculator(mSeedCalculator)));
+        }
+
+        LOGGER.info("running {} NMF restart(s) across {} signature count(s) with {} threads",
+                mRuns.size() * mRunCount, mRuns.size(), workers.size());
+
+        TaskExecutor.executeTasks(workers, workers.size());
+    }
+
+    private class RunStart
+    {
+        public final int RunId;
+        public final NmfRun Run;
+        public final int RunIndex;
+        public final Matrix Signatures;
+        public final Matrix Contributions;
+
+        public RunStart(int runId, final NmfRun run, int runIndex, final Matrix signatures, final Matrix contributions)
+        {
+            RunId = runId;
+            Run = run;
+            RunIndex = runIndex;
+            Signatures = signatures;
+            Contributions = contributions;
+        }
+    }
+
+    // takes the next start for a signature count with no restart in progress, waiting while all remaining ones are in use
+    private synchronized RunStart nextRunStart() throws InterruptedException
+    {
+        while(true)
+        {
+            boolean anyActive = false;
+
+            for(int runId = 0; runId < mRuns.size(); ++runId)
+            {
+                if(mRunActive[runId])
+                {
+                    anyActive = true;
+                    continue;
+                }
+
+                Deque<RunStart> pendingStarts = mPendingStarts.get(runId);
+
+                while(pendingStarts.isEmpty() && mNextJob < mRuns.size() * mRunCount)
+                {
+                    drawNextStart();
+                }
+
+                // an invalid restart ends the signature count, as for sequential runs
+                if(pendingStarts.isEmpty() || !mRuns.get(runId).isValid())
+                {
+                    pendingStarts.clear();
+                    continue;
+                }
+
+                mRunActive[runId] = true;
+                return pendingStarts.poll();
+            }
+
+            if(!anyActive)
+                return null;
+
+            wait();
+        }
+    }
+
+    private synchronized void completeRunStart(final RunStart runStart)
+    {
+        mRunActive[runStart.RunId] = false;
+        notifyAll();
+    }
+
+    // draws starts in job order so the seeding calculator's random state advances as for sequential runs
+    private void drawNextStart()
+    {
+        int runId = mNextJob / mRunCount;
+        NmfRun nmfRun = mRuns.get(runId);
+        int runIndex = mNextJob % mRunCount;
+        ++mNextJob;
+
+        if(runIndex == 0)
+        {
+            mSeedCalculator.setSigCount(nmfRun.getSigCount());
+            mSeedCalculator.setRandomSignatures(nmfRun.getRandomStartSignatures());
+        }
+
+        if(!mSeedCalculator.initialiseRun(runIndex))
+        {
+            nmfRun.markInvalid();
+            return;
+        }
+
+        mPendingStarts.get(runId).add(new RunStart(
+                runId, nmfRun, runIndex, new Matrix(mSeedCalculator.getSignatures()), new Matrix(mSeedCalculator.getContributions())));
+    }
+
+    private class RunWorker implements Callable
+    {
+        private final NmfCalculator mCalculator;
+
+        public RunWorker(final NmfCalculator calculator)
+        {
+            mCalculator = calculator;
+        }
+
+        @Override
+        public Long call() throws InterruptedException
+        {
+            RunStart runStart = nextRunStart();
+
+            while(runStart != null)
+            {
+                try
+                {
+                    mCalculator.setSigCount(runStart.Run.getSigCount());
+                    mCalculator.setLowestCost(runStart.Run.getLowestCost());
+                    mCalculator.performRun(runStart.RunIndex, runStart.Signatures, runStart.Contributions);
+
+                    if(mCalculator.isValid())
+                        runStart.Run.addRunResult(runStart.RunIndex, mCalculator);
+                    else
+                        runStart.Run.markInvalid();
+                }
+                finally
+                {
+                    completeRunStart(runStart);
+                }
+
+                runStart = nextRunStart();
+            }
+
+            return (long)0;
+        }
+    }
+}
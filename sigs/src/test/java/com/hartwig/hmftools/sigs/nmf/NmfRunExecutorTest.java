@@ -0,0 +1,122 @@
+package com.hartwig.hmftools.sigs.nmf;
+
+import static com.hartwig.hmftools.common.utils.TaskExecutor.THREADS;
+import static com.hartwig.hmftools.sigs.nmf.NmfConfig.NMF_EXIT_LEVEL;
+import static com.hartwig.hmftools.sigs.nmf.NmfConfig.NMF_MAX_ITERATIONS;
+import static com.hartwig.hmftools.sigs.nmf.NmfConfig.NMF_RUN_COUNT;
+import static com.hartwig.hmftools.sigs.nmf.NmfConfig.NMF_SIG_COUNT;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.utils.Matrix;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.junit.Test;
+
+public class NmfRunExecutorTest
+{
+    private static final int SIG_COUNT_LOW = 2;
+    private static final int SIG_COUNT_HIGH = 4;
+
+    @Test
+    public void testConcurrentRunsMatchSequential() throws ParseException
+    {
+        NmfConfig config = createConfig();
+        Matrix sampleCounts = createSampleCounts();
+
+        NmfCalculator sequentialCalculator = new NmfCalculator(new Matrix(sampleCounts), config);
+        List<NmfRun> sequentialRuns = Lists.newArrayList();
+
+        for(int sigCount = SIG_COUNT_LOW; sigCount <= SIG_COUNT_HIGH; ++sigCount)
+        {
+            NmfRun nmfRun = new NmfRun(config, sigCount, sequentialCalculator, null);
+            assertTrue(nmfRun.run());
+            sequentialRuns.add(nmfRun);
+        }
+
+        NmfCalculator seedCalculator = new NmfCalculator(new Matrix(sampleCounts), config);
+        List<NmfRun> concurrentRuns = Lists.newArrayList();
+
+        for(int sigCount = SIG_COUNT_LOW; sigCount <= SIG_COUNT_HIGH; ++sigCount)
+        {
+            concurrentRuns.add(new NmfRun(config, sigCount, seedCalculator, null));
+        }
+
+        new NmfRunExecutor(seedCalculator, concurrentRuns, config.RunCount, 3).run();
+
+        for(int i = 0; i < sequentialRuns.size(); ++i)
+        {
+            NmfRun sequentialRun = sequentialRuns.get(i);
+            NmfRun concurrentRun = concurrentRuns.get(i);
+
+            assertTrue(concurrentRun.completeRuns());
+            assertEquals(sequentialRun.getLowestRunScore(), concurrentRun.getLowestRunScore(), 0);
+            assertMatrixEquals(sequentialRun.getBestSignatures(), concurrentRun.getBestSignatures());
+            assertMatrixEquals(sequentialRun.getBestContributions(), concurrentRun.getBestContributions());
+        }
+    }
+
+    private static void assertMatrixEquals(final Matrix expected, final Matrix actual)
+    {
+        assertEquals(expected.Rows, actual.Rows);
+
+        for(int i = 0; i < expected.Rows; ++i)
+        {
+            assertArrayEquals(expected.getData()[i], actual.getData()[i], 0);
+        }
+    }
+
+    private static NmfConfig createConfig() throws ParseException
+    {
+        Options options = new Options();
+        NmfConfig.addCmdLineArgs(options);
+
+        String[] args = {
+                "-" + NMF_SIG_COUNT, String.valueOf(SIG_COUNT_LOW), "-" + NMF_RUN_COUNT, "6", "-" + NMF_MAX_ITERATIONS, "40",
+                "-" + NMF_EXIT_LEVEL, "0", "-" + THREADS, "3" };
+
+        CommandLine cmd = new DefaultParser().parse(options, args);
+        return new NmfConfig(cmd);
+    }
+
+    private static Matrix createSampleCounts()
+    {
+        // samples drawn from a few underlying signatures with noise
+        Random random = new Random(42);
+        int bucketCount = 12;
+        int sampleCount = 20;
+        int sigCount = 3;
+
+        Matrix sampleCounts = new Matrix(bucketCount, sampleCount);
+
+        for(int s = 0; s < sampleCount; ++s)
+        {
+            for(int sig = 0; sig < sigCount; ++sig)
+            {
+                double contribution = random.nextInt(200);
+
+                for(int b = 0; b < bucketCount; ++b)
+                {
+                    double bucketRatio = (b % sigCount == sig ? 0.25 : 0.02);
+                    sampleCounts.set(b, s, sampleCounts.get(b, s) + Math.round(contribution * bucketRatio));
+                }
+            }
+
+            for(int b = 0; b < bucketCount; ++b)
+            {
+                sampleCounts.set(b, s, sampleCounts.get(b, s) + random.nextInt(3));
+            }
+        }
+
+        return sampleCounts;
+    }
+}
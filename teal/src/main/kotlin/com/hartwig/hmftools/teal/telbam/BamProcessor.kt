@@ -3,8 +3,8 @@ package com.hartwig.hmftools.teal.telbam
 import com.hartwig.hmftools.common.region.ChrBaseRegion
 import com.hartwig.hmftools.common.bam.BamSlicer
 import com.hartwig.hmftools.teal.ReadGroup
-import com.hartwig.hmftools.teal.TealUtils
 import com.hartwig.hmftools.teal.TealUtils.createPartitions
+import com.hartwig.hmftools.teal.util.TelomereScanner
 import htsjdk.samtools.SAMRecord
 import htsjdk.samtools.SamReader
 import htsjdk.samtools.SamReaderFactory
@@ -134,7 +134,8 @@ object BamProcessor
     private fun processReadRecord(record: SAMRecord, telBamRecordQ: Queue<TelBamRecord>, incompleteReadNames: Set<String>,
         readCount: MutableInt)
     {
-        val hasTeloContent = TealUtils.hasTelomericContent(record.readString)
+        // scan the read bases directly to avoid creating a read string for every record
+        val hasTeloContent = TelomereScanner.hasTelomericContent(record.readBases)
         if (!hasTeloContent && !incompleteReadNames.contains(record.readName))
         {
             return
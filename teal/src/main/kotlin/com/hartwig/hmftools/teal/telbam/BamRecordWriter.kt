@@ -2,8 +2,8 @@ package com.hartwig.hmftools.teal.telbam
 
 import com.hartwig.hmftools.common.bam.SamRecordUtils
 import com.hartwig.hmftools.teal.ReadGroup
-import com.hartwig.hmftools.teal.TealUtils.hasTelomericContent
 import com.hartwig.hmftools.teal.TealUtils.openSamReader
+import com.hartwig.hmftools.teal.util.TelomereScanner
 import htsjdk.samtools.SAMFileWriter
 import htsjdk.samtools.SAMFileWriterFactory
 import htsjdk.samtools.SAMRecord
@@ -201,7 +201,7 @@ class BamRecordWriter(config: TelbamParams,
         row.setInt("posEnd", record.alignmentEnd)
         row.setString("mateChr", record.mateReferenceName)
         row.setInt("matePosStart", record.mateAlignmentStart)
-        row.setBoolean("hasTeloContent", hasTelomericContent(record.readString))
+        row.setBoolean("hasTeloContent", TelomereScanner.hasTelomericContent(record.readBases))
         row.setString("cigar", record.cigarString)
         row.setInt("insertSize", record.inferredInsertSize)
         row.setBoolean("firstInPair", SamRecordUtils.firstInPair(record))
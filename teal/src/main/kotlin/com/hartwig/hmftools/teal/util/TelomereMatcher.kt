@@ -33,7 +33,7 @@ object TelomereMatcher
         val telomereTemplateLength = (seq.length * 1.2).toInt() + 6
 
         // we provide a template that is 1.5x as long as the original sequence
-        val alignment: LocalSequenceAligner.Alignment = sAligner.alignSequence(seq, generateTelomereTemplate(telomereTemplateLength, gRich))
+        val alignment: LocalSequenceAligner.Alignment = sAligner.alignSequence(seq, telomereTemplate(telomereTemplateLength, gRich))
 
         val numMatch = alignment.operators.count({ op -> op == AlignmentOperator.MATCH })
 
@@ -49,6 +49,20 @@ object TelomereMatcher
         return TelomereMatch(alignment.firstSequenceAlignStart, alignment.firstSequenceAlignEnd, numMatch, matchSeq)
     }
 
+    // templates are prebuilt and sliced per sequence rather than regenerated for each call
+    private const val PREBUILT_TEMPLATE_LENGTH = 2048
+    private val sGTelomereTemplate = generateTelomereTemplate(PREBUILT_TEMPLATE_LENGTH, gRich = true)
+    private val sCTelomereTemplate = generateTelomereTemplate(PREBUILT_TEMPLATE_LENGTH, gRich = false)
+
+    private fun telomereTemplate(length: Int, gRich: Boolean): String
+    {
+        if (length > PREBUILT_TEMPLATE_LENGTH)
+            return generateTelomereTemplate(length, gRich)
+
+        val template = if (gRich) sGTelomereTemplate else sCTelomereTemplate
+        return template.substring(0, length)
+    }
+
     private fun generateTelomereTemplate(length: Int, gRich: Boolean): String
     {
         val canonicalHexamer = if (gRich) TealConstants.CANONICAL_TELOMERE_SEQ else TealConstants.CANONICAL_TELOMERE_SEQ_REV
@@ -0,0 +1,215 @@
+package com.hartwig.hmftools.teal.util
+
+import com.hartwig.hmftools.teal.TealConstants
+
+// scans read bases for telomeric repeats directly on the byte array from SAMRecord.getReadBases(),
+// avoiding conversion of every read to a String. None of the functions here allocate
+object TelomereScanner
+{
+    private const val MIN_CANONICAL_COUNT = 4
+    private const val MIN_CONSECUTIVE_HEXAMERS = 6
+    private const val HEXAMER_LENGTH = 6
+
+    // maximum number of any base, then G / C, allowed before the telomeric hexamers start
+    private const val MAX_LEADING_BASES = 2
+    private const val MAX_LEADING_REPEAT_BASES = 3
+
+    private val G_TELOMERE_HEXAMER = TealConstants.CANONICAL_TELOMERE_SEQ.toByteArray()
+    private val C_TELOMERE_HEXAMER = TealConstants.CANONICAL_TELOMERE_SEQ_REV.toByteArray()
+
+    // state machines which accept once the consecutive canonical repeats (TTAGGGTTAGGG or CCCTAACCCTAA) are seen
+    private val G_CONTENT_STATES = buildStateTable(TealConstants.CANONICAL_TELOMERE_SEQUENCES[0].toByteArray())
+    private val C_CONTENT_STATES = buildStateTable(TealConstants.CANONICAL_TELOMERE_SEQUENCES[1].toByteArray())
+    private val CONTENT_PATTERN_LENGTH = TealConstants.CANONICAL_TELOMERE_SEQUENCES[0].length
+
+    private val G_BASE = 'G'.code.toByte()
+    private val C_BASE = 'C'.code.toByte()
+
+    private const val BASE_INDEX_COUNT = 5
+    private const val OTHER_BASE_INDEX = 4
+
+    private fun baseIndex(base: Byte): Int
+    {
+        return when (base.toInt().toChar())
+        {
+            'A' -> 0
+            'C' -> 1
+            'G' -> 2
+            'T' -> 3
+            else -> OTHER_BASE_INDEX
+        }
+    }
+
+    // KMP automaton: next state for each (state, base) pair, where the state is the length of the matched pattern prefix
+    private fun buildStateTable(pattern: ByteArray): Array<IntArray>
+    {
+        val states = Array(pattern.size + 1) { IntArray(BASE_INDEX_COUNT) }
+        states[0][baseIndex(pattern[0])] = 1
+
+        var fallbackState = 0
+
+        for (state in 1..pattern.size)
+        {
+            for (b in 0 until BASE_INDEX_COUNT)
+            {
+                states[state][b] = states[fallbackState][b]
+            }
+
+            if (state < pattern.size)
+            {
+                val patternBase = baseIndex(pattern[state])
+                states[state][patternBase] = state + 1
+                fallbackState = states[fallbackState][patternBase]
+            }
+        }
+
+        return states
+    }
+
+    @JvmStatic
+    fun hasTelomericContent(readBases: ByteArray): Boolean
+    {
+        var gState = 0
+        var cState = 0
+
+        for (base in readBases)
+        {
+            val b = baseIndex(base)
+            gState = G_CONTENT_STATES[gState][b]
+            cState = C_CONTENT_STATES[cState][b]
+
+            if (gState == CONTENT_PATTERN_LENGTH || cState == CONTENT_PATTERN_LENGTH)
+                return true
+        }
+
+        return false
+    }
+
+    @JvmStatic
+    fun isLikelyGTelomeric(readBases: ByteArray): Boolean
+    {
+        return isLikelyTelomeric(readBases, G_TELOMERE_HEXAMER, G_BASE)
+    }
+
+    @JvmStatic
+    fun isLikelyCTelomeric(readBases: ByteArray): Boolean
+    {
+        return isLikelyTelomeric(readBases, C_TELOMERE_HEXAMER, C_BASE)
+    }
+
+    // the read must contain enough canonical hexamers, and must start with at least 6 consecutive telomere-like
+    // hexamers (NNNGGG or NNNCCC). Only the start of the read is matched to allow for the poly G tail that many reads have.
+    // Up to 2 bases and then up to 3 repeat bases are allowed before the first hexamer
+    private fun isLikelyTelomeric(readBases: ByteArray, canonicalHexamer: ByteArray, repeatBase: Byte): Boolean
+    {
+        if (countHexamer(readBases, canonicalHexamer) < MIN_CANONICAL_COUNT)
+            return false
+
+        for (leadingBases in 0..MAX_LEADING_BASES)
+        {
+            if (leadingBases > 0 && !isAcgt(readBases, leadingBases - 1))
+                break
+
+            for (leadingRepeatBases in 0..MAX_LEADING_REPEAT_BASES)
+            {
+                val hexamerStart = leadingBases + leadingRepeatBases
+
+                if (leadingRepeatBases > 0 && (hexamerStart > readBases.size || readBases[hexamerStart - 1] != repeatBase))
+                    break
+
+                if (matchesHexamerRun(readBases, hexamerStart, repeatBase))
+                    return true
+            }
+        }
+
+        return false
+    }
+
+    // count of non-overlapping occurrences of the hexamer
+    @JvmStatic
+    fun countHexamer(readBases: ByteArray, hexamer: ByteArray): Int
+    {
+        var count = 0
+        var index = 0
+        val lastStart = readBases.size - hexamer.size
+
+        while (index <= lastStart)
+        {
+            var matched = true
+
+            for (j in hexamer.indices)
+            {
+                if (readBases[index + j] != hexamer[j])
+                {
+                    matched = false
+                    break
+                }
+            }
+
+            if (matched)
+            {
+                ++count
+                index += hexamer.size
+            }
+            else
+            {
+                ++index
+            }
+        }
+
+        return count
+    }
+
+    private fun matchesHexamerRun(readBases: ByteArray, startIndex: Int, repeatBase: Byte): Boolean
+    {
+        if (startIndex + MIN_CONSECUTIVE_HEXAMERS * HEXAMER_LENGTH > readBases.size)
+            return false
+
+        for (h in 0 until MIN_CONSECUTIVE_HEXAMERS)
+        {
+            val hexStart = startIndex + h * HEXAMER_LENGTH
+
+            for (i in 0 until 3)
+            {
+                if (!isAcgt(readBases, hexStart + i))
+                    return false
+            }
+
+            for (i in 3 until HEXAMER_LENGTH)
+            {
+                if (readBases[hexStart + i] != repeatBase)
+                    return false
+            }
+
+            // exclude a run of 6 repeat bases, ie GGGGGG
+            if (readBases[hexStart] == repeatBase && readBases[hexStart + 1] == repeatBase && readBases[hexStart + 2] == repeatBase)
+                return false
+        }
+
+        return true
+    }
+
+    private fun isAcgt(readBases: ByteArray, index: Int): Boolean
+    {
+        return index < readBases.size && baseIndex(readBases[index]) != OTHER_BASE_INDEX
+    }
+
+    // determine if the read is poly G, using a threshold of 90% G or C bases
+    @JvmStatic
+    fun isPolyGC(readBases: ByteArray): Boolean
+    {
+        var gCount = 0
+        var cCount = 0
+
+        for (base in readBases)
+        {
+            if (base == G_BASE)
+                ++gCount
+            else if (base == C_BASE)
+                ++cCount
+        }
+
+        val gcFrac = Math.max(gCount, cCount).toDouble() / readBases.size
+        return gcFrac >= TealConstants.POLY_G_THRESHOLD
+    }
+}
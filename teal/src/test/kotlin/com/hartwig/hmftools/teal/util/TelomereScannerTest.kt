@@ -0,0 +1,56 @@
+package com.hartwig.hmftools.teal.util
+
+import com.hartwig.hmftools.teal.TealConstants
+import com.hartwig.hmftools.teal.TealUtils
+import kotlin.test.*
+
+class TelomereScannerTest
+{
+    @Test
+    fun testTelomericContent()
+    {
+        val g = TealConstants.CANONICAL_TELOMERE_SEQ
+        val c = TealConstants.CANONICAL_TELOMERE_SEQ_REV
+
+        assertTrue(TelomereScanner.hasTelomericContent(("AGCT" + g + "AGCT" + g + g + "GG").toByteArray()))
+        assertFalse(TelomereScanner.hasTelomericContent(("AGCT" + g + "AGCT" + g + "GG").toByteArray()))
+        assertTrue(TelomereScanner.hasTelomericContent(("NNTT" + c + c).toByteArray()))
+
+        // partial repeats which restart mid-pattern
+        assertTrue(TelomereScanner.hasTelomericContent("TTAGGTTAGGGTTAGGG".toByteArray()))
+        assertFalse(TelomereScanner.hasTelomericContent("TAGGGTTAGGGT".toByteArray()))
+        assertFalse(TelomereScanner.hasTelomericContent("TTAGGGNTAGGG".toByteArray()))
+        assertFalse(TelomereScanner.hasTelomericContent(ByteArray(0)))
+    }
+
+    @Test
+    fun testLikelyTelomeric()
+    {
+        val readBasesG = "AGGGTTAGGGTTAGGGTTAGGGTTAGGGTTAGGGTTAGGGTTAGGGTTAGGGTTAGGGTTAGGGTTAGGGTTAGGGTTAGTGTTAGGG"
+        val readBasesC = "CTAACCCTAACCCTAACCCTAACCCTAACCCTAACCCTAACCCTAAACCTAACCCAAACCCTAACCCAAACCCTAACCCTAACCCTAAC"
+
+        assertTrue(TelomereScanner.isLikelyGTelomeric(readBasesG.toByteArray()))
+        assertFalse(TelomereScanner.isLikelyCTelomeric(readBasesG.toByteArray()))
+        assertFalse(TelomereScanner.isLikelyGTelomeric(readBasesC.toByteArray()))
+        assertTrue(TelomereScanner.isLikelyCTelomeric(readBasesC.toByteArray()))
+
+        // leading bases before the repeats
+        assertTrue(TelomereScanner.isLikelyGTelomeric(("ACGGG" + "TTAGGG".repeat(6)).toByteArray()))
+        assertFalse(TelomereScanner.isLikelyGTelomeric(("ACATG" + "TTAGGG".repeat(6)).toByteArray()))
+        assertFalse(TelomereScanner.isLikelyGTelomeric(("NTTAGGG" + "TTAGGG".repeat(6)).toByteArray()))
+
+        // a run of GGGGGG breaks the hexamers
+        assertFalse(TelomereScanner.isLikelyGTelomeric(("TTAGGG".repeat(3) + "GGGGGG" + "TTAGGG".repeat(4)).toByteArray()))
+
+        // too few hexamers at the start of the read
+        assertFalse(TelomereScanner.isLikelyGTelomeric(("TTAGGG".repeat(5) + "TTATTT" + "TTAGGG".repeat(4)).toByteArray()))
+    }
+
+    @Test
+    fun testPolyGC()
+    {
+        assertTrue(TelomereScanner.isPolyGC("GGGGGGGGGGGGGGGGGGGA".toByteArray()))
+        assertFalse(TelomereScanner.isPolyGC("GGGGGGGGGGGGGGGGGGAA".toByteArray()))
+        assertTrue(TealUtils.isPolyGC("CCCCCCCCCT"))
+    }
+}